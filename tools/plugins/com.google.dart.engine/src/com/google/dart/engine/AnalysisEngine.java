@@ -14,6 +14,7 @@
 package com.google.dart.engine;
 
 import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.internal.cache.CacheMemoryBudget;
 import com.google.dart.engine.internal.cache.PartitionManager;
 import com.google.dart.engine.internal.context.AnalysisContextImpl;
 import com.google.dart.engine.internal.context.InstrumentedAnalysisContextImpl;
@@ -120,6 +121,12 @@ public final class AnalysisEngine {
    */
   private PartitionManager partitionManager = new PartitionManager();
 
+  /**
+   * The budget shared by all of the contexts created by this engine that limits the estimated size
+   * of the AST structures they keep in their caches.
+   */
+  private CacheMemoryBudget cacheMemoryBudget = new CacheMemoryBudget();
+
   /**
    * A flag indicating whether union types should be used.
    */
@@ -161,6 +168,17 @@ public final class AnalysisEngine {
     return new InstrumentedAnalysisContextImpl(new AnalysisContextImpl());
   }
 
+  /**
+   * Return the budget shared by all of the contexts created by this engine that limits the
+   * estimated size of the AST structures they keep in their caches. The budget is not limited
+   * unless a maximum size has been set for it.
+   * 
+   * @return the budget limiting the size of the AST structures cached by all contexts
+   */
+  public CacheMemoryBudget getCacheMemoryBudget() {
+    return cacheMemoryBudget;
+  }
+
   /**
    * Return {@code true} if union types are enabled.
    * 
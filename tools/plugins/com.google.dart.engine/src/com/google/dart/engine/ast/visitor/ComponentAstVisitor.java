@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.ast.visitor;
+
+import com.google.dart.engine.ast.AstNode;
+
+import java.util.ArrayList;
+
+/**
+ * Instances of the class {@code ComponentAstVisitor} implement an AST visitor that is run by a
+ * {@link CompositeAstVisitor} together with other component visitors, so that a single traversal
+ * of an AST structure serves all of them.
+ * <p>
+ * Component visitors do not visit the children of the nodes they are given; the composite visitor
+ * does that. Each node is passed to the appropriate {@code visit} method before any of its
+ * children, and to {@link #exitNode(AstNode)} after all of its children. A component that does not
+ * want to visit some part of the structure can {@link #skip(AstNode) skip} it.
+ * 
+ * @coverage dart.engine.ast
+ */
+public abstract class ComponentAstVisitor extends SimpleAstVisitor<Void> {
+  /**
+   * The nodes that have been skipped by this visitor but not yet reached by the composite visitor.
+   * Skipped nodes are reached soon after they are skipped, so there are rarely more than a few of
+   * them and a list compared by identity is cheaper than a set.
+   */
+  private final ArrayList<AstNode> skippedNodes = new ArrayList<AstNode>();
+
+  /**
+   * This method is invoked after all of the children of the given node have been visited. Any state
+   * that was established when the node was visited should be restored here. Subclasses that have
+   * such state should override this method; the default implementation does nothing.
+   * 
+   * @param node the node whose children have been visited
+   */
+  public void exitNode(AstNode node) {
+  }
+
+  /**
+   * Prevent this visitor from visiting part of the structure being traversed. If the given node is
+   * the node currently being visited then none of its children will be visited, but
+   * {@link #exitNode(AstNode)} will still be invoked for it. If the given node is a descendant of
+   * the node currently being visited then neither it nor any of its children will be visited.
+   * 
+   * @param node the node to be skipped, or {@code null} if there is nothing to skip
+   */
+  protected void skip(AstNode node) {
+    if (node != null) {
+      skippedNodes.add(node);
+    }
+  }
+
+  /**
+   * Forget any nodes that were skipped by this visitor but never reached.
+   */
+  void clearSkipped() {
+    skippedNodes.clear();
+  }
+
+  /**
+   * Return {@code true} if the given node was skipped by this visitor, forgetting that it was
+   * skipped so that a node is only reported once.
+   * 
+   * @param node the node being tested
+   * @return {@code true} if the given node was skipped by this visitor
+   */
+  boolean consumeSkipped(AstNode node) {
+    for (int i = skippedNodes.size() - 1; i >= 0; i--) {
+      if (skippedNodes.get(i) == node) {
+        skippedNodes.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.ast.visitor;
+
+import com.google.dart.engine.ast.AstNode;
+import com.google.dart.engine.utilities.general.TimeCounter;
+
+import java.util.ArrayList;
+
+/**
+ * Instances of the class {@code CompositeAstVisitor} traverse an AST structure once, passing each
+ * node to each of a list of {@link ComponentAstVisitor component visitors}. This allows several
+ * independent analyses of a structure to be performed without traversing the structure once for
+ * each of them.
+ * <p>
+ * The components are given each node in the order in which they were added. A component that has
+ * skipped a node is not given that node or any of its descendants, but the other components are.
+ * The time spent in each component can optionally be recorded in a {@link TimeCounter}. Doing so
+ * reads the clock several times for every node, so the clock is not read at all during a traversal
+ * in which no time is being recorded.
+ * <p>
+ * Instances of this class are not reentrant: a structure must be completely traversed before
+ * another traversal is started.
+ * 
+ * @coverage dart.engine.ast
+ */
+public class CompositeAstVisitor extends UnifyingAstVisitor<Void> {
+  /**
+   * The components to which nodes will be passed.
+   */
+  private final ArrayList<ComponentAstVisitor> componentList = new ArrayList<ComponentAstVisitor>();
+
+  /**
+   * The counters in which the time spent in each component will be recorded, parallel to the list
+   * of components. An element is {@code null} if the time spent in the component is not recorded.
+   */
+  private final ArrayList<TimeCounter> counterList = new ArrayList<TimeCounter>();
+
+  /**
+   * The components of the current traversal.
+   */
+  private ComponentAstVisitor[] components;
+
+  /**
+   * For each component of the current traversal, the node at which the component was suspended
+   * because the node was skipped, or {@code null} if the component is not suspended.
+   */
+  private AstNode[] suspendedNodes;
+
+  /**
+   * For each component of the current traversal, {@code true} if the node at which the component
+   * was suspended was visited by the component before it was skipped, in which case the component
+   * needs to be notified when the node is exited.
+   */
+  private boolean[] suspendedNodeVisited;
+
+  /**
+   * For each component of the current traversal, the number of nanoseconds spent in it so far, or
+   * {@code null} if the time spent in the components is not being recorded.
+   */
+  private long[] elapsedTimes;
+
+  /**
+   * Add the given component to the components to which nodes will be passed.
+   * 
+   * @param component the component to be added
+   */
+  public void addComponent(ComponentAstVisitor component) {
+    addComponent(component, null);
+  }
+
+  /**
+   * Add the given component to the components to which nodes will be passed, recording the time
+   * spent in it in the given counter after each traversal.
+   * 
+   * @param component the component to be added
+   * @param counter the counter in which the time spent in the component is to be recorded, or
+   *          {@code null} if the time is not to be recorded
+   */
+  public void addComponent(ComponentAstVisitor component, TimeCounter counter) {
+    componentList.add(component);
+    counterList.add(counter);
+  }
+
+  /**
+   * Traverse the structure rooted at the given node, passing every node in it to the components of
+   * this visitor, then record the time spent in each component.
+   * 
+   * @param node the root of the structure to be traversed
+   */
+  public void traverse(AstNode node) {
+    int count = componentList.size();
+    components = componentList.toArray(new ComponentAstVisitor[count]);
+    suspendedNodes = new AstNode[count];
+    suspendedNodeVisited = new boolean[count];
+    elapsedTimes = isTimed() ? new long[count] : null;
+    try {
+      node.accept(this);
+    } finally {
+      for (int i = 0; i < count; i++) {
+        components[i].clearSkipped();
+        TimeCounter counter = counterList.get(i);
+        if (counter != null) {
+          counter.recordNestedElapsedNanos(elapsedTimes[i]);
+        }
+      }
+      components = null;
+      suspendedNodes = null;
+      suspendedNodeVisited = null;
+      elapsedTimes = null;
+    }
+  }
+
+  @Override
+  public Void visitNode(AstNode node) {
+    if (elapsedTimes != null) {
+      return visitNodeTimed(node);
+    }
+    int count = components.length;
+    for (int i = 0; i < count; i++) {
+      if (suspendedNodes[i] == null) {
+        enterNode(i, node);
+      }
+    }
+    node.visitChildren(this);
+    for (int i = 0; i < count; i++) {
+      AstNode suspendedNode = suspendedNodes[i];
+      if (suspendedNode == null || suspendedNode == node) {
+        exitNode(i, node);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Pass the given node to the component with the given index before the children of the node are
+   * visited, suspending the component if it skips the node.
+   * 
+   * @param index the index of the component
+   * @param node the node being visited
+   */
+  private void enterNode(int index, AstNode node) {
+    ComponentAstVisitor component = components[index];
+    if (component.consumeSkipped(node)) {
+      suspendedNodes[index] = node;
+      suspendedNodeVisited[index] = false;
+    } else {
+      node.accept(component);
+      if (component.consumeSkipped(node)) {
+        suspendedNodes[index] = node;
+        suspendedNodeVisited[index] = true;
+      }
+    }
+  }
+
+  /**
+   * Notify the component with the given index that the children of the given node have been
+   * visited, resuming the component if it was suspended at the node.
+   * 
+   * @param index the index of the component
+   * @param node the node being exited
+   */
+  private void exitNode(int index, AstNode node) {
+    if (suspendedNodes[index] == null || suspendedNodeVisited[index]) {
+      components[index].exitNode(node);
+    }
+    suspendedNodes[index] = null;
+  }
+
+  /**
+   * Return {@code true} if the time spent in any of the components is to be recorded.
+   * 
+   * @return {@code true} if the time spent in any of the components is to be recorded
+   */
+  private boolean isTimed() {
+    for (TimeCounter counter : counterList) {
+      if (counter != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Visit the given node in the same way as {@link #visitNode(AstNode)}, recording the time spent
+   * in each of the components.
+   * 
+   * @param node the node being visited
+   * @return {@code null}
+   */
+  private Void visitNodeTimed(AstNode node) {
+    int count = components.length;
+    long time = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      if (suspendedNodes[i] == null) {
+        enterNode(i, node);
+        long now = System.nanoTime();
+        elapsedTimes[i] += now - time;
+        time = now;
+      }
+    }
+    node.visitChildren(this);
+    time = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      AstNode suspendedNode = suspendedNodes[i];
+      if (suspendedNode == null || suspendedNode == node) {
+        exitNode(i, node);
+        long now = System.nanoTime();
+        elapsedTimes[i] += now - time;
+        time = now;
+      }
+    }
+    return null;
+  }
+}
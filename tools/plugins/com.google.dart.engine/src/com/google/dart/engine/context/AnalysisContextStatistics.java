@@ -67,6 +67,11 @@ public interface AnalysisContextStatistics {
      */
     public int getAstCount();
 
+    /**
+     * Return an estimate of the number of bytes occupied by the AST structures in the partition.
+     */
+    public long getEstimatedAstBytes();
+
     /**
      * Return the total number of entries in the partition.
      */
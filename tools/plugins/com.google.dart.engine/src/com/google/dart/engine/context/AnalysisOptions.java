@@ -32,6 +32,18 @@ public interface AnalysisOptions {
    */
   public boolean getAnalyzeFunctionBodies();
 
+  /**
+   * Return {@code true} if the function bodies in libraries that are neither priority sources nor
+   * open in an editor are to be resolved and verified only when the results of analyzing them are
+   * requested. Until then only the declarations in those libraries are analyzed.
+   * <p>
+   * Units whose function bodies were skipped are indexed with only their declarations. Their
+   * function bodies are resolved, and the units indexed again, when the index is next searched.
+   * 
+   * @return {@code true} if function bodies are to be analyzed only when needed
+   */
+  public boolean getAnalyzeFunctionBodiesLazily();
+
   /**
    * Return {@code true} if analysis is to analyze Polymer.
    * 
@@ -100,6 +112,25 @@ public interface AnalysisOptions {
    */
   public boolean getIncremental();
 
+  /**
+   * Return {@code true} if the results of incremental analysis should be validated by comparing
+   * them with the results of a full analysis of the same contents. Validation is intended for
+   * testing; it does not prevent the full analysis from being performed.
+   * 
+   * @return {@code true} if the results of incremental analysis should be validated
+   */
+  public boolean getIncrementalValidation();
+
+  /**
+   * Return the maximum number of independent analysis tasks (scanning, parsing, error verification
+   * and hint generation) that can be performed concurrently by a single invocation of
+   * {@link AnalysisContext#performAnalysisTask()}. A value of {@code 1} means that tasks are
+   * performed one at a time on the calling thread.
+   * 
+   * @return the maximum number of analysis tasks that can be performed concurrently
+   */
+  public int getParallelTaskCount();
+
   /**
    * Return {@code true} if analysis is to parse comments.
    * 
@@ -17,8 +17,10 @@ import com.google.dart.engine.ast.CompilationUnit;
 import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.html.ast.HtmlUnit;
+import com.google.dart.engine.internal.index.NameQuery;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 /**
  * The interface {@link Index} defines the behavior of objects that maintain an index storing
@@ -28,17 +30,45 @@ import com.google.dart.engine.source.SourceContainer;
  * <p>
  * Despite being asynchronous, the results of the operations are guaranteed to be consistent with
  * the expectation that operations are performed in the order in which they are requested.
- * Modification operations are executed before any read operation. There is no guarantee about the
- * order in which the callbacks for read operations will be invoked.
+ * Modification operations for the same source are executed in order, but read operations might be
+ * executed while units are being indexed, so they see every unit either as it was before it was
+ * indexed or as it is after it was indexed. There is no guarantee about the order in which the
+ * callbacks for read operations will be invoked.
  * 
  * @coverage dart.engine.index
  */
 public interface Index {
+  /**
+   * Asynchronously associate the given context with the given name, which is expected to identify
+   * the same context in every session, e.g. the path of its root folder. The information that was
+   * restored from the previous session for the context with the same name can then be used before
+   * the units of the context are indexed again.
+   * <p>
+   * This method should be invoked when a context is created.
+   * 
+   * @param context the {@link AnalysisContext} being added
+   * @param name the name of the context
+   */
+  void addContext(AnalysisContext context, String name);
+
   /**
    * Asynchronously remove from the index all of the information.
    */
   void clear();
 
+  /**
+   * Asynchronously invoke the given callback with an array containing the locations of the
+   * declarations that have the given relationship with the {@link UniverseElement} and whose names
+   * match the given query. Only the declarations whose names might match the query are looked at,
+   * so this is much faster than getting all of the declarations and filtering them.
+   * 
+   * @param relationship the relationship between the {@link UniverseElement} and the locations to
+   *          be returned
+   * @param query the query the names of the declared elements must match
+   * @param callback the callback that will be invoked when the locations are found
+   */
+  void getDeclarations(Relationship relationship, NameQuery query, RelationshipCallback callback);
+
   /**
    * Asynchronously invoke the given callback with an array containing all of the locations of the
    * elements that have the given relationship with the given element. For example, if the element
@@ -52,6 +82,24 @@ public interface Index {
    */
   void getRelationships(Element element, Relationship relationship, RelationshipCallback callback);
 
+  /**
+   * Asynchronously invoke the given callback with an array containing at most the given number of
+   * the locations of the elements that have the given relationship with the given element. The
+   * index stops looking for locations as soon as the given token is cancelled, and the callback is
+   * invoked with the locations found so far, which is an empty array if the token was cancelled
+   * before the index was searched. This allows a search that only needs some of the locations, or
+   * whose results are no longer needed, to avoid searching the whole index.
+   * 
+   * @param element the element that has the relationship with the locations to be returned
+   * @param relationship the relationship between the given element and the locations to be returned
+   * @param limit the maximum number of locations to return, or zero if all of the locations are to
+   *          be returned
+   * @param token the token used to cancel the search
+   * @param callback the callback that will be invoked when the locations are found
+   */
+  void getRelationships(Element element, Relationship relationship, int limit,
+      CancellationToken token, RelationshipCallback callback);
+
   /**
    * Answer index statistics.
    */
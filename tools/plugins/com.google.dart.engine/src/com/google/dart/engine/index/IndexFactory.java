@@ -13,6 +13,7 @@
  */
 package com.google.dart.engine.index;
 
+import com.google.common.io.ByteStreams;
 import com.google.dart.engine.AnalysisEngine;
 import com.google.dart.engine.internal.index.IndexImpl;
 import com.google.dart.engine.internal.index.MemoryIndexStoreImpl;
@@ -22,15 +23,22 @@ import com.google.dart.engine.internal.index.file.ElementCodec;
 import com.google.dart.engine.internal.index.file.FileManager;
 import com.google.dart.engine.internal.index.file.FileNodeManager;
 import com.google.dart.engine.internal.index.file.NodeManager;
+import com.google.dart.engine.internal.index.file.PackedIndexStoreImpl;
+import com.google.dart.engine.internal.index.file.PagedNodeManager;
 import com.google.dart.engine.internal.index.file.RelationshipCodec;
 import com.google.dart.engine.internal.index.file.SeparateFileManager;
 import com.google.dart.engine.internal.index.file.SplitIndexStoreImpl;
 import com.google.dart.engine.internal.index.file.StringCodec;
 import com.google.dart.engine.internal.index.operation.OperationProcessor;
 import com.google.dart.engine.internal.index.operation.OperationQueue;
+import com.google.dart.engine.internal.index.structure.btree.MappedPageManager;
 import com.google.dart.engine.utilities.translation.DartOmit;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Factory for {@link Index} and {@link IndexStore}.
@@ -39,24 +47,52 @@ import java.io.File;
  */
 @DartOmit
 public class IndexFactory {
+  /**
+   * The name of the file with the state of a file based {@link IndexStore}.
+   */
+  private static final String STATE_FILE_NAME = "index.state";
+
+  /**
+   * The name of the file with the pages of a file based {@link IndexStore}.
+   */
+  private static final String PAGES_FILE_NAME = "index.pages";
+
   /**
    * Returns an instance of {@link IndexStore} that stores data on disk in the given directory.
+   * Index nodes are kept in a single memory-mapped file.
+   * <p>
+   * If the directory contains the index saved using {@link #saveFileIndexStore(IndexStore, File)},
+   * then this index is restored, so only units with changed sources are indexed again. Otherwise
+   * the directory is cleared.
    */
   public static IndexStore newFileIndexStore(File directory) {
-    StringCodec stringCodec = new StringCodec();
-    ContextCodec contextCodec = new ContextCodec();
-    ElementCodec elementCodec = new ElementCodec(stringCodec);
-    RelationshipCodec relationshipCodec = new RelationshipCodec(stringCodec);
     FileManager fileManager = new SeparateFileManager(directory);
-    NodeManager nodeManager = new FileNodeManager(
-        fileManager,
-        AnalysisEngine.getInstance().getLogger(),
-        stringCodec,
-        contextCodec,
-        elementCodec,
-        relationshipCodec);
-    nodeManager = new CachingNodeManager(nodeManager);
-    return newSplitIndexStore(nodeManager);
+    byte[] state = readState(fileManager);
+    if (state == null) {
+      fileManager.clear();
+    }
+    // the state will be written again when the index is saved
+    fileManager.delete(STATE_FILE_NAME);
+    // prepare pages
+    MappedPageManager pageManager;
+    try {
+      pageManager = new MappedPageManager(
+          new File(directory, PAGES_FILE_NAME),
+          PagedNodeManager.PAGE_SIZE);
+    } catch (IOException e) {
+      AnalysisEngine.getInstance().getLogger().logError(
+          "Cannot map index pages, using separate files",
+          e);
+      fileManager.clear();
+      return newFileIndexStore(fileManager);
+    }
+    // restore the state
+    SplitIndexStoreImpl store = newPagedIndexStore(pageManager);
+    if (state == null || !readState(store, state)) {
+      pageManager.clear();
+      store = newPagedIndexStore(pageManager);
+    }
+    return store;
   }
 
   /**
@@ -75,10 +111,118 @@ public class IndexFactory {
     return new MemoryIndexStoreImpl();
   }
 
+  /**
+   * Returns an instance of {@link IndexStore} that keeps all information in memory, encoded as
+   * integers, so that it uses less memory than {@link #newMemoryIndexStore()}.
+   */
+  public static IndexStore newPackedIndexStore() {
+    return new PackedIndexStoreImpl();
+  }
+
   /**
    * Returns an instance of {@link IndexStore} that stores data in the given {@link NodeManager}.
    */
   public static IndexStore newSplitIndexStore(NodeManager nodeManager) {
     return new SplitIndexStoreImpl(nodeManager);
   }
+
+  /**
+   * Saves the state of the given {@link IndexStore} created using {@link #newFileIndexStore(File)}
+   * into the same directory, so that it can be restored in the next session.
+   */
+  public static void saveFileIndexStore(IndexStore store, File directory) {
+    if (!(store instanceof SplitIndexStoreImpl)) {
+      return;
+    }
+    FileManager fileManager = new SeparateFileManager(directory);
+    synchronized (store) {
+      try {
+        OutputStream stream = fileManager.openOutputStream(STATE_FILE_NAME);
+        try {
+          ((SplitIndexStoreImpl) store).writeState(stream);
+        } finally {
+          stream.close();
+        }
+      } catch (Throwable e) {
+        AnalysisEngine.getInstance().getLogger().logError(
+            "Exception during writing index state",
+            e);
+        fileManager.delete(STATE_FILE_NAME);
+      }
+    }
+  }
+
+  /**
+   * Returns a {@link SplitIndexStoreImpl} that keeps each index node in a separate file of the given
+   * {@link FileManager}.
+   */
+  private static SplitIndexStoreImpl newFileIndexStore(FileManager fileManager) {
+    StringCodec stringCodec = new StringCodec();
+    ContextCodec contextCodec = new ContextCodec();
+    ElementCodec elementCodec = new ElementCodec(stringCodec);
+    RelationshipCodec relationshipCodec = new RelationshipCodec(stringCodec);
+    NodeManager nodeManager = new FileNodeManager(
+        fileManager,
+        AnalysisEngine.getInstance().getLogger(),
+        stringCodec,
+        contextCodec,
+        elementCodec,
+        relationshipCodec);
+    nodeManager = new CachingNodeManager(nodeManager);
+    return new SplitIndexStoreImpl(nodeManager);
+  }
+
+  /**
+   * Returns a {@link SplitIndexStoreImpl} that keeps index nodes in the given
+   * {@link MappedPageManager}.
+   */
+  private static SplitIndexStoreImpl newPagedIndexStore(MappedPageManager pageManager) {
+    StringCodec stringCodec = new StringCodec();
+    ContextCodec contextCodec = new ContextCodec();
+    ElementCodec elementCodec = new ElementCodec(stringCodec);
+    RelationshipCodec relationshipCodec = new RelationshipCodec(stringCodec);
+    NodeManager nodeManager = new PagedNodeManager(
+        pageManager,
+        stringCodec,
+        contextCodec,
+        elementCodec,
+        relationshipCodec);
+    return new SplitIndexStoreImpl(nodeManager);
+  }
+
+  /**
+   * Returns the content of the state file of the given {@link FileManager}, or {@code null} if
+   * there is no saved state or it cannot be read.
+   */
+  private static byte[] readState(FileManager fileManager) {
+    try {
+      InputStream stream = fileManager.openInputStream(STATE_FILE_NAME);
+      if (stream == null) {
+        return null;
+      }
+      try {
+        return ByteStreams.toByteArray(stream);
+      } finally {
+        stream.close();
+      }
+    } catch (Throwable e) {
+      AnalysisEngine.getInstance().getLogger().logError("Exception during reading index state", e);
+      return null;
+    }
+  }
+
+  /**
+   * Restores the state of the given {@link SplitIndexStoreImpl} from the given bytes.
+   * 
+   * @return {@code true} if the state was restored, or {@code false} if it cannot be read
+   */
+  private static boolean readState(SplitIndexStoreImpl store, byte[] state) {
+    try {
+      store.readState(new ByteArrayInputStream(state));
+      return true;
+    } catch (Throwable e) {
+      AnalysisEngine.getInstance().getLogger().logError("Exception during reading index state", e);
+      return false;
+    }
+  }
 }
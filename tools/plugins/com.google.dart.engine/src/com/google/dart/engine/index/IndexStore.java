@@ -18,15 +18,17 @@ import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.HtmlElement;
+import com.google.dart.engine.internal.index.NameQuery;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 /**
  * Container of information computed by the index - relationships between elements.
  * 
  * @coverage dart.engine.index
  */
-public interface IndexStore {
+public interface IndexStore extends RelationshipRecorder {
   /**
    * Notifies the index store that we are going to index the unit with the given element.
    * <p>
@@ -51,6 +53,17 @@ public interface IndexStore {
    */
   boolean aboutToIndexHtml(AnalysisContext context, HtmlElement htmlElement);
 
+  /**
+   * Associates the given {@link AnalysisContext} with the given name, which is expected to identify
+   * the same context in every session. A store that keeps its information between sessions may use
+   * the name to associate the information restored for the context with the same name with the
+   * given context.
+   * 
+   * @param context the {@link AnalysisContext} being added
+   * @param name the name of the context
+   */
+  void addContext(AnalysisContext context, String name);
+
   /**
    * Removes all of the information.
    */
@@ -64,6 +77,20 @@ public interface IndexStore {
    */
   void doneIndex();
 
+  /**
+   * Return the locations of the declarations that have the given relationship with the
+   * {@link UniverseElement} and whose names match the given query. The result is the same as the
+   * locations returned by {@link #getRelationships(Element, Relationship)} for the
+   * {@link UniverseElement} whose elements have names matching the query, but a store may keep the
+   * declarations by name so that only the declarations whose names might match are looked at.
+   * 
+   * @param relationship the {@link Relationship} between the {@link UniverseElement} and the
+   *          locations to be returned
+   * @param query the query the names of the declared elements must match
+   * @return the locations of the declarations with matching names
+   */
+  Location[] getDeclarations(Relationship relationship, NameQuery query);
+
   /**
    * Return the locations of the elements that have the given relationship with the given element.
    * For example, if the element represents a method and the relationship is the is-referenced-by
@@ -77,36 +104,42 @@ public interface IndexStore {
    */
   Location[] getRelationships(Element element, Relationship relationship);
 
+  /**
+   * Return at most the given number of the locations of the elements that have the given
+   * relationship with the given element. The store stops looking for locations as soon as it has
+   * found enough of them or the given token has been cancelled, in which case the locations found
+   * so far are returned. This allows a search that only needs some of the locations, or whose results
+   * are no longer needed, to avoid decoding all of them.
+   * 
+   * @param element the the element that has the relationship with the locations to be returned
+   * @param relationship the {@link Relationship} between the given element and the locations to be
+   *          returned
+   * @param limit the maximum number of locations to return, or zero if all of the locations are to
+   *          be returned
+   * @param token the token used to stop looking for locations, or {@code null} if the search
+   *          cannot be cancelled
+   * @return the locations that have the given relationship with the given element
+   */
+  Location[] getRelationships(Element element, Relationship relationship, int limit,
+      CancellationToken token);
+
   /**
    * Answer index statistics.
    */
   String getStatistics();
 
   /**
-   * Record that the given element and location have the given relationship. For example, if the
-   * relationship is the is-referenced-by relationship, then the element would be the element being
-   * referenced and the location would be the point at which it is referenced. Each element can have
-   * the same relationship with multiple locations. In other words, if the following code were
-   * executed
+   * Return {@code true} if the information recorded for the unit with the given element is still up
+   * to date, so that the unit does not need to be visited by the index contributors again. This is
+   * a cheap check, the unit still has to be passed to
+   * {@link #aboutToIndexDart(AnalysisContext, CompilationUnitElement)} to keep the information
+   * about its library up to date.
    * 
-   * <pre>
-   *   recordRelationship(element, isReferencedBy, location1);
-   *   recordRelationship(element, isReferencedBy, location2);
-   * </pre>
-   * 
-   * then both relationships would be maintained in the index and the result of executing
-   * 
-   * <pre>
-   *   getRelationship(element, isReferencedBy);
-   * </pre>
-   * 
-   * would be an array containing both <code>location1</code> and <code>location2</code>.
-   * 
-   * @param element the element that is related to the location
-   * @param relationship the {@link Relationship} between the element and the location
-   * @param location the {@link Location} where relationship happens
+   * @param context the {@link AnalysisContext} in which unit being indexed
+   * @param unitElement the element of the unit being indexed
+   * @return {@code true} if the unit does not need to be indexed again
    */
-  void recordRelationship(Element element, Relationship relationship, Location location);
+  boolean isUpToDate(AnalysisContext context, CompilationUnitElement unitElement);
 
   /**
    * Remove from the index all of the information associated with {@link AnalysisContext}.
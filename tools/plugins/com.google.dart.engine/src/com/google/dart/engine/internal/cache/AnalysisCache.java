@@ -120,6 +120,28 @@ public class AnalysisCache {
     return null;
   }
 
+  /**
+   * Return the object on which a read-modify-write of the entry associated with the given source
+   * must be synchronized, in addition to the lock of the context, so that it cannot interleave with
+   * a modification of the same entry by another context. This is the partition containing the
+   * source, which can be shared by several contexts.
+   * 
+   * @param source the source whose entry is to be modified
+   * @return the object on which the modification of the source's entry must be synchronized
+   */
+  public Object getLockFor(Source source) {
+    if (source == null) {
+      return this;
+    }
+    int count = partitions.length;
+    for (int i = 0; i < count; i++) {
+      if (partitions[i].contains(source)) {
+        return partitions[i];
+      }
+    }
+    return this;
+  }
+
   /**
    * Return information about each of the partitions in this cache.
    * 
@@ -132,6 +154,7 @@ public class AnalysisCache {
       CachePartition partition = partitions[i];
       data[i] = new AnalysisContextStatisticsImpl.PartitionDataImpl(
           partition.getAstSize(),
+          partition.getEstimatedAstBytes(),
           partition.getMap().size());
     }
     return data;
@@ -185,6 +208,28 @@ public class AnalysisCache {
     }
   }
 
+  /**
+   * Associate the given entry with the given source, but only if the source is still associated
+   * with the expected entry, or with no entry if the expected entry is {@code null}. This is used to
+   * record a modified copy of an entry that was read without holding the lock returned by
+   * {@link #getLockFor(Source)}.
+   * 
+   * @param source the source with which the entry is to be associated
+   * @param expectedEntry the entry that the modified entry was copied from
+   * @param entry the entry to be associated with the source
+   * @return {@code true} if the entry was associated with the source, or {@code false} if the
+   *         source's entry was changed after the expected entry was read
+   */
+  public boolean put(Source source, SourceEntry expectedEntry, SourceEntry entry) {
+    int count = partitions.length;
+    for (int i = 0; i < count; i++) {
+      if (partitions[i].contains(source)) {
+        return partitions[i].put(source, expectedEntry, entry);
+      }
+    }
+    return false;
+  }
+
   /**
    * Remove all information related to the given source from this cache.
    * 
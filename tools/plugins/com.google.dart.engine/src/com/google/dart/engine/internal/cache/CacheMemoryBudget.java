@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+import com.google.dart.engine.source.Source;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instances of the class {@code CacheMemoryBudget} limit the estimated number of bytes occupied by
+ * the AST structures kept by a group of {@link CachePartition cache partitions}, typically the
+ * private partitions of all of the contexts created by the analysis engine.
+ * <p>
+ * Each partition adds the change in the estimated size of its AST structures to the budget as its
+ * entries are replaced, and records the time at which each of its AST structures was last used
+ * according to the clock of the budget. When the budget is exceeded, the least recently used AST
+ * structures are flushed across all of the partitions using the budget, so that the structures of
+ * an idle context are flushed before those of a context that is being actively analyzed.
+ */
+public class CacheMemoryBudget {
+  /**
+   * The maximum number of bytes that the AST structures should be estimated to occupy, or {@code 0}
+   * if the AST structures are not limited by their size.
+   */
+  private volatile long maxBytes = 0L;
+
+  /**
+   * An estimate of the number of bytes occupied by the AST structures of the partitions using this
+   * budget.
+   */
+  private final AtomicLong estimatedBytes = new AtomicLong();
+
+  /**
+   * The clock used to order the uses of the AST structures across all of the partitions using this
+   * budget.
+   */
+  private final AtomicLong clock = new AtomicLong();
+
+  /**
+   * The partitions using this budget.
+   */
+  private final CopyOnWriteArrayList<CachePartition> partitions =
+      new CopyOnWriteArrayList<CachePartition>();
+
+  /**
+   * Return an estimate of the number of bytes occupied by the AST structures of the partitions
+   * using this budget.
+   * 
+   * @return an estimate of the number of bytes occupied by the AST structures
+   */
+  public long getEstimatedBytes() {
+    return estimatedBytes.get();
+  }
+
+  /**
+   * Return the maximum number of bytes that the AST structures should be estimated to occupy, or
+   * {@code 0} if the AST structures are not limited by their size.
+   * 
+   * @return the maximum number of bytes that the AST structures should be estimated to occupy
+   */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Flush the least recently used AST structures of the partitions using this budget until the
+   * budget is no longer exceeded. Structures with a priority of {@link RetentionPriority#LOW low}
+   * are flushed before those with a priority of {@link RetentionPriority#MEDIUM medium}, and
+   * structures with a priority of {@link RetentionPriority#HIGH high} are never flushed.
+   * <p>
+   * The caller must not hold the lock of any of the partitions using this budget.
+   * 
+   * @param partition the partition whose AST structures were just used, or {@code null} if no
+   *          structures were used
+   * @param source the source whose AST structures were just used, and which is not to be flushed,
+   *          or {@code null} if no structures were used
+   */
+  public synchronized void flushToBudget(CachePartition partition, Source source) {
+    for (RetentionPriority priority : new RetentionPriority[] {
+        RetentionPriority.LOW, RetentionPriority.MEDIUM}) {
+      while (isExceeded()) {
+        CachePartition oldestPartition = null;
+        long oldestTime = Long.MAX_VALUE;
+        for (CachePartition candidate : partitions) {
+          Source usedSource = candidate == partition ? source : null;
+          long time = candidate.getTimeOfAstToFlush(priority, usedSource);
+          if (time >= 0L && time < oldestTime) {
+            oldestPartition = candidate;
+            oldestTime = time;
+          }
+        }
+        if (oldestPartition == null) {
+          break;
+        }
+        oldestPartition.flushAstUsedAt(oldestTime);
+      }
+    }
+  }
+
+  /**
+   * Return {@code true} if the AST structures of the partitions using this budget are estimated to
+   * occupy more than the maximum number of bytes.
+   * 
+   * @return {@code true} if the AST structures should be flushed until this is no longer the case
+   */
+  public boolean isExceeded() {
+    long max = maxBytes;
+    return max > 0L && estimatedBytes.get() > max;
+  }
+
+  /**
+   * Set the maximum number of bytes that the AST structures should be estimated to occupy to the
+   * given number. The partitions are brought back within the budget the next time one of them is
+   * accessed.
+   * 
+   * @param bytes the maximum number of bytes that the AST structures should be estimated to occupy,
+   *          or {@code 0} if the AST structures are not to be limited by their size
+   */
+  public void setMaxBytes(long bytes) {
+    maxBytes = bytes;
+  }
+
+  /**
+   * Record that the estimated number of bytes occupied by the AST structures of one of the
+   * partitions using this budget has changed by the given number of bytes.
+   * 
+   * @param delta the number of bytes by which the estimate has grown, or a negative number if it
+   *          has shrunk
+   */
+  void addEstimatedBytes(long delta) {
+    if (delta != 0L) {
+      estimatedBytes.addAndGet(delta);
+    }
+  }
+
+  /**
+   * Record that the given partition is using this budget.
+   * 
+   * @param partition the partition that is using this budget
+   */
+  void addPartition(CachePartition partition) {
+    partitions.addIfAbsent(partition);
+  }
+
+  /**
+   * Return the time, according to the clock of this budget, at which some AST structures are being
+   * used. Each invocation returns a later time than all previous invocations.
+   * 
+   * @return the time at which some AST structures are being used
+   */
+  long nextTime() {
+    return clock.incrementAndGet();
+  }
+
+  /**
+   * Record that the given partition is no longer using this budget.
+   * 
+   * @param partition the partition that is no longer using this budget
+   */
+  void removePartition(CachePartition partition) {
+    partitions.remove(partition);
+  }
+}
@@ -25,6 +25,19 @@ import java.util.Map;
 /**
  * Instances of the class {@code CachePartition} implement a single partition in an LRU cache of
  * information related to analysis.
+ * <p>
+ * A partition that is owned by a single context is only accessed while holding that context's
+ * lock. A partition that is shared between contexts (such as an {@link SdkCachePartition}) can be
+ * accessed by several contexts at the same time, each holding only its own lock, so the bookkeeping
+ * and the writes done by the partition itself are synchronized on the partition. A context that
+ * reads an entry in order to record a modified copy of it must either hold the partition's lock
+ * from the read to the write, or record the copy using
+ * {@link #put(Source, SourceEntry, SourceEntry)}.
+ * <p>
+ * A partition using a {@link CacheMemoryBudget memory budget} can also have its AST structures
+ * flushed by the budget while another partition using the same budget is being accessed. The
+ * structures are flushed using {@link #put(Source, SourceEntry, SourceEntry)}, so a flush is
+ * simply lost if the owning context records a new entry for the source at the same time.
  */
 public abstract class CachePartition {
   /**
@@ -38,6 +51,20 @@ public abstract class CachePartition {
    */
   private int maxCacheSize;
 
+  /**
+   * The budget limiting the estimated number of bytes occupied by the AST structures kept in this
+   * partition together with those of the other partitions using the same budget, or {@code null} if
+   * the AST structures are only limited by {@link #maxCacheSize}.
+   */
+  private CacheMemoryBudget memoryBudget;
+
+  /**
+   * An estimate of the number of bytes occupied by the AST structures of the entries in this
+   * partition, updated whenever an entry is added, replaced or removed. Entries are not modified
+   * once they are in the partition, so their estimated size does not change while they are here.
+   */
+  private long astBytes = 0L;
+
   /**
    * The policy used to determine which pieces of data to remove from the cache.
    */
@@ -47,7 +74,7 @@ public abstract class CachePartition {
    * A table mapping the sources belonging to this partition to the information known about those
    * sources.
    */
-  private final HashMap<Source, SourceEntry> sourceMap = new HashMap<Source, SourceEntry>();
+  private final Map<Source, SourceEntry> sourceMap;
 
   /**
    * A list containing the most recently accessed sources with the most recently used at the end of
@@ -56,6 +83,13 @@ public abstract class CachePartition {
    */
   private ArrayList<Source> recentlyUsed;
 
+  /**
+   * A table mapping the sources in the list of recently used sources to the time, according to the
+   * clock of the {@link #memoryBudget memory budget}, at which their AST structures were last used.
+   * The table is empty if there is no memory budget.
+   */
+  private HashMap<Source, Long> usedTimes = new HashMap<Source, Long>();
+
   /**
    * Initialize a newly created cache to maintain at most the given number of AST structures in the
    * cache.
@@ -68,9 +102,26 @@ public abstract class CachePartition {
    */
   public CachePartition(InternalAnalysisContext context, int maxCacheSize,
       CacheRetentionPolicy retentionPolicy) {
+    this(context, maxCacheSize, retentionPolicy, new HashMap<Source, SourceEntry>());
+  }
+
+  /**
+   * Initialize a newly created cache to maintain at most the given number of AST structures in the
+   * cache, storing the entries in the given map.
+   * 
+   * @param context the context that owns this partition
+   * @param maxCacheSize the maximum number of sources for which AST structures should be kept in
+   *          the cache
+   * @param retentionPolicy the policy used to determine which pieces of data to remove from the
+   *          cache
+   * @param sourceMap the (empty) map used to hold the entries in this partition
+   */
+  protected CachePartition(InternalAnalysisContext context, int maxCacheSize,
+      CacheRetentionPolicy retentionPolicy, Map<Source, SourceEntry> sourceMap) {
     this.context = context;
     this.maxCacheSize = maxCacheSize;
     this.retentionPolicy = retentionPolicy;
+    this.sourceMap = sourceMap;
     recentlyUsed = new ArrayList<Source>(maxCacheSize);
   }
 
@@ -80,16 +131,23 @@ public abstract class CachePartition {
    * @param source the source whose AST was accessed
    */
   public void accessedAst(Source source) {
-    if (recentlyUsed.remove(source)) {
-      recentlyUsed.add(source);
-      return;
-    }
-    while (recentlyUsed.size() >= maxCacheSize) {
-      if (!flushAstFromCache()) {
-        break;
+    CacheMemoryBudget budget;
+    synchronized (this) {
+      if (recentlyUsed.remove(source)) {
+        addRecentlyUsed(source);
+        return;
       }
+      while (recentlyUsed.size() >= maxCacheSize) {
+        if (!flushAstFromCache()) {
+          break;
+        }
+      }
+      addRecentlyUsed(source);
+      budget = memoryBudget;
+    }
+    if (budget != null) {
+      budget.flushToBudget(this, source);
     }
-    recentlyUsed.add(source);
   }
 
   /**
@@ -115,7 +173,7 @@ public abstract class CachePartition {
    * 
    * @return the number of entries in this partition that have an AST associated with them
    */
-  public int getAstSize() {
+  public synchronized int getAstSize() {
     int astSize = 0;
     int count = recentlyUsed.size();
     for (int i = 0; i < count; i++) {
@@ -134,6 +192,16 @@ public abstract class CachePartition {
     return astSize;
   }
 
+  /**
+   * Return an estimate of the number of bytes occupied by the AST structures of the entries in this
+   * partition that have an AST associated with them.
+   * 
+   * @return an estimate of the number of bytes occupied by the AST structures in this partition
+   */
+  public synchronized long getEstimatedAstBytes() {
+    return astBytes;
+  }
+
   /**
    * Return the context that owns this partition.
    * 
@@ -163,7 +231,32 @@ public abstract class CachePartition {
    * @return an iterator returning all of the map entries mapping sources to cache entries
    */
   public MapIterator<Source, SourceEntry> iterator() {
-    return new SingleMapIterator<Source, SourceEntry>(sourceMap);
+    final MapIterator<Source, SourceEntry> iterator = new SingleMapIterator<Source, SourceEntry>(
+        sourceMap);
+    return new MapIterator<Source, SourceEntry>() {
+      @Override
+      public Source getKey() {
+        return iterator.getKey();
+      }
+
+      @Override
+      public SourceEntry getValue() {
+        return iterator.getValue();
+      }
+
+      @Override
+      public boolean moveNext() {
+        return iterator.moveNext();
+      }
+
+      @Override
+      public void setValue(SourceEntry newValue) {
+        synchronized (CachePartition.this) {
+          entryReplaced(iterator.getValue(), newValue);
+          iterator.setValue(newValue);
+        }
+      }
+    };
   }
 
   /**
@@ -172,9 +265,28 @@ public abstract class CachePartition {
    * @param source the source with which the entry is to be associated
    * @param entry the entry to be associated with the source
    */
-  public void put(Source source, SourceEntry entry) {
+  public synchronized void put(Source source, SourceEntry entry) {
+    ((SourceEntryImpl) entry).fixExceptionState();
+    entryReplaced(sourceMap.put(source, entry), entry);
+  }
+
+  /**
+   * Associate the given entry with the given source, but only if the source is still associated
+   * with the expected entry, or with no entry if the expected entry is {@code null}.
+   * 
+   * @param source the source with which the entry is to be associated
+   * @param expectedEntry the entry that is expected to be associated with the source
+   * @param entry the entry to be associated with the source
+   * @return {@code true} if the entry was associated with the source
+   */
+  public synchronized boolean put(Source source, SourceEntry expectedEntry, SourceEntry entry) {
+    if (sourceMap.get(source) != expectedEntry) {
+      return false;
+    }
     ((SourceEntryImpl) entry).fixExceptionState();
     sourceMap.put(source, entry);
+    entryReplaced(expectedEntry, entry);
+    return true;
   }
 
   /**
@@ -182,9 +294,9 @@ public abstract class CachePartition {
    * 
    * @param source the source to be removed
    */
-  public void remove(Source source) {
-    recentlyUsed.remove(source);
-    sourceMap.remove(source);
+  public synchronized void remove(Source source) {
+    removeRecentlyUsed(source);
+    entryReplaced(sourceMap.remove(source), null);
   }
 
   /**
@@ -192,8 +304,8 @@ public abstract class CachePartition {
    * 
    * @param source the source whose AST was removed
    */
-  public void removedAst(Source source) {
-    recentlyUsed.remove(source);
+  public synchronized void removedAst(Source source) {
+    removeRecentlyUsed(source);
   }
 
   /**
@@ -201,7 +313,7 @@ public abstract class CachePartition {
    * 
    * @param size the maximum number of sources for which AST structures should be kept in the cache
    */
-  public void setMaxCacheSize(int size) {
+  public synchronized void setMaxCacheSize(int size) {
     maxCacheSize = size;
     while (recentlyUsed.size() > maxCacheSize) {
       if (!flushAstFromCache()) {
@@ -210,6 +322,36 @@ public abstract class CachePartition {
     }
   }
 
+  /**
+   * Set the budget limiting the estimated number of bytes occupied by the AST structures kept in
+   * this partition to the given budget. The AST structures already in this partition are treated
+   * as having been used in least recently used order, and the least recently used structures of
+   * the partitions using the budget are flushed until the budget is no longer exceeded.
+   * 
+   * @param budget the budget limiting the size of the AST structures, or {@code null} if the AST
+   *          structures are only to be limited by the number of sources
+   */
+  public void setMemoryBudget(CacheMemoryBudget budget) {
+    synchronized (this) {
+      if (memoryBudget != null) {
+        memoryBudget.removePartition(this);
+        memoryBudget.addEstimatedBytes(-astBytes);
+      }
+      memoryBudget = budget;
+      usedTimes.clear();
+      if (memoryBudget != null) {
+        memoryBudget.addEstimatedBytes(astBytes);
+        for (Source source : recentlyUsed) {
+          usedTimes.put(source, memoryBudget.nextTime());
+        }
+        memoryBudget.addPartition(this);
+      }
+    }
+    if (budget != null) {
+      budget.flushToBudget(null, null);
+    }
+  }
+
   /**
    * Return the number of sources that are mapped to cache entries.
    * 
@@ -225,15 +367,106 @@ public abstract class CachePartition {
    * @param source the source whose AST was stored
    */
   public void storedAst(Source source) {
-    if (recentlyUsed.contains(source)) {
-      return;
+    CacheMemoryBudget budget;
+    synchronized (this) {
+      if (!recentlyUsed.contains(source)) {
+        while (recentlyUsed.size() >= maxCacheSize) {
+          if (!flushAstFromCache()) {
+            break;
+          }
+        }
+        addRecentlyUsed(source);
+      }
+      // Even if the source was already recently used, the size of its structures might have grown.
+      budget = memoryBudget;
     }
-    while (recentlyUsed.size() >= maxCacheSize) {
-      if (!flushAstFromCache()) {
-        break;
+    if (budget != null) {
+      budget.flushToBudget(this, source);
+    }
+  }
+
+  /**
+   * Flush the AST structures of the recently used source whose structures were last used at the
+   * given time, according to the clock of the memory budget.
+   * <p>
+   * <b>Note:</b> This method is only visible for use by {@link CacheMemoryBudget} and should not be
+   * used for any other purpose.
+   * 
+   * @param time the time at which the structures to be flushed were last used
+   */
+  synchronized void flushAstUsedAt(long time) {
+    for (int i = 0; i < recentlyUsed.size(); i++) {
+      Source source = recentlyUsed.get(i);
+      Long usedTime = usedTimes.get(source);
+      if (usedTime != null && usedTime.longValue() == time) {
+        removeRecentlyUsed(source);
+        flushAstStructures(source);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Return the time, according to the clock of the memory budget, at which the least recently used
+   * AST structures with the given priority were last used, or {@code -1} if there are no such
+   * structures that can be flushed.
+   * <p>
+   * <b>Note:</b> This method is only visible for use by {@link CacheMemoryBudget} and should not be
+   * used for any other purpose.
+   * 
+   * @param priority the priority of the structures that could be flushed
+   * @param excludedSource the source whose structures are not to be flushed, or {@code null} if the
+   *          structures of any source can be flushed
+   * @return the time at which the least recently used structures with the priority were last used
+   */
+  synchronized long getTimeOfAstToFlush(RetentionPriority priority, Source excludedSource) {
+    for (int i = 0; i < recentlyUsed.size(); i++) {
+      Source source = recentlyUsed.get(i);
+      if (!source.equals(excludedSource)
+          && retentionPolicy.getAstPriority(source, sourceMap.get(source)) == priority) {
+        Long usedTime = usedTimes.get(source);
+        if (usedTime != null) {
+          return usedTime.longValue();
+        }
       }
     }
+    return -1L;
+  }
+
+  /**
+   * Add the given source, which must not already be in the list of recently used sources, to the
+   * end of that list.
+   * 
+   * @param source the source whose AST was most recently used
+   */
+  private void addRecentlyUsed(Source source) {
     recentlyUsed.add(source);
+    if (memoryBudget != null) {
+      usedTimes.put(source, memoryBudget.nextTime());
+    }
+  }
+
+  /**
+   * Record that the entry associated with a source in this partition has been replaced, updating
+   * the estimated number of bytes occupied by the AST structures of this partition and its budget.
+   * 
+   * @param oldEntry the entry that was associated with the source, or {@code null} if there was
+   *          none
+   * @param newEntry the entry that is now associated with the source, or {@code null} if there is
+   *          none
+   */
+  private void entryReplaced(SourceEntry oldEntry, SourceEntry newEntry) {
+    long delta = 0L;
+    if (oldEntry != null) {
+      delta -= oldEntry.getEstimatedAstSize();
+    }
+    if (newEntry != null) {
+      delta += newEntry.getEstimatedAstSize();
+    }
+    astBytes += delta;
+    if (memoryBudget != null) {
+      memoryBudget.addEstimatedBytes(delta);
+    }
   }
 
   /**
@@ -246,17 +479,27 @@ public abstract class CachePartition {
     if (removedSource == null) {
       return false;
     }
-    SourceEntry sourceEntry = sourceMap.get(removedSource);
+    flushAstStructures(removedSource);
+    return true;
+  }
+
+  /**
+   * Flush the AST structures associated with the given source, which has already been removed from
+   * the list of recently used sources.
+   * 
+   * @param source the source whose AST structures are to be flushed
+   */
+  private void flushAstStructures(Source source) {
+    SourceEntry sourceEntry = sourceMap.get(source);
     if (sourceEntry instanceof HtmlEntry) {
       HtmlEntryImpl htmlCopy = ((HtmlEntry) sourceEntry).getWritableCopy();
       htmlCopy.flushAstStructures();
-      sourceMap.put(removedSource, htmlCopy);
+      put(source, sourceEntry, htmlCopy);
     } else if (sourceEntry instanceof DartEntry) {
       DartEntryImpl dartCopy = ((DartEntry) sourceEntry).getWritableCopy();
       dartCopy.flushAstStructures();
-      sourceMap.put(removedSource, dartCopy);
+      put(source, sourceEntry, dartCopy);
     }
-    return true;
   }
 
   /**
@@ -272,6 +515,7 @@ public abstract class CachePartition {
       Source source = recentlyUsed.get(i);
       RetentionPriority priority = retentionPolicy.getAstPriority(source, sourceMap.get(source));
       if (priority == RetentionPriority.LOW) {
+        usedTimes.remove(source);
         return recentlyUsed.remove(i);
       } else if (priority == RetentionPriority.MEDIUM && sourceToRemove < 0) {
         sourceToRemove = i;
@@ -283,6 +527,18 @@ public abstract class CachePartition {
       // is bigger than the current cache size.
       return null;
     }
-    return recentlyUsed.remove(sourceToRemove);
+    Source source = recentlyUsed.remove(sourceToRemove);
+    usedTimes.remove(source);
+    return source;
+  }
+
+  /**
+   * Remove the given source from the list of recently used sources.
+   * 
+   * @param source the source to be removed
+   */
+  private void removeRecentlyUsed(Source source) {
+    recentlyUsed.remove(source);
+    usedTimes.remove(source);
   }
 }
@@ -54,6 +54,14 @@ public interface DartEntry extends SourceEntry {
   public static final DataDescriptor<Source[]> EXPORTED_LIBRARIES = new DataDescriptor<Source[]>(
       "DartEntry.EXPORTED_LIBRARIES");
 
+  /**
+   * The data descriptor representing the flag indicating whether the bodies of the functions in the
+   * source were skipped when the source was last resolved, in which case the resolved compilation
+   * unit and the errors only reflect the declarations in the source.
+   */
+  public static final DataDescriptor<Boolean> FUNCTION_BODIES_SKIPPED = new DataDescriptor<Boolean>(
+      "DartEntry.FUNCTION_BODIES_SKIPPED");
+
   /**
    * The data descriptor representing the hints resulting from auditing the source.
    */
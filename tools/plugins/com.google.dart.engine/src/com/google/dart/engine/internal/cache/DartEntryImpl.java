@@ -532,6 +532,11 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    */
   private CacheState launchableState = CacheState.INVALID;
 
+  /**
+   * The state of the cached flag indicating whether function bodies were skipped during resolution.
+   */
+  private CacheState functionBodiesSkippedState = CacheState.INVALID;
+
   /**
    * The error produced while performing Angular resolution, or an empty array if there are no
    * errors if the error are not currently cached.
@@ -551,6 +556,12 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
    */
   private static final int CLIENT_CODE_INDEX = 2;
 
+  /**
+   * The index of the flag indicating whether the bodies of the functions in the compilation unit
+   * were skipped when it was last resolved.
+   */
+  private static final int FUNCTION_BODIES_SKIPPED_INDEX = 3;
+
   /**
    * Initialize a newly created cache entry to be empty.
    */
@@ -641,6 +652,27 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     return containingLibraries;
   }
 
+  @Override
+  public long getEstimatedAstSize() {
+    long size = 0L;
+    if (parsedUnit != null) {
+      size += (long) parsedUnit.getLength() * AST_BYTES_PER_CHARACTER;
+    }
+    ResolutionState state = resolutionState;
+    while (state != null) {
+      CompilationUnit builtUnit = state.builtUnit;
+      if (builtUnit != null && builtUnit != parsedUnit) {
+        size += (long) builtUnit.getLength() * AST_BYTES_PER_CHARACTER;
+      }
+      CompilationUnit resolvedUnit = state.resolvedUnit;
+      if (resolvedUnit != null && resolvedUnit != parsedUnit && resolvedUnit != builtUnit) {
+        size += (long) resolvedUnit.getLength() * AST_BYTES_PER_CHARACTER;
+      }
+      state = state.nextState;
+    }
+    return size;
+  }
+
   @Override
   public SourceKind getKind() {
     return sourceKind;
@@ -699,6 +731,8 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
       return elementState;
     } else if (descriptor == EXPORTED_LIBRARIES) {
       return exportedLibrariesState;
+    } else if (descriptor == FUNCTION_BODIES_SKIPPED) {
+      return functionBodiesSkippedState;
     } else if (descriptor == IMPORTED_LIBRARIES) {
       return importedLibrariesState;
     } else if (descriptor == INCLUDED_PARTS) {
@@ -762,6 +796,8 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
       return (E) element;
     } else if (descriptor == EXPORTED_LIBRARIES) {
       return (E) exportedLibraries;
+    } else if (descriptor == FUNCTION_BODIES_SKIPPED) {
+      return (E) (Boolean) getFlag(FUNCTION_BODIES_SKIPPED_INDEX);
     } else if (descriptor == IMPORTED_LIBRARIES) {
       return (E) importedLibraries;
     } else if (descriptor == INCLUDED_PARTS) {
@@ -829,6 +865,8 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
       return elementState == CacheState.INVALID;
     } else if (descriptor == EXPORTED_LIBRARIES) {
       return exportedLibrariesState == CacheState.INVALID;
+    } else if (descriptor == FUNCTION_BODIES_SKIPPED) {
+      return functionBodiesSkippedState == CacheState.INVALID;
     } else if (descriptor == IMPORTED_LIBRARIES) {
       return importedLibrariesState == CacheState.INVALID;
     } else if (descriptor == INCLUDED_PARTS) {
@@ -1110,6 +1148,9 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     publicNamespace = null;
     publicNamespaceState = CacheState.ERROR;
 
+    clearFlags(FUNCTION_BODIES_SKIPPED_INDEX);
+    functionBodiesSkippedState = CacheState.ERROR;
+
     resolutionState.recordResolutionErrorsInAllLibraries();
   }
 
@@ -1136,6 +1177,9 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     publicNamespace = null;
     publicNamespaceState = CacheState.ERROR;
 
+    clearFlags(FUNCTION_BODIES_SKIPPED_INDEX);
+    functionBodiesSkippedState = CacheState.ERROR;
+
     ResolutionState state = getOrCreateResolutionState(librarySource);
     state.recordResolutionError();
   }
@@ -1159,6 +1203,9 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     if (publicNamespaceState == CacheState.IN_PROCESS) {
       publicNamespaceState = CacheState.INVALID;
     }
+    if (functionBodiesSkippedState == CacheState.IN_PROCESS) {
+      functionBodiesSkippedState = CacheState.INVALID;
+    }
     resolutionState.recordResolutionNotInProcess();
   }
 
@@ -1288,6 +1335,9 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     } else if (descriptor == EXPORTED_LIBRARIES) {
       exportedLibraries = updatedValue(state, exportedLibraries, Source.EMPTY_ARRAY);
       exportedLibrariesState = state;
+    } else if (descriptor == FUNCTION_BODIES_SKIPPED) {
+      updateValueOfFlag(FUNCTION_BODIES_SKIPPED_INDEX, state);
+      functionBodiesSkippedState = state;
     } else if (descriptor == IMPORTED_LIBRARIES) {
       importedLibraries = updatedValue(state, importedLibraries, Source.EMPTY_ARRAY);
       importedLibrariesState = state;
@@ -1374,6 +1424,10 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
       countTransitionToValid(descriptor, exportedLibrariesState);
       exportedLibraries = value == null ? Source.EMPTY_ARRAY : (Source[]) value;
       exportedLibrariesState = CacheState.VALID;
+    } else if (descriptor == FUNCTION_BODIES_SKIPPED) {
+      countTransitionToValid(descriptor, functionBodiesSkippedState);
+      setFlag(FUNCTION_BODIES_SKIPPED_INDEX, ((Boolean) value).booleanValue());
+      functionBodiesSkippedState = CacheState.VALID;
     } else if (descriptor == IMPORTED_LIBRARIES) {
       countTransitionToValid(descriptor, importedLibrariesState);
       importedLibraries = value == null ? Source.EMPTY_ARRAY : (Source[]) value;
@@ -1479,6 +1533,7 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     publicNamespace = other.publicNamespace;
     clientServerState = other.clientServerState;
     launchableState = other.launchableState;
+    functionBodiesSkippedState = other.functionBodiesSkippedState;
     angularErrors = other.angularErrors;
   }
 
@@ -1490,7 +1545,8 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
         || importedLibrariesState == CacheState.ERROR || exportedLibrariesState == CacheState.ERROR
         || includedPartsState == CacheState.ERROR || elementState == CacheState.ERROR
         || publicNamespaceState == CacheState.ERROR || clientServerState == CacheState.ERROR
-        || launchableState == CacheState.ERROR || resolutionState.hasErrorState();
+        || launchableState == CacheState.ERROR || functionBodiesSkippedState == CacheState.ERROR
+        || resolutionState.hasErrorState();
   }
 
   @Override
@@ -1550,6 +1606,12 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
         oldEntry,
         IS_LAUNCHABLE,
         "launchable");
+    needsSeparator = writeStateDiffOn(
+        builder,
+        needsSeparator,
+        oldEntry,
+        FUNCTION_BODIES_SKIPPED,
+        "functionBodiesSkipped");
     // TODO(brianwilkerson) Add better support for containingLibraries. It would be nice to be able
     // to report on size-preserving changes.
     int oldLibraryCount = ((DartEntryImpl) oldEntry).containingLibraries.size();
@@ -1635,6 +1697,8 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     builder.append(clientServerState);
     builder.append("; launchable = ");
     builder.append(launchableState);
+    builder.append("; functionBodiesSkipped = ");
+    builder.append(functionBodiesSkippedState);
 //    builder.append("; angularElements = ");
     resolutionState.writeOn(builder);
   }
@@ -1656,6 +1720,9 @@ public class DartEntryImpl extends SourceEntryImpl implements DartEntry {
     publicNamespace = null;
     publicNamespaceState = CacheState.INVALID;
 
+    clearFlags(FUNCTION_BODIES_SKIPPED_INDEX);
+    functionBodiesSkippedState = CacheState.INVALID;
+
     resolutionState.invalidateAllResolutionInformation();
 
     if (invalidateUris) {
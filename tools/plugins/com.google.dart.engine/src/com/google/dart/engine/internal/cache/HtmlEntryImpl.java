@@ -246,6 +246,18 @@ public class HtmlEntryImpl extends SourceEntryImpl implements HtmlEntry {
     return null;
   }
 
+  @Override
+  public long getEstimatedAstSize() {
+    long size = 0L;
+    if (parsedUnit != null) {
+      size += (long) parsedUnit.getLength() * AST_BYTES_PER_CHARACTER;
+    }
+    if (resolvedUnit != null && resolvedUnit != parsedUnit) {
+      size += (long) resolvedUnit.getLength() * AST_BYTES_PER_CHARACTER;
+    }
+    return size;
+  }
+
   @Override
   public SourceKind getKind() {
     return SourceKind.HTML;
@@ -43,7 +43,7 @@ public class PartitionManager {
   /**
    * Clear any cached data being maintained by this manager.
    */
-  public void clearCache() {
+  public synchronized void clearCache() {
     sdkPartitions.clear();
   }
 
@@ -53,7 +53,7 @@ public class PartitionManager {
    * @param sdk the SDK for which a partition is being requested
    * @return the partition being used for the given SDK
    */
-  public SdkCachePartition forSdk(DartSdk sdk) {
+  public synchronized SdkCachePartition forSdk(DartSdk sdk) {
     SdkCachePartition partition = sdkPartitions.get(sdk);
     if (partition == null) {
       partition = new SdkCachePartition(
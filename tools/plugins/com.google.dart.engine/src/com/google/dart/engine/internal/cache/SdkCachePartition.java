@@ -16,9 +16,23 @@ package com.google.dart.engine.internal.cache;
 import com.google.dart.engine.internal.context.InternalAnalysisContext;
 import com.google.dart.engine.source.Source;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Instances of the class {@code SdkCachePartition} implement a cache partition that contains all of
  * the sources in the SDK.
+ * <p>
+ * This partition is shared by every context that uses the same SDK, and each of those contexts
+ * accesses it while holding only its own lock. The partition is read far more often than it is
+ * written, so entries are kept in a concurrent map: lookups and iteration never block, and writes
+ * replace whole (immutable once published) entries while synchronized on the partition.
+ * <p>
+ * Two contexts can modify the entry of the same SDK source at the same time, for example one of
+ * them recording the results of a task while the other marks another result as being in-process,
+ * and each records a modified copy of the entry it read. To keep one of the copies from silently
+ * replacing the other, a context either holds the partition's lock from reading an entry to
+ * recording its copy (as results are recorded), or records the copy only if the entry has not been
+ * changed since it was read (as tasks are created).
  */
 public class SdkCachePartition extends CachePartition {
   /**
@@ -29,7 +43,11 @@ public class SdkCachePartition extends CachePartition {
    *          the cache
    */
   public SdkCachePartition(InternalAnalysisContext context, int maxCacheSize) {
-    super(context, maxCacheSize, DefaultRetentionPolicy.POLICY);
+    super(
+        context,
+        maxCacheSize,
+        DefaultRetentionPolicy.POLICY,
+        new ConcurrentHashMap<Source, SourceEntry>());
   }
 
   @Override
@@ -39,6 +39,15 @@ public interface SourceEntry {
   public static final DataDescriptor<LineInfo> LINE_INFO = new DataDescriptor<LineInfo>(
       "SourceEntry.LINE_INFO");
 
+  /**
+   * Return an estimate of the number of bytes occupied by the AST structures and token stream held
+   * by this entry, that is, by the data that would be released if the entry's AST structures were
+   * flushed.
+   * 
+   * @return an estimate of the number of bytes occupied by the AST structures held by this entry
+   */
+  public long getEstimatedAstSize();
+
   /**
    * Return the exception that caused one or more values to have a state of {@link CacheState#ERROR}
    * .
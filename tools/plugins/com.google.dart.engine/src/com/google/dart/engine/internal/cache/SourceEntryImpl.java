@@ -72,6 +72,12 @@ public abstract class SourceEntryImpl implements SourceEntry {
    */
   public static final Map<DataDescriptor<?>, Map<CacheState, Integer>> transitionMap = Maps.newHashMap();
 
+  /**
+   * The approximate number of bytes occupied by an AST structure (including its tokens) for each
+   * character of the source from which it was built.
+   */
+  protected static final int AST_BYTES_PER_CHARACTER = 20;
+
   /**
    * The index of the flag indicating whether the source was explicitly added to the context or
    * whether the source was implicitly added because it was referenced by another source.
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.constant;
+
+import com.google.dart.engine.internal.resolver.TypeProvider;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.type.InterfaceType;
+
+import java.util.HashMap;
+
+/**
+ * Instances of the class {@code ConstantValueCache} remember the values that were computed for
+ * the constant variables in a set of libraries so that they can be reused, rather than computed
+ * again, when the libraries are resolved again.
+ * <p>
+ * A value is only valid as long as the initializer of the variable has not changed and the values
+ * of all of the constants referenced by the initializer are the very same objects that were used
+ * to compute it. The values are grouped by library, and the values for a library are replaced as a
+ * whole each time the constants in the library are computed, so values for variables that no
+ * longer exist are discarded.
+ * 
+ * @coverage dart.engine.constant
+ */
+public class ConstantValueCache {
+  /**
+   * Instances of the class {@code CachedValue} hold the value computed for a single constant
+   * variable together with the information needed to decide whether the value is still valid.
+   */
+  public static class CachedValue {
+    /**
+     * The hash of the tokens in the initializer of the variable.
+     */
+    private final long initializerHash;
+
+    /**
+     * The results of evaluating the constants referenced by the initializer, in the order in which
+     * they are referenced.
+     */
+    private final EvaluationResultImpl[] dependencyResults;
+
+    /**
+     * The result of evaluating the initializer.
+     */
+    private final EvaluationResultImpl result;
+
+    /**
+     * Initialize a newly created value to hold the given information.
+     * 
+     * @param initializerHash the hash of the tokens in the initializer of the variable
+     * @param dependencyResults the results of evaluating the constants referenced by the
+     *          initializer
+     * @param result the result of evaluating the initializer
+     */
+    public CachedValue(long initializerHash, EvaluationResultImpl[] dependencyResults,
+        EvaluationResultImpl result) {
+      this.initializerHash = initializerHash;
+      this.dependencyResults = dependencyResults;
+      this.result = result;
+    }
+
+    /**
+     * Return the result of evaluating the initializer.
+     * 
+     * @return the result of evaluating the initializer
+     */
+    public EvaluationResultImpl getResult() {
+      return result;
+    }
+
+    /**
+     * Return {@code true} if this value was computed from an initializer with the given hash that
+     * referenced constants with exactly the given results.
+     * 
+     * @param initializerHash the hash of the tokens in the current initializer of the variable
+     * @param dependencyResults the current results of the constants referenced by the initializer
+     * @return {@code true} if this value is still valid
+     */
+    public boolean isValidFor(long initializerHash, EvaluationResultImpl[] dependencyResults) {
+      if (initializerHash != this.initializerHash
+          || dependencyResults.length != this.dependencyResults.length) {
+        return false;
+      }
+      for (int i = 0; i < dependencyResults.length; i++) {
+        if (dependencyResults[i] != this.dependencyResults[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * A table mapping the sources of libraries to tables mapping the encoded locations of the
+   * constant variables declared in those libraries to the values cached for them.
+   */
+  private final HashMap<Source, HashMap<String, CachedValue>> libraryMap = new HashMap<Source, HashMap<String, CachedValue>>();
+
+  /**
+   * The type {@code Object} from the core library that the cached values were computed against, or
+   * {@code null} if no values have been cached.
+   */
+  private InterfaceType objectType;
+
+  /**
+   * Initialize a newly created cache to be empty.
+   */
+  public ConstantValueCache() {
+    super();
+  }
+
+  /**
+   * Return the value cached for the variable with the given location in the given library, or
+   * {@code null} if there is no value cached for the variable.
+   * 
+   * @param librarySource the source of the library in which the variable is declared
+   * @param variableLocation the encoded location of the variable
+   * @return the value cached for the variable
+   */
+  public synchronized CachedValue get(Source librarySource, String variableLocation) {
+    HashMap<String, CachedValue> values = libraryMap.get(librarySource);
+    if (values == null) {
+      return null;
+    }
+    return values.get(variableLocation);
+  }
+
+  /**
+   * Replace the values cached for the variables in the given library with the given values.
+   * 
+   * @param librarySource the source of the library in which the variables are declared
+   * @param values a table mapping the encoded locations of the variables to their values
+   */
+  public synchronized void put(Source librarySource, HashMap<String, CachedValue> values) {
+    if (values.isEmpty()) {
+      libraryMap.remove(librarySource);
+    } else {
+      libraryMap.put(librarySource, values);
+    }
+  }
+
+  /**
+   * Remove the values cached for the variables in the given library.
+   * 
+   * @param librarySource the source of the library whose values are to be removed
+   */
+  public synchronized void remove(Source librarySource) {
+    libraryMap.remove(librarySource);
+  }
+
+  /**
+   * Return the number of libraries for which values are cached.
+   * 
+   * @return the number of libraries for which values are cached
+   */
+  public synchronized int size() {
+    return libraryMap.size();
+  }
+
+  /**
+   * Remove all of the cached values if they were computed against a different element model for
+   * the core library than the one used by the given type provider, because the values refer to the
+   * types defined in the core library.
+   * 
+   * @param typeProvider the type provider that will be used to compute new values
+   */
+  public synchronized void validate(TypeProvider typeProvider) {
+    InterfaceType currentObjectType = typeProvider.getObjectType();
+    if (objectType != currentObjectType) {
+      libraryMap.clear();
+      objectType = currentObjectType;
+    }
+  }
+}
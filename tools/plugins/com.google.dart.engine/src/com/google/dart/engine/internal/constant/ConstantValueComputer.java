@@ -28,15 +28,19 @@ import com.google.dart.engine.ast.NodeList;
 import com.google.dart.engine.ast.SimpleIdentifier;
 import com.google.dart.engine.ast.SuperConstructorInvocation;
 import com.google.dart.engine.ast.VariableDeclaration;
+import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
 import com.google.dart.engine.constant.DartObject;
 import com.google.dart.engine.constant.DeclaredVariables;
 import com.google.dart.engine.element.ConstructorElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.FieldElement;
 import com.google.dart.engine.element.FieldFormalParameterElement;
+import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.element.ParameterElement;
+import com.google.dart.engine.element.PropertyAccessorElement;
 import com.google.dart.engine.element.VariableElement;
 import com.google.dart.engine.error.CompileTimeErrorCode;
+import com.google.dart.engine.internal.constant.ConstantValueCache.CachedValue;
 import com.google.dart.engine.internal.context.RecordingErrorListener;
 import com.google.dart.engine.internal.element.ConstructorElementImpl;
 import com.google.dart.engine.internal.element.ParameterElementImpl;
@@ -50,6 +54,8 @@ import com.google.dart.engine.internal.object.GenericState;
 import com.google.dart.engine.internal.object.NullState;
 import com.google.dart.engine.internal.object.SymbolState;
 import com.google.dart.engine.internal.resolver.TypeProvider;
+import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.source.Source;
 import com.google.dart.engine.type.InterfaceType;
 import com.google.dart.engine.utilities.ast.AstCloner;
 import com.google.dart.engine.utilities.collection.DirectedGraph;
@@ -70,6 +76,11 @@ import java.util.regex.Pattern;
  * {@link #add(CompilationUnit)} and then for the method {@link #computeValues()} to be invoked
  * exactly once. Any use of an instance after invoking the method {@link #computeValues()} will
  * result in unpredictable behavior.
+ * <p>
+ * If a {@link ConstantValueCache} has been provided, the values of constant variables whose
+ * initializers have not changed since they were last computed, and whose initializers only
+ * reference constants that have not been recomputed, are taken from the cache rather than being
+ * computed again.
  */
 public class ConstantValueComputer {
   /**
@@ -102,6 +113,94 @@ public class ConstantValueComputer {
     }
   }
 
+  /**
+   * Instances of the class {@code InitializerFingerprint} compute the information used to decide
+   * whether the value cached for a constant variable can be reused: a hash of the tokens in the
+   * initializer of the variable and the elements they resolve to, and the results of the constants
+   * referenced by the initializer.
+   */
+  private class InitializerFingerprint extends RecursiveAstVisitor<Void> {
+    /**
+     * The hash of the tokens and elements that have been visited.
+     */
+    private long hash = 0xcbf29ce484222325L;
+
+    /**
+     * The results of the constants referenced by the initializer.
+     */
+    private ArrayList<EvaluationResultImpl> dependencyResults = new ArrayList<EvaluationResultImpl>();
+
+    /**
+     * A flag indicating whether the value of the initializer can be cached. Values that depend on
+     * the element model of the libraries being computed, other than through constant variables,
+     * cannot be cached because the element model is rebuilt each time the libraries are resolved.
+     */
+    private boolean cacheable = true;
+
+    /**
+     * Initialize a newly created fingerprint for the given initializer.
+     * 
+     * @param initializer the initializer whose fingerprint is to be computed
+     */
+    public InitializerFingerprint(Expression initializer) {
+      Token token = initializer.getBeginToken();
+      Token endToken = initializer.getEndToken();
+      while (token != null) {
+        add(token.getLexeme());
+        if (token == endToken) {
+          break;
+        }
+        token = token.getNext();
+      }
+      initializer.accept(this);
+    }
+
+    @Override
+    public Void visitInstanceCreationExpression(InstanceCreationExpression node) {
+      cacheable = false;
+      return null;
+    }
+
+    @Override
+    public Void visitSimpleIdentifier(SimpleIdentifier node) {
+      Element element = node.getStaticElement();
+      if (element instanceof PropertyAccessorElement) {
+        element = ((PropertyAccessorElement) element).getVariable();
+      }
+      if (element == null) {
+        add(null);
+        return null;
+      }
+      add(element.getLocation().getEncoding());
+      if (element instanceof VariableElementImpl && ((VariableElementImpl) element).isConst()) {
+        EvaluationResultImpl result = ((VariableElementImpl) element).getEvaluationResult();
+        if (result == null) {
+          cacheable = false;
+        } else {
+          dependencyResults.add(result);
+        }
+      } else if (librariesBeingComputed.contains(element.getLibrary())) {
+        cacheable = false;
+      }
+      return null;
+    }
+
+    /**
+     * Add the given string to the hash.
+     * 
+     * @param value the string being added, or {@code null} if there is no string
+     */
+    private void add(String value) {
+      if (value != null) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+          hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+      }
+      hash = (hash ^ 0xFFFF) * 0x100000001b3L;
+    }
+  }
+
   /**
    * Parameter to "fromEnvironment" methods that denotes the default value.
    */
@@ -177,6 +276,17 @@ public class ConstantValueComputer {
    */
   private final DeclaredVariables declaredVariables;
 
+  /**
+   * The libraries containing the compilation units that were added.
+   */
+  private HashSet<LibraryElement> librariesBeingComputed = new HashSet<LibraryElement>();
+
+  /**
+   * The cache of previously computed values of constant variables, or {@code null} if values are
+   * not to be reused.
+   */
+  private ConstantValueCache valueCache;
+
   /**
    * Initialize a newly created constant value computer.
    * 
@@ -196,6 +306,9 @@ public class ConstantValueComputer {
    */
   public void add(CompilationUnit unit) {
     unit.accept(constantFinder);
+    if (unit.getElement() != null) {
+      librariesBeingComputed.add(unit.getElement().getLibrary());
+    }
   }
 
   /**
@@ -279,16 +392,45 @@ public class ConstantValueComputer {
       }
       expression.getArgumentList().accept(referenceFinder);
     }
+    HashMap<Source, HashMap<String, CachedValue>> cachedValues = null;
+    if (valueCache != null) {
+      valueCache.validate(typeProvider);
+      cachedValues = new HashMap<Source, HashMap<String, CachedValue>>();
+      for (LibraryElement library : librariesBeingComputed) {
+        cachedValues.put(library.getSource(), new HashMap<String, CachedValue>());
+      }
+    }
     ArrayList<ArrayList<AstNode>> topologicalSort = referenceGraph.computeTopologicalSort();
     for (ArrayList<AstNode> constantsInCycle : topologicalSort) {
       if (constantsInCycle.size() == 1) {
-        computeValueFor(constantsInCycle.get(0));
+        AstNode constant = constantsInCycle.get(0);
+        if (cachedValues != null && constant instanceof VariableDeclaration) {
+          computeOrReuseValueFor((VariableDeclaration) constant, cachedValues);
+        } else {
+          computeValueFor(constant);
+        }
       } else {
         for (AstNode constant : constantsInCycle) {
           generateCycleError(constantsInCycle, constant);
         }
       }
     }
+    if (cachedValues != null) {
+      for (Entry<Source, HashMap<String, CachedValue>> entry : cachedValues.entrySet()) {
+        valueCache.put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Set the cache of previously computed values of constant variables to the given cache. The
+   * cache is used to avoid computing the values of constant variables that have not changed, and
+   * is updated with the values computed by {@link #computeValues()}.
+   * 
+   * @param valueCache the cache of previously computed values of constant variables
+   */
+  public void setValueCache(ConstantValueCache valueCache) {
+    this.valueCache = valueCache;
   }
 
   /**
@@ -386,6 +528,43 @@ public class ConstantValueComputer {
     return isValidPublicSymbol(name);
   }
 
+  /**
+   * Compute a value for the given constant variable, or reuse the value that was cached for it if
+   * that value is still valid, and record the value in the given table of values to be cached.
+   * 
+   * @param declaration the declaration of the variable for which a value is to be computed
+   * @param cachedValues a table mapping the sources of libraries to tables mapping the encoded
+   *          locations of the variables in the library to the values to be cached for them
+   */
+  private void computeOrReuseValueFor(VariableDeclaration declaration,
+      HashMap<Source, HashMap<String, CachedValue>> cachedValues) {
+    VariableElementImpl element = (VariableElementImpl) declaration.getElement();
+    LibraryElement library = element.getLibrary();
+    HashMap<String, CachedValue> libraryValues = library == null ? null
+        : cachedValues.get(library.getSource());
+    InitializerFingerprint fingerprint = new InitializerFingerprint(declaration.getInitializer());
+    if (libraryValues == null || !fingerprint.cacheable) {
+      computeValueFor(declaration);
+      return;
+    }
+    String location = element.getLocation().getEncoding();
+    ArrayList<EvaluationResultImpl> results = fingerprint.dependencyResults;
+    EvaluationResultImpl[] dependencyResults = results.toArray(new EvaluationResultImpl[results.size()]);
+    CachedValue cachedValue = valueCache.get(library.getSource(), location);
+    if (cachedValue != null && cachedValue.isValidFor(fingerprint.hash, dependencyResults)) {
+      beforeComputeValue(declaration);
+      element.setEvaluationResult(cachedValue.getResult());
+      libraryValues.put(location, cachedValue);
+      return;
+    }
+    computeValueFor(declaration);
+    EvaluationResultImpl result = element.getEvaluationResult();
+    if (result != null && result.getErrors().length == 0) {
+      // Errors are not cached because their offsets would not be updated if the declaration moved.
+      libraryValues.put(location, new CachedValue(fingerprint.hash, dependencyResults, result));
+    }
+  }
+
   /**
    * Compute a value for the given constant.
    * 
@@ -39,6 +39,7 @@ import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.ElementLocation;
 import com.google.dart.engine.element.HtmlElement;
+import com.google.dart.engine.element.ImportElement;
 import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.element.angular.AngularComponentElement;
 import com.google.dart.engine.element.angular.AngularElement;
@@ -55,9 +56,13 @@ import com.google.dart.engine.internal.cache.DataDescriptor;
 import com.google.dart.engine.internal.cache.HtmlEntry;
 import com.google.dart.engine.internal.cache.HtmlEntryImpl;
 import com.google.dart.engine.internal.cache.RetentionPriority;
+import com.google.dart.engine.internal.cache.SdkCachePartition;
 import com.google.dart.engine.internal.cache.SourceEntry;
 import com.google.dart.engine.internal.cache.SourceEntryImpl;
 import com.google.dart.engine.internal.cache.UniversalCachePartition;
+import com.google.dart.engine.internal.constant.ConstantValueCache;
+import com.google.dart.engine.internal.element.ApiSignature;
+import com.google.dart.engine.internal.element.DeclarationOffsetUpdater;
 import com.google.dart.engine.internal.element.ElementImpl;
 import com.google.dart.engine.internal.element.LibraryElementImpl;
 import com.google.dart.engine.internal.element.angular.AngularApplication;
@@ -73,6 +78,7 @@ import com.google.dart.engine.internal.task.AnalysisTask;
 import com.google.dart.engine.internal.task.AnalysisTaskVisitor;
 import com.google.dart.engine.internal.task.GenerateDartErrorsTask;
 import com.google.dart.engine.internal.task.GenerateDartHintsTask;
+import com.google.dart.engine.internal.task.GenerateDartLibraryErrorsTask;
 import com.google.dart.engine.internal.task.GetContentTask;
 import com.google.dart.engine.internal.task.IncrementalAnalysisTask;
 import com.google.dart.engine.internal.task.ParseDartTask;
@@ -87,6 +93,7 @@ import com.google.dart.engine.internal.task.ResolveDartUnitTask;
 import com.google.dart.engine.internal.task.ResolveHtmlTask;
 import com.google.dart.engine.internal.task.ScanDartTask;
 import com.google.dart.engine.internal.task.WaitForAsyncTask;
+import com.google.dart.engine.internal.type.TypeRelationCache;
 import com.google.dart.engine.scanner.Token;
 import com.google.dart.engine.sdk.DartSdk;
 import com.google.dart.engine.source.ContentCache;
@@ -96,6 +103,8 @@ import com.google.dart.engine.source.Source.ContentReceiver;
 import com.google.dart.engine.source.SourceContainer;
 import com.google.dart.engine.source.SourceFactory;
 import com.google.dart.engine.source.SourceKind;
+import com.google.dart.engine.utilities.ast.AstCloner;
+import com.google.dart.engine.utilities.ast.ResolvedAstComparator;
 import com.google.dart.engine.utilities.collection.DirectedGraph;
 import com.google.dart.engine.utilities.collection.ListUtilities;
 import com.google.dart.engine.utilities.collection.MapIterator;
@@ -107,8 +116,11 @@ import com.google.dart.engine.utilities.translation.DartOmit;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -127,86 +139,197 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    */
   private class AnalysisTaskResultRecorder implements AnalysisTaskVisitor<SourceEntry> {
     @Override
-    public DartEntry visitGenerateDartErrorsTask(GenerateDartErrorsTask task)
+    public DartEntry visitGenerateDartErrorsTask(final GenerateDartErrorsTask task)
         throws AnalysisException {
-      return recordGenerateDartErrorsTask(task);
+      return recordUnderLocks(task.getSource(), new ResultRecording<DartEntry>() {
+        @Override
+        public DartEntry record() throws AnalysisException {
+          return recordGenerateDartErrorsTask(task);
+        }
+      });
+    }
+
+    @Override
+    public DartEntry visitGenerateDartHintsTask(final GenerateDartHintsTask task)
+        throws AnalysisException {
+      return recordUnderLocks(
+          task.getLibraryElement().getSource(),
+          new ResultRecording<DartEntry>() {
+            @Override
+            public DartEntry record() throws AnalysisException {
+              return recordGenerateDartHintsTask(task);
+            }
+          });
     }
 
     @Override
-    public DartEntry visitGenerateDartHintsTask(GenerateDartHintsTask task)
+    public DartEntry visitGenerateDartLibraryErrorsTask(final GenerateDartLibraryErrorsTask task)
         throws AnalysisException {
-      return recordGenerateDartHintsTask(task);
+      return recordUnderLocks(
+          task.getLibraryElement().getSource(),
+          new ResultRecording<DartEntry>() {
+            @Override
+            public DartEntry record() throws AnalysisException {
+              return recordGenerateDartLibraryErrorsTask(task);
+            }
+          });
     }
 
     @Override
-    public SourceEntry visitGetContentTask(GetContentTask task) throws AnalysisException {
-      return recordGetContentsTask(task);
+    public SourceEntry visitGetContentTask(final GetContentTask task) throws AnalysisException {
+      return recordUnderLocks(task.getSource(), new ResultRecording<SourceEntry>() {
+        @Override
+        public SourceEntry record() throws AnalysisException {
+          return recordGetContentsTask(task);
+        }
+      });
     }
 
     @Override
-    public DartEntry visitIncrementalAnalysisTask(IncrementalAnalysisTask task)
+    public DartEntry visitIncrementalAnalysisTask(final IncrementalAnalysisTask task)
         throws AnalysisException {
-      return recordIncrementalAnalysisTaskResults(task);
+      return recordUnderLocks(task.getSource(), new ResultRecording<DartEntry>() {
+        @Override
+        public DartEntry record() throws AnalysisException {
+          return recordIncrementalAnalysisTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public DartEntry visitParseDartTask(ParseDartTask task) throws AnalysisException {
-      return recordParseDartTaskResults(task);
+    public DartEntry visitParseDartTask(final ParseDartTask task) throws AnalysisException {
+      return recordUnderLocks(task.getSource(), new ResultRecording<DartEntry>() {
+        @Override
+        public DartEntry record() throws AnalysisException {
+          return recordParseDartTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public HtmlEntry visitParseHtmlTask(ParseHtmlTask task) throws AnalysisException {
-      return recordParseHtmlTaskResults(task);
+    public HtmlEntry visitParseHtmlTask(final ParseHtmlTask task) throws AnalysisException {
+      return recordUnderLocks(task.getSource(), new ResultRecording<HtmlEntry>() {
+        @Override
+        public HtmlEntry record() throws AnalysisException {
+          return recordParseHtmlTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public HtmlEntry visitPolymerBuildHtmlTask(PolymerBuildHtmlTask task) throws AnalysisException {
-      return recordPolymerBuildHtmlTaskResults(task);
+    public HtmlEntry visitPolymerBuildHtmlTask(final PolymerBuildHtmlTask task)
+        throws AnalysisException {
+      return recordUnderLocks(task.getSource(), new ResultRecording<HtmlEntry>() {
+        @Override
+        public HtmlEntry record() throws AnalysisException {
+          return recordPolymerBuildHtmlTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public HtmlEntry visitPolymerResolveHtmlTask(PolymerResolveHtmlTask task)
+    public HtmlEntry visitPolymerResolveHtmlTask(final PolymerResolveHtmlTask task)
         throws AnalysisException {
-      return recordPolymerResolveHtmlTaskResults(task);
+      return recordUnderLocks(task.getSource(), new ResultRecording<HtmlEntry>() {
+        @Override
+        public HtmlEntry record() throws AnalysisException {
+          return recordPolymerResolveHtmlTaskResults(task);
+        }
+      });
     }
 
     @Override
     public HtmlEntry visitResolveAngularComponentTemplateTask(
-        ResolveAngularComponentTemplateTask task) throws AnalysisException {
-      return recordResolveAngularComponentTemplateTaskResults(task);
+        final ResolveAngularComponentTemplateTask task) throws AnalysisException {
+      return recordUnderLocks(task.getSource(), new ResultRecording<HtmlEntry>() {
+        @Override
+        public HtmlEntry record() throws AnalysisException {
+          return recordResolveAngularComponentTemplateTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public HtmlEntry visitResolveAngularEntryHtmlTask(ResolveAngularEntryHtmlTask task)
+    public HtmlEntry visitResolveAngularEntryHtmlTask(final ResolveAngularEntryHtmlTask task)
         throws AnalysisException {
-      return recordResolveAngularEntryHtmlTaskResults(task);
+      return recordUnderLocks(task.getSource(), new ResultRecording<HtmlEntry>() {
+        @Override
+        public HtmlEntry record() throws AnalysisException {
+          return recordResolveAngularEntryHtmlTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public DartEntry visitResolveDartLibraryCycleTask(ResolveDartLibraryCycleTask task)
+    public DartEntry visitResolveDartLibraryCycleTask(final ResolveDartLibraryCycleTask task)
         throws AnalysisException {
-      return recordResolveDartLibraryCycleTaskResults(task);
+      return recordUnderLocks(task.getLibrarySource(), new ResultRecording<DartEntry>() {
+        @Override
+        public DartEntry record() throws AnalysisException {
+          return recordResolveDartLibraryCycleTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public DartEntry visitResolveDartLibraryTask(ResolveDartLibraryTask task)
+    public DartEntry visitResolveDartLibraryTask(final ResolveDartLibraryTask task)
         throws AnalysisException {
-      return recordResolveDartLibraryTaskResults(task);
+      return recordUnderLocks(task.getLibrarySource(), new ResultRecording<DartEntry>() {
+        @Override
+        public DartEntry record() throws AnalysisException {
+          return recordResolveDartLibraryTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public DartEntry visitResolveDartUnitTask(ResolveDartUnitTask task) throws AnalysisException {
-      return recordResolveDartUnitTaskResults(task);
+    public DartEntry visitResolveDartUnitTask(final ResolveDartUnitTask task)
+        throws AnalysisException {
+      return recordUnderLocks(task.getSource(), new ResultRecording<DartEntry>() {
+        @Override
+        public DartEntry record() throws AnalysisException {
+          return recordResolveDartUnitTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public HtmlEntry visitResolveHtmlTask(ResolveHtmlTask task) throws AnalysisException {
-      return recordResolveHtmlTaskResults(task);
+    public HtmlEntry visitResolveHtmlTask(final ResolveHtmlTask task) throws AnalysisException {
+      return recordUnderLocks(task.getSource(), new ResultRecording<HtmlEntry>() {
+        @Override
+        public HtmlEntry record() throws AnalysisException {
+          return recordResolveHtmlTaskResults(task);
+        }
+      });
     }
 
     @Override
-    public DartEntry visitScanDartTask(ScanDartTask task) throws AnalysisException {
-      return recordScanDartTaskResults(task);
+    public DartEntry visitScanDartTask(final ScanDartTask task) throws AnalysisException {
+      return recordUnderLocks(task.getSource(), new ResultRecording<DartEntry>() {
+        @Override
+        public DartEntry record() throws AnalysisException {
+          return recordScanDartTaskResults(task);
+        }
+      });
+    }
+
+    /**
+     * Perform the given recording while holding both the context's lock and the lock of the
+     * partition containing the given source, so that the results of a task cannot interleave with
+     * the modification of the same entries by another context sharing the partition.
+     * 
+     * @param source the source of the task whose results are being recorded
+     * @param recording the recording to be performed
+     * @return the entry returned by the recording
+     * @throws AnalysisException if the results could not be recorded
+     */
+    private <E extends SourceEntry> E recordUnderLocks(Source source, ResultRecording<E> recording)
+        throws AnalysisException {
+      synchronized (cacheLock) {
+        synchronized (source == null ? cacheLock : cache.getLockFor(source)) {
+          return recording.record();
+        }
+      }
     }
   }
 
@@ -561,12 +684,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       for (int i = 0; i < count; i++) {
         SourceEntryPair entryPair = entryPairs.get(i);
         Source source = entryPair.source;
-        DartEntryImpl dartCopy = entryPair.entry.getWritableCopy();
-        units[i] = new ResolvableCompilationUnit(
-            dartCopy.getModificationTime(),
-            dartCopy.getResolvableCompilationUnit(),
-            source);
-        cache.put(source, dartCopy);
+        units[i] = takeResolvableCompilationUnit(source, entryPair.entry);
       }
       library.setResolvableCompilationUnits(units);
     }
@@ -786,6 +904,20 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * The interface {@code ResultRecording} defines the behavior of objects that record the results
+   * of a single task once the locks protecting the affected entries are held.
+   */
+  private interface ResultRecording<E extends SourceEntry> {
+    /**
+     * Record the results of the task, returning the entry that was updated.
+     * 
+     * @return the entry that was updated
+     * @throws AnalysisException if the results could not be recorded
+     */
+    public E record() throws AnalysisException;
+  }
+
   /**
    * Instances of the class {@code TaskData} represent information about the next task to be
    * performed. Each data has an implicit associated source: the source that might need to be
@@ -918,6 +1050,13 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    */
   private Source[] priorityOrder = Source.EMPTY_ARRAY;
 
+  /**
+   * A set containing the sources for which the results of analyzing function bodies have been
+   * requested. When function bodies are being analyzed lazily, the function bodies in the libraries
+   * containing these sources are always analyzed.
+   */
+  private HashSet<Source> requestedFunctionBodies = new HashSet<Source>();
+
   /**
    * An array containing sources whose AST structure is needed in order to resolve the next library
    * to be resolved.
@@ -931,16 +1070,20 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
   private HashMap<Source, ChangeNoticeImpl> pendingNotices = new HashMap<Source, ChangeNoticeImpl>();
 
   /**
-   * The object used to synchronize access to all of the caches. The rules related to the use of
-   * this lock object are
+   * The object used to synchronize access to the state of this context, including the partitions
+   * of the cache that are private to this context. The rules related to the use of this lock object
+   * are
    * <ul>
    * <li>no analysis work is done while holding the lock, and</li>
    * <li>no analysis results can be recorded unless we have obtained the lock and validated that the
    * results are for the same version (modification time) of the source as our current cache
    * content.</li>
    * </ul>
+   * Each context has its own lock, so work in one context never waits on work in another. Partitions
+   * that are shared between contexts (the {@link SdkCachePartition}) are safe to access while
+   * holding only this lock.
    */
-  private static Object cacheLock = new Object();
+  private final Object cacheLock = new Object();
 
   /**
    * The object used to record the results of performing an analysis task.
@@ -953,6 +1096,42 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    */
   private IncrementalAnalysisCache incrementalAnalysisCache;
 
+  /**
+   * The result of the most recent incremental analysis that has not yet been compared with the
+   * result of a full analysis of the same contents, or {@code null} if there is no such result.
+   * This is only set when the results of incremental analysis are being validated. Synchronize
+   * against {@link #cacheLock} before accessing this field.
+   */
+  private IncrementalAnalysisCache incrementalValidationCache;
+
+  /**
+   * A table mapping the sources of libraries to the API signatures of the most recently recorded
+   * element models of those libraries. Synchronize against {@link #cacheLock} before accessing this
+   * field.
+   * 
+   * @see ApiSignature
+   */
+  private HashMap<Source, Long> apiSignatures = new HashMap<Source, Long>();
+
+  /**
+   * A table mapping the sources of libraries that have been changed, but whose dependent libraries
+   * have not been invalidated, to the API signatures those libraries had before they were changed.
+   * The dependent libraries are invalidated only if the signature is different once the changed
+   * library has been resolved again. Synchronize against {@link #cacheLock} before accessing this
+   * field.
+   */
+  private HashMap<Source, Long> pendingApiChanges = new HashMap<Source, Long>();
+
+  /**
+   * The cache of previously computed values of constant variables.
+   */
+  private ConstantValueCache constantValueCache = new ConstantValueCache();
+
+  /**
+   * The cache of the relationships between the types whose elements are owned by this context.
+   */
+  private TypeRelationCache typeRelationCache = new TypeRelationCache();
+
   /**
    * The object used to manage the list of sources that need to be analyzed.
    */
@@ -979,6 +1158,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
         this,
         AnalysisOptionsImpl.DEFAULT_CACHE_SIZE,
         new ContextRetentionPolicy());
+    privatePartition.setMemoryBudget(AnalysisEngine.getInstance().getCacheMemoryBudget());
     cache = createCacheFromSourceFactory(null);
   }
 
@@ -1134,6 +1314,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
 
   @Override
   public AnalysisError[] computeErrors(Source source) throws AnalysisException {
+    requestFunctionBodies(source);
     boolean enableHints = options.getHint();
     SourceEntry sourceEntry = getReadableSourceEntry(source);
     if (sourceEntry instanceof DartEntry) {
@@ -1264,22 +1445,21 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
             + source.getFullName());
       }
       dartEntry = cacheDartParseData(source, dartEntry, DartEntry.PARSED_UNIT);
-      DartEntryImpl dartCopy = dartEntry.getWritableCopy();
-      CompilationUnit unit = dartCopy.getResolvableCompilationUnit();
-      if (unit == null) {
+      ResolvableCompilationUnit unit = takeResolvableCompilationUnit(source, dartEntry);
+      if (unit.getCompilationUnit() == null) {
         throw new AnalysisException(
             "Internal error: computeResolvableCompilationUnit could not parse "
                 + source.getFullName(),
             dartEntry.getException());
       }
-      cache.put(source, dartCopy);
-      return new ResolvableCompilationUnit(dartCopy.getModificationTime(), unit);
+      return unit;
     }
   }
 
   @Override
   public void dispose() {
     disposed = true;
+    privatePartition.setMemoryBudget(null);
   }
 
   @Override
@@ -1340,6 +1520,27 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return options;
   }
 
+  @Override
+  public boolean getAnalyzeFunctionBodies(Source librarySource) {
+    if (!options.getAnalyzeFunctionBodiesLazily()) {
+      return true;
+    }
+    synchronized (cacheLock) {
+      if (requiresFunctionBodies(librarySource)) {
+        return true;
+      }
+      DartEntry libraryEntry = getReadableDartEntry(librarySource);
+      if (libraryEntry != null) {
+        for (Source partSource : libraryEntry.getValue(DartEntry.INCLUDED_PARTS)) {
+          if (requiresFunctionBodies(partSource)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
   @Override
   public AngularApplication getAngularApplicationWithHtml(Source htmlSource) {
     SourceEntry sourceEntry = getReadableSourceEntryOrNull(htmlSource);
@@ -1373,6 +1574,11 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return null;
   }
 
+  @Override
+  public ConstantValueCache getConstantValueCache() {
+    return constantValueCache;
+  }
+
   @Override
   public TimestampedData<CharSequence> getContents(Source source) throws Exception {
     synchronized (cacheLock) {
@@ -1455,6 +1661,15 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return new AnalysisErrorInfoImpl(AnalysisError.NO_ERRORS, null);
   }
 
+  @Override
+  public boolean getFunctionBodiesSkipped(Source source) {
+    SourceEntry sourceEntry = getReadableSourceEntryOrNull(source);
+    if (sourceEntry instanceof DartEntry) {
+      return ((DartEntry) sourceEntry).getValue(DartEntry.FUNCTION_BODIES_SKIPPED);
+    }
+    return false;
+  }
+
   @Override
   public HtmlElement getHtmlElement(Source source) {
     SourceEntry sourceEntry = getReadableSourceEntryOrNull(source);
@@ -1673,9 +1888,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
           return null;
         }
         if (dartEntry.getValue(DartEntry.ELEMENT) == library) {
-          DartEntryImpl dartCopy = getReadableDartEntry(source).getWritableCopy();
+          DartEntryImpl dartCopy = dartEntry.getWritableCopy();
           dartCopy.setValue(DartEntry.PUBLIC_NAMESPACE, namespace);
-          cache.put(source, dartCopy);
+          cache.put(source, dartEntry, dartCopy);
         }
       }
     }
@@ -1833,6 +2048,11 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return new TypeProviderImpl(coreElement);
   }
 
+  @Override
+  public TypeRelationCache getTypeRelationCache() {
+    return typeRelationCache;
+  }
+
   @Override
   public boolean isClientLibrary(Source librarySource) {
     SourceEntry sourceEntry = getReadableSourceEntry(librarySource);
@@ -1907,24 +2127,17 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     if (task == null) {
       return new AnalysisResult(getChangeNotices(true), getEnd - getStart, null, -1L);
     }
-    String taskDescription = task.toString();
-    notifyAboutToPerformTask(taskDescription);
-    if (TRACE_PERFORM_TASK) {
-      System.out.println(taskDescription);
-    }
     long performStart = System.currentTimeMillis();
-    try {
-      task.perform(resultRecorder);
-    } catch (ObsoleteSourceAnalysisException exception) {
-      AnalysisEngine.getInstance().getLogger().logInformation(
-          "Could not perform analysis task: " + taskDescription,
-          exception);
-    } catch (AnalysisException exception) {
-      if (!(exception.getCause() instanceof IOException)) {
-        AnalysisEngine.getInstance().getLogger().logError(
-            "Internal error while performing the task: " + task,
-            exception);
+    int parallelTaskCount = options.getParallelTaskCount();
+    if (parallelTaskCount > 1 && canPerformInParallel(task)) {
+      performTasksInParallel(task, parallelTaskCount);
+    } else {
+      String taskDescription = task.toString();
+      notifyAboutToPerformTask(taskDescription);
+      if (TRACE_PERFORM_TASK) {
+        System.out.println(taskDescription);
       }
+      performTask(task);
     }
     long performEnd = System.currentTimeMillis();
     ChangeNotice[] notices = getChangeNotices(false);
@@ -1956,37 +2169,102 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
         //
         // Cache the element in the library's info.
         //
-        DartEntry dartEntry = getReadableDartEntry(librarySource);
-        if (dartEntry != null) {
-          DartEntryImpl dartCopy = dartEntry.getWritableCopy();
-          recordElementData(dartCopy, library, library.getSource(), htmlSource);
-          dartCopy.setState(SourceEntry.CONTENT, CacheState.FLUSHED);
-          dartCopy.setValue(SourceEntry.LINE_INFO, new LineInfo(new int[] {0}));
-          dartCopy.setValue(DartEntry.ANGULAR_ERRORS, AnalysisError.NO_ERRORS);
-          // DartEntry.ELEMENT - set in recordElementData
-          dartCopy.setValue(DartEntry.EXPORTED_LIBRARIES, Source.EMPTY_ARRAY);
-          dartCopy.setValue(DartEntry.IMPORTED_LIBRARIES, Source.EMPTY_ARRAY);
-          dartCopy.setValue(DartEntry.INCLUDED_PARTS, Source.EMPTY_ARRAY);
-          // DartEntry.IS_CLIENT - set in recordElementData
-          // DartEntry.IS_LAUNCHABLE - set in recordElementData
-          dartCopy.setValue(DartEntry.PARSE_ERRORS, AnalysisError.NO_ERRORS);
-          dartCopy.setState(DartEntry.PARSED_UNIT, CacheState.FLUSHED);
-          dartCopy.setState(DartEntry.PUBLIC_NAMESPACE, CacheState.FLUSHED);
-          dartCopy.setValue(DartEntry.SCAN_ERRORS, AnalysisError.NO_ERRORS);
-          dartCopy.setValue(DartEntry.SOURCE_KIND, SourceKind.LIBRARY);
-          dartCopy.setState(DartEntry.TOKEN_STREAM, CacheState.FLUSHED);
-
-          dartCopy.setValueInLibrary(
-              DartEntry.RESOLUTION_ERRORS,
-              librarySource,
-              AnalysisError.NO_ERRORS);
-          dartCopy.setStateInLibrary(DartEntry.RESOLVED_UNIT, librarySource, CacheState.FLUSHED);
-          dartCopy.setValueInLibrary(
-              DartEntry.VERIFICATION_ERRORS,
-              librarySource,
-              AnalysisError.NO_ERRORS);
-          dartCopy.setValueInLibrary(DartEntry.HINTS, librarySource, AnalysisError.NO_ERRORS);
-          cache.put(librarySource, dartCopy);
+        synchronized (cache.getLockFor(librarySource)) {
+          DartEntry dartEntry = getReadableDartEntry(librarySource);
+          if (dartEntry != null) {
+            DartEntryImpl dartCopy = dartEntry.getWritableCopy();
+            recordElementData(dartCopy, library, library.getSource(), htmlSource);
+            dartCopy.setState(SourceEntry.CONTENT, CacheState.FLUSHED);
+            dartCopy.setValue(SourceEntry.LINE_INFO, new LineInfo(new int[] {0}));
+            dartCopy.setValue(DartEntry.ANGULAR_ERRORS, AnalysisError.NO_ERRORS);
+            // DartEntry.ELEMENT - set in recordElementData
+            dartCopy.setValue(DartEntry.EXPORTED_LIBRARIES, Source.EMPTY_ARRAY);
+            dartCopy.setValue(DartEntry.IMPORTED_LIBRARIES, Source.EMPTY_ARRAY);
+            dartCopy.setValue(DartEntry.INCLUDED_PARTS, Source.EMPTY_ARRAY);
+            // DartEntry.IS_CLIENT - set in recordElementData
+            // DartEntry.IS_LAUNCHABLE - set in recordElementData
+            dartCopy.setValue(DartEntry.PARSE_ERRORS, AnalysisError.NO_ERRORS);
+            dartCopy.setState(DartEntry.PARSED_UNIT, CacheState.FLUSHED);
+            dartCopy.setState(DartEntry.PUBLIC_NAMESPACE, CacheState.FLUSHED);
+            dartCopy.setValue(DartEntry.SCAN_ERRORS, AnalysisError.NO_ERRORS);
+            dartCopy.setValue(DartEntry.SOURCE_KIND, SourceKind.LIBRARY);
+            dartCopy.setState(DartEntry.TOKEN_STREAM, CacheState.FLUSHED);
+
+            dartCopy.setValueInLibrary(
+                DartEntry.RESOLUTION_ERRORS,
+                librarySource,
+                AnalysisError.NO_ERRORS);
+            dartCopy.setStateInLibrary(DartEntry.RESOLVED_UNIT, librarySource, CacheState.FLUSHED);
+            dartCopy.setValueInLibrary(
+                DartEntry.VERIFICATION_ERRORS,
+                librarySource,
+                AnalysisError.NO_ERRORS);
+            dartCopy.setValueInLibrary(DartEntry.HINTS, librarySource, AnalysisError.NO_ERRORS);
+            cache.put(librarySource, dartCopy);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Record the library elements in the given table, which were read from a summary rather than
+   * produced by resolving the libraries. Unlike {@link #recordLibraryElements(Map)}, the imports,
+   * exports and parts of each library are recorded so that the library can be resolved again if it
+   * is invalidated, and the results that can only be produced from the content of a source, such as
+   * line information, are left to be computed when they are first requested.
+   * 
+   * @param elementMap a table mapping the sources of libraries to the elements of those libraries
+   */
+  public void recordSummarizedLibraryElements(Map<Source, LibraryElement> elementMap) {
+    synchronized (cacheLock) {
+      Source htmlSource = sourceFactory.forUri(DartSdk.DART_HTML);
+      for (Map.Entry<Source, LibraryElement> entry : elementMap.entrySet()) {
+        Source librarySource = entry.getKey();
+        LibraryElement library = entry.getValue();
+        CompilationUnitElement[] parts = library.getParts();
+        Source[] partSources = new Source[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+          partSources[i] = parts[i].getSource();
+        }
+        synchronized (cache.getLockFor(librarySource)) {
+          DartEntry dartEntry = getReadableDartEntry(librarySource);
+          if (dartEntry != null) {
+            HashSet<Source> importedSources = new HashSet<Source>();
+            for (ImportElement importElement : library.getImports()) {
+              if (!importElement.isSynthetic()) {
+                importedSources.add(importElement.getImportedLibrary().getSource());
+              }
+            }
+            HashSet<Source> exportedSources = new HashSet<Source>();
+            for (LibraryElement exportedLibrary : library.getExportedLibraries()) {
+              exportedSources.add(exportedLibrary.getSource());
+            }
+            DartEntryImpl dartCopy = dartEntry.getWritableCopy();
+            recordElementData(dartCopy, library, librarySource, htmlSource);
+            recordSummarizedUnitData(dartCopy, librarySource);
+            dartCopy.setContainingLibrary(librarySource);
+            dartCopy.setValue(
+                DartEntry.EXPORTED_LIBRARIES,
+                exportedSources.toArray(new Source[exportedSources.size()]));
+            dartCopy.setValue(
+                DartEntry.IMPORTED_LIBRARIES,
+                importedSources.toArray(new Source[importedSources.size()]));
+            dartCopy.setValue(DartEntry.INCLUDED_PARTS, partSources);
+            dartCopy.setState(DartEntry.PUBLIC_NAMESPACE, CacheState.FLUSHED);
+            dartCopy.setValue(DartEntry.SOURCE_KIND, SourceKind.LIBRARY);
+            cache.put(librarySource, dartCopy);
+          }
+          for (Source partSource : partSources) {
+            DartEntry partEntry = getReadableDartEntry(partSource);
+            if (partEntry != null) {
+              DartEntryImpl partCopy = partEntry.getWritableCopy();
+              recordSummarizedUnitData(partCopy, librarySource);
+              partCopy.addContainingLibrary(librarySource);
+              partCopy.setValue(DartEntry.SOURCE_KIND, SourceKind.PART);
+              cache.put(partSource, partCopy);
+            }
+          }
         }
       }
     }
@@ -2009,6 +2287,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
   @Override
   public CompilationUnit resolveCompilationUnit(Source unitSource, Source librarySource)
       throws AnalysisException {
+    requestFunctionBodies(unitSource);
     return getDartResolutionData(unitSource, librarySource, DartEntry.RESOLVED_UNIT, null);
   }
 
@@ -2029,6 +2308,8 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
           || this.options.getEnableEnum() != options.getEnableEnum()
           || this.options.getDart2jsHint() != options.getDart2jsHint()
           || (this.options.getHint() && !options.getHint())
+          || (this.options.getAnalyzeFunctionBodiesLazily()
+              && !options.getAnalyzeFunctionBodiesLazily())
           || this.options.getPreserveComments() != options.getPreserveComments();
 
       int cacheSize = options.getCacheSize();
@@ -2050,6 +2331,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       }
       this.options.setAnalyzeAngular(options.getAnalyzeAngular());
       this.options.setAnalyzeFunctionBodies(options.getAnalyzeFunctionBodies());
+      this.options.setAnalyzeFunctionBodiesLazily(options.getAnalyzeFunctionBodiesLazily());
       this.options.setGenerateSdkErrors(options.getGenerateSdkErrors());
       this.options.setEnableAsync(options.getEnableAsync());
       this.options.setEnableDeferredLoading(options.getEnableDeferredLoading());
@@ -2057,6 +2339,8 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       this.options.setDart2jsHint(options.getDart2jsHint());
       this.options.setHint(options.getHint());
       this.options.setIncremental(options.getIncremental());
+      this.options.setIncrementalValidation(options.getIncrementalValidation());
+      this.options.setParallelTaskCount(options.getParallelTaskCount());
       this.options.setPreserveComments(options.getPreserveComments());
 
       generateSdkErrors = options.getGenerateSdkErrors();
@@ -2090,6 +2374,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
           priorityOrder[i] = sources.get(i);
         }
       }
+      for (Source source : priorityOrder) {
+        invalidateSkippedFunctionBodies(source);
+      }
     }
   }
 
@@ -2249,6 +2536,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
                 dartCopy.setState(DartEntry.PARSED_UNIT, CacheState.FLUSHED);
                 dartCopy.setValueInLibrary(DartEntry.RESOLVED_UNIT, librarySource, unit);
                 dartCopy.setValueInLibrary(DartEntry.RESOLUTION_ERRORS, librarySource, errors);
+                dartCopy.setValue(
+                    DartEntry.FUNCTION_BODIES_SKIPPED,
+                    !library.getAnalyzeFunctionBodies());
                 if (source.equals(librarySource)) {
                   recordElementData(
                       dartCopy,
@@ -2399,6 +2689,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
                 dartCopy.setState(DartEntry.PARSED_UNIT, CacheState.FLUSHED);
                 dartCopy.setValueInLibrary(DartEntry.RESOLVED_UNIT, librarySource, unit);
                 dartCopy.setValueInLibrary(DartEntry.RESOLUTION_ERRORS, librarySource, errors);
+                dartCopy.setValue(
+                    DartEntry.FUNCTION_BODIES_SKIPPED,
+                    !library.getAnalyzeFunctionBodies());
                 if (source.equals(librarySource)) {
                   recordElementData(
                       dartCopy,
@@ -2612,8 +2905,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       LibraryElement libraryElement = libraryEntry.getValue(DartEntry.ELEMENT);
       CompilationUnitElement definingUnit = libraryElement.getDefiningCompilationUnit();
       CompilationUnitElement[] parts = libraryElement.getParts();
-      @SuppressWarnings("unchecked")
-      TimestampedData<CompilationUnit>[] units = new TimestampedData[parts.length + 1];
+      TimestampedData<CompilationUnit>[] units = TimestampedData.newArray(parts.length + 1);
       units[0] = getResolvedUnit(definingUnit, librarySource);
       if (units[0] == null) {
         Source source = definingUnit.getSource();
@@ -2630,10 +2922,12 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
               resolveCompilationUnit(source, libraryElement));
         }
       }
+      libraryEntry = getReadableDartEntry(librarySource);
       dartEntry = (DartEntry) new GenerateDartHintsTask(
           this,
           units,
-          getLibraryElement(librarySource)).perform(resultRecorder);
+          getLibraryElement(librarySource),
+          !libraryEntry.getValue(DartEntry.FUNCTION_BODIES_SKIPPED)).perform(resultRecorder);
       state = dartEntry.getStateInLibrary(descriptor, librarySource);
     }
     return dartEntry;
@@ -2792,12 +3086,14 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
         throw new AnalysisException("Could not resolve compilation unit "
             + unitSource.getFullName() + " in " + librarySource.getFullName());
       }
+      dartEntry = getReadableDartEntry(unitSource);
       dartEntry = (DartEntry) new GenerateDartErrorsTask(
           this,
           unitSource,
           dartEntry.getModificationTime(),
           unit,
-          library).perform(resultRecorder);
+          library,
+          !dartEntry.getValue(DartEntry.FUNCTION_BODIES_SKIPPED)).perform(resultRecorder);
       state = dartEntry.getStateInLibrary(descriptor, librarySource);
     }
     return dartEntry;
@@ -2906,6 +3202,27 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Add the sources of all of the libraries that are imported or exported, directly or indirectly,
+   * by the libraries in the given cycle to the given set.
+   * 
+   * @param librariesInCycle the libraries in the cycle whose dependencies are to be computed
+   * @param dependencies the set to which the sources of the dependencies are to be added
+   */
+  private void computeCycleDependencies(List<ResolvableLibrary> librariesInCycle,
+      HashSet<Source> dependencies) {
+    ArrayList<ResolvableLibrary> librariesToVisit = new ArrayList<ResolvableLibrary>(
+        librariesInCycle);
+    while (!librariesToVisit.isEmpty()) {
+      ResolvableLibrary library = librariesToVisit.remove(librariesToVisit.size() - 1);
+      for (ResolvableLibrary dependency : library.getImportsAndExports()) {
+        if (dependencies.add(dependency.getLibrarySource())) {
+          librariesToVisit.add(dependency);
+        }
+      }
+    }
+  }
+
   /**
    * Compute the priority that should be used when the source associated with the given entry is
    * added to the work manager.
@@ -2935,6 +3252,20 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Return {@code true} if the given task only depends on results that are already in the cache
+   * and records results only for its own source (or, when resolving a library cycle, only for the
+   * sources in the cycle), so that it can be performed concurrently with other such tasks.
+   * 
+   * @param task the task being tested
+   * @return {@code true} if the task can be performed concurrently with other tasks
+   */
+  private boolean canPerformInParallel(AnalysisTask task) {
+    return task instanceof ScanDartTask || task instanceof ParseDartTask
+        || task instanceof GenerateDartErrorsTask || task instanceof GenerateDartHintsTask
+        || task instanceof ResolveDartLibraryCycleTask;
+  }
+
   /**
    * Return {@code true} if the given array of sources contains the given source.
    * 
@@ -2967,6 +3298,23 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return false;
   }
 
+  /**
+   * Return {@code true} if the given set of sources contains the source of any of the given
+   * libraries.
+   * 
+   * @param sources the sources being searched
+   * @param libraries the libraries whose sources are being searched for
+   * @return {@code true} if the source of any of the given libraries is in the set
+   */
+  private boolean containsLibrary(Set<Source> sources, List<ResolvableLibrary> libraries) {
+    for (ResolvableLibrary library : libraries) {
+      if (sources.contains(library.getLibrarySource())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Create a {@link GenerateDartErrorsTask} for the given source, marking the verification errors
    * as being in-process. The compilation unit and the library can be the same if the compilation
@@ -2992,19 +3340,30 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       AnalysisEngine.getInstance().getLogger().logInformation(exception.getMessage(), exception);
       DartEntryImpl dartCopy = unitEntry.getWritableCopy();
       dartCopy.recordResolutionError(exception);
-      cache.put(unitSource, dartCopy);
+      if (!cache.put(unitSource, unitEntry, dartCopy)) {
+        return new TaskData(null, true);
+      }
       return new TaskData(null, false);
     }
+    if (options.getParallelTaskCount() > 1) {
+      TaskData libraryTaskData = createGenerateDartLibraryErrorsTask(librarySource, libraryEntry);
+      if (libraryTaskData != null) {
+        return libraryTaskData;
+      }
+    }
     LibraryElement libraryElement = libraryEntry.getValue(DartEntry.ELEMENT);
     DartEntryImpl dartCopy = unitEntry.getWritableCopy();
     dartCopy.setStateInLibrary(DartEntry.VERIFICATION_ERRORS, librarySource, CacheState.IN_PROCESS);
-    cache.put(unitSource, dartCopy);
+    if (!cache.put(unitSource, unitEntry, dartCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(new GenerateDartErrorsTask(
         this,
         unitSource,
         dartCopy.getModificationTime(),
         unit,
-        libraryElement), false);
+        libraryElement,
+        !dartCopy.getValue(DartEntry.FUNCTION_BODIES_SKIPPED)), false);
   }
 
   /**
@@ -3025,8 +3384,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     LibraryElement libraryElement = libraryEntry.getValue(DartEntry.ELEMENT);
     CompilationUnitElement definingUnit = libraryElement.getDefiningCompilationUnit();
     CompilationUnitElement[] parts = libraryElement.getParts();
-    @SuppressWarnings("unchecked")
-    TimestampedData<CompilationUnit>[] units = new TimestampedData[parts.length + 1];
+    TimestampedData<CompilationUnit>[] units = TimestampedData.newArray(parts.length + 1);
     units[0] = getResolvedUnit(definingUnit, librarySource);
     if (units[0] == null) {
       // TODO(brianwilkerson) We should return a ResolveDartUnitTask (unless there are multiple ASTs
@@ -3044,8 +3402,93 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
 
     DartEntryImpl dartCopy = dartEntry.getWritableCopy();
     dartCopy.setStateInLibrary(DartEntry.HINTS, librarySource, CacheState.IN_PROCESS);
-    cache.put(source, dartCopy);
-    return new TaskData(new GenerateDartHintsTask(this, units, libraryElement), false);
+    if (!cache.put(source, dartEntry, dartCopy)) {
+      return new TaskData(null, true);
+    }
+    return new TaskData(new GenerateDartHintsTask(
+        this,
+        units,
+        libraryElement,
+        !libraryEntry.getValue(DartEntry.FUNCTION_BODIES_SKIPPED)), false);
+  }
+
+  /**
+   * Create a {@link GenerateDartLibraryErrorsTask} that verifies all of the compilation units in the
+   * given library concurrently, marking the verification errors of the units, and the hints if they
+   * also need to be generated, as being in-process. Return {@code null} if the library has a single
+   * compilation unit and no hints are needed, if any of the units are not resolved, or if any of
+   * them has already been verified, is being verified or has been modified by another context, in
+   * which case the units should be verified one at a time.
+   * 
+   * @param librarySource the source for the library whose compilation units are to be verified
+   * @param libraryEntry the entry for the library
+   * @return task data representing the created task
+   */
+  private TaskData createGenerateDartLibraryErrorsTask(Source librarySource, DartEntry libraryEntry) {
+    LibraryElement libraryElement = libraryEntry.getValue(DartEntry.ELEMENT);
+    if (libraryElement == null) {
+      return null;
+    }
+    CompilationUnitElement[] parts = libraryElement.getParts();
+    int unitCount = parts.length + 1;
+    TimestampedData<CompilationUnit>[] units = TimestampedData.newArray(unitCount);
+    DartEntry[] unitEntries = new DartEntry[unitCount];
+    boolean generateHints = options.getHint();
+    for (int i = 0; i < unitCount; i++) {
+      CompilationUnitElement unitElement = i == 0 ? libraryElement.getDefiningCompilationUnit()
+          : parts[i - 1];
+      SourceEntry sourceEntry = cache.get(unitElement.getSource());
+      if (!(sourceEntry instanceof DartEntry)) {
+        return null;
+      }
+      DartEntry unitEntry = (DartEntry) sourceEntry;
+      CacheState errorsState = unitEntry.getStateInLibrary(
+          DartEntry.VERIFICATION_ERRORS,
+          librarySource);
+      if (errorsState != CacheState.INVALID && errorsState != CacheState.FLUSHED) {
+        return null;
+      }
+      if (unitEntry.getStateInLibrary(DartEntry.HINTS, librarySource) != CacheState.INVALID) {
+        generateHints = false;
+      }
+      units[i] = getResolvedUnit(unitElement, librarySource);
+      if (units[i] == null || units[i].getData() == null) {
+        return null;
+      }
+      unitEntries[i] = unitEntry;
+    }
+    if (unitCount == 1 && !generateHints) {
+      return null;
+    }
+    synchronized (cache.getLockFor(librarySource)) {
+      //
+      // Either all of the units are marked as being verified or none of them are, so give up if any
+      // of them was modified by another context sharing the partition since it was read.
+      //
+      for (int i = 0; i < unitCount; i++) {
+        if (cache.get(units[i].getData().getElement().getSource()) != unitEntries[i]) {
+          return null;
+        }
+      }
+      for (int i = 0; i < unitCount; i++) {
+        Source unitSource = units[i].getData().getElement().getSource();
+        DartEntryImpl dartCopy = unitEntries[i].getWritableCopy();
+        dartCopy.setStateInLibrary(
+            DartEntry.VERIFICATION_ERRORS,
+            librarySource,
+            CacheState.IN_PROCESS);
+        if (generateHints) {
+          dartCopy.setStateInLibrary(DartEntry.HINTS, librarySource, CacheState.IN_PROCESS);
+        }
+        cache.put(unitSource, dartCopy);
+      }
+    }
+    return new TaskData(new GenerateDartLibraryErrorsTask(
+        this,
+        units,
+        libraryElement,
+        !libraryEntry.getValue(DartEntry.FUNCTION_BODIES_SKIPPED),
+        generateHints), false);
   }
 
   /**
@@ -3058,7 +3501,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
   private TaskData createGetContentTask(Source source, SourceEntry sourceEntry) {
     SourceEntryImpl sourceCopy = sourceEntry.getWritableCopy();
     sourceCopy.setState(SourceEntry.CONTENT, CacheState.IN_PROCESS);
-    cache.put(source, sourceCopy);
+    if (!cache.put(source, sourceEntry, sourceCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(new GetContentTask(this, source), false);
   }
 
@@ -3079,7 +3524,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     DartEntryImpl dartCopy = dartEntry.getWritableCopy();
     dartCopy.setState(DartEntry.TOKEN_STREAM, CacheState.FLUSHED);
     dartCopy.setState(DartEntry.PARSE_ERRORS, CacheState.IN_PROCESS);
-    cache.put(source, dartCopy);
+    if (!cache.put(source, dartEntry, dartCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(new ParseDartTask(
         this,
         source,
@@ -3104,7 +3551,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     HtmlEntryImpl htmlCopy = htmlEntry.getWritableCopy();
     htmlCopy.setState(SourceEntry.CONTENT, CacheState.FLUSHED);
     htmlCopy.setState(HtmlEntry.PARSE_ERRORS, CacheState.IN_PROCESS);
-    cache.put(source, htmlCopy);
+    if (!cache.put(source, htmlEntry, htmlCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(
         new ParseHtmlTask(this, source, htmlCopy.getModificationTime(), content),
         false);
@@ -3124,7 +3573,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
     HtmlEntryImpl htmlCopy = htmlEntry.getWritableCopy();
     htmlCopy.setState(HtmlEntry.POLYMER_BUILD_ERRORS, CacheState.IN_PROCESS);
-    cache.put(source, htmlCopy);
+    if (!cache.put(source, htmlEntry, htmlCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(new PolymerBuildHtmlTask(
         this,
         source,
@@ -3147,7 +3598,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
     HtmlEntryImpl htmlCopy = htmlEntry.getWritableCopy();
     htmlCopy.setState(HtmlEntry.POLYMER_RESOLUTION_ERRORS, CacheState.IN_PROCESS);
-    cache.put(source, htmlCopy);
+    if (!cache.put(source, htmlEntry, htmlCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(new PolymerResolveHtmlTask(
         this,
         source,
@@ -3172,7 +3625,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     AngularComponentElement component = htmlEntry.getValue(HtmlEntry.ANGULAR_COMPONENT);
     HtmlEntryImpl htmlCopy = htmlEntry.getWritableCopy();
     htmlCopy.setState(HtmlEntry.ANGULAR_ERRORS, CacheState.IN_PROCESS);
-    cache.put(source, htmlCopy);
+    if (!cache.put(source, htmlEntry, htmlCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(new ResolveAngularComponentTemplateTask(
         this,
         source,
@@ -3196,7 +3651,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
     HtmlEntryImpl htmlCopy = htmlEntry.getWritableCopy();
     htmlCopy.setState(HtmlEntry.ANGULAR_ENTRY, CacheState.IN_PROCESS);
-    cache.put(source, htmlCopy);
+    if (!cache.put(source, htmlEntry, htmlCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(new ResolveAngularEntryHtmlTask(
         this,
         source,
@@ -3227,7 +3684,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     } catch (AnalysisException exception) {
       DartEntryImpl dartCopy = dartEntry.getWritableCopy();
       dartCopy.recordResolutionError(exception);
-      cache.put(source, dartCopy);
+      if (!cache.put(source, dartEntry, dartCopy)) {
+        return new TaskData(null, true);
+      }
       AnalysisEngine.getInstance().getLogger().logError(
           "Internal error trying to create a ResolveDartLibraryTask",
           exception);
@@ -3249,7 +3708,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
     HtmlEntryImpl htmlCopy = htmlEntry.getWritableCopy();
     htmlCopy.setState(HtmlEntry.RESOLVED_UNIT, CacheState.IN_PROCESS);
-    cache.put(source, htmlCopy);
+    if (!cache.put(source, htmlEntry, htmlCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(new ResolveHtmlTask(
         this,
         source,
@@ -3273,7 +3734,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     DartEntryImpl dartCopy = dartEntry.getWritableCopy();
     dartCopy.setState(SourceEntry.CONTENT, CacheState.FLUSHED);
     dartCopy.setState(DartEntry.SCAN_ERRORS, CacheState.IN_PROCESS);
-    cache.put(source, dartCopy);
+    if (!cache.put(source, dartEntry, dartCopy)) {
+      return new TaskData(null, true);
+    }
     return new TaskData(
         new ScanDartTask(this, source, dartCopy.getModificationTime(), content),
         false);
@@ -3293,13 +3756,17 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       HtmlEntryImpl htmlEntry = new HtmlEntryImpl();
       htmlEntry.setModificationTime(getModificationStamp(source));
       htmlEntry.setExplicitlyAdded(explicitlyAdded);
-      cache.put(source, htmlEntry);
+      if (!cache.put(source, null, htmlEntry)) {
+        return cache.get(source);
+      }
       return htmlEntry;
     } else {
       DartEntryImpl dartEntry = new DartEntryImpl();
       dartEntry.setModificationTime(getModificationStamp(source));
       dartEntry.setExplicitlyAdded(explicitlyAdded);
-      cache.put(source, dartEntry);
+      if (!cache.put(source, null, dartEntry)) {
+        return cache.get(source);
+      }
       return dartEntry;
     }
   }
@@ -3315,6 +3782,29 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return "'" + source.getFullName() + "' [" + getModificationStamp(source) + "]";
   }
 
+  /**
+   * If the API signature of the given library is known, record that the libraries depending on it
+   * should only be invalidated if the signature is different once the library has been resolved
+   * again, and return {@code true}. Otherwise, return {@code false} to indicate that the dependent
+   * libraries must be invalidated immediately.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param librarySource the source of the library that has been changed
+   * @return {@code true} if the invalidation of the dependent libraries has been deferred
+   */
+  private boolean deferInvalidationOfDependents(Source librarySource) {
+    if (pendingApiChanges.containsKey(librarySource)) {
+      return true;
+    }
+    Long signature = apiSignatures.get(librarySource);
+    if (signature == null) {
+      return false;
+    }
+    pendingApiChanges.put(librarySource, signature);
+    return true;
+  }
+
   /**
    * Return an array containing all of the change notices that are waiting to be returned. If there
    * are no notices, then return either {@code null} or an empty array, depending on the value of
@@ -3632,7 +4122,21 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    * @return the next task that needs to be performed
    */
   private AnalysisTask getNextAnalysisTask() {
+    return getNextAnalysisTask(null);
+  }
+
+  /**
+   * Look through the cache for a task that needs to be performed for a source other than the given
+   * sources. Return the task that was found, or {@code null} if there is no more work to be done.
+   * 
+   * @param excludedSources the sources for which a task is already being performed, or
+   *          {@code null} if no sources are to be excluded
+   * @return the next task that needs to be performed
+   */
+  private AnalysisTask getNextAnalysisTask(Set<Source> excludedSources) {
     synchronized (cacheLock) {
+      validateIncrementalAnalysis();
+      invalidateDependentsOfChangedApis();
       boolean hintsEnabled = options.getHint();
       boolean hasBlockedTask = false;
       //
@@ -3649,6 +4153,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       int priorityCount = priorityOrder.length;
       for (int i = 0; i < priorityCount; i++) {
         Source source = priorityOrder[i];
+        if (excludedSources != null && excludedSources.contains(source)) {
+          continue;
+        }
         TaskData taskData = getNextAnalysisTaskForSource(
             source,
             cache.get(source),
@@ -3664,6 +4171,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       if (neededForResolution != null) {
         ArrayList<Source> sourcesToRemove = new ArrayList<Source>();
         for (Source source : neededForResolution) {
+          if (excludedSources != null && excludedSources.contains(source)) {
+            continue;
+          }
           SourceEntry sourceEntry = cache.get(source);
           if (sourceEntry instanceof DartEntry) {
             DartEntry dartEntry = (DartEntry) sourceEntry;
@@ -3695,6 +4205,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       try {
         while (sources.hasNext()) {
           Source source = sources.next();
+          if (excludedSources != null && excludedSources.contains(source)) {
+            continue;
+          }
           TaskData taskData = getNextAnalysisTaskForSource(
               source,
               cache.get(source),
@@ -3800,7 +4313,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
             //return createResolveDartLibraryTask(librarySource, (DartEntry) libraryEntry);
             DartEntryImpl libraryCopy = libraryEntry.getWritableCopy();
             libraryCopy.setState(DartEntry.ELEMENT, CacheState.IN_PROCESS);
-            cache.put(librarySource, libraryCopy);
+            if (!cache.put(librarySource, libraryEntry, libraryCopy)) {
+              return new TaskData(null, true);
+            }
             return new TaskData(new ResolveDartLibraryTask(this, source, librarySource), false);
           }
           CacheState resolvedUnitState = dartEntry.getStateInLibrary(
@@ -3823,7 +4338,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
                 DartEntry.RESOLVED_UNIT,
                 librarySource,
                 CacheState.IN_PROCESS);
-            cache.put(source, dartCopy);
+            if (!cache.put(source, dartEntry, dartCopy)) {
+              return new TaskData(null, true);
+            }
             return new TaskData(new ResolveDartLibraryTask(this, source, librarySource), false);
           }
           if (generateSdkErrors || !source.isInSystemLibrary()) {
@@ -4008,6 +4525,28 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return null;
   }
 
+  /**
+   * Return the source for which the given task, which must be able to be performed concurrently,
+   * computes results.
+   * 
+   * @param task the task whose source is to be returned
+   * @return the source for which the task computes results
+   */
+  private Source getTaskSource(AnalysisTask task) {
+    if (task instanceof ScanDartTask) {
+      return ((ScanDartTask) task).getSource();
+    } else if (task instanceof ParseDartTask) {
+      return ((ParseDartTask) task).getSource();
+    } else if (task instanceof GenerateDartErrorsTask) {
+      return ((GenerateDartErrorsTask) task).getSource();
+    } else if (task instanceof GenerateDartHintsTask) {
+      return ((GenerateDartHintsTask) task).getLibraryElement().getSource();
+    } else if (task instanceof ResolveDartLibraryCycleTask) {
+      return ((ResolveDartLibraryCycleTask) task).getLibrarySource();
+    }
+    return null;
+  }
+
   /**
    * Return an array containing all of the sources known to this context that have the given kind.
    * 
@@ -4242,6 +4781,55 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Invalidate the libraries depending on each changed library whose invalidation was deferred, if
+   * the changed library has been resolved again and its API signature is different than it was
+   * before the change. Libraries that have not been resolved again yet remain pending.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   */
+  private void invalidateDependentsOfChangedApis() {
+    if (pendingApiChanges.isEmpty()) {
+      return;
+    }
+    ArrayList<Source> changedLibraries = new ArrayList<Source>();
+    Iterator<Entry<Source, Long>> iterator = pendingApiChanges.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Entry<Source, Long> entry = iterator.next();
+      Source librarySource = entry.getKey();
+      SourceEntry sourceEntry = cache.get(librarySource);
+      if (sourceEntry instanceof DartEntry && sourceEntry.getKind() != SourceKind.PART) {
+        CacheState state = ((DartEntry) sourceEntry).getState(DartEntry.ELEMENT);
+        if (state == CacheState.VALID) {
+          iterator.remove();
+          if (!entry.getValue().equals(apiSignatures.get(librarySource))) {
+            changedLibraries.add(librarySource);
+          } else {
+            updateOffsetsInDependents(
+                librarySource,
+                ((DartEntry) sourceEntry).getValue(DartEntry.ELEMENT));
+          }
+        } else if (state == CacheState.ERROR) {
+          iterator.remove();
+          changedLibraries.add(librarySource);
+        }
+      } else {
+        iterator.remove();
+        changedLibraries.add(librarySource);
+      }
+    }
+    HashSet<Source> librariesToInvalidate = new HashSet<Source>();
+    for (Source librarySource : changedLibraries) {
+      for (Source dependentLibrary : getLibrariesDependingOn(librarySource)) {
+        computeAllLibrariesDependingOn(dependentLibrary, librariesToInvalidate);
+      }
+    }
+    librariesToInvalidate.removeAll(changedLibraries);
+    for (Source library : librariesToInvalidate) {
+      invalidateLibraryResolution(library);
+    }
+  }
+
   /**
    * In response to a change to at least one of the compilation units in the given library,
    * invalidate any results that are dependent on the result of resolving that library.
@@ -4254,9 +4842,6 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
    * @param librarySource the source of the library being invalidated
    */
   private void invalidateLibraryResolution(Source librarySource) {
-    // TODO(brianwilkerson) This could be optimized. There's no need to flush all of these entries
-    // if the public namespace hasn't changed, which will be a fairly common case. The question is
-    // whether we can afford the time to compute the namespace to look for differences.
     DartEntry libraryEntry = getReadableDartEntry(librarySource);
     if (libraryEntry != null) {
       Source[] includedParts = libraryEntry.getValue(DartEntry.INCLUDED_PARTS);
@@ -4287,6 +4872,28 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * If the function bodies in the given source were skipped when it was last resolved, invalidate
+   * the resolution of the libraries containing it so that they will be resolved again, this time
+   * including the function bodies if they are now required.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source whose function bodies might need to be analyzed
+   */
+  private void invalidateSkippedFunctionBodies(Source source) {
+    DartEntry dartEntry = getReadableDartEntry(source);
+    if (dartEntry == null || !dartEntry.getValue(DartEntry.FUNCTION_BODIES_SKIPPED)) {
+      return;
+    }
+    for (Source librarySource : getLibrariesContaining(source)) {
+      if (getAnalyzeFunctionBodies(librarySource)) {
+        deferInvalidationOfDependents(librarySource);
+        invalidateLibraryResolution(librarySource);
+      }
+    }
+  }
+
   /**
    * Return {@code true} if this library is, or depends on, dart:html.
    * 
@@ -4454,6 +5061,112 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Perform the given analysis task on the current thread, recording its results.
+   * 
+   * @param task the task to be performed
+   */
+  private void performTask(AnalysisTask task) {
+    try {
+      task.perform(resultRecorder);
+    } catch (ObsoleteSourceAnalysisException exception) {
+      AnalysisEngine.getInstance().getLogger().logInformation(
+          "Could not perform analysis task: " + task,
+          exception);
+    } catch (AnalysisException exception) {
+      if (!(exception.getCause() instanceof IOException)) {
+        AnalysisEngine.getInstance().getLogger().logError(
+            "Internal error while performing the task: " + task,
+            exception);
+      }
+    }
+  }
+
+  /**
+   * Perform the given analysis task, together with as many additional independent tasks as are
+   * available (up to the given maximum), concurrently. If a task that cannot be performed
+   * concurrently is encountered while gathering tasks, it is performed on the current thread after
+   * the concurrent tasks have completed.
+   * <p>
+   * Each task records its own results through the result recorder, which validates them against
+   * the current modification stamp of the source while holding the cache lock, so results computed
+   * from out-of-date content are discarded exactly as they would be if the tasks were performed one
+   * at a time.
+   * 
+   * <p>
+   * Library cycles are only resolved concurrently if they are independent: a cycle is not gathered
+   * if it contains, or depends on, a library in one of the cycles already gathered, or if one of
+   * those cycles depends on a library in it. Because the cycle builder only produces a task for a
+   * cycle once every library the cycle depends on has an element model, the element models shared
+   * by the concurrent resolutions (including those of the SDK from which the type provider is
+   * built) are only read.
+   * 
+   * @param firstTask the first task to be performed, which must be able to be performed concurrently
+   * @param maxTaskCount the maximum number of tasks to be performed concurrently
+   */
+  private void performTasksInParallel(AnalysisTask firstTask, int maxTaskCount) {
+    ArrayList<AnalysisTask> tasks = new ArrayList<AnalysisTask>();
+    tasks.add(firstTask);
+    HashSet<Source> sourcesInProcess = new HashSet<Source>();
+    HashSet<Source> librariesInProcess = new HashSet<Source>();
+    HashSet<Source> dependenciesInProcess = new HashSet<Source>();
+    recordTaskInProcess(firstTask, sourcesInProcess, librariesInProcess, dependenciesInProcess);
+    AnalysisTask sequentialTask = null;
+    while (tasks.size() < maxTaskCount) {
+      // The sources of the tasks already gathered are excluded because their next task depends on
+      // the results of the task being performed.
+      AnalysisTask task = getNextAnalysisTask(sourcesInProcess);
+      if (task == null || task instanceof WaitForAsyncTask) {
+        break;
+      } else if (!canPerformInParallel(task)) {
+        // Getting the task has already marked its results as being in process, so it must be
+        // performed, but not until the concurrent tasks have completed.
+        sequentialTask = task;
+        break;
+      } else if (task instanceof ResolveDartLibraryCycleTask) {
+        List<ResolvableLibrary> librariesInCycle = ((ResolveDartLibraryCycleTask) task).getLibrariesInCycle();
+        if (containsLibrary(librariesInProcess, librariesInCycle)) {
+          // The cycle is already being resolved. Nothing was marked as being in process when the
+          // task was created, so the duplicate can be dropped.
+          break;
+        }
+        HashSet<Source> dependencies = new HashSet<Source>();
+        computeCycleDependencies(librariesInCycle, dependencies);
+        if (containsLibrary(dependenciesInProcess, librariesInCycle)
+            || !Collections.disjoint(dependencies, librariesInProcess)) {
+          // The cycle cannot be resolved until the cycles it is related to have been resolved.
+          sequentialTask = task;
+          break;
+        }
+      }
+      tasks.add(task);
+      recordTaskInProcess(task, sourcesInProcess, librariesInProcess, dependenciesInProcess);
+    }
+    ArrayList<Runnable> work = new ArrayList<Runnable>(tasks.size());
+    for (final AnalysisTask task : tasks) {
+      String taskDescription = task.toString();
+      notifyAboutToPerformTask(taskDescription);
+      if (TRACE_PERFORM_TASK) {
+        System.out.println(taskDescription);
+      }
+      work.add(new Runnable() {
+        @Override
+        public void run() {
+          performTask(task);
+        }
+      });
+    }
+    AnalysisTaskExecutor.getInstance().runAll(work);
+    if (sequentialTask != null) {
+      String taskDescription = sequentialTask.toString();
+      notifyAboutToPerformTask(taskDescription);
+      if (TRACE_PERFORM_TASK) {
+        System.out.println(taskDescription);
+      }
+      performTask(sequentialTask);
+    }
+  }
+
   /**
    * Updates {@link HtmlEntry}s that correspond to the previously known and new Angular application
    * information.
@@ -4513,6 +5226,7 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
   private void recordElementData(DartEntryImpl dartCopy, LibraryElement library,
       Source librarySource, Source htmlSource) {
     dartCopy.setValue(DartEntry.ELEMENT, library);
+    apiSignatures.put(librarySource, ApiSignature.compute(library));
     dartCopy.setValue(DartEntry.IS_LAUNCHABLE, library.getEntryPoint() != null);
     dartCopy.setValue(
         DartEntry.IS_CLIENT,
@@ -4715,6 +5429,88 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return libraryEntry;
   }
 
+  /**
+   * Record the results produced by performing a {@link GenerateDartLibraryErrorsTask}. The results
+   * for all of the compilation units in the library are recorded while holding the cache lock once.
+   * The results for a unit that were computed from data that is now out-of-date are not recorded.
+   * 
+   * @param task the task that was performed
+   * @return an entry containing the computed results for the defining compilation unit
+   * @throws AnalysisException if the results could not be recorded
+   */
+  private DartEntry recordGenerateDartLibraryErrorsTask(GenerateDartLibraryErrorsTask task)
+      throws AnalysisException {
+    Source librarySource = task.getLibraryElement().getSource();
+    AnalysisException thrownException = task.getException();
+    boolean generateHints = task.getGenerateHints();
+    DartEntry libraryEntry = null;
+    synchronized (cacheLock) {
+      for (TimestampedData<CompilationUnit> unit : task.getUnits()) {
+        Source unitSource = unit.getData().getElement().getSource();
+        SourceEntry sourceEntry = cache.get(unitSource);
+        if (!(sourceEntry instanceof DartEntry)) {
+          // The source was removed while it was being verified, so there is nothing to record.
+          continue;
+        }
+        DartEntry dartEntry = (DartEntry) sourceEntry;
+        long sourceTime = getModificationStamp(unitSource);
+        long resultTime = unit.getModificationTime();
+        if (sourceTime == resultTime) {
+          if (dartEntry.getModificationTime() != sourceTime) {
+            // The source has changed without the context being notified. Simulate notification.
+            sourceChanged(unitSource);
+            dartEntry = getReadableDartEntry(unitSource);
+            if (dartEntry == null) {
+              continue;
+            }
+          }
+          DartEntryImpl dartCopy = dartEntry.getWritableCopy();
+          if (thrownException == null) {
+            dartCopy.setValueInLibrary(
+                DartEntry.VERIFICATION_ERRORS,
+                librarySource,
+                task.getErrors(unitSource));
+            if (generateHints) {
+              dartCopy.setValueInLibrary(DartEntry.HINTS, librarySource, task.getHints(unitSource));
+            }
+            ChangeNoticeImpl notice = getNotice(unitSource);
+            notice.setErrors(dartCopy.getAllErrors(), dartCopy.getValue(SourceEntry.LINE_INFO));
+          } else {
+            dartCopy.recordVerificationErrorInLibrary(librarySource, thrownException);
+            if (generateHints) {
+              dartCopy.recordHintErrorInLibrary(librarySource, thrownException);
+            }
+          }
+          cache.put(unitSource, dartCopy);
+          dartEntry = dartCopy;
+        } else {
+          logInformation("Generated errors discarded for " + debuggingString(unitSource)
+              + "; sourceTime = " + sourceTime + ", resultTime = " + resultTime + ", cacheTime = "
+              + dartEntry.getModificationTime(), thrownException);
+          //
+          // The analysis was performed on out-of-date sources. Mark the cache so that the source
+          // will be re-verified using the up-to-date sources.
+          //
+          DartEntryImpl dartCopy = dartEntry.getWritableCopy();
+          removeFromParts(unitSource, dartEntry);
+          dartCopy.invalidateAllInformation();
+          dartCopy.setModificationTime(sourceTime);
+          cache.removedAst(unitSource);
+          workManager.add(unitSource, SourcePriority.UNKNOWN);
+          cache.put(unitSource, dartCopy);
+          dartEntry = dartCopy;
+        }
+        if (unitSource.equals(librarySource)) {
+          libraryEntry = dartEntry;
+        }
+      }
+    }
+    if (thrownException != null) {
+      throw thrownException;
+    }
+    return libraryEntry;
+  }
+
   /**
    * Record the results produced by performing a {@link GetContentTask}.
    * 
@@ -4766,6 +5562,9 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
         ChangeNoticeImpl notice = getNotice(task.getSource());
         notice.setCompilationUnit(unit);
         incrementalAnalysisCache = IncrementalAnalysisCache.cacheResult(task.getCache(), unit);
+        if (options.getIncrementalValidation()) {
+          incrementalValidationCache = IncrementalAnalysisCache.cacheResult(task.getCache(), unit);
+        }
       }
     }
     return null;
@@ -5585,6 +6384,62 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     return dartEntry;
   }
 
+  /**
+   * Record the results for the given compilation unit that are implied by the unit's library
+   * having been read from a summary: the unit was scanned, parsed and resolved without errors, but
+   * none of the intermediate results are available.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param dartCopy the entry for the compilation unit
+   * @param librarySource the source of the library containing the compilation unit
+   */
+  private void recordSummarizedUnitData(DartEntryImpl dartCopy, Source librarySource) {
+    dartCopy.setState(SourceEntry.CONTENT, CacheState.FLUSHED);
+    dartCopy.setValue(DartEntry.ANGULAR_ERRORS, AnalysisError.NO_ERRORS);
+    dartCopy.setValue(DartEntry.PARSE_ERRORS, AnalysisError.NO_ERRORS);
+    dartCopy.setState(DartEntry.PARSED_UNIT, CacheState.FLUSHED);
+    dartCopy.setValue(DartEntry.SCAN_ERRORS, AnalysisError.NO_ERRORS);
+    dartCopy.setState(DartEntry.TOKEN_STREAM, CacheState.FLUSHED);
+
+    dartCopy.setValueInLibrary(
+        DartEntry.RESOLUTION_ERRORS,
+        librarySource,
+        AnalysisError.NO_ERRORS);
+    dartCopy.setStateInLibrary(DartEntry.RESOLVED_UNIT, librarySource, CacheState.FLUSHED);
+    dartCopy.setValueInLibrary(
+        DartEntry.VERIFICATION_ERRORS,
+        librarySource,
+        AnalysisError.NO_ERRORS);
+    dartCopy.setValueInLibrary(DartEntry.HINTS, librarySource, AnalysisError.NO_ERRORS);
+  }
+
+  /**
+   * Record that the given task, which must be able to be performed concurrently, is about to be
+   * performed concurrently with other tasks.
+   * 
+   * @param task the task that is about to be performed
+   * @param sourcesInProcess the sources for which results are being computed
+   * @param librariesInProcess the sources of the libraries in the cycles being resolved
+   * @param dependenciesInProcess the sources of the libraries on which the cycles being resolved
+   *          depend
+   */
+  private void recordTaskInProcess(AnalysisTask task, HashSet<Source> sourcesInProcess,
+      HashSet<Source> librariesInProcess, HashSet<Source> dependenciesInProcess) {
+    if (task instanceof ResolveDartLibraryCycleTask) {
+      List<ResolvableLibrary> librariesInCycle = ((ResolveDartLibraryCycleTask) task).getLibrariesInCycle();
+      for (ResolvableLibrary library : librariesInCycle) {
+        librariesInProcess.add(library.getLibrarySource());
+        for (Source source : library.getCompilationUnitSources()) {
+          sourcesInProcess.add(source);
+        }
+      }
+      computeCycleDependencies(librariesInCycle, dependenciesInProcess);
+    } else {
+      sourcesInProcess.add(getTaskSource(task));
+    }
+  }
+
   /**
    * Remove the given library from the list of containing libraries for all of the parts referenced
    * by the given entry.
@@ -5659,6 +6514,44 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
   }
 
+  /**
+   * Record that the results of analyzing the function bodies in the given source have been
+   * requested. If the function bodies are being analyzed lazily and were skipped when the source
+   * was last resolved, the libraries containing it will be resolved again.
+   * 
+   * @param source the source whose function bodies are required
+   */
+  private void requestFunctionBodies(Source source) {
+    if (!options.getAnalyzeFunctionBodiesLazily()) {
+      return;
+    }
+    synchronized (cacheLock) {
+      requestedFunctionBodies.add(source);
+      invalidateSkippedFunctionBodies(source);
+    }
+  }
+
+  /**
+   * Return {@code true} if the function bodies in the given source must be analyzed, either because
+   * the source is open in an editor, is a priority source or its function bodies were requested.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source being tested
+   * @return {@code true} if the function bodies in the given source must be analyzed
+   */
+  private boolean requiresFunctionBodies(Source source) {
+    if (contentCache.getContents(source) != null || requestedFunctionBodies.contains(source)) {
+      return true;
+    }
+    for (Source prioritySource : priorityOrder) {
+      if (prioritySource.equals(source)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Create an entry for the newly added source. Return {@code true} if the new source is a Dart
    * file.
@@ -5708,7 +6601,11 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       Source[] containingLibraries = getLibrariesContaining(source);
       HashSet<Source> librariesToInvalidate = new HashSet<Source>();
       for (Source containingLibrary : containingLibraries) {
-        computeAllLibrariesDependingOn(containingLibrary, librariesToInvalidate);
+        if (deferInvalidationOfDependents(containingLibrary)) {
+          librariesToInvalidate.add(containingLibrary);
+        } else {
+          computeAllLibrariesDependingOn(containingLibrary, librariesToInvalidate);
+        }
       }
 
       for (Source library : librariesToInvalidate) {
@@ -5779,10 +6676,109 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
       }
     }
     cache.remove(source);
+    apiSignatures.remove(source);
+    constantValueCache.remove(source);
+    requestedFunctionBodies.remove(source);
     workManager.remove(source);
     removeFromPriorityOrder(source);
   }
 
+  /**
+   * Return a compilation unit for the given source that can be resolved, recording in the cache that
+   * the parsed unit has been handed out so that it is not resolved by anyone else. The entry that
+   * was read for the source might have been replaced by another context sharing the partition
+   * containing the source, in which case the current entry is used if it still has a resolvable
+   * unit. Otherwise the current entry is left unchanged and a clone of the unit from the given
+   * entry is returned, because that unit might already have been handed out.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param source the source of the compilation unit
+   * @param dartEntry the entry that was read for the source
+   * @return the compilation unit that can be resolved, which can be {@code null}
+   */
+  private ResolvableCompilationUnit takeResolvableCompilationUnit(Source source,
+      DartEntry dartEntry) {
+    synchronized (cache.getLockFor(source)) {
+      SourceEntry currentEntry = cache.get(source);
+      if (currentEntry != dartEntry && currentEntry instanceof DartEntry
+          && ((DartEntry) currentEntry).hasResolvableCompilationUnit()) {
+        dartEntry = (DartEntry) currentEntry;
+      }
+      DartEntryImpl dartCopy = dartEntry.getWritableCopy();
+      CompilationUnit unit = dartCopy.getResolvableCompilationUnit();
+      if (dartEntry == currentEntry) {
+        cache.put(source, dartCopy);
+      } else if (unit != null) {
+        unit = (CompilationUnit) unit.accept(new AstCloner());
+      }
+      return new ResolvableCompilationUnit(dartCopy.getModificationTime(), unit, source);
+    }
+  }
+
+  /**
+   * Update the offsets in the element models of the given library that are referenced by the
+   * libraries depending on it to match the given, current element model. This is done when the
+   * library has been resolved again without changing its API signature, in which case the
+   * dependent libraries are not resolved again and keep referring to the elements of the element
+   * model they were resolved against.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   * 
+   * @param librarySource the source of the library that was resolved again
+   * @param library the current element model of the library
+   */
+  private void updateOffsetsInDependents(Source librarySource, LibraryElement library) {
+    if (library == null) {
+      return;
+    }
+    HashSet<Source> dependentLibraries = new HashSet<Source>();
+    for (Source dependentLibrary : getLibrariesDependingOn(librarySource)) {
+      computeAllLibrariesDependingOn(dependentLibrary, dependentLibraries);
+    }
+    Set<LibraryElement> visitedLibraries = Sets.newSetFromMap(
+        new IdentityHashMap<LibraryElement, Boolean>());
+    for (Source dependentLibrary : dependentLibraries) {
+      DartEntry dependentEntry = getReadableDartEntry(dependentLibrary);
+      if (dependentEntry != null) {
+        updateOffsetsInLibraryModels(
+            dependentEntry.getValue(DartEntry.ELEMENT),
+            library,
+            dependentLibraries,
+            visitedLibraries);
+      }
+    }
+  }
+
+  /**
+   * Update the offsets in the element models of the library represented by the given current
+   * element model that can be reached from the given element model through imports and exports.
+   * Only the element models of dependent libraries are traversed, because only they can refer to
+   * the elements of the library.
+   * 
+   * @param element the element model being traversed
+   * @param library the current element model of the library whose offsets are being updated
+   * @param dependentLibraries the sources of the libraries depending on the library
+   * @param visitedLibraries the element models that have already been traversed
+   */
+  private void updateOffsetsInLibraryModels(LibraryElement element, LibraryElement library,
+      HashSet<Source> dependentLibraries, Set<LibraryElement> visitedLibraries) {
+    if (element == null || element == library || !visitedLibraries.add(element)) {
+      return;
+    }
+    Source source = element.getSource();
+    if (source.equals(library.getSource())) {
+      DeclarationOffsetUpdater.update(element, library);
+    } else if (dependentLibraries.contains(source)) {
+      for (LibraryElement importedLibrary : element.getImportedLibraries()) {
+        updateOffsetsInLibraryModels(importedLibrary, library, dependentLibraries, visitedLibraries);
+      }
+      for (LibraryElement exportedLibrary : element.getExportedLibraries()) {
+        updateOffsetsInLibraryModels(exportedLibrary, library, dependentLibraries, visitedLibraries);
+      }
+    }
+  }
+
   /**
    * Check the cache for any invalid entries (entries whose modification time does not match the
    * modification time of the source associated with the entry). Invalid entries will be marked as
@@ -5837,4 +6833,39 @@ public class AnalysisContextImpl implements InternalAnalysisContext {
     }
     return changedSources.size() > 0;
   }
+
+  /**
+   * If the result of an incremental analysis is waiting to be validated and the full analysis of
+   * the same contents has produced a resolved compilation unit, compare the two and log any
+   * difference between them.
+   * <p>
+   * <b>Note:</b> This method must only be invoked while we are synchronized on {@link #cacheLock}.
+   */
+  private void validateIncrementalAnalysis() {
+    IncrementalAnalysisCache validationCache = incrementalValidationCache;
+    if (validationCache == null) {
+      return;
+    }
+    Source source = validationCache.getSource();
+    SourceEntry sourceEntry = cache.get(source);
+    if (!(sourceEntry instanceof DartEntry)
+        || !validationCache.getNewContents().equals(contentCache.getContents(source))) {
+      // The contents have been changed again, so there is no full analysis to compare with.
+      incrementalValidationCache = null;
+      return;
+    }
+    DartEntry dartEntry = (DartEntry) sourceEntry;
+    Source librarySource = validationCache.getLibrarySource();
+    CacheState state = dartEntry.getStateInLibrary(DartEntry.RESOLVED_UNIT, librarySource);
+    if (state == CacheState.ERROR) {
+      incrementalValidationCache = null;
+    } else if (state == CacheState.VALID) {
+      incrementalValidationCache = null;
+      CompilationUnit unit = dartEntry.getValueInLibrary(DartEntry.RESOLVED_UNIT, librarySource);
+      if (!ResolvedAstComparator.equalResolvedNodes(validationCache.getResolvedUnit(), unit)) {
+        logInformation("Incremental analysis of " + debuggingString(source)
+            + " does not match the full analysis");
+      }
+    }
+  }
 }
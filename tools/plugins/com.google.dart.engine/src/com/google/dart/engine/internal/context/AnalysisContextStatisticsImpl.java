@@ -35,10 +35,17 @@ public class AnalysisContextStatisticsImpl implements AnalysisContextStatistics
   public static class PartitionDataImpl implements PartitionData {
     private int astCount;
 
+    private long estimatedAstBytes;
+
     private int totalCount;
 
     public PartitionDataImpl(int astCount, int totalCount) {
+      this(astCount, 0L, totalCount);
+    }
+
+    public PartitionDataImpl(int astCount, long estimatedAstBytes, int totalCount) {
       this.astCount = astCount;
+      this.estimatedAstBytes = estimatedAstBytes;
       this.totalCount = totalCount;
     }
 
@@ -47,6 +54,11 @@ public class AnalysisContextStatisticsImpl implements AnalysisContextStatistics
       return astCount;
     }
 
+    @Override
+    public long getEstimatedAstBytes() {
+      return estimatedAstBytes;
+    }
+
     @Override
     public int getTotalCount() {
       return totalCount;
@@ -54,6 +54,12 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
    */
   private boolean analyzeFunctionBodies = true;
 
+  /**
+   * A flag indicating whether the function bodies in libraries that are neither priority sources
+   * nor open in an editor are to be analyzed only when needed.
+   */
+  private boolean analyzeFunctionBodiesLazily = false;
+
   /**
    * A flag indicating whether analysis is to analyze Polymer.
    */
@@ -101,6 +107,16 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
    */
   private boolean incremental = false;
 
+  /**
+   * A flag indicating whether the results of incremental analysis should be validated.
+   */
+  private boolean incrementalValidation = false;
+
+  /**
+   * The maximum number of independent analysis tasks that can be performed concurrently.
+   */
+  private int parallelTaskCount = 1;
+
   /**
    * A flag indicating whether analysis is to parse comments.
    */
@@ -121,6 +137,7 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
   public AnalysisOptionsImpl(AnalysisOptions options) {
     analyzeAngular = options.getAnalyzeAngular();
     analyzeFunctionBodies = options.getAnalyzeFunctionBodies();
+    analyzeFunctionBodiesLazily = options.getAnalyzeFunctionBodiesLazily();
     analyzePolymer = options.getAnalyzePolymer();
     cacheSize = options.getCacheSize();
     dart2jsHint = options.getDart2jsHint();
@@ -130,6 +147,8 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
     generateSdkErrors = options.getGenerateSdkErrors();
     hint = options.getHint();
     incremental = options.getIncremental();
+    incrementalValidation = options.getIncrementalValidation();
+    parallelTaskCount = options.getParallelTaskCount();
     preserveComments = options.getPreserveComments();
   }
 
@@ -143,6 +162,11 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
     return analyzeFunctionBodies;
   }
 
+  @Override
+  public boolean getAnalyzeFunctionBodiesLazily() {
+    return analyzeFunctionBodiesLazily;
+  }
+
   @Override
   public boolean getAnalyzePolymer() {
     return analyzePolymer;
@@ -191,6 +215,16 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
     return incremental;
   }
 
+  @Override
+  public boolean getIncrementalValidation() {
+    return incrementalValidation;
+  }
+
+  @Override
+  public int getParallelTaskCount() {
+    return parallelTaskCount;
+  }
+
   @Override
   public boolean getPreserveComments() {
     return preserveComments;
@@ -214,6 +248,17 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
     this.analyzeFunctionBodies = analyzeFunctionBodies;
   }
 
+  /**
+   * Set whether the function bodies in libraries that are neither priority sources nor open in an
+   * editor are to be analyzed only when needed.
+   * 
+   * @param analyzeFunctionBodiesLazily {@code true} if function bodies are to be analyzed only
+   *          when needed
+   */
+  public void setAnalyzeFunctionBodiesLazily(boolean analyzeFunctionBodiesLazily) {
+    this.analyzeFunctionBodiesLazily = analyzeFunctionBodiesLazily;
+  }
+
   /**
    * Set whether analysis is to analyze Polymer.
    * 
@@ -303,6 +348,27 @@ public class AnalysisOptionsImpl implements AnalysisOptions {
     this.incremental = incremental;
   }
 
+  /**
+   * Set whether the results of incremental analysis should be validated.
+   * 
+   * @param incrementalValidation {@code true} if the results of incremental analysis should be
+   *          validated
+   */
+  public void setIncrementalValidation(boolean incrementalValidation) {
+    this.incrementalValidation = incrementalValidation;
+  }
+
+  /**
+   * Set the maximum number of independent analysis tasks that can be performed concurrently to the
+   * given value.
+   * 
+   * @param parallelTaskCount the maximum number of analysis tasks that can be performed
+   *          concurrently, or {@code 1} if tasks should be performed one at a time
+   */
+  public void setParallelTaskCount(int parallelTaskCount) {
+    this.parallelTaskCount = Math.max(1, parallelTaskCount);
+  }
+
   /**
    * Set whether analysis is to parse comments.
    * 
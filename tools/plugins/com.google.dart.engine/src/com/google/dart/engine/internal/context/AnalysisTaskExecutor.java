@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.context;
+
+import com.google.dart.engine.AnalysisEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instances of the class {@code AnalysisTaskExecutor} run groups of independent pieces of analysis
+ * work concurrently. A single pool of worker threads, sized to the number of available processors,
+ * is shared by all analysis contexts.
+ */
+public class AnalysisTaskExecutor {
+  /**
+   * The unique instance of this class.
+   */
+  private static final AnalysisTaskExecutor UniqueInstance = new AnalysisTaskExecutor();
+
+  /**
+   * Return the unique instance of this class.
+   * 
+   * @return the unique instance of this class
+   */
+  public static AnalysisTaskExecutor getInstance() {
+    return UniqueInstance;
+  }
+
+  /**
+   * The service used to run work on the worker threads, or {@code null} if it has not yet been
+   * created.
+   */
+  private ExecutorService executor;
+
+  /**
+   * Prevent the creation of instances of this class.
+   */
+  private AnalysisTaskExecutor() {
+    super();
+  }
+
+  /**
+   * Return the number of worker threads used to run work concurrently.
+   * 
+   * @return the number of worker threads used to run work concurrently
+   */
+  public int getThreadCount() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Run all of the given pieces of work and return once all of them have completed. The first
+   * piece of work is run on the calling thread while the others are run on the worker threads.
+   * Each piece of work is expected to handle its own exceptions; any exception that escapes is
+   * logged.
+   * 
+   * @param work the pieces of work to be run
+   */
+  public void runAll(List<Runnable> work) {
+    int count = work.size();
+    if (count == 0) {
+      return;
+    }
+    ExecutorService service = getExecutor();
+    List<Future<?>> futures = new ArrayList<Future<?>>(count - 1);
+    for (int i = 1; i < count; i++) {
+      futures.add(service.submit(work.get(i)));
+    }
+    try {
+      work.get(0).run();
+    } catch (RuntimeException exception) {
+      logException(exception);
+    }
+    boolean interrupted = false;
+    for (Future<?> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException exception) {
+          interrupted = true;
+        } catch (ExecutionException exception) {
+          logException(exception.getCause());
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Return the service used to run work on the worker threads, creating it if necessary.
+   * 
+   * @return the service used to run work on the worker threads
+   */
+  private synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      final AtomicInteger threadCount = new AtomicInteger();
+      executor = Executors.newFixedThreadPool(getThreadCount(), new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable, "Analysis worker " + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+
+  /**
+   * Log the given exception, which escaped from a piece of work.
+   * 
+   * @param exception the exception that was thrown
+   */
+  private void logException(Throwable exception) {
+    AnalysisEngine.getInstance().getLogger().logError(
+        "Exception while performing analysis work concurrently",
+        exception);
+  }
+}
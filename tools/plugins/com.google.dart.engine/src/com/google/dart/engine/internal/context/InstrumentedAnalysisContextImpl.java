@@ -20,9 +20,11 @@ import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.internal.cache.SourceEntry;
+import com.google.dart.engine.internal.constant.ConstantValueCache;
 import com.google.dart.engine.internal.element.angular.AngularApplication;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.internal.scope.Namespace;
+import com.google.dart.engine.internal.type.TypeRelationCache;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.Source.ContentReceiver;
 import com.google.dart.engine.source.SourceContainer;
@@ -309,6 +311,11 @@ public class InstrumentedAnalysisContextImpl implements InternalAnalysisContext
     }
   }
 
+  @Override
+  public boolean getAnalyzeFunctionBodies(Source librarySource) {
+    return basis.getAnalyzeFunctionBodies(librarySource);
+  }
+
   @Override
   public AngularApplication getAngularApplicationWithHtml(Source htmlSource) {
     InstrumentationBuilder instrumentation = Instrumentation.builder("Analysis-getAngularApplication");
@@ -340,6 +347,11 @@ public class InstrumentedAnalysisContextImpl implements InternalAnalysisContext
     }
   }
 
+  @Override
+  public ConstantValueCache getConstantValueCache() {
+    return basis.getConstantValueCache();
+  }
+
   @Override
   public TimestampedData<CharSequence> getContents(Source source) throws Exception {
     return basis.getContents(source);
@@ -397,6 +409,11 @@ public class InstrumentedAnalysisContextImpl implements InternalAnalysisContext
     }
   }
 
+  @Override
+  public boolean getFunctionBodiesSkipped(Source source) {
+    return basis.getFunctionBodiesSkipped(source);
+  }
+
   @Override
   public HtmlElement getHtmlElement(Source source) {
     InstrumentationBuilder instrumentation = Instrumentation.builder("Analysis-getHtmlElement");
@@ -667,6 +684,11 @@ public class InstrumentedAnalysisContextImpl implements InternalAnalysisContext
     return basis.getTypeProvider();
   }
 
+  @Override
+  public TypeRelationCache getTypeRelationCache() {
+    return basis.getTypeRelationCache();
+  }
+
   @Override
   public boolean isClientLibrary(Source librarySource) {
     InstrumentationBuilder instrumentation = Instrumentation.builder("Analysis-isClientLibrary");
@@ -18,8 +18,10 @@ import com.google.dart.engine.context.AnalysisContextStatistics;
 import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.internal.cache.SourceEntry;
+import com.google.dart.engine.internal.constant.ConstantValueCache;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.internal.scope.Namespace;
+import com.google.dart.engine.internal.type.TypeRelationCache;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
 
@@ -86,6 +88,24 @@ public interface InternalAnalysisContext extends AnalysisContext {
   public InternalAnalysisContext extractContextInto(SourceContainer container,
       InternalAnalysisContext newContext);
 
+  /**
+   * Return {@code true} if the bodies of the functions in the library defined by the given source
+   * are to be resolved and verified when the library is resolved. If this returns {@code false},
+   * only the declarations in the library are analyzed.
+   * 
+   * @param librarySource the source of the library being resolved
+   * @return {@code true} if the function bodies in the library are to be analyzed
+   */
+  public boolean getAnalyzeFunctionBodies(Source librarySource);
+
+  /**
+   * Return the cache of previously computed values of constant variables, used to avoid computing
+   * the values again when the libraries declaring the variables are resolved again.
+   * 
+   * @return the cache of previously computed values of constant variables
+   */
+  public ConstantValueCache getConstantValueCache();
+
   /**
    * Return context that owns the given source.
    * 
@@ -94,6 +114,16 @@ public interface InternalAnalysisContext extends AnalysisContext {
    */
   public InternalAnalysisContext getContextFor(Source source);
 
+  /**
+   * Return {@code true} if the function bodies in the given source were not resolved when the
+   * source was last resolved, in which case its resolved compilation unit only reflects the
+   * declarations in the source.
+   * 
+   * @param source the source being tested
+   * @return {@code true} if the function bodies in the given source were skipped
+   */
+  public boolean getFunctionBodiesSkipped(Source source);
+
   /**
    * Return an array containing all of the sources that have been marked as priority sources.
    * Clients must not modify the returned array.
@@ -125,6 +155,14 @@ public interface InternalAnalysisContext extends AnalysisContext {
    */
   public TypeProvider getTypeProvider() throws AnalysisException;
 
+  /**
+   * Return the cache of the answers to questions about the relationships between the types whose
+   * elements are owned by this context.
+   * 
+   * @return the cache of the relationships between the types of this context
+   */
+  public TypeRelationCache getTypeRelationCache();
+
   /**
    * Given a table mapping the source for the libraries represented by the corresponding elements to
    * the elements representing the libraries, record those mappings.
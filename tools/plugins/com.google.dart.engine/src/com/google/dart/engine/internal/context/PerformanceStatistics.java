@@ -61,11 +61,63 @@ public class PerformanceStatistics {
    */
   public static TimeCounter hints = new TimeCounter();
 
+  /**
+   * The {@link TimeCounter} for time spent in the imports verifier, part of {@link #hints}.
+   */
+  public static TimeCounter importsHints = new TimeCounter();
+
+  /**
+   * The {@link TimeCounter} for time spent in the dead code verifier, part of {@link #hints}.
+   */
+  public static TimeCounter deadCodeHints = new TimeCounter();
+
+  /**
+   * The {@link TimeCounter} for time spent in the dart2js verifier, part of {@link #hints}.
+   */
+  public static TimeCounter dart2jsHints = new TimeCounter();
+
+  /**
+   * The {@link TimeCounter} for time spent in the best practices verifier, part of {@link #hints}.
+   */
+  public static TimeCounter bestPracticesHints = new TimeCounter();
+
+  /**
+   * The {@link TimeCounter} for time spent in the override verifier, part of {@link #hints}.
+   */
+  public static TimeCounter overrideHints = new TimeCounter();
+
+  /**
+   * The {@link TimeCounter} for time spent in the to-do finder, part of {@link #hints}.
+   */
+  public static TimeCounter todoHints = new TimeCounter();
+
+  /**
+   * The {@link TimeCounter} for time spent in incrementally updating the analysis of a changed
+   * source.
+   */
+  public static TimeCounter incremental = new TimeCounter();
+
   /**
    * The {@link TimeCounter} for time spent running "pub list".
    */
   public static TimeCounter pubList = new TimeCounter();
 
+  /**
+   * A flag indicating whether the time spent in each of the hint verifiers is recorded in the
+   * counters that are part of {@link #hints}. Recording it reads the clock several times for every
+   * AST node, so it is disabled by default.
+   */
+  private static volatile boolean recordingHintVerifierTimes = false;
+
+  /**
+   * Return {@code true} if the time spent in each of the hint verifiers is being recorded.
+   * 
+   * @return {@code true} if the time spent in each of the hint verifiers is being recorded
+   */
+  public static boolean isRecordingHintVerifierTimes() {
+    return recordingHintVerifierTimes;
+  }
+
   /**
    * Reset all of the time counters to zero.
    */
@@ -78,6 +130,22 @@ public class PerformanceStatistics {
     polymer = new TimeCounter();
     errors = new TimeCounter();
     hints = new TimeCounter();
+    importsHints = new TimeCounter();
+    deadCodeHints = new TimeCounter();
+    dart2jsHints = new TimeCounter();
+    bestPracticesHints = new TimeCounter();
+    overrideHints = new TimeCounter();
+    todoHints = new TimeCounter();
+    incremental = new TimeCounter();
     pubList = new TimeCounter();
   }
+
+  /**
+   * Set whether the time spent in each of the hint verifiers is to be recorded.
+   * 
+   * @param recording {@code true} if the time spent in each of the hint verifiers is to be recorded
+   */
+  public static void setRecordingHintVerifierTimes(boolean recording) {
+    recordingHintVerifierTimes = recording;
+  }
 }
@@ -18,6 +18,19 @@ package com.google.dart.engine.internal.context;
  * modification time.
  */
 public class TimestampedData<E> {
+  /**
+   * Return a new array of the given length that can hold timestamped data of a specific type.
+   * Generic arrays cannot be created directly, so this is the only place that needs an unchecked
+   * cast.
+   * 
+   * @param length the length of the array to be returned
+   * @return a new array of the given length
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> TimestampedData<E>[] newArray(int length) {
+    return (TimestampedData<E>[]) new TimestampedData<?>[length];
+  }
+
   /**
    * The modification time of the source from which the data was created.
    */
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.element;
+
+import com.google.dart.engine.ast.ConstructorInitializer;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.ConstructorElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.ElementAnnotation;
+import com.google.dart.engine.element.ExecutableElement;
+import com.google.dart.engine.element.ExportElement;
+import com.google.dart.engine.element.FieldElement;
+import com.google.dart.engine.element.FunctionElement;
+import com.google.dart.engine.element.FunctionTypeAliasElement;
+import com.google.dart.engine.element.HideElementCombinator;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.MethodElement;
+import com.google.dart.engine.element.NamespaceCombinator;
+import com.google.dart.engine.element.ParameterElement;
+import com.google.dart.engine.element.PropertyAccessorElement;
+import com.google.dart.engine.element.PropertyInducingElement;
+import com.google.dart.engine.element.ShowElementCombinator;
+import com.google.dart.engine.element.TopLevelVariableElement;
+import com.google.dart.engine.element.TypeParameterElement;
+import com.google.dart.engine.internal.constant.EvaluationResultImpl;
+import com.google.dart.engine.type.FunctionType;
+import com.google.dart.engine.type.InterfaceType;
+import com.google.dart.engine.type.ParameterizedType;
+import com.google.dart.engine.type.Type;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instances of the class {@code ApiSignature} compute a hash of the part of the element model of a
+ * library that can affect the analysis of the libraries that import or export it. Two element
+ * models of the same library that have the same signature are assumed to be interchangeable as far
+ * as other libraries are concerned.
+ * <p>
+ * The signature includes the names, modifiers and types of everything that is visible outside the
+ * library, the annotations on those elements, the values of constants and the exports of the
+ * library. Types are identified by the locations of their elements rather than by their names, so
+ * that types with the same name that are declared in different libraries are distinguished. It does
+ * not include anything that only matters within the library, such as offsets, documentation
+ * comments, private top-level declarations, private members and function bodies. Private classes
+ * are included because their public members can be inherited by public classes.
+ * <p>
+ * Offsets are excluded so that an edit that moves declarations without changing them does not
+ * invalidate the libraries that depend on the library. Those libraries keep referring to the
+ * elements of the element model they were resolved against, whose offsets are brought up to date
+ * by a {@link DeclarationOffsetUpdater}.
+ * 
+ * @coverage dart.engine.element
+ */
+public class ApiSignature {
+  /**
+   * The initial value of the hash (the 64-bit FNV offset basis).
+   */
+  private static final long INITIAL_HASH = 0xcbf29ce484222325L;
+
+  /**
+   * The multiplier used to combine values into the hash (the 64-bit FNV prime).
+   */
+  private static final long PRIME = 0x100000001b3L;
+
+  /**
+   * Return the API signature of the given library.
+   * 
+   * @param library the library whose signature is to be computed
+   * @return the API signature of the given library
+   */
+  public static long compute(LibraryElement library) {
+    ApiSignature signature = new ApiSignature();
+    signature.addLibrary(library);
+    return signature.hash;
+  }
+
+  /**
+   * The hash of the values that have been added so far.
+   */
+  private long hash = INITIAL_HASH;
+
+  /**
+   * Prevent the creation of instances of this class other than by {@link #compute}.
+   */
+  private ApiSignature() {
+  }
+
+  /**
+   * Add the given flag to the signature.
+   * 
+   * @param value the value being added
+   */
+  private void add(boolean value) {
+    addChar(value ? 'T' : 'F');
+  }
+
+  /**
+   * Add the given string to the signature. A terminator is added so that adjacent strings cannot be
+   * confused with one another.
+   * 
+   * @param value the value being added, or {@code null} if there is no value
+   */
+  private void add(String value) {
+    if (value != null) {
+      int length = value.length();
+      for (int i = 0; i < length; i++) {
+        addChar(value.charAt(i));
+      }
+    }
+    addChar('\0');
+  }
+
+  /**
+   * Add the accessor that is not implied by a variable to the signature.
+   * 
+   * @param accessor the accessor being added
+   */
+  private void addAccessor(PropertyAccessorElement accessor) {
+    if (accessor.isPrivate() || accessor.isSynthetic()) {
+      return;
+    }
+    add(accessor.isGetter() ? "get" : "set");
+    add(accessor.isAbstract());
+    addExecutable(accessor);
+  }
+
+  /**
+   * Add the annotations associated with the given element to the signature.
+   * 
+   * @param element the element whose annotations are being added
+   */
+  private void addAnnotations(Element element) {
+    for (ElementAnnotation annotation : element.getMetadata()) {
+      Element annotationElement = annotation.getElement();
+      add(annotationElement == null ? null : annotationElement.getLocation().getEncoding());
+    }
+  }
+
+  /**
+   * Add the given character to the signature.
+   * 
+   * @param value the value being added
+   */
+  private void addChar(char value) {
+    hash = (hash ^ value) * PRIME;
+  }
+
+  /**
+   * Add the given class to the signature.
+   * 
+   * @param element the class being added
+   */
+  private void addClass(ClassElement element) {
+    add("class");
+    add(element.getName());
+    add(element.isAbstract());
+    add(element.isEnum());
+    add(element.isTypedef());
+    addAnnotations(element);
+    addTypeParameters(element.getTypeParameters());
+    addType(element.getSupertype());
+    for (InterfaceType mixin : element.getMixins()) {
+      addType(mixin);
+    }
+    add("implements");
+    for (InterfaceType interfaceType : element.getInterfaces()) {
+      addType(interfaceType);
+    }
+    for (ConstructorElement constructor : element.getConstructors()) {
+      addConstructor(constructor);
+    }
+    for (FieldElement field : element.getFields()) {
+      addVariable(field);
+    }
+    for (PropertyAccessorElement accessor : element.getAccessors()) {
+      addAccessor(accessor);
+    }
+    for (MethodElement method : element.getMethods()) {
+      if (!method.isPrivate()) {
+        add("method");
+        add(method.isAbstract());
+        addExecutable(method);
+      }
+    }
+    add("end");
+  }
+
+  /**
+   * Add the given constructor to the signature. The initializers of a constant constructor are
+   * included because other libraries can evaluate invocations of it.
+   * 
+   * @param constructor the constructor being added
+   */
+  private void addConstructor(ConstructorElement constructor) {
+    if (constructor.isPrivate()) {
+      return;
+    }
+    add("constructor");
+    add(constructor.isConst());
+    add(constructor.isFactory());
+    addExecutable(constructor);
+    ConstructorElement redirectedConstructor = constructor.getRedirectedConstructor();
+    if (redirectedConstructor != null) {
+      add(redirectedConstructor.getLocation().getEncoding());
+    }
+    if (constructor.isConst() && constructor instanceof ConstructorElementImpl) {
+      ConstructorElementImpl constructorImpl = (ConstructorElementImpl) constructor;
+      List<ConstructorInitializer> initializers = constructorImpl.getConstantInitializers();
+      if (initializers != null) {
+        for (ConstructorInitializer initializer : initializers) {
+          add(initializer.toSource());
+        }
+      }
+    }
+  }
+
+  /**
+   * Add the given executable element to the signature.
+   * 
+   * @param element the element being added
+   */
+  private void addExecutable(ExecutableElement element) {
+    add(element.getName());
+    add(element.isStatic());
+    addAnnotations(element);
+    addType(element.getType());
+    addParameters(element.getParameters());
+  }
+
+  /**
+   * Add the given export to the signature.
+   * 
+   * @param element the export being added
+   */
+  private void addExport(ExportElement element) {
+    add("export");
+    LibraryElement exportedLibrary = element.getExportedLibrary();
+    add(exportedLibrary == null ? null : exportedLibrary.getSource().getFullName());
+    for (NamespaceCombinator combinator : element.getCombinators()) {
+      if (combinator instanceof ShowElementCombinator) {
+        add("show");
+        for (String name : ((ShowElementCombinator) combinator).getShownNames()) {
+          add(name);
+        }
+      } else if (combinator instanceof HideElementCombinator) {
+        add("hide");
+        for (String name : ((HideElementCombinator) combinator).getHiddenNames()) {
+          add(name);
+        }
+      }
+    }
+  }
+
+  /**
+   * Add the given library to the signature.
+   * 
+   * @param library the library being added
+   */
+  private void addLibrary(LibraryElement library) {
+    add(library.getName());
+    addAnnotations(library);
+    for (ExportElement exportElement : library.getExports()) {
+      addExport(exportElement);
+    }
+    for (CompilationUnitElement unit : library.getUnits()) {
+      addUnit(unit);
+    }
+  }
+
+  /**
+   * Add the given parameters to the signature. Their names and kinds are already part of the type
+   * of the enclosing element, but their default values are not.
+   * 
+   * @param parameters the parameters being added
+   */
+  private void addParameters(ParameterElement[] parameters) {
+    for (ParameterElement parameter : parameters) {
+      add(parameter.getDefaultValueCode());
+    }
+  }
+
+  /**
+   * Add the given type to the signature. A function type that is not defined by a function type
+   * alias is added structurally, because its element is the function or method whose type it is.
+   * Any other type is identified by the location of its element, followed by its type arguments.
+   * Function type aliases are not expanded, because an invalid alias can refer to itself.
+   * 
+   * @param type the type being added, or {@code null} if there is no type
+   */
+  private void addType(Type type) {
+    Element element = type == null ? null : type.getElement();
+    if (type instanceof FunctionType && !(element instanceof FunctionTypeAliasElement)) {
+      FunctionType functionType = (FunctionType) type;
+      add("(");
+      for (Type parameterType : functionType.getNormalParameterTypes()) {
+        addType(parameterType);
+      }
+      add("[");
+      for (Type parameterType : functionType.getOptionalParameterTypes()) {
+        addType(parameterType);
+      }
+      add("{");
+      for (Map.Entry<String, Type> entry : functionType.getNamedParameterTypes().entrySet()) {
+        add(entry.getKey());
+        addType(entry.getValue());
+      }
+      add(")");
+      addType(functionType.getReturnType());
+      return;
+    }
+    if (element == null || type.isDynamic() || type.isVoid()) {
+      add(type == null ? null : type.getName());
+      return;
+    }
+    add(element.getLocation().getEncoding());
+    if (type instanceof ParameterizedType) {
+      add("<");
+      for (Type typeArgument : ((ParameterizedType) type).getTypeArguments()) {
+        addType(typeArgument);
+      }
+      add(">");
+    }
+  }
+
+  /**
+   * Add the given type parameters to the signature.
+   * 
+   * @param typeParameters the type parameters being added
+   */
+  private void addTypeParameters(TypeParameterElement[] typeParameters) {
+    for (TypeParameterElement typeParameter : typeParameters) {
+      add(typeParameter.getName());
+      addType(typeParameter.getBound());
+    }
+  }
+
+  /**
+   * Add the declarations in the given compilation unit to the signature.
+   * 
+   * @param unit the compilation unit being added
+   */
+  private void addUnit(CompilationUnitElement unit) {
+    add("unit");
+    for (ClassElement element : unit.getTypes()) {
+      addClass(element);
+    }
+    for (ClassElement element : unit.getEnums()) {
+      addClass(element);
+    }
+    for (FunctionTypeAliasElement element : unit.getFunctionTypeAliases()) {
+      if (!element.isPrivate()) {
+        add("typedef");
+        add(element.getName());
+        addAnnotations(element);
+        addTypeParameters(element.getTypeParameters());
+        addType(element.getReturnType());
+        for (ParameterElement parameter : element.getParameters()) {
+          addType(parameter.getType());
+          add(parameter.getParameterKind().name());
+          add(parameter.getName());
+        }
+      }
+    }
+    for (FunctionElement element : unit.getFunctions()) {
+      if (!element.isPrivate()) {
+        add("function");
+        addExecutable(element);
+      }
+    }
+    for (TopLevelVariableElement element : unit.getTopLevelVariables()) {
+      addVariable(element);
+    }
+    for (PropertyAccessorElement element : unit.getAccessors()) {
+      addAccessor(element);
+    }
+  }
+
+  /**
+   * Add the given variable, which implies its accessors, to the signature. The value of a variable
+   * that has been evaluated as a constant is included because other libraries can use it.
+   * 
+   * @param element the variable being added
+   */
+  private void addVariable(PropertyInducingElement element) {
+    if (element.isPrivate()) {
+      return;
+    }
+    add("variable");
+    add(element.getName());
+    add(element.isStatic());
+    add(element.isConst());
+    add(element.isFinal());
+    add(element.isSynthetic());
+    addAnnotations(element);
+    addType(element.getType());
+    addType(element.getPropagatedType());
+    if (element instanceof VariableElementImpl) {
+      EvaluationResultImpl result = ((VariableElementImpl) element).getEvaluationResult();
+      if (result != null) {
+        add(String.valueOf(result.getValue()));
+      }
+    }
+  }
+}
@@ -15,6 +15,7 @@ package com.google.dart.engine.internal.element;
 
 import com.google.dart.engine.ast.ClassDeclaration;
 import com.google.dart.engine.ast.Identifier;
+import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.element.ClassElement;
 import com.google.dart.engine.element.ConstructorElement;
@@ -28,6 +29,9 @@ import com.google.dart.engine.element.MethodElement;
 import com.google.dart.engine.element.PropertyAccessorElement;
 import com.google.dart.engine.element.ToolkitObjectElement;
 import com.google.dart.engine.element.TypeParameterElement;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.resolver.InheritanceManager;
+import com.google.dart.engine.internal.resolver.MemberMap;
 import com.google.dart.engine.type.InterfaceType;
 import com.google.dart.engine.utilities.general.StringUtilities;
 import com.google.dart.engine.utilities.translation.DartName;
@@ -94,6 +98,20 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   private TypeParameterElement[] typeParameters = TypeParameterElementImpl.EMPTY_ARRAY;
 
+  /**
+   * A map of the members inherited by this class from its superclass and mixins, as computed by an
+   * {@link InheritanceManager} for a library other than the one defining this class and any of its
+   * supertypes, or {@code null} if the map has not been computed.
+   */
+  private volatile MemberMap inheritedClassMembers;
+
+  /**
+   * A map of the members inherited by this class from its interfaces, as computed by an
+   * {@link InheritanceManager} for a library other than the one defining this class and any of its
+   * supertypes, or {@code null} if the map has not been computed.
+   */
+  private volatile MemberMap inheritedInterfaceMembers;
+
   /**
    * An empty array of class elements.
    */
@@ -221,6 +239,28 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
     return ElementKind.CLASS;
   }
 
+  /**
+   * Return the map of the members inherited by this class from its superclass and mixins that can
+   * be shared by the inheritance managers of all libraries other than the ones defining this class
+   * and its supertypes, or {@code null} if the map has not been computed.
+   * 
+   * @return the shared map of the members inherited from the superclass and mixins
+   */
+  public MemberMap getInheritedClassMembers() {
+    return inheritedClassMembers;
+  }
+
+  /**
+   * Return the map of the members inherited by this class from its interfaces that can be shared by
+   * the inheritance managers of all libraries other than the ones defining this class and its
+   * supertypes, or {@code null} if the map has not been computed.
+   * 
+   * @return the shared map of the members inherited from the interfaces
+   */
+  public MemberMap getInheritedInterfaceMembers() {
+    return inheritedInterfaceMembers;
+  }
+
   @Override
   public MethodElement getMethod(String methodName) {
     for (MethodElement method : methods) {
@@ -452,6 +492,7 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
       ((PropertyAccessorElementImpl) accessor).setEnclosingElement(this);
     }
     this.accessors = accessors;
+    clearInheritedMembers();
   }
 
   /**
@@ -496,6 +537,29 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
     setModifier(Modifier.REFERENCES_SUPER, isReferencedSuper);
   }
 
+  /**
+   * Set the map of the members inherited by this class from its superclass and mixins that can be
+   * shared by the inheritance managers of all libraries other than the ones defining this class and
+   * its supertypes.
+   * 
+   * @param inheritedClassMembers the shared map of the members inherited from the superclass and
+   *          mixins
+   */
+  public void setInheritedClassMembers(MemberMap inheritedClassMembers) {
+    this.inheritedClassMembers = inheritedClassMembers;
+  }
+
+  /**
+   * Set the map of the members inherited by this class from its interfaces that can be shared by
+   * the inheritance managers of all libraries other than the ones defining this class and its
+   * supertypes.
+   * 
+   * @param inheritedInterfaceMembers the shared map of the members inherited from the interfaces
+   */
+  public void setInheritedInterfaceMembers(MemberMap inheritedInterfaceMembers) {
+    this.inheritedInterfaceMembers = inheritedInterfaceMembers;
+  }
+
   /**
    * Set the interfaces that are implemented by this class to the given types.
    * 
@@ -503,6 +567,8 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   public void setInterfaces(InterfaceType[] interfaces) {
     this.interfaces = interfaces;
+    elementModelChanged();
+    clearInheritedMembers();
   }
 
   /**
@@ -515,6 +581,8 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
       ((MethodElementImpl) method).setEnclosingElement(this);
     }
     this.methods = methods;
+    elementModelChanged();
+    clearInheritedMembers();
   }
 
   /**
@@ -525,6 +593,8 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   public void setMixins(InterfaceType[] mixins) {
     this.mixins = mixins;
+    elementModelChanged();
+    clearInheritedMembers();
   }
 
   /**
@@ -534,6 +604,8 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
    */
   public void setSupertype(InterfaceType supertype) {
     this.supertype = supertype;
+    elementModelChanged();
+    clearInheritedMembers();
   }
 
   /**
@@ -564,6 +636,8 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
       ((TypeParameterElementImpl) typeParameter).setEnclosingElement(this);
     }
     this.typeParameters = typeParameters;
+    elementModelChanged();
+    clearInheritedMembers();
   }
 
   /**
@@ -607,6 +681,15 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
     }
   }
 
+  /**
+   * Discard the shared maps of inherited members, which might no longer be valid because the
+   * members or supertypes of this class have been changed.
+   */
+  private void clearInheritedMembers() {
+    inheritedClassMembers = null;
+    inheritedInterfaceMembers = null;
+  }
+
   private void collectAllSupertypes(ArrayList<InterfaceType> supertypes) {
     ArrayList<InterfaceType> typesToVisit = new ArrayList<InterfaceType>();
     ArrayList<ClassElement> visitedClasses = new ArrayList<ClassElement>();
@@ -636,6 +719,18 @@ public class ClassElementImpl extends ElementImpl implements ClassElement {
     }
   }
 
+  /**
+   * Record that the part of the element model on which the relationships between types depend has
+   * been changed, invalidating the answers memoized by the context that owns this class. A class
+   * that has not yet been added to a library cannot have any memoized answers.
+   */
+  private void elementModelChanged() {
+    AnalysisContext context = getContext();
+    if (context instanceof InternalAnalysisContext) {
+      ((InternalAnalysisContext) context).getTypeRelationCache().elementModelChanged();
+    }
+  }
+
   private PropertyAccessorElement internalLookUpConcreteGetter(String getterName,
       LibraryElement library, boolean includeThisClass) {
     PropertyAccessorElement getter = internalLookUpGetter(getterName, library, includeThisClass);
@@ -35,6 +35,17 @@ public class ConstTopLevelVariableElementImpl extends TopLevelVariableElementImp
     super(name);
   }
 
+  /**
+   * Initialize a newly created top-level variable element to have the given name.
+   * 
+   * @param name the name of this element
+   * @param nameOffset the offset of the name of this element in the file that contains the
+   *          declaration of this element
+   */
+  public ConstTopLevelVariableElementImpl(String name, int nameOffset) {
+    super(name, nameOffset);
+  }
+
   @Override
   public EvaluationResultImpl getEvaluationResult() {
     return result;
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.element;
+
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.ExecutableElement;
+import com.google.dart.engine.element.FunctionTypeAliasElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.ParameterElement;
+import com.google.dart.engine.utilities.general.ObjectUtilities;
+import com.google.dart.engine.utilities.source.SourceRange;
+
+/**
+ * Instances of the class {@code DeclarationOffsetUpdater} copy the offsets of the declarations in
+ * one element model of a library into an older element model of the same library.
+ * <p>
+ * When a library is changed without changing its {@link ApiSignature API signature}, the libraries
+ * that depend on it are not resolved again and keep referring to the elements of the older model.
+ * The declarations in that model are still valid, but edits before them might have moved them, so
+ * their offsets are updated to match the current contents of the library.
+ * <p>
+ * Declarations are matched by their kind and name. Local elements are not updated because the
+ * elements of other libraries can not refer to them, and imports are not updated because their
+ * offsets are part of their identity.
+ * 
+ * @coverage dart.engine.element
+ */
+public final class DeclarationOffsetUpdater {
+  /**
+   * Copy the offsets of the declarations in the given new element model of a library into the
+   * matching declarations of the given old element model of the same library.
+   * 
+   * @param oldLibrary the element model whose offsets are to be updated
+   * @param newLibrary the element model whose offsets are to be copied
+   */
+  public static void update(LibraryElement oldLibrary, LibraryElement newLibrary) {
+    copyNameOffset(oldLibrary, newLibrary);
+    for (CompilationUnitElement oldUnit : oldLibrary.getUnits()) {
+      for (CompilationUnitElement newUnit : newLibrary.getUnits()) {
+        if (oldUnit.getSource().equals(newUnit.getSource())) {
+          updateUnit(oldUnit, newUnit);
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Copy the offset of the name of the given new element into the given old element.
+   * 
+   * @param oldElement the element whose name offset is to be updated
+   * @param newElement the element whose name offset is to be copied
+   */
+  private static void copyNameOffset(Element oldElement, Element newElement) {
+    if (oldElement instanceof ElementImpl) {
+      ((ElementImpl) oldElement).setNameOffset(newElement.getNameOffset());
+    }
+  }
+
+  /**
+   * Return the element in the given array that has the same kind and name as the given element, or
+   * {@code null} if there is no such element.
+   * 
+   * @param elements the elements being searched
+   * @param element the element being matched
+   * @return the element that matches the given element
+   */
+  private static <E extends Element> E findMatch(E[] elements, E element) {
+    for (E candidate : elements) {
+      if (candidate.getKind() == element.getKind()
+          && ObjectUtilities.equals(candidate.getName(), element.getName())) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Update the offsets of the given class and its members.
+   * 
+   * @param oldClass the class whose offsets are to be updated
+   * @param newClass the class whose offsets are to be copied
+   */
+  private static void updateClass(ClassElement oldClass, ClassElement newClass) {
+    copyNameOffset(oldClass, newClass);
+    updateElements(oldClass.getTypeParameters(), newClass.getTypeParameters());
+    updateElements(oldClass.getFields(), newClass.getFields());
+    updateExecutables(oldClass.getAccessors(), newClass.getAccessors());
+    updateExecutables(oldClass.getConstructors(), newClass.getConstructors());
+    updateExecutables(oldClass.getMethods(), newClass.getMethods());
+  }
+
+  /**
+   * Update the offsets of the given classes.
+   * 
+   * @param oldClasses the classes whose offsets are to be updated
+   * @param newClasses the classes whose offsets are to be copied
+   */
+  private static void updateClasses(ClassElement[] oldClasses, ClassElement[] newClasses) {
+    for (ClassElement oldClass : oldClasses) {
+      ClassElement newClass = findMatch(newClasses, oldClass);
+      if (newClass != null) {
+        updateClass(oldClass, newClass);
+      }
+    }
+  }
+
+  /**
+   * Update the name offsets of the given elements, which have no children that need to be updated.
+   * 
+   * @param oldElements the elements whose offsets are to be updated
+   * @param newElements the elements whose offsets are to be copied
+   */
+  private static <E extends Element> void updateElements(E[] oldElements, E[] newElements) {
+    for (E oldElement : oldElements) {
+      E newElement = findMatch(newElements, oldElement);
+      if (newElement != null) {
+        copyNameOffset(oldElement, newElement);
+      }
+    }
+  }
+
+  /**
+   * Update the offsets of the given executable elements and their parameters.
+   * 
+   * @param oldExecutables the executable elements whose offsets are to be updated
+   * @param newExecutables the executable elements whose offsets are to be copied
+   */
+  private static <E extends ExecutableElement> void updateExecutables(E[] oldExecutables,
+      E[] newExecutables) {
+    for (E oldExecutable : oldExecutables) {
+      E newExecutable = findMatch(newExecutables, oldExecutable);
+      if (newExecutable != null) {
+        copyNameOffset(oldExecutable, newExecutable);
+        updateParameters(oldExecutable.getParameters(), newExecutable.getParameters());
+      }
+    }
+  }
+
+  /**
+   * Update the offsets of the given parameters, including the parameters of function-typed
+   * parameters.
+   * 
+   * @param oldParameters the parameters whose offsets are to be updated
+   * @param newParameters the parameters whose offsets are to be copied
+   */
+  private static void updateParameters(ParameterElement[] oldParameters,
+      ParameterElement[] newParameters) {
+    for (ParameterElement oldParameter : oldParameters) {
+      ParameterElement newParameter = findMatch(newParameters, oldParameter);
+      if (newParameter != null) {
+        copyNameOffset(oldParameter, newParameter);
+        SourceRange visibleRange = newParameter.getVisibleRange();
+        if (visibleRange != null && oldParameter instanceof ParameterElementImpl) {
+          ((ParameterElementImpl) oldParameter).setVisibleRange(
+              visibleRange.getOffset(),
+              visibleRange.getLength());
+        }
+        updateParameters(oldParameter.getParameters(), newParameter.getParameters());
+      }
+    }
+  }
+
+  /**
+   * Update the offsets of the declarations in the given compilation unit.
+   * 
+   * @param oldUnit the compilation unit whose offsets are to be updated
+   * @param newUnit the compilation unit whose offsets are to be copied
+   */
+  private static void updateUnit(CompilationUnitElement oldUnit, CompilationUnitElement newUnit) {
+    updateClasses(oldUnit.getTypes(), newUnit.getTypes());
+    updateClasses(oldUnit.getEnums(), newUnit.getEnums());
+    for (FunctionTypeAliasElement oldAlias : oldUnit.getFunctionTypeAliases()) {
+      FunctionTypeAliasElement newAlias = findMatch(newUnit.getFunctionTypeAliases(), oldAlias);
+      if (newAlias != null) {
+        copyNameOffset(oldAlias, newAlias);
+        updateElements(oldAlias.getTypeParameters(), newAlias.getTypeParameters());
+        updateParameters(oldAlias.getParameters(), newAlias.getParameters());
+      }
+    }
+    updateExecutables(oldUnit.getFunctions(), newUnit.getFunctions());
+    updateElements(oldUnit.getTopLevelVariables(), newUnit.getTopLevelVariables());
+    updateExecutables(oldUnit.getAccessors(), newUnit.getAccessors());
+  }
+
+  /**
+   * Prevent the creation of instances of this class.
+   */
+  private DeclarationOffsetUpdater() {
+  }
+}
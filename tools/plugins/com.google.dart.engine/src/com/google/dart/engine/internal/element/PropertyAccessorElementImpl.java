@@ -55,6 +55,17 @@ public class PropertyAccessorElementImpl extends ExecutableElementImpl implement
     super(name);
   }
 
+  /**
+   * Initialize a newly created property accessor element to have the given name.
+   * 
+   * @param name the name of this element
+   * @param nameOffset the offset of the name of this element in the file that contains the
+   *          declaration of this element
+   */
+  public PropertyAccessorElementImpl(String name, int nameOffset) {
+    super(name, nameOffset);
+  }
+
   /**
    * Initialize a newly created synthetic property accessor element to be associated with the given
    * variable.
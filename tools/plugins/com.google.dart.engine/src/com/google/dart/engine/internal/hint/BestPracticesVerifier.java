@@ -41,7 +41,7 @@ import com.google.dart.engine.ast.SimpleIdentifier;
 import com.google.dart.engine.ast.SuperConstructorInvocation;
 import com.google.dart.engine.ast.TypeName;
 import com.google.dart.engine.ast.VariableDeclaration;
-import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.ast.visitor.ComponentAstVisitor;
 import com.google.dart.engine.element.ClassElement;
 import com.google.dart.engine.element.ConstructorElement;
 import com.google.dart.engine.element.Element;
@@ -68,7 +68,7 @@ import com.google.dart.engine.type.TypeParameterType;
  * 
  * @coverage dart.engine.resolver
  */
-public class BestPracticesVerifier extends RecursiveAstVisitor<Void> {
+public class BestPracticesVerifier extends ComponentAstVisitor {
 
   private static final String HASHCODE_GETTER_NAME = "hashCode";
 
@@ -115,16 +115,24 @@ public class BestPracticesVerifier extends RecursiveAstVisitor<Void> {
     this.errorReporter = errorReporter;
   }
 
+  @Override
+  public void exitNode(AstNode node) {
+    if (node instanceof ClassDeclaration) {
+      // Classes cannot be nested, so there is no outer class to restore.
+      enclosingClass = null;
+    }
+  }
+
   @Override
   public Void visitArgumentList(ArgumentList node) {
     checkForArgumentTypesNotAssignableInList(node);
-    return super.visitArgumentList(node);
+    return null;
   }
 
   @Override
   public Void visitAsExpression(AsExpression node) {
     checkForUnnecessaryCast(node);
-    return super.visitAsExpression(node);
+    return null;
   }
 
   @Override
@@ -136,39 +144,34 @@ public class BestPracticesVerifier extends RecursiveAstVisitor<Void> {
     } else {
       checkForDeprecatedMemberUse(node.getBestElement(), node);
     }
-    return super.visitAssignmentExpression(node);
+    return null;
   }
 
   @Override
   public Void visitBinaryExpression(BinaryExpression node) {
     checkForDivisionOptimizationHint(node);
     checkForDeprecatedMemberUse(node.getBestElement(), node);
-    return super.visitBinaryExpression(node);
+    return null;
   }
 
   @Override
   public Void visitClassDeclaration(ClassDeclaration node) {
-    ClassElement outerClass = enclosingClass;
-    try {
-      enclosingClass = node.getElement();
-      // Commented out until we decide that we want this hint in the analyzer
-//    checkForOverrideEqualsButNotHashCode(node);
-      return super.visitClassDeclaration(node);
-    } finally {
-      enclosingClass = outerClass;
-    }
+    enclosingClass = node.getElement();
+    // Commented out until we decide that we want this hint in the analyzer
+//  checkForOverrideEqualsButNotHashCode(node);
+    return null;
   }
 
   @Override
   public Void visitExportDirective(ExportDirective node) {
     checkForDeprecatedMemberUse(node.getUriElement(), node);
-    return super.visitExportDirective(node);
+    return null;
   }
 
   @Override
   public Void visitFunctionDeclaration(FunctionDeclaration node) {
     checkForMissingReturn(node.getReturnType(), node.getFunctionExpression().getBody());
-    return super.visitFunctionDeclaration(node);
+    return null;
   }
 
   @Override
@@ -180,25 +183,25 @@ public class BestPracticesVerifier extends RecursiveAstVisitor<Void> {
         checkForLoadLibraryFunction(node, importElement);
       }
     }
-    return super.visitImportDirective(node);
+    return null;
   }
 
   @Override
   public Void visitIndexExpression(IndexExpression node) {
     checkForDeprecatedMemberUse(node.getBestElement(), node);
-    return super.visitIndexExpression(node);
+    return null;
   }
 
   @Override
   public Void visitInstanceCreationExpression(InstanceCreationExpression node) {
     checkForDeprecatedMemberUse(node.getStaticElement(), node);
-    return super.visitInstanceCreationExpression(node);
+    return null;
   }
 
   @Override
   public Void visitIsExpression(IsExpression node) {
     checkAllTypeChecks(node);
-    return super.visitIsExpression(node);
+    return null;
   }
 
   @Override
@@ -206,44 +209,44 @@ public class BestPracticesVerifier extends RecursiveAstVisitor<Void> {
     // This was determined to not be a good hint, see: dartbug.com/16029
     //checkForOverridingPrivateMember(node);
     checkForMissingReturn(node.getReturnType(), node.getBody());
-    return super.visitMethodDeclaration(node);
+    return null;
   }
 
   @Override
   public Void visitPostfixExpression(PostfixExpression node) {
     checkForDeprecatedMemberUse(node.getBestElement(), node);
-    return super.visitPostfixExpression(node);
+    return null;
   }
 
   @Override
   public Void visitPrefixExpression(PrefixExpression node) {
     checkForDeprecatedMemberUse(node.getBestElement(), node);
-    return super.visitPrefixExpression(node);
+    return null;
   }
 
   @Override
   public Void visitRedirectingConstructorInvocation(RedirectingConstructorInvocation node) {
     checkForDeprecatedMemberUse(node.getStaticElement(), node);
-    return super.visitRedirectingConstructorInvocation(node);
+    return null;
   }
 
   @Override
   public Void visitSimpleIdentifier(SimpleIdentifier node) {
     checkForDeprecatedMemberUseAtIdentifier(node);
-    return super.visitSimpleIdentifier(node);
+    return null;
   }
 
   @Override
   public Void visitSuperConstructorInvocation(SuperConstructorInvocation node) {
     checkForDeprecatedMemberUse(node.getStaticElement(), node);
-    return super.visitSuperConstructorInvocation(node);
+    return null;
   }
 
   @Override
   public Void visitVariableDeclaration(VariableDeclaration node) {
     checkForUseOfVoidResult(node.getInitializer());
     checkForInvalidAssignment(node.getName(), node.getInitializer());
-    return super.visitVariableDeclaration(node);
+    return null;
   }
 
   /**
@@ -15,7 +15,7 @@ package com.google.dart.engine.internal.hint;
 
 import com.google.dart.engine.ast.IsExpression;
 import com.google.dart.engine.ast.TypeName;
-import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.ast.visitor.ComponentAstVisitor;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.error.HintCode;
@@ -28,7 +28,7 @@ import com.google.dart.engine.type.Type;
  * 
  * @coverage dart.engine.resolver
  */
-public class Dart2JSVerifier extends RecursiveAstVisitor<Void> {
+public class Dart2JSVerifier extends ComponentAstVisitor {
 
   /**
    * The error reporter by which errors will be reported.
@@ -52,7 +52,7 @@ public class Dart2JSVerifier extends RecursiveAstVisitor<Void> {
   @Override
   public Void visitIsExpression(IsExpression node) {
     checkForIsDoubleHints(node);
-    return super.visitIsExpression(node);
+    return null;
   }
 
   /**
@@ -13,7 +13,6 @@
  */
 package com.google.dart.engine.internal.hint;
 
-import com.google.dart.engine.ast.AstNode;
 import com.google.dart.engine.ast.BinaryExpression;
 import com.google.dart.engine.ast.Block;
 import com.google.dart.engine.ast.BooleanLiteral;
@@ -34,7 +33,7 @@ import com.google.dart.engine.ast.SwitchMember;
 import com.google.dart.engine.ast.TryStatement;
 import com.google.dart.engine.ast.TypeName;
 import com.google.dart.engine.ast.WhileStatement;
-import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.ast.visitor.ComponentAstVisitor;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.PropertyAccessorElement;
 import com.google.dart.engine.element.PropertyInducingElement;
@@ -55,7 +54,7 @@ import java.util.ArrayList;
  * 
  * @coverage dart.engine.resolver
  */
-public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
+public class DeadCodeVerifier extends ComponentAstVisitor {
 
   /**
    * The error reporter by which errors will be reported.
@@ -85,13 +84,13 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
             // report error on else block: true || !e!
             errorReporter.reportErrorForNode(HintCode.DEAD_CODE, node.getRightOperand());
             // only visit the LHS:
-            safelyVisit(lhsCondition);
+            skip(node.getRightOperand());
             return null;
           } else if (lhsResult.getValue().isFalse() && isAmpAmp) {
             // report error on if block: false && !e!
             errorReporter.reportErrorForNode(HintCode.DEAD_CODE, node.getRightOperand());
             // only visit the LHS:
-            safelyVisit(lhsCondition);
+            skip(node.getRightOperand());
             return null;
           }
         }
@@ -115,7 +114,7 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
 //        }
 //      }
     }
-    return super.visitBinaryExpression(node);
+    return null;
   }
 
   /**
@@ -134,30 +133,28 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
   @Override
   public Void visitConditionalExpression(ConditionalExpression node) {
     Expression conditionExpression = node.getCondition();
-    safelyVisit(conditionExpression);
     if (!isDebugConstant(conditionExpression)) {
       EvaluationResultImpl result = getConstantBooleanValue(conditionExpression);
       if (result != null) {
         if (result.getValue().isTrue()) {
           // report error on else block: true ? 1 : !2!
           errorReporter.reportErrorForNode(HintCode.DEAD_CODE, node.getElseExpression());
-          safelyVisit(node.getThenExpression());
+          skip(node.getElseExpression());
           return null;
         } else {
           // report error on if block: false ? !1! : 2
           errorReporter.reportErrorForNode(HintCode.DEAD_CODE, node.getThenExpression());
-          safelyVisit(node.getElseExpression());
+          skip(node.getThenExpression());
           return null;
         }
       }
     }
-    return super.visitConditionalExpression(node);
+    return null;
   }
 
   @Override
   public Void visitIfStatement(IfStatement node) {
     Expression conditionExpression = node.getCondition();
-    safelyVisit(conditionExpression);
     if (!isDebugConstant(conditionExpression)) {
       EvaluationResultImpl result = getConstantBooleanValue(conditionExpression);
       if (result != null) {
@@ -166,18 +163,18 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
           Statement elseStatement = node.getElseStatement();
           if (elseStatement != null) {
             errorReporter.reportErrorForNode(HintCode.DEAD_CODE, elseStatement);
-            safelyVisit(node.getThenStatement());
+            skip(elseStatement);
             return null;
           }
         } else {
           // report error on if block: if (false) {!} else {}
           errorReporter.reportErrorForNode(HintCode.DEAD_CODE, node.getThenStatement());
-          safelyVisit(node.getElseStatement());
+          skip(node.getThenStatement());
           return null;
         }
       }
     }
-    return super.visitIfStatement(node);
+    return null;
   }
 
   // Do we want to report "pointless" or "obscure" code such as do {} !while (false);!
@@ -200,19 +197,17 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
   @Override
   public Void visitSwitchCase(SwitchCase node) {
     checkForDeadStatementsInNodeList(node.getStatements());
-    return super.visitSwitchCase(node);
+    return null;
   }
 
   @Override
   public Void visitSwitchDefault(SwitchDefault node) {
     checkForDeadStatementsInNodeList(node.getStatements());
-    return super.visitSwitchDefault(node);
+    return null;
   }
 
   @Override
   public Void visitTryStatement(TryStatement node) {
-    safelyVisit(node.getBody());
-    safelyVisit(node.getFinallyBlock());
     NodeList<CatchClause> catchClauses = node.getCatchClauses();
     int numOfCatchClauses = catchClauses.size();
     ArrayList<Type> visitedTypes = new ArrayList<Type>(numOfCatchClauses);
@@ -228,7 +223,6 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
             // Found catch clause clause that has Object as an exception type, this is equivalent to
             // having a catch clause that doesn't have an exception type, visit the block, but
             // generate an error on any following catch clauses (and don't visit them).
-            safelyVisit(catchClause);
             if (i + 1 != numOfCatchClauses) {
               // this catch clause is not the last in the try statement
               CatchClause nextCatchClause = catchClauses.get(i + 1);
@@ -239,6 +233,7 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
                   HintCode.DEAD_CODE_CATCH_FOLLOWING_CATCH,
                   offset,
                   length);
+              skipCatchClauses(catchClauses, i + 1);
               return null;
             }
           }
@@ -253,16 +248,15 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
                   length,
                   currentType.getDisplayName(),
                   type.getDisplayName());
+              skipCatchClauses(catchClauses, i);
               return null;
             }
           }
           visitedTypes.add(currentType);
         }
-        safelyVisit(catchClause);
       } else {
         // Found catch clause clause that doesn't have an exception type, visit the block, but
         // generate an error on any following catch clauses (and don't visit them).
-        safelyVisit(catchClause);
         if (i + 1 != numOfCatchClauses) {
           // this catch clause is not the last in the try statement
           CatchClause nextCatchClause = catchClauses.get(i + 1);
@@ -273,6 +267,7 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
               HintCode.DEAD_CODE_CATCH_FOLLOWING_CATCH,
               offset,
               length);
+          skipCatchClauses(catchClauses, i + 1);
           return null;
         }
       }
@@ -283,25 +278,25 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
   @Override
   public Void visitWhileStatement(WhileStatement node) {
     Expression conditionExpression = node.getCondition();
-    safelyVisit(conditionExpression);
     if (!isDebugConstant(conditionExpression)) {
       EvaluationResultImpl result = getConstantBooleanValue(conditionExpression);
       if (result != null) {
         if (result.getValue().isFalse()) {
           // report error on if block: while (false) {!}
           errorReporter.reportErrorForNode(HintCode.DEAD_CODE, node.getBody());
+          skip(node.getBody());
           return null;
         }
       }
     }
-    safelyVisit(node.getBody());
     return null;
   }
 
   /**
    * Given some {@link NodeList} of {@link Statement}s, from either a {@link Block} or
    * {@link SwitchMember}, this loops through the list in reverse order searching for statements
-   * after a return, unlabeled break or unlabeled continue statement to mark them as dead code.
+   * after a return, unlabeled break or unlabeled continue statement to mark them as dead code. The
+   * dead statements are skipped so that they are not visited.
    * 
    * @param statements some ordered list of statements in a {@link Block} or {@link SwitchMember}
    */
@@ -309,7 +304,6 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
     int size = statements.size();
     for (int i = 0; i < size; i++) {
       Statement currentStatement = statements.get(i);
-      safelyVisit(currentStatement);
       boolean returnOrBreakingStatement = currentStatement instanceof ReturnStatement
           || (currentStatement instanceof BreakStatement && ((BreakStatement) currentStatement).getLabel() == null)
           || (currentStatement instanceof ContinueStatement && ((ContinueStatement) currentStatement).getLabel() == null);
@@ -319,6 +313,9 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
         int offset = nextStatement.getOffset();
         int length = lastStatement.getEnd() - offset;
         errorReporter.reportErrorForOffset(HintCode.DEAD_CODE, offset, length);
+        for (int j = i + 1; j < size; j++) {
+          skip(statements.get(j));
+        }
         return;
       }
     }
@@ -380,14 +377,16 @@ public class DeadCodeVerifier extends RecursiveAstVisitor<Void> {
   }
 
   /**
-   * If the given node is not {@code null}, visit this instance of the dead code verifier.
+   * Skip the catch clauses in the given list, starting with the clause at the given index, because
+   * they are dead code.
    * 
-   * @param node the node to be visited
+   * @param catchClauses the catch clauses of a try statement
+   * @param startIndex the index of the first catch clause to be skipped
    */
-  private void safelyVisit(AstNode node) {
-    if (node != null) {
-      node.accept(this);
+  private void skipCatchClauses(NodeList<CatchClause> catchClauses, int startIndex) {
+    int count = catchClauses.size();
+    for (int i = startIndex; i < count; i++) {
+      skip(catchClauses.get(i));
     }
   }
-
 }
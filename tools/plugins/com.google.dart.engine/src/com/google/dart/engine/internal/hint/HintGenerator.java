@@ -14,6 +14,7 @@
 package com.google.dart.engine.internal.hint;
 
 import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.visitor.CompositeAstVisitor;
 import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.element.CompilationUnitElement;
@@ -88,24 +89,44 @@ public class HintGenerator {
 
   private void generateForCompilationUnit(CompilationUnit unit, Source source) {
     ErrorReporter errorReporter = new ErrorReporter(errorListener, source);
-
-    unit.accept(importsVerifier);
+    //
+    // Run all of the verifiers in a single traversal of the unit.
+    //
+    boolean timed = PerformanceStatistics.isRecordingHintVerifierTimes();
+    CompositeAstVisitor visitor = new CompositeAstVisitor();
+    visitor.addComponent(importsVerifier, timed ? PerformanceStatistics.importsHints : null);
 
     // dead code analysis
-    unit.accept(new DeadCodeVerifier(errorReporter));
+    visitor.addComponent(
+        new DeadCodeVerifier(errorReporter),
+        timed ? PerformanceStatistics.deadCodeHints : null);
 
     // dart2js analysis
     if (enableDart2JSHints) {
-      unit.accept(new Dart2JSVerifier(errorReporter));
+      visitor.addComponent(
+          new Dart2JSVerifier(errorReporter),
+          timed ? PerformanceStatistics.dart2jsHints : null);
     }
 
     // Dart best practices
-    unit.accept(new BestPracticesVerifier(errorReporter));
+    visitor.addComponent(
+        new BestPracticesVerifier(errorReporter),
+        timed ? PerformanceStatistics.bestPracticesHints : null);
+
+    visitor.addComponent(
+        new OverrideVerifier(manager, errorReporter),
+        timed ? PerformanceStatistics.overrideHints : null);
 
-    unit.accept(new OverrideVerifier(manager, errorReporter));
+    visitor.traverse(unit);
 
     // Find to-do comments
-    new ToDoFinder(errorReporter).findIn(unit);
+    if (timed) {
+      long startTime = System.nanoTime();
+      new ToDoFinder(errorReporter).findIn(unit);
+      PerformanceStatistics.todoHints.recordNestedElapsedNanos(System.nanoTime() - startTime);
+    } else {
+      new ToDoFinder(errorReporter).findIn(unit);
+    }
 
     // pub analysis
     // TODO(danrubel/jwren) Commented out until bugs in the pub verifier are fixed
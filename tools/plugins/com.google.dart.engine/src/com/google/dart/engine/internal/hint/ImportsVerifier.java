@@ -13,16 +13,17 @@
  */
 package com.google.dart.engine.internal.hint;
 
-import com.google.dart.engine.ast.Annotation;
+import com.google.dart.engine.ast.Combinator;
 import com.google.dart.engine.ast.CompilationUnit;
 import com.google.dart.engine.ast.Directive;
 import com.google.dart.engine.ast.ExportDirective;
 import com.google.dart.engine.ast.ImportDirective;
 import com.google.dart.engine.ast.LibraryDirective;
+import com.google.dart.engine.ast.NamespaceDirective;
 import com.google.dart.engine.ast.NodeList;
 import com.google.dart.engine.ast.PrefixedIdentifier;
 import com.google.dart.engine.ast.SimpleIdentifier;
-import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.ast.visitor.ComponentAstVisitor;
 import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.ImportElement;
@@ -50,7 +51,7 @@ import java.util.HashMap;
  * 
  * @coverage dart.engine.resolver
  */
-public class ImportsVerifier extends RecursiveAstVisitor<Void> {
+public class ImportsVerifier extends ComponentAstVisitor {
   /**
    * This is set to {@code true} if the current compilation unit which is being visited is the
    * defining compilation unit for the library, its value can be set with
@@ -220,6 +221,7 @@ public class ImportsVerifier extends RecursiveAstVisitor<Void> {
     // If there are no imports in this library, don't visit the identifiers in the library- there
     // can be no unused imports.
     if (unusedImports.isEmpty()) {
+      skip(node);
       return null;
     }
     if (unusedImports.size() > 1) {
@@ -241,29 +243,33 @@ public class ImportsVerifier extends RecursiveAstVisitor<Void> {
         currentDirective = nextDirective;
       }
     }
-    return super.visitCompilationUnit(node);
+    return null;
   }
 
   @Override
   public Void visitExportDirective(ExportDirective node) {
-    visitMetadata(node.getMetadata());
+    skipAllButMetadata(node);
     return null;
   }
 
   @Override
   public Void visitImportDirective(ImportDirective node) {
-    visitMetadata(node.getMetadata());
+    skipAllButMetadata(node);
+    skip(node.getPrefix());
     return null;
   }
 
   @Override
   public Void visitLibraryDirective(LibraryDirective node) {
-    visitMetadata(node.getMetadata());
+    skip(node.getDocumentationComment());
+    skip(node.getName());
     return null;
   }
 
   @Override
   public Void visitPrefixedIdentifier(PrefixedIdentifier node) {
+    // The identifiers within a prefixed identifier are handled here rather than being visited.
+    skip(node);
     if (unusedImports.isEmpty()) {
       return null;
     }
@@ -349,6 +355,20 @@ public class ImportsVerifier extends RecursiveAstVisitor<Void> {
     importList.add(importDirective);
   }
 
+  /**
+   * Skip all of the children of the given directive other than its annotations, so that only the
+   * identifiers in the annotations are visited by this visitor.
+   * 
+   * @param node the directive whose children are to be skipped
+   */
+  private void skipAllButMetadata(NamespaceDirective node) {
+    skip(node.getDocumentationComment());
+    skip(node.getUri());
+    for (Combinator combinator : node.getCombinators()) {
+      skip(combinator);
+    }
+  }
+
   private Void visitIdentifier(Element element, String name) {
     if (element == null) {
       return null;
@@ -405,18 +425,4 @@ public class ImportsVerifier extends RecursiveAstVisitor<Void> {
     }
     return null;
   }
-
-  /**
-   * Given some {@link NodeList} of {@link Annotation}s, ensure that the identifiers are visited by
-   * this visitor. Specifically, this covers the cases where AST nodes don't have their identifiers
-   * visited by this visitor, but still need their annotations visited.
-   * 
-   * @param annotations the list of annotations to visit
-   */
-  private void visitMetadata(NodeList<Annotation> annotations) {
-    int count = annotations.size();
-    for (int i = 0; i < count; i++) {
-      annotations.get(i).accept(this);
-    }
-  }
 }
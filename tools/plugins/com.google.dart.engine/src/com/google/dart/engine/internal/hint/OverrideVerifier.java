@@ -14,7 +14,7 @@
 package com.google.dart.engine.internal.hint;
 
 import com.google.dart.engine.ast.MethodDeclaration;
-import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.ast.visitor.ComponentAstVisitor;
 import com.google.dart.engine.element.ClassElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.ExecutableElement;
@@ -29,7 +29,7 @@ import com.google.dart.engine.internal.resolver.InheritanceManager;
  * Instances of the class {@code OverrideVerifier} visit all of the declarations in a compilation
  * unit to verify that if they have an override annotation it is being used correctly.
  */
-public class OverrideVerifier extends RecursiveAstVisitor<Void> {
+public class OverrideVerifier extends ComponentAstVisitor {
   /**
    * The inheritance manager used to find overridden methods.
    */
@@ -62,7 +62,7 @@ public class OverrideVerifier extends RecursiveAstVisitor<Void> {
 //    // TODO(brianwilkerson) Override can also be applied to fields, in which case we need to check
 //    // the getter and setter (not clear whether both should override, or if it's enough that one
 //    // overrides something; probably the latter).
-//    return super.visitFieldDeclaration(node);
+//    return null;
 //  }
 
   @Override
@@ -81,7 +81,7 @@ public class OverrideVerifier extends RecursiveAstVisitor<Void> {
         }
       }
     }
-    return super.visitMethodDeclaration(node);
+    return null;
   }
 
   /**
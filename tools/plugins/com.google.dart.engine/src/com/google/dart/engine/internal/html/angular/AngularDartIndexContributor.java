@@ -25,20 +25,20 @@ import com.google.dart.engine.element.ToolkitObjectElement;
 import com.google.dart.engine.element.angular.AngularComponentElement;
 import com.google.dart.engine.element.angular.AngularDecoratorElement;
 import com.google.dart.engine.element.angular.AngularPropertyElement;
-import com.google.dart.engine.index.IndexStore;
 import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.RelationshipRecorder;
 import com.google.dart.engine.internal.index.IndexConstants;
 
 /**
  * Visits resolved {@link CompilationUnit} and adds Angular specific relationships into
- * {@link IndexStore}.
+ * {@link RelationshipRecorder}.
  * 
  * @coverage dart.engine.index
  */
 public class AngularDartIndexContributor extends GeneralizingAstVisitor<Void> {
-  private final IndexStore store;
+  private final RelationshipRecorder store;
 
-  public AngularDartIndexContributor(IndexStore store) {
+  public AngularDartIndexContributor(RelationshipRecorder store) {
     this.store = store;
   }
 
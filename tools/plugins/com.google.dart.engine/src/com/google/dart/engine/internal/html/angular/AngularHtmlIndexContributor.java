@@ -24,22 +24,22 @@ import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.html.ast.XmlAttributeNode;
 import com.google.dart.engine.html.ast.XmlTagNode;
 import com.google.dart.engine.html.scanner.Token;
-import com.google.dart.engine.index.IndexStore;
 import com.google.dart.engine.index.Location;
 import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.RelationshipRecorder;
 import com.google.dart.engine.internal.index.IndexConstants;
 import com.google.dart.engine.internal.index.IndexContributor;
 
 /**
- * Visits resolved {@link HtmlUnit} and adds relationships into {@link IndexStore}.
+ * Visits resolved {@link HtmlUnit} and adds relationships into {@link RelationshipRecorder}.
  * 
  * @coverage dart.engine.index
  */
 public class AngularHtmlIndexContributor extends ExpressionVisitor {
   /**
-   * The {@link IndexStore} to record relations into.
+   * The {@link RelationshipRecorder} to record relations into.
    */
-  private final IndexStore store;
+  private final RelationshipRecorder store;
 
   /**
    * The index contributor used to index Dart {@link Expression}s.
@@ -51,9 +51,9 @@ public class AngularHtmlIndexContributor extends ExpressionVisitor {
   /**
    * Initialize a newly created Angular HTML index contributor.
    * 
-   * @param store the {@link IndexStore} to record relations into.
+   * @param store the {@link RelationshipRecorder} to record relations into.
    */
-  public AngularHtmlIndexContributor(IndexStore store) {
+  public AngularHtmlIndexContributor(RelationshipRecorder store) {
     this.store = store;
     indexContributor = new IndexContributor(store) {
       @Override
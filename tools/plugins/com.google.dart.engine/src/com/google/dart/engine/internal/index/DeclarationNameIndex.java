@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.UniverseElement;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Instances of the class {@code DeclarationNameIndex} keep the declarations that are recorded for
+ * the {@link UniverseElement}, such as the {@link IndexConstants#DEFINES_CLASS} relationships, by
+ * the names of the declared elements. This allows the declarations whose names match a
+ * {@link NameQuery} to be found without looking at every declaration. In addition to the table
+ * mapping names to declarations, the index keeps
+ * <ul>
+ * <li>the names sorted both case sensitively and case insensitively, used to find the names that
+ * start with a prefix,</li>
+ * <li>for each camel-case key, which is the first character of a name followed by the first hump
+ * after it, the names with that key, and</li>
+ * <li>for each lower case trigram, the names that contain that trigram.</li>
+ * </ul>
+ * Names are only ever added to these structures. A name whose last declaration is removed is left
+ * in them, which makes it cheap to re-index a unit, until there are more such names than names with
+ * declarations, at which point the structures are rebuilt.
+ * <p>
+ * Each declaration has an owner, usually the unit in which it was recorded, so that all of the
+ * declarations of a unit can be removed together.
+ * <p>
+ * This class is not thread safe.
+ * 
+ * @coverage dart.engine.index
+ */
+public class DeclarationNameIndex<E> {
+  /**
+   * Instances of the class {@code Declaration} represent a single declaration in the index.
+   */
+  public static class Declaration<E> {
+    private final int owner;
+    private final Relationship relationship;
+    private final String name;
+    private final E value;
+
+    public Declaration(int owner, Relationship relationship, String name, E value) {
+      this.owner = owner;
+      this.relationship = relationship;
+      this.name = name;
+      this.value = value;
+    }
+
+    /**
+     * Return the name of the declared element.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Return the owner of the declaration.
+     */
+    public int getOwner() {
+      return owner;
+    }
+
+    /**
+     * Return the relationship between the {@link UniverseElement} and the declaration.
+     */
+    public Relationship getRelationship() {
+      return relationship;
+    }
+
+    /**
+     * Return the value that was recorded for the declaration.
+     */
+    public E getValue() {
+      return value;
+    }
+  }
+
+  /**
+   * The number of names without declarations that are always allowed to be kept.
+   */
+  private static final int MIN_STALE_NAME_COUNT = 1024;
+
+  /**
+   * Return the camel-case key of the given name, which is the first character of the name followed
+   * by the first hump after it, if there is one.
+   */
+  static String getCamelCaseKey(String name) {
+    int length = name.length();
+    for (int i = 1; i < length; i++) {
+      char c = name.charAt(i);
+      if (isHump(c)) {
+        return new String(new char[] {name.charAt(0), c});
+      }
+    }
+    return name.substring(0, 1);
+  }
+
+  /**
+   * Return {@code true} if the given character starts a new part of a camel-case name. These are
+   * the characters that an upper case character of a camel-case pattern can skip to.
+   */
+  static boolean isHump(char c) {
+    return Character.isUpperCase(c) || !Character.isJavaIdentifierPart(c);
+  }
+
+  /**
+   * Return the given string with each of its characters converted to lower case.
+   */
+  static String toLowerCase(String str) {
+    int length = str.length();
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = Character.toLowerCase(str.charAt(i));
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Return the index of the first of the given sorted names that is not less than the given key.
+   */
+  private static int lowerBound(String[] names, String key, Comparator<String> comparator) {
+    int low = 0;
+    int high = names.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (comparator.compare(names[middle], key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * A table mapping owners to the declarations they own.
+   */
+  private final Map<Integer, List<Declaration<E>>> ownerToDeclarations = Maps.newHashMap();
+
+  /**
+   * A table mapping names to the declarations of elements with those names. Names without
+   * declarations are not in this table.
+   */
+  private final Map<String, List<Declaration<E>>> nameToDeclarations = Maps.newHashMap();
+
+  /**
+   * The names that are in the search structures, including the names without declarations.
+   */
+  private final Set<String> indexedNames = Sets.newHashSet();
+
+  /**
+   * A table mapping camel-case keys to the names with those keys.
+   */
+  private final Map<String, List<String>> camelCaseKeyToNames = Maps.newHashMap();
+
+  /**
+   * A table mapping lower case trigrams to the names containing them.
+   */
+  private final Map<String, List<String>> trigramToNames = Maps.newHashMap();
+
+  /**
+   * The indexed names sorted case sensitively, or {@code null} if they need to be sorted again.
+   */
+  private String[] sortedNames;
+
+  /**
+   * The indexed names sorted case insensitively, or {@code null} if they need to be sorted again.
+   */
+  private String[] sortedNamesIgnoreCase;
+
+  /**
+   * Record a declaration of an element with the given name.
+   * 
+   * @param owner the owner of the declaration
+   * @param relationship the relationship between the {@link UniverseElement} and the declaration
+   * @param name the name of the declared element
+   * @param value the value to be returned for the declaration
+   */
+  public void add(int owner, Relationship relationship, String name, E value) {
+    Declaration<E> declaration = new Declaration<E>(owner, relationship, name, value);
+    List<Declaration<E>> ownerDeclarations = ownerToDeclarations.get(owner);
+    if (ownerDeclarations == null) {
+      ownerDeclarations = Lists.newArrayList();
+      ownerToDeclarations.put(owner, ownerDeclarations);
+    }
+    ownerDeclarations.add(declaration);
+    List<Declaration<E>> nameDeclarations = nameToDeclarations.get(name);
+    if (nameDeclarations == null) {
+      nameDeclarations = Lists.newArrayListWithCapacity(1);
+      nameToDeclarations.put(name, nameDeclarations);
+      indexName(name);
+    }
+    nameDeclarations.add(declaration);
+  }
+
+  /**
+   * Remove all of the declarations from this index.
+   */
+  public void clear() {
+    ownerToDeclarations.clear();
+    nameToDeclarations.clear();
+    clearSearchStructures();
+  }
+
+  /**
+   * Return all of the declarations in this index.
+   * 
+   * @return all of the declarations in this index
+   */
+  public List<Declaration<E>> getDeclarations() {
+    List<Declaration<E>> declarations = Lists.newArrayList();
+    for (List<Declaration<E>> ownerDeclarations : ownerToDeclarations.values()) {
+      declarations.addAll(ownerDeclarations);
+    }
+    return declarations;
+  }
+
+  /**
+   * Return the values of the declarations with the given relationship whose names match the given
+   * query.
+   * 
+   * @param relationship the relationship of the declarations to be returned
+   * @param query the query the names of the declarations must match
+   * @return the values of the matching declarations
+   */
+  public List<E> getValues(Relationship relationship, NameQuery query) {
+    if (indexedNames.size() - nameToDeclarations.size() > Math.max(
+        nameToDeclarations.size(),
+        MIN_STALE_NAME_COUNT)) {
+      rebuildSearchStructures();
+    }
+    Collection<String> names = query.getCandidateNames(this);
+    if (names == null) {
+      names = nameToDeclarations.keySet();
+    }
+    List<E> values = Lists.newArrayList();
+    for (String name : names) {
+      List<Declaration<E>> declarations = nameToDeclarations.get(name);
+      if (declarations != null && query.matches(name)) {
+        for (Declaration<E> declaration : declarations) {
+          if (declaration.relationship == relationship) {
+            values.add(declaration.value);
+          }
+        }
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Return {@code true} if there are no declarations in this index.
+   * 
+   * @return {@code true} if there are no declarations in this index
+   */
+  public boolean isEmpty() {
+    return ownerToDeclarations.isEmpty();
+  }
+
+  /**
+   * Remove all of the declarations with the given owner.
+   * 
+   * @param owner the owner of the declarations to be removed
+   */
+  public void remove(int owner) {
+    List<Declaration<E>> ownerDeclarations = ownerToDeclarations.remove(owner);
+    if (ownerDeclarations == null) {
+      return;
+    }
+    for (Declaration<E> declaration : ownerDeclarations) {
+      String name = declaration.name;
+      List<Declaration<E>> nameDeclarations = nameToDeclarations.get(name);
+      if (nameDeclarations != null) {
+        nameDeclarations.remove(declaration);
+        if (nameDeclarations.isEmpty()) {
+          nameToDeclarations.remove(name);
+        }
+      }
+    }
+  }
+
+  /**
+   * Return the names with the given camel-case key.
+   */
+  Collection<String> getNamesWithCamelCaseKey(String key) {
+    List<String> names = camelCaseKeyToNames.get(key);
+    if (names == null) {
+      return Collections.emptyList();
+    }
+    return names;
+  }
+
+  /**
+   * Return the names that start with the given prefix.
+   */
+  Collection<String> getNamesWithPrefix(String prefix, boolean caseSensitive) {
+    if (sortedNames == null) {
+      sortedNames = indexedNames.toArray(new String[indexedNames.size()]);
+      sortedNamesIgnoreCase = sortedNames.clone();
+      Arrays.sort(sortedNames);
+      Arrays.sort(sortedNamesIgnoreCase, String.CASE_INSENSITIVE_ORDER);
+    }
+    String[] names;
+    int start;
+    if (caseSensitive) {
+      names = sortedNames;
+      start = lowerBound(names, prefix, Ordering.<String> natural());
+    } else {
+      names = sortedNamesIgnoreCase;
+      start = lowerBound(names, prefix, String.CASE_INSENSITIVE_ORDER);
+    }
+    int prefixLength = prefix.length();
+    int end = start;
+    while (end < names.length
+        && names[end].regionMatches(!caseSensitive, 0, prefix, 0, prefixLength)) {
+      end++;
+    }
+    return Arrays.asList(names).subList(start, end);
+  }
+
+  /**
+   * Return names among which are all of the names that contain all of the given lower case
+   * trigrams. This is the shortest list of names containing one of the trigrams.
+   */
+  Collection<String> getNamesWithTrigrams(List<String> trigrams) {
+    List<String> shortest = null;
+    for (String trigram : trigrams) {
+      List<String> names = trigramToNames.get(trigram);
+      if (names == null) {
+        return Collections.emptyList();
+      }
+      if (shortest == null || names.size() < shortest.size()) {
+        shortest = names;
+      }
+    }
+    return shortest;
+  }
+
+  private void clearSearchStructures() {
+    indexedNames.clear();
+    camelCaseKeyToNames.clear();
+    trigramToNames.clear();
+    sortedNames = null;
+    sortedNamesIgnoreCase = null;
+  }
+
+  /**
+   * Add the given name to the search structures, unless it is already there.
+   */
+  private void indexName(String name) {
+    if (!indexedNames.add(name)) {
+      return;
+    }
+    sortedNames = null;
+    sortedNamesIgnoreCase = null;
+    if (name.isEmpty()) {
+      return;
+    }
+    // camel-case key
+    {
+      String key = getCamelCaseKey(name);
+      List<String> names = camelCaseKeyToNames.get(key);
+      if (names == null) {
+        names = Lists.newArrayList();
+        camelCaseKeyToNames.put(key, names);
+      }
+      names.add(name);
+    }
+    // trigrams
+    String lowerCaseName = toLowerCase(name);
+    Set<String> trigrams = Sets.newHashSet();
+    for (int i = 0; i + 3 <= lowerCaseName.length(); i++) {
+      String trigram = lowerCaseName.substring(i, i + 3);
+      if (trigrams.add(trigram)) {
+        List<String> names = trigramToNames.get(trigram);
+        if (names == null) {
+          names = Lists.newArrayList();
+          trigramToNames.put(trigram, names);
+        }
+        names.add(name);
+      }
+    }
+  }
+
+  /**
+   * Rebuild the search structures so that they contain only the names with declarations.
+   */
+  private void rebuildSearchStructures() {
+    clearSearchStructures();
+    for (String name : nameToDeclarations.keySet()) {
+      indexName(name);
+    }
+  }
+}
@@ -14,15 +14,21 @@
 package com.google.dart.engine.internal.index;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.dart.engine.AnalysisEngine;
 import com.google.dart.engine.ast.CompilationUnit;
 import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.index.Index;
 import com.google.dart.engine.index.IndexStore;
 import com.google.dart.engine.index.Relationship;
 import com.google.dart.engine.index.RelationshipCallback;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.index.operation.AddContextOperation;
 import com.google.dart.engine.internal.index.operation.ClearOperation;
+import com.google.dart.engine.internal.index.operation.GetDeclarationsOperation;
 import com.google.dart.engine.internal.index.operation.GetRelationshipsOperation;
 import com.google.dart.engine.internal.index.operation.IndexHtmlUnitOperation;
 import com.google.dart.engine.internal.index.operation.IndexUnitOperation;
@@ -33,8 +39,13 @@ import com.google.dart.engine.internal.index.operation.RemoveSourceOperation;
 import com.google.dart.engine.internal.index.operation.RemoveSourcesOperation;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.utilities.general.CancellationToken;
 import com.google.dart.engine.utilities.translation.DartOmit;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
 /**
  * Implementation of {@link Index}.
  * 
@@ -46,23 +57,60 @@ public class IndexImpl implements Index {
   private final OperationQueue queue;
   private final OperationProcessor processor;
 
+  /**
+   * A table mapping contexts to tables mapping the sources of the units that were indexed while the
+   * function bodies in them had not been resolved to the sources of the libraries containing those
+   * units. Only the declarations in those units have been indexed, so the units are resolved and
+   * indexed again before the relationships of any element are returned.
+   */
+  private final HashMap<AnalysisContext, HashMap<Source, Source>> unitsWithSkippedBodies =
+      new HashMap<AnalysisContext, HashMap<Source, Source>>();
+
   public IndexImpl(IndexStore store, OperationQueue queue, OperationProcessor processor) {
     this.store = store;
     this.queue = queue;
     this.processor = processor;
   }
 
+  @Override
+  public void addContext(AnalysisContext context, String name) {
+    queue.enqueue(new AddContextOperation(store, context, name));
+  }
+
   @Override
   public void clear() {
+    synchronized (unitsWithSkippedBodies) {
+      unitsWithSkippedBodies.clear();
+    }
     queue.enqueue(new ClearOperation(store));
   }
 
+  @Override
+  public void getDeclarations(Relationship relationship, NameQuery query,
+      RelationshipCallback callback) {
+    queue.enqueue(new GetDeclarationsOperation(store, relationship, query, callback));
+  }
+
   @Override
   public void getRelationships(Element element, Relationship relationship,
       RelationshipCallback callback) {
+    indexSkippedFunctionBodies();
     queue.enqueue(new GetRelationshipsOperation(store, element, relationship, callback));
   }
 
+  @Override
+  public void getRelationships(Element element, Relationship relationship, int limit,
+      CancellationToken token, RelationshipCallback callback) {
+    indexSkippedFunctionBodies();
+    queue.enqueue(new GetRelationshipsOperation(
+        store,
+        element,
+        relationship,
+        limit,
+        token,
+        callback));
+  }
+
   @Override
   public String getStatistics() {
     return store.getStatistics();
@@ -91,6 +139,7 @@ public class IndexImpl implements Index {
       return;
     }
     queue.enqueue(new IndexUnitOperation(store, context, unit));
+    recordSkippedFunctionBodies(context, unit);
   }
 
   @VisibleForTesting
@@ -100,16 +149,36 @@ public class IndexImpl implements Index {
 
   @Override
   public void removeContext(AnalysisContext context) {
+    synchronized (unitsWithSkippedBodies) {
+      unitsWithSkippedBodies.remove(context);
+    }
     queue.enqueue(new RemoveContextOperation(store, context));
   }
 
   @Override
   public void removeSource(AnalysisContext context, Source source) {
+    synchronized (unitsWithSkippedBodies) {
+      HashMap<Source, Source> units = unitsWithSkippedBodies.get(context);
+      if (units != null) {
+        units.remove(source);
+      }
+    }
     queue.enqueue(new RemoveSourceOperation(store, context, source));
   }
 
   @Override
   public void removeSources(AnalysisContext context, SourceContainer container) {
+    synchronized (unitsWithSkippedBodies) {
+      HashMap<Source, Source> units = unitsWithSkippedBodies.get(context);
+      if (units != null) {
+        Iterator<Source> iterator = units.keySet().iterator();
+        while (iterator.hasNext()) {
+          if (container.contains(iterator.next())) {
+            iterator.remove();
+          }
+        }
+      }
+    }
     queue.enqueue(new RemoveSourcesOperation(store, context, container));
   }
 
@@ -122,4 +191,62 @@ public class IndexImpl implements Index {
   public void stop() {
     processor.stop(false);
   }
+
+  /**
+   * Resolve the function bodies in the units that were indexed without them and index those units
+   * again. The units are indexed before any operation that is enqueued afterwards is performed, so
+   * references within the function bodies will be found by that operation.
+   */
+  private void indexSkippedFunctionBodies() {
+    HashMap<AnalysisContext, HashMap<Source, Source>> units;
+    synchronized (unitsWithSkippedBodies) {
+      if (unitsWithSkippedBodies.isEmpty()) {
+        return;
+      }
+      units = new HashMap<AnalysisContext, HashMap<Source, Source>>(unitsWithSkippedBodies);
+      unitsWithSkippedBodies.clear();
+    }
+    for (Map.Entry<AnalysisContext, HashMap<Source, Source>> contextEntry : units.entrySet()) {
+      AnalysisContext context = contextEntry.getKey();
+      for (Map.Entry<Source, Source> unitEntry : contextEntry.getValue().entrySet()) {
+        Source unitSource = unitEntry.getKey();
+        try {
+          indexUnit(context, context.resolveCompilationUnit(unitSource, unitEntry.getValue()));
+        } catch (AnalysisException exception) {
+          AnalysisEngine.getInstance().getLogger().logError(
+              "Could not resolve the function bodies in " + unitSource.getFullName(),
+              exception);
+        }
+      }
+    }
+  }
+
+  /**
+   * Record whether the function bodies in the given unit, which is being indexed, were skipped when
+   * it was resolved. References within skipped function bodies are not resolved, so they could not
+   * be found until the function bodies have been resolved and the unit has been indexed again.
+   * 
+   * @param context the context in which the unit was resolved
+   * @param unit the unit being indexed
+   */
+  private void recordSkippedFunctionBodies(AnalysisContext context, CompilationUnit unit) {
+    Source unitSource = unit.getElement().getSource();
+    LibraryElement library = unit.getElement().getLibrary();
+    if (unitSource == null || library == null || !(context instanceof InternalAnalysisContext)) {
+      return;
+    }
+    boolean skipped = ((InternalAnalysisContext) context).getFunctionBodiesSkipped(unitSource);
+    synchronized (unitsWithSkippedBodies) {
+      HashMap<Source, Source> units = unitsWithSkippedBodies.get(context);
+      if (skipped) {
+        if (units == null) {
+          units = new HashMap<Source, Source>();
+          unitsWithSkippedBodies.put(context, units);
+        }
+        units.put(unitSource, library.getSource());
+      } else if (units != null) {
+        units.remove(unitSource);
+      }
+    }
+  }
 }
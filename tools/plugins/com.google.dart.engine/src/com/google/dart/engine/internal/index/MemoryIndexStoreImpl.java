@@ -28,11 +28,13 @@ import com.google.dart.engine.index.IndexStore;
 import com.google.dart.engine.index.Location;
 import com.google.dart.engine.index.MemoryIndexStore;
 import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.UniverseElement;
 import com.google.dart.engine.internal.context.AnalysisContextImpl;
 import com.google.dart.engine.internal.context.InstrumentedAnalysisContextImpl;
 import com.google.dart.engine.internal.element.member.Member;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.utilities.general.CancellationToken;
 import com.google.dart.engine.utilities.translation.DartExpressionBody;
 import com.google.dart.engine.utilities.translation.DartOmit;
 
@@ -276,6 +278,11 @@ public class MemoryIndexStoreImpl implements MemoryIndexStore {
     return true;
   }
 
+  @Override
+  public void addContext(AnalysisContext context, String name) {
+    // nothing is restored from the previous session
+  }
+
   @Override
   public void clear() {
     canonicalKeys.clear();
@@ -290,6 +297,24 @@ public class MemoryIndexStoreImpl implements MemoryIndexStore {
   public void doneIndex() {
   }
 
+  @Override
+  public Location[] getDeclarations(Relationship relationship, NameQuery query) {
+    Set<Location> locations = keyToLocations.get(new ElementRelationKey(
+        UniverseElement.INSTANCE,
+        relationship));
+    if (locations == null) {
+      return Location.EMPTY_ARRAY;
+    }
+    List<Location> matchingLocations = Lists.newArrayList();
+    for (Location location : locations) {
+      String name = location.getElement().getDisplayName();
+      if (query.matches(name != null ? name : "")) {
+        matchingLocations.add(location);
+      }
+    }
+    return matchingLocations.toArray(new Location[matchingLocations.size()]);
+  }
+
   @Override
   public Location[] getRelationships(Element element, Relationship relationship) {
     ElementRelationKey key = new ElementRelationKey(element, relationship);
@@ -300,6 +325,24 @@ public class MemoryIndexStoreImpl implements MemoryIndexStore {
     return Location.EMPTY_ARRAY;
   }
 
+  @Override
+  public Location[] getRelationships(Element element, Relationship relationship, int limit,
+      CancellationToken token) {
+    ElementRelationKey key = new ElementRelationKey(element, relationship);
+    Set<Location> locations = keyToLocations.get(key);
+    if (locations == null) {
+      return Location.EMPTY_ARRAY;
+    }
+    List<Location> result = Lists.newArrayList();
+    for (Location location : locations) {
+      if (limit > 0 && result.size() >= limit || token != null && token.isCancelled()) {
+        break;
+      }
+      result.add(location);
+    }
+    return result.toArray(new Location[result.size()]);
+  }
+
   @Override
   public String getStatistics() {
     return locationCount + " relationships in " + keyCount + " keys in " + sourceCount + " sources";
@@ -345,6 +388,12 @@ public class MemoryIndexStoreImpl implements MemoryIndexStore {
     return count;
   }
 
+  @Override
+  public boolean isUpToDate(AnalysisContext context, CompilationUnitElement unitElement) {
+    // nothing is restored from the previous session
+    return false;
+  }
+
   @Override
   @DartOmit
   public void readIndex(AnalysisContext context, InputStream input) throws IOException {
@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.dart.engine.utilities.general.CharOperation;
+
+import static org.apache.commons.lang3.StringUtils.startsWith;
+import static org.apache.commons.lang3.StringUtils.startsWithIgnoreCase;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Instances of the class {@code NameQuery} select the names of declarations. Besides testing a
+ * single name, a query knows how to use a {@link DeclarationNameIndex} to find the few names that
+ * can possibly match it, so that the remaining names are never looked at.
+ * 
+ * @coverage dart.engine.index
+ */
+public abstract class NameQuery {
+  /**
+   * A query that matches names that match all of several other queries.
+   */
+  private static class AndNameQuery extends NameQuery {
+    private final NameQuery[] queries;
+
+    public AndNameQuery(NameQuery[] queries) {
+      this.queries = queries;
+    }
+
+    @Override
+    public boolean matches(String name) {
+      for (NameQuery query : queries) {
+        if (!query.matches(name)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    Collection<String> getCandidateNames(DeclarationNameIndex<?> index) {
+      Collection<String> smallest = null;
+      for (NameQuery query : queries) {
+        Collection<String> candidates = query.getCandidateNames(index);
+        if (candidates != null && (smallest == null || candidates.size() < smallest.size())) {
+          smallest = candidates;
+        }
+      }
+      return smallest;
+    }
+  }
+
+  /**
+   * A query that matches every name.
+   */
+  private static class AnyNameQuery extends NameQuery {
+    @Override
+    public boolean matches(String name) {
+      return true;
+    }
+
+    @Override
+    Collection<String> getCandidateNames(DeclarationNameIndex<?> index) {
+      return null;
+    }
+  }
+
+  /**
+   * A query that matches names using camel-case rules.
+   * 
+   * @see CharOperation#camelCaseMatch(char[], char[], boolean)
+   */
+  private static class CamelCaseNameQuery extends NameQuery {
+    private final char[] pattern;
+    private final boolean samePartCount;
+
+    public CamelCaseNameQuery(String pattern, boolean samePartCount) {
+      this.pattern = pattern.toCharArray();
+      this.samePartCount = samePartCount;
+    }
+
+    @Override
+    public boolean matches(String name) {
+      return CharOperation.camelCaseMatch(pattern, name.toCharArray(), samePartCount);
+    }
+
+    @Override
+    Collection<String> getCandidateNames(DeclarationNameIndex<?> index) {
+      if (pattern.length == 0) {
+        return null;
+      }
+      // the first hump of the pattern must be the first hump of the name
+      for (int i = 1; i < pattern.length; i++) {
+        if (DeclarationNameIndex.isHump(pattern[i])) {
+          return index.getNamesWithCamelCaseKey(new String(new char[] {pattern[0], pattern[i]}));
+        }
+      }
+      // no humps, so everything up to the first digit must be the prefix of the name
+      int prefixLength = 1;
+      while (prefixLength < pattern.length && !Character.isDigit(pattern[prefixLength])) {
+        prefixLength++;
+      }
+      return index.getNamesWithPrefix(new String(pattern, 0, prefixLength), true);
+    }
+  }
+
+  /**
+   * A query that matches a single name.
+   */
+  private static class ExactNameQuery extends NameQuery {
+    private final String name;
+    private final boolean caseSensitive;
+
+    public ExactNameQuery(String name, boolean caseSensitive) {
+      this.name = name;
+      this.caseSensitive = caseSensitive;
+    }
+
+    @Override
+    public boolean matches(String name) {
+      return caseSensitive ? name.equals(this.name) : name.equalsIgnoreCase(this.name);
+    }
+
+    @Override
+    Collection<String> getCandidateNames(DeclarationNameIndex<?> index) {
+      return index.getNamesWithPrefix(name, caseSensitive);
+    }
+  }
+
+  /**
+   * A query that matches names that match at least one of several other queries.
+   */
+  private static class OrNameQuery extends NameQuery {
+    private final NameQuery[] queries;
+
+    public OrNameQuery(NameQuery[] queries) {
+      this.queries = queries;
+    }
+
+    @Override
+    public boolean matches(String name) {
+      for (NameQuery query : queries) {
+        if (query.matches(name)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    Collection<String> getCandidateNames(DeclarationNameIndex<?> index) {
+      Set<String> union = Sets.newHashSet();
+      for (NameQuery query : queries) {
+        Collection<String> candidates = query.getCandidateNames(index);
+        if (candidates == null) {
+          return null;
+        }
+        union.addAll(candidates);
+      }
+      return union;
+    }
+  }
+
+  /**
+   * A query that matches names with a given prefix.
+   */
+  private static class PrefixNameQuery extends NameQuery {
+    private final String prefix;
+    private final boolean caseSensitive;
+
+    public PrefixNameQuery(String prefix, boolean caseSensitive) {
+      this.prefix = prefix;
+      this.caseSensitive = caseSensitive;
+    }
+
+    @Override
+    public boolean matches(String name) {
+      return caseSensitive ? startsWith(name, prefix) : startsWithIgnoreCase(name, prefix);
+    }
+
+    @Override
+    Collection<String> getCandidateNames(DeclarationNameIndex<?> index) {
+      return index.getNamesWithPrefix(prefix, caseSensitive);
+    }
+  }
+
+  /**
+   * A query that matches names using a pattern with the wildcards '*' and '?'.
+   * 
+   * @see CharOperation#match(char[], char[], boolean)
+   */
+  private static class WildcardNameQuery extends NameQuery {
+    /**
+     * The smallest length of a literal prefix that is used in preference to the trigrams.
+     */
+    private static final int PREFERRED_PREFIX_LENGTH = 3;
+
+    private final char[] pattern;
+    private final boolean caseSensitive;
+
+    public WildcardNameQuery(String pattern, boolean caseSensitive) {
+      this.pattern = caseSensitive ? pattern.toCharArray() : pattern.toLowerCase().toCharArray();
+      this.caseSensitive = caseSensitive;
+    }
+
+    @Override
+    public boolean matches(String name) {
+      return CharOperation.match(pattern, name.toCharArray(), caseSensitive);
+    }
+
+    @Override
+    Collection<String> getCandidateNames(DeclarationNameIndex<?> index) {
+      // the characters before the first wildcard are the prefix of the name
+      int prefixLength = 0;
+      while (prefixLength < pattern.length && !isWildcard(pattern[prefixLength])) {
+        prefixLength++;
+      }
+      String prefix = new String(pattern, 0, prefixLength);
+      if (prefixLength >= PREFERRED_PREFIX_LENGTH) {
+        return index.getNamesWithPrefix(prefix, caseSensitive);
+      }
+      // every trigram of a literal segment must be in the name
+      List<String> trigrams = Lists.newArrayList();
+      int segmentStart = 0;
+      for (int i = 0; i <= pattern.length; i++) {
+        if (i == pattern.length || isWildcard(pattern[i])) {
+          String segment = DeclarationNameIndex.toLowerCase(new String(
+              pattern,
+              segmentStart,
+              i - segmentStart));
+          for (int j = 0; j + 3 <= segment.length(); j++) {
+            trigrams.add(segment.substring(j, j + 3));
+          }
+          segmentStart = i + 1;
+        }
+      }
+      if (!trigrams.isEmpty()) {
+        return index.getNamesWithTrigrams(trigrams);
+      }
+      if (prefixLength > 0) {
+        return index.getNamesWithPrefix(prefix, caseSensitive);
+      }
+      return null;
+    }
+
+    private boolean isWildcard(char c) {
+      return c == '*' || c == '?';
+    }
+  }
+
+  /**
+   * The query that matches every name.
+   */
+  public static final NameQuery ANY = new AnyNameQuery();
+
+  /**
+   * Return a query that matches the names that match all of the given queries.
+   * 
+   * @param queries the queries that matching names must match
+   * @return the query that was created
+   */
+  public static NameQuery and(NameQuery... queries) {
+    return new AndNameQuery(queries);
+  }
+
+  /**
+   * Return a query that matches the names that match the given camel-case pattern.
+   * 
+   * @param pattern the pattern that matching names must match
+   * @param samePartCount {@code true} if the pattern and the name being matched must have exactly
+   *          the same number of parts (i.e. the same number of uppercase characters)
+   * @return the query that was created
+   */
+  public static NameQuery camelCase(String pattern, boolean samePartCount) {
+    return new CamelCaseNameQuery(pattern, samePartCount);
+  }
+
+  /**
+   * Return a query that matches the given name.
+   * 
+   * @param name the name that matching names must be equal to
+   * @param caseSensitive {@code true} if a case sensitive match is to be performed
+   * @return the query that was created
+   */
+  public static NameQuery exact(String name, boolean caseSensitive) {
+    return new ExactNameQuery(name, caseSensitive);
+  }
+
+  /**
+   * Return a query that matches the names that match at least one of the given queries.
+   * 
+   * @param queries the queries at least one of which matching names must match
+   * @return the query that was created
+   */
+  public static NameQuery or(NameQuery... queries) {
+    return new OrNameQuery(queries);
+  }
+
+  /**
+   * Return a query that matches the names that begin with the given prefix.
+   * 
+   * @param prefix the prefix that matching names must start with
+   * @param caseSensitive {@code true} if a case sensitive match is to be performed
+   * @return the query that was created
+   */
+  public static NameQuery prefix(String prefix, boolean caseSensitive) {
+    return new PrefixNameQuery(prefix, caseSensitive);
+  }
+
+  /**
+   * Return a query that matches the names that match the given pattern, which can contain the
+   * wildcards '*' and '?'.
+   * 
+   * @param pattern the pattern that matching names must match
+   * @param caseSensitive {@code true} if a case sensitive match is to be performed
+   * @return the query that was created
+   */
+  public static NameQuery wildcard(String pattern, boolean caseSensitive) {
+    return new WildcardNameQuery(pattern, caseSensitive);
+  }
+
+  /**
+   * Return {@code true} if the given name matches this query.
+   * 
+   * @param name the name being matched against
+   * @return {@code true} if the given name matches this query
+   */
+  public abstract boolean matches(String name);
+
+  /**
+   * Return the names in the given index that might match this query, or {@code null} if the index
+   * cannot be used to exclude any name. The names that are returned are not necessarily matched by
+   * this query, and might not have any declarations any longer.
+   * 
+   * @param index the index containing the names
+   * @return the names that might match this query
+   */
+  abstract Collection<String> getCandidateNames(DeclarationNameIndex<?> index);
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index;
+
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.RelationshipRecorder;
+
+/**
+ * Instances of the class {@code RelationshipBuffer} collect the relationships recorded by the
+ * contributors for a single unit, so that the unit can be visited without holding the
+ * {@link IndexStore}. The recorded relationships are then written into the store using
+ * {@link #replay(RelationshipRecorder)}.
+ * 
+ * @coverage dart.engine.index
+ */
+public class RelationshipBuffer implements RelationshipRecorder {
+  /**
+   * The elements of the recorded relationships.
+   */
+  private Element[] elements = new Element[64];
+
+  /**
+   * The recorded relationships, parallel to {@link #elements}.
+   */
+  private Relationship[] relationships = new Relationship[64];
+
+  /**
+   * The locations of the recorded relationships, parallel to {@link #elements}.
+   */
+  private Location[] locations = new Location[64];
+
+  /**
+   * The number of relationships that have been recorded.
+   */
+  private int count = 0;
+
+  /**
+   * Initialize a newly created buffer to have no recorded relationships.
+   */
+  public RelationshipBuffer() {
+    super();
+  }
+
+  /**
+   * Return the number of relationships that have been recorded.
+   * 
+   * @return the number of relationships that have been recorded
+   */
+  public int getRelationshipCount() {
+    return count;
+  }
+
+  @Override
+  public void recordRelationship(Element element, Relationship relationship, Location location) {
+    if (element == null || location == null) {
+      return;
+    }
+    if (count == elements.length) {
+      int newLength = count * 2;
+      Element[] newElements = new Element[newLength];
+      Relationship[] newRelationships = new Relationship[newLength];
+      Location[] newLocations = new Location[newLength];
+      System.arraycopy(elements, 0, newElements, 0, count);
+      System.arraycopy(relationships, 0, newRelationships, 0, count);
+      System.arraycopy(locations, 0, newLocations, 0, count);
+      elements = newElements;
+      relationships = newRelationships;
+      locations = newLocations;
+    }
+    elements[count] = element;
+    relationships[count] = relationship;
+    locations[count] = location;
+    count++;
+  }
+
+  /**
+   * Record all of the relationships recorded in this buffer in the given recorder, in the order in
+   * which they were recorded.
+   * 
+   * @param recorder the recorder in which the relationships are to be recorded
+   */
+  public void replay(RelationshipRecorder recorder) {
+    for (int i = 0; i < count; i++) {
+      recorder.recordRelationship(elements[i], relationships[i], locations[i]);
+    }
+  }
+}
@@ -16,7 +16,12 @@ package com.google.dart.engine.internal.index.file;
 import com.google.common.collect.Maps;
 import com.google.dart.engine.context.AnalysisContext;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Map.Entry;
 
 /**
  * A helper that encodes/decodes {@link AnalysisContext}s from/to integers.
@@ -30,15 +35,80 @@ public class ContextCodec {
   private final Map<AnalysisContext, Integer> contextToIndex = Maps.newHashMap();
 
   /**
-   * A table mapping indices to the corresponding contexts.
+   * A table mapping indices to the corresponding contexts. A context may be associated with
+   * several indices when some of them were restored using {@link #read(DataInputStream)} and then
+   * bound to the context using {@link #bind(int, AnalysisContext)}.
    */
   private final Map<Integer, AnalysisContext> indexToContext = Maps.newHashMap();
 
+  /**
+   * A table mapping indices to the names of the contexts they were assigned to, see
+   * {@link #bind(AnalysisContext, String)}. Unlike contexts, names are persisted, so a context of
+   * the next session with the same name can be associated with the same index.
+   */
+  private final Map<Integer, String> indexToName = Maps.newHashMap();
+
+  /**
+   * A table mapping context names to their indices.
+   */
+  private final Map<String, Integer> nameToIndex = Maps.newHashMap();
+
   /**
    * The next id to assign.
    */
   private int nextId;
 
+  /**
+   * The number of indices that were assigned before this codec was restored using
+   * {@link #read(DataInputStream)}. Such indices are not associated with any context until they
+   * are bound using {@link #bind(int, AnalysisContext)}.
+   */
+  private int restoredIdCount;
+
+  /**
+   * Associates the given restored index with the given {@link AnalysisContext}.
+   * 
+   * @return {@code true} if the index is now associated with the given context, or {@code false}
+   *         if it is not a restored index or it is already associated with a different context
+   */
+  public boolean bind(int index, AnalysisContext context) {
+    AnalysisContext boundContext = indexToContext.get(index);
+    if (boundContext != null) {
+      return boundContext == context;
+    }
+    if (index < 0 || index >= restoredIdCount) {
+      return false;
+    }
+    indexToContext.put(index, context);
+    if (!contextToIndex.containsKey(context)) {
+      contextToIndex.put(context, index);
+    }
+    return true;
+  }
+
+  /**
+   * Associates the given {@link AnalysisContext} with the given name, which is expected to identify
+   * the same context in every session, e.g. the path of its root folder. If an index restored using
+   * {@link #read(DataInputStream)} was assigned to a context with the same name, then that index is
+   * associated with the given context.
+   * 
+   * @return the restored index that is now associated with the given context, or {@code -1} if
+   *         there is no such index
+   */
+  public int bind(AnalysisContext context, String name) {
+    Integer index = nameToIndex.get(name);
+    if (index != null && bind(index, context)) {
+      return index < restoredIdCount ? index : -1;
+    }
+    // remember the name of a new index
+    index = encode(context);
+    if (!indexToName.containsKey(index) && !nameToIndex.containsKey(name)) {
+      indexToName.put(index, name);
+      nameToIndex.put(name, index);
+    }
+    return -1;
+  }
+
   /**
    * Returns the {@link AnalysisContext} that corresponds to the given index.
    */
@@ -59,13 +129,55 @@ public class ContextCodec {
     return index;
   }
 
+  /**
+   * Forgets all of the contexts and reads the state written using
+   * {@link #write(DataOutputStream)}. The indices assigned before can be then associated with new
+   * contexts using {@link #bind(int, AnalysisContext)}.
+   */
+  public void read(DataInputStream stream) throws IOException {
+    contextToIndex.clear();
+    indexToContext.clear();
+    indexToName.clear();
+    nameToIndex.clear();
+    nextId = stream.readInt();
+    restoredIdCount = nextId;
+    int numNames = stream.readInt();
+    for (int i = 0; i < numNames; i++) {
+      int index = stream.readInt();
+      String name = stream.readUTF();
+      indexToName.put(index, name);
+      nameToIndex.put(name, index);
+    }
+  }
+
   /**
    * Removes the given {@link AnalysisContext}.
    */
   public void removeContext(AnalysisContext context) {
-    Integer id = contextToIndex.remove(context);
-    if (id != null) {
-      indexToContext.remove(id);
+    contextToIndex.remove(context);
+    Iterator<Entry<Integer, AnalysisContext>> iterator = indexToContext.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Entry<Integer, AnalysisContext> entry = iterator.next();
+      if (entry.getValue() == context) {
+        iterator.remove();
+        String name = indexToName.remove(entry.getKey());
+        if (name != null) {
+          nameToIndex.remove(name);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the state of this codec into the given stream. Contexts cannot be persisted, so only the
+   * next index to assign and the names of the contexts are written.
+   */
+  public void write(DataOutputStream stream) throws IOException {
+    stream.writeInt(nextId);
+    stream.writeInt(indexToName.size());
+    for (Entry<Integer, String> entry : indexToName.entrySet()) {
+      stream.writeInt(entry.getKey());
+      stream.writeUTF(entry.getValue());
     }
   }
 }
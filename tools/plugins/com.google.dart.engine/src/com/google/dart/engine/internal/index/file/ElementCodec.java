@@ -24,6 +24,9 @@ import com.google.dart.engine.source.Source;
 
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -93,6 +96,41 @@ public class ElementCodec {
     return index;
   }
 
+  /**
+   * Replaces the content of this codec with the element encodings read from the given stream,
+   * which was written using {@link #write(DataOutputStream)}. The {@link StringCodec} used by this
+   * codec is expected to be restored from the same state.
+   */
+  public void read(DataInputStream stream) throws IOException {
+    for (int[] path : indexToPath) {
+      pathToIndex.remove(path, -1);
+    }
+    indexToPath.clear();
+    int count = stream.readInt();
+    for (int i = 0; i < count; i++) {
+      int length = stream.readInt();
+      int[] path = new int[length];
+      for (int j = 0; j < length; j++) {
+        path[j] = stream.readInt();
+      }
+      pathToIndex.put(path, i);
+      indexToPath.add(path);
+    }
+  }
+
+  /**
+   * Writes all of the element encodings of this codec into the given stream.
+   */
+  public void write(DataOutputStream stream) throws IOException {
+    stream.writeInt(indexToPath.size());
+    for (int[] path : indexToPath) {
+      stream.writeInt(path.length);
+      for (int component : path) {
+        stream.writeInt(component);
+      }
+    }
+  }
+
   private String[] getLocationComponents(int[] path) {
     int length = path.length;
     String[] components = new String[length];
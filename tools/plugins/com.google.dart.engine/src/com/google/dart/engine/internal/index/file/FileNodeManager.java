@@ -33,7 +33,7 @@ import java.util.Map.Entry;
  * @coverage dart.engine.index
  */
 public class FileNodeManager implements NodeManager {
-  private static int VERSION = 1;
+  private static int VERSION = 2;
 
   private final FileManager fileManager;
   private final Logger logger;
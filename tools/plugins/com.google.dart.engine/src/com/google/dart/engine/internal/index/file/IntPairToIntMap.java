@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import java.util.Arrays;
+
+/**
+ * A hash map with pairs of non-negative {@code int}s as keys and {@code int} values. The mappings
+ * are kept in open-addressed arrays, so no objects are allocated for them.
+ * 
+ * @coverage dart.engine.index
+ */
+public class IntPairToIntMap {
+  /**
+   * The first components of the keys, {@code -1} in the empty slots.
+   */
+  private int[] firstKeys;
+
+  /**
+   * The second components of the keys.
+   */
+  private int[] secondKeys;
+
+  /**
+   * The values associated with the keys in the slot with the same index.
+   */
+  private int[] values;
+
+  private int size;
+
+  /**
+   * Initialize a newly created map to be empty.
+   * 
+   * @param initialCapacity the number of mappings the map can hold before it is resized
+   */
+  public IntPairToIntMap(int initialCapacity) {
+    int capacity = 4;
+    while (capacity < initialCapacity * 2) {
+      capacity *= 2;
+    }
+    allocate(capacity);
+  }
+
+  /**
+   * Removes all of the mappings from this map.
+   */
+  public void clear() {
+    size = 0;
+    Arrays.fill(firstKeys, -1);
+  }
+
+  /**
+   * Returns the value to which the given key is mapped, or the given default value if this map
+   * contains no mapping for the key.
+   */
+  public int get(int first, int second, int defaultValue) {
+    int mask = firstKeys.length - 1;
+    int index = hash(first, second) & mask;
+    while (true) {
+      int current = firstKeys[index];
+      if (current == -1) {
+        return defaultValue;
+      }
+      if (current == first && secondKeys[index] == second) {
+        return values[index];
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  /**
+   * Associates the given value with the given key in this map, replacing the previous value.
+   */
+  public void put(int first, int second, int value) {
+    if (first < 0 || second < 0) {
+      throw new IllegalArgumentException("Keys must be non-negative integers, but (" + first + ", "
+          + second + ") is given.");
+    }
+    int mask = firstKeys.length - 1;
+    int index = hash(first, second) & mask;
+    while (true) {
+      int current = firstKeys[index];
+      if (current == -1) {
+        break;
+      }
+      if (current == first && secondKeys[index] == second) {
+        values[index] = value;
+        return;
+      }
+      index = (index + 1) & mask;
+    }
+    firstKeys[index] = first;
+    secondKeys[index] = second;
+    values[index] = value;
+    size++;
+    if (size * 2 > firstKeys.length) {
+      rehash();
+    }
+  }
+
+  /**
+   * Returns the number of key-value mappings in this map.
+   */
+  public int size() {
+    return size;
+  }
+
+  private void allocate(int capacity) {
+    firstKeys = new int[capacity];
+    secondKeys = new int[capacity];
+    values = new int[capacity];
+    Arrays.fill(firstKeys, -1);
+  }
+
+  private int hash(int first, int second) {
+    int h = 31 * first + second;
+    h ^= (h >>> 20) ^ (h >>> 12);
+    return h ^ (h >>> 7) ^ (h >>> 4);
+  }
+
+  private void rehash() {
+    int[] oldFirstKeys = firstKeys;
+    int[] oldSecondKeys = secondKeys;
+    int[] oldValues = values;
+    allocate(oldFirstKeys.length * 2);
+    int mask = firstKeys.length - 1;
+    for (int i = 0; i < oldFirstKeys.length; i++) {
+      int first = oldFirstKeys[i];
+      if (first != -1) {
+        int second = oldSecondKeys[i];
+        int index = hash(first, second) & mask;
+        while (firstKeys[index] != -1) {
+          index = (index + 1) & mask;
+        }
+        firstKeys[index] = first;
+        secondKeys[index] = second;
+        values[index] = oldValues[i];
+      }
+    }
+  }
+}
@@ -132,6 +132,26 @@ public class IntToIntSetMap {
     return ArrayUtils.EMPTY_INT_ARRAY;
   }
 
+  /**
+   * Returns the keys of all of the mappings in this map.
+   */
+  public int[] keys() {
+    int[] result = new int[size];
+    int count = 0;
+    for (int key : keys) {
+      if (key != -1) {
+        result[count++] = key;
+      }
+    }
+    for (Entry entry : entries) {
+      while (entry != null) {
+        result[count++] = entry.key;
+        entry = entry.next;
+      }
+    }
+    return result;
+  }
+
   /**
    * Returns the number of key-value mappings in this map.
    */
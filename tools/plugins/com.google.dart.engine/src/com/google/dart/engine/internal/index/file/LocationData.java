@@ -6,6 +6,10 @@ import com.google.dart.engine.index.Location;
 
 /**
  * A container with information about a {@link Location}.
+ * <p>
+ * The offset is kept relative to the name of the element containing the location, so that the
+ * data of a location does not change when text is inserted or removed before that element, and a
+ * re-indexed unit whose declarations were only moved has the same data as before.
  * 
  * @coverage dart.engine.index
  */
@@ -17,7 +21,7 @@ public class LocationData {
   public LocationData(ElementCodec elementCodec, Location location) {
     Element element = location.getElement();
     this.elementId = elementCodec.encode(element, false);
-    this.offset = location.getOffset();
+    this.offset = location.getOffset() - getBaseOffset(element);
     this.length = location.getLength();
   }
 
@@ -44,11 +48,18 @@ public class LocationData {
     if (element == null) {
       return null;
     }
-    return new Location(element, offset, length);
+    return new Location(element, getBaseOffset(element) + offset, length);
   }
 
   @Override
   public int hashCode() {
     return 31 * (31 * elementId + offset) + length;
   }
+
+  /**
+   * Returns the offset that the offsets of the locations in the given element are relative to.
+   */
+  private static int getBaseOffset(Element element) {
+    return Math.max(element.getNameOffset(), 0);
+  }
 }
@@ -0,0 +1,661 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.dart.engine.AnalysisEngine;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.ElementKind;
+import com.google.dart.engine.element.HtmlElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.UniverseElement;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
+import com.google.dart.engine.internal.context.InstrumentedAnalysisContextImpl;
+import com.google.dart.engine.internal.index.DeclarationNameIndex;
+import com.google.dart.engine.internal.index.NameQuery;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.utilities.general.CancellationToken;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * An {@link IndexStore} which keeps the full index in memory, like the
+ * {@link com.google.dart.engine.internal.index.MemoryIndexStoreImpl MemoryIndexStoreImpl}, but
+ * without keeping {@link Element}s and {@link Location}s.
+ * <p>
+ * Elements, relationships and contexts are encoded as integers using the same codecs as the
+ * {@link SplitIndexStoreImpl}. Each element/relationship key is mapped to a packed {@code int[]}
+ * block with {@link #LOCATION_SIZE} integers per location, and locations are decoded into
+ * {@link Element}s only when they are requested. The locations are owned by the library/unit pair
+ * in which they were recorded, so they are removed when this pair is indexed again or removed.
+ * 
+ * @coverage dart.engine.index
+ */
+public class PackedIndexStoreImpl implements IndexStore {
+  /**
+   * The number of integers in a block used for a single location: the id of the unit in which the
+   * location was recorded, the id of the element of the location, the offset and the length.
+   */
+  private static final int LOCATION_SIZE = 4;
+
+  /**
+   * The number of locations that a newly created block can hold.
+   */
+  private static final int INITIAL_BLOCK_LOCATIONS = 2;
+
+  /**
+   * The number of keys and units that the tables can hold before they are resized.
+   */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /**
+   * When logging is on, {@link AnalysisEngine} actually creates
+   * {@link InstrumentedAnalysisContextImpl}, which wraps {@link AnalysisContextImpl} used to create
+   * actual {@link Element}s. So, in index we have to unwrap {@link InstrumentedAnalysisContextImpl}
+   * when perform any operation.
+   */
+  private static AnalysisContext unwrapContext(AnalysisContext context) {
+    if (context instanceof InstrumentedAnalysisContextImpl) {
+      context = ((InstrumentedAnalysisContextImpl) context).getBasis();
+    }
+    return context;
+  }
+
+  /**
+   * The {@link StringCodec} to encode/decode {@link String}s.
+   */
+  private final StringCodec stringCodec = new StringCodec();
+
+  /**
+   * The {@link ContextCodec} to encode/decode {@link AnalysisContext}s.
+   */
+  private final ContextCodec contextCodec = new ContextCodec();
+
+  /**
+   * The {@link ElementCodec} to encode/decode {@link Element}s.
+   */
+  private final ElementCodec elementCodec = new ElementCodec(stringCodec);
+
+  /**
+   * The {@link RelationshipCodec} to encode/decode {@link Relationship}s.
+   */
+  private final RelationshipCodec relationshipCodec = new RelationshipCodec(stringCodec);
+
+  /**
+   * A table mapping element and relationship ids to key ids.
+   */
+  private final IntPairToIntMap keyIds = new IntPairToIntMap(INITIAL_CAPACITY);
+
+  /**
+   * The blocks of the locations indexed by key id, {@code null} if a key has no locations.
+   */
+  private int[][] keyLocations = new int[INITIAL_CAPACITY][];
+
+  /**
+   * The number of integers used in the block with the same index.
+   */
+  private int[] keyLocationSizes = new int[INITIAL_CAPACITY];
+
+  /**
+   * The number of key ids that were assigned.
+   */
+  private int keyCount = 0;
+
+  /**
+   * A table mapping context, library name and unit name ids to unit ids.
+   */
+  private final IntArrayToIntMap unitIds = new IntArrayToIntMap(INITIAL_CAPACITY, 0.75f);
+
+  /**
+   * The keys used to get the unit ids from {@link #unitIds}, indexed by unit id, {@code null} if
+   * the unit was removed with its context.
+   */
+  private int[][] unitNames = new int[INITIAL_CAPACITY][];
+
+  /**
+   * The ids of the keys that have locations recorded in the unit with the same index. A key may
+   * appear more than once.
+   */
+  private int[][] unitKeys = new int[INITIAL_CAPACITY][];
+
+  /**
+   * The number of key ids used in the array with the same index.
+   */
+  private int[] unitKeyCounts = new int[INITIAL_CAPACITY];
+
+  /**
+   * The number of unit ids that were assigned.
+   */
+  private int unitCount = 0;
+
+  /**
+   * Information about "universe" elements, by context id. The owners of the declarations are unit
+   * ids.
+   */
+  private final Map<Integer, DeclarationNameIndex<LocationData>> contextDeclarations = Maps.newHashMap();
+
+  /**
+   * The mapping of library {@link Source} to the {@link Source}s of part units.
+   */
+  final Map<AnalysisContext, Map<Source, Set<Source>>> contextToLibraryToUnits = Maps.newHashMap();
+
+  /**
+   * The mapping of unit {@link Source} to the {@link Source}s of libraries it is used in.
+   */
+  final Map<AnalysisContext, Map<Source, Set<Source>>> contextToUnitToLibraries = Maps.newHashMap();
+
+  /**
+   * The set of known {@link Source}s.
+   */
+  private final Set<Source> sources = Sets.newHashSet();
+
+  /**
+   * The number of locations in all of the blocks.
+   */
+  private int locationCount = 0;
+
+  private int currentContextId = -1;
+  private int currentUnitId = -1;
+
+  @Override
+  public boolean aboutToIndexDart(AnalysisContext context, CompilationUnitElement unitElement) {
+    context = unwrapContext(context);
+    // may be already disposed in other thread
+    if (context.isDisposed()) {
+      return false;
+    }
+    // validate unit
+    if (unitElement == null) {
+      return false;
+    }
+    LibraryElement libraryElement = unitElement.getLibrary();
+    if (libraryElement == null) {
+      return false;
+    }
+    CompilationUnitElement definingUnitElement = libraryElement.getDefiningCompilationUnit();
+    if (definingUnitElement == null) {
+      return false;
+    }
+    // prepare sources
+    Source library = definingUnitElement.getSource();
+    Source unit = unitElement.getSource();
+    // special handling for the defining library unit
+    if (unit.equals(library)) {
+      // prepare new parts
+      Set<Source> newParts = Sets.newHashSet();
+      for (CompilationUnitElement part : libraryElement.getParts()) {
+        newParts.add(part.getSource());
+      }
+      // prepare old parts
+      Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
+      if (libraryToUnits == null) {
+        libraryToUnits = Maps.newHashMap();
+        contextToLibraryToUnits.put(context, libraryToUnits);
+      }
+      Set<Source> oldParts = libraryToUnits.get(library);
+      // check if some parts are not in the library now
+      if (oldParts != null) {
+        Set<Source> noParts = Sets.difference(oldParts, newParts);
+        for (Source noPart : noParts) {
+          removeLocations(context, library, noPart);
+        }
+      }
+      // remember new parts
+      libraryToUnits.put(library, newParts);
+    }
+    // remember library/unit relations
+    recordUnitInLibrary(context, library, unit);
+    recordLibraryWithUnit(context, library, unit);
+    sources.add(library);
+    sources.add(unit);
+    // prepare unit
+    startUnit(context, library, unit);
+    return true;
+  }
+
+  @Override
+  public boolean aboutToIndexHtml(AnalysisContext context, HtmlElement htmlElement) {
+    context = unwrapContext(context);
+    // may be already disposed in other thread
+    if (context.isDisposed()) {
+      return false;
+    }
+    // remember library/unit relations
+    Source source = htmlElement.getSource();
+    recordUnitInLibrary(context, null, source);
+    // prepare unit
+    startUnit(context, null, source);
+    return true;
+  }
+
+  @Override
+  public void addContext(AnalysisContext context, String name) {
+    // nothing is restored from the previous session
+  }
+
+  @Override
+  public void clear() {
+    keyIds.clear();
+    keyLocations = new int[INITIAL_CAPACITY][];
+    keyLocationSizes = new int[INITIAL_CAPACITY];
+    keyCount = 0;
+    for (int unitId = 0; unitId < unitCount; unitId++) {
+      int[] unitName = unitNames[unitId];
+      if (unitName != null) {
+        unitIds.remove(unitName, -1);
+      }
+    }
+    unitNames = new int[INITIAL_CAPACITY][];
+    unitKeys = new int[INITIAL_CAPACITY][];
+    unitKeyCounts = new int[INITIAL_CAPACITY];
+    unitCount = 0;
+    contextDeclarations.clear();
+    contextToLibraryToUnits.clear();
+    contextToUnitToLibraries.clear();
+    sources.clear();
+    locationCount = 0;
+    currentContextId = -1;
+    currentUnitId = -1;
+  }
+
+  @Override
+  public void doneIndex() {
+    currentContextId = -1;
+    currentUnitId = -1;
+  }
+
+  @Override
+  public Location[] getDeclarations(Relationship relationship, NameQuery query) {
+    List<Location> locations = Lists.newArrayList();
+    for (Entry<Integer, DeclarationNameIndex<LocationData>> contextEntry : contextDeclarations.entrySet()) {
+      AnalysisContext context = contextCodec.decode(contextEntry.getKey());
+      if (context != null) {
+        for (LocationData locationData : contextEntry.getValue().getValues(relationship, query)) {
+          Location location = locationData.getLocation(context, elementCodec);
+          if (location != null) {
+            locations.add(location);
+          }
+        }
+      }
+    }
+    return locations.toArray(new Location[locations.size()]);
+  }
+
+  /**
+   * Returns the number of locations in this store.
+   */
+  @VisibleForTesting
+  public int getLocationCount() {
+    return locationCount;
+  }
+
+  @Override
+  public Location[] getRelationships(Element element, Relationship relationship) {
+    return getRelationships(element, relationship, 0, null);
+  }
+
+  @Override
+  public Location[] getRelationships(Element element, Relationship relationship, int limit,
+      CancellationToken token) {
+    // special support for UniverseElement
+    if (element == UniverseElement.INSTANCE) {
+      Location[] declarations = getDeclarations(relationship, NameQuery.ANY);
+      if (limit > 0 && declarations.length > limit) {
+        declarations = Arrays.copyOf(declarations, limit);
+      }
+      return declarations;
+    }
+    // find the block
+    int elementId = elementCodec.encode(element, true);
+    int relationshipId = relationshipCodec.encode(relationship);
+    int keyId = keyIds.get(elementId, relationshipId, -1);
+    if (keyId == -1 || keyLocations[keyId] == null) {
+      return Location.EMPTY_ARRAY;
+    }
+    int[] block = keyLocations[keyId];
+    int blockSize = keyLocationSizes[keyId];
+    // decode the locations
+    List<Location> locations = Lists.newArrayListWithCapacity(blockSize / LOCATION_SIZE);
+    int lastUnitId = -1;
+    AnalysisContext context = null;
+    for (int i = 0; i < blockSize; i += LOCATION_SIZE) {
+      if (limit > 0 && locations.size() >= limit || token != null && token.isCancelled()) {
+        break;
+      }
+      int unitId = block[i];
+      if (unitId != lastUnitId) {
+        lastUnitId = unitId;
+        context = contextCodec.decode(unitNames[unitId][0]);
+      }
+      if (context != null) {
+        Element locationElement = elementCodec.decode(context, block[i + 1]);
+        if (locationElement != null) {
+          locations.add(new Location(locationElement, block[i + 2], block[i + 3]));
+        }
+      }
+    }
+    return locations.toArray(new Location[locations.size()]);
+  }
+
+  @Override
+  public String getStatistics() {
+    return "[" + locationCount + " locations, " + sources.size() + " sources, " + keyIds.size()
+        + " keys]";
+  }
+
+  @Override
+  public boolean isUpToDate(AnalysisContext context, CompilationUnitElement unitElement) {
+    // nothing is restored from the previous session
+    return false;
+  }
+
+  @Override
+  public void recordRelationship(Element element, Relationship relationship, Location location) {
+    if (element == null || element.getKind() == ElementKind.ERROR) {
+      return;
+    }
+    if (location == null || currentUnitId == -1) {
+      return;
+    }
+    // special support for UniverseElement
+    if (element == UniverseElement.INSTANCE) {
+      recordRelationshipUniverse(relationship, location);
+      return;
+    }
+    // other elements
+    int elementId = elementCodec.encode(element, true);
+    int relationshipId = relationshipCodec.encode(relationship);
+    int keyId = keyIds.get(elementId, relationshipId, -1);
+    if (keyId == -1) {
+      keyId = newKeyId();
+      keyIds.put(elementId, relationshipId, keyId);
+    }
+    addLocation(keyId, location);
+    addUnitKey(keyId);
+  }
+
+  @Override
+  public void removeContext(AnalysisContext context) {
+    context = unwrapContext(context);
+    if (context == null) {
+      return;
+    }
+    // remove sources
+    removeSources(context, null);
+    // remove the units of the context
+    int contextId = contextCodec.encode(context);
+    for (int unitId = 0; unitId < unitCount; unitId++) {
+      int[] unitName = unitNames[unitId];
+      if (unitName != null && unitName[0] == contextId) {
+        removeUnitLocations(unitId);
+        unitIds.remove(unitName, -1);
+        unitNames[unitId] = null;
+      }
+    }
+    // remove context information
+    contextToLibraryToUnits.remove(context);
+    contextToUnitToLibraries.remove(context);
+    contextDeclarations.remove(contextId);
+    // remove context from codec
+    contextCodec.removeContext(context);
+  }
+
+  @Override
+  public void removeSource(AnalysisContext context, Source source) {
+    context = unwrapContext(context);
+    if (context == null) {
+      return;
+    }
+    // remove locations for unit/library pairs
+    Map<Source, Set<Source>> unitToLibraries = contextToUnitToLibraries.get(context);
+    if (unitToLibraries != null) {
+      Set<Source> libraries = unitToLibraries.remove(source);
+      if (libraries != null) {
+        for (Source library : libraries) {
+          removeLocations(context, library, source);
+        }
+      }
+    }
+    // remove locations for library/unit pairs
+    Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
+    if (libraryToUnits != null) {
+      Set<Source> units = libraryToUnits.remove(source);
+      if (units != null) {
+        for (Source unit : units) {
+          removeLocations(context, source, unit);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void removeSources(AnalysisContext context, SourceContainer container) {
+    context = unwrapContext(context);
+    if (context == null) {
+      return;
+    }
+    // remove locations for unit/library pairs
+    Map<Source, Set<Source>> unitToLibraries = contextToUnitToLibraries.get(context);
+    if (unitToLibraries != null) {
+      List<Source> units = Lists.newArrayList(unitToLibraries.keySet());
+      for (Source source : units) {
+        if (container == null || container.contains(source)) {
+          removeSource(context, source);
+        }
+      }
+    }
+    // remove locations for library/unit pairs
+    Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
+    if (libraryToUnits != null) {
+      List<Source> libraries = Lists.newArrayList(libraryToUnits.keySet());
+      for (Source source : libraries) {
+        if (container == null || container.contains(source)) {
+          removeSource(context, source);
+        }
+      }
+    }
+  }
+
+  /**
+   * Appends the given location, recorded in the current unit, to the block of the given key.
+   */
+  private void addLocation(int keyId, Location location) {
+    int[] block = keyLocations[keyId];
+    int blockSize = keyLocationSizes[keyId];
+    if (block == null) {
+      block = new int[INITIAL_BLOCK_LOCATIONS * LOCATION_SIZE];
+      keyLocations[keyId] = block;
+    } else if (blockSize == block.length) {
+      block = Arrays.copyOf(block, block.length * 2);
+      keyLocations[keyId] = block;
+    }
+    block[blockSize] = currentUnitId;
+    block[blockSize + 1] = elementCodec.encode(location.getElement(), false);
+    block[blockSize + 2] = location.getOffset();
+    block[blockSize + 3] = location.getLength();
+    keyLocationSizes[keyId] = blockSize + LOCATION_SIZE;
+    locationCount++;
+  }
+
+  /**
+   * Remembers that the given key has locations recorded in the current unit.
+   */
+  private void addUnitKey(int keyId) {
+    int[] keys = unitKeys[currentUnitId];
+    int count = unitKeyCounts[currentUnitId];
+    if (keys == null) {
+      keys = new int[16];
+      unitKeys[currentUnitId] = keys;
+    } else if (count > 0 && keys[count - 1] == keyId) {
+      return;
+    } else if (count == keys.length) {
+      keys = Arrays.copyOf(keys, keys.length * 2);
+      unitKeys[currentUnitId] = keys;
+    }
+    keys[count] = keyId;
+    unitKeyCounts[currentUnitId] = count + 1;
+  }
+
+  /**
+   * Returns the id of the unit for the given library/unit pair in the given context, or
+   * {@code -1} if the pair does not have an id and it should not be created.
+   */
+  private int getUnitId(AnalysisContext context, Source library, Source unit, boolean create) {
+    String libraryName = library != null ? library.getFullName() : null;
+    int[] unitName = {
+        contextCodec.encode(context), stringCodec.encode(libraryName),
+        stringCodec.encode(unit.getFullName())};
+    int unitId = unitIds.get(unitName, -1);
+    if (unitId == -1 && create) {
+      if (unitCount == unitNames.length) {
+        int capacity = unitCount * 2;
+        unitNames = Arrays.copyOf(unitNames, capacity);
+        unitKeys = Arrays.copyOf(unitKeys, capacity);
+        unitKeyCounts = Arrays.copyOf(unitKeyCounts, capacity);
+      }
+      unitId = unitCount++;
+      unitIds.put(unitName, unitId);
+      unitNames[unitId] = unitName;
+    }
+    return unitId;
+  }
+
+  /**
+   * Returns a new key id, which does not have locations yet.
+   */
+  private int newKeyId() {
+    if (keyCount == keyLocations.length) {
+      int capacity = keyCount * 2;
+      keyLocations = Arrays.copyOf(keyLocations, capacity);
+      keyLocationSizes = Arrays.copyOf(keyLocationSizes, capacity);
+    }
+    return keyCount++;
+  }
+
+  private void recordLibraryWithUnit(AnalysisContext context, Source library, Source unit) {
+    Map<Source, Set<Source>> libraryToUnits = contextToLibraryToUnits.get(context);
+    if (libraryToUnits == null) {
+      libraryToUnits = Maps.newHashMap();
+      contextToLibraryToUnits.put(context, libraryToUnits);
+    }
+    Set<Source> units = libraryToUnits.get(library);
+    if (units == null) {
+      units = Sets.newHashSet();
+      libraryToUnits.put(library, units);
+    }
+    units.add(unit);
+  }
+
+  private void recordRelationshipUniverse(Relationship relationship, Location location) {
+    // in current context
+    DeclarationNameIndex<LocationData> declarations = contextDeclarations.get(currentContextId);
+    if (declarations == null) {
+      declarations = new DeclarationNameIndex<LocationData>();
+      contextDeclarations.put(currentContextId, declarations);
+    }
+    // record LocationData in current unit
+    String name = location.getElement().getDisplayName();
+    declarations.add(
+        currentUnitId,
+        relationship,
+        name != null ? name : "",
+        new LocationData(elementCodec, location));
+  }
+
+  private void recordUnitInLibrary(AnalysisContext context, Source library, Source unit) {
+    Map<Source, Set<Source>> unitToLibraries = contextToUnitToLibraries.get(context);
+    if (unitToLibraries == null) {
+      unitToLibraries = Maps.newHashMap();
+      contextToUnitToLibraries.put(context, unitToLibraries);
+    }
+    Set<Source> libraries = unitToLibraries.get(unit);
+    if (libraries == null) {
+      libraries = Sets.newHashSet();
+      unitToLibraries.put(unit, libraries);
+    }
+    libraries.add(library);
+  }
+
+  /**
+   * Removes locations recorded in the given library/unit pair.
+   */
+  private void removeLocations(AnalysisContext context, Source library, Source unit) {
+    int unitId = getUnitId(context, library, unit, false);
+    if (unitId != -1) {
+      removeUnitLocations(unitId);
+    }
+    sources.remove(library);
+    sources.remove(unit);
+  }
+
+  /**
+   * Removes all of the locations recorded in the unit with the given id.
+   */
+  private void removeUnitLocations(int unitId) {
+    // remove locations from blocks
+    int[] keys = unitKeys[unitId];
+    int count = unitKeyCounts[unitId];
+    for (int i = 0; i < count; i++) {
+      int keyId = keys[i];
+      int[] block = keyLocations[keyId];
+      if (block == null) {
+        continue;
+      }
+      int blockSize = keyLocationSizes[keyId];
+      int newSize = 0;
+      for (int j = 0; j < blockSize; j += LOCATION_SIZE) {
+        if (block[j] != unitId) {
+          System.arraycopy(block, j, block, newSize, LOCATION_SIZE);
+          newSize += LOCATION_SIZE;
+        }
+      }
+      locationCount -= (blockSize - newSize) / LOCATION_SIZE;
+      keyLocationSizes[keyId] = newSize;
+      if (newSize == 0) {
+        keyLocations[keyId] = null;
+      }
+    }
+    unitKeys[unitId] = null;
+    unitKeyCounts[unitId] = 0;
+    // remove "universe" declarations
+    DeclarationNameIndex<LocationData> declarations = contextDeclarations.get(unitNames[unitId][0]);
+    if (declarations != null) {
+      declarations.remove(unitId);
+    }
+  }
+
+  /**
+   * Prepares to record the relations of the given library/unit pair, removing the relations that
+   * were recorded for it before.
+   */
+  private void startUnit(AnalysisContext context, Source library, Source unit) {
+    int unitId = getUnitId(context, library, unit, true);
+    removeUnitLocations(unitId);
+    currentContextId = unitNames[unitId][0];
+    currentUnitId = unitId;
+  }
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.internal.index.structure.btree.BPlusTree;
+import com.google.dart.engine.internal.index.structure.btree.KeyCodec;
+import com.google.dart.engine.internal.index.structure.btree.MappedPageManager;
+import com.google.dart.engine.internal.index.structure.btree.PageNodeManager;
+import com.google.dart.engine.internal.index.structure.btree.ValueCodec;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A {@link NodeManager} that keeps {@link IndexNode}s in a {@link BPlusTree} stored in the pages of
+ * a {@link MappedPageManager}.
+ * <p>
+ * Each location of a node is a separate entry of the tree, so the {@link IndexNode}s returned by
+ * {@link #getNode(String)} are not loaded into the heap, instead each request for relationships
+ * reads only the pages with the requested locations. Each node also has a header entry with its
+ * context and a directory of its relations, which is used to remove the node and to find the
+ * relations that were changed when the node is written again.
+ * 
+ * @coverage dart.engine.index
+ */
+public class PagedNodeManager implements NodeManager {
+  /**
+   * A key of an entry in the tree.
+   */
+  private static class Key {
+    final int nodeId;
+    final int elementId;
+    final int relationshipId;
+    final int index;
+
+    Key(int nodeId, int elementId, int relationshipId, int index) {
+      this.nodeId = nodeId;
+      this.elementId = elementId;
+      this.relationshipId = relationshipId;
+      this.index = index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return other.nodeId == nodeId && other.elementId == elementId
+          && other.relationshipId == relationshipId && other.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * (31 * nodeId + elementId) + relationshipId) + index;
+    }
+  }
+
+  /**
+   * An {@link IndexNode} that reads its relations from the tree on request.
+   */
+  private class PagedIndexNode extends IndexNode {
+    private final int nodeId;
+    private final int locationCount;
+
+    PagedIndexNode(AnalysisContext context, int nodeId, int locationCount) {
+      super(context, elementCodec, relationshipCodec);
+      this.nodeId = nodeId;
+      this.locationCount = locationCount;
+    }
+
+    @Override
+    public int getLocationCount() {
+      return locationCount;
+    }
+
+    @Override
+    public Map<RelationKeyData, List<LocationData>> getRelations() {
+      return readRelations(nodeId);
+    }
+
+    @Override
+    public Location[] getRelationships(Element element, Relationship relationship) {
+      RelationKeyData key = new RelationKeyData(
+          elementCodec,
+          relationshipCodec,
+          element,
+          relationship);
+      List<LocationData> locationDatas = readLocations(nodeId, key.elementId, key.relationshipId);
+      // convert to Location(s)
+      AnalysisContext context = getContext();
+      List<Location> locations = Lists.newArrayList();
+      for (LocationData locationData : locationDatas) {
+        Location location = locationData.getLocation(context, elementCodec);
+        if (location != null) {
+          locations.add(location);
+        }
+      }
+      return locations.toArray(new Location[locations.size()]);
+    }
+  }
+
+  /**
+   * The size of the pages of the tree in bytes.
+   */
+  public static final int PAGE_SIZE = 4096;
+
+  /**
+   * The identifier used as {@link Key#elementId} of node header and directory entries.
+   */
+  private static final int NO_ELEMENT = -1;
+
+  /**
+   * The {@link Key#relationshipId} of node header entries. The value is the context identifier,
+   * the number of relations and the number of locations.
+   */
+  private static final int HEADER = -1;
+
+  /**
+   * The {@link Key#relationshipId} of node directory entries. The value is the element identifier,
+   * the relationship identifier and the number of locations of a single relation.
+   */
+  private static final int DIRECTORY = -2;
+
+  /**
+   * The {@link Key#relationshipId} of node directory hash entries. The value is a hash of the
+   * locations of the relation described by the directory entry with the same index.
+   */
+  private static final int DIRECTORY_HASH = -3;
+
+  /**
+   * The key of the entry with the total number of locations.
+   */
+  private static final Key LOCATION_COUNT_KEY = new Key(-1, NO_ELEMENT, HEADER, 0);
+
+  private static final Comparator<Key> KEY_COMPARATOR = new Comparator<Key>() {
+    @Override
+    public int compare(Key a, Key b) {
+      if (a.nodeId != b.nodeId) {
+        return a.nodeId < b.nodeId ? -1 : 1;
+      }
+      if (a.elementId != b.elementId) {
+        return a.elementId < b.elementId ? -1 : 1;
+      }
+      if (a.relationshipId != b.relationshipId) {
+        return a.relationshipId < b.relationshipId ? -1 : 1;
+      }
+      if (a.index != b.index) {
+        return a.index < b.index ? -1 : 1;
+      }
+      return 0;
+    }
+  };
+
+  private static final KeyCodec<Key> KEY_CODEC = new KeyCodec<Key>() {
+    @Override
+    public Key decode(ByteBuffer buffer, int offset) {
+      return new Key(
+          buffer.getInt(offset),
+          buffer.getInt(offset + 4),
+          buffer.getInt(offset + 8),
+          buffer.getInt(offset + 12));
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer, int offset, Key key) {
+      buffer.putInt(offset, key.nodeId);
+      buffer.putInt(offset + 4, key.elementId);
+      buffer.putInt(offset + 8, key.relationshipId);
+      buffer.putInt(offset + 12, key.index);
+    }
+
+    @Override
+    public int getSizeInBytes() {
+      return 16;
+    }
+  };
+
+  private static final ValueCodec<int[]> VALUE_CODEC = new ValueCodec<int[]>() {
+    @Override
+    public int[] decode(ByteBuffer buffer, int offset) {
+      int[] value = new int[3];
+      for (int i = 0; i < 3; i++) {
+        value[i] = buffer.getInt(offset + 4 * i);
+      }
+      return value;
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer, int offset, int[] value) {
+      for (int i = 0; i < 3; i++) {
+        buffer.putInt(offset + 4 * i, value[i]);
+      }
+    }
+
+    @Override
+    public int getSizeInBytes() {
+      return 12;
+    }
+  };
+
+  private final MappedPageManager pageManager;
+  private final StringCodec stringCodec;
+  private final ContextCodec contextCodec;
+  private final ElementCodec elementCodec;
+  private final RelationshipCodec relationshipCodec;
+  private final PageNodeManager<Key, int[]> treeNodeManager;
+  private BPlusTree<Key, int[], Integer> tree;
+
+  /**
+   * The number of location entries written to or removed from the tree by
+   * {@link #putNode(String, IndexNode)}.
+   */
+  private int locationWriteCount = 0;
+
+  public PagedNodeManager(MappedPageManager pageManager, StringCodec stringCodec,
+      ContextCodec contextCodec, ElementCodec elementCodec, RelationshipCodec relationshipCodec) {
+    this.pageManager = pageManager;
+    this.stringCodec = stringCodec;
+    this.contextCodec = contextCodec;
+    this.elementCodec = elementCodec;
+    this.relationshipCodec = relationshipCodec;
+    this.treeNodeManager = new PageNodeManager<Key, int[]>(pageManager, KEY_CODEC, VALUE_CODEC);
+    int rootPage = pageManager.getRootPage();
+    if (rootPage != 0) {
+      tree = new BPlusTree<Key, int[], Integer>(KEY_COMPARATOR, treeNodeManager, rootPage);
+    } else {
+      newTree();
+    }
+  }
+
+  @Override
+  public void clear() {
+    pageManager.clear();
+    newTree();
+  }
+
+  @Override
+  public ContextCodec getContextCodec() {
+    return contextCodec;
+  }
+
+  @Override
+  public ElementCodec getElementCodec() {
+    return elementCodec;
+  }
+
+  @Override
+  public int getLocationCount() {
+    int[] value = tree.find(LOCATION_COUNT_KEY);
+    return value != null ? value[0] : 0;
+  }
+
+  @Override
+  public IndexNode getNode(String name) {
+    int nodeId = stringCodec.encode(name);
+    int[] header = tree.find(new Key(nodeId, NO_ELEMENT, HEADER, 0));
+    if (header == null) {
+      return null;
+    }
+    AnalysisContext context = contextCodec.decode(header[0]);
+    if (context == null) {
+      return null;
+    }
+    return new PagedIndexNode(context, nodeId, header[2]);
+  }
+
+  @Override
+  public StringCodec getStringCodec() {
+    return stringCodec;
+  }
+
+  @Override
+  public IndexNode newNode(AnalysisContext context) {
+    return new IndexNode(context, elementCodec, relationshipCodec);
+  }
+
+  /**
+   * Writes the relations of the given node, replacing the relations of the node with the same name.
+   * <p>
+   * A unit is usually indexed again after a small change, so most of its relations are the same as
+   * before. So, instead of removing the old node and writing the new one, the number and the hash
+   * of the locations of each new relation are compared with those recorded in the directory of the
+   * old node, and the old locations are only read and compared for the relations that differ. The
+   * offsets of locations are relative to their enclosing elements (see {@link LocationData}), so an
+   * edit only changes the relations with locations in the edited declaration.
+   */
+  @Override
+  public void putNode(String name, IndexNode node) {
+    int nodeId = stringCodec.encode(name);
+    int contextId = contextCodec.encode(node.getContext());
+    Key headerKey = new Key(nodeId, NO_ELEMENT, HEADER, 0);
+    int[] header = tree.find(headerKey);
+    int oldNumRelations = header != null ? header[1] : 0;
+    Map<RelationKeyData, int[]> oldDirectory = readDirectory(nodeId, oldNumRelations);
+    Map<RelationKeyData, List<LocationData>> relations = node.getRelations();
+    boolean changed = header == null || header[0] != contextId
+        || oldDirectory.size() != relations.size();
+    // write the changed relations
+    int locationCount = 0;
+    int[] hashes = new int[relations.size()];
+    int relationIndex = 0;
+    for (Entry<RelationKeyData, List<LocationData>> entry : relations.entrySet()) {
+      RelationKeyData key = entry.getKey();
+      List<LocationData> locations = entry.getValue();
+      int hash = hashLocations(locations);
+      hashes[relationIndex++] = hash;
+      int[] oldRelation = oldDirectory.get(key);
+      if (oldRelation == null) {
+        writeLocations(nodeId, key, 0, Collections.<LocationData> emptyList(), locations);
+        changed = true;
+      } else if (oldRelation[0] != locations.size() || oldRelation[1] != hash) {
+        List<LocationData> oldLocations = readLocations(nodeId, key.elementId, key.relationshipId);
+        writeLocations(nodeId, key, oldLocations.size(), oldLocations, locations);
+        changed = true;
+      }
+      locationCount += locations.size();
+    }
+    // remove the relations that are not in the new node
+    for (Entry<RelationKeyData, int[]> entry : oldDirectory.entrySet()) {
+      RelationKeyData key = entry.getKey();
+      if (!relations.containsKey(key)) {
+        List<LocationData> noLocations = Collections.emptyList();
+        writeLocations(nodeId, key, entry.getValue()[0], null, noLocations);
+        changed = true;
+      }
+    }
+    if (!changed) {
+      return;
+    }
+    // write directory
+    relationIndex = 0;
+    for (Entry<RelationKeyData, List<LocationData>> entry : relations.entrySet()) {
+      RelationKeyData key = entry.getKey();
+      int[] oldRelation = oldDirectory.get(key);
+      int size = entry.getValue().size();
+      int hash = hashes[relationIndex];
+      if (oldRelation == null || oldRelation[0] != size || oldRelation[1] != hash
+          || oldRelation[2] != relationIndex) {
+        tree.insert(
+            new Key(nodeId, NO_ELEMENT, DIRECTORY, relationIndex),
+            new int[] {key.elementId, key.relationshipId, size});
+        tree.insert(
+            new Key(nodeId, NO_ELEMENT, DIRECTORY_HASH, relationIndex),
+            new int[] {hash, 0, 0});
+      }
+      relationIndex++;
+    }
+    for (int i = relationIndex; i < oldNumRelations; i++) {
+      tree.remove(new Key(nodeId, NO_ELEMENT, DIRECTORY, i));
+      tree.remove(new Key(nodeId, NO_ELEMENT, DIRECTORY_HASH, i));
+    }
+    // write header
+    tree.insert(headerKey, new int[] {contextId, relationIndex, locationCount});
+    int oldLocationCount = header != null ? header[2] : 0;
+    updateLocationCount(locationCount - oldLocationCount);
+  }
+
+  @Override
+  public void removeNode(String name) {
+    removeNode(stringCodec.encode(name));
+  }
+
+  /**
+   * Returns the number of location entries that have been written to or removed from the tree by
+   * {@link #putNode(String, IndexNode)}.
+   */
+  @VisibleForTesting
+  public int getLocationWriteCount() {
+    return locationWriteCount;
+  }
+
+  /**
+   * Returns a hash of the given locations. Relations whose locations have the same number and hash
+   * are assumed to be unchanged, so every field of every location is mixed into the hash.
+   */
+  private static int hashLocations(List<LocationData> locations) {
+    int hash = locations.size();
+    for (LocationData location : locations) {
+      hash = mixHash(hash, location.elementId);
+      hash = mixHash(hash, location.offset);
+      hash = mixHash(hash, location.length);
+    }
+    return hash;
+  }
+
+  /**
+   * Mixes the given value into the given hash, using the mixing steps of MurmurHash3.
+   */
+  private static int mixHash(int hash, int value) {
+    int k = value * 0xcc9e2d51;
+    k = Integer.rotateLeft(k, 15) * 0x1b873593;
+    hash ^= k;
+    return Integer.rotateLeft(hash, 13) * 5 + 0xe6546b64;
+  }
+
+  /**
+   * Creates a new empty tree.
+   */
+  private void newTree() {
+    tree = new BPlusTree<Key, int[], Integer>(KEY_COMPARATOR, treeNodeManager);
+    pageManager.setRootPage(tree.getRootId());
+  }
+
+  /**
+   * Reads the directory of the node with the given identifier, which has the given number of
+   * relations. The value for each relation is the number of its locations, the hash of its
+   * locations and its index in the directory.
+   */
+  private Map<RelationKeyData, int[]> readDirectory(int nodeId, int numRelations) {
+    Map<RelationKeyData, int[]> directory = Maps.newHashMap();
+    for (int i = 0; i < numRelations; i++) {
+      int[] relation = tree.find(new Key(nodeId, NO_ELEMENT, DIRECTORY, i));
+      int[] hash = tree.find(new Key(nodeId, NO_ELEMENT, DIRECTORY_HASH, i));
+      RelationKeyData key = new RelationKeyData(relation[0], relation[1]);
+      directory.put(key, new int[] {relation[2], hash[0], i});
+    }
+    return directory;
+  }
+
+  /**
+   * Reads the locations of the relation with the given element and relationship identifiers.
+   */
+  private List<LocationData> readLocations(int nodeId, int elementId, int relationshipId) {
+    List<LocationData> locations = Lists.newArrayList();
+    while (true) {
+      int[] value = tree.find(new Key(nodeId, elementId, relationshipId, locations.size()));
+      if (value == null) {
+        break;
+      }
+      locations.add(new LocationData(value[0], value[1], value[2]));
+    }
+    return locations;
+  }
+
+  /**
+   * Reads all of the relations of the node with the given identifier.
+   */
+  private Map<RelationKeyData, List<LocationData>> readRelations(int nodeId) {
+    Map<RelationKeyData, List<LocationData>> relations = Maps.newHashMap();
+    int[] header = tree.find(new Key(nodeId, NO_ELEMENT, HEADER, 0));
+    if (header != null) {
+      int numRelations = header[1];
+      for (int i = 0; i < numRelations; i++) {
+        int[] relation = tree.find(new Key(nodeId, NO_ELEMENT, DIRECTORY, i));
+        RelationKeyData key = new RelationKeyData(relation[0], relation[1]);
+        relations.put(key, readLocations(nodeId, relation[0], relation[1]));
+      }
+    }
+    return relations;
+  }
+
+  /**
+   * Removes all of the entries of the node with the given identifier.
+   */
+  private void removeNode(int nodeId) {
+    int[] header = tree.remove(new Key(nodeId, NO_ELEMENT, HEADER, 0));
+    if (header == null) {
+      return;
+    }
+    int numRelations = header[1];
+    for (int i = 0; i < numRelations; i++) {
+      int[] relation = tree.remove(new Key(nodeId, NO_ELEMENT, DIRECTORY, i));
+      tree.remove(new Key(nodeId, NO_ELEMENT, DIRECTORY_HASH, i));
+      int numLocations = relation[2];
+      for (int j = 0; j < numLocations; j++) {
+        tree.remove(new Key(nodeId, relation[0], relation[1], j));
+      }
+    }
+    updateLocationCount(-header[2]);
+  }
+
+  /**
+   * Replaces the given number of old locations of the relation with the given key with the given
+   * new ones. If the old locations are given, only the entries that differ are written.
+   */
+  private void writeLocations(int nodeId, RelationKeyData key, int numOldLocations,
+      List<LocationData> oldLocations, List<LocationData> locations) {
+    int numLocations = locations.size();
+    for (int i = 0; i < numLocations; i++) {
+      LocationData location = locations.get(i);
+      if (oldLocations != null && i < numOldLocations && location.equals(oldLocations.get(i))) {
+        continue;
+      }
+      tree.insert(
+          new Key(nodeId, key.elementId, key.relationshipId, i),
+          new int[] {location.elementId, location.offset, location.length});
+      locationWriteCount++;
+    }
+    for (int i = numLocations; i < numOldLocations; i++) {
+      tree.remove(new Key(nodeId, key.elementId, key.relationshipId, i));
+      locationWriteCount++;
+    }
+  }
+
+  /**
+   * Adds the given delta to the total number of locations and remembers the root of the tree, which
+   * may be changed by the previous modifications.
+   */
+  private void updateLocationCount(int delta) {
+    int[] value = tree.find(LOCATION_COUNT_KEY);
+    int locationCount = value != null ? value[0] : 0;
+    tree.insert(LOCATION_COUNT_KEY, new int[] {locationCount + delta, 0, 0});
+    pageManager.setRootPage(tree.getRootId());
+  }
+}
@@ -24,13 +24,15 @@ import java.io.OutputStream;
 
 /**
  * An implementation of {@link FileManager} that keeps each file in a separate file system file.
+ * <p>
+ * Existing files in the base directory are kept, so that the index written in a previous session
+ * can be restored. Use {@link #clear()} to remove them.
  */
 public class SeparateFileManager implements FileManager {
   private final File base;
 
   public SeparateFileManager(File base) {
     this.base = base;
-    clear();
   }
 
   @Override
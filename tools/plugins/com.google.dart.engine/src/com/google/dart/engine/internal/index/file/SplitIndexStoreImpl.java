@@ -30,12 +30,24 @@ import com.google.dart.engine.index.Relationship;
 import com.google.dart.engine.index.UniverseElement;
 import com.google.dart.engine.internal.context.AnalysisContextImpl;
 import com.google.dart.engine.internal.context.InstrumentedAnalysisContextImpl;
+import com.google.dart.engine.internal.index.DeclarationNameIndex;
+import com.google.dart.engine.internal.index.DeclarationNameIndex.Declaration;
+import com.google.dart.engine.internal.index.NameQuery;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.source.SourceFactory;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 import org.apache.commons.lang3.ArrayUtils;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -47,6 +59,11 @@ import java.util.Set;
  * @coverage dart.engine.index
  */
 public class SplitIndexStoreImpl implements IndexStore {
+  /**
+   * The version of the format used by {@link #writeState(OutputStream)}.
+   */
+  private static final int STATE_VERSION = 5;
+
   /**
    * The {@link NodeManager} to get/put {@link IndexNode}s.
    */
@@ -74,11 +91,12 @@ public class SplitIndexStoreImpl implements IndexStore {
 
   /**
    * Information about "universe" elements. We need to keep them together to avoid loading of all
-   * index nodes.
+   * index nodes. The declarations are kept by name, so that the declarations with names matching a
+   * {@link NameQuery} are found without decoding all of them.
    * <p>
-   * Order of keys: contextId, nodeId, Relationship.
+   * The keys are context ids, the owners of the declarations are node name ids.
    */
-  private final Map<Integer, Map<Integer, Map<Relationship, List<LocationData>>>> contextNodeRelations = Maps.newHashMap();
+  private final Map<Integer, DeclarationNameIndex<LocationData>> contextDeclarations = Maps.newHashMap();
 
   /**
    * The mapping of library {@link Source} to the {@link Source}s of part units.
@@ -95,9 +113,38 @@ public class SplitIndexStoreImpl implements IndexStore {
    */
   private final Set<Source> sources = Sets.newHashSet();
 
+  /**
+   * A table mapping node names to the stamps of the sources the nodes were built from.
+   */
+  private final Map<Integer, Long> nodeStamps = Maps.newHashMap();
+
+  /**
+   * A table mapping node names to the identifiers of the contexts of the nodes.
+   */
+  private final Map<Integer, Integer> nodeContexts = Maps.newHashMap();
+
+  /**
+   * A table mapping node names to the encodings of the unit sources of the nodes.
+   */
+  private final Map<Integer, String> nodeUnitSources = Maps.newHashMap();
+
+  /**
+   * A table mapping node names to the modification stamps of the unit sources of the nodes.
+   */
+  private final Map<Integer, Long> nodeUnitStamps = Maps.newHashMap();
+
+  /**
+   * The names of the nodes that were restored using {@link #readState(InputStream)} and were not
+   * indexed again in this session.
+   */
+  private final Set<Integer> restoredNodes = Sets.newHashSet();
+
   private int currentContextId;
   private String currentNodeName;
   private int currentNodeNameId;
+  private Long currentNodeStamp;
+  private String currentUnitSource;
+  private long currentUnitStamp;
   private IndexNode currentNode;
 
   public SplitIndexStoreImpl(NodeManager nodeManager) {
@@ -159,17 +206,23 @@ public class SplitIndexStoreImpl implements IndexStore {
     sources.add(library);
     sources.add(unit);
     // prepare node
-    String libraryName = library.getFullName();
-    String unitName = unit.getFullName();
-    int libraryNameIndex = stringCodec.encode(libraryName);
-    int unitNameIndex = stringCodec.encode(unitName);
-    currentNodeName = libraryNameIndex + "_" + unitNameIndex + ".index";
-    currentNodeNameId = stringCodec.encode(currentNodeName);
+    String nodeName = getNodeName(library, unit);
+    int nodeNameId = stringCodec.encode(nodeName);
+    // the node restored from the previous session may be still up to date
+    long stamp = computeStamp(context, libraryElement);
+    if (restoredNodes.remove(nodeNameId) && isUpToDate(context, nodeNameId, stamp)) {
+      return false;
+    }
+    currentNodeName = nodeName;
+    currentNodeNameId = nodeNameId;
+    currentNodeStamp = stamp;
+    currentUnitSource = unit.getEncoding();
+    currentUnitStamp = context.getModificationStamp(unit);
     currentNode = nodeManager.newNode(context);
     currentContextId = contextCodec.encode(context);
     // remove Universe information for the current node
-    for (Map<Integer, ?> nodeRelations : contextNodeRelations.values()) {
-      nodeRelations.remove(currentNodeNameId);
+    for (DeclarationNameIndex<LocationData> declarations : contextDeclarations.values()) {
+      declarations.remove(currentNodeNameId);
     }
     // done
     return true;
@@ -192,39 +245,106 @@ public class SplitIndexStoreImpl implements IndexStore {
     int sourceNameIndex = stringCodec.encode(sourceName);
     currentNodeName = sourceNameIndex + ".index";
     currentNodeNameId = stringCodec.encode(currentNodeName);
+    currentNodeStamp = null;
     currentNode = nodeManager.newNode(context);
     return true;
   }
 
+  /**
+   * Associates the given context with the given name. If the context with the same name was
+   * restored using {@link #readState(InputStream)}, then the restored nodes of that context become
+   * visible to queries right away, without waiting for their units to be indexed again. The nodes
+   * whose unit sources were changed since they were built are removed.
+   */
+  @Override
+  public void addContext(AnalysisContext context, String name) {
+    context = unwrapContext(context);
+    int contextId = contextCodec.bind(context, name);
+    if (contextId == -1) {
+      return;
+    }
+    for (Iterator<Integer> iter = restoredNodes.iterator(); iter.hasNext();) {
+      int nodeNameId = iter.next();
+      if (nodeContexts.get(nodeNameId) == contextId && !isUnitUnchanged(context, nodeNameId)) {
+        iter.remove();
+        removeNode(nodeNameId);
+      }
+    }
+  }
+
   @Override
   public void clear() {
     nodeManager.clear();
     elementToNodeNames.clear();
+    contextDeclarations.clear();
+    nodeStamps.clear();
+    nodeContexts.clear();
+    nodeUnitSources.clear();
+    nodeUnitStamps.clear();
+    restoredNodes.clear();
   }
 
   @Override
   public void doneIndex() {
     if (currentNode != null) {
       nodeManager.putNode(currentNodeName, currentNode);
+      if (currentNodeStamp != null) {
+        nodeStamps.put(currentNodeNameId, currentNodeStamp);
+        nodeContexts.put(currentNodeNameId, currentContextId);
+        nodeUnitSources.put(currentNodeNameId, currentUnitSource);
+        nodeUnitStamps.put(currentNodeNameId, currentUnitStamp);
+      }
       currentNodeName = null;
       currentNodeNameId = -1;
+      currentNodeStamp = null;
       currentNode = null;
       currentContextId = -1;
     }
   }
 
+  @Override
+  public Location[] getDeclarations(Relationship relationship, NameQuery query) {
+    List<Location> locations = Lists.newArrayList();
+    for (Entry<Integer, DeclarationNameIndex<LocationData>> contextEntry : contextDeclarations.entrySet()) {
+      int contextId = contextEntry.getKey();
+      AnalysisContext context = contextCodec.decode(contextId);
+      if (context != null) {
+        for (LocationData locationData : contextEntry.getValue().getValues(relationship, query)) {
+          Location location = locationData.getLocation(context, elementCodec);
+          if (location != null) {
+            locations.add(location);
+          }
+        }
+      }
+    }
+    return locations.toArray(new Location[locations.size()]);
+  }
+
   @Override
   public Location[] getRelationships(Element element, Relationship relationship) {
+    return getRelationships(element, relationship, 0, null);
+  }
+
+  @Override
+  public Location[] getRelationships(Element element, Relationship relationship, int limit,
+      CancellationToken token) {
     // special support for UniverseElement
     if (element == UniverseElement.INSTANCE) {
-      return getRelationshipsUniverse(relationship);
+      Location[] declarations = getDeclarations(relationship, NameQuery.ANY);
+      if (limit > 0 && declarations.length > limit) {
+        declarations = Arrays.copyOf(declarations, limit);
+      }
+      return declarations;
     }
     // prepare node names
     int elementId = elementCodec.encodeHash(element);
     int[] nodeNameIds = elementToNodeNames.get(elementId);
-    // check each node
+    // check each node, stopping before reading more nodes than needed
     List<Location> locations = Lists.newArrayList();
     for (int i = 0; i < nodeNameIds.length; i++) {
+      if (limit > 0 && locations.size() >= limit || token != null && token.isCancelled()) {
+        break;
+      }
       int nodeNameId = nodeNameIds[i];
       String nodeName = stringCodec.decode(nodeNameId);
       IndexNode node = nodeManager.getNode(nodeName);
@@ -235,6 +355,9 @@ public class SplitIndexStoreImpl implements IndexStore {
         i--;
       }
     }
+    if (limit > 0 && locations.size() > limit) {
+      locations = locations.subList(0, limit);
+    }
     // done
     return locations.toArray(new Location[locations.size()]);
   }
@@ -245,6 +368,114 @@ public class SplitIndexStoreImpl implements IndexStore {
         + elementToNodeNames.size() + " elements]";
   }
 
+  /**
+   * Checks if the unit has a node restored from the previous session that was built from the
+   * sources with the same stamps, and if so, associates the node's context with the given one.
+   */
+  @Override
+  public boolean isUpToDate(AnalysisContext context, CompilationUnitElement unitElement) {
+    context = unwrapContext(context);
+    if (context.isDisposed() || unitElement == null) {
+      return false;
+    }
+    LibraryElement libraryElement = unitElement.getLibrary();
+    if (libraryElement == null) {
+      return false;
+    }
+    CompilationUnitElement definingUnitElement = libraryElement.getDefiningCompilationUnit();
+    if (definingUnitElement == null) {
+      return false;
+    }
+    String nodeName = getNodeName(definingUnitElement.getSource(), unitElement.getSource());
+    int nodeNameId = stringCodec.encode(nodeName);
+    return restoredNodes.contains(nodeNameId)
+        && isUpToDate(context, nodeNameId, computeStamp(context, libraryElement));
+  }
+
+  /**
+   * Restores the information written using {@link #writeState(OutputStream)}, usually in a previous
+   * session. The {@link NodeManager} of this store is expected to keep the nodes written in that
+   * session.
+   * <p>
+   * {@link AnalysisContext}s cannot be persisted, so the restored nodes are not associated with any
+   * context initially. They are associated with a context when it is added with the same name using
+   * {@link #addContext(AnalysisContext, String)}, or when a unit is going to be indexed and the
+   * stamps of the sources its node was built from are not changed. In the latter case the unit is
+   * not indexed again.
+   */
+  public void readState(InputStream inputStream) throws IOException {
+    DataInputStream stream = new DataInputStream(inputStream);
+    // check version
+    {
+      int version = stream.readInt();
+      if (version != STATE_VERSION) {
+        throw new IllegalStateException("Version " + STATE_VERSION + " expected, but " + version
+            + " found.");
+      }
+    }
+    // codecs
+    stringCodec.read(stream);
+    elementCodec.read(stream);
+    contextCodec.read(stream);
+    // element to node names
+    elementToNodeNames.clear();
+    {
+      int numElements = stream.readInt();
+      for (int i = 0; i < numElements; i++) {
+        int elementId = stream.readInt();
+        int numNodeNames = stream.readInt();
+        for (int j = 0; j < numNodeNames; j++) {
+          elementToNodeNames.add(elementId, stream.readInt());
+        }
+      }
+    }
+    // node stamps
+    nodeStamps.clear();
+    nodeContexts.clear();
+    nodeUnitSources.clear();
+    nodeUnitStamps.clear();
+    restoredNodes.clear();
+    {
+      int numNodes = stream.readInt();
+      for (int i = 0; i < numNodes; i++) {
+        int nodeNameId = stream.readInt();
+        int contextId = stream.readInt();
+        long stamp = stream.readLong();
+        String unitSource = stream.readUTF();
+        long unitStamp = stream.readLong();
+        nodeStamps.put(nodeNameId, stamp);
+        nodeContexts.put(nodeNameId, contextId);
+        nodeUnitSources.put(nodeNameId, unitSource);
+        nodeUnitStamps.put(nodeNameId, unitStamp);
+        restoredNodes.add(nodeNameId);
+      }
+    }
+    // universe
+    contextDeclarations.clear();
+    {
+      int numContexts = stream.readInt();
+      for (int i = 0; i < numContexts; i++) {
+        int contextId = stream.readInt();
+        DeclarationNameIndex<LocationData> declarations = new DeclarationNameIndex<LocationData>();
+        int numDeclarations = stream.readInt();
+        for (int j = 0; j < numDeclarations; j++) {
+          int nodeNameId = stream.readInt();
+          Relationship relationship = Relationship.getRelationship(stream.readUTF());
+          String name = stringCodec.decode(stream.readInt());
+          int elementId = stream.readInt();
+          int offset = stream.readInt();
+          int length = stream.readInt();
+          declarations.add(
+              nodeNameId,
+              relationship,
+              name,
+              new LocationData(elementId, offset, length));
+        }
+        contextDeclarations.put(contextId, declarations);
+      }
+    }
+  }
+
   @Override
   public void recordRelationship(Element element, Relationship relationship, Location location) {
     if (element == null || element.getKind() == ElementKind.ERROR) {
@@ -271,10 +502,22 @@ public class SplitIndexStoreImpl implements IndexStore {
     }
     // remove sources
     removeSources(context, null);
+    // remove nodes restored from the previous session, but not indexed again
+    for (Iterator<Integer> iter = restoredNodes.iterator(); iter.hasNext();) {
+      int nodeNameId = iter.next();
+      if (contextCodec.decode(nodeContexts.get(nodeNameId)) == context) {
+        iter.remove();
+        removeNode(nodeNameId);
+      }
+    }
     // remove context information
     contextToLibraryToUnits.remove(context);
     contextToUnitToLibraries.remove(context);
-    contextNodeRelations.remove(contextCodec.encode(context));
+    for (Iterator<Integer> iter = contextDeclarations.keySet().iterator(); iter.hasNext();) {
+      if (contextCodec.decode(iter.next()) == context) {
+        iter.remove();
+      }
+    }
     // remove context from codec
     contextCodec.removeContext(context);
   }
@@ -305,6 +548,16 @@ public class SplitIndexStoreImpl implements IndexStore {
         }
       }
     }
+    // remove restored nodes of the unit, they are not known as library/unit pairs yet
+    String encoding = source.getEncoding();
+    for (Iterator<Integer> iter = restoredNodes.iterator(); iter.hasNext();) {
+      int nodeNameId = iter.next();
+      if (encoding.equals(nodeUnitSources.get(nodeNameId))
+          && contextCodec.decode(nodeContexts.get(nodeNameId)) == context) {
+        iter.remove();
+        removeNode(nodeNameId);
+      }
+    }
   }
 
   @Override
@@ -335,26 +588,134 @@ public class SplitIndexStoreImpl implements IndexStore {
     }
   }
 
-  private Location[] getRelationshipsUniverse(Relationship relationship) {
-    List<Location> locations = Lists.newArrayList();
-    for (Entry<Integer, Map<Integer, Map<Relationship, List<LocationData>>>> contextEntry : contextNodeRelations.entrySet()) {
-      int contextId = contextEntry.getKey();
-      AnalysisContext context = contextCodec.decode(contextId);
-      if (context != null) {
-        for (Map<Relationship, List<LocationData>> nodeRelations : contextEntry.getValue().values()) {
-          List<LocationData> nodeLocations = nodeRelations.get(relationship);
-          if (nodeLocations != null) {
-            for (LocationData locationData : nodeLocations) {
-              Location location = locationData.getLocation(context, elementCodec);
-              if (location != null) {
-                locations.add(location);
-              }
-            }
-          }
+  /**
+   * Writes the information of this store into the given stream, so that it can be restored using
+   * {@link #readState(InputStream)}. The nodes themselves are not written, they are expected to be
+   * kept by the {@link NodeManager}.
+   */
+  public void writeState(OutputStream outputStream) throws IOException {
+    DataOutputStream stream = new DataOutputStream(outputStream);
+    // version
+    stream.writeInt(STATE_VERSION);
+    // codecs
+    stringCodec.write(stream);
+    elementCodec.write(stream);
+    contextCodec.write(stream);
+    // element to node names
+    {
+      int[] elementIds = elementToNodeNames.keys();
+      stream.writeInt(elementIds.length);
+      for (int elementId : elementIds) {
+        int[] nodeNameIds = elementToNodeNames.get(elementId);
+        stream.writeInt(elementId);
+        stream.writeInt(nodeNameIds.length);
+        for (int nodeNameId : nodeNameIds) {
+          stream.writeInt(nodeNameId);
         }
       }
     }
-    return locations.toArray(new Location[locations.size()]);
+    // node stamps
+    stream.writeInt(nodeStamps.size());
+    for (Entry<Integer, Long> entry : nodeStamps.entrySet()) {
+      int nodeNameId = entry.getKey();
+      stream.writeInt(nodeNameId);
+      stream.writeInt(nodeContexts.get(nodeNameId));
+      stream.writeLong(entry.getValue());
+      stream.writeUTF(nodeUnitSources.get(nodeNameId));
+      stream.writeLong(nodeUnitStamps.get(nodeNameId));
+    }
+    // universe
+    stream.writeInt(contextDeclarations.size());
+    for (Entry<Integer, DeclarationNameIndex<LocationData>> contextEntry : contextDeclarations.entrySet()) {
+      stream.writeInt(contextEntry.getKey());
+      List<Declaration<LocationData>> declarations = contextEntry.getValue().getDeclarations();
+      stream.writeInt(declarations.size());
+      for (Declaration<LocationData> declaration : declarations) {
+        LocationData locationData = declaration.getValue();
+        stream.writeInt(declaration.getOwner());
+        stream.writeUTF(declaration.getRelationship().getIdentifier());
+        stream.writeInt(stringCodec.encode(declaration.getName()));
+        stream.writeInt(locationData.elementId);
+        stream.writeInt(locationData.offset);
+        stream.writeInt(locationData.length);
+      }
+    }
+    stream.flush();
+  }
+
+  /**
+   * Returns a stamp that is changed when any source of the given library or of the libraries
+   * visible in it is changed, i.e. when relations recorded for units of this library may change.
+   * <p>
+   * The stamp is a 64-bit FNV hash of the full names and the modification stamps of the sources,
+   * sorted by name, so that it does not depend on the order of the libraries.
+   */
+  private long computeStamp(AnalysisContext context, LibraryElement library) {
+    Map<String, Long> sourceStamps = Maps.newTreeMap();
+    LibraryElement[] visibleLibraries = library.getVisibleLibraries();
+    if (visibleLibraries != null) {
+      for (LibraryElement visibleLibrary : visibleLibraries) {
+        for (CompilationUnitElement unit : visibleLibrary.getUnits()) {
+          Source source = unit.getSource();
+          sourceStamps.put(source.getFullName(), context.getModificationStamp(source));
+        }
+      }
+    }
+    long hash = 0xcbf29ce484222325L;
+    for (Entry<String, Long> entry : sourceStamps.entrySet()) {
+      String name = entry.getKey();
+      for (int i = 0; i < name.length(); i++) {
+        hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+      }
+      hash = (hash ^ 0xFFFF) * 0x100000001b3L;
+      long sourceStamp = entry.getValue();
+      for (int i = 0; i < 8; i++) {
+        hash = (hash ^ (sourceStamp & 0xFF)) * 0x100000001b3L;
+        sourceStamp >>>= 8;
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the name of the node with the information about the given unit of the given library.
+   */
+  private String getNodeName(Source library, Source unit) {
+    int libraryNameIndex = stringCodec.encode(library.getFullName());
+    int unitNameIndex = stringCodec.encode(unit.getFullName());
+    return libraryNameIndex + "_" + unitNameIndex + ".index";
+  }
+
+  /**
+   * Checks if the unit source of the node with the given name, restored from the previous session,
+   * has the same modification stamp in the given context as when the node was built.
+   */
+  private boolean isUnitUnchanged(AnalysisContext context, int nodeNameId) {
+    String encoding = nodeUnitSources.get(nodeNameId);
+    SourceFactory sourceFactory = context.getSourceFactory();
+    if (encoding == null || sourceFactory == null) {
+      return false;
+    }
+    Source source;
+    try {
+      source = sourceFactory.fromEncoding(encoding);
+    } catch (IllegalArgumentException exception) {
+      return false;
+    }
+    return source != null
+        && context.getModificationStamp(source) == nodeUnitStamps.get(nodeNameId).longValue();
+  }
+
+  /**
+   * Checks if the node with the given name, restored from the previous session, was built from the
+   * sources with the given stamp. If it was, associates the node's context with the given one.
+   */
+  private boolean isUpToDate(AnalysisContext context, int nodeNameId, long stamp) {
+    Long nodeStamp = nodeStamps.get(nodeNameId);
+    if (nodeStamp == null || nodeStamp.longValue() != stamp) {
+      return false;
+    }
+    return contextCodec.bind(nodeContexts.get(nodeNameId), context);
   }
 
   private void recordLibraryWithUnit(AnalysisContext context, Source library, Source unit) {
@@ -378,25 +739,23 @@ public class SplitIndexStoreImpl implements IndexStore {
 
   private void recordRelationshipUniverse(Relationship relationship, Location location) {
     // in current context
-    Map<Integer, Map<Relationship, List<LocationData>>> nodeRelations = contextNodeRelations.get(currentContextId);
-    if (nodeRelations == null) {
-      nodeRelations = Maps.newHashMap();
-      contextNodeRelations.put(currentContextId, nodeRelations);
-    }
-    // in current node
-    Map<Relationship, List<LocationData>> relations = nodeRelations.get(currentNodeNameId);
-    if (relations == null) {
-      relations = Maps.newHashMap();
-      nodeRelations.put(currentNodeNameId, relations);
-    }
-    // for the given relationship
-    List<LocationData> locations = relations.get(relationship);
-    if (locations == null) {
-      locations = Lists.newArrayList();
-      relations.put(relationship, locations);
-    }
-    // record LocationData
-    locations.add(new LocationData(elementCodec, location));
+    DeclarationNameIndex<LocationData> declarations = contextDeclarations.get(currentContextId);
+    if (declarations == null) {
+      declarations = new DeclarationNameIndex<LocationData>();
+      contextDeclarations.put(currentContextId, declarations);
+    }
+    // the name is encoded now, so that it is known to the codec when the state is written
+    String name = location.getElement().getDisplayName();
+    if (name == null) {
+      name = "";
+    }
+    stringCodec.encode(name);
+    // record LocationData in current node
+    declarations.add(
+        currentNodeNameId,
+        relationship,
+        name,
+        new LocationData(elementCodec, location));
   }
 
   private void recordUnitInLibrary(AnalysisContext context, Source library, Source unit) {
@@ -423,12 +782,28 @@ public class SplitIndexStoreImpl implements IndexStore {
     int libraryNameIndex = stringCodec.encode(libraryName);
     int unitNameIndex = stringCodec.encode(unitName);
     String nodeName = libraryNameIndex + "_" + unitNameIndex + ".index";
-    nodeManager.removeNode(nodeName);
+    int nodeNameId = stringCodec.encode(nodeName);
+    restoredNodes.remove(nodeNameId);
+    removeNode(nodeNameId);
     // remove source
     sources.remove(library);
     sources.remove(unit);
   }
 
+  /**
+   * Removes the node with the given name and its stamp.
+   */
+  private void removeNode(int nodeNameId) {
+    nodeManager.removeNode(stringCodec.decode(nodeNameId));
+    nodeStamps.remove(nodeNameId);
+    nodeContexts.remove(nodeNameId);
+    nodeUnitSources.remove(nodeNameId);
+    nodeUnitStamps.remove(nodeNameId);
+    for (DeclarationNameIndex<LocationData> declarations : contextDeclarations.values()) {
+      declarations.remove(nodeNameId);
+    }
+  }
+
   /**
    * When logging is on, {@link AnalysisEngine} actually creates
    * {@link InstrumentedAnalysisContextImpl}, which wraps {@link AnalysisContextImpl} used to create
@@ -17,6 +17,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -60,4 +63,32 @@ public class StringCodec {
   public Map<String, Integer> getNameToIndex() {
     return nameToIndex;
   }
+
+  /**
+   * Replaces the content of this codec with the strings read from the given stream, which was
+   * written using {@link #write(DataOutputStream)}.
+   */
+  public void read(DataInputStream stream) throws IOException {
+    nameToIndex.clear();
+    indexToName.clear();
+    int count = stream.readInt();
+    for (int i = 0; i < count; i++) {
+      String name = stream.readBoolean() ? stream.readUTF() : null;
+      nameToIndex.put(name, i);
+      indexToName.add(name);
+    }
+  }
+
+  /**
+   * Writes all of the strings of this codec into the given stream.
+   */
+  public void write(DataOutputStream stream) throws IOException {
+    stream.writeInt(indexToName.size());
+    for (String name : indexToName) {
+      stream.writeBoolean(name != null);
+      if (name != null) {
+        stream.writeUTF(name);
+      }
+    }
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.operation;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.source.Source;
+
+/**
+ * Instances of the {@link AddContextOperation} implement an operation that associates an
+ * {@link AnalysisContext} with the name that identifies it between sessions.
+ * 
+ * @coverage dart.engine.index
+ */
+public class AddContextOperation implements IndexOperation {
+  /**
+   * The index store against which this operation is being run.
+   */
+  private final IndexStore indexStore;
+
+  /**
+   * The context being added.
+   */
+  private final AnalysisContext context;
+
+  /**
+   * The name of the context.
+   */
+  private final String name;
+
+  /**
+   * Initialize a newly created operation that will add the specified context.
+   * 
+   * @param indexStore the index store against which this operation is being run
+   * @param context the {@link AnalysisContext} to add
+   * @param name the name of the context
+   */
+  public AddContextOperation(IndexStore indexStore, AnalysisContext context, String name) {
+    this.indexStore = indexStore;
+    this.context = context;
+    this.name = name;
+  }
+
+  @VisibleForTesting
+  public AnalysisContext getContext() {
+    return context;
+  }
+
+  @VisibleForTesting
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public boolean isQuery() {
+    return false;
+  }
+
+  @Override
+  public void performOperation() {
+    synchronized (indexStore) {
+      indexStore.addContext(context, name);
+    }
+  }
+
+  @Override
+  public boolean removeWhenSourceRemoved(Source source) {
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "AddContext(" + context + ", " + name + ")";
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.operation;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.RelationshipCallback;
+import com.google.dart.engine.index.UniverseElement;
+import com.google.dart.engine.internal.index.NameQuery;
+import com.google.dart.engine.source.Source;
+
+/**
+ * Instances of the {@link GetDeclarationsOperation} implement an operation used to access the
+ * locations of the declarations that have a specified relationship with the
+ * {@link UniverseElement} and whose names match a specified query.
+ * 
+ * @coverage dart.engine.index
+ */
+public class GetDeclarationsOperation implements IndexOperation {
+  private final IndexStore indexStore;
+  private final Relationship relationship;
+  private final NameQuery query;
+  private final RelationshipCallback callback;
+
+  /**
+   * Initialize a newly created operation that will access the locations of the declarations that
+   * have a specified relationship with the {@link UniverseElement} and whose names match a
+   * specified query.
+   */
+  public GetDeclarationsOperation(IndexStore indexStore, Relationship relationship,
+      NameQuery query, RelationshipCallback callback) {
+    this.indexStore = indexStore;
+    this.relationship = relationship;
+    this.query = query;
+    this.callback = callback;
+  }
+
+  @VisibleForTesting
+  public RelationshipCallback getCallback() {
+    return callback;
+  }
+
+  @VisibleForTesting
+  public NameQuery getQuery() {
+    return query;
+  }
+
+  @VisibleForTesting
+  public Relationship getRelationship() {
+    return relationship;
+  }
+
+  @Override
+  public boolean isQuery() {
+    return true;
+  }
+
+  @Override
+  public void performOperation() {
+    Location[] locations;
+    synchronized (indexStore) {
+      locations = indexStore.getDeclarations(relationship, query);
+    }
+    callback.hasRelationships(UniverseElement.INSTANCE, relationship, locations);
+  }
+
+  @Override
+  public boolean removeWhenSourceRemoved(Source source) {
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "GetDeclarations(" + relationship + ")";
+  }
+}
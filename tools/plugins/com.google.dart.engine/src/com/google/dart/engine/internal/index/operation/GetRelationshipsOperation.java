@@ -20,6 +20,7 @@ import com.google.dart.engine.index.Location;
 import com.google.dart.engine.index.Relationship;
 import com.google.dart.engine.index.RelationshipCallback;
 import com.google.dart.engine.source.Source;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 /**
  * Instances of the {@link GetRelationshipsOperation} implement an operation used to access the
@@ -31,6 +32,8 @@ public class GetRelationshipsOperation implements IndexOperation {
   private final IndexStore indexStore;
   private final Element element;
   private final Relationship relationship;
+  private final int limit;
+  private final CancellationToken token;
   private RelationshipCallback callback;
 
   /**
@@ -39,9 +42,23 @@ public class GetRelationshipsOperation implements IndexOperation {
    */
   public GetRelationshipsOperation(IndexStore indexStore, Element element,
       Relationship relationship, RelationshipCallback callback) {
+    this(indexStore, element, relationship, 0, null, callback);
+  }
+
+  /**
+   * Initialize a newly created operation that will access at most the given number of the
+   * locations that have a specified relationship with a specified element. The index store stops
+   * looking for locations once the given token has been cancelled, and is not searched at all if
+   * the token has been cancelled by the time the operation is performed.
+   */
+  public GetRelationshipsOperation(IndexStore indexStore, Element element,
+      Relationship relationship, int limit, CancellationToken token,
+      RelationshipCallback callback) {
     this.indexStore = indexStore;
     this.element = element;
     this.relationship = relationship;
+    this.limit = limit;
+    this.token = token;
     this.callback = callback;
   }
 
@@ -55,11 +72,21 @@ public class GetRelationshipsOperation implements IndexOperation {
     return element;
   }
 
+  @VisibleForTesting
+  public int getLimit() {
+    return limit;
+  }
+
   @VisibleForTesting
   public Relationship getRelationship() {
     return relationship;
   }
 
+  @VisibleForTesting
+  public CancellationToken getToken() {
+    return token;
+  }
+
   @Override
   public boolean isQuery() {
     return true;
@@ -68,8 +95,17 @@ public class GetRelationshipsOperation implements IndexOperation {
   @Override
   public void performOperation() {
     Location[] locations;
-    synchronized (indexStore) {
-      locations = indexStore.getRelationships(element, relationship);
+    if (token != null && token.isCancelled()) {
+      // the callback is still invoked, because the search might be waiting for all of the results
+      locations = Location.EMPTY_ARRAY;
+    } else if (limit == 0 && token == null) {
+      synchronized (indexStore) {
+        locations = indexStore.getRelationships(element, relationship);
+      }
+    } else {
+      synchronized (indexStore) {
+        locations = indexStore.getRelationships(element, relationship, limit, token);
+      }
     }
     callback.hasRelationships(element, relationship, locations);
   }
@@ -21,6 +21,7 @@ import com.google.dart.engine.element.HtmlElement;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.index.IndexStore;
 import com.google.dart.engine.internal.html.angular.AngularHtmlIndexContributor;
+import com.google.dart.engine.internal.index.RelationshipBuffer;
 import com.google.dart.engine.source.Source;
 
 /**
@@ -92,20 +93,27 @@ public class IndexHtmlUnitOperation implements IndexOperation {
 
   @Override
   public void performOperation() {
-    synchronized (indexStore) {
-      try {
+    try {
+      // may be already disposed in other thread
+      if (context.isDisposed()) {
+        return;
+      }
+      // visit the unit without holding the store, see IndexUnitOperation
+      RelationshipBuffer buffer = new RelationshipBuffer();
+      AngularHtmlIndexContributor contributor = new AngularHtmlIndexContributor(buffer);
+      unit.accept(contributor);
+      synchronized (indexStore) {
         boolean mayIndex = indexStore.aboutToIndexHtml(context, htmlElement);
         if (!mayIndex) {
           return;
         }
-        AngularHtmlIndexContributor contributor = new AngularHtmlIndexContributor(indexStore);
-        unit.accept(contributor);
+        buffer.replay(indexStore);
         indexStore.doneIndex();
-      } catch (Throwable exception) {
-        AnalysisEngine.getInstance().getLogger().logError(
-            "Could not index " + unit.getElement().getLocation(),
-            exception);
       }
+    } catch (Throwable exception) {
+      AnalysisEngine.getInstance().getLogger().logError(
+          "Could not index " + unit.getElement().getLocation(),
+          exception);
     }
   }
 
@@ -22,6 +22,7 @@ import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.index.IndexStore;
 import com.google.dart.engine.internal.html.angular.AngularDartIndexContributor;
 import com.google.dart.engine.internal.index.IndexContributor;
+import com.google.dart.engine.internal.index.RelationshipBuffer;
 import com.google.dart.engine.source.Source;
 
 /**
@@ -93,20 +94,37 @@ public class IndexUnitOperation implements IndexOperation {
 
   @Override
   public void performOperation() {
-    synchronized (indexStore) {
-      try {
+    try {
+      // may be already disposed in other thread
+      if (context.isDisposed()) {
+        return;
+      }
+      // the information restored from the previous session may be still up to date
+      synchronized (indexStore) {
+        if (indexStore.isUpToDate(context, unitElement)) {
+          // keep the library/unit relations, the recorded information itself is not changed
+          indexStore.aboutToIndexDart(context, unitElement);
+          return;
+        }
+      }
+      // visit the unit without holding the store, so that other units can be visited and queries
+      // can be answered at the same time
+      RelationshipBuffer buffer = new RelationshipBuffer();
+      unit.accept(new IndexContributor(buffer));
+      unit.accept(new AngularDartIndexContributor(buffer));
+      // replace the information about the unit in a single step
+      synchronized (indexStore) {
         boolean mayIndex = indexStore.aboutToIndexDart(context, unitElement);
         if (!mayIndex) {
           return;
         }
-        unit.accept(new IndexContributor(indexStore));
-        unit.accept(new AngularDartIndexContributor(indexStore));
+        buffer.replay(indexStore);
         indexStore.doneIndex();
-      } catch (Throwable exception) {
-        AnalysisEngine.getInstance().getLogger().logError(
-            "Could not index " + unit.getElement().getLocation(),
-            exception);
       }
+    } catch (Throwable exception) {
+      AnalysisEngine.getInstance().getLogger().logError(
+          "Could not index " + unit.getElement().getLocation(),
+          exception);
     }
   }
 
@@ -13,18 +13,32 @@
  */
 package com.google.dart.engine.internal.index.operation;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.dart.engine.AnalysisEngine;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.utilities.translation.DartOmit;
 
+import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Instances of the {@link OperationProcessor} process the operations on a single
  * {@link OperationQueue operation queue}. Each processor can be run one time on a single thread.
+ * <p>
+ * The operations that index a unit are performed on a pool of worker threads, so that several
+ * units can be indexed at the same time, but the operations for a single source are performed in
+ * the order in which they were queued. Query operations are performed on the thread running the
+ * processor while the units are being indexed. All of the other operations wait for the units
+ * being indexed and are then performed on the thread running the processor.
  * 
  * @coverage dart.engine.index
  */
@@ -61,6 +75,24 @@ public class OperationProcessor {
    */
   private OperationQueue queue;
 
+  /**
+   * The number of worker threads used to index units.
+   */
+  private final int workerCount;
+
+  /**
+   * The service used to index units on the worker threads, or {@code null} if the units are
+   * indexed on the thread running the processor.
+   */
+  private ExecutorService workers;
+
+  /**
+   * A table mapping the sources being indexed on the worker threads to the operations indexing
+   * them. The first operation in each list is being performed, the others will be performed on the
+   * same worker thread, in order, once it has completed.
+   */
+  private final Map<Source, LinkedList<IndexOperation>> activeOperations = Maps.newHashMap();
+
   /**
    * The current state of the processor.
    */
@@ -72,13 +104,31 @@ public class OperationProcessor {
    */
   private static long WAIT_DURATION = 100L;
 
+  /**
+   * The number of milliseconds for which the thread on which the processor is running will wait for
+   * a query operation to become available if all of the worker threads are busy.
+   */
+  private static long BUSY_WAIT_DURATION = 10L;
+
   /**
    * Initialize a newly created operation processor to process the operations on the given queue.
    * 
    * @param queue the queue containing the operations to be processed
    */
   public OperationProcessor(OperationQueue queue) {
+    this(queue, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Initialize a newly created operation processor to process the operations on the given queue.
+   * 
+   * @param queue the queue containing the operations to be processed
+   * @param workerCount the number of worker threads used to index units, units are indexed on the
+   *          thread running the processor if it is less than two
+   */
+  public OperationProcessor(OperationQueue queue, int workerCount) {
     this.queue = queue;
+    this.workerCount = workerCount;
   }
 
   /**
@@ -96,26 +146,32 @@ public class OperationProcessor {
       // OK, run.
       state = ProcessorState.RUNNING;
     }
+    if (workerCount > 1) {
+      workers = createWorkers();
+    }
     try {
       while (isRunning()) {
-        // wait for operation
+        // wait for operation, only queries can be performed while all of the workers are busy
         IndexOperation operation = null;
         try {
-          operation = queue.dequeue(WAIT_DURATION);
+          if (hasIdleWorker()) {
+            operation = queue.dequeue(WAIT_DURATION);
+          } else {
+            operation = queue.dequeueQuery(BUSY_WAIT_DURATION);
+          }
         } catch (InterruptedException exception) {
           // ignore
         }
         // perform operation
         if (operation != null) {
-          try {
-            operation.performOperation();
-          } catch (Throwable exception) {
-            AnalysisEngine.getInstance().getLogger().logError(
-                "Exception in indexing operation: " + operation, exception); //$NON-NLS-1$
-          }
+          dispatchOperation(operation);
         }
       }
     } finally {
+      if (workers != null) {
+        workers.shutdown();
+        waitForWorkers();
+      }
       synchronized (this) {
         state = ProcessorState.STOPPED;
       }
@@ -167,6 +223,75 @@ public class OperationProcessor {
     return state == ProcessorState.RUNNING;
   }
 
+  /**
+   * Return a newly created service that indexes units on {@link #workerCount} daemon threads.
+   * 
+   * @return the service that was created
+   */
+  private ExecutorService createWorkers() {
+    final AtomicInteger threadCount = new AtomicInteger();
+    return Executors.newFixedThreadPool(workerCount, new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        String name = "Index worker " + threadCount.incrementAndGet(); //$NON-NLS-1$
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Perform the given operation, or hand it to a worker thread if it indexes a unit.
+   * 
+   * @param operation the operation to be performed
+   */
+  private void dispatchOperation(final IndexOperation operation) {
+    if (operation.isQuery()) {
+      performOperation(operation);
+      return;
+    }
+    final Source source = getIndexedSource(operation);
+    if (workers == null || source == null) {
+      waitForWorkers();
+      performOperation(operation);
+      return;
+    }
+    synchronized (activeOperations) {
+      LinkedList<IndexOperation> operations = activeOperations.get(source);
+      if (operations != null) {
+        operations.add(operation);
+        return;
+      }
+      operations = Lists.newLinkedList();
+      operations.add(operation);
+      activeOperations.put(source, operations);
+    }
+    workers.execute(new Runnable() {
+      @Override
+      public void run() {
+        indexSource(source, operation);
+      }
+    });
+  }
+
+  /**
+   * Return the source indexed by the given operation, or {@code null} if the operation does not
+   * index a unit.
+   * 
+   * @param operation the operation being dispatched
+   * @return the source indexed by the given operation
+   */
+  private Source getIndexedSource(IndexOperation operation) {
+    if (operation instanceof IndexUnitOperation) {
+      return ((IndexUnitOperation) operation).getSource();
+    }
+    if (operation instanceof IndexHtmlUnitOperation) {
+      return ((IndexHtmlUnitOperation) operation).getSource();
+    }
+    return null;
+  }
+
   /**
    * @return the {@link Source}s that are not indexed yet.
    */
@@ -178,9 +303,56 @@ public class OperationProcessor {
         sources.add(source);
       }
     }
+    synchronized (activeOperations) {
+      for (LinkedList<IndexOperation> operations : activeOperations.values()) {
+        for (IndexOperation operation : operations) {
+          if (operation instanceof IndexUnitOperation) {
+            sources.add(((IndexUnitOperation) operation).getSource());
+          }
+        }
+      }
+    }
     return sources.toArray(new Source[sources.size()]);
   }
 
+  /**
+   * Return {@code true} if there is a worker thread that is not indexing a unit.
+   * 
+   * @return {@code true} if there is a worker thread that is not indexing a unit
+   */
+  private boolean hasIdleWorker() {
+    if (workers == null) {
+      return true;
+    }
+    synchronized (activeOperations) {
+      return activeOperations.size() < workerCount;
+    }
+  }
+
+  /**
+   * Perform the given operation and then the operations for the same source that were dispatched
+   * while it was being performed.
+   * 
+   * @param source the source being indexed
+   * @param operation the first operation to be performed
+   */
+  private void indexSource(Source source, IndexOperation operation) {
+    while (operation != null) {
+      performOperation(operation);
+      synchronized (activeOperations) {
+        LinkedList<IndexOperation> operations = activeOperations.get(source);
+        operations.removeFirst();
+        if (operations.isEmpty()) {
+          activeOperations.remove(source);
+          activeOperations.notifyAll();
+          operation = null;
+        } else {
+          operation = operations.getFirst();
+        }
+      }
+    }
+  }
+
   /**
    * Return {@code true} if the current state is {@link ProcessorState#RUNNING}.
    * 
@@ -192,10 +364,39 @@ public class OperationProcessor {
     }
   }
 
+  /**
+   * Perform the given operation, logging any exception it throws.
+   * 
+   * @param operation the operation to be performed
+   */
+  private void performOperation(IndexOperation operation) {
+    try {
+      operation.performOperation();
+    } catch (Throwable exception) {
+      AnalysisEngine.getInstance().getLogger().logError(
+          "Exception in indexing operation: " + operation, exception); //$NON-NLS-1$
+    }
+  }
+
   private void threadYield() {
     Thread.yield();
   }
 
+  /**
+   * Wait until all of the units being indexed on the worker threads have been indexed.
+   */
+  private void waitForWorkers() {
+    synchronized (activeOperations) {
+      while (!activeOperations.isEmpty()) {
+        try {
+          activeOperations.wait();
+        } catch (InterruptedException exception) {
+          // ignore
+        }
+      }
+    }
+  }
+
   private void waitOneMs() {
     Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
   }
@@ -92,6 +92,33 @@ public class OperationQueue {
     }
   }
 
+  /**
+   * Remove the next query operation from this queue and return it, leaving the non-query
+   * operations on this queue. If there are no query operations that can be returned (see
+   * {@link #setProcessQueries(boolean)}), then this method behaves in the same way as
+   * {@link #dequeue(long)} does when this queue is empty.
+   *
+   * @param timeout the maximum number of milliseconds to wait for a query operation to be
+   *          available before giving up and returning {@code null}
+   * @return the query operation that was removed from the queue
+   * @throws InterruptedException if the thread on which this method is running was interrupted
+   *           while it was waiting for an operation to be added to the queue
+   */
+  public IndexOperation dequeueQuery(long timeout) throws InterruptedException {
+    synchronized (nonQueryOperations) {
+      if (!processQueries || queryOperations.isEmpty()) {
+        if (timeout <= 0L) {
+          return null;
+        }
+        waitForOperationAvailable(timeout);
+      }
+      if (processQueries && !queryOperations.isEmpty()) {
+        return queryOperations.removeFirst();
+      }
+      return null;
+    }
+  }
+
   /**
    * Add the given operation to the tail of this queue.
    * 
@@ -537,6 +537,18 @@ public class BPlusTree<K, V, N> {
     writeLeafNode((LeafNode) root);
   }
 
+  /**
+   * Creates a [BPlusTree] instance for the tree with the given [rootId] that already exists in the
+   * given [manager].
+   */
+  public BPlusTree(Comparator<K> _comparator, NodeManager<K, V, N> manager, N rootId) {
+    this.comparator = _comparator;
+    this.manager = manager;
+    this.maxInternalKeys = manager.getMaxInternalKeys();
+    this.maxLeafKeys = manager.getMaxLeafKeys();
+    root = readNode(rootId);
+  }
+
   /**
    * Returns the value for [key] or `null` if [key] is not in the
    */
@@ -544,6 +556,13 @@ public class BPlusTree<K, V, N> {
     return root.find(key);
   }
 
+  /**
+   * Returns the identifier of the root node. It changes when the tree grows or shrinks.
+   */
+  public N getRootId() {
+    return root.id;
+  }
+
   /**
    * Associates the [key] with the given [value]. If the key was already in the tree, its associated
    * value is changed. Otherwise the key-value pair is added to the
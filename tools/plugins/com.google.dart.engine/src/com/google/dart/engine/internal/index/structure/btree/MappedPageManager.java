@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An implementation of [PageManager] that keeps pages in a single file mapped into memory, so that
+ * reading a page does not require copying it into the heap.
+ * <p>
+ * The first page of the file is a header with the page size, the number of pages, the head of the
+ * list of free pages and a root page identifier that clients can use to find their data when the
+ * file is opened again. Each free page keeps the identifier of the next free page.
+ * 
+ * @coverage dart.engine.index.structure
+ */
+public class MappedPageManager implements PageManager {
+  private static final int VERSION = 1;
+  private static final int VERSION_OFFSET = 0;
+  private static final int PAGE_SIZE_OFFSET = 4;
+  private static final int PAGE_COUNT_OFFSET = 8;
+  private static final int FREE_HEAD_OFFSET = 12;
+  private static final int ROOT_PAGE_OFFSET = 16;
+
+  /**
+   * The minimal number of pages to map.
+   */
+  private static final int MIN_MAPPED_PAGES = 64;
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final int pageSizeInBytes;
+  private MappedByteBuffer buffer;
+
+  /**
+   * Opens the given file, which may be empty or previously written by a [MappedPageManager] with
+   * the same page size. Otherwise the content of the file is discarded.
+   */
+  public MappedPageManager(File file, int pageSizeInBytes) throws IOException {
+    this.file = new RandomAccessFile(file, "rw");
+    this.channel = this.file.getChannel();
+    this.pageSizeInBytes = pageSizeInBytes;
+    long length = channel.size();
+    map(Math.max(length, (long) MIN_MAPPED_PAGES * pageSizeInBytes));
+    if (length < pageSizeInBytes || buffer.getInt(VERSION_OFFSET) != VERSION
+        || buffer.getInt(PAGE_SIZE_OFFSET) != pageSizeInBytes
+        || (long) getPageCount() * pageSizeInBytes > length) {
+      clear();
+    }
+  }
+
+  @Override
+  public synchronized int alloc() {
+    int id = buffer.getInt(FREE_HEAD_OFFSET);
+    if (id != 0) {
+      int nextFree = buffer.getInt(id * pageSizeInBytes);
+      buffer.putInt(FREE_HEAD_OFFSET, nextFree);
+    } else {
+      id = getPageCount();
+      ensureCapacity(id + 1);
+      buffer.putInt(PAGE_COUNT_OFFSET, id + 1);
+    }
+    // clear the page
+    int offset = id * pageSizeInBytes;
+    for (int i = 0; i < pageSizeInBytes; i += 4) {
+      buffer.putInt(offset + i, 0);
+    }
+    return id;
+  }
+
+  /**
+   * Frees all of the pages.
+   */
+  public synchronized void clear() {
+    buffer.putInt(VERSION_OFFSET, VERSION);
+    buffer.putInt(PAGE_SIZE_OFFSET, pageSizeInBytes);
+    buffer.putInt(PAGE_COUNT_OFFSET, 1);
+    buffer.putInt(FREE_HEAD_OFFSET, 0);
+    buffer.putInt(ROOT_PAGE_OFFSET, 0);
+  }
+
+  /**
+   * Writes all of the pages to the file and closes it. This [MappedPageManager] cannot be used
+   * after that.
+   */
+  public synchronized void close() throws IOException {
+    buffer.force();
+    channel.close();
+    file.close();
+  }
+
+  @Override
+  public synchronized void free(int id) {
+    checkId(id);
+    buffer.putInt(id * pageSizeInBytes, buffer.getInt(FREE_HEAD_OFFSET));
+    buffer.putInt(FREE_HEAD_OFFSET, id);
+  }
+
+  /**
+   * Returns the number of pages in the file, including the header and free pages.
+   */
+  public synchronized int getPageCount() {
+    return buffer.getInt(PAGE_COUNT_OFFSET);
+  }
+
+  @Override
+  public int getPageSizeInBytes() {
+    return pageSizeInBytes;
+  }
+
+  /**
+   * Returns the identifier of the root page set using [setRootPage], or `0` if it was not set.
+   */
+  public synchronized int getRootPage() {
+    return buffer.getInt(ROOT_PAGE_OFFSET);
+  }
+
+  @Override
+  public synchronized ByteBuffer read(int id) {
+    checkId(id);
+    ByteBuffer page = buffer.duplicate();
+    int offset = id * pageSizeInBytes;
+    page.limit(offset + pageSizeInBytes);
+    page.position(offset);
+    return page.slice();
+  }
+
+  /**
+   * Remembers the identifier of the page that clients can use to find their data when the file is
+   * opened again.
+   */
+  public synchronized void setRootPage(int id) {
+    buffer.putInt(ROOT_PAGE_OFFSET, id);
+  }
+
+  @Override
+  public synchronized void write(int id, ByteBuffer page) {
+    checkId(id);
+    ByteBuffer target = buffer.duplicate();
+    target.position(id * pageSizeInBytes);
+    ByteBuffer source = page.duplicate();
+    source.clear();
+    target.put(source);
+  }
+
+  private void checkId(int id) {
+    if (id <= 0 || id >= getPageCount()) {
+      throw new IllegalArgumentException("Invalid page identifier: " + id);
+    }
+  }
+
+  /**
+   * Ensures that the given number of pages is mapped into memory.
+   */
+  private void ensureCapacity(int pageCount) {
+    long size = (long) pageCount * pageSizeInBytes;
+    if (size > buffer.capacity()) {
+      long maxSize = (long) (Integer.MAX_VALUE / pageSizeInBytes) * pageSizeInBytes;
+      try {
+        map(Math.max(size, Math.min(2L * buffer.capacity(), maxSize)));
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot grow the page file", e);
+      }
+    }
+  }
+
+  /**
+   * Maps the given number of bytes of the file into memory, growing the file if necessary.
+   */
+  private void map(long size) throws IOException {
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("The page file cannot be larger than 2GB");
+    }
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of [NodeManager] that keeps each node in a separate page of a [PageManager].
+ * <p>
+ * Each page starts with the kind of the node and the number of keys, followed by the keys and then
+ * either children identifiers (for internal nodes) or values (for leaf nodes).
+ * 
+ * @coverage dart.engine.index.structure
+ */
+public class PageNodeManager<K, V> implements NodeManager<K, V, Integer> {
+  private static final int KIND_INTERNAL = 1;
+  private static final int KIND_LEAF = 2;
+  private static final int HEADER_SIZE = 8;
+
+  private final PageManager pageManager;
+  private final KeyCodec<K> keyCodec;
+  private final ValueCodec<V> valueCodec;
+  private final int maxInternalKeys;
+  private final int maxLeafKeys;
+
+  public PageNodeManager(PageManager pageManager, KeyCodec<K> keyCodec, ValueCodec<V> valueCodec) {
+    this.pageManager = pageManager;
+    this.keyCodec = keyCodec;
+    this.valueCodec = valueCodec;
+    int pageSize = pageManager.getPageSizeInBytes();
+    int keySize = keyCodec.getSizeInBytes();
+    maxInternalKeys = (pageSize - HEADER_SIZE - 4) / (keySize + 4);
+    maxLeafKeys = (pageSize - HEADER_SIZE) / (keySize + valueCodec.getSizeInBytes());
+  }
+
+  @Override
+  public Integer createInternal() {
+    return createPage(KIND_INTERNAL);
+  }
+
+  @Override
+  public Integer createLeaf() {
+    return createPage(KIND_LEAF);
+  }
+
+  @Override
+  public void delete(Integer id) {
+    pageManager.free(id);
+  }
+
+  @Override
+  public int getMaxInternalKeys() {
+    return maxInternalKeys;
+  }
+
+  @Override
+  public int getMaxLeafKeys() {
+    return maxLeafKeys;
+  }
+
+  @Override
+  public boolean isInternal(Integer id) {
+    ByteBuffer page = pageManager.read(id);
+    return page.getInt(0) == KIND_INTERNAL;
+  }
+
+  @Override
+  public InternalNodeData<K, Integer> readInternal(Integer id) {
+    ByteBuffer page = pageManager.read(id);
+    int keyCount = page.getInt(4);
+    int keySize = keyCodec.getSizeInBytes();
+    // read keys
+    List<K> keys = new ArrayList<K>(keyCount + 1);
+    int offset = HEADER_SIZE;
+    for (int i = 0; i < keyCount; i++) {
+      keys.add(keyCodec.decode(page, offset));
+      offset += keySize;
+    }
+    // read children
+    List<Integer> children = new ArrayList<Integer>(keyCount + 2);
+    for (int i = 0; i <= keyCount; i++) {
+      children.add(page.getInt(offset));
+      offset += 4;
+    }
+    return new InternalNodeData<K, Integer>(keys, children);
+  }
+
+  @Override
+  public LeafNodeData<K, V> readLeaf(Integer id) {
+    ByteBuffer page = pageManager.read(id);
+    int keyCount = page.getInt(4);
+    int keySize = keyCodec.getSizeInBytes();
+    int valueSize = valueCodec.getSizeInBytes();
+    // read keys
+    List<K> keys = new ArrayList<K>(keyCount + 1);
+    int offset = HEADER_SIZE;
+    for (int i = 0; i < keyCount; i++) {
+      keys.add(keyCodec.decode(page, offset));
+      offset += keySize;
+    }
+    // read values
+    List<V> values = new ArrayList<V>(keyCount + 1);
+    for (int i = 0; i < keyCount; i++) {
+      values.add(valueCodec.decode(page, offset));
+      offset += valueSize;
+    }
+    return new LeafNodeData<K, V>(keys, values);
+  }
+
+  @Override
+  public void writeInternal(Integer id, InternalNodeData<K, Integer> data) {
+    ByteBuffer page = pageManager.read(id);
+    List<K> keys = data.keys;
+    List<Integer> children = data.children;
+    int keyCount = keys.size();
+    int keySize = keyCodec.getSizeInBytes();
+    page.putInt(0, KIND_INTERNAL);
+    page.putInt(4, keyCount);
+    // write keys
+    int offset = HEADER_SIZE;
+    for (int i = 0; i < keyCount; i++) {
+      keyCodec.encode(page, offset, keys.get(i));
+      offset += keySize;
+    }
+    // write children
+    for (int i = 0; i <= keyCount; i++) {
+      page.putInt(offset, children.get(i));
+      offset += 4;
+    }
+    pageManager.write(id, page);
+  }
+
+  @Override
+  public void writeLeaf(Integer id, LeafNodeData<K, V> data) {
+    ByteBuffer page = pageManager.read(id);
+    List<K> keys = data.keys;
+    List<V> values = data.values;
+    int keyCount = keys.size();
+    int keySize = keyCodec.getSizeInBytes();
+    int valueSize = valueCodec.getSizeInBytes();
+    page.putInt(0, KIND_LEAF);
+    page.putInt(4, keyCount);
+    // write keys
+    int offset = HEADER_SIZE;
+    for (int i = 0; i < keyCount; i++) {
+      keyCodec.encode(page, offset, keys.get(i));
+      offset += keySize;
+    }
+    // write values
+    for (int i = 0; i < keyCount; i++) {
+      valueCodec.encode(page, offset, values.get(i));
+      offset += valueSize;
+    }
+    pageManager.write(id, page);
+  }
+
+  /**
+   * Allocates a new page and marks it as a page of the node of the given kind.
+   */
+  private int createPage(int kind) {
+    int id = pageManager.alloc();
+    ByteBuffer page = pageManager.read(id);
+    page.putInt(0, kind);
+    page.putInt(4, 0);
+    pageManager.write(id, page);
+    return id;
+  }
+}
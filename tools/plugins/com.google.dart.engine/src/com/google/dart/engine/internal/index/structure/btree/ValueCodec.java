@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A [ValueCodec] encodes and decodes values to and from fixed size byte sequences.
+ * 
+ * @coverage dart.engine.index.structure
+ */
+public interface ValueCodec<V> {
+  /**
+   * Returns the value decoded from the given [buffer] starting at the given [offset].
+   */
+  V decode(ByteBuffer buffer, int offset);
+
+  /**
+   * Encodes the given [value] into the given [buffer] starting at the given [offset].
+   */
+  void encode(ByteBuffer buffer, int offset, V value);
+
+  /**
+   * The size of encoded values in bytes.
+   */
+  int getSizeInBytes();
+}
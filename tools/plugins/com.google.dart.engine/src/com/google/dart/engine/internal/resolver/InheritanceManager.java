@@ -25,6 +25,7 @@ import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.error.ErrorCode;
 import com.google.dart.engine.error.StaticTypeWarningCode;
 import com.google.dart.engine.error.StaticWarningCode;
+import com.google.dart.engine.internal.element.ClassElementImpl;
 import com.google.dart.engine.internal.element.ExecutableElementImpl;
 import com.google.dart.engine.internal.element.MultiplyInheritedMethodElementImpl;
 import com.google.dart.engine.internal.element.MultiplyInheritedPropertyAccessorElementImpl;
@@ -260,6 +261,14 @@ public class InheritanceManager {
    */
   private HashMap<ClassElement, HashSet<AnalysisError>> errorsInClassElement = new HashMap<ClassElement, HashSet<AnalysisError>>();
 
+  /**
+   * A table mapping each {@link ClassElement} that has been tested to whether the maps of the
+   * members it inherits can be shared with the managers of other libraries.
+   * 
+   * @see #isShareable(ClassElement)
+   */
+  private HashMap<ClassElement, Boolean> shareableClasses = new HashMap<ClassElement, Boolean>();
+
   /**
    * Initialize a newly created inheritance manager.
    * 
@@ -413,6 +422,7 @@ public class InheritanceManager {
    */
   public void setLibraryElement(LibraryElement library) {
     this.library = library;
+    shareableClasses.clear();
   }
 
   /**
@@ -467,93 +477,18 @@ public class InheritanceManager {
     MemberMap resultMap = classLookup.get(classElt);
     if (resultMap != null) {
       return resultMap;
-    } else {
-      resultMap = new MemberMap();
     }
-    ClassElement superclassElt = null;
-    InterfaceType supertype = classElt.getSupertype();
-    if (supertype != null) {
-      superclassElt = supertype.getElement();
-    } else {
-      // classElt is Object
+    if (!isShareable(classElt)) {
+      return internalComputeClassChainLookupMap(classElt, visitedClasses);
+    }
+    ClassElementImpl classElement = (ClassElementImpl) classElt;
+    resultMap = classElement.getInheritedClassMembers();
+    if (resultMap != null) {
       classLookup.put(classElt, resultMap);
       return resultMap;
     }
-    if (superclassElt != null) {
-      if (!visitedClasses.contains(superclassElt)) {
-        visitedClasses.add(superclassElt);
-        try {
-          resultMap = new MemberMap(computeClassChainLookupMap(superclassElt, visitedClasses));
-
-          //
-          // Substitute the super types down the hierarchy.
-          //
-          substituteTypeParametersDownHierarchy(supertype, resultMap);
-
-          //
-          // Include the members from the superclass in the resultMap.
-          //
-          recordMapWithClassMembers(resultMap, supertype, false);
-        } finally {
-          visitedClasses.remove(superclassElt);
-        }
-      } else {
-        // This case happens only when the superclass was previously visited and not in the lookup,
-        // meaning this is meant to shorten the compute for recursive cases.
-        classLookup.put(superclassElt, resultMap);
-        return resultMap;
-      }
-    }
-
-    //
-    // Include the members from the mixins in the resultMap
-    //
-    InterfaceType[] mixins = classElt.getMixins();
-    for (int i = mixins.length - 1; i >= 0; i--) {
-      ClassElement mixinElement = mixins[i].getElement();
-
-      if (mixinElement != null) {
-        if (!visitedClasses.contains(mixinElement)) {
-          visitedClasses.add(mixinElement);
-          try {
-            MemberMap map = new MemberMap(computeClassChainLookupMap(mixinElement, visitedClasses));
-
-            //
-            // Substitute the super types down the hierarchy.
-            //
-            substituteTypeParametersDownHierarchy(mixins[i], map);
-
-            //
-            // Include the members from the superclass in the resultMap.
-            //
-            recordMapWithClassMembers(map, mixins[i], false);
-
-            //
-            // Add the members from map into result map.
-            //
-            for (int j = 0; j < map.getSize(); j++) {
-              String key = map.getKey(j);
-              ExecutableElement value = map.getValue(j);
-              if (key != null) {
-                if (resultMap.get(key) == null
-                    || (resultMap.get(key) != null && !isAbstract(value))) {
-                  resultMap.put(key, value);
-                }
-              }
-            }
-          } finally {
-            visitedClasses.remove(mixinElement);
-          }
-        } else {
-          // This case happens only when the superclass was previously visited and not in the lookup,
-          // meaning this is meant to shorten the compute for recursive cases.
-          classLookup.put(mixinElement, resultMap);
-          return resultMap;
-        }
-      }
-    }
-
-    classLookup.put(classElt, resultMap);
+    resultMap = internalComputeClassChainLookupMap(classElt, visitedClasses);
+    classElement.setInheritedClassMembers(resultMap);
     return resultMap;
   }
 
@@ -642,14 +577,17 @@ public class InheritanceManager {
     if (resultMap != null) {
       return resultMap;
     }
-    ArrayList<MemberMap> lookupMaps = gatherInterfaceLookupMaps(classElt, visitedInterfaces);
-    if (lookupMaps == null) {
-      resultMap = new MemberMap();
-    } else {
-      HashMap<String, ArrayList<ExecutableElement>> unionMap = unionInterfaceLookupMaps(lookupMaps);
-      resultMap = resolveInheritanceLookup(classElt, unionMap);
+    if (!isShareable(classElt)) {
+      return internalComputeInterfaceLookupMap(classElt, visitedInterfaces);
     }
-    interfaceLookup.put(classElt, resultMap);
+    ClassElementImpl classElement = (ClassElementImpl) classElt;
+    resultMap = classElement.getInheritedInterfaceMembers();
+    if (resultMap != null) {
+      interfaceLookup.put(classElt, resultMap);
+      return resultMap;
+    }
+    resultMap = internalComputeInterfaceLookupMap(classElt, visitedInterfaces);
+    classElement.setInheritedInterfaceMembers(resultMap);
     return resultMap;
   }
 
@@ -789,6 +727,181 @@ public class InheritanceManager {
     return lookupMaps;
   }
 
+  /**
+   * Compute and return a mapping between the set of all string names of the members inherited from
+   * the passed {@link ClassElement} superclass hierarchy, and the associated
+   * {@link ExecutableElement}, without looking for a map that was computed earlier for the class.
+   * 
+   * @param classElt the class element to query
+   * @param visitedClasses a set of visited classes passed back into this method when it calls
+   *          itself recursively
+   * @return a mapping between the set of all string names of the members inherited from the passed
+   *         {@link ClassElement} superclass hierarchy, and the associated {@link ExecutableElement}
+   */
+  private MemberMap internalComputeClassChainLookupMap(ClassElement classElt,
+      HashSet<ClassElement> visitedClasses) {
+    MemberMap resultMap = new MemberMap();
+    ClassElement superclassElt = null;
+    InterfaceType supertype = classElt.getSupertype();
+    if (supertype != null) {
+      superclassElt = supertype.getElement();
+    } else {
+      // classElt is Object
+      classLookup.put(classElt, resultMap);
+      return resultMap;
+    }
+    if (superclassElt != null) {
+      if (!visitedClasses.contains(superclassElt)) {
+        visitedClasses.add(superclassElt);
+        try {
+          resultMap = new MemberMap(computeClassChainLookupMap(superclassElt, visitedClasses));
+
+          //
+          // Substitute the super types down the hierarchy.
+          //
+          substituteTypeParametersDownHierarchy(supertype, resultMap);
+
+          //
+          // Include the members from the superclass in the resultMap.
+          //
+          recordMapWithClassMembers(resultMap, supertype, false);
+        } finally {
+          visitedClasses.remove(superclassElt);
+        }
+      } else {
+        // This case happens only when the superclass was previously visited and not in the lookup,
+        // meaning this is meant to shorten the compute for recursive cases.
+        classLookup.put(superclassElt, resultMap);
+        return resultMap;
+      }
+    }
+
+    //
+    // Include the members from the mixins in the resultMap
+    //
+    InterfaceType[] mixins = classElt.getMixins();
+    for (int i = mixins.length - 1; i >= 0; i--) {
+      ClassElement mixinElement = mixins[i].getElement();
+
+      if (mixinElement != null) {
+        if (!visitedClasses.contains(mixinElement)) {
+          visitedClasses.add(mixinElement);
+          try {
+            MemberMap map = new MemberMap(computeClassChainLookupMap(mixinElement, visitedClasses));
+
+            //
+            // Substitute the super types down the hierarchy.
+            //
+            substituteTypeParametersDownHierarchy(mixins[i], map);
+
+            //
+            // Include the members from the superclass in the resultMap.
+            //
+            recordMapWithClassMembers(map, mixins[i], false);
+
+            //
+            // Add the members from map into result map.
+            //
+            for (int j = 0; j < map.getSize(); j++) {
+              String key = map.getKey(j);
+              ExecutableElement value = map.getValue(j);
+              if (key != null) {
+                if (resultMap.get(key) == null
+                    || (resultMap.get(key) != null && !isAbstract(value))) {
+                  resultMap.put(key, value);
+                }
+              }
+            }
+          } finally {
+            visitedClasses.remove(mixinElement);
+          }
+        } else {
+          // This case happens only when the superclass was previously visited and not in the lookup,
+          // meaning this is meant to shorten the compute for recursive cases.
+          classLookup.put(mixinElement, resultMap);
+          return resultMap;
+        }
+      }
+    }
+
+    classLookup.put(classElt, resultMap);
+    return resultMap;
+  }
+
+  /**
+   * Compute and return a mapping between the set of all string names of the members inherited from
+   * the passed {@link ClassElement} interface hierarchy, and the associated
+   * {@link ExecutableElement}, without looking for a map that was computed earlier for the class.
+   * 
+   * @param classElt the class element to query
+   * @param visitedInterfaces a set of visited classes passed back into this method when it calls
+   *          itself recursively
+   * @return a mapping between the set of all string names of the members inherited from the passed
+   *         {@link ClassElement} interface hierarchy, and the associated {@link ExecutableElement}
+   */
+  private MemberMap internalComputeInterfaceLookupMap(ClassElement classElt,
+      HashSet<ClassElement> visitedInterfaces) {
+    MemberMap resultMap;
+    ArrayList<MemberMap> lookupMaps = gatherInterfaceLookupMaps(classElt, visitedInterfaces);
+    if (lookupMaps == null) {
+      resultMap = new MemberMap();
+    } else {
+      HashMap<String, ArrayList<ExecutableElement>> unionMap = unionInterfaceLookupMaps(lookupMaps);
+      resultMap = resolveInheritanceLookup(classElt, unionMap);
+    }
+    interfaceLookup.put(classElt, resultMap);
+    return resultMap;
+  }
+
+  /**
+   * Return {@code true} if the maps of the members inherited by the passed {@link ClassElement} do
+   * not depend on the library managed by this manager, and can therefore be shared with the
+   * managers of other libraries by recording them on the class element. This is the case when
+   * neither the class nor any of its supertypes is defined in the managed library, because the
+   * private members of all of those classes are then equally inaccessible. Classes whose hierarchy
+   * contains a cycle are never shared.
+   * 
+   * @param classElt the class element to query
+   * @return {@code true} if the maps of the members inherited by the class can be shared
+   */
+  private boolean isShareable(ClassElement classElt) {
+    if (library == null || !(classElt instanceof ClassElementImpl)) {
+      return false;
+    }
+    Boolean shareable = shareableClasses.get(classElt);
+    if (shareable != null) {
+      return shareable.booleanValue();
+    }
+    // Guard against cycles in the class hierarchy: a class reached again while its supertypes are
+    // still being examined is treated as not shareable.
+    shareableClasses.put(classElt, Boolean.FALSE);
+    boolean result = !library.equals(classElt.getLibrary())
+        && isShareableSupertype(classElt.getSupertype());
+    for (InterfaceType mixin : classElt.getMixins()) {
+      result = result && isShareableSupertype(mixin);
+    }
+    for (InterfaceType interfaceType : classElt.getInterfaces()) {
+      result = result && isShareableSupertype(interfaceType);
+    }
+    shareableClasses.put(classElt, Boolean.valueOf(result));
+    return result;
+  }
+
+  /**
+   * Return {@code true} if the passed supertype does not prevent the maps of the members inherited
+   * by a subclass from being shared.
+   * 
+   * @param supertype the supertype being tested, or {@code null} if there is no supertype
+   * @return {@code true} if the supertype does not prevent sharing
+   */
+  private boolean isShareableSupertype(InterfaceType supertype) {
+    if (supertype == null) {
+      return true;
+    }
+    ClassElement element = supertype.getElement();
+    return element != null && isShareable(element);
+  }
+
   /**
    * Given some {@link ClassElement}, this method finds and returns the {@link ExecutableElement} of
    * the passed name in the class element. Static members, members in super types and members not
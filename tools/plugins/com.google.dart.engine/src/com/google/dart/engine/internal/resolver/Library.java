@@ -80,6 +80,11 @@ public class Library {
    */
   private HashMap<UriBasedDirective, String> directiveUris = new HashMap<UriBasedDirective, String>();
 
+  /**
+   * A flag indicating whether the bodies of the functions in this library are to be resolved.
+   */
+  private boolean analyzeFunctionBodies = true;
+
   /**
    * A flag indicating whether this library explicitly imports core.
    */
@@ -126,6 +131,15 @@ public class Library {
     this.libraryElement = (LibraryElementImpl) analysisContext.getLibraryElement(librarySource);
   }
 
+  /**
+   * Return {@code true} if the bodies of the functions in this library are to be resolved.
+   * 
+   * @return {@code true} if the bodies of the functions in this library are to be resolved
+   */
+  public boolean getAnalyzeFunctionBodies() {
+    return analyzeFunctionBodies;
+  }
+
   /**
    * Return the AST structure associated with the given source.
    * 
@@ -348,6 +362,17 @@ public class Library {
     return directiveUris.get(directive);
   }
 
+  /**
+   * Set whether the bodies of the functions in this library are to be resolved to match the given
+   * value.
+   * 
+   * @param analyzeFunctionBodies {@code true} if the bodies of the functions in this library are to
+   *          be resolved
+   */
+  public void setAnalyzeFunctionBodies(boolean analyzeFunctionBodies) {
+    this.analyzeFunctionBodies = analyzeFunctionBodies;
+  }
+
   /**
    * Set the AST structure associated with the defining compilation unit for this library to the
    * given AST structure.
@@ -884,6 +884,7 @@ public class LibraryResolver {
       ConstantValueComputer computer = new ConstantValueComputer(
           typeProvider,
           analysisContext.getDeclaredVariables());
+      computer.setValueCache(analysisContext.getConstantValueCache());
       for (Library library : librariesInCycles) {
         for (Source source : library.getCompilationUnitSources()) {
           try {
@@ -927,6 +928,8 @@ public class LibraryResolver {
   private void resolveReferencesAndTypesInLibrary(Library library) throws AnalysisException {
     TimeCounterHandle timeCounter = PerformanceStatistics.resolve.start();
     try {
+      Source librarySource = library.getLibrarySource();
+      library.setAnalyzeFunctionBodies(analysisContext.getAnalyzeFunctionBodies(librarySource));
       for (Source source : library.getCompilationUnitSources()) {
         CompilationUnit ast = library.getAST(source);
         ast.accept(new VariableResolverVisitor(library, source, typeProvider));
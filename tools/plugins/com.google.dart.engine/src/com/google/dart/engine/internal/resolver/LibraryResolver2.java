@@ -602,6 +602,7 @@ public class LibraryResolver2 {
       ConstantValueComputer computer = new ConstantValueComputer(
           typeProvider,
           analysisContext.getDeclaredVariables());
+      computer.setValueCache(analysisContext.getConstantValueCache());
       for (ResolvableLibrary library : librariesInCycle) {
         for (ResolvableCompilationUnit unit : library.getResolvableCompilationUnits()) {
           CompilationUnit ast = unit.getCompilationUnit();
@@ -639,6 +640,8 @@ public class LibraryResolver2 {
       throws AnalysisException {
     TimeCounterHandle timeCounter = PerformanceStatistics.resolve.start();
     try {
+      Source librarySource = library.getLibrarySource();
+      library.setAnalyzeFunctionBodies(analysisContext.getAnalyzeFunctionBodies(librarySource));
       for (ResolvableCompilationUnit unit : library.getResolvableCompilationUnits()) {
         Source source = unit.getSource();
         CompilationUnit ast = unit.getCompilationUnit();
@@ -41,6 +41,11 @@ public class ResolvableLibrary {
    */
   private ResolvableLibrary[] importedLibraries = EMPTY_ARRAY;
 
+  /**
+   * A flag indicating whether the bodies of the functions in this library are to be resolved.
+   */
+  private boolean analyzeFunctionBodies = true;
+
   /**
    * A flag indicating whether this library explicitly imports core.
    */
@@ -92,6 +97,15 @@ public class ResolvableLibrary {
     this.librarySource = librarySource;
   }
 
+  /**
+   * Return {@code true} if the bodies of the functions in this library are to be resolved.
+   * 
+   * @return {@code true} if the bodies of the functions in this library are to be resolved
+   */
+  public boolean getAnalyzeFunctionBodies() {
+    return analyzeFunctionBodies;
+  }
+
   /**
    * Return the AST structure associated with the given source, or {@code null} if the source does
    * not represent a compilation unit that is included in this library.
@@ -267,6 +281,17 @@ public class ResolvableLibrary {
     return compilationUnits;
   }
 
+  /**
+   * Set whether the bodies of the functions in this library are to be resolved to match the given
+   * value.
+   * 
+   * @param analyzeFunctionBodies {@code true} if the bodies of the functions in this library are to
+   *          be resolved
+   */
+  public void setAnalyzeFunctionBodies(boolean analyzeFunctionBodies) {
+    this.analyzeFunctionBodies = analyzeFunctionBodies;
+  }
+
   /**
    * Set the compilation unit in this library to the given compilation units. The defining
    * compilation unit must be the first element of the array.
@@ -161,6 +161,12 @@ public class ResolverVisitor extends ScopedVisitor {
    */
   private TypePromotionManager promoteManager = new TypePromotionManager();
 
+  /**
+   * A flag indicating whether the bodies of functions are to be resolved. When this is
+   * {@code false} only the declarations in the compilation unit are resolved.
+   */
+  private boolean analyzeFunctionBodies = true;
+
   /**
    * Initialize a newly created visitor to resolve the nodes in a compilation unit.
    * 
@@ -173,6 +179,7 @@ public class ResolverVisitor extends ScopedVisitor {
     this.inheritanceManager = library.getInheritanceManager();
     this.elementResolver = new ElementResolver(this);
     this.typeAnalyzer = new StaticTypeAnalyzer(this);
+    this.analyzeFunctionBodies = library.getAnalyzeFunctionBodies();
   }
 
   /**
@@ -223,6 +230,7 @@ public class ResolverVisitor extends ScopedVisitor {
     this.inheritanceManager = library.getInheritanceManager();
     this.elementResolver = new ElementResolver(this);
     this.typeAnalyzer = new StaticTypeAnalyzer(this);
+    this.analyzeFunctionBodies = library.getAnalyzeFunctionBodies();
   }
 
   /**
@@ -319,6 +327,9 @@ public class ResolverVisitor extends ScopedVisitor {
   @Override
   public Void visitBlockFunctionBody(BlockFunctionBody node) {
     safelyVisit(commentBeforeFunction);
+    if (!analyzeFunctionBodies) {
+      return null;
+    }
     overrideManager.enterScope();
     try {
       super.visitBlockFunctionBody(node);
@@ -559,6 +570,9 @@ public class ResolverVisitor extends ScopedVisitor {
   @Override
   public Void visitExpressionFunctionBody(ExpressionFunctionBody node) {
     safelyVisit(commentBeforeFunction);
+    if (!analyzeFunctionBodies) {
+      return null;
+    }
     overrideManager.enterScope();
     try {
       super.visitExpressionFunctionBody(node);
@@ -20,8 +20,6 @@ import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.error.AnalysisErrorListener;
 import com.google.dart.engine.error.CompileTimeErrorCode;
 
-import java.util.HashMap;
-
 /**
  * Instances of the class {@code EnclosedScope} implement a scope that is lexically enclosed in
  * another scope.
@@ -37,14 +35,9 @@ public class EnclosedScope extends Scope {
   /**
    * A table mapping names that will be defined in this scope, but right now are not initialized.
    * According to the scoping rules these names are hidden, even if they were defined in an outer
-   * scope.
-   */
-  private HashMap<String, Element> hiddenElements = new HashMap<String, Element>();
-
-  /**
-   * A flag indicating whether there are any names defined in this scope.
+   * scope. The table is {@code null} if no names have been hidden in this scope.
    */
-  private boolean hasHiddenName = false;
+  private ScopeNameTable hiddenElements;
 
   /**
    * Initialize a newly created scope enclosed within another scope.
@@ -76,8 +69,10 @@ public class EnclosedScope extends Scope {
     if (element != null) {
       String name = element.getName();
       if (name != null && !name.isEmpty()) {
+        if (hiddenElements == null) {
+          hiddenElements = new ScopeNameTable();
+        }
         hiddenElements.put(name, element);
-        hasHiddenName = true;
       }
     }
   }
@@ -89,7 +84,7 @@ public class EnclosedScope extends Scope {
       return element;
     }
     // May be there is a hidden Element.
-    if (hasHiddenName) {
+    if (hiddenElements != null) {
       Element hiddenElement = hiddenElements.get(name);
       if (hiddenElement != null) {
         getErrorListener().onError(
@@ -28,6 +28,8 @@ import com.google.dart.engine.utilities.general.StringUtilities;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Instances of the class {@code LibraryImportScope} represent the scope containing all of the names
@@ -36,6 +38,95 @@ import java.util.Arrays;
  * @coverage dart.engine.resolver
  */
 public class LibraryImportScope extends Scope {
+  /**
+   * Instances of the class {@code ImportedNames} flatten the namespaces of all of the imports into
+   * a single table, so that looking up a name requires a single probe rather than one for each
+   * import.
+   */
+  private static class ImportedNames {
+    /**
+     * A table mapping each imported name to the first element imported with that name.
+     */
+    private final ScopeNameTable firstElements;
+
+    /**
+     * A table mapping the names that are imported with more than one distinct element to all of
+     * those elements, in the order of the imports through which they are imported.
+     */
+    private final HashMap<String, Element[]> conflictingElements;
+
+    /**
+     * Initialize a newly created table to contain the names in the given namespaces.
+     * 
+     * @param namespaces the namespaces of the imports, in the order in which they are declared
+     */
+    public ImportedNames(Namespace[] namespaces) {
+      int nameCount = 0;
+      for (Namespace namespace : namespaces) {
+        nameCount += namespace.getDefinedNamesWithoutCopying().size();
+      }
+      firstElements = new ScopeNameTable(nameCount);
+      HashMap<String, ArrayList<Element>> conflicts = null;
+      for (Namespace namespace : namespaces) {
+        for (Map.Entry<String, Element> entry : namespace.getDefinedNamesWithoutCopying().entrySet()) {
+          String name = entry.getKey();
+          Element element = entry.getValue();
+          Element firstElement = firstElements.get(name);
+          if (firstElement == null) {
+            firstElements.put(name, element);
+          } else if (firstElement != element) {
+            if (conflicts == null) {
+              conflicts = new HashMap<String, ArrayList<Element>>();
+            }
+            ArrayList<Element> elements = conflicts.get(name);
+            if (elements == null) {
+              elements = new ArrayList<Element>();
+              elements.add(firstElement);
+              conflicts.put(name, elements);
+            }
+            if (!elements.contains(element)) {
+              elements.add(element);
+            }
+          }
+        }
+      }
+      if (conflicts == null) {
+        conflictingElements = null;
+      } else {
+        conflictingElements = new HashMap<String, Element[]>(conflicts.size());
+        for (Map.Entry<String, ArrayList<Element>> entry : conflicts.entrySet()) {
+          ArrayList<Element> elements = entry.getValue();
+          conflictingElements.put(entry.getKey(), elements.toArray(new Element[elements.size()]));
+        }
+      }
+    }
+
+    /**
+     * Return all of the distinct elements imported with the given name, or {@code null} if there
+     * is at most one such element.
+     * 
+     * @param name the name whose elements are to be returned
+     * @return all of the distinct elements imported with the given name
+     */
+    public Element[] getConflictingElements(String name) {
+      if (conflictingElements == null) {
+        return null;
+      }
+      return conflictingElements.get(name);
+    }
+
+    /**
+     * Return the first element imported with the given name, or {@code null} if the name is not
+     * imported.
+     * 
+     * @param name the name whose element is to be returned
+     * @return the first element imported with the given name
+     */
+    public Element getFirstElement(String name) {
+      return firstElements.get(name);
+    }
+  }
+
   /**
    * The element representing the library in which this scope is enclosed.
    */
@@ -52,6 +143,13 @@ public class LibraryImportScope extends Scope {
    */
   private Namespace[] importedNamespaces;
 
+  /**
+   * The names from all of the imported namespaces, or {@code null} if they have not yet been
+   * needed. The table is created lazily because some scopes are created without looking up any
+   * imported names.
+   */
+  private volatile ImportedNames importedNames;
+
   /**
    * Initialize a newly created scope representing the names imported into the given library.
    * 
@@ -93,19 +191,20 @@ public class LibraryImportScope extends Scope {
     if (foundElement != null) {
       return foundElement;
     }
-    for (int i = 0; i < importedNamespaces.length; i++) {
-      Namespace nameSpace = importedNamespaces[i];
-      Element element = nameSpace.get(name);
-      if (element != null) {
-        if (foundElement == null) {
-          foundElement = element;
-        } else if (foundElement != element) {
-          foundElement = MultiplyDefinedElementImpl.fromElements(
-              definingLibrary.getContext(),
-              foundElement,
-              element);
-        }
-      }
+    ImportedNames names = getImportedNames();
+    foundElement = names.getFirstElement(name);
+    if (foundElement == null) {
+      return null;
+    }
+    Element[] conflictingElements = names.getConflictingElements(name);
+    if (conflictingElements == null) {
+      return foundElement;
+    }
+    for (int i = 1; i < conflictingElements.length; i++) {
+      foundElement = MultiplyDefinedElementImpl.fromElements(
+          definingLibrary.getContext(),
+          foundElement,
+          conflictingElements[i]);
     }
     if (foundElement instanceof MultiplyDefinedElementImpl) {
       foundElement = removeSdkElements(identifier, name, (MultiplyDefinedElementImpl) foundElement);
@@ -128,9 +227,11 @@ public class LibraryImportScope extends Scope {
           StringUtilities.printListOfQuotedNames(libraryNames)));
       return foundElement;
     }
-    if (foundElement != null) {
-      defineNameWithoutChecking(name, foundElement);
-    }
+    //
+    // The conflict was resolved in favor of a non-SDK element. Remember the choice so that the
+    // conflict is only reported once.
+    //
+    defineNameWithoutChecking(name, foundElement);
     return foundElement;
   }
 
@@ -151,6 +252,21 @@ public class LibraryImportScope extends Scope {
     }
   }
 
+  /**
+   * Return the table containing the names from all of the imported namespaces, creating it if
+   * necessary.
+   * 
+   * @return the table containing the names from all of the imported namespaces
+   */
+  private ImportedNames getImportedNames() {
+    ImportedNames names = importedNames;
+    if (names == null) {
+      names = new ImportedNames(importedNamespaces);
+      importedNames = names;
+    }
+    return names;
+  }
+
   /**
    * Returns the name of the library that defines given element.
    * 
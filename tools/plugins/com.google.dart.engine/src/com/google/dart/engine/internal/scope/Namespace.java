@@ -65,4 +65,15 @@ public class Namespace {
   public Map<String, Element> getDefinedNames() {
     return new HashMap<String, Element>(definedNames);
   }
+
+  /**
+   * Return the table mapping the names that are defined in this namespace to the corresponding
+   * elements. Unlike {@link #getDefinedNames()}, the table is not copied, so it must not be
+   * modified.
+   * 
+   * @return the table mapping the names defined in this namespace to the corresponding elements
+   */
+  Map<String, Element> getDefinedNamesWithoutCopying() {
+    return definedNames;
+  }
 }
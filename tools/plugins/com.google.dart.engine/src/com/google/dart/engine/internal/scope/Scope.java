@@ -26,8 +26,6 @@ import com.google.dart.engine.error.CompileTimeErrorCode;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.utilities.general.StringUtilities;
 
-import java.util.HashMap;
-
 /**
  * The abstract class {@code Scope} defines the behavior common to name scopes used by the resolver
  * to determine which names are visible at any given point in the code.
@@ -64,14 +62,9 @@ public abstract class Scope {
 
   /**
    * A table mapping names that are defined in this scope to the element representing the thing
-   * declared with that name.
+   * declared with that name, or {@code null} if no names have been defined in this scope.
    */
-  private HashMap<String, Element> definedNames = new HashMap<String, Element>();
-
-  /**
-   * A flag indicating whether there are any names defined in this scope.
-   */
-  private boolean hasName = false;
+  private ScopeNameTable definedNames;
 
   /**
    * Initialize a newly created scope to be empty.
@@ -91,11 +84,11 @@ public abstract class Scope {
   public void define(Element element) {
     String name = getName(element);
     if (name != null && !name.isEmpty()) {
-      if (definedNames.containsKey(name)) {
-        getErrorListener().onError(getErrorForDuplicate(definedNames.get(name), element));
+      Element existing = definedNames == null ? null : definedNames.get(name);
+      if (existing != null) {
+        getErrorListener().onError(getErrorForDuplicate(existing, element));
       } else {
-        definedNames.put(name, element);
-        hasName = true;
+        defineNameWithoutChecking(name, element);
       }
     }
   }
@@ -129,8 +122,10 @@ public abstract class Scope {
    * @param element the element to be added to this scope
    */
   protected void defineNameWithoutChecking(String name, Element element) {
+    if (definedNames == null) {
+      definedNames = new ScopeNameTable();
+    }
     definedNames.put(name, element);
-    hasName = true;
   }
 
   /**
@@ -139,8 +134,7 @@ public abstract class Scope {
    * @param element the element to be added to this scope
    */
   protected void defineWithoutChecking(Element element) {
-    definedNames.put(getName(element), element);
-    hasName = true;
+    defineNameWithoutChecking(getName(element), element);
   }
 
   /**
@@ -214,7 +208,7 @@ public abstract class Scope {
    * @return the element with which the given name is associated
    */
   protected Element localLookup(String name, LibraryElement referencingLibrary) {
-    if (hasName) {
+    if (definedNames != null) {
       return definedNames.get(name);
     }
     return null;
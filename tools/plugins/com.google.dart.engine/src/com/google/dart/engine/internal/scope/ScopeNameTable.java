@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.scope;
+
+import com.google.dart.engine.element.Element;
+
+/**
+ * Instances of the class {@code ScopeNameTable} map names to the elements defined with those names.
+ * Most scopes (blocks, parameter lists and the like) define only a handful of names, so a small
+ * table is a pair of arrays that are searched linearly, which is cheaper to create and to search
+ * than a hash map. Once a table holds more than {@link #LINEAR_LIMIT} names it becomes an
+ * open-addressed hash table.
+ * <p>
+ * This class is not thread safe.
+ * 
+ * @coverage dart.engine.resolver
+ */
+public class ScopeNameTable {
+  /**
+   * The largest number of names that are searched linearly.
+   */
+  private static final int LINEAR_LIMIT = 8;
+
+  /**
+   * The number of slots in a table when it first becomes a hash table. This must be a power of two
+   * larger than twice {@link #LINEAR_LIMIT}.
+   */
+  private static final int INITIAL_HASHED_CAPACITY = 32;
+
+  /**
+   * The names in the table. While the table is searched linearly, the first {@link #count} slots
+   * are used, in the order in which the names were added. After that, names are stored in the slot
+   * indexed by their hash code and empty slots are {@code null}.
+   */
+  private String[] names = new String[4];
+
+  /**
+   * The elements associated with the names in the slot with the same index.
+   */
+  private Element[] elements = new Element[4];
+
+  /**
+   * The number of names in the table.
+   */
+  private int count = 0;
+
+  /**
+   * A flag indicating whether the names are stored by hash code rather than in order.
+   */
+  private boolean hashed = false;
+
+  /**
+   * Initialize a newly created table to be empty.
+   */
+  public ScopeNameTable() {
+    super();
+  }
+
+  /**
+   * Initialize a newly created table to be empty but large enough to hold the given number of names
+   * without being resized.
+   * 
+   * @param expectedSize the number of names that are expected to be added to the table
+   */
+  public ScopeNameTable(int expectedSize) {
+    if (expectedSize > LINEAR_LIMIT) {
+      int capacity = INITIAL_HASHED_CAPACITY;
+      while (capacity < expectedSize * 2) {
+        capacity *= 2;
+      }
+      names = new String[capacity];
+      elements = new Element[capacity];
+      hashed = true;
+    }
+  }
+
+  /**
+   * Return the element associated with the given name, or {@code null} if the name is not in this
+   * table.
+   * 
+   * @param name the name whose element is to be returned
+   * @return the element associated with the given name
+   */
+  public Element get(String name) {
+    if (hashed) {
+      int mask = names.length - 1;
+      int index = name.hashCode() & mask;
+      String current = names[index];
+      while (current != null) {
+        if (current == name || current.equals(name)) {
+          return elements[index];
+        }
+        index = (index + 1) & mask;
+        current = names[index];
+      }
+      return null;
+    }
+    for (int i = 0; i < count; i++) {
+      String current = names[i];
+      if (current == name || current.equals(name)) {
+        return elements[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Associate the given element with the given name, replacing any element that was previously
+   * associated with the name.
+   * 
+   * @param name the name with which the element is to be associated
+   * @param element the element to be associated with the name
+   */
+  public void put(String name, Element element) {
+    if (hashed) {
+      int mask = names.length - 1;
+      int index = name.hashCode() & mask;
+      String current = names[index];
+      while (current != null) {
+        if (current == name || current.equals(name)) {
+          elements[index] = element;
+          return;
+        }
+        index = (index + 1) & mask;
+        current = names[index];
+      }
+      names[index] = name;
+      elements[index] = element;
+      count++;
+      if (count * 2 > names.length) {
+        rehash(names.length * 2);
+      }
+      return;
+    }
+    for (int i = 0; i < count; i++) {
+      String current = names[i];
+      if (current == name || current.equals(name)) {
+        elements[i] = element;
+        return;
+      }
+    }
+    if (count == LINEAR_LIMIT) {
+      rehash(INITIAL_HASHED_CAPACITY);
+      put(name, element);
+      return;
+    }
+    if (count == names.length) {
+      String[] newNames = new String[LINEAR_LIMIT];
+      Element[] newElements = new Element[LINEAR_LIMIT];
+      System.arraycopy(names, 0, newNames, 0, count);
+      System.arraycopy(elements, 0, newElements, 0, count);
+      names = newNames;
+      elements = newElements;
+    }
+    names[count] = name;
+    elements[count] = element;
+    count++;
+  }
+
+  /**
+   * Return the number of names in this table.
+   * 
+   * @return the number of names in this table
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Store the names in this table by hash code in arrays with the given number of slots.
+   * 
+   * @param capacity the number of slots, which must be a power of two
+   */
+  private void rehash(int capacity) {
+    String[] oldNames = names;
+    Element[] oldElements = elements;
+    names = new String[capacity];
+    elements = new Element[capacity];
+    int mask = capacity - 1;
+    for (int i = 0; i < oldNames.length; i++) {
+      String name = oldNames[i];
+      if (name != null) {
+        int index = name.hashCode() & mask;
+        while (names[index] != null) {
+          index = (index + 1) & mask;
+        }
+        names[index] = name;
+        elements[index] = oldElements[i];
+      }
+    }
+    hashed = true;
+  }
+}
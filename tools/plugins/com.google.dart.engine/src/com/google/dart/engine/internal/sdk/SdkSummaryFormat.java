@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.sdk;
+
+/**
+ * The class {@code SdkSummaryFormat} defines the constants used to encode an SDK summary. A summary
+ * consists of a header (the format version, the SDK version and the modification stamps of the
+ * summarized sources), a table of strings, the declarations of all of the summarized elements in
+ * tree order, and finally the details (types, links between elements, constant values and the
+ * initializers of const constructors) of each element in the order in which the elements were
+ * declared.
+ * 
+ * @coverage dart.engine.sdk
+ */
+final class SdkSummaryFormat {
+  /**
+   * The version of the format. This must be incremented whenever the format changes.
+   */
+  static final int VERSION = 2;
+
+  /**
+   * The kinds of elements that can be declared.
+   */
+  static final byte CLASS = 1;
+  static final byte CONST_FIELD = 2;
+  static final byte CONST_TOP_LEVEL_VARIABLE = 3;
+  static final byte CONSTRUCTOR = 4;
+  static final byte DEFAULT_FIELD_FORMAL_PARAMETER = 5;
+  static final byte DEFAULT_PARAMETER = 6;
+  static final byte EXPORT = 7;
+  static final byte FIELD = 8;
+  static final byte FIELD_FORMAL_PARAMETER = 9;
+  static final byte FUNCTION = 10;
+  static final byte FUNCTION_TYPE_ALIAS = 11;
+  static final byte IMPORT = 12;
+  static final byte LIBRARY = 13;
+  static final byte METHOD = 14;
+  static final byte PARAMETER = 15;
+  static final byte PROPERTY_ACCESSOR = 16;
+  static final byte TOP_LEVEL_VARIABLE = 17;
+  static final byte TYPE_PARAMETER = 18;
+  static final byte UNIT = 19;
+
+  /**
+   * The bits used to encode the boolean properties of an element.
+   */
+  static final int FLAG_ABSTRACT = 1 << 0;
+  static final int FLAG_ASYNCHRONOUS = 1 << 1;
+  static final int FLAG_CONST = 1 << 2;
+  static final int FLAG_DEFERRED = 1 << 3;
+  static final int FLAG_ENUM = 1 << 4;
+  static final int FLAG_FACTORY = 1 << 5;
+  static final int FLAG_FINAL = 1 << 6;
+  static final int FLAG_GENERATOR = 1 << 7;
+  static final int FLAG_GETTER = 1 << 8;
+  static final int FLAG_HAS_EXT_URI = 1 << 9;
+  static final int FLAG_HAS_INITIALIZER = 1 << 10;
+  static final int FLAG_REFERENCES_SUPER = 1 << 11;
+  static final int FLAG_SETTER = 1 << 12;
+  static final int FLAG_STATIC = 1 << 13;
+  static final int FLAG_SYNTHETIC = 1 << 14;
+  static final int FLAG_TYPEDEF = 1 << 15;
+  static final int FLAG_VALID_MIXIN = 1 << 16;
+
+  /**
+   * The values used to encode references to elements that are not declared in the summary.
+   */
+  static final int REFERENCE_NULL = -1;
+  static final int REFERENCE_CONSTRUCTOR_MEMBER = -2;
+
+  /**
+   * The kinds of types that can be encoded.
+   */
+  static final byte TYPE_NULL = 0;
+  static final byte TYPE_BOTTOM = 1;
+  static final byte TYPE_DYNAMIC = 2;
+  static final byte TYPE_FUNCTION = 3;
+  static final byte TYPE_INTERFACE = 4;
+  static final byte TYPE_SYNTHETIC_FUNCTION = 5;
+  static final byte TYPE_TYPE_PARAMETER = 6;
+  static final byte TYPE_VOID = 7;
+
+  /**
+   * The kinds of constant values that can be encoded.
+   */
+  static final byte VALUE_NONE = 0;
+  static final byte VALUE_BOOL = 1;
+  static final byte VALUE_DOUBLE = 2;
+  static final byte VALUE_GENERIC = 3;
+  static final byte VALUE_INT = 4;
+  static final byte VALUE_NULL = 5;
+  static final byte VALUE_STRING = 6;
+  static final byte VALUE_UNKNOWN = 7;
+
+  /**
+   * The kinds of constructor initializers that can be encoded.
+   */
+  static final byte INITIALIZER_FIELD = 1;
+  static final byte INITIALIZER_SUPER = 2;
+
+  /**
+   * The kinds of namespace combinators that can be encoded.
+   */
+  static final byte COMBINATOR_HIDE = 1;
+  static final byte COMBINATOR_SHOW = 2;
+
+  /**
+   * Prevent the creation of instances of this class.
+   */
+  private SdkSummaryFormat() {
+    super();
+  }
+}
@@ -0,0 +1,1023 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.sdk;
+
+import com.google.dart.engine.ast.ArgumentList;
+import com.google.dart.engine.ast.ConstructorFieldInitializer;
+import com.google.dart.engine.ast.ConstructorInitializer;
+import com.google.dart.engine.ast.Expression;
+import com.google.dart.engine.ast.Identifier;
+import com.google.dart.engine.ast.InstanceCreationExpression;
+import com.google.dart.engine.ast.Label;
+import com.google.dart.engine.ast.NamedExpression;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.ast.SuperConstructorInvocation;
+import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.ConstructorElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.ElementAnnotation;
+import com.google.dart.engine.element.ExecutableElement;
+import com.google.dart.engine.element.ExportElement;
+import com.google.dart.engine.element.FieldElement;
+import com.google.dart.engine.element.FunctionElement;
+import com.google.dart.engine.element.FunctionTypeAliasElement;
+import com.google.dart.engine.element.ImportElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.MethodElement;
+import com.google.dart.engine.element.NamespaceCombinator;
+import com.google.dart.engine.element.ParameterElement;
+import com.google.dart.engine.element.PropertyAccessorElement;
+import com.google.dart.engine.element.PropertyInducingElement;
+import com.google.dart.engine.element.TopLevelVariableElement;
+import com.google.dart.engine.element.TypeParameterElement;
+import com.google.dart.engine.error.BooleanErrorListener;
+import com.google.dart.engine.internal.constant.EvaluationResultImpl;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.internal.element.CompilationUnitElementImpl;
+import com.google.dart.engine.internal.element.ConstFieldElementImpl;
+import com.google.dart.engine.internal.element.ConstTopLevelVariableElementImpl;
+import com.google.dart.engine.internal.element.ConstructorElementImpl;
+import com.google.dart.engine.internal.element.DefaultFieldFormalParameterElementImpl;
+import com.google.dart.engine.internal.element.DefaultParameterElementImpl;
+import com.google.dart.engine.internal.element.ElementAnnotationImpl;
+import com.google.dart.engine.internal.element.ElementImpl;
+import com.google.dart.engine.internal.element.ExecutableElementImpl;
+import com.google.dart.engine.internal.element.ExportElementImpl;
+import com.google.dart.engine.internal.element.FieldElementImpl;
+import com.google.dart.engine.internal.element.FieldFormalParameterElementImpl;
+import com.google.dart.engine.internal.element.FunctionElementImpl;
+import com.google.dart.engine.internal.element.FunctionTypeAliasElementImpl;
+import com.google.dart.engine.internal.element.HideElementCombinatorImpl;
+import com.google.dart.engine.internal.element.ImportElementImpl;
+import com.google.dart.engine.internal.element.LibraryElementImpl;
+import com.google.dart.engine.internal.element.MethodElementImpl;
+import com.google.dart.engine.internal.element.ParameterElementImpl;
+import com.google.dart.engine.internal.element.PrefixElementImpl;
+import com.google.dart.engine.internal.element.PropertyAccessorElementImpl;
+import com.google.dart.engine.internal.element.PropertyInducingElementImpl;
+import com.google.dart.engine.internal.element.ShowElementCombinatorImpl;
+import com.google.dart.engine.internal.element.TopLevelVariableElementImpl;
+import com.google.dart.engine.internal.element.TypeParameterElementImpl;
+import com.google.dart.engine.internal.element.UriReferencedElementImpl;
+import com.google.dart.engine.internal.element.VariableElementImpl;
+import com.google.dart.engine.internal.element.member.ConstructorMember;
+import com.google.dart.engine.internal.object.BoolState;
+import com.google.dart.engine.internal.object.DartObjectImpl;
+import com.google.dart.engine.internal.object.DoubleState;
+import com.google.dart.engine.internal.object.GenericState;
+import com.google.dart.engine.internal.object.IntState;
+import com.google.dart.engine.internal.object.NullState;
+import com.google.dart.engine.internal.object.StringState;
+import com.google.dart.engine.internal.type.BottomTypeImpl;
+import com.google.dart.engine.internal.type.DynamicTypeImpl;
+import com.google.dart.engine.internal.type.FunctionTypeImpl;
+import com.google.dart.engine.internal.type.InterfaceTypeImpl;
+import com.google.dart.engine.internal.type.TypeParameterTypeImpl;
+import com.google.dart.engine.internal.type.VoidTypeImpl;
+import com.google.dart.engine.parser.Parser;
+import com.google.dart.engine.scanner.CharSequenceReader;
+import com.google.dart.engine.scanner.Keyword;
+import com.google.dart.engine.scanner.KeywordToken;
+import com.google.dart.engine.scanner.Scanner;
+import com.google.dart.engine.scanner.StringToken;
+import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.scanner.TokenType;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.SourceFactory;
+import com.google.dart.engine.type.FunctionType;
+import com.google.dart.engine.type.InterfaceType;
+import com.google.dart.engine.type.Type;
+import com.google.dart.engine.utilities.dart.ParameterKind;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Instances of the class {@code SdkSummaryReader} recreate the element models of a set of SDK
+ * libraries from a summary written by an {@link SdkSummaryWriter}. The format of the summary is
+ * described by {@link SdkSummaryFormat}.
+ * 
+ * @coverage dart.engine.sdk
+ */
+public class SdkSummaryReader {
+  /**
+   * Instances of the class {@code InitializerDataApplier} apply the resolution information written
+   * by {@code SdkSummaryWriter.InitializerDataCollector} to the initializers of a const constructor
+   * that were parsed from a summary, visiting the nodes in the same order in which they were
+   * collected.
+   */
+  private static class InitializerDataApplier extends RecursiveAstVisitor<Void> {
+    /**
+     * The static elements of the identifiers and super constructor invocations.
+     */
+    private final Element[] references;
+
+    /**
+     * The values of the instance creation expressions.
+     */
+    private final DartObjectImpl[] values;
+
+    /**
+     * The number of references that have been applied, or would have been applied if there had
+     * been enough of them.
+     */
+    private int referenceCount = 0;
+
+    /**
+     * The number of values that have been applied, or would have been applied if there had been
+     * enough of them.
+     */
+    private int valueCount = 0;
+
+    /**
+     * Initialize a newly created applier to apply the given references and values.
+     * 
+     * @param references the static elements of the identifiers and super constructor invocations
+     * @param values the values of the instance creation expressions
+     */
+    public InitializerDataApplier(Element[] references, DartObjectImpl[] values) {
+      this.references = references;
+      this.values = values;
+    }
+
+    /**
+     * Return {@code true} if the visited nodes consumed exactly the references and values that
+     * were written, which means that the parsed initializers have the structure of the initializers
+     * from which they were written.
+     * 
+     * @return {@code true} if the parsed initializers match the written data
+     */
+    public boolean isComplete() {
+      return referenceCount == references.length && valueCount == values.length;
+    }
+
+    @Override
+    public Void visitInstanceCreationExpression(InstanceCreationExpression node) {
+      if (valueCount < values.length && values[valueCount] != null) {
+        node.setEvaluationResult(new EvaluationResultImpl(values[valueCount]));
+      }
+      valueCount++;
+      return super.visitInstanceCreationExpression(node);
+    }
+
+    @Override
+    public Void visitSimpleIdentifier(SimpleIdentifier node) {
+      if (referenceCount < references.length) {
+        node.setStaticElement(references[referenceCount]);
+      }
+      referenceCount++;
+      return null;
+    }
+
+    @Override
+    public Void visitSuperConstructorInvocation(SuperConstructorInvocation node) {
+      if (referenceCount < references.length) {
+        node.setStaticElement((ConstructorElement) references[referenceCount]);
+      }
+      referenceCount++;
+      return super.visitSuperConstructorInvocation(node);
+    }
+  }
+
+  /**
+   * The context in which the libraries being read are analyzed.
+   */
+  private final AnalysisContext context;
+
+  /**
+   * The stream from which the summary will be read.
+   */
+  private final DataInputStream input;
+
+  /**
+   * The strings in the string table of the summary.
+   */
+  private String[] strings;
+
+  /**
+   * The sources of the compilation units in the summary.
+   */
+  private Source[] sources;
+
+  /**
+   * The elements in the summary, indexed by the order in which they were declared.
+   */
+  private ElementImpl[] elements;
+
+  /**
+   * The number of elements that have been declared so far.
+   */
+  private int elementCount = 0;
+
+  /**
+   * A table mapping the names of the prefixes used by the library currently being read to the
+   * prefix elements, which are shared by all of the imports using the same prefix.
+   */
+  private HashMap<String, PrefixElementImpl> prefixes;
+
+  /**
+   * Initialize a newly created reader to read a summary from the given stream.
+   * 
+   * @param context the context in which the libraries being read are analyzed
+   * @param stream the stream from which the summary will be read
+   */
+  public SdkSummaryReader(AnalysisContext context, InputStream stream) {
+    this.context = context;
+    input = new DataInputStream(stream);
+  }
+
+  /**
+   * Read the summary, returning a table mapping the sources of the summarized libraries to the
+   * recreated library elements, or {@code null} if the summary was written in a different format,
+   * for a different version of the SDK, or before any of the summarized sources were last modified.
+   * 
+   * @param sdkVersion the version of the SDK containing the libraries
+   * @return a table mapping library sources to the library elements read from the summary
+   * @throws IOException if the summary could not be read
+   */
+  public HashMap<Source, LibraryElement> read(String sdkVersion) throws IOException {
+    if (input.readInt() != SdkSummaryFormat.VERSION) {
+      return null;
+    }
+    if (!input.readUTF().equals(sdkVersion)) {
+      return null;
+    }
+    SourceFactory factory = context.getSourceFactory();
+    sources = new Source[input.readInt()];
+    for (int i = 0; i < sources.length; i++) {
+      Source source = factory.forUri(input.readUTF());
+      long modificationStamp = input.readLong();
+      if (source == null || context.getModificationStamp(source) != modificationStamp) {
+        return null;
+      }
+      sources[i] = source;
+    }
+    strings = new String[input.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = input.readUTF();
+    }
+    elements = new ElementImpl[input.readInt()];
+    LibraryElement[] libraries = new LibraryElement[input.readInt()];
+    for (int i = 0; i < libraries.length; i++) {
+      libraries[i] = (LibraryElement) readElement();
+    }
+    if (elementCount != elements.length) {
+      throw new IOException("Expected " + elements.length + " elements but found " + elementCount);
+    }
+    for (ElementImpl element : elements) {
+      readDetails(element);
+    }
+    HashMap<Source, LibraryElement> libraryMap = new HashMap<Source, LibraryElement>();
+    for (LibraryElement library : libraries) {
+      libraryMap.put(library.getSource(), library);
+    }
+    return libraryMap;
+  }
+
+  /**
+   * Apply the boolean properties encoded in the given flags to the given element.
+   * 
+   * @param element the element whose properties are to be set
+   * @param flags the bits encoding the boolean properties of the element
+   */
+  private void applyFlags(ElementImpl element, int flags) {
+    element.setSynthetic(isSet(flags, SdkSummaryFormat.FLAG_SYNTHETIC));
+    if (element instanceof LibraryElementImpl) {
+      ((LibraryElementImpl) element).setHasExtUri(isSet(flags, SdkSummaryFormat.FLAG_HAS_EXT_URI));
+    } else if (element instanceof ClassElementImpl) {
+      ClassElementImpl classElement = (ClassElementImpl) element;
+      classElement.setAbstract(isSet(flags, SdkSummaryFormat.FLAG_ABSTRACT));
+      classElement.setEnum(isSet(flags, SdkSummaryFormat.FLAG_ENUM));
+      classElement.setTypedef(isSet(flags, SdkSummaryFormat.FLAG_TYPEDEF));
+      classElement.setValidMixin(isSet(flags, SdkSummaryFormat.FLAG_VALID_MIXIN));
+      classElement.setHasReferenceToSuper(isSet(flags, SdkSummaryFormat.FLAG_REFERENCES_SUPER));
+    } else if (element instanceof ExecutableElementImpl) {
+      ExecutableElementImpl executable = (ExecutableElementImpl) element;
+      executable.setAsynchronous(isSet(flags, SdkSummaryFormat.FLAG_ASYNCHRONOUS));
+      executable.setGenerator(isSet(flags, SdkSummaryFormat.FLAG_GENERATOR));
+      if (element instanceof ConstructorElementImpl) {
+        ConstructorElementImpl constructor = (ConstructorElementImpl) element;
+        constructor.setConst(isSet(flags, SdkSummaryFormat.FLAG_CONST));
+        constructor.setFactory(isSet(flags, SdkSummaryFormat.FLAG_FACTORY));
+      } else if (element instanceof MethodElementImpl) {
+        MethodElementImpl method = (MethodElementImpl) element;
+        method.setAbstract(isSet(flags, SdkSummaryFormat.FLAG_ABSTRACT));
+        method.setStatic(isSet(flags, SdkSummaryFormat.FLAG_STATIC));
+      } else if (element instanceof PropertyAccessorElementImpl) {
+        PropertyAccessorElementImpl accessor = (PropertyAccessorElementImpl) element;
+        accessor.setAbstract(isSet(flags, SdkSummaryFormat.FLAG_ABSTRACT));
+        accessor.setGetter(isSet(flags, SdkSummaryFormat.FLAG_GETTER));
+        accessor.setSetter(isSet(flags, SdkSummaryFormat.FLAG_SETTER));
+        accessor.setStatic(isSet(flags, SdkSummaryFormat.FLAG_STATIC));
+      }
+    } else if (element instanceof VariableElementImpl) {
+      VariableElementImpl variable = (VariableElementImpl) element;
+      variable.setConst(isSet(flags, SdkSummaryFormat.FLAG_CONST));
+      variable.setFinal(isSet(flags, SdkSummaryFormat.FLAG_FINAL));
+      if (element instanceof FieldElementImpl) {
+        ((FieldElementImpl) element).setStatic(isSet(flags, SdkSummaryFormat.FLAG_STATIC));
+      }
+    } else if (element instanceof ImportElementImpl) {
+      ((ImportElementImpl) element).setDeferred(isSet(flags, SdkSummaryFormat.FLAG_DEFERRED));
+    }
+  }
+
+  /**
+   * Create an element of the given kind.
+   * 
+   * @param kind the kind of element to be created
+   * @param name the name of the element
+   * @param nameOffset the offset of the name of the element
+   * @return the element that was created
+   * @throws IOException if the kind is not valid
+   */
+  private ElementImpl createElement(byte kind, String name, int nameOffset) throws IOException {
+    switch (kind) {
+      case SdkSummaryFormat.CLASS:
+        return new ClassElementImpl(name, nameOffset);
+      case SdkSummaryFormat.CONST_FIELD:
+        return new ConstFieldElementImpl(name, nameOffset);
+      case SdkSummaryFormat.CONST_TOP_LEVEL_VARIABLE:
+        return new ConstTopLevelVariableElementImpl(name, nameOffset);
+      case SdkSummaryFormat.CONSTRUCTOR:
+        return new ConstructorElementImpl(name, nameOffset);
+      case SdkSummaryFormat.DEFAULT_FIELD_FORMAL_PARAMETER:
+        return new DefaultFieldFormalParameterElementImpl(name, nameOffset);
+      case SdkSummaryFormat.DEFAULT_PARAMETER:
+        return new DefaultParameterElementImpl(name, nameOffset);
+      case SdkSummaryFormat.EXPORT:
+        ExportElementImpl exportElement = new ExportElementImpl();
+        exportElement.setNameOffset(nameOffset);
+        return exportElement;
+      case SdkSummaryFormat.FIELD:
+        return new FieldElementImpl(name, nameOffset);
+      case SdkSummaryFormat.FIELD_FORMAL_PARAMETER:
+        return new FieldFormalParameterElementImpl(name, nameOffset);
+      case SdkSummaryFormat.FUNCTION:
+        return new FunctionElementImpl(name, nameOffset);
+      case SdkSummaryFormat.FUNCTION_TYPE_ALIAS:
+        return new FunctionTypeAliasElementImpl(name, nameOffset);
+      case SdkSummaryFormat.IMPORT:
+        return new ImportElementImpl(nameOffset);
+      case SdkSummaryFormat.LIBRARY:
+        return new LibraryElementImpl(context, name, nameOffset);
+      case SdkSummaryFormat.METHOD:
+        return new MethodElementImpl(name, nameOffset);
+      case SdkSummaryFormat.PARAMETER:
+        return new ParameterElementImpl(name, nameOffset);
+      case SdkSummaryFormat.PROPERTY_ACCESSOR:
+        return new PropertyAccessorElementImpl(name, nameOffset);
+      case SdkSummaryFormat.TOP_LEVEL_VARIABLE:
+        return new TopLevelVariableElementImpl(name, nameOffset);
+      case SdkSummaryFormat.TYPE_PARAMETER:
+        TypeParameterElementImpl typeParameter = new TypeParameterElementImpl(name, nameOffset);
+        typeParameter.setType(new TypeParameterTypeImpl(typeParameter));
+        return typeParameter;
+      case SdkSummaryFormat.UNIT:
+        return new CompilationUnitElementImpl(name);
+      default:
+        throw new IOException("Invalid element kind: " + kind);
+    }
+  }
+
+  /**
+   * Return a synthetic identifier with the given name.
+   * 
+   * @param name the name of the identifier
+   * @return the identifier that was created
+   */
+  private SimpleIdentifier createIdentifier(String name) {
+    return new SimpleIdentifier(new StringToken(TokenType.IDENTIFIER, name, 0));
+  }
+
+  /**
+   * Return {@code true} if the given bit is set in the given flags.
+   * 
+   * @param flags the flags being tested
+   * @param bit the bit being tested for
+   * @return {@code true} if the bit is set
+   */
+  private boolean isSet(int flags, int bit) {
+    return (flags & bit) != 0;
+  }
+
+  /**
+   * Read the declarations of an array of property accessors.
+   * 
+   * @return the property accessors that were read
+   * @throws IOException if the declarations could not be read
+   */
+  private PropertyAccessorElement[] readAccessors() throws IOException {
+    PropertyAccessorElement[] accessors = new PropertyAccessorElement[input.readInt()];
+    for (int i = 0; i < accessors.length; i++) {
+      accessors[i] = (PropertyAccessorElement) readElement();
+    }
+    return accessors;
+  }
+
+  /**
+   * Read the declarations of an array of classes.
+   * 
+   * @return the classes that were read
+   * @throws IOException if the declarations could not be read
+   */
+  private ClassElement[] readClasses() throws IOException {
+    ClassElement[] classes = new ClassElement[input.readInt()];
+    for (int i = 0; i < classes.length; i++) {
+      classes[i] = (ClassElement) readElement();
+    }
+    return classes;
+  }
+
+  /**
+   * Read the namespace combinators associated with an import or export.
+   * 
+   * @return the combinators that were read
+   * @throws IOException if the combinators could not be read
+   */
+  private NamespaceCombinator[] readCombinators() throws IOException {
+    NamespaceCombinator[] combinators = new NamespaceCombinator[input.readInt()];
+    for (int i = 0; i < combinators.length; i++) {
+      byte kind = input.readByte();
+      if (kind == SdkSummaryFormat.COMBINATOR_SHOW) {
+        ShowElementCombinatorImpl show = new ShowElementCombinatorImpl();
+        show.setOffset(input.readInt());
+        show.setEnd(input.readInt());
+        show.setShownNames(readStrings());
+        combinators[i] = show;
+      } else if (kind == SdkSummaryFormat.COMBINATOR_HIDE) {
+        HideElementCombinatorImpl hide = new HideElementCombinatorImpl();
+        hide.setHiddenNames(readStrings());
+        combinators[i] = hide;
+      } else {
+        throw new IOException("Invalid combinator kind: " + kind);
+      }
+    }
+    return combinators;
+  }
+
+  /**
+   * Read the constant initializers of the given constructor, if it has any. The expressions are
+   * parsed and then given the resolution information that the constant evaluator needs. This
+   * mirrors {@code SdkSummaryWriter.writeConstantInitializers}.
+   * 
+   * @param constructor the constructor whose initializers are to be read
+   * @throws IOException if the initializers could not be read
+   */
+  private void readConstantInitializers(ConstructorElementImpl constructor) throws IOException {
+    int initializerCount = input.readInt();
+    if (initializerCount < 0) {
+      return;
+    }
+    Source source = constructor.getSource();
+    boolean valid = true;
+    ArrayList<ConstructorInitializer> initializers = new ArrayList<ConstructorInitializer>();
+    for (int i = 0; i < initializerCount; i++) {
+      byte kind = input.readByte();
+      if (kind == SdkSummaryFormat.INITIALIZER_FIELD) {
+        SimpleIdentifier fieldName = createIdentifier(readString());
+        Expression expression = readExpression(source);
+        if (expression == null) {
+          valid = false;
+        } else {
+          initializers.add(new ConstructorFieldInitializer(
+              null,
+              null,
+              fieldName,
+              new Token(TokenType.EQ, 0),
+              expression));
+        }
+      } else if (kind == SdkSummaryFormat.INITIALIZER_SUPER) {
+        String name = readString();
+        ArrayList<Expression> arguments = new ArrayList<Expression>();
+        int argumentCount = input.readInt();
+        for (int j = 0; j < argumentCount; j++) {
+          String argumentName = readString();
+          Expression argument = readExpression(source);
+          if (argument == null) {
+            valid = false;
+          } else if (argumentName == null) {
+            arguments.add(argument);
+          } else {
+            Label label = new Label(createIdentifier(argumentName), new Token(TokenType.COLON, 0));
+            arguments.add(new NamedExpression(label, argument));
+          }
+        }
+        initializers.add(new SuperConstructorInvocation(
+            new KeywordToken(Keyword.SUPER, 0),
+            name == null ? null : new Token(TokenType.PERIOD, 0),
+            name == null ? null : createIdentifier(name),
+            new ArgumentList(
+                new Token(TokenType.OPEN_PAREN, 0),
+                arguments,
+                new Token(TokenType.CLOSE_PAREN, 0))));
+      } else {
+        throw new IOException("Invalid initializer kind: " + kind);
+      }
+    }
+    Element[] references = new Element[input.readInt()];
+    for (int i = 0; i < references.length; i++) {
+      references[i] = readReference();
+    }
+    DartObjectImpl[] values = new DartObjectImpl[input.readInt()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = readValue();
+    }
+    if (!valid) {
+      return;
+    }
+    InitializerDataApplier applier = new InitializerDataApplier(references, values);
+    for (ConstructorInitializer initializer : initializers) {
+      initializer.accept(applier);
+    }
+    if (applier.isComplete()) {
+      constructor.setConstantInitializers(initializers);
+    }
+  }
+
+  /**
+   * Read the details of the given element. This mirrors {@code SdkSummaryWriter.writeDetails}.
+   * 
+   * @param element the element whose details are to be read
+   * @throws IOException if the details could not be read
+   */
+  private void readDetails(ElementImpl element) throws IOException {
+    int annotationCount = input.readInt();
+    if (annotationCount > 0) {
+      ElementAnnotation[] metadata = new ElementAnnotation[annotationCount];
+      for (int i = 0; i < annotationCount; i++) {
+        metadata[i] = new ElementAnnotationImpl(readReference());
+      }
+      element.setMetadata(metadata);
+    }
+    if (element instanceof LibraryElementImpl) {
+      ((LibraryElementImpl) element).setEntryPoint((FunctionElement) readReference());
+    } else if (element instanceof ClassElementImpl) {
+      ClassElementImpl classElement = (ClassElementImpl) element;
+      classElement.setSupertype((InterfaceType) readType());
+      classElement.setMixins(readInterfaceTypes());
+      classElement.setInterfaces(readInterfaceTypes());
+      classElement.setType((InterfaceType) readType());
+    } else if (element instanceof FunctionTypeAliasElementImpl) {
+      FunctionTypeAliasElementImpl alias = (FunctionTypeAliasElementImpl) element;
+      alias.setReturnType(readType());
+      alias.setType((FunctionType) readType());
+    } else if (element instanceof ExecutableElementImpl) {
+      ExecutableElementImpl executable = (ExecutableElementImpl) element;
+      executable.setReturnType(readType());
+      executable.setType((FunctionType) readType());
+      if (element instanceof ConstructorElementImpl) {
+        ConstructorElementImpl constructor = (ConstructorElementImpl) element;
+        constructor.setRedirectedConstructor((ConstructorElement) readReference());
+        readConstantInitializers(constructor);
+      } else if (element instanceof PropertyAccessorElementImpl) {
+        PropertyInducingElement variable = (PropertyInducingElement) readReference();
+        ((PropertyAccessorElementImpl) element).setVariable(variable);
+      }
+    } else if (element instanceof VariableElementImpl) {
+      VariableElementImpl variable = (VariableElementImpl) element;
+      variable.setType(readType());
+      if (element instanceof PropertyInducingElementImpl) {
+        PropertyInducingElementImpl property = (PropertyInducingElementImpl) element;
+        property.setGetter((PropertyAccessorElement) readReference());
+        property.setSetter((PropertyAccessorElement) readReference());
+        property.setPropagatedType(readType());
+      } else if (element instanceof FieldFormalParameterElementImpl) {
+        ((FieldFormalParameterElementImpl) element).setField((FieldElement) readReference());
+      }
+      DartObjectImpl value = readValue();
+      if (value != null) {
+        variable.setEvaluationResult(new EvaluationResultImpl(value));
+      }
+    } else if (element instanceof TypeParameterElementImpl) {
+      ((TypeParameterElementImpl) element).setBound(readType());
+    } else if (element instanceof ImportElementImpl) {
+      ((ImportElementImpl) element).setImportedLibrary((LibraryElement) readReference());
+    } else if (element instanceof ExportElementImpl) {
+      ((ExportElementImpl) element).setExportedLibrary((LibraryElement) readReference());
+    }
+  }
+
+  /**
+   * Read the declaration of an element, and recursively the elements it contains. This mirrors
+   * {@code SdkSummaryWriter.writeElement}.
+   * 
+   * @return the element that was read
+   * @throws IOException if the declaration could not be read
+   */
+  private ElementImpl readElement() throws IOException {
+    byte kind = input.readByte();
+    String name = readString();
+    int nameOffset = input.readInt();
+    int flags = input.readInt();
+    ElementImpl element = createElement(kind, name, nameOffset);
+    elements[elementCount++] = element;
+    applyFlags(element, flags);
+    if (element instanceof LibraryElementImpl) {
+      LibraryElementImpl library = (LibraryElementImpl) element;
+      prefixes = new HashMap<String, PrefixElementImpl>();
+      library.setDefiningCompilationUnit((CompilationUnitElement) readElement());
+      library.setParts(readUnits());
+      ImportElement[] imports = new ImportElement[input.readInt()];
+      for (int i = 0; i < imports.length; i++) {
+        imports[i] = (ImportElement) readElement();
+      }
+      library.setImports(imports);
+      ExportElement[] exports = new ExportElement[input.readInt()];
+      for (int i = 0; i < exports.length; i++) {
+        exports[i] = (ExportElement) readElement();
+      }
+      library.setExports(exports);
+    } else if (element instanceof CompilationUnitElementImpl) {
+      CompilationUnitElementImpl unit = (CompilationUnitElementImpl) element;
+      unit.setSource(sources[input.readInt()]);
+      readUriReference(unit);
+      unit.setTypes(readClasses());
+      unit.setEnums(readClasses());
+      FunctionTypeAliasElement[] typeAliases = new FunctionTypeAliasElement[input.readInt()];
+      for (int i = 0; i < typeAliases.length; i++) {
+        typeAliases[i] = (FunctionTypeAliasElement) readElement();
+      }
+      unit.setTypeAliases(typeAliases);
+      FunctionElement[] functions = new FunctionElement[input.readInt()];
+      for (int i = 0; i < functions.length; i++) {
+        functions[i] = (FunctionElement) readElement();
+      }
+      unit.setFunctions(functions);
+      TopLevelVariableElement[] variables = new TopLevelVariableElement[input.readInt()];
+      for (int i = 0; i < variables.length; i++) {
+        variables[i] = (TopLevelVariableElement) readElement();
+      }
+      unit.setTopLevelVariables(variables);
+      unit.setAccessors(readAccessors());
+    } else if (element instanceof ClassElementImpl) {
+      ClassElementImpl classElement = (ClassElementImpl) element;
+      classElement.setTypeParameters(readTypeParameters());
+      FieldElement[] fields = new FieldElement[input.readInt()];
+      for (int i = 0; i < fields.length; i++) {
+        fields[i] = (FieldElement) readElement();
+      }
+      classElement.setFields(fields);
+      classElement.setAccessors(readAccessors());
+      ConstructorElement[] constructors = new ConstructorElement[input.readInt()];
+      for (int i = 0; i < constructors.length; i++) {
+        constructors[i] = (ConstructorElement) readElement();
+      }
+      classElement.setConstructors(constructors);
+      MethodElement[] methods = new MethodElement[input.readInt()];
+      for (int i = 0; i < methods.length; i++) {
+        methods[i] = (MethodElement) readElement();
+      }
+      classElement.setMethods(methods);
+    } else if (element instanceof FunctionTypeAliasElementImpl) {
+      FunctionTypeAliasElementImpl alias = (FunctionTypeAliasElementImpl) element;
+      alias.setTypeParameters(readTypeParameters());
+      alias.setParameters(readParameters());
+    } else if (element instanceof ExecutableElementImpl) {
+      if (element instanceof FunctionElementImpl) {
+        int offset = input.readInt();
+        int length = input.readInt();
+        if (offset >= 0) {
+          ((FunctionElementImpl) element).setVisibleRange(offset, length);
+        }
+      }
+      ((ExecutableElementImpl) element).setParameters(readParameters());
+    } else if (element instanceof ParameterElementImpl) {
+      ParameterElementImpl parameter = (ParameterElementImpl) element;
+      parameter.setParameterKind(ParameterKind.values()[input.readByte()]);
+      parameter.setDefaultValueCode(readString());
+      int offset = input.readInt();
+      int length = input.readInt();
+      if (offset >= 0) {
+        parameter.setVisibleRange(offset, length);
+      }
+      readInitializer(parameter, flags);
+      parameter.setParameters(readParameters());
+    } else if (element instanceof VariableElementImpl) {
+      readInitializer((VariableElementImpl) element, flags);
+    } else if (element instanceof ImportElementImpl) {
+      ImportElementImpl importElement = (ImportElementImpl) element;
+      readUriReference(importElement);
+      String prefixName = readString();
+      int prefixNameOffset = input.readInt();
+      if (prefixName != null) {
+        PrefixElementImpl prefix = prefixes.get(prefixName);
+        if (prefix == null) {
+          prefix = new PrefixElementImpl(prefixName, prefixNameOffset);
+          prefixes.put(prefixName, prefix);
+        }
+        importElement.setPrefix(prefix);
+      }
+      importElement.setPrefixOffset(input.readInt());
+      importElement.setCombinators(readCombinators());
+    } else if (element instanceof ExportElementImpl) {
+      ExportElementImpl exportElement = (ExportElementImpl) element;
+      readUriReference(exportElement);
+      exportElement.setCombinators(readCombinators());
+    }
+    return element;
+  }
+
+  /**
+   * Read the source of an expression and return the result of parsing it, or {@code null} if the
+   * source could not be parsed.
+   * 
+   * @param source the source containing the expression
+   * @return the expression that was read
+   * @throws IOException if the expression could not be read
+   */
+  private Expression readExpression(Source source) throws IOException {
+    String code = readString();
+    BooleanErrorListener errorListener = new BooleanErrorListener();
+    Scanner scanner = new Scanner(source, new CharSequenceReader(code), errorListener);
+    Parser parser = new Parser(source, errorListener);
+    Expression expression = parser.parseExpression(scanner.tokenize());
+    if (errorListener.getErrorReported()) {
+      return null;
+    }
+    return expression;
+  }
+
+  /**
+   * If the given flags indicate that the given variable has an initializer, read the offset of the
+   * initializer and create the synthetic function representing it.
+   * 
+   * @param variable the variable whose initializer is to be read
+   * @param flags the bits encoding the boolean properties of the variable
+   * @throws IOException if the initializer could not be read
+   */
+  private void readInitializer(VariableElementImpl variable, int flags) throws IOException {
+    if (isSet(flags, SdkSummaryFormat.FLAG_HAS_INITIALIZER)) {
+      FunctionElementImpl initializer = new FunctionElementImpl(input.readInt());
+      initializer.setSynthetic(true);
+      variable.setInitializer(initializer);
+    }
+  }
+
+  /**
+   * Read an array of interface types.
+   * 
+   * @return the types that were read
+   * @throws IOException if the types could not be read
+   */
+  private InterfaceType[] readInterfaceTypes() throws IOException {
+    InterfaceType[] types = new InterfaceType[input.readInt()];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = (InterfaceType) readType();
+    }
+    return types;
+  }
+
+  /**
+   * Read the declarations of an array of parameters.
+   * 
+   * @return the parameters that were read
+   * @throws IOException if the declarations could not be read
+   */
+  private ParameterElement[] readParameters() throws IOException {
+    ParameterElement[] parameters = new ParameterElement[input.readInt()];
+    for (int i = 0; i < parameters.length; i++) {
+      parameters[i] = (ParameterElement) readElement();
+    }
+    return parameters;
+  }
+
+  /**
+   * Read a reference to an element.
+   * 
+   * @return the element that was referenced
+   * @throws IOException if the reference could not be read
+   */
+  private Element readReference() throws IOException {
+    int id = input.readInt();
+    if (id == SdkSummaryFormat.REFERENCE_NULL) {
+      return null;
+    } else if (id == SdkSummaryFormat.REFERENCE_CONSTRUCTOR_MEMBER) {
+      ConstructorElement baseConstructor = (ConstructorElement) readReference();
+      return ConstructorMember.from(baseConstructor, (InterfaceType) readType());
+    } else if (id < 0 || id >= elements.length) {
+      throw new IOException("Invalid element reference: " + id);
+    }
+    return elements[id];
+  }
+
+  /**
+   * Read a string, which can be {@code null}, from the string table.
+   * 
+   * @return the string that was read
+   * @throws IOException if the string could not be read
+   */
+  private String readString() throws IOException {
+    int id = input.readInt();
+    if (id < 0) {
+      return null;
+    }
+    return strings[id];
+  }
+
+  /**
+   * Read an array of strings.
+   * 
+   * @return the strings that were read
+   * @throws IOException if the strings could not be read
+   */
+  private String[] readStrings() throws IOException {
+    String[] result = new String[input.readInt()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = readString();
+    }
+    return result;
+  }
+
+  /**
+   * Read a type, which can be {@code null}.
+   * 
+   * @return the type that was read
+   * @throws IOException if the type could not be read
+   */
+  private Type readType() throws IOException {
+    byte kind = input.readByte();
+    switch (kind) {
+      case SdkSummaryFormat.TYPE_NULL:
+        return null;
+      case SdkSummaryFormat.TYPE_BOTTOM:
+        return BottomTypeImpl.getInstance();
+      case SdkSummaryFormat.TYPE_DYNAMIC:
+        return DynamicTypeImpl.getInstance();
+      case SdkSummaryFormat.TYPE_VOID:
+        return VoidTypeImpl.getInstance();
+      case SdkSummaryFormat.TYPE_TYPE_PARAMETER:
+        return ((TypeParameterElement) readReference()).getType();
+      case SdkSummaryFormat.TYPE_INTERFACE: {
+        InterfaceTypeImpl type = new InterfaceTypeImpl((ClassElement) readReference());
+        type.setTypeArguments(readTypes());
+        return type;
+      }
+      case SdkSummaryFormat.TYPE_FUNCTION: {
+        Element element = readReference();
+        FunctionTypeImpl type;
+        if (element instanceof FunctionTypeAliasElement) {
+          type = new FunctionTypeImpl((FunctionTypeAliasElement) element);
+        } else {
+          type = new FunctionTypeImpl((ExecutableElement) element);
+        }
+        type.setTypeArguments(readTypes());
+        return type;
+      }
+      case SdkSummaryFormat.TYPE_SYNTHETIC_FUNCTION: {
+        FunctionTypeAliasElementImpl alias = new FunctionTypeAliasElementImpl((Identifier) null);
+        alias.setSynthetic(true);
+        alias.setReturnType(readType());
+        ParameterElement[] parameters = new ParameterElement[input.readInt()];
+        for (int i = 0; i < parameters.length; i++) {
+          parameters[i] = (ParameterElement) readReference();
+        }
+        alias.shareParameters(parameters);
+        TypeParameterElement[] typeParameters = new TypeParameterElement[input.readInt()];
+        for (int i = 0; i < typeParameters.length; i++) {
+          typeParameters[i] = (TypeParameterElement) readReference();
+        }
+        alias.shareTypeParameters(typeParameters);
+        alias.setEnclosingElement(readReference());
+        FunctionTypeImpl type = new FunctionTypeImpl(alias);
+        type.setTypeArguments(readTypes());
+        return type;
+      }
+      default:
+        throw new IOException("Invalid type kind: " + kind);
+    }
+  }
+
+  /**
+   * Read the declarations of an array of type parameters.
+   * 
+   * @return the type parameters that were read
+   * @throws IOException if the declarations could not be read
+   */
+  private TypeParameterElement[] readTypeParameters() throws IOException {
+    TypeParameterElement[] typeParameters = new TypeParameterElement[input.readInt()];
+    for (int i = 0; i < typeParameters.length; i++) {
+      typeParameters[i] = (TypeParameterElement) readElement();
+    }
+    return typeParameters;
+  }
+
+  /**
+   * Read an array of types.
+   * 
+   * @return the types that were read
+   * @throws IOException if the types could not be read
+   */
+  private Type[] readTypes() throws IOException {
+    Type[] types = new Type[input.readInt()];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = readType();
+    }
+    return types;
+  }
+
+  /**
+   * Read the declarations of an array of compilation units.
+   * 
+   * @return the compilation units that were read
+   * @throws IOException if the declarations could not be read
+   */
+  private CompilationUnitElement[] readUnits() throws IOException {
+    CompilationUnitElement[] units = new CompilationUnitElement[input.readInt()];
+    for (int i = 0; i < units.length; i++) {
+      units[i] = (CompilationUnitElement) readElement();
+    }
+    return units;
+  }
+
+  /**
+   * Read the URI information associated with the given element.
+   * 
+   * @param element the element whose URI information is to be read
+   * @throws IOException if the information could not be read
+   */
+  private void readUriReference(UriReferencedElementImpl element) throws IOException {
+    element.setUri(readString());
+    element.setUriOffset(input.readInt());
+    element.setUriEnd(input.readInt());
+  }
+
+  /**
+   * Read a constant value, which can be {@code null}.
+   * 
+   * @return the value that was read
+   * @throws IOException if the value could not be read
+   */
+  private DartObjectImpl readValue() throws IOException {
+    byte kind = input.readByte();
+    if (kind == SdkSummaryFormat.VALUE_NONE) {
+      return null;
+    }
+    InterfaceType type = (InterfaceType) readType();
+    switch (kind) {
+      case SdkSummaryFormat.VALUE_BOOL:
+        return new DartObjectImpl(type, BoolState.from(input.readBoolean()));
+      case SdkSummaryFormat.VALUE_DOUBLE:
+        return new DartObjectImpl(type, new DoubleState(input.readDouble()));
+      case SdkSummaryFormat.VALUE_GENERIC:
+        HashMap<String, DartObjectImpl> fields = new HashMap<String, DartObjectImpl>();
+        int fieldCount = input.readInt();
+        for (int i = 0; i < fieldCount; i++) {
+          String fieldName = readString();
+          fields.put(fieldName, readValue());
+        }
+        return new DartObjectImpl(type, new GenericState(fields));
+      case SdkSummaryFormat.VALUE_INT:
+        return new DartObjectImpl(type, new IntState(new BigInteger(readString())));
+      case SdkSummaryFormat.VALUE_NULL:
+        return new DartObjectImpl(type, NullState.NULL_STATE);
+      case SdkSummaryFormat.VALUE_STRING:
+        return new DartObjectImpl(type, new StringState(readString()));
+      case SdkSummaryFormat.VALUE_UNKNOWN:
+        return unknownValue(type);
+      default:
+        throw new IOException("Invalid value kind: " + kind);
+    }
+  }
+
+  /**
+   * Return an object representing an unknown value of the given type. This must be consistent with
+   * the way the constant evaluator represents unknown values.
+   * 
+   * @param type the type of the unknown value
+   * @return an object representing an unknown value of the given type
+   */
+  private DartObjectImpl unknownValue(InterfaceType type) {
+    if (type.getElement().getLibrary().isDartCore()) {
+      String typeName = type.getName();
+      if (typeName.equals("bool")) {
+        return new DartObjectImpl(type, BoolState.UNKNOWN_VALUE);
+      } else if (typeName.equals("double")) {
+        return new DartObjectImpl(type, DoubleState.UNKNOWN_VALUE);
+      } else if (typeName.equals("int")) {
+        return new DartObjectImpl(type, IntState.UNKNOWN_VALUE);
+      } else if (typeName.equals("String")) {
+        return new DartObjectImpl(type, StringState.UNKNOWN_VALUE);
+      }
+    }
+    return new DartObjectImpl(type, GenericState.UNKNOWN_VALUE);
+  }
+}
@@ -0,0 +1,878 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.sdk;
+
+import com.google.common.collect.Maps;
+import com.google.dart.engine.ast.ConstructorFieldInitializer;
+import com.google.dart.engine.ast.ConstructorInitializer;
+import com.google.dart.engine.ast.Expression;
+import com.google.dart.engine.ast.InstanceCreationExpression;
+import com.google.dart.engine.ast.NamedExpression;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.ast.SuperConstructorInvocation;
+import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.ElementAnnotation;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.NamespaceCombinator;
+import com.google.dart.engine.element.PrefixElement;
+import com.google.dart.engine.internal.constant.EvaluationResultImpl;
+import com.google.dart.engine.internal.element.ClassElementImpl;
+import com.google.dart.engine.internal.element.CompilationUnitElementImpl;
+import com.google.dart.engine.internal.element.ConstFieldElementImpl;
+import com.google.dart.engine.internal.element.ConstTopLevelVariableElementImpl;
+import com.google.dart.engine.internal.element.ConstructorElementImpl;
+import com.google.dart.engine.internal.element.DefaultFieldFormalParameterElementImpl;
+import com.google.dart.engine.internal.element.DefaultParameterElementImpl;
+import com.google.dart.engine.internal.element.ElementAnnotationImpl;
+import com.google.dart.engine.internal.element.ElementImpl;
+import com.google.dart.engine.internal.element.ExecutableElementImpl;
+import com.google.dart.engine.internal.element.ExportElementImpl;
+import com.google.dart.engine.internal.element.FieldElementImpl;
+import com.google.dart.engine.internal.element.FieldFormalParameterElementImpl;
+import com.google.dart.engine.internal.element.FunctionElementImpl;
+import com.google.dart.engine.internal.element.FunctionTypeAliasElementImpl;
+import com.google.dart.engine.internal.element.HideElementCombinatorImpl;
+import com.google.dart.engine.internal.element.ImportElementImpl;
+import com.google.dart.engine.internal.element.LibraryElementImpl;
+import com.google.dart.engine.internal.element.MethodElementImpl;
+import com.google.dart.engine.internal.element.ParameterElementImpl;
+import com.google.dart.engine.internal.element.PropertyAccessorElementImpl;
+import com.google.dart.engine.internal.element.PropertyInducingElementImpl;
+import com.google.dart.engine.internal.element.ShowElementCombinatorImpl;
+import com.google.dart.engine.internal.element.TopLevelVariableElementImpl;
+import com.google.dart.engine.internal.element.TypeParameterElementImpl;
+import com.google.dart.engine.internal.element.UriReferencedElementImpl;
+import com.google.dart.engine.internal.element.VariableElementImpl;
+import com.google.dart.engine.internal.element.member.ConstructorMember;
+import com.google.dart.engine.internal.object.DartObjectImpl;
+import com.google.dart.engine.internal.type.BottomTypeImpl;
+import com.google.dart.engine.internal.type.DynamicTypeImpl;
+import com.google.dart.engine.internal.type.FunctionTypeImpl;
+import com.google.dart.engine.internal.type.InterfaceTypeImpl;
+import com.google.dart.engine.internal.type.TypeParameterTypeImpl;
+import com.google.dart.engine.internal.type.VoidTypeImpl;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.type.Type;
+import com.google.dart.engine.utilities.source.SourceRange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Instances of the class {@code SdkSummaryWriter} write a summary of the resolved element models of
+ * a set of SDK libraries so that the element models can be recreated by an {@link SdkSummaryReader}
+ * without scanning, parsing or resolving any of the sources in those libraries. The format of the
+ * summary is described by {@link SdkSummaryFormat}.
+ * 
+ * @coverage dart.engine.sdk
+ */
+public class SdkSummaryWriter {
+  /**
+   * Instances of the class {@code InitializerDataCollector} collect the resolution information
+   * that the constant evaluator needs from the initializers of a const constructor: the elements to
+   * which identifiers resolve and the values of instance creation expressions, in the order in
+   * which the nodes are visited. This mirrors {@code SdkSummaryReader.InitializerDataApplier}.
+   */
+  private static class InitializerDataCollector extends RecursiveAstVisitor<Void> {
+    /**
+     * The static elements of the identifiers and super constructor invocations that were visited.
+     */
+    private final ArrayList<Element> references = new ArrayList<Element>();
+
+    /**
+     * The values of the instance creation expressions that were visited.
+     */
+    private final ArrayList<DartObjectImpl> values = new ArrayList<DartObjectImpl>();
+
+    @Override
+    public Void visitInstanceCreationExpression(InstanceCreationExpression node) {
+      EvaluationResultImpl result = node.getEvaluationResult();
+      values.add(result == null ? null : result.getValue());
+      return super.visitInstanceCreationExpression(node);
+    }
+
+    @Override
+    public Void visitSimpleIdentifier(SimpleIdentifier node) {
+      references.add(node.getStaticElement());
+      return null;
+    }
+
+    @Override
+    public Void visitSuperConstructorInvocation(SuperConstructorInvocation node) {
+      references.add(node.getStaticElement());
+      return super.visitSuperConstructorInvocation(node);
+    }
+  }
+
+  /**
+   * The stream to which the summary will be written.
+   */
+  private final DataOutputStream output;
+
+  /**
+   * The buffer containing the declarations and details of the elements. The body is buffered
+   * because the string table that precedes it is not complete until the body has been written.
+   */
+  private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+
+  /**
+   * The stream used to write the body of the summary.
+   */
+  private final DataOutputStream body = new DataOutputStream(bodyBytes);
+
+  /**
+   * The strings that have been written, in the order in which they were first written.
+   */
+  private final ArrayList<String> strings = new ArrayList<String>();
+
+  /**
+   * A table mapping the strings that have been written to their index in {@link #strings}.
+   */
+  private final HashMap<String, Integer> stringIds = new HashMap<String, Integer>();
+
+  /**
+   * The elements that have been declared, in the order in which they were declared.
+   */
+  private final ArrayList<ElementImpl> elements = new ArrayList<ElementImpl>();
+
+  /**
+   * A table mapping the elements that have been declared to their index in {@link #elements}.
+   * Identity is used because the hash codes of elements depend on their location, which is
+   * expensive to compute.
+   */
+  private final IdentityHashMap<Element, Integer> elementIds = Maps.newIdentityHashMap();
+
+  /**
+   * The sources of the compilation units that have been declared.
+   */
+  private final ArrayList<Source> sources = new ArrayList<Source>();
+
+  /**
+   * Initialize a newly created writer to write a summary to the given stream.
+   * 
+   * @param stream the stream to which the summary will be written
+   */
+  public SdkSummaryWriter(OutputStream stream) {
+    output = new DataOutputStream(stream);
+  }
+
+  /**
+   * Write a summary of the given libraries, and of every library that they directly or indirectly
+   * import or export, to the stream associated with this writer.
+   * 
+   * @param context the context used to access the modification stamps of the sources
+   * @param sdkVersion the version of the SDK containing the libraries
+   * @param libraries the libraries to be summarized
+   * @throws IOException if the summary could not be written
+   * @throws IllegalStateException if the libraries reference an element or type that cannot be
+   *           represented in a summary
+   */
+  public void write(AnalysisContext context, String sdkVersion, LibraryElement[] libraries)
+      throws IOException {
+    ArrayList<LibraryElement> closure = computeClosure(libraries);
+    body.writeInt(closure.size());
+    for (LibraryElement library : closure) {
+      writeElement((LibraryElementImpl) library);
+    }
+    int elementCount = elements.size();
+    for (int i = 0; i < elementCount; i++) {
+      writeDetails(elements.get(i));
+    }
+    body.flush();
+    output.writeInt(SdkSummaryFormat.VERSION);
+    output.writeUTF(sdkVersion);
+    output.writeInt(sources.size());
+    for (Source source : sources) {
+      output.writeUTF(source.getUri().toString());
+      output.writeLong(context.getModificationStamp(source));
+    }
+    output.writeInt(strings.size());
+    for (String string : strings) {
+      output.writeUTF(string);
+    }
+    output.writeInt(elementCount);
+    bodyBytes.writeTo(output);
+    output.flush();
+  }
+
+  /**
+   * Return {@code true} if a reference to the given element, which can be {@code null}, can be
+   * written in this summary.
+   * 
+   * @param element the element being referenced
+   * @return {@code true} if the element can be referenced
+   */
+  private boolean canReference(Element element) {
+    if (element instanceof ConstructorMember) {
+      element = ((ConstructorMember) element).getBaseElement();
+    }
+    return element == null || elementIds.containsKey(element);
+  }
+
+  /**
+   * Return a list containing the given libraries followed by every library that they directly or
+   * indirectly import or export.
+   * 
+   * @param libraries the libraries whose closure is to be computed
+   * @return the given libraries and all of the libraries they depend on
+   */
+  private ArrayList<LibraryElement> computeClosure(LibraryElement[] libraries) {
+    ArrayList<LibraryElement> closure = new ArrayList<LibraryElement>();
+    IdentityHashMap<LibraryElement, Boolean> visited = Maps.newIdentityHashMap();
+    for (LibraryElement library : libraries) {
+      if (visited.put(library, Boolean.TRUE) == null) {
+        closure.add(library);
+      }
+    }
+    for (int i = 0; i < closure.size(); i++) {
+      LibraryElement library = closure.get(i);
+      for (LibraryElement importedLibrary : library.getImportedLibraries()) {
+        if (visited.put(importedLibrary, Boolean.TRUE) == null) {
+          closure.add(importedLibrary);
+        }
+      }
+      for (LibraryElement exportedLibrary : library.getExportedLibraries()) {
+        if (visited.put(exportedLibrary, Boolean.TRUE) == null) {
+          closure.add(exportedLibrary);
+        }
+      }
+    }
+    return closure;
+  }
+
+  /**
+   * Return the bits encoding the boolean properties of the given element.
+   * 
+   * @param element the element whose properties are to be encoded
+   * @return the bits encoding the boolean properties of the element
+   */
+  private int getFlags(ElementImpl element) {
+    int flags = 0;
+    if (element.isSynthetic()) {
+      flags |= SdkSummaryFormat.FLAG_SYNTHETIC;
+    }
+    if (element instanceof LibraryElementImpl) {
+      if (((LibraryElementImpl) element).hasExtUri()) {
+        flags |= SdkSummaryFormat.FLAG_HAS_EXT_URI;
+      }
+    } else if (element instanceof ClassElementImpl) {
+      ClassElementImpl classElement = (ClassElementImpl) element;
+      if (classElement.isAbstract()) {
+        flags |= SdkSummaryFormat.FLAG_ABSTRACT;
+      }
+      if (classElement.isEnum()) {
+        flags |= SdkSummaryFormat.FLAG_ENUM;
+      }
+      if (classElement.isTypedef()) {
+        flags |= SdkSummaryFormat.FLAG_TYPEDEF;
+      }
+      if (classElement.isValidMixin()) {
+        flags |= SdkSummaryFormat.FLAG_VALID_MIXIN;
+      }
+      if (classElement.hasReferenceToSuper()) {
+        flags |= SdkSummaryFormat.FLAG_REFERENCES_SUPER;
+      }
+    } else if (element instanceof ExecutableElementImpl) {
+      ExecutableElementImpl executable = (ExecutableElementImpl) element;
+      if (executable.isAsynchronous()) {
+        flags |= SdkSummaryFormat.FLAG_ASYNCHRONOUS;
+      }
+      if (executable.isGenerator()) {
+        flags |= SdkSummaryFormat.FLAG_GENERATOR;
+      }
+      if (element instanceof ConstructorElementImpl) {
+        ConstructorElementImpl constructor = (ConstructorElementImpl) element;
+        if (constructor.isConst()) {
+          flags |= SdkSummaryFormat.FLAG_CONST;
+        }
+        if (constructor.isFactory()) {
+          flags |= SdkSummaryFormat.FLAG_FACTORY;
+        }
+      } else if (element instanceof MethodElementImpl) {
+        MethodElementImpl method = (MethodElementImpl) element;
+        if (method.isAbstract()) {
+          flags |= SdkSummaryFormat.FLAG_ABSTRACT;
+        }
+        if (method.isStatic()) {
+          flags |= SdkSummaryFormat.FLAG_STATIC;
+        }
+      } else if (element instanceof PropertyAccessorElementImpl) {
+        PropertyAccessorElementImpl accessor = (PropertyAccessorElementImpl) element;
+        if (accessor.isAbstract()) {
+          flags |= SdkSummaryFormat.FLAG_ABSTRACT;
+        }
+        if (accessor.isGetter()) {
+          flags |= SdkSummaryFormat.FLAG_GETTER;
+        }
+        if (accessor.isSetter()) {
+          flags |= SdkSummaryFormat.FLAG_SETTER;
+        }
+        if (accessor.isStatic()) {
+          flags |= SdkSummaryFormat.FLAG_STATIC;
+        }
+      }
+    } else if (element instanceof VariableElementImpl) {
+      VariableElementImpl variable = (VariableElementImpl) element;
+      if (variable.isConst()) {
+        flags |= SdkSummaryFormat.FLAG_CONST;
+      }
+      if (variable.isFinal()) {
+        flags |= SdkSummaryFormat.FLAG_FINAL;
+      }
+      if (variable.getInitializer() != null) {
+        flags |= SdkSummaryFormat.FLAG_HAS_INITIALIZER;
+      }
+      if (element instanceof FieldElementImpl && ((FieldElementImpl) element).isStatic()) {
+        flags |= SdkSummaryFormat.FLAG_STATIC;
+      }
+    } else if (element instanceof ImportElementImpl) {
+      if (((ImportElementImpl) element).isDeferred()) {
+        flags |= SdkSummaryFormat.FLAG_DEFERRED;
+      }
+    }
+    return flags;
+  }
+
+  /**
+   * Return the kind of declaration used to represent the given element.
+   * 
+   * @param element the element being declared
+   * @return the kind of declaration used to represent the element
+   * @throws IllegalStateException if the element cannot be represented in a summary
+   */
+  private byte getKind(ElementImpl element) {
+    if (element instanceof DefaultFieldFormalParameterElementImpl) {
+      return SdkSummaryFormat.DEFAULT_FIELD_FORMAL_PARAMETER;
+    } else if (element instanceof FieldFormalParameterElementImpl) {
+      return SdkSummaryFormat.FIELD_FORMAL_PARAMETER;
+    } else if (element instanceof DefaultParameterElementImpl) {
+      return SdkSummaryFormat.DEFAULT_PARAMETER;
+    } else if (element instanceof ParameterElementImpl) {
+      return SdkSummaryFormat.PARAMETER;
+    } else if (element instanceof ConstFieldElementImpl) {
+      return SdkSummaryFormat.CONST_FIELD;
+    } else if (element instanceof FieldElementImpl) {
+      return SdkSummaryFormat.FIELD;
+    } else if (element instanceof ConstTopLevelVariableElementImpl) {
+      return SdkSummaryFormat.CONST_TOP_LEVEL_VARIABLE;
+    } else if (element instanceof TopLevelVariableElementImpl) {
+      return SdkSummaryFormat.TOP_LEVEL_VARIABLE;
+    } else if (element instanceof ClassElementImpl) {
+      return SdkSummaryFormat.CLASS;
+    } else if (element instanceof ConstructorElementImpl) {
+      return SdkSummaryFormat.CONSTRUCTOR;
+    } else if (element instanceof MethodElementImpl) {
+      return SdkSummaryFormat.METHOD;
+    } else if (element instanceof FunctionElementImpl) {
+      return SdkSummaryFormat.FUNCTION;
+    } else if (element instanceof PropertyAccessorElementImpl) {
+      return SdkSummaryFormat.PROPERTY_ACCESSOR;
+    } else if (element instanceof FunctionTypeAliasElementImpl) {
+      return SdkSummaryFormat.FUNCTION_TYPE_ALIAS;
+    } else if (element instanceof TypeParameterElementImpl) {
+      return SdkSummaryFormat.TYPE_PARAMETER;
+    } else if (element instanceof LibraryElementImpl) {
+      return SdkSummaryFormat.LIBRARY;
+    } else if (element instanceof CompilationUnitElementImpl) {
+      return SdkSummaryFormat.UNIT;
+    } else if (element instanceof ImportElementImpl) {
+      return SdkSummaryFormat.IMPORT;
+    } else if (element instanceof ExportElementImpl) {
+      return SdkSummaryFormat.EXPORT;
+    }
+    throw new IllegalStateException("Cannot summarize " + element.getClass().getName());
+  }
+
+  /**
+   * Write the namespace combinators associated with an import or export.
+   * 
+   * @param combinators the combinators to be written
+   * @throws IOException if the combinators could not be written
+   */
+  private void writeCombinators(NamespaceCombinator[] combinators) throws IOException {
+    body.writeInt(combinators.length);
+    for (NamespaceCombinator combinator : combinators) {
+      if (combinator instanceof ShowElementCombinatorImpl) {
+        ShowElementCombinatorImpl show = (ShowElementCombinatorImpl) combinator;
+        body.writeByte(SdkSummaryFormat.COMBINATOR_SHOW);
+        body.writeInt(show.getOffset());
+        body.writeInt(show.getEnd());
+        writeStrings(show.getShownNames());
+      } else {
+        body.writeByte(SdkSummaryFormat.COMBINATOR_HIDE);
+        writeStrings(((HideElementCombinatorImpl) combinator).getHiddenNames());
+      }
+    }
+  }
+
+  /**
+   * Write the initializers of a const constructor, which can be {@code null}, so that instances
+   * created by the constructor can still be evaluated when the element model is read from the
+   * summary. Each expression is written as source, followed by the elements and values that the
+   * constant evaluator needs from the resolved initializers. Initializers that refer to elements
+   * that are not declared in this summary are written as if the constructor had none.
+   * 
+   * @param initializers the initializers to be written
+   * @throws IOException if the initializers could not be written
+   */
+  private void writeConstantInitializers(List<ConstructorInitializer> initializers)
+      throws IOException {
+    if (initializers == null) {
+      body.writeInt(-1);
+      return;
+    }
+    //
+    // Only field initializers and super constructor invocations contribute to the value of an
+    // instance, so any other kind of initializer is ignored by the constant evaluator.
+    //
+    ArrayList<ConstructorInitializer> evaluatedInitializers;
+    evaluatedInitializers = new ArrayList<ConstructorInitializer>();
+    InitializerDataCollector collector = new InitializerDataCollector();
+    for (ConstructorInitializer initializer : initializers) {
+      if (initializer instanceof ConstructorFieldInitializer
+          || initializer instanceof SuperConstructorInvocation) {
+        evaluatedInitializers.add(initializer);
+        initializer.accept(collector);
+      }
+    }
+    for (Element reference : collector.references) {
+      if (!canReference(reference)) {
+        body.writeInt(-1);
+        return;
+      }
+    }
+    body.writeInt(evaluatedInitializers.size());
+    for (ConstructorInitializer initializer : evaluatedInitializers) {
+      if (initializer instanceof ConstructorFieldInitializer) {
+        ConstructorFieldInitializer fieldInitializer = (ConstructorFieldInitializer) initializer;
+        body.writeByte(SdkSummaryFormat.INITIALIZER_FIELD);
+        writeString(fieldInitializer.getFieldName().getName());
+        writeString(fieldInitializer.getExpression().toSource());
+      } else {
+        SuperConstructorInvocation invocation = (SuperConstructorInvocation) initializer;
+        body.writeByte(SdkSummaryFormat.INITIALIZER_SUPER);
+        SimpleIdentifier constructorName = invocation.getConstructorName();
+        writeString(constructorName == null ? null : constructorName.getName());
+        List<Expression> arguments = invocation.getArgumentList().getArguments();
+        body.writeInt(arguments.size());
+        for (Expression argument : arguments) {
+          if (argument instanceof NamedExpression) {
+            NamedExpression namedArgument = (NamedExpression) argument;
+            writeString(namedArgument.getName().getLabel().getName());
+            writeString(namedArgument.getExpression().toSource());
+          } else {
+            writeString(null);
+            writeString(argument.toSource());
+          }
+        }
+      }
+    }
+    body.writeInt(collector.references.size());
+    for (Element reference : collector.references) {
+      writeReference(reference);
+    }
+    body.writeInt(collector.values.size());
+    for (DartObjectImpl value : collector.values) {
+      writeValue(value);
+    }
+  }
+
+  /**
+   * Write the details of the given element: its metadata, its types, its references to other
+   * elements, its constant value and, for const constructors, its constant initializers. All of the
+   * elements must have been declared before the details of any element are written.
+   * 
+   * @param element the element whose details are to be written
+   * @throws IOException if the details could not be written
+   */
+  private void writeDetails(ElementImpl element) throws IOException {
+    ElementAnnotation[] metadata = element.getMetadata();
+    body.writeInt(metadata.length);
+    for (ElementAnnotation annotation : metadata) {
+      writeReference(((ElementAnnotationImpl) annotation).getElement());
+    }
+    if (element instanceof LibraryElementImpl) {
+      writeReference(((LibraryElementImpl) element).getEntryPoint());
+    } else if (element instanceof ClassElementImpl) {
+      ClassElementImpl classElement = (ClassElementImpl) element;
+      writeType(classElement.getSupertype());
+      writeTypes(classElement.getMixins());
+      writeTypes(classElement.getInterfaces());
+      writeType(classElement.getType());
+    } else if (element instanceof FunctionTypeAliasElementImpl) {
+      FunctionTypeAliasElementImpl alias = (FunctionTypeAliasElementImpl) element;
+      writeType(alias.getReturnType());
+      writeType(alias.getType());
+    } else if (element instanceof ExecutableElementImpl) {
+      ExecutableElementImpl executable = (ExecutableElementImpl) element;
+      writeType(executable.getReturnType());
+      writeType(executable.getType());
+      if (element instanceof ConstructorElementImpl) {
+        ConstructorElementImpl constructor = (ConstructorElementImpl) element;
+        writeReference(constructor.getRedirectedConstructor());
+        writeConstantInitializers(constructor.getConstantInitializers());
+      } else if (element instanceof PropertyAccessorElementImpl) {
+        writeReference(((PropertyAccessorElementImpl) element).getVariable());
+      }
+    } else if (element instanceof VariableElementImpl) {
+      VariableElementImpl variable = (VariableElementImpl) element;
+      writeType(variable.getType());
+      if (element instanceof PropertyInducingElementImpl) {
+        PropertyInducingElementImpl property = (PropertyInducingElementImpl) element;
+        writeReference(property.getGetter());
+        writeReference(property.getSetter());
+        writeType(property.getPropagatedType());
+      } else if (element instanceof FieldFormalParameterElementImpl) {
+        writeReference(((FieldFormalParameterElementImpl) element).getField());
+      }
+      EvaluationResultImpl result = variable.getEvaluationResult();
+      writeValue(result == null ? null : result.getValue());
+    } else if (element instanceof TypeParameterElementImpl) {
+      writeType(((TypeParameterElementImpl) element).getBound());
+    } else if (element instanceof ImportElementImpl) {
+      writeReference(((ImportElementImpl) element).getImportedLibrary());
+    } else if (element instanceof ExportElementImpl) {
+      writeReference(((ExportElementImpl) element).getExportedLibrary());
+    }
+  }
+
+  /**
+   * Declare the given element, and recursively the elements it contains, assigning each of them
+   * the index by which it will be referenced.
+   * 
+   * @param element the element to be declared
+   * @throws IOException if the declaration could not be written
+   */
+  private void writeElement(Element element) throws IOException {
+    ElementImpl elementImpl = (ElementImpl) element;
+    elementIds.put(elementImpl, elements.size());
+    elements.add(elementImpl);
+    body.writeByte(getKind(elementImpl));
+    if (element instanceof MethodElementImpl) {
+      writeString(element.getName());
+    } else {
+      writeString(element.getDisplayName());
+    }
+    body.writeInt(element.getNameOffset());
+    body.writeInt(getFlags(elementImpl));
+    if (element instanceof LibraryElementImpl) {
+      LibraryElementImpl library = (LibraryElementImpl) element;
+      writeElement(library.getDefiningCompilationUnit());
+      writeElements(library.getParts());
+      writeElements(library.getImports());
+      writeElements(library.getExports());
+    } else if (element instanceof CompilationUnitElementImpl) {
+      CompilationUnitElementImpl unit = (CompilationUnitElementImpl) element;
+      body.writeInt(sources.size());
+      sources.add(unit.getSource());
+      writeUriReference(unit);
+      writeElements(unit.getTypes());
+      writeElements(unit.getEnums());
+      writeElements(unit.getFunctionTypeAliases());
+      writeElements(unit.getFunctions());
+      writeElements(unit.getTopLevelVariables());
+      writeElements(unit.getAccessors());
+    } else if (element instanceof ClassElementImpl) {
+      ClassElementImpl classElement = (ClassElementImpl) element;
+      writeElements(classElement.getTypeParameters());
+      writeElements(classElement.getFields());
+      writeElements(classElement.getAccessors());
+      writeElements(classElement.getConstructors());
+      writeElements(classElement.getMethods());
+    } else if (element instanceof FunctionTypeAliasElementImpl) {
+      FunctionTypeAliasElementImpl alias = (FunctionTypeAliasElementImpl) element;
+      writeElements(alias.getTypeParameters());
+      writeElements(alias.getParameters());
+    } else if (element instanceof ExecutableElementImpl) {
+      if (element instanceof FunctionElementImpl) {
+        writeVisibleRange(((FunctionElementImpl) element).getVisibleRange());
+      }
+      writeElements(((ExecutableElementImpl) element).getParameters());
+    } else if (element instanceof ParameterElementImpl) {
+      ParameterElementImpl parameter = (ParameterElementImpl) element;
+      body.writeByte(parameter.getParameterKind().ordinal());
+      writeString(parameter.getDefaultValueCode());
+      writeVisibleRange(parameter.getVisibleRange());
+      writeInitializer(parameter);
+      writeElements(parameter.getParameters());
+    } else if (element instanceof VariableElementImpl) {
+      writeInitializer((VariableElementImpl) element);
+    } else if (element instanceof ImportElementImpl) {
+      ImportElementImpl importElement = (ImportElementImpl) element;
+      writeUriReference(importElement);
+      PrefixElement prefix = importElement.getPrefix();
+      if (prefix == null) {
+        writeString(null);
+        body.writeInt(-1);
+      } else {
+        writeString(prefix.getDisplayName());
+        body.writeInt(prefix.getNameOffset());
+      }
+      body.writeInt(importElement.getPrefixOffset());
+      writeCombinators(importElement.getCombinators());
+    } else if (element instanceof ExportElementImpl) {
+      ExportElementImpl exportElement = (ExportElementImpl) element;
+      writeUriReference(exportElement);
+      writeCombinators(exportElement.getCombinators());
+    }
+  }
+
+  /**
+   * Declare each of the given elements.
+   * 
+   * @param elements the elements to be declared
+   * @throws IOException if the declarations could not be written
+   */
+  private void writeElements(Element[] elements) throws IOException {
+    body.writeInt(elements.length);
+    for (Element element : elements) {
+      writeElement(element);
+    }
+  }
+
+  /**
+   * Write the offset of the synthetic function representing the initializer of the given variable,
+   * if it has one.
+   * 
+   * @param variable the variable whose initializer is to be written
+   * @throws IOException if the initializer could not be written
+   */
+  private void writeInitializer(VariableElementImpl variable) throws IOException {
+    if (variable.getInitializer() != null) {
+      body.writeInt(variable.getInitializer().getNameOffset());
+    }
+  }
+
+  /**
+   * Write a reference to the given element.
+   * 
+   * @param element the element being referenced
+   * @throws IOException if the reference could not be written
+   * @throws IllegalStateException if the element was not declared in this summary
+   */
+  private void writeReference(Element element) throws IOException {
+    if (element == null) {
+      body.writeInt(SdkSummaryFormat.REFERENCE_NULL);
+    } else if (element instanceof ConstructorMember) {
+      ConstructorMember member = (ConstructorMember) element;
+      body.writeInt(SdkSummaryFormat.REFERENCE_CONSTRUCTOR_MEMBER);
+      writeReference(member.getBaseElement());
+      writeType(member.getReturnType());
+    } else {
+      Integer id = elementIds.get(element);
+      if (id == null) {
+        throw new IllegalStateException("Cannot summarize reference to " + element);
+      }
+      body.writeInt(id.intValue());
+    }
+  }
+
+  /**
+   * Write the given string, which can be {@code null}, as an index into the string table.
+   * 
+   * @param string the string to be written
+   * @throws IOException if the string could not be written
+   */
+  private void writeString(String string) throws IOException {
+    if (string == null) {
+      body.writeInt(-1);
+      return;
+    }
+    Integer id = stringIds.get(string);
+    if (id == null) {
+      id = Integer.valueOf(strings.size());
+      strings.add(string);
+      stringIds.put(string, id);
+    }
+    body.writeInt(id.intValue());
+  }
+
+  /**
+   * Write the given array of strings.
+   * 
+   * @param strings the strings to be written
+   * @throws IOException if the strings could not be written
+   */
+  private void writeStrings(String[] strings) throws IOException {
+    body.writeInt(strings.length);
+    for (String string : strings) {
+      writeString(string);
+    }
+  }
+
+  /**
+   * Write the given type, which can be {@code null}.
+   * 
+   * @param type the type to be written
+   * @throws IOException if the type could not be written
+   * @throws IllegalStateException if the type cannot be represented in a summary
+   */
+  private void writeType(Type type) throws IOException {
+    if (type == null) {
+      body.writeByte(SdkSummaryFormat.TYPE_NULL);
+    } else if (type instanceof BottomTypeImpl) {
+      body.writeByte(SdkSummaryFormat.TYPE_BOTTOM);
+    } else if (type instanceof DynamicTypeImpl) {
+      body.writeByte(SdkSummaryFormat.TYPE_DYNAMIC);
+    } else if (type instanceof VoidTypeImpl) {
+      body.writeByte(SdkSummaryFormat.TYPE_VOID);
+    } else if (type instanceof TypeParameterTypeImpl) {
+      body.writeByte(SdkSummaryFormat.TYPE_TYPE_PARAMETER);
+      writeReference(type.getElement());
+    } else if (type instanceof InterfaceTypeImpl) {
+      body.writeByte(SdkSummaryFormat.TYPE_INTERFACE);
+      writeReference(type.getElement());
+      writeTypes(((InterfaceTypeImpl) type).getTypeArguments());
+    } else if (type instanceof FunctionTypeImpl) {
+      FunctionTypeImpl functionType = (FunctionTypeImpl) type;
+      Element element = functionType.getElement();
+      if (element instanceof FunctionTypeAliasElementImpl && element.isSynthetic()
+          && !elementIds.containsKey(element)) {
+        //
+        // The type of a function-typed parameter is defined by a synthetic type alias that is not
+        // part of the element model, so the alias is written in place.
+        //
+        FunctionTypeAliasElementImpl alias = (FunctionTypeAliasElementImpl) element;
+        body.writeByte(SdkSummaryFormat.TYPE_SYNTHETIC_FUNCTION);
+        writeType(alias.getReturnType());
+        writeReferences(alias.getParameters());
+        writeReferences(alias.getTypeParameters());
+        writeReference(alias.getEnclosingElement());
+      } else {
+        body.writeByte(SdkSummaryFormat.TYPE_FUNCTION);
+        writeReference(element);
+      }
+      writeTypes(functionType.getTypeArguments());
+    } else {
+      throw new IllegalStateException("Cannot summarize type " + type);
+    }
+  }
+
+  /**
+   * Write references to each of the given elements.
+   * 
+   * @param elements the elements being referenced
+   * @throws IOException if the references could not be written
+   */
+  private void writeReferences(Element[] elements) throws IOException {
+    body.writeInt(elements.length);
+    for (Element element : elements) {
+      writeReference(element);
+    }
+  }
+
+  /**
+   * Write each of the given types.
+   * 
+   * @param types the types to be written
+   * @throws IOException if the types could not be written
+   */
+  private void writeTypes(Type[] types) throws IOException {
+    body.writeInt(types.length);
+    for (Type type : types) {
+      writeType(type);
+    }
+  }
+
+  /**
+   * Write the URI information associated with the given element.
+   * 
+   * @param element the element whose URI information is to be written
+   * @throws IOException if the information could not be written
+   */
+  private void writeUriReference(UriReferencedElementImpl element) throws IOException {
+    writeString(element.getUri());
+    body.writeInt(element.getUriOffset());
+    body.writeInt(element.getUriEnd());
+  }
+
+  /**
+   * Write the given constant value, which can be {@code null}. Values that cannot be represented
+   * in a summary, such as lists and maps, are written as unknown values of the same type.
+   * 
+   * @param value the value to be written
+   * @throws IOException if the value could not be written
+   */
+  private void writeValue(DartObjectImpl value) throws IOException {
+    if (value == null) {
+      body.writeByte(SdkSummaryFormat.VALUE_NONE);
+      return;
+    }
+    Boolean boolValue = value.getBoolValue();
+    BigInteger intValue = value.getIntValue();
+    Double doubleValue = value.getDoubleValue();
+    String stringValue = value.getStringValue();
+    if (value.isNull()) {
+      body.writeByte(SdkSummaryFormat.VALUE_NULL);
+      writeType(value.getType());
+    } else if (value.isUnknown()) {
+      body.writeByte(SdkSummaryFormat.VALUE_UNKNOWN);
+      writeType(value.getType());
+    } else if (boolValue != null) {
+      body.writeByte(SdkSummaryFormat.VALUE_BOOL);
+      writeType(value.getType());
+      body.writeBoolean(boolValue.booleanValue());
+    } else if (intValue != null) {
+      body.writeByte(SdkSummaryFormat.VALUE_INT);
+      writeType(value.getType());
+      writeString(intValue.toString());
+    } else if (doubleValue != null) {
+      body.writeByte(SdkSummaryFormat.VALUE_DOUBLE);
+      writeType(value.getType());
+      body.writeDouble(doubleValue.doubleValue());
+    } else if (stringValue != null) {
+      body.writeByte(SdkSummaryFormat.VALUE_STRING);
+      writeType(value.getType());
+      writeString(stringValue);
+    } else if (value.isUserDefinedObject()) {
+      body.writeByte(SdkSummaryFormat.VALUE_GENERIC);
+      writeType(value.getType());
+      HashMap<String, DartObjectImpl> fields = value.getFields();
+      body.writeInt(fields.size());
+      for (Map.Entry<String, DartObjectImpl> entry : fields.entrySet()) {
+        writeString(entry.getKey());
+        writeValue(entry.getValue());
+      }
+    } else {
+      body.writeByte(SdkSummaryFormat.VALUE_UNKNOWN);
+      writeType(value.getType());
+    }
+  }
+
+  /**
+   * Write the given visible range, which can be {@code null}.
+   * 
+   * @param range the visible range to be written
+   * @throws IOException if the range could not be written
+   */
+  private void writeVisibleRange(SourceRange range) throws IOException {
+    if (range == null) {
+      body.writeInt(-1);
+      body.writeInt(0);
+    } else {
+      body.writeInt(range.getOffset());
+      body.writeInt(range.getLength());
+    }
+  }
+}
@@ -40,13 +40,17 @@ import com.google.dart.engine.index.RelationshipCallback;
 import com.google.dart.engine.internal.element.member.Member;
 import com.google.dart.engine.internal.index.IndexConstants;
 import com.google.dart.engine.internal.index.NameElementImpl;
+import com.google.dart.engine.internal.index.NameQuery;
+import com.google.dart.engine.internal.search.listener.BatchingSearchListener;
 import com.google.dart.engine.internal.search.listener.CountingSearchListener;
 import com.google.dart.engine.internal.search.listener.FilteredSearchListener;
 import com.google.dart.engine.internal.search.listener.GatheringSearchListener;
 import com.google.dart.engine.internal.search.listener.NameMatchingSearchListener;
+import com.google.dart.engine.internal.search.pattern.NameSearchPattern;
 import com.google.dart.engine.internal.search.scope.LibrarySearchScope;
 import com.google.dart.engine.search.MatchKind;
 import com.google.dart.engine.search.MatchQuality;
+import com.google.dart.engine.search.SearchBatchListener;
 import com.google.dart.engine.search.SearchEngine;
 import com.google.dart.engine.search.SearchFilter;
 import com.google.dart.engine.search.SearchListener;
@@ -54,6 +58,7 @@ import com.google.dart.engine.search.SearchMatch;
 import com.google.dart.engine.search.SearchPattern;
 import com.google.dart.engine.search.SearchScope;
 import com.google.dart.engine.type.Type;
+import com.google.dart.engine.utilities.general.CancellationToken;
 import com.google.dart.engine.utilities.source.SourceRange;
 
 import java.util.Collections;
@@ -74,6 +79,12 @@ public class SearchEngineImpl implements SearchEngine {
    */
   private static class RelationshipCallbackImpl implements RelationshipCallback {
     private final SearchScope scope;
+
+    /**
+     * The token used to cancel the search, or {@code null} if the search cannot be cancelled.
+     */
+    private final CancellationToken token;
+
     /**
      * The kind of matches that are represented by the results that will be provided to this
      * callback.
@@ -91,11 +102,15 @@ public class SearchEngineImpl implements SearchEngine {
      * 
      * @param scope the {@link SearchScope} to return matches from, may be {@code null} to return
      *          all matches
+     * @param token the token used to cancel the search, or {@code null} if the search cannot be
+     *          cancelled
      * @param matchKind the kind of matches that are represented by the results
      * @param listener the search listener that should be notified when results are found
      */
-    public RelationshipCallbackImpl(SearchScope scope, MatchKind matchKind, SearchListener listener) {
+    public RelationshipCallbackImpl(SearchScope scope, CancellationToken token,
+        MatchKind matchKind, SearchListener listener) {
       this.scope = scope;
+      this.token = token;
       this.matchKind = matchKind;
       this.listener = listener;
     }
@@ -103,6 +118,9 @@ public class SearchEngineImpl implements SearchEngine {
     @Override
     public void hasRelationships(Element element, Relationship relationship, Location[] locations) {
       for (Location location : locations) {
+        if (token != null && token.isCancelled()) {
+          break;
+        }
         Element targetElement = location.getElement();
         // check scope
         if (scope != null && !scope.encloses(targetElement)) {
@@ -175,9 +193,35 @@ public class SearchEngineImpl implements SearchEngine {
     return new Element[] {IndexConstants.UNIVERSE};
   }
 
-  private static RelationshipCallback newCallback(MatchKind matchKind, SearchScope scope,
-      SearchListener listener) {
-    return new RelationshipCallbackImpl(scope, matchKind, listener);
+  /**
+   * Return a query that matches the names of the elements matched by the given pattern.
+   * 
+   * @param pattern the pattern used to match elements, or {@code null} if all elements match
+   * @return a query that matches at least the names of the elements matched by the given pattern
+   */
+  private static NameQuery createNameQuery(SearchPattern pattern) {
+    if (pattern instanceof NameSearchPattern) {
+      return ((NameSearchPattern) pattern).getNameQuery();
+    }
+    return NameQuery.ANY;
+  }
+
+  /**
+   * Return the maximum number of locations to ask the index for each relationship of a search that
+   * reports at most the given number of matches. A relationship never contributes more matches than
+   * that, but if some of its locations can be dropped by the scope or the filter, then all of them
+   * are needed to find the matches that are kept.
+   * 
+   * @param limit the maximum number of matches to report, or zero if all of the matches are needed
+   * @param scope the scope of the search, may be {@code null} to return all matches
+   * @param filter the filter applied to the matches, may be {@code null} to return all matches
+   * @return the maximum number of locations to ask the index for each relationship
+   */
+  private static int getIndexLimit(int limit, SearchScope scope, SearchFilter filter) {
+    if (scope != null || filter != null) {
+      return 0;
+    }
+    return limit;
   }
 
   /**
@@ -185,13 +229,41 @@ public class SearchEngineImpl implements SearchEngine {
    */
   private Index index;
 
+  /**
+   * The maximum number of locations to ask the index for each relationship, or zero if all of the
+   * locations are needed.
+   */
+  private final int limit;
+
+  /**
+   * The token used to cancel the searches performed by this engine, or {@code null} if they cannot
+   * be cancelled.
+   */
+  private final CancellationToken token;
+
   /**
    * Initialize a newly created search engine to use the given index.
    * 
    * @param index the index used to respond to the search requests
    */
   public SearchEngineImpl(Index index) {
+    this(index, 0, null);
+  }
+
+  /**
+   * Initialize a newly created search engine to use the given index, to ask the index for at most
+   * the given number of locations for each relationship and to stop searching once the given token
+   * has been cancelled.
+   * 
+   * @param index the index used to respond to the search requests
+   * @param limit the maximum number of locations to ask the index for each relationship, or zero if
+   *          all of the locations are needed
+   * @param token the token used to cancel the searches, or {@code null} if they cannot be cancelled
+   */
+  private SearchEngineImpl(Index index, int limit, CancellationToken token) {
     this.index = index;
+    this.limit = limit;
+    this.token = token;
   }
 
   @Override
@@ -257,7 +329,7 @@ public class SearchEngineImpl implements SearchEngine {
       SearchListener listener) {
     assert listener != null;
     listener = applyFilter(filter, listener);
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.IS_DEFINED_BY,
         newCallback(MatchKind.NAME_DECLARATION, scope, listener));
@@ -279,13 +351,15 @@ public class SearchEngineImpl implements SearchEngine {
       SearchFilter filter, SearchListener listener) {
     assert listener != null;
     Element[] elements = createElements(scope);
+    NameQuery query = createNameQuery(pattern);
     listener = applyPattern(pattern, listener);
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(elements.length, listener);
     for (Element element : elements) {
-      index.getRelationships(
+      getDeclarations(
           element,
           IndexConstants.DEFINES_FUNCTION,
+          query,
           newCallback(MatchKind.FUNCTION_DECLARATION, scope, listener));
     }
   }
@@ -307,50 +381,65 @@ public class SearchEngineImpl implements SearchEngine {
     assert listener != null;
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(10, listener);
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.IS_REFERENCED_BY_QUALIFIED_RESOLVED,
         newCallback(MatchKind.NAME_REFERENCE_RESOLVED, scope, listener));
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.IS_REFERENCED_BY_QUALIFIED_UNRESOLVED,
         newCallback(MatchKind.NAME_REFERENCE_UNRESOLVED, scope, listener));
     // granular resolved operations
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.NAME_IS_INVOKED_BY_RESOLVED,
         newCallback(MatchKind.NAME_INVOCATION_RESOLVED, scope, listener));
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.NAME_IS_READ_BY_RESOLVED,
         newCallback(MatchKind.NAME_READ_RESOLVED, scope, listener));
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.NAME_IS_READ_WRITTEN_BY_RESOLVED,
         newCallback(MatchKind.NAME_READ_WRITE_RESOLVED, scope, listener));
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.NAME_IS_WRITTEN_BY_RESOLVED,
         newCallback(MatchKind.NAME_WRITE_RESOLVED, scope, listener));
     // granular unresolved operations
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.NAME_IS_INVOKED_BY_UNRESOLVED,
         newCallback(MatchKind.NAME_INVOCATION_UNRESOLVED, scope, listener));
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.NAME_IS_READ_BY_UNRESOLVED,
         newCallback(MatchKind.NAME_READ_UNRESOLVED, scope, listener));
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.NAME_IS_READ_WRITTEN_BY_UNRESOLVED,
         newCallback(MatchKind.NAME_READ_WRITE_UNRESOLVED, scope, listener));
-    index.getRelationships(
+    getRelationships(
         new NameElementImpl(name),
         IndexConstants.NAME_IS_WRITTEN_BY_UNRESOLVED,
         newCallback(MatchKind.NAME_WRITE_UNRESOLVED, scope, listener));
   }
 
+  @Override
+  public void searchQualifiedMemberReferences(String name, SearchScope scope, SearchFilter filter,
+      int limit, CancellationToken token, SearchBatchListener listener) {
+    assert listener != null;
+    BatchingSearchListener batchingListener = new BatchingSearchListener(limit, token, listener);
+    new SearchEngineImpl(
+        index,
+        getIndexLimit(limit, scope, filter),
+        batchingListener.getToken()).searchQualifiedMemberReferences(
+        name,
+        scope,
+        filter,
+        batchingListener);
+  }
+
   @Override
   public List<SearchMatch> searchReferences(final Element element, final SearchScope scope,
       final SearchFilter filter) {
@@ -428,6 +517,17 @@ public class SearchEngineImpl implements SearchEngine {
     }
   }
 
+  @Override
+  public void searchReferences(Element element, SearchScope scope, SearchFilter filter, int limit,
+      CancellationToken token, SearchBatchListener listener) {
+    assert listener != null;
+    BatchingSearchListener batchingListener = new BatchingSearchListener(limit, token, listener);
+    new SearchEngineImpl(
+        index,
+        getIndexLimit(limit, scope, filter),
+        batchingListener.getToken()).searchReferences(element, scope, filter, batchingListener);
+  }
+
   @Override
   public List<SearchMatch> searchSubtypes(final ClassElement type, final SearchScope scope,
       final SearchFilter filter) {
@@ -445,15 +545,15 @@ public class SearchEngineImpl implements SearchEngine {
     assert listener != null;
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(3, listener);
-    index.getRelationships(
+    getRelationships(
         type,
         IndexConstants.IS_EXTENDED_BY,
         newCallback(MatchKind.EXTENDS_REFERENCE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         type,
         IndexConstants.IS_MIXED_IN_BY,
         newCallback(MatchKind.WITH_REFERENCE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         type,
         IndexConstants.IS_IMPLEMENTED_BY,
         newCallback(MatchKind.IMPLEMENTS_REFERENCE, scope, listener));
@@ -475,21 +575,25 @@ public class SearchEngineImpl implements SearchEngine {
       SearchListener listener) {
     assert listener != null;
     Element[] elements = createElements(scope);
+    NameQuery query = createNameQuery(pattern);
     listener = applyPattern(pattern, listener);
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(elements.length * 3, listener);
     for (Element element : elements) {
-      index.getRelationships(
+      getDeclarations(
           element,
           IndexConstants.DEFINES_CLASS,
+          query,
           newCallback(MatchKind.CLASS_DECLARATION, scope, listener));
-      index.getRelationships(
+      getDeclarations(
           element,
           IndexConstants.DEFINES_CLASS_ALIAS,
+          query,
           newCallback(MatchKind.CLASS_ALIAS_DECLARATION, scope, listener));
-      index.getRelationships(
+      getDeclarations(
           element,
           IndexConstants.DEFINES_FUNCTION_TYPE,
+          query,
           newCallback(MatchKind.FUNCTION_TYPE_DECLARATION, scope, listener));
     }
   }
@@ -510,13 +614,15 @@ public class SearchEngineImpl implements SearchEngine {
       SearchFilter filter, SearchListener listener) {
     assert listener != null;
     Element[] elements = createElements(scope);
+    NameQuery query = createNameQuery(pattern);
     listener = applyPattern(pattern, listener);
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(elements.length, listener);
     for (Element element : elements) {
-      index.getRelationships(
+      getDeclarations(
           element,
           IndexConstants.DEFINES_VARIABLE,
+          query,
           newCallback(MatchKind.VARIABLE_DECLARATION, scope, listener));
     }
   }
@@ -538,16 +644,68 @@ public class SearchEngineImpl implements SearchEngine {
     return listener.getMatches();
   }
 
+  /**
+   * Asynchronously pass to the given callback the locations of the declarations that have the
+   * given relationship with the given element. The declarations recorded for the universe are
+   * looked up by name, so that only the declarations whose names match the given query are found.
+   * 
+   * @param element the library or the universe element that has the relationship
+   * @param relationship the relationship between the element and the declarations
+   * @param query the query the names of the declarations in the universe must match
+   * @param callback the callback that will be invoked when the declarations are found
+   */
+  private void getDeclarations(Element element, Relationship relationship, NameQuery query,
+      RelationshipCallback callback) {
+    if (element == IndexConstants.UNIVERSE) {
+      index.getDeclarations(relationship, query, callback);
+    } else {
+      getRelationships(element, relationship, callback);
+    }
+  }
+
+  /**
+   * Asynchronously pass to the given callback the locations that have the given relationship with
+   * the given element, at most the limit of this engine of them, unless the token of this engine is
+   * cancelled first.
+   * 
+   * @param element the element that has the relationship with the locations
+   * @param relationship the relationship between the element and the locations
+   * @param callback the callback that will be invoked when the locations are found
+   */
+  private void getRelationships(Element element, Relationship relationship,
+      RelationshipCallback callback) {
+    if (limit == 0 && token == null) {
+      index.getRelationships(element, relationship, callback);
+    } else {
+      index.getRelationships(element, relationship, limit, token, callback);
+    }
+  }
+
+  /**
+   * Return a callback that reports the locations it is given to the given listener as matches of
+   * the given kind.
+   * 
+   * @param matchKind the kind of matches that are represented by the locations
+   * @param scope the {@link SearchScope} to return matches from, may be {@code null} to return all
+   *          matches
+   * @param listener the search listener that should be notified when matches are found
+   * @return the callback that was created
+   */
+  private RelationshipCallback newCallback(MatchKind matchKind, SearchScope scope,
+      SearchListener listener) {
+    return new RelationshipCallbackImpl(scope, token, matchKind, listener);
+  }
+
   private void searchReferences(AngularElement element, SearchScope scope, SearchFilter filter,
       SearchListener listener) {
     assert listener != null;
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(2, listener);
-    index.getRelationships(
+    getRelationships(
         element,
         IndexConstants.ANGULAR_REFERENCE,
         newCallback(MatchKind.ANGULAR_REFERENCE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         element,
         IndexConstants.ANGULAR_CLOSING_TAG_REFERENCE,
         newCallback(MatchKind.ANGULAR_CLOSING_TAG_REFERENCE, scope, listener));
@@ -557,7 +715,7 @@ public class SearchEngineImpl implements SearchEngine {
       SearchListener listener) {
     assert listener != null;
     listener = applyFilter(filter, listener);
-    index.getRelationships(
+    getRelationships(
         type,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.TYPE_REFERENCE, scope, listener));
@@ -567,7 +725,7 @@ public class SearchEngineImpl implements SearchEngine {
       SearchFilter filter, SearchListener listener) {
     assert listener != null;
     listener = applyFilter(filter, listener);
-    index.getRelationships(
+    getRelationships(
         unit,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.UNIT_REFERENCE, scope, listener));
@@ -578,11 +736,11 @@ public class SearchEngineImpl implements SearchEngine {
     assert listener != null;
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(2, listener);
-    index.getRelationships(
+    getRelationships(
         constructor,
         IndexConstants.IS_DEFINED_BY,
         newCallback(MatchKind.CONSTRUCTOR_DECLARATION, scope, listener));
-    index.getRelationships(
+    getRelationships(
         constructor,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.CONSTRUCTOR_REFERENCE, scope, listener));
@@ -593,11 +751,11 @@ public class SearchEngineImpl implements SearchEngine {
     assert listener != null;
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(2, listener);
-    index.getRelationships(
+    getRelationships(
         function,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.FUNCTION_REFERENCE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         function,
         IndexConstants.IS_INVOKED_BY,
         newCallback(MatchKind.FUNCTION_EXECUTION, scope, listener));
@@ -607,7 +765,7 @@ public class SearchEngineImpl implements SearchEngine {
       SearchFilter filter, SearchListener listener) {
     assert listener != null;
     listener = applyFilter(filter, listener);
-    index.getRelationships(
+    getRelationships(
         alias,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.FUNCTION_TYPE_REFERENCE, scope, listener));
@@ -617,7 +775,7 @@ public class SearchEngineImpl implements SearchEngine {
       SearchListener listener) {
     assert listener != null;
     listener = applyFilter(filter, listener);
-    index.getRelationships(
+    getRelationships(
         imp,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.IMPORT_REFERENCE, scope, listener));
@@ -627,7 +785,7 @@ public class SearchEngineImpl implements SearchEngine {
       SearchListener listener) {
     assert listener != null;
     listener = applyFilter(filter, listener);
-    index.getRelationships(
+    getRelationships(
         library,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.LIBRARY_REFERENCE, scope, listener));
@@ -640,25 +798,25 @@ public class SearchEngineImpl implements SearchEngine {
     // TODO(scheglov) use "5" when add named matches
     listener = new CountingSearchListener(4, listener);
     // exact matches
-    index.getRelationships(
+    getRelationships(
         method,
         IndexConstants.IS_INVOKED_BY_UNQUALIFIED,
         newCallback(MatchKind.METHOD_INVOCATION, scope, listener));
-    index.getRelationships(
+    getRelationships(
         method,
         IndexConstants.IS_INVOKED_BY_QUALIFIED,
         newCallback(MatchKind.METHOD_INVOCATION, scope, listener));
-    index.getRelationships(
+    getRelationships(
         method,
         IndexConstants.IS_REFERENCED_BY_UNQUALIFIED,
         newCallback(MatchKind.METHOD_REFERENCE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         method,
         IndexConstants.IS_REFERENCED_BY_QUALIFIED,
         newCallback(MatchKind.METHOD_REFERENCE, scope, listener));
     // TODO(scheglov)
     // inexact matches
-//    index.getRelationships(
+//    getRelationships(
 //        new Element(IndexConstants.DYNAMIC, method.getElementName()),
 //        IndexConstants.IS_INVOKED_BY_QUALIFIED,
 //        newCallback(MatchKind.METHOD_INVOCATION, listener));
@@ -669,23 +827,23 @@ public class SearchEngineImpl implements SearchEngine {
     assert listener != null;
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(5, listener);
-    index.getRelationships(
+    getRelationships(
         parameter,
         IndexConstants.IS_READ_BY,
         newCallback(MatchKind.VARIABLE_READ, scope, listener));
-    index.getRelationships(
+    getRelationships(
         parameter,
         IndexConstants.IS_READ_WRITTEN_BY,
         newCallback(MatchKind.VARIABLE_READ_WRITE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         parameter,
         IndexConstants.IS_WRITTEN_BY,
         newCallback(MatchKind.VARIABLE_WRITE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         parameter,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.NAMED_PARAMETER_REFERENCE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         parameter,
         IndexConstants.IS_INVOKED_BY,
         newCallback(MatchKind.FUNCTION_EXECUTION, scope, listener));
@@ -696,11 +854,11 @@ public class SearchEngineImpl implements SearchEngine {
     assert listener != null;
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(2, listener);
-    index.getRelationships(
+    getRelationships(
         accessor,
         IndexConstants.IS_REFERENCED_BY_QUALIFIED,
         newCallback(MatchKind.PROPERTY_ACCESSOR_REFERENCE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         accessor,
         IndexConstants.IS_REFERENCED_BY_UNQUALIFIED,
         newCallback(MatchKind.PROPERTY_ACCESSOR_REFERENCE, scope, listener));
@@ -715,38 +873,38 @@ public class SearchEngineImpl implements SearchEngine {
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(numRequests, listener);
     if (getter != null) {
-      index.getRelationships(
+      getRelationships(
           getter,
           IndexConstants.IS_REFERENCED_BY_QUALIFIED,
           newCallback(MatchKind.FIELD_READ, scope, listener));
-      index.getRelationships(
+      getRelationships(
           getter,
           IndexConstants.IS_REFERENCED_BY_UNQUALIFIED,
           newCallback(MatchKind.FIELD_READ, scope, listener));
-      index.getRelationships(
+      getRelationships(
           getter,
           IndexConstants.IS_INVOKED_BY_QUALIFIED,
           newCallback(MatchKind.FIELD_INVOCATION, scope, listener));
-      index.getRelationships(
+      getRelationships(
           getter,
           IndexConstants.IS_INVOKED_BY_UNQUALIFIED,
           newCallback(MatchKind.FIELD_INVOCATION, scope, listener));
     }
     if (setter != null) {
-      index.getRelationships(
+      getRelationships(
           setter,
           IndexConstants.IS_REFERENCED_BY_QUALIFIED,
           newCallback(MatchKind.FIELD_WRITE, scope, listener));
-      index.getRelationships(
+      getRelationships(
           setter,
           IndexConstants.IS_REFERENCED_BY_UNQUALIFIED,
           newCallback(MatchKind.FIELD_WRITE, scope, listener));
     }
-    index.getRelationships(
+    getRelationships(
         field,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.FIELD_REFERENCE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         field,
         IndexConstants.IS_REFERENCED_BY_QUALIFIED,
         newCallback(MatchKind.FIELD_REFERENCE, scope, listener));
@@ -756,7 +914,7 @@ public class SearchEngineImpl implements SearchEngine {
       SearchFilter filter, SearchListener listener) {
     assert listener != null;
     listener = applyFilter(filter, listener);
-    index.getRelationships(
+    getRelationships(
         typeParameter,
         IndexConstants.IS_REFERENCED_BY,
         newCallback(MatchKind.TYPE_PARAMETER_REFERENCE, scope, listener));
@@ -767,19 +925,19 @@ public class SearchEngineImpl implements SearchEngine {
     assert listener != null;
     listener = applyFilter(filter, listener);
     listener = new CountingSearchListener(4, listener);
-    index.getRelationships(
+    getRelationships(
         variable,
         IndexConstants.IS_READ_BY,
         newCallback(MatchKind.VARIABLE_READ, scope, listener));
-    index.getRelationships(
+    getRelationships(
         variable,
         IndexConstants.IS_READ_WRITTEN_BY,
         newCallback(MatchKind.VARIABLE_READ_WRITE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         variable,
         IndexConstants.IS_WRITTEN_BY,
         newCallback(MatchKind.VARIABLE_WRITE, scope, listener));
-    index.getRelationships(
+    getRelationships(
         variable,
         IndexConstants.IS_INVOKED_BY,
         newCallback(MatchKind.FUNCTION_EXECUTION, scope, listener));
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.search.listener;
+
+import com.google.common.collect.Lists;
+import com.google.dart.engine.search.SearchBatchListener;
+import com.google.dart.engine.search.SearchListener;
+import com.google.dart.engine.search.SearchMatch;
+import com.google.dart.engine.utilities.general.CancellationToken;
+
+import java.util.List;
+
+/**
+ * Instances of the class {@code BatchingSearchListener} pass the matches they receive on to a
+ * {@link SearchBatchListener} in batches. The search is expected to use the token returned by
+ * {@link #getToken()}, which is a child of the token given by the client. Once the given number of
+ * matches has been passed on, the child token is cancelled, so that the rest of the search is
+ * skipped without cancelling the token of the client. The matches received after the token has been
+ * cancelled are ignored.
+ * 
+ * @coverage dart.engine.search
+ */
+public class BatchingSearchListener implements SearchListener {
+  /**
+   * The number of matches passed on in each batch, except for the last one.
+   */
+  public static final int BATCH_SIZE = 50;
+
+  /**
+   * The maximum number of matches to pass on, or zero if all of the matches are to be passed on.
+   */
+  private final int limit;
+
+  /**
+   * The token used to cancel the search, a child of the token given by the client.
+   */
+  private final CancellationToken token;
+
+  /**
+   * The listener to which the batches of matches are passed.
+   */
+  private final SearchBatchListener listener;
+
+  /**
+   * The matches that have been received but not yet passed on.
+   */
+  private List<SearchMatch> batch = Lists.newArrayList();
+
+  /**
+   * The number of matches that have been received.
+   */
+  private int matchCount = 0;
+
+  /**
+   * Initialize a newly created search listener to pass matches on to the given listener.
+   * 
+   * @param limit the maximum number of matches to pass on, or zero if all of the matches are to be
+   *          passed on
+   * @param token the token used by the client to cancel the search
+   * @param listener the listener to which the batches of matches are passed
+   */
+  public BatchingSearchListener(int limit, CancellationToken token, SearchBatchListener listener) {
+    this.limit = limit;
+    this.token = new CancellationToken(token);
+    this.listener = listener;
+  }
+
+  /**
+   * Return the token that the search should use. It is cancelled either when the token of the
+   * client is cancelled or when the limit on the number of matches has been reached.
+   * 
+   * @return the token that the search should use
+   */
+  public CancellationToken getToken() {
+    return token;
+  }
+
+  @Override
+  public void matchFound(SearchMatch match) {
+    if (token.isCancelled()) {
+      return;
+    }
+    batch.add(match);
+    matchCount++;
+    if (matchCount == limit) {
+      flush();
+      token.cancel();
+    } else if (batch.size() >= BATCH_SIZE) {
+      flush();
+    }
+  }
+
+  @Override
+  public void searchComplete() {
+    if (!token.isCancelled()) {
+      flush();
+    }
+    listener.searchComplete();
+  }
+
+  /**
+   * Pass the matches that have not yet been passed on to the listener.
+   */
+  private void flush() {
+    if (!batch.isEmpty()) {
+      listener.matchesFound(batch);
+      batch = Lists.newArrayList();
+    }
+  }
+}
@@ -14,8 +14,8 @@
 package com.google.dart.engine.internal.search.pattern;
 
 import com.google.dart.engine.element.Element;
+import com.google.dart.engine.internal.index.NameQuery;
 import com.google.dart.engine.search.MatchQuality;
-import com.google.dart.engine.search.SearchPattern;
 
 /**
  * Instances of the class <code>ExactSearchPattern</code> implement a search pattern that matches
@@ -23,7 +23,7 @@ import com.google.dart.engine.search.SearchPattern;
  * 
  * @coverage dart.engine.search
  */
-public class ExactSearchPattern implements SearchPattern {
+public class ExactSearchPattern implements NameSearchPattern {
   /**
    * The identifier that matching elements must be equal to.
    */
@@ -46,6 +46,11 @@ public class ExactSearchPattern implements SearchPattern {
     this.caseSensitive = caseSensitive;
   }
 
+  @Override
+  public NameQuery getNameQuery() {
+    return NameQuery.exact(identifier, caseSensitive);
+  }
+
   @Override
   public MatchQuality matches(Element element) {
     String name = element.getDisplayName();
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.search.pattern;
+
+import com.google.dart.engine.internal.index.NameQuery;
+import com.google.dart.engine.search.SearchPattern;
+
+/**
+ * The interface <code>NameSearchPattern</code> defines the behavior of search patterns that match
+ * elements by their names alone. Such a pattern can be answered from the names of the declarations
+ * kept by the index, without looking at every declaration.
+ * 
+ * @coverage dart.engine.search
+ */
+public interface NameSearchPattern extends SearchPattern {
+  /**
+   * Return a query that matches the names of the elements that are matched by this pattern.
+   * 
+   * @return the query that matches the names of the matching elements
+   */
+  NameQuery getNameQuery();
+}
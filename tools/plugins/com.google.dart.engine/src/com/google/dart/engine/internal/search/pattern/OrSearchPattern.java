@@ -14,6 +14,7 @@
 package com.google.dart.engine.internal.search.pattern;
 
 import com.google.dart.engine.element.Element;
+import com.google.dart.engine.internal.index.NameQuery;
 import com.google.dart.engine.search.MatchQuality;
 import com.google.dart.engine.search.SearchPattern;
 
@@ -23,7 +24,7 @@ import com.google.dart.engine.search.SearchPattern;
  * 
  * @coverage dart.engine.search
  */
-public class OrSearchPattern implements SearchPattern {
+public class OrSearchPattern implements NameSearchPattern {
   /**
    * The patterns used to determine whether this pattern matches an element.
    */
@@ -39,6 +40,20 @@ public class OrSearchPattern implements SearchPattern {
     this.patterns = patterns;
   }
 
+  @Override
+  public NameQuery getNameQuery() {
+    NameQuery[] queries = new NameQuery[patterns.length];
+    for (int i = 0; i < patterns.length; i++) {
+      SearchPattern pattern = patterns[i];
+      if (pattern instanceof NameSearchPattern) {
+        queries[i] = ((NameSearchPattern) pattern).getNameQuery();
+      } else {
+        queries[i] = NameQuery.ANY;
+      }
+    }
+    return NameQuery.or(queries);
+  }
+
   @Override
   public MatchQuality matches(Element element) {
     // Do we want to return the highest quality of match rather than stopping
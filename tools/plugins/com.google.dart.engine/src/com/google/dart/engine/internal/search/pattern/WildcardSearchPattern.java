@@ -14,8 +14,8 @@
 package com.google.dart.engine.internal.search.pattern;
 
 import com.google.dart.engine.element.Element;
+import com.google.dart.engine.internal.index.NameQuery;
 import com.google.dart.engine.search.MatchQuality;
-import com.google.dart.engine.search.SearchPattern;
 import com.google.dart.engine.utilities.general.CharOperation;
 
 /**
@@ -26,7 +26,7 @@ import com.google.dart.engine.utilities.general.CharOperation;
  * 
  * @coverage dart.engine.search
  */
-public class WildcardSearchPattern implements SearchPattern {
+public class WildcardSearchPattern implements NameSearchPattern {
   /**
    * The pattern that matching elements must match.
    */
@@ -49,6 +49,11 @@ public class WildcardSearchPattern implements SearchPattern {
     this.caseSensitive = caseSensitive;
   }
 
+  @Override
+  public NameQuery getNameQuery() {
+    return NameQuery.wildcard(new String(pattern), caseSensitive);
+  }
+
   @Override
   public MatchQuality matches(Element element) {
     if (element == null) {
@@ -39,6 +39,16 @@ public interface AnalysisTaskVisitor<E> {
    */
   public E visitGenerateDartHintsTask(GenerateDartHintsTask task) throws AnalysisException;
 
+  /**
+   * Visit a {@link GenerateDartLibraryErrorsTask}.
+   * 
+   * @param task the task to be visited
+   * @return the result of visiting the task
+   * @throws AnalysisException if the visitor throws an exception for some reason
+   */
+  public E visitGenerateDartLibraryErrorsTask(GenerateDartLibraryErrorsTask task)
+      throws AnalysisException;
+
   /**
    * Visit a {@link GetContentTask}.
    * 
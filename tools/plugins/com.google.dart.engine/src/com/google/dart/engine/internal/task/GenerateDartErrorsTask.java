@@ -92,6 +92,56 @@ public class GenerateDartErrorsTask extends AnalysisTask {
         directive.getUriContent()));
   }
 
+  /**
+   * Compute the errors and warnings for the given compilation unit, which must already be
+   * resolved, and report them to the given listener. This only reads the resolved AST and the
+   * element model, so different compilation units can be verified concurrently.
+   * 
+   * @param context the context in which the library exists
+   * @param source the source for which errors and warnings are to be produced
+   * @param unit the resolved compilation unit to be verified
+   * @param libraryElement the element model for the library containing the source
+   * @param analyzeFunctionBodies {@code true} if the bodies of the functions in the compilation
+   *          unit were resolved and are to be verified
+   * @param errorListener the error listener to which errors should be reported
+   * @throws AnalysisException if the type provider could not be accessed
+   */
+  public static void verifyUnit(InternalAnalysisContext context, Source source,
+      CompilationUnit unit, LibraryElement libraryElement, boolean analyzeFunctionBodies,
+      AnalysisErrorListener errorListener) throws AnalysisException {
+    TimeCounterHandle timeCounter = PerformanceStatistics.errors.start();
+    try {
+      ErrorReporter errorReporter = new ErrorReporter(errorListener, source);
+      TypeProvider typeProvider = context.getTypeProvider();
+      //
+      // Validate the directives
+      //
+      validateDirectives(context, source, unit, errorListener);
+      //
+      // Use the ConstantVerifier to verify the use of constants. This needs to happen before using
+      // the ErrorVerifier because some error codes need the computed constant values.
+      //
+      ConstantVerifier constantVerifier = new ConstantVerifier(
+          errorReporter,
+          libraryElement,
+          typeProvider);
+      constantVerifier.setAnalyzeFunctionBodies(analyzeFunctionBodies);
+      unit.accept(constantVerifier);
+      //
+      // Use the ErrorVerifier to compute the rest of the errors.
+      //
+      ErrorVerifier errorVerifier = new ErrorVerifier(
+          errorReporter,
+          libraryElement,
+          typeProvider,
+          new InheritanceManager(libraryElement));
+      errorVerifier.setAnalyzeFunctionBodies(analyzeFunctionBodies);
+      unit.accept(errorVerifier);
+    } finally {
+      timeCounter.stop();
+    }
+  }
+
   /**
    * The source for which errors and warnings are to be produced.
    */
@@ -112,6 +162,12 @@ public class GenerateDartErrorsTask extends AnalysisTask {
    */
   private LibraryElement libraryElement;
 
+  /**
+   * A flag indicating whether the bodies of the functions in the compilation unit were resolved and
+   * are therefore to be verified.
+   */
+  private boolean analyzeFunctionBodies;
+
   /**
    * The errors that were generated for the source.
    */
@@ -125,14 +181,18 @@ public class GenerateDartErrorsTask extends AnalysisTask {
    * @param modificationTime the time at which the contents of the source were last modified
    * @param unit the compilation unit used to resolve the dependencies
    * @param libraryElement the element model for the library containing the source
+   * @param analyzeFunctionBodies {@code true} if the bodies of the functions in the compilation
+   *          unit were resolved and are to be verified
    */
   public GenerateDartErrorsTask(InternalAnalysisContext context, Source source,
-      long modificationTime, CompilationUnit unit, LibraryElement libraryElement) {
+      long modificationTime, CompilationUnit unit, LibraryElement libraryElement,
+      boolean analyzeFunctionBodies) {
     super(context);
     this.source = source;
     this.modificationTime = modificationTime;
     this.unit = unit;
     this.libraryElement = libraryElement;
+    this.analyzeFunctionBodies = analyzeFunctionBodies;
   }
 
   @Override
@@ -184,36 +244,8 @@ public class GenerateDartErrorsTask extends AnalysisTask {
 
   @Override
   protected void internalPerform() throws AnalysisException {
-    TimeCounterHandle timeCounter = PerformanceStatistics.errors.start();
-    try {
-      RecordingErrorListener errorListener = new RecordingErrorListener();
-      ErrorReporter errorReporter = new ErrorReporter(errorListener, source);
-      TypeProvider typeProvider = getContext().getTypeProvider();
-      //
-      // Validate the directives
-      //
-      validateDirectives(getContext(), source, unit, errorListener);
-      //
-      // Use the ConstantVerifier to verify the use of constants. This needs to happen before using
-      // the ErrorVerifier because some error codes need the computed constant values.
-      //
-      ConstantVerifier constantVerifier = new ConstantVerifier(
-          errorReporter,
-          libraryElement,
-          typeProvider);
-      unit.accept(constantVerifier);
-      //
-      // Use the ErrorVerifier to compute the rest of the errors.
-      //
-      ErrorVerifier errorVerifier = new ErrorVerifier(
-          errorReporter,
-          libraryElement,
-          typeProvider,
-          new InheritanceManager(libraryElement));
-      unit.accept(errorVerifier);
-      errors = errorListener.getErrorsForSource(source);
-    } finally {
-      timeCounter.stop();
-    }
+    RecordingErrorListener errorListener = new RecordingErrorListener();
+    verifyUnit(getContext(), source, unit, libraryElement, analyzeFunctionBodies, errorListener);
+    errors = errorListener.getErrorsForSource(source);
   }
 }
@@ -40,6 +40,12 @@ public class GenerateDartHintsTask extends AnalysisTask {
    */
   private LibraryElement libraryElement;
 
+  /**
+   * A flag indicating whether the bodies of the functions in the library were resolved. Hints are
+   * only generated for libraries whose function bodies were resolved.
+   */
+  private boolean analyzeFunctionBodies;
+
   /**
    * A table mapping the sources that were analyzed to the hints that were generated for the
    * sources.
@@ -53,12 +59,16 @@ public class GenerateDartHintsTask extends AnalysisTask {
    * @param units the compilation units that comprise the library, with the defining compilation
    *          unit appearing first in the array
    * @param libraryElement the element model for the library being analyzed
+   * @param analyzeFunctionBodies {@code true} if the bodies of the functions in the library were
+   *          resolved
    */
   public GenerateDartHintsTask(InternalAnalysisContext context,
-      TimestampedData<CompilationUnit>[] units, LibraryElement libraryElement) {
+      TimestampedData<CompilationUnit>[] units, LibraryElement libraryElement,
+      boolean analyzeFunctionBodies) {
     super(context);
     this.units = units;
     this.libraryElement = libraryElement;
+    this.analyzeFunctionBodies = analyzeFunctionBodies;
   }
 
   @Override
@@ -110,8 +120,13 @@ public class GenerateDartHintsTask extends AnalysisTask {
     // Analyze all of the units.
     //
     RecordingErrorListener errorListener = new RecordingErrorListener();
-    HintGenerator hintGenerator = new HintGenerator(compilationUnits, getContext(), errorListener);
-    hintGenerator.generateForLibrary();
+    if (analyzeFunctionBodies) {
+      HintGenerator hintGenerator = new HintGenerator(
+          compilationUnits,
+          getContext(),
+          errorListener);
+      hintGenerator.generateForLibrary();
+    }
     //
     // Store the results.
     //
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.task;
+
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.context.AnalysisException;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.error.AnalysisError;
+import com.google.dart.engine.internal.context.AnalysisTaskExecutor;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.context.RecordingErrorListener;
+import com.google.dart.engine.internal.context.TimestampedData;
+import com.google.dart.engine.internal.hint.HintGenerator;
+import com.google.dart.engine.source.Source;
+
+import java.util.ArrayList;
+
+/**
+ * Instances of the class {@code GenerateDartLibraryErrorsTask} generate the errors and warnings for
+ * all of the compilation units in a single resolved Dart library, and optionally the hints for the
+ * library. The compilation units are verified concurrently, and the hints are generated
+ * concurrently with the verification, using the threads of the {@link AnalysisTaskExecutor}.
+ * <p>
+ * Because this task uses the worker threads itself, it must not be performed on one of them.
+ */
+public class GenerateDartLibraryErrorsTask extends AnalysisTask {
+  /**
+   * The abstract class {@code Work} defines the behavior of the pieces of work that are performed
+   * concurrently. Any exception thrown while performing the work is recorded rather than being
+   * allowed to escape to the worker thread.
+   */
+  private abstract static class Work implements Runnable {
+    /**
+     * The exception that was thrown while performing the work, or {@code null} if the work
+     * completed successfully.
+     */
+    private AnalysisException exception;
+
+    @Override
+    public void run() {
+      try {
+        perform();
+      } catch (AnalysisException exception) {
+        this.exception = exception;
+      } catch (Exception exception) {
+        this.exception = new AnalysisException(exception.toString(), exception);
+      }
+    }
+
+    /**
+     * Perform the work.
+     * 
+     * @throws AnalysisException if the work could not be performed
+     */
+    protected abstract void perform() throws AnalysisException;
+  }
+
+  /**
+   * The compilation units that comprise the library, with the defining compilation unit appearing
+   * first in the array.
+   */
+  private TimestampedData<CompilationUnit>[] units;
+
+  /**
+   * The element model for the library being analyzed.
+   */
+  private LibraryElement libraryElement;
+
+  /**
+   * A flag indicating whether the bodies of the functions in the library were resolved and are
+   * therefore to be verified.
+   */
+  private boolean analyzeFunctionBodies;
+
+  /**
+   * A flag indicating whether hints are to be generated for the library.
+   */
+  private boolean generateHints;
+
+  /**
+   * The listener to which the errors and warnings for all of the compilation units were reported,
+   * or {@code null} if the task has not been performed or if the analysis did not complete
+   * normally.
+   */
+  private RecordingErrorListener errorListener;
+
+  /**
+   * The listener to which the hints for the library were reported, or {@code null} if hints were
+   * not generated, if the task has not been performed or if the analysis did not complete normally.
+   */
+  private RecordingErrorListener hintListener;
+
+  /**
+   * Initialize a newly created task to perform analysis within the given context.
+   * 
+   * @param context the context in which the task is to be performed
+   * @param units the compilation units that comprise the library, with the defining compilation
+   *          unit appearing first in the array
+   * @param libraryElement the element model for the library being analyzed
+   * @param analyzeFunctionBodies {@code true} if the bodies of the functions in the library were
+   *          resolved and are to be verified
+   * @param generateHints {@code true} if hints are to be generated for the library
+   */
+  public GenerateDartLibraryErrorsTask(InternalAnalysisContext context,
+      TimestampedData<CompilationUnit>[] units, LibraryElement libraryElement,
+      boolean analyzeFunctionBodies, boolean generateHints) {
+    super(context);
+    this.units = units;
+    this.libraryElement = libraryElement;
+    this.analyzeFunctionBodies = analyzeFunctionBodies;
+    this.generateHints = generateHints;
+  }
+
+  @Override
+  public <E> E accept(AnalysisTaskVisitor<E> visitor) throws AnalysisException {
+    return visitor.visitGenerateDartLibraryErrorsTask(this);
+  }
+
+  /**
+   * Return the errors and warnings that were generated for the given source, or {@code null} if the
+   * task has not been performed or if the analysis did not complete normally.
+   * 
+   * @param source the source whose errors are to be returned
+   * @return the errors and warnings that were generated for the given source
+   */
+  public AnalysisError[] getErrors(Source source) {
+    if (errorListener == null) {
+      return null;
+    }
+    return errorListener.getErrorsForSource(source);
+  }
+
+  /**
+   * Return {@code true} if hints are to be generated for the library.
+   * 
+   * @return {@code true} if hints are to be generated for the library
+   */
+  public boolean getGenerateHints() {
+    return generateHints;
+  }
+
+  /**
+   * Return the hints that were generated for the given source, or {@code null} if hints were not
+   * generated, if the task has not been performed or if the analysis did not complete normally.
+   * 
+   * @param source the source whose hints are to be returned
+   * @return the hints that were generated for the given source
+   */
+  public AnalysisError[] getHints(Source source) {
+    if (hintListener == null) {
+      return null;
+    }
+    return hintListener.getErrorsForSource(source);
+  }
+
+  /**
+   * Return the element model for the library being analyzed.
+   * 
+   * @return the element model for the library being analyzed
+   */
+  public LibraryElement getLibraryElement() {
+    return libraryElement;
+  }
+
+  /**
+   * Return the compilation units that comprise the library, with the defining compilation unit
+   * appearing first in the array. The timestamp associated with each unit is the time at which the
+   * contents of its source were last modified.
+   * 
+   * @return the compilation units that comprise the library
+   */
+  public TimestampedData<CompilationUnit>[] getUnits() {
+    return units;
+  }
+
+  @Override
+  protected String getTaskDescription() {
+    Source librarySource = libraryElement.getSource();
+    if (librarySource == null) {
+      return "generate Dart errors for library without source";
+    }
+    return "generate Dart errors for " + librarySource.getFullName();
+  }
+
+  @Override
+  protected void internalPerform() throws AnalysisException {
+    int unitCount = units.length;
+    //
+    // Each piece of work reports to its own listener, because the listeners are not thread safe.
+    // Hints are generated for the library as a whole, so they are started first in order to
+    // overlap as much of the verification as possible.
+    //
+    ArrayList<Work> work = new ArrayList<Work>(unitCount + 1);
+    final RecordingErrorListener libraryHintListener;
+    if (generateHints) {
+      libraryHintListener = new RecordingErrorListener();
+      final CompilationUnit[] compilationUnits = new CompilationUnit[unitCount];
+      for (int i = 0; i < unitCount; i++) {
+        compilationUnits[i] = units[i].getData();
+      }
+      work.add(new Work() {
+        @Override
+        protected void perform() throws AnalysisException {
+          if (analyzeFunctionBodies) {
+            HintGenerator hintGenerator = new HintGenerator(
+                compilationUnits,
+                getContext(),
+                libraryHintListener);
+            hintGenerator.generateForLibrary();
+          }
+        }
+      });
+    } else {
+      libraryHintListener = null;
+    }
+    final RecordingErrorListener[] unitListeners = new RecordingErrorListener[unitCount];
+    for (int i = 0; i < unitCount; i++) {
+      final CompilationUnit unit = units[i].getData();
+      final RecordingErrorListener unitListener = new RecordingErrorListener();
+      unitListeners[i] = unitListener;
+      work.add(new Work() {
+        @Override
+        protected void perform() throws AnalysisException {
+          GenerateDartErrorsTask.verifyUnit(
+              getContext(),
+              unit.getElement().getSource(),
+              unit,
+              libraryElement,
+              analyzeFunctionBodies,
+              unitListener);
+        }
+      });
+    }
+    AnalysisTaskExecutor.getInstance().runAll(new ArrayList<Runnable>(work));
+    for (Work completedWork : work) {
+      if (completedWork.exception != null) {
+        throw completedWork.exception;
+      }
+    }
+    //
+    // Merge the results.
+    //
+    RecordingErrorListener mergedListener = new RecordingErrorListener();
+    for (RecordingErrorListener unitListener : unitListeners) {
+      mergedListener.addAll(unitListener);
+    }
+    errorListener = mergedListener;
+    hintListener = libraryHintListener;
+  }
+}
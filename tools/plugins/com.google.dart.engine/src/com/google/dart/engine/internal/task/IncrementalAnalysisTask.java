@@ -13,6 +13,7 @@
  */
 package com.google.dart.engine.internal.task;
 
+import com.google.dart.engine.AnalysisEngine;
 import com.google.dart.engine.ast.CompilationUnit;
 import com.google.dart.engine.context.AnalysisException;
 import com.google.dart.engine.element.CompilationUnitElement;
@@ -21,6 +22,7 @@ import com.google.dart.engine.error.AnalysisErrorListener;
 import com.google.dart.engine.error.BooleanErrorListener;
 import com.google.dart.engine.internal.context.IncrementalAnalysisCache;
 import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.context.PerformanceStatistics;
 import com.google.dart.engine.internal.resolver.IncrementalResolver;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.parser.IncrementalParser;
@@ -28,6 +30,7 @@ import com.google.dart.engine.scanner.CharSequenceReader;
 import com.google.dart.engine.scanner.CharacterReader;
 import com.google.dart.engine.scanner.IncrementalScanner;
 import com.google.dart.engine.source.Source;
+import com.google.dart.engine.utilities.general.TimeCounter.TimeCounterHandle;
 
 /**
  * Instances of the class {@code IncrementalAnalysisTask} incrementally update existing analysis.
@@ -99,7 +102,32 @@ public class IncrementalAnalysisTask extends AnalysisTask {
     if (cache == null) {
       return;
     }
+    TimeCounterHandle timeCounter = PerformanceStatistics.incremental.start();
+    try {
+      internalUpdate();
+    } finally {
+      timeCounter.stop();
+    }
+  }
+
+  /**
+   * Return the type provider used for incremental resolution.
+   * 
+   * @return the type provider (or {@code null} if an exception occurs)
+   */
+  private TypeProvider getTypeProvider() {
+    try {
+      return getContext().getTypeProvider();
+    } catch (AnalysisException exception) {
+      return null;
+    }
+  }
 
+  /**
+   * Incrementally update the existing compilation unit. If the updated unit cannot be fully
+   * resolved then no unit is produced, so that a partially resolved unit is never published.
+   */
+  private void internalUpdate() {
     // Only handle small changes
     if (cache.getOldLength() > 0 || cache.getNewLength() > 30) {
       return;
@@ -142,22 +170,16 @@ public class IncrementalAnalysisTask extends AnalysisTask {
               cache.getSource(),
               typeProvider,
               errorListener);
-          resolver.resolve(parser.getUpdatedNode());
+          try {
+            resolver.resolve(parser.getUpdatedNode());
+          } catch (AnalysisException exception) {
+            AnalysisEngine.getInstance().getLogger().logInformation(
+                "Could not incrementally resolve " + cache.getSource().getFullName(),
+                exception);
+            updatedUnit = null;
+          }
         }
       }
     }
   }
-
-  /**
-   * Return the type provider used for incremental resolution.
-   * 
-   * @return the type provider (or {@code null} if an exception occurs)
-   */
-  private TypeProvider getTypeProvider() {
-    try {
-      return getContext().getTypeProvider();
-    } catch (AnalysisException exception) {
-      return null;
-    }
-  }
 }
@@ -68,6 +68,15 @@ public class ResolveDartLibraryCycleTask extends AnalysisTask {
     return visitor.visitResolveDartLibraryCycleTask(this);
   }
 
+  /**
+   * Return the libraries that are part of the cycle containing the library to be resolved.
+   * 
+   * @return the libraries that are part of the cycle containing the library to be resolved
+   */
+  public List<ResolvableLibrary> getLibrariesInCycle() {
+    return librariesInCycle;
+  }
+
   /**
    * Return the library resolver holding information about the libraries that were resolved.
    * 
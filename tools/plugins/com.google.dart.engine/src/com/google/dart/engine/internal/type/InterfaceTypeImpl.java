@@ -14,6 +14,7 @@
 package com.google.dart.engine.internal.type;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.element.ClassElement;
 import com.google.dart.engine.element.ConstructorElement;
 import com.google.dart.engine.element.Element;
@@ -21,12 +22,15 @@ import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.element.MethodElement;
 import com.google.dart.engine.element.PropertyAccessorElement;
 import com.google.dart.engine.element.TypeParameterElement;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.context.SdkAnalysisContext;
 import com.google.dart.engine.internal.element.ClassElementImpl;
 import com.google.dart.engine.internal.element.ElementPair;
 import com.google.dart.engine.internal.element.member.ConstructorMember;
 import com.google.dart.engine.internal.element.member.MethodMember;
 import com.google.dart.engine.internal.element.member.PropertyAccessorMember;
 import com.google.dart.engine.internal.resolver.InheritanceManager;
+import com.google.dart.engine.internal.type.TypeRelationCache.Relation;
 import com.google.dart.engine.type.FunctionType;
 import com.google.dart.engine.type.InterfaceType;
 import com.google.dart.engine.type.Type;
@@ -703,11 +707,27 @@ public class InterfaceTypeImpl extends TypeImpl implements InterfaceType {
     } else if (!(type instanceof InterfaceType)) {
       return false;
     }
-    return isMoreSpecificThan(
-        (InterfaceType) type,
-        new HashSet<ClassElement>(),
-        withDynamic,
-        visitedTypePairs);
+    TypeRelationCache cache = getRelationCache(type, visitedTypePairs);
+    if (cache == null) {
+      return isMoreSpecificThan(
+          (InterfaceType) type,
+          new HashSet<ClassElement>(),
+          withDynamic,
+          visitedTypePairs);
+    }
+    Relation relation = withDynamic ? Relation.MORE_SPECIFIC_WITH_DYNAMIC : Relation.MORE_SPECIFIC;
+    int stamp = cache.getModificationStamp();
+    Boolean answer = cache.get(relation, this, (InterfaceType) type);
+    if (answer == null) {
+      boolean result = isMoreSpecificThan(
+          (InterfaceType) type,
+          new HashSet<ClassElement>(),
+          withDynamic,
+          visitedTypePairs);
+      cache.put(relation, this, (InterfaceType) type, result, stamp);
+      return result;
+    }
+    return answer.booleanValue();
   }
 
   @Override
@@ -780,7 +800,100 @@ public class InterfaceTypeImpl extends TypeImpl implements InterfaceType {
     } else if (this.equals(type)) {
       return true;
     }
-    return isSubtypeOf((InterfaceType) type, new HashSet<ClassElement>(), visitedTypePairs);
+    TypeRelationCache cache = getRelationCache(type, visitedTypePairs);
+    if (cache == null) {
+      return isSubtypeOf((InterfaceType) type, new HashSet<ClassElement>(), visitedTypePairs);
+    }
+    int stamp = cache.getModificationStamp();
+    Boolean answer = cache.get(Relation.SUBTYPE, this, (InterfaceType) type);
+    if (answer == null) {
+      boolean result = isSubtypeOf(
+          (InterfaceType) type,
+          new HashSet<ClassElement>(),
+          visitedTypePairs);
+      cache.put(Relation.SUBTYPE, this, (InterfaceType) type, result, stamp);
+      return result;
+    }
+    return answer.booleanValue();
+  }
+
+  /**
+   * Return {@code true} if all of the type arguments of this type are either {@code dynamic} or
+   * interface types whose type arguments are also either {@code dynamic} or interface types. The
+   * relationships between such types depend only on the classes in the element model.
+   * 
+   * @return {@code true} if the type arguments of this type consist only of interface types
+   */
+  private boolean hasInterfaceTypeArguments() {
+    for (Type argument : typeArguments) {
+      if (argument.isDynamic()) {
+        continue;
+      }
+      if (!(argument instanceof InterfaceTypeImpl)
+          || !((InterfaceTypeImpl) argument).hasInterfaceTypeArguments()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Return the {@link TypeRelationCache} in which the answer to the question of how this type is
+   * related to the given type can be found, and recorded, or {@code null} if the answer cannot be
+   * memoized. It can only be memoized when the question is not being asked in the process of
+   * answering another question, because then the answer can depend on the pairs of types that have
+   * already been visited, and when the answer only depends on the classes in the element model. The
+   * cache is the one of the context that owns the elements of the two types and their type
+   * arguments. The elements of the SDK are ignored, because the SDK is shared by the contexts and
+   * its element model is not changed, so a type such as {@code List<A>} is memoized by the context
+   * that owns {@code A}. The answer cannot be memoized if the elements are owned by two different
+   * contexts, because no cache is cleared when both of their element models are changed.
+   * 
+   * @param type the type being compared with this type
+   * @param visitedTypePairs the set of pairs of types used to prevent infinite loops
+   * @return the cache in which the relationship between the two types can be memoized
+   */
+  private TypeRelationCache getRelationCache(Type type, Set<TypePair> visitedTypePairs) {
+    if (!TypeRelationCache.isEnabled() || visitedTypePairs.size() != 1
+        || !(type instanceof InterfaceTypeImpl) || !hasInterfaceTypeArguments()
+        || !((InterfaceTypeImpl) type).hasInterfaceTypeArguments()) {
+      return null;
+    }
+    AnalysisContext context = getOwningContext(getElement().getContext());
+    context = ((InterfaceTypeImpl) type).getOwningContext(context);
+    if (context instanceof InternalAnalysisContext) {
+      return ((InternalAnalysisContext) context).getTypeRelationCache();
+    }
+    return null;
+  }
+
+  /**
+   * Return the context that owns both the elements that are owned by the given context and the
+   * elements of this type and its type arguments, or {@code null} if there is no such context. The
+   * SDK context is treated as being owned by every other context. This type is assumed to only have
+   * type arguments that are either {@code dynamic} or interface types.
+   * 
+   * @param context the context owning the elements visited so far
+   * @return the context that owns the elements visited so far and the elements of this type
+   */
+  private AnalysisContext getOwningContext(AnalysisContext context) {
+    AnalysisContext elementContext = getElement().getContext();
+    if (context == null || elementContext == null) {
+      return null;
+    } else if (context instanceof SdkAnalysisContext) {
+      context = elementContext;
+    } else if (context != elementContext && !(elementContext instanceof SdkAnalysisContext)) {
+      return null;
+    }
+    for (Type argument : typeArguments) {
+      if (argument instanceof InterfaceTypeImpl) {
+        context = ((InterfaceTypeImpl) argument).getOwningContext(context);
+        if (context == null) {
+          return null;
+        }
+      }
+    }
+    return context;
   }
 
   // TODO(jwren) Remove "visitedClasses" parameter, as the logic for "visitedTypePairs" should
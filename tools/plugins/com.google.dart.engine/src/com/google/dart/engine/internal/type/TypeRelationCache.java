@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.type;
+
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.type.InterfaceType;
+import com.google.dart.engine.type.Type;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+
+/**
+ * Instances of the class {@code TypeRelationCache} memoize the answers to the question of whether
+ * one interface type is related to another, such as whether it is a subtype of the other. Each
+ * analysis context has its own cache, which holds the answers to the questions about the types
+ * whose elements belong to that context, possibly together with elements of the SDK. The answers
+ * about types whose elements all belong to the SDK are held by the cache of the SDK context.
+ * <p>
+ * Types are compared by the identity of their elements rather than by the locations of their
+ * elements, so that the answers computed for one element model are never used for a different
+ * element model of the same library, whether it was built by another context or by this one.
+ * <p>
+ * The answers depend on the class hierarchy described by the element model. Whenever a part of the
+ * element model of the context that the answers depend on is changed, {@link #elementModelChanged()}
+ * must be invoked; all of the answers in this cache are then cleared the next time they are
+ * accessed. The caches of other contexts are not affected.
+ * 
+ * @coverage dart.engine.type
+ */
+public class TypeRelationCache {
+  /**
+   * The enumeration {@code Relation} defines the relations between types that are memoized.
+   */
+  public static enum Relation {
+    /**
+     * The relation of one type being more specific than another, where {@code dynamic} is not
+     * considered to be a subtype of every type.
+     */
+    MORE_SPECIFIC,
+
+    /**
+     * The relation of one type being more specific than another, where {@code dynamic} is
+     * considered to be a subtype of every type.
+     */
+    MORE_SPECIFIC_WITH_DYNAMIC,
+
+    /**
+     * The relation of one type being a subtype of another.
+     */
+    SUBTYPE;
+  }
+
+  /**
+   * Instances of the class {@code TypeKey} represent a pair of interface types whose type
+   * arguments are either {@code dynamic} or interface types, compared by the identity of the
+   * elements of the types.
+   */
+  private static class TypeKey {
+    /**
+     * The first type in the pair.
+     */
+    private final Type firstType;
+
+    /**
+     * The second type in the pair.
+     */
+    private final Type secondType;
+
+    /**
+     * The hash code of the pair, computed from the identities of the elements of the types.
+     */
+    private final int hashCode;
+
+    /**
+     * Initialize a newly created key to represent the given pair of types.
+     * 
+     * @param firstType the first type in the pair
+     * @param secondType the second type in the pair
+     */
+    public TypeKey(Type firstType, Type secondType) {
+      this.firstType = firstType;
+      this.secondType = secondType;
+      this.hashCode = hash(firstType) * 31 + hash(secondType);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (!(object instanceof TypeKey)) {
+        return false;
+      }
+      TypeKey key = (TypeKey) object;
+      return hashCode == key.hashCode && isSame(firstType, key.firstType)
+          && isSame(secondType, key.secondType);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    /**
+     * Return a hash code for the given type that is consistent with {@link #isSame(Type, Type)}.
+     * 
+     * @param type the type whose hash code is to be returned
+     * @return a hash code for the given type
+     */
+    private int hash(Type type) {
+      Element element = type.getElement();
+      int result = element == null ? 0 : System.identityHashCode(element);
+      if (type instanceof InterfaceType) {
+        for (Type typeArgument : ((InterfaceType) type).getTypeArguments()) {
+          result = result * 31 + hash(typeArgument);
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Return {@code true} if the given types have the same element and the same type arguments.
+     * 
+     * @param firstType the first type being compared
+     * @param secondType the second type being compared
+     * @return {@code true} if the given types are the same type of the same element model
+     */
+    private boolean isSame(Type firstType, Type secondType) {
+      if (firstType == secondType) {
+        return true;
+      } else if (!(firstType instanceof InterfaceType) || !(secondType instanceof InterfaceType)
+          || firstType.getElement() != secondType.getElement()) {
+        return false;
+      }
+      Type[] firstArguments = ((InterfaceType) firstType).getTypeArguments();
+      Type[] secondArguments = ((InterfaceType) secondType).getTypeArguments();
+      if (firstArguments.length != secondArguments.length) {
+        return false;
+      }
+      for (int i = 0; i < firstArguments.length; i++) {
+        if (!isSame(firstArguments[i], secondArguments[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * The maximum number of answers that will be kept for a single relation. The answers are cleared
+   * when this number is reached so that the types in them do not keep stale element models alive.
+   */
+  private static final int MAX_SIZE = 100000;
+
+  /**
+   * A flag indicating whether the answers are being memoized.
+   */
+  private static volatile boolean enabled = true;
+
+  /**
+   * Return {@code true} if the answers are being memoized.
+   * 
+   * @return {@code true} if the answers are being memoized
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Set whether the answers are to be memoized. This is intended to allow the effect of the caches
+   * to be measured.
+   * 
+   * @param enabled {@code true} if the answers are to be memoized
+   */
+  public static void setEnabled(boolean enabled) {
+    TypeRelationCache.enabled = enabled;
+  }
+
+  /**
+   * For each relation, a table mapping pairs of types to whether the first type is related to the
+   * second.
+   */
+  private final EnumMap<Relation, HashMap<TypeKey, Boolean>> answers =
+      new EnumMap<Relation, HashMap<TypeKey, Boolean>>(Relation.class);
+
+  /**
+   * The number of times the element model of the context has been changed.
+   */
+  private int modificationStamp = 0;
+
+  /**
+   * The modification stamp of the element model that the answers in this cache were computed from.
+   */
+  private int answersStamp = 0;
+
+  /**
+   * The number of times an answer was found in this cache.
+   */
+  private int hitCount = 0;
+
+  /**
+   * The number of times an answer was not found in this cache.
+   */
+  private int missCount = 0;
+
+  /**
+   * Initialize a newly created cache to be empty.
+   */
+  public TypeRelationCache() {
+    for (Relation relation : Relation.values()) {
+      answers.put(relation, new HashMap<TypeKey, Boolean>());
+    }
+  }
+
+  /**
+   * Record that a part of the element model of the context on which the relationships between
+   * types depend has been changed, invalidating all of the answers in this cache.
+   */
+  public synchronized void elementModelChanged() {
+    modificationStamp++;
+  }
+
+  /**
+   * Return whether the first type is related to the second by the given relation, or {@code null}
+   * if the answer is not known.
+   * 
+   * @param relation the relation being tested
+   * @param firstType the type whose relationship to the second type is being tested
+   * @param secondType the type whose relationship to the first type is being tested
+   * @return whether the first type is related to the second
+   */
+  public synchronized Boolean get(Relation relation, InterfaceType firstType,
+      InterfaceType secondType) {
+    validate();
+    Boolean answer = answers.get(relation).get(new TypeKey(firstType, secondType));
+    if (answer == null) {
+      missCount++;
+    } else {
+      hitCount++;
+    }
+    return answer;
+  }
+
+  /**
+   * Return the number of times an answer was found in this cache.
+   * 
+   * @return the number of times an answer was found in this cache
+   */
+  public synchronized int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Return the number of times an answer was not found in this cache.
+   * 
+   * @return the number of times an answer was not found in this cache
+   */
+  public synchronized int getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Return the number of times the element model of the context has been changed. The value
+   * returned by this method must be passed to {@link #put} so that answers computed while the
+   * element model was being changed are not recorded.
+   * 
+   * @return the number of times the element model has been changed
+   */
+  public synchronized int getModificationStamp() {
+    return modificationStamp;
+  }
+
+  /**
+   * Record whether the first type is related to the second by the given relation. The answer is not
+   * recorded if the element model has changed since the given modification stamp was obtained.
+   * 
+   * @param relation the relation that was tested
+   * @param firstType the type whose relationship to the second type was tested
+   * @param secondType the type whose relationship to the first type was tested
+   * @param answer {@code true} if the first type is related to the second
+   * @param stamp the modification stamp of the element model the answer was computed from
+   */
+  public synchronized void put(Relation relation, InterfaceType firstType,
+      InterfaceType secondType, boolean answer, int stamp) {
+    validate();
+    if (stamp == answersStamp) {
+      HashMap<TypeKey, Boolean> relationAnswers = answers.get(relation);
+      if (relationAnswers.size() >= MAX_SIZE) {
+        relationAnswers.clear();
+      }
+      relationAnswers.put(new TypeKey(firstType, secondType), answer ? Boolean.TRUE : Boolean.FALSE);
+    }
+  }
+
+  /**
+   * Remove all of the answers from this cache if they were computed from a different element model
+   * than the current one.
+   */
+  private void validate() {
+    if (answersStamp != modificationStamp) {
+      for (HashMap<TypeKey, Boolean> relationAnswers : answers.values()) {
+        relationAnswers.clear();
+      }
+      answersStamp = modificationStamp;
+    }
+  }
+}
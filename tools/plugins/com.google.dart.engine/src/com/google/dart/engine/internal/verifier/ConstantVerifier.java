@@ -15,6 +15,7 @@ package com.google.dart.engine.internal.verifier;
 
 import com.google.dart.engine.ast.Annotation;
 import com.google.dart.engine.ast.ArgumentList;
+import com.google.dart.engine.ast.BlockFunctionBody;
 import com.google.dart.engine.ast.ClassDeclaration;
 import com.google.dart.engine.ast.ClassMember;
 import com.google.dart.engine.ast.ConstructorDeclaration;
@@ -22,6 +23,7 @@ import com.google.dart.engine.ast.ConstructorFieldInitializer;
 import com.google.dart.engine.ast.ConstructorInitializer;
 import com.google.dart.engine.ast.DefaultFormalParameter;
 import com.google.dart.engine.ast.Expression;
+import com.google.dart.engine.ast.ExpressionFunctionBody;
 import com.google.dart.engine.ast.FieldDeclaration;
 import com.google.dart.engine.ast.FormalParameter;
 import com.google.dart.engine.ast.FormalParameterList;
@@ -117,6 +119,11 @@ public class ConstantVerifier extends RecursiveAstVisitor<Void> {
    */
   private LibraryElement currentLibrary;
 
+  /**
+   * A flag indicating whether the bodies of functions are to be verified.
+   */
+  private boolean analyzeFunctionBodies = true;
+
   /**
    * Initialize a newly created constant verifier.
    * 
@@ -133,6 +140,16 @@ public class ConstantVerifier extends RecursiveAstVisitor<Void> {
     this.stringType = typeProvider.getStringType();
   }
 
+  /**
+   * Set whether the bodies of functions are to be verified. The bodies of functions must not be
+   * verified if they were not resolved.
+   * 
+   * @param analyzeFunctionBodies {@code true} if the bodies of functions are to be verified
+   */
+  public void setAnalyzeFunctionBodies(boolean analyzeFunctionBodies) {
+    this.analyzeFunctionBodies = analyzeFunctionBodies;
+  }
+
   @Override
   public Void visitAnnotation(Annotation node) {
     super.visitAnnotation(node);
@@ -161,6 +178,14 @@ public class ConstantVerifier extends RecursiveAstVisitor<Void> {
     return null;
   }
 
+  @Override
+  public Void visitBlockFunctionBody(BlockFunctionBody node) {
+    if (!analyzeFunctionBodies) {
+      return null;
+    }
+    return super.visitBlockFunctionBody(node);
+  }
+
   @Override
   public Void visitConstructorDeclaration(ConstructorDeclaration node) {
     if (node.getConstKeyword() != null) {
@@ -171,6 +196,14 @@ public class ConstantVerifier extends RecursiveAstVisitor<Void> {
     return super.visitConstructorDeclaration(node);
   }
 
+  @Override
+  public Void visitExpressionFunctionBody(ExpressionFunctionBody node) {
+    if (!analyzeFunctionBodies) {
+      return null;
+    }
+    return super.visitExpressionFunctionBody(node);
+  }
+
   @Override
   public Void visitFunctionExpression(FunctionExpression node) {
     super.visitFunctionExpression(node);
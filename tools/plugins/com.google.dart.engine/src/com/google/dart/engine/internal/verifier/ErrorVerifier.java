@@ -377,6 +377,11 @@ public class ErrorVerifier extends RecursiveAstVisitor<Void> {
    */
   private ArrayList<ReturnStatement> returnsWithout = new ArrayList<ReturnStatement>();
 
+  /**
+   * A flag indicating whether the bodies of functions are to be verified.
+   */
+  private boolean analyzeFunctionBodies = true;
+
   /**
    * This map is initialized when visiting the contents of a class declaration. If the visitor is
    * not in an enclosing class declaration, then the map is set to {@code null}.
@@ -462,6 +467,16 @@ public class ErrorVerifier extends RecursiveAstVisitor<Void> {
         typeProvider.getDoubleType(), boolType, typeProvider.getStringType()};
   }
 
+  /**
+   * Set whether the bodies of functions are to be verified. The bodies of functions must not be
+   * verified if they were not resolved.
+   * 
+   * @param analyzeFunctionBodies {@code true} if the bodies of functions are to be verified
+   */
+  public void setAnalyzeFunctionBodies(boolean analyzeFunctionBodies) {
+    this.analyzeFunctionBodies = analyzeFunctionBodies;
+  }
+
   @Override
   public Void visitAnnotation(Annotation node) {
     checkForInvalidAnnotationFromDeferredLibrary(node);
@@ -535,6 +550,9 @@ public class ErrorVerifier extends RecursiveAstVisitor<Void> {
 
   @Override
   public Void visitBlockFunctionBody(BlockFunctionBody node) {
+    if (!analyzeFunctionBodies) {
+      return null;
+    }
     boolean wasInAsync = inAsync;
     boolean wasInGenerator = inGenerator;
     boolean previousHasReturnWithoutValue = hasReturnWithoutValue;
@@ -772,6 +790,9 @@ public class ErrorVerifier extends RecursiveAstVisitor<Void> {
 
   @Override
   public Void visitExpressionFunctionBody(ExpressionFunctionBody node) {
+    if (!analyzeFunctionBodies) {
+      return null;
+    }
     boolean wasInAsync = inAsync;
     boolean wasInGenerator = inGenerator;
     try {
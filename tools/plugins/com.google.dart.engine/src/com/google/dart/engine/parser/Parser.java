@@ -3164,7 +3164,7 @@ public class Parser {
             char charAfterLeft = comment.charAt(leftIndex + 1);
             if (Character.isLetterOrDigit(charAfterLeft)) {
               int nameEnd = StringUtilities.indexOfFirstNotLetterDigit(comment, leftIndex + 1);
-              String name = comment.substring(leftIndex + 1, nameEnd);
+              String name = StringUtilities.intern(comment.substring(leftIndex + 1, nameEnd));
               Token nameToken = new StringToken(TokenType.IDENTIFIER, name, nameOffset);
               references.add(new CommentReference(null, new SimpleIdentifier(nameToken)));
             } else {
@@ -52,6 +52,11 @@ public class CharSequenceReader implements CharacterReader {
     return sequence.charAt(++charOffset);
   }
 
+  @Override
+  public int charAt(int offset) {
+    return sequence.charAt(offset);
+  }
+
   @Override
   public int getOffset() {
     return charOffset;
@@ -24,6 +24,16 @@ public interface CharacterReader {
    */
   public int advance();
 
+  /**
+   * Return the character at the given offset relative to the beginning of the source without
+   * changing the current position. The offset must be between the initial offset and the current
+   * offset.
+   * 
+   * @param offset the offset of the character to be returned
+   * @return the character at the given offset
+   */
+  public int charAt(int offset);
+
   /**
    * Return the current offset relative to the beginning of the source. Return the initial offset if
    * the scanner has not yet scanned the source code, and one (1) past the end of the source code if
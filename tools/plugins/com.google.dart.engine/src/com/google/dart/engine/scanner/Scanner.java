@@ -17,6 +17,7 @@ import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.error.AnalysisErrorListener;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.utilities.collection.IntList;
+import com.google.dart.engine.utilities.general.StringUtilities;
 import com.google.dart.engine.utilities.instrumentation.Instrumentation;
 import com.google.dart.engine.utilities.instrumentation.InstrumentationBuilder;
 
@@ -45,6 +46,12 @@ public class Scanner {
    */
   private CharacterReader reader;
 
+  /**
+   * The table used to canonicalize the lexemes of identifiers without creating a substring for
+   * every identifier that is scanned.
+   */
+  private final StringTable identifiers = new StringTable();
+
   /**
    * The error listener that will be informed of any errors that are found during the scan.
    */
@@ -232,7 +239,7 @@ public class Scanner {
     }
 
     if (('A' <= next && next <= 'Z') || next == '_' || next == '$') {
-      return tokenizeIdentifier(next, reader.getOffset(), true);
+      return tokenizeIdentifier(next, reader.getOffset(), 0, true);
     }
 
     if (next == '<') {
@@ -424,6 +431,7 @@ public class Scanner {
       return;
     }
     // OK, remember comment tokens.
+    value = StringUtilities.intern(value);
     if (firstComment == null) {
       firstComment = new StringToken(type, value, tokenStart);
       lastComment = firstComment;
@@ -469,6 +477,20 @@ public class Scanner {
     }
   }
 
+  private void appendIdentifierToken(String value) {
+    if (firstComment == null) {
+      tail = tail.setNext(new StringToken(TokenType.IDENTIFIER, value, tokenStart));
+    } else {
+      tail = tail.setNext(new StringTokenWithComment(
+          TokenType.IDENTIFIER,
+          value,
+          tokenStart,
+          firstComment));
+      firstComment = null;
+      lastComment = null;
+    }
+  }
+
   private void appendKeywordToken(Keyword keyword) {
     if (firstComment == null) {
       tail = tail.setNext(new KeywordToken(keyword, tokenStart));
@@ -480,6 +502,7 @@ public class Scanner {
   }
 
   private void appendStringToken(TokenType type, String value) {
+    value = StringUtilities.intern(value);
     if (firstComment == null) {
       tail = tail.setNext(new StringToken(type, value, tokenStart));
     } else {
@@ -490,6 +513,7 @@ public class Scanner {
   }
 
   private void appendStringTokenWithOffset(TokenType type, String value, int offset) {
+    value = StringUtilities.intern(value);
     if (firstComment == null) {
       tail = tail.setNext(new StringToken(type, value, tokenStart + offset));
     } else {
@@ -765,12 +789,13 @@ public class Scanner {
     return tokenizeNumber(next);
   }
 
-  private int tokenizeIdentifier(int next, int start, boolean allowDollar) {
+  private int tokenizeIdentifier(int next, int start, int hash, boolean allowDollar) {
     while (('a' <= next && next <= 'z') || ('A' <= next && next <= 'Z')
         || ('0' <= next && next <= '9') || next == '_' || (next == '$' && allowDollar)) {
+      hash = 31 * hash + next;
       next = reader.advance();
     }
-    appendStringToken(TokenType.IDENTIFIER, reader.getString(start, next < 0 ? 0 : -1));
+    appendIdentifierToken(identifiers.intern(reader, start, next < 0 ? 0 : -1, hash));
     return next;
   }
 
@@ -818,20 +843,22 @@ public class Scanner {
   private int tokenizeKeywordOrIdentifier(int next, boolean allowDollar) {
     KeywordState state = KeywordState.KEYWORD_STATE;
     int start = reader.getOffset();
+    int hash = 0;
     while (state != null && 'a' <= next && next <= 'z') {
       state = state.next((char) next);
+      hash = 31 * hash + next;
       next = reader.advance();
     }
     if (state == null || state.keyword() == null) {
-      return tokenizeIdentifier(next, start, allowDollar);
+      return tokenizeIdentifier(next, start, hash, allowDollar);
     }
     if (('A' <= next && next <= 'Z') || ('0' <= next && next <= '9') || next == '_' || next == '$') {
-      return tokenizeIdentifier(next, start, allowDollar);
+      return tokenizeIdentifier(next, start, hash, allowDollar);
     } else if (next < 128) {
       appendKeywordToken(state.keyword());
       return next;
     } else {
-      return tokenizeIdentifier(next, start, allowDollar);
+      return tokenizeIdentifier(next, start, hash, allowDollar);
     }
   }
 
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.scanner;
+
+import com.google.dart.engine.utilities.general.StringUtilities;
+
+/**
+ * Instances of the class {@code StringTable} map ranges of characters in the source being scanned
+ * to canonical (interned) strings. The range is described by a {@link CharacterReader}, a start
+ * offset and an end delta, and is looked up using a hash code that the scanner computes while it is
+ * reading the characters, so finding a string that is already in the table does not allocate any
+ * objects. The hash code must be computed the same way as {@link String#hashCode()}.
+ * <p>
+ * Strings that are not yet in the table are interned using {@link StringUtilities#intern(String)},
+ * so the strings returned by different tables are also canonical.
+ * <p>
+ * This class is not thread safe.
+ * 
+ * @coverage dart.engine.parser
+ */
+public class StringTable {
+  /**
+   * The initial number of slots in the table. This must be a power of two.
+   */
+  private static final int INITIAL_CAPACITY = 256;
+
+  /**
+   * The strings in the table, indexed by their hash code. Empty slots are {@code null}.
+   */
+  private String[] strings = new String[INITIAL_CAPACITY];
+
+  /**
+   * The number of strings in the table.
+   */
+  private int count = 0;
+
+  /**
+   * Return the canonical string whose characters are the characters of the source code between the
+   * start offset and the modified current position of the given reader. The current position is not
+   * changed.
+   * 
+   * @param reader the reader from which the characters of the string are read
+   * @param start the offset to the beginning of the string, relative to the start of the file
+   * @param endDelta the number of characters after the current location to be included in the
+   *          string, or the number of characters before the current location to be excluded if the
+   *          offset is negative
+   * @param hash the hash code of the string, computed as it would be by {@link String#hashCode()}
+   * @return the canonical string with the specified characters
+   */
+  public String intern(CharacterReader reader, int start, int endDelta, int hash) {
+    int length = reader.getOffset() + 1 + endDelta - start;
+    int mask = strings.length - 1;
+    int index = hash & mask;
+    String string = strings[index];
+    while (string != null) {
+      if (string.hashCode() == hash && matches(string, reader, start, length)) {
+        return string;
+      }
+      index = (index + 1) & mask;
+      string = strings[index];
+    }
+    string = StringUtilities.intern(reader.getString(start, endDelta));
+    strings[index] = string;
+    count++;
+    if (count * 2 > strings.length) {
+      rehash();
+    }
+    return string;
+  }
+
+  /**
+   * Return the number of strings in the table.
+   * 
+   * @return the number of strings in the table
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Return {@code true} if the given string has the given length and the same characters as the
+   * source code starting at the given offset.
+   * 
+   * @param string the string being compared to the source
+   * @param reader the reader from which the characters of the source are read
+   * @param start the offset of the first character to be compared
+   * @param length the number of characters to be compared
+   * @return {@code true} if the string matches the characters in the source
+   */
+  private boolean matches(String string, CharacterReader reader, int start, int length) {
+    if (string.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (string.charAt(i) != reader.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Double the number of slots in the table, re-inserting all of the strings.
+   */
+  private void rehash() {
+    String[] oldStrings = strings;
+    strings = new String[oldStrings.length * 2];
+    int mask = strings.length - 1;
+    for (String string : oldStrings) {
+      if (string != null) {
+        int index = string.hashCode() & mask;
+        while (strings[index] != null) {
+          index = (index + 1) & mask;
+        }
+        strings[index] = string;
+      }
+    }
+  }
+}
@@ -13,8 +13,6 @@
  */
 package com.google.dart.engine.scanner;
 
-import com.google.dart.engine.utilities.general.StringUtilities;
-
 /**
  * Instances of the class {@code StringToken} represent a token whose value is independent of it's
  * type.
@@ -29,6 +27,7 @@ public class StringToken extends Token {
 
   /**
    * Initialize a newly created token to represent a token of the given type with the given value.
+   * The value is not interned; the {@link Scanner} interns the lexemes of the tokens it creates.
    * 
    * @param type the type of the token
    * @param value the lexeme represented by this token
@@ -36,7 +35,7 @@ public class StringToken extends Token {
    */
   public StringToken(TokenType type, String value, int offset) {
     super(type, offset);
-    this.value = StringUtilities.intern(value);
+    this.value = value;
   }
 
   @Override
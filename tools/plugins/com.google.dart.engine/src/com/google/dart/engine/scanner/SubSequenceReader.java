@@ -36,6 +36,11 @@ public class SubSequenceReader extends CharSequenceReader {
     this.offsetDelta = offsetDelta;
   }
 
+  @Override
+  public int charAt(int offset) {
+    return super.charAt(offset - offsetDelta);
+  }
+
   @Override
   public int getOffset() {
     return offsetDelta + super.getOffset();
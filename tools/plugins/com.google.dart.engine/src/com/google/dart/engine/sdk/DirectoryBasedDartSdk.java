@@ -16,10 +16,14 @@ package com.google.dart.engine.sdk;
 import com.google.dart.engine.AnalysisEngine;
 import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.engine.context.ChangeSet;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
 import com.google.dart.engine.internal.context.InternalAnalysisContext;
 import com.google.dart.engine.internal.context.SdkAnalysisContext;
 import com.google.dart.engine.internal.sdk.LibraryMap;
 import com.google.dart.engine.internal.sdk.SdkLibrariesReader;
+import com.google.dart.engine.internal.sdk.SdkSummaryReader;
+import com.google.dart.engine.internal.sdk.SdkSummaryWriter;
 import com.google.dart.engine.source.DartUriResolver;
 import com.google.dart.engine.source.FileBasedSource;
 import com.google.dart.engine.source.Source;
@@ -30,10 +34,18 @@ import com.google.dart.engine.utilities.translation.DartBlockBody;
 import com.google.dart.engine.utilities.translation.DartOmit;
 import com.google.dart.engine.utilities.translation.DartOptional;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * Instances of the class {@code DirectoryBasedDartSdk} represent a Dart SDK installed in a
@@ -66,6 +78,17 @@ public class DirectoryBasedDartSdk implements DartSdk {
    */
   private final File sdkDirectory;
 
+  /**
+   * The file containing a summary of the resolved libraries in this SDK, or {@code null} if the
+   * libraries are not to be summarized.
+   */
+  private File summaryFile;
+
+  /**
+   * The number of the libraries in this SDK whose element models were read from the summary file.
+   */
+  private int summarizedLibraryCount = 0;
+
   /**
    * The revision number of this SDK, or {@code "0"} if the revision number cannot be discovered.
    */
@@ -329,6 +352,7 @@ public class DirectoryBasedDartSdk implements DartSdk {
         changeSet.addedSource(factory.forUri(uri));
       }
       analysisContext.applyChanges(changeSet);
+      readSummary();
     }
     return analysisContext;
   }
@@ -576,6 +600,64 @@ public class DirectoryBasedDartSdk implements DartSdk {
     }
   }
 
+  /**
+   * Write a summary of the libraries in this SDK that have been resolved to the summary file, so
+   * that they do not need to be resolved again the next time this SDK is used. Nothing is written
+   * if there is no summary file or if no libraries have been resolved since the summary was read.
+   */
+  @DartOmit
+  public void saveSummary() {
+    if (summaryFile == null || analysisContext == null) {
+      return;
+    }
+    ArrayList<LibraryElement> libraries = new ArrayList<LibraryElement>();
+    SourceFactory factory = analysisContext.getSourceFactory();
+    for (String uri : getUris()) {
+      LibraryElement library = analysisContext.getLibraryElement(factory.forUri(uri));
+      if (library != null) {
+        libraries.add(library);
+      }
+    }
+    if (libraries.size() <= summarizedLibraryCount) {
+      return;
+    }
+    File tempFile = new File(summaryFile.getPath() + ".tmp");
+    try {
+      OutputStream stream = new BufferedOutputStream(new FileOutputStream(tempFile));
+      try {
+        new SdkSummaryWriter(stream).write(
+            analysisContext,
+            getSdkVersion(),
+            libraries.toArray(new LibraryElement[libraries.size()]));
+      } finally {
+        stream.close();
+      }
+      summaryFile.delete();
+      if (!tempFile.renameTo(summaryFile)) {
+        throw new IOException("Could not rename " + tempFile.getAbsolutePath());
+      }
+      summarizedLibraryCount = libraries.size();
+    } catch (Exception exception) {
+      tempFile.delete();
+      AnalysisEngine.getInstance().getLogger().logError(
+          "Could not write the SDK summary to " + summaryFile.getAbsolutePath(),
+          exception);
+    }
+  }
+
+  /**
+   * Set the file containing a summary of the resolved libraries in this SDK to the given file. If
+   * the file exists when the context for this SDK is created, and is up to date, the element models
+   * of the libraries are read from the file rather than being produced by resolving the libraries.
+   * This method must be invoked before the context for this SDK is created.
+   * 
+   * @param summaryFile the file containing a summary of the resolved libraries in this SDK
+   */
+  @DartOmit
+  public void setSummaryFile(File summaryFile) {
+    this.summaryFile = summaryFile;
+  }
+
   /**
    * Read all of the configuration files to initialize the library maps.
    * 
@@ -652,4 +734,38 @@ public class DirectoryBasedDartSdk implements DartSdk {
     }
   }
 
+  /**
+   * If there is an up to date summary file, record the element models of the libraries in the
+   * summary as the element models of those libraries in the context for this SDK.
+   */
+  @DartBlockBody({})
+  private void readSummary() {
+    if (summaryFile == null || !summaryFile.exists()
+        || !(analysisContext instanceof AnalysisContextImpl)) {
+      return;
+    }
+    try {
+      InputStream stream = new BufferedInputStream(new FileInputStream(summaryFile));
+      try {
+        SdkSummaryReader reader = new SdkSummaryReader(analysisContext, stream);
+        HashMap<Source, LibraryElement> libraries = reader.read(getSdkVersion());
+        if (libraries == null) {
+          return;
+        }
+        ((AnalysisContextImpl) analysisContext).recordSummarizedLibraryElements(libraries);
+        SourceFactory factory = analysisContext.getSourceFactory();
+        for (String uri : getUris()) {
+          if (libraries.containsKey(factory.forUri(uri))) {
+            summarizedLibraryCount++;
+          }
+        }
+      } finally {
+        stream.close();
+      }
+    } catch (Exception exception) {
+      AnalysisEngine.getInstance().getLogger().logError(
+          "Could not read the SDK summary from " + summaryFile.getAbsolutePath(),
+          exception);
+    }
+  }
 }
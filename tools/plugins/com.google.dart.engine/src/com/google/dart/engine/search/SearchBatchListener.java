@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.search;
+
+import java.util.List;
+
+/**
+ * The interface {@code SearchBatchListener} defines the behavior of objects that are listening for
+ * the results of a search that reports its matches in batches, so that the first matches can be
+ * shown before the search is complete.
+ * 
+ * @coverage dart.engine.search
+ */
+public interface SearchBatchListener {
+  /**
+   * Record the fact that the given matches were found. The matches are not sorted.
+   * 
+   * @param matches the matches that were found
+   */
+  void matchesFound(List<SearchMatch> matches);
+
+  /**
+   * This method is invoked when the search is complete and no additional matches will be found.
+   */
+  void searchComplete();
+}
@@ -17,6 +17,7 @@ import com.google.dart.engine.element.ClassElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.PropertyInducingElement;
 import com.google.dart.engine.type.Type;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 import java.util.List;
 import java.util.Set;
@@ -118,6 +119,27 @@ public interface SearchEngine {
   void searchQualifiedMemberReferences(String name, SearchScope scope, SearchFilter filter,
       SearchListener listener);
 
+  /**
+   * Search for resolved and unresolved qualified references to the class members with given name
+   * within the given scope, passing the matches to the given listener in batches as they are found.
+   * The search stops early once the given number of matches has been passed to the listener, or
+   * once the given token has been cancelled. The listener is always told when the search is
+   * complete.
+   * 
+   * @param name the name being referenced by the found matches
+   * @param scope the scope containing the references to be searched, may be {@code null} if all
+   *          references should be returned
+   * @param filter the filter used to determine which matches should be passed to the listener
+   *          (those that pass the filter), or {@code null} if all of the matches should be passed
+   *          to the listener
+   * @param limit the maximum number of matches to pass to the listener, or zero if all of the
+   *          matches should be passed to the listener
+   * @param token the token used to cancel the search
+   * @param listener the listener that will be notified when matches are found
+   */
+  void searchQualifiedMemberReferences(String name, SearchScope scope, SearchFilter filter,
+      int limit, CancellationToken token, SearchBatchListener listener);
+
   /**
    * Synchronously search for references to the given {@link Element} within the given scope. This
    * method will call corresponding <code>searchReferences</code> method depending on concrete type
@@ -148,6 +170,26 @@ public interface SearchEngine {
   void searchReferences(Element element, SearchScope scope, SearchFilter filter,
       SearchListener listener);
 
+  /**
+   * Search for references to the given {@link Element} within the given scope, passing the matches
+   * to the given listener in batches as they are found. The search stops early once the given
+   * number of matches has been passed to the listener, or once the given token has been cancelled.
+   * The listener is always told when the search is complete.
+   * 
+   * @param element the element being referenced by the found matches
+   * @param scope the scope containing the references to be searched, may be {@code null} if all
+   *          references should be returned
+   * @param filter the filter used to determine which matches should be passed to the listener
+   *          (those that pass the filter), or {@code null} if all of the matches should be passed
+   *          to the listener
+   * @param limit the maximum number of matches to pass to the listener, or zero if all of the
+   *          matches should be passed to the listener
+   * @param token the token used to cancel the search
+   * @param listener the listener that will be notified when matches are found
+   */
+  void searchReferences(Element element, SearchScope scope, SearchFilter filter, int limit,
+      CancellationToken token, SearchBatchListener listener);
+
   /**
    * Synchronously search for subtypes of the given type within the given scope. Return all matches
    * that pass the optional filter.
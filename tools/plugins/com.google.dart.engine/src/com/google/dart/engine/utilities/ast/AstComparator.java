@@ -38,7 +38,7 @@ public class AstComparator implements AstVisitor<Boolean> {
    * The AST node with which the node being visited is to be compared. This is only valid at the
    * beginning of each visit method (until {@link #isEqualNodes(AstNode, AstNode)} is invoked).
    */
-  private AstNode other;
+  protected AstNode other;
 
   @Override
   public Boolean visitAdjacentStrings(AdjacentStrings node) {
@@ -973,6 +973,25 @@ public class AstComparator implements AstVisitor<Boolean> {
         && isEqualTokens(node.getSemicolon(), other.getSemicolon());
   }
 
+  /**
+   * Return {@code true} if the given AST nodes have the same structure.
+   * 
+   * @param first the first node being compared
+   * @param second the second node being compared
+   * @return {@code true} if the given AST nodes have the same structure
+   */
+  protected boolean isEqualNodes(AstNode first, AstNode second) {
+    if (first == null) {
+      return second == null;
+    } else if (second == null) {
+      return false;
+    } else if (first.getClass() != second.getClass()) {
+      return false;
+    }
+    other = second;
+    return first.accept(this);
+  }
+
   /**
    * Return {@code true} if the given lists of AST nodes have the same size and corresponding
    * elements are equal.
@@ -1000,25 +1019,6 @@ public class AstComparator implements AstVisitor<Boolean> {
     return true;
   }
 
-  /**
-   * Return {@code true} if the given AST nodes have the same structure.
-   * 
-   * @param first the first node being compared
-   * @param second the second node being compared
-   * @return {@code true} if the given AST nodes have the same structure
-   */
-  private boolean isEqualNodes(AstNode first, AstNode second) {
-    if (first == null) {
-      return second == null;
-    } else if (second == null) {
-      return false;
-    } else if (first.getClass() != second.getClass()) {
-      return false;
-    }
-    other = second;
-    return first.accept(this);
-  }
-
   /**
    * Return {@code true} if the given arrays of tokens have the same length and corresponding
    * elements are equal.
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.utilities.ast;
+
+import com.google.dart.engine.ast.AstNode;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.type.Type;
+import com.google.dart.engine.utilities.general.ObjectUtilities;
+
+/**
+ * Instances of the class {@code ResolvedAstComparator} compare two resolved AST structures to see
+ * whether they have the same structure and whether the identifiers in them were resolved the same
+ * way. The structures can have been resolved against different element models, so elements are
+ * compared by their locations and types are compared by their names.
+ */
+public class ResolvedAstComparator extends AstComparator {
+  /**
+   * Return {@code true} if the two AST nodes are equal and were resolved the same way.
+   * 
+   * @param first the first node being compared
+   * @param second the second node being compared
+   * @return {@code true} if the two AST nodes are equal and were resolved the same way
+   */
+  public static boolean equalResolvedNodes(AstNode first, AstNode second) {
+    ResolvedAstComparator comparator = new ResolvedAstComparator();
+    return comparator.isEqualNodes(first, second);
+  }
+
+  @Override
+  public Boolean visitSimpleIdentifier(SimpleIdentifier node) {
+    SimpleIdentifier other = (SimpleIdentifier) this.other;
+    return super.visitSimpleIdentifier(node)
+        && isEqualElements(node.getStaticElement(), other.getStaticElement())
+        && isEqualElements(node.getPropagatedElement(), other.getPropagatedElement())
+        && isEqualTypes(node.getStaticType(), other.getStaticType())
+        && isEqualTypes(node.getPropagatedType(), other.getPropagatedType());
+  }
+
+  /**
+   * Return {@code true} if the given elements are either both {@code null} or have the same
+   * location.
+   * 
+   * @param first the first element being compared
+   * @param second the second element being compared
+   * @return {@code true} if the given elements are equivalent
+   */
+  private boolean isEqualElements(Element first, Element second) {
+    if (first == null) {
+      return second == null;
+    } else if (second == null) {
+      return false;
+    }
+    return ObjectUtilities.equals(first.getLocation(), second.getLocation());
+  }
+
+  /**
+   * Return {@code true} if the given types are either both {@code null} or have the same name.
+   * 
+   * @param first the first type being compared
+   * @param second the second type being compared
+   * @return {@code true} if the given types are equivalent
+   */
+  private boolean isEqualTypes(Type first, Type second) {
+    if (first == null) {
+      return second == null;
+    } else if (second == null) {
+      return false;
+    }
+    return ObjectUtilities.equals(first.getDisplayName(), second.getDisplayName());
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.utilities.general;
+
+/**
+ * Instances of the class {@code CancellationToken} are used to tell a piece of asynchronous work
+ * that its results are no longer needed. The token can be cancelled from any thread; the work is
+ * expected to check it from time to time and to stop as soon as it is cancelled.
+ * <p>
+ * A token can have a parent token, in which case it is also cancelled when its parent is. Cancelling
+ * a child token does not cancel its parent, so a piece of work can stop itself early without
+ * affecting the other work that shares the parent token.
+ * 
+ * @coverage dart.engine.utilities
+ */
+public class CancellationToken {
+  /**
+   * A flag indicating whether this token has been cancelled.
+   */
+  private volatile boolean cancelled = false;
+
+  /**
+   * The token whose cancellation also cancels this token, or {@code null} if this token does not
+   * have a parent.
+   */
+  private final CancellationToken parent;
+
+  /**
+   * Initialize a newly created token to not be cancelled.
+   */
+  public CancellationToken() {
+    this(null);
+  }
+
+  /**
+   * Initialize a newly created token to be cancelled when either it or the given parent token is
+   * cancelled.
+   * 
+   * @param parent the token whose cancellation also cancels this token, or {@code null} if this
+   *          token does not have a parent
+   */
+  public CancellationToken(CancellationToken parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Cancel the work that uses this token.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Return {@code true} if either this token or its parent has been cancelled.
+   * 
+   * @return {@code true} if this token has been cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled || parent != null && parent.isCancelled();
+  }
+}
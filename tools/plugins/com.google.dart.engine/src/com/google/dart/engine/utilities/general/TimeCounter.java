@@ -134,11 +134,21 @@ public class TimeCounter {
       timeCounter.correctionTime += delta;
     }
     // update statistics
-    totalTime += delta - correctionTime;
+    recordInterval(delta - correctionTime, delta);
     correctionTime = 0;
-    intervalCount++;
-    minInterval = Math.min(minInterval, delta);
-    maxInterval = Math.max(maxInterval, delta);
+  }
+
+  /**
+   * Adds the specified time interval, which was measured while another counter was counting time,
+   * to the total time and updates the minimum, maximum, and average time intervals. Unlike
+   * {@link #recordElapsedNanos(long)} the interval is not subtracted from the time recorded by the
+   * counters that have been started on the current thread, so those counters continue to include
+   * it.
+   * 
+   * @param delta the number of nanoseconds
+   */
+  public synchronized void recordNestedElapsedNanos(long delta) {
+    recordInterval(delta, delta);
   }
 
   /**
@@ -150,4 +160,18 @@ public class TimeCounter {
     getCountersStack().addFirst(this);
     return new TimeCounterHandle();
   }
+
+  /**
+   * Add the given time to the total time and update the minimum, maximum, and average time
+   * intervals using the given interval.
+   * 
+   * @param time the number of nanoseconds to be added to the total time
+   * @param delta the number of nanoseconds in the interval
+   */
+  private void recordInterval(long time, long delta) {
+    totalTime += time;
+    intervalCount++;
+    minInterval = Math.min(minInterval, delta);
+    maxInterval = Math.max(maxInterval, delta);
+  }
 }
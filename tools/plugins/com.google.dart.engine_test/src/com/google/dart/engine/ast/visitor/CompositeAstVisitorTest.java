@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.ast.visitor;
+
+import com.google.dart.engine.ast.AstNode;
+import com.google.dart.engine.ast.BinaryExpression;
+import com.google.dart.engine.ast.IntegerLiteral;
+import com.google.dart.engine.parser.ParserTestCase;
+import com.google.dart.engine.utilities.general.TimeCounter;
+
+import java.util.ArrayList;
+
+public class CompositeAstVisitorTest extends ParserTestCase {
+  /**
+   * Instances of the class {@code RecordingComponent} record the binary expressions and integer
+   * literals they visit and the binary expressions they exit, optionally skipping either the right
+   * operand or all of the children of every binary expression.
+   */
+  private static class RecordingComponent extends ComponentAstVisitor {
+    private final ArrayList<String> events = new ArrayList<String>();
+
+    private boolean skipChildren = false;
+
+    private boolean skipRightOperand = false;
+
+    @Override
+    public void exitNode(AstNode node) {
+      if (node instanceof BinaryExpression) {
+        events.add("exit " + node.toSource());
+      }
+    }
+
+    @Override
+    public Void visitBinaryExpression(BinaryExpression node) {
+      events.add("visit " + node.toSource());
+      if (skipChildren) {
+        skip(node);
+      } else if (skipRightOperand) {
+        skip(node.getRightOperand());
+      }
+      return null;
+    }
+
+    @Override
+    public Void visitIntegerLiteral(IntegerLiteral node) {
+      events.add("visit " + node.toSource());
+      return null;
+    }
+  }
+
+  public void test_traverse() throws Exception {
+    RecordingComponent first = new RecordingComponent();
+    RecordingComponent second = new RecordingComponent();
+    CompositeAstVisitor visitor = new CompositeAstVisitor();
+    visitor.addComponent(first);
+    visitor.addComponent(second);
+    visitor.traverse(parseExpression("1 + 2 * 3"));
+    assertEquals(
+        createList("visit 1 + 2 * 3", "visit 1", "visit 2 * 3", "visit 2", "visit 3", "exit 2 * 3",
+            "exit 1 + 2 * 3"),
+        first.events);
+    assertEquals(first.events, second.events);
+  }
+
+  public void test_traverse_skipChild() throws Exception {
+    RecordingComponent skipping = new RecordingComponent();
+    skipping.skipRightOperand = true;
+    RecordingComponent other = new RecordingComponent();
+    CompositeAstVisitor visitor = new CompositeAstVisitor();
+    visitor.addComponent(skipping);
+    visitor.addComponent(other);
+    visitor.traverse(parseExpression("1 + 2 * 3"));
+    assertEquals(createList("visit 1 + 2 * 3", "visit 1", "exit 1 + 2 * 3"), skipping.events);
+    assertSizeOfList(7, other.events);
+  }
+
+  public void test_traverse_skipSelf() throws Exception {
+    RecordingComponent skipping = new RecordingComponent();
+    skipping.skipChildren = true;
+    RecordingComponent other = new RecordingComponent();
+    CompositeAstVisitor visitor = new CompositeAstVisitor();
+    visitor.addComponent(skipping);
+    visitor.addComponent(other);
+    visitor.traverse(parseExpression("1 + 2 * 3"));
+    assertEquals(createList("visit 1 + 2 * 3", "exit 1 + 2 * 3"), skipping.events);
+    assertSizeOfList(7, other.events);
+  }
+
+  public void test_traverse_timeCounter() throws Exception {
+    TimeCounter counter = new TimeCounter();
+    CompositeAstVisitor visitor = new CompositeAstVisitor();
+    visitor.addComponent(new RecordingComponent(), counter);
+    visitor.traverse(parseExpression("1 + 2"));
+    visitor.traverse(parseExpression("3 + 4"));
+    assertEquals(2, counter.getCount());
+  }
+
+  public void test_traverse_timeCounter_skipChild() throws Exception {
+    RecordingComponent skipping = new RecordingComponent();
+    skipping.skipRightOperand = true;
+    RecordingComponent other = new RecordingComponent();
+    CompositeAstVisitor visitor = new CompositeAstVisitor();
+    visitor.addComponent(skipping, new TimeCounter());
+    visitor.addComponent(other);
+    visitor.traverse(parseExpression("1 + 2 * 3"));
+    assertEquals(createList("visit 1 + 2 * 3", "visit 1", "exit 1 + 2 * 3"), skipping.events);
+    assertSizeOfList(7, other.events);
+  }
+
+  private ArrayList<String> createList(String... events) {
+    ArrayList<String> list = new ArrayList<String>();
+    for (String event : events) {
+      list.add(event);
+    }
+    return list;
+  }
+}
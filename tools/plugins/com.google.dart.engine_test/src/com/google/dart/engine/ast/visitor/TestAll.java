@@ -26,6 +26,7 @@ public class TestAll {
     suite.addTestSuite(NodeLocatorTest.class);
     suite.addTestSuite(ToSourceVisitorTest.class);
     suite.addTestSuite(BreadthFirstVisitorTest.class);
+    suite.addTestSuite(CompositeAstVisitorTest.class);
     return suite;
   }
 }
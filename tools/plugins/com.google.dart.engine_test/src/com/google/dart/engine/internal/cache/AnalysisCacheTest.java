@@ -31,6 +31,18 @@ public class AnalysisCacheTest extends EngineTestCase {
     assertNull(cache.get(source));
   }
 
+  public void test_getLockFor() {
+    CachePartition partition = new UniversalCachePartition(null, 8, new DefaultRetentionPolicy());
+    AnalysisCache cache = new AnalysisCache(new CachePartition[] {partition});
+    assertSame(partition, cache.getLockFor(new TestSource()));
+  }
+
+  public void test_getLockFor_noPartition() {
+    AnalysisCache cache = new AnalysisCache(new CachePartition[0]);
+    assertSame(cache, cache.getLockFor(new TestSource()));
+    assertSame(cache, cache.getLockFor(null));
+  }
+
   public void test_iterator() {
     CachePartition partition = new UniversalCachePartition(null, 8, new DefaultRetentionPolicy());
     AnalysisCache cache = new AnalysisCache(new CachePartition[] {partition});
@@ -53,6 +65,38 @@ public class AnalysisCacheTest extends EngineTestCase {
     assertSame(entry, cache.get(source));
   }
 
+  public void test_put_expected() {
+    CachePartition partition = new UniversalCachePartition(null, 8, new DefaultRetentionPolicy());
+    AnalysisCache cache = new AnalysisCache(new CachePartition[] {partition});
+    TestSource source = new TestSource();
+    DartEntryImpl entry = new DartEntryImpl();
+    assertTrue(cache.put(source, null, entry));
+    DartEntryImpl copy = entry.getWritableCopy();
+    assertTrue(cache.put(source, entry, copy));
+    assertSame(copy, cache.get(source));
+  }
+
+  public void test_put_expected_changed() {
+    CachePartition partition = new UniversalCachePartition(null, 8, new DefaultRetentionPolicy());
+    AnalysisCache cache = new AnalysisCache(new CachePartition[] {partition});
+    TestSource source = new TestSource();
+    DartEntryImpl entry = new DartEntryImpl();
+    cache.put(source, entry);
+    assertFalse(cache.put(source, null, new DartEntryImpl()));
+    DartEntryImpl firstCopy = entry.getWritableCopy();
+    DartEntryImpl secondCopy = entry.getWritableCopy();
+    assertTrue(cache.put(source, entry, firstCopy));
+    assertFalse(cache.put(source, entry, secondCopy));
+    assertSame(firstCopy, cache.get(source));
+  }
+
+  public void test_put_expected_noPartition() {
+    AnalysisCache cache = new AnalysisCache(new CachePartition[0]);
+    TestSource source = new TestSource();
+    assertFalse(cache.put(source, null, new DartEntryImpl()));
+    assertNull(cache.get(source));
+  }
+
   public void test_setMaxCacheSize() {
     CachePartition partition = new UniversalCachePartition(null, 8, new CacheRetentionPolicy() {
       @Override
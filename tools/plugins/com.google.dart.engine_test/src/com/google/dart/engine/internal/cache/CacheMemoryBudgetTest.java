@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.cache;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.parser.ParserTestCase;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.TestSource;
+
+import static com.google.dart.engine.utilities.io.FileUtilities2.createFile;
+
+public class CacheMemoryBudgetTest extends EngineTestCase {
+  public void test_addEstimatedBytes() {
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    assertEquals(0L, budget.getEstimatedBytes());
+    budget.addEstimatedBytes(100L);
+    budget.addEstimatedBytes(50L);
+    assertEquals(150L, budget.getEstimatedBytes());
+    budget.addEstimatedBytes(-120L);
+    assertEquals(30L, budget.getEstimatedBytes());
+  }
+
+  public void test_flushToBudget_lowPriorityFirst() throws Exception {
+    final Source mediumSource = new TestSource(createFile("/medium.dart"), "");
+    CacheRetentionPolicy policy = new CacheRetentionPolicy() {
+      @Override
+      public RetentionPriority getAstPriority(Source source, SourceEntry sourceEntry) {
+        return source.equals(mediumSource) ? RetentionPriority.MEDIUM : RetentionPriority.LOW;
+      }
+    };
+    UniversalCachePartition firstPartition = new UniversalCachePartition(null, 8, policy);
+    UniversalCachePartition secondPartition = new UniversalCachePartition(null, 8, policy);
+    CompilationUnit unit = ParserTestCase.parseCompilationUnit("class A {}");
+    DartEntryImpl mediumEntry = new DartEntryImpl();
+    mediumEntry.setValue(DartEntry.PARSED_UNIT, unit);
+    long unitSize = mediumEntry.getEstimatedAstSize();
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    firstPartition.setMemoryBudget(budget);
+    secondPartition.setMemoryBudget(budget);
+    firstPartition.put(mediumSource, mediumEntry);
+    firstPartition.accessedAst(mediumSource);
+    Source lowSource = new TestSource(createFile("/low.dart"), "");
+    DartEntryImpl lowEntry = new DartEntryImpl();
+    lowEntry.setValue(DartEntry.PARSED_UNIT, unit);
+    secondPartition.put(lowSource, lowEntry);
+    secondPartition.accessedAst(lowSource);
+    budget.setMaxBytes(unitSize);
+    budget.flushToBudget(null, null);
+    assertEquals(unitSize, firstPartition.getEstimatedAstBytes());
+    assertEquals(0L, secondPartition.getEstimatedAstBytes());
+    budget.setMaxBytes(unitSize - 1);
+    budget.flushToBudget(null, null);
+    assertEquals(0L, firstPartition.getEstimatedAstBytes());
+    assertEquals(0L, budget.getEstimatedBytes());
+  }
+
+  public void test_isExceeded() {
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    budget.setMaxBytes(100L);
+    budget.addEstimatedBytes(100L);
+    assertFalse(budget.isExceeded());
+    budget.addEstimatedBytes(1L);
+    assertTrue(budget.isExceeded());
+  }
+
+  public void test_isExceeded_noMaximum() {
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    assertEquals(0L, budget.getMaxBytes());
+    budget.addEstimatedBytes(1000L);
+    assertFalse(budget.isExceeded());
+  }
+
+  public void test_setMaxBytes() {
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    budget.setMaxBytes(1024L);
+    assertEquals(1024L, budget.getMaxBytes());
+  }
+}
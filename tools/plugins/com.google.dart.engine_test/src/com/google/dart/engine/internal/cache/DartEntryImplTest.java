@@ -29,6 +29,7 @@ import com.google.dart.engine.error.StaticWarningCode;
 import com.google.dart.engine.internal.element.LibraryElementImpl;
 import com.google.dart.engine.internal.scope.Namespace;
 import com.google.dart.engine.parser.ParserErrorCode;
+import com.google.dart.engine.parser.ParserTestCase;
 import com.google.dart.engine.scanner.ScannerErrorCode;
 import com.google.dart.engine.scanner.Token;
 import com.google.dart.engine.scanner.TokenType;
@@ -101,6 +102,19 @@ public class DartEntryImplTest extends EngineTestCase {
     assertLength(5, entry.getAllErrors());
   }
 
+  public void test_getEstimatedAstSize() throws Exception {
+    DartEntryImpl entry = new DartEntryImpl();
+    assertEquals(0L, entry.getEstimatedAstSize());
+    CompilationUnit unit = ParserTestCase.parseCompilationUnit("class A {}");
+    entry.setValue(DartEntry.PARSED_UNIT, unit);
+    long parsedSize = entry.getEstimatedAstSize();
+    assertTrue(parsedSize > 0L);
+    entry.setValueInLibrary(DartEntry.RESOLVED_UNIT, new TestSource(), unit);
+    assertEquals(parsedSize, entry.getEstimatedAstSize());
+    entry.flushAstStructures();
+    assertEquals(0L, entry.getEstimatedAstSize());
+  }
+
   public void test_getResolvableCompilationUnit_none() {
     DartEntryImpl entry = new DartEntryImpl();
     assertNull(entry.getResolvableCompilationUnit());
@@ -19,6 +19,12 @@ import com.google.dart.engine.source.DartUriResolver;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceFactory;
 import com.google.dart.engine.source.TestSource;
+import com.google.dart.engine.utilities.collection.MapIterator;
+
+import static com.google.dart.engine.utilities.io.FileUtilities2.createFile;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class SdkCachePartitionTest extends EngineTestCase {
   public void test_contains_false() {
@@ -38,4 +44,125 @@ public class SdkCachePartitionTest extends EngineTestCase {
   public void test_creation() {
     assertNotNull(new SdkCachePartition(null, 8));
   }
+
+  public void test_iterator_concurrentPut() {
+    SdkCachePartition partition = new SdkCachePartition(null, 8);
+    int size = 4;
+    for (int i = 0; i < size; i++) {
+      partition.put(new TestSource(createFile("/test" + i + ".dart"), ""), new DartEntryImpl());
+    }
+    int count = 0;
+    MapIterator<Source, SourceEntry> iterator = partition.iterator();
+    while (iterator.moveNext()) {
+      if (count == 0) {
+        // Another context is allowed to record results while this one is iterating.
+        partition.put(new TestSource(createFile("/added.dart"), ""), new DartEntryImpl());
+      }
+      count++;
+    }
+    assertTrue(count >= size);
+    assertEquals(size + 1, partition.size());
+  }
+
+  public void test_put_concurrentModification() throws Exception {
+    //
+    // Each thread stands in for a context that marks a different result of the same sources as
+    // being in-process, half of them while holding the partition's lock (as results are recorded)
+    // and half of them by retrying when the entry was changed (as tasks are created). None of the
+    // results may be lost.
+    //
+    final SdkCachePartition partition = new SdkCachePartition(null, 8);
+    final int sourceCount = 500;
+    final Source[] sources = new Source[sourceCount];
+    for (int i = 0; i < sourceCount; i++) {
+      sources[i] = new TestSource(createFile("/test" + i + ".dart"), "");
+      partition.put(sources[i], new DartEntryImpl());
+    }
+    final DataDescriptor<?>[] descriptors = {
+        DartEntry.SCAN_ERRORS, DartEntry.PARSE_ERRORS, DartEntry.ELEMENT,
+        DartEntry.PUBLIC_NAMESPACE};
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    ArrayList<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < descriptors.length; t++) {
+      final DataDescriptor<?> descriptor = descriptors[t];
+      final boolean holdLock = t % 2 == 0;
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            for (Source source : sources) {
+              if (holdLock) {
+                synchronized (partition) {
+                  DartEntryImpl dartCopy = ((DartEntry) partition.get(source)).getWritableCopy();
+                  dartCopy.setState(descriptor, CacheState.IN_PROCESS);
+                  partition.put(source, dartCopy);
+                }
+              } else {
+                while (true) {
+                  DartEntry dartEntry = (DartEntry) partition.get(source);
+                  DartEntryImpl dartCopy = dartEntry.getWritableCopy();
+                  dartCopy.setState(descriptor, CacheState.IN_PROCESS);
+                  if (partition.put(source, dartEntry, dartCopy)) {
+                    break;
+                  }
+                }
+              }
+            }
+          } catch (Throwable exception) {
+            failure.set(exception);
+          }
+        }
+      };
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(failure.get());
+    for (Source source : sources) {
+      SourceEntry entry = partition.get(source);
+      for (DataDescriptor<?> descriptor : descriptors) {
+        assertSame(CacheState.IN_PROCESS, entry.getState(descriptor));
+      }
+    }
+  }
+
+  public void test_put_concurrent() throws Exception {
+    final SdkCachePartition partition = new SdkCachePartition(null, 8);
+    final int threadCount = 4;
+    final int sourceCount = 500;
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    ArrayList<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < threadCount; t++) {
+      final int threadIndex = t;
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            for (int i = 0; i < sourceCount; i++) {
+              Source source = new TestSource(
+                  createFile("/test" + threadIndex + "_" + i + ".dart"),
+                  "");
+              partition.put(source, new DartEntryImpl());
+              partition.storedAst(source);
+              assertNotNull(partition.get(source));
+              partition.accessedAst(source);
+            }
+          } catch (Throwable exception) {
+            failure.set(exception);
+          }
+        }
+      };
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(failure.get());
+    assertEquals(threadCount * sourceCount, partition.size());
+  }
 }
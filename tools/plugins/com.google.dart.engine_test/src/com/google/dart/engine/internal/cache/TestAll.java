@@ -22,6 +22,7 @@ public class TestAll {
   public static Test suite() {
     TestSuite suite = new ExtendedTestSuite("Tests in " + TestAll.class.getPackage().getName());
     suite.addTestSuite(AnalysisCacheTest.class);
+    suite.addTestSuite(CacheMemoryBudgetTest.class);
     suite.addTestSuite(DartEntryImplTest.class);
     suite.addTestSuite(HtmlEntryImplTest.class);
     suite.addTestSuite(PartitionManagerTest.class);
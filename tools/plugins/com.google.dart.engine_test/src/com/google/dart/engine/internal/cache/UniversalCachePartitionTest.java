@@ -14,8 +14,11 @@
 package com.google.dart.engine.internal.cache;
 
 import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.parser.ParserTestCase;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.TestSource;
+import com.google.dart.engine.utilities.collection.MapIterator;
 
 import static com.google.dart.engine.utilities.io.FileUtilities2.createFile;
 
@@ -24,6 +27,78 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 public class UniversalCachePartitionTest extends EngineTestCase {
+  public void test_accessedAst_memoryBudget() throws Exception {
+    UniversalCachePartition partition = createPartitionWithLowPriority();
+    CompilationUnit unit = ParserTestCase.parseCompilationUnit("class A {}");
+    long unitSize = createEntryWithUnit(unit).getEstimatedAstSize();
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    budget.setMaxBytes(unitSize * 2);
+    partition.setMemoryBudget(budget);
+    int size = 6;
+    for (int i = 0; i < size; i++) {
+      Source source = new TestSource(createFile("/test" + i + ".dart"), "");
+      partition.put(source, createEntryWithUnit(unit));
+      partition.accessedAst(source);
+    }
+    assertNonFlushedCount(2, partition);
+    assertEquals(unitSize * 2, partition.getEstimatedAstBytes());
+    assertEquals(unitSize * 2, budget.getEstimatedBytes());
+  }
+
+  public void test_accessedAst_sharedMemoryBudget() throws Exception {
+    UniversalCachePartition firstPartition = createPartitionWithLowPriority();
+    UniversalCachePartition secondPartition = createPartitionWithLowPriority();
+    CompilationUnit unit = ParserTestCase.parseCompilationUnit("class A {}");
+    long unitSize = createEntryWithUnit(unit).getEstimatedAstSize();
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    budget.setMaxBytes(unitSize * 3);
+    firstPartition.setMemoryBudget(budget);
+    secondPartition.setMemoryBudget(budget);
+    for (int i = 0; i < 2; i++) {
+      Source source = new TestSource(createFile("/first" + i + ".dart"), "");
+      firstPartition.put(source, createEntryWithUnit(unit));
+      firstPartition.accessedAst(source);
+    }
+    for (int i = 0; i < 2; i++) {
+      Source source = new TestSource(createFile("/second" + i + ".dart"), "");
+      secondPartition.put(source, createEntryWithUnit(unit));
+      secondPartition.accessedAst(source);
+    }
+    assertNonFlushedCount(1, firstPartition);
+    assertNonFlushedCount(2, secondPartition);
+    assertEquals(unitSize * 3, budget.getEstimatedBytes());
+  }
+
+  public void test_accessedAst_sharedMemoryBudget_idlePartition() throws Exception {
+    UniversalCachePartition idlePartition = createPartitionWithLowPriority();
+    UniversalCachePartition activePartition = createPartitionWithLowPriority();
+    CompilationUnit unit = ParserTestCase.parseCompilationUnit("class A {}");
+    long unitSize = createEntryWithUnit(unit).getEstimatedAstSize();
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    budget.setMaxBytes(unitSize * 4);
+    idlePartition.setMemoryBudget(budget);
+    activePartition.setMemoryBudget(budget);
+    for (int i = 0; i < 4; i++) {
+      Source source = new TestSource(createFile("/idle" + i + ".dart"), "");
+      idlePartition.put(source, createEntryWithUnit(unit));
+      idlePartition.accessedAst(source);
+    }
+    Source[] sources = new Source[4];
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = new TestSource(createFile("/active" + i + ".dart"), "");
+      activePartition.put(sources[i], createEntryWithUnit(unit));
+      activePartition.accessedAst(sources[i]);
+    }
+    for (Source source : sources) {
+      activePartition.accessedAst(source);
+    }
+    assertNonFlushedCount(0, idlePartition);
+    assertNonFlushedCount(4, activePartition);
+    assertEquals(0L, idlePartition.getEstimatedAstBytes());
+    assertEquals(unitSize * 4, activePartition.getEstimatedAstBytes());
+    assertEquals(unitSize * 4, budget.getEstimatedBytes());
+  }
+
   public void test_contains() {
     UniversalCachePartition partition = new UniversalCachePartition(null, 8, null);
     TestSource source = new TestSource();
@@ -53,6 +128,43 @@ public class UniversalCachePartitionTest extends EngineTestCase {
     assertNull(partition.get(source));
   }
 
+  public void test_iterator_setValue() throws Exception {
+    UniversalCachePartition partition = new UniversalCachePartition(null, 8, null);
+    CompilationUnit unit = ParserTestCase.parseCompilationUnit("class A {}");
+    DartEntryImpl entry = createEntryWithUnit(unit);
+    partition.put(new TestSource(), entry);
+    assertEquals(entry.getEstimatedAstSize(), partition.getEstimatedAstBytes());
+    MapIterator<Source, SourceEntry> iterator = partition.iterator();
+    assertTrue(iterator.moveNext());
+    DartEntryImpl newEntry = new DartEntryImpl();
+    iterator.setValue(newEntry);
+    assertSame(newEntry, iterator.getValue());
+    assertFalse(iterator.moveNext());
+    assertEquals(0L, partition.getEstimatedAstBytes());
+  }
+
+  public void test_put_estimatedAstBytes() throws Exception {
+    UniversalCachePartition partition = new UniversalCachePartition(null, 8, null);
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    partition.setMemoryBudget(budget);
+    CompilationUnit unit = ParserTestCase.parseCompilationUnit("class A {}");
+    DartEntryImpl entry = createEntryWithUnit(unit);
+    long unitSize = entry.getEstimatedAstSize();
+    TestSource source = new TestSource();
+    partition.put(source, entry);
+    assertEquals(unitSize, partition.getEstimatedAstBytes());
+    assertEquals(unitSize, budget.getEstimatedBytes());
+    DartEntryImpl flushedEntry = entry.getWritableCopy();
+    flushedEntry.flushAstStructures();
+    assertTrue(partition.put(source, entry, flushedEntry));
+    assertEquals(0L, partition.getEstimatedAstBytes());
+    assertEquals(0L, budget.getEstimatedBytes());
+    partition.put(source, entry);
+    partition.remove(source);
+    assertEquals(0L, partition.getEstimatedAstBytes());
+    assertEquals(0L, budget.getEstimatedBytes());
+  }
+
   public void test_put_noFlush() {
     UniversalCachePartition partition = new UniversalCachePartition(null, 8, null);
     TestSource source = new TestSource();
@@ -72,15 +184,7 @@ public class UniversalCachePartitionTest extends EngineTestCase {
   }
 
   public void test_setMaxCacheSize() {
-    UniversalCachePartition partition = new UniversalCachePartition(
-        null,
-        8,
-        new CacheRetentionPolicy() {
-          @Override
-          public RetentionPriority getAstPriority(Source source, SourceEntry sourceEntry) {
-            return RetentionPriority.LOW;
-          }
-        });
+    UniversalCachePartition partition = createPartitionWithLowPriority();
     int size = 6;
     for (int i = 0; i < size; i++) {
       Source source = new TestSource(createFile("/test" + i + ".dart"), "");
@@ -95,6 +199,28 @@ public class UniversalCachePartitionTest extends EngineTestCase {
     assertNonFlushedCount(newSize, partition);
   }
 
+  public void test_setMemoryBudget() throws Exception {
+    UniversalCachePartition partition = createPartitionWithLowPriority();
+    CompilationUnit unit = ParserTestCase.parseCompilationUnit("class A {}");
+    int size = 6;
+    for (int i = 0; i < size; i++) {
+      Source source = new TestSource(createFile("/test" + i + ".dart"), "");
+      partition.put(source, createEntryWithUnit(unit));
+      partition.accessedAst(source);
+    }
+    assertNonFlushedCount(size, partition);
+    long unitSize = partition.getEstimatedAstBytes() / size;
+    CacheMemoryBudget budget = new CacheMemoryBudget();
+    budget.setMaxBytes(unitSize * 3);
+    partition.setMemoryBudget(budget);
+    assertNonFlushedCount(3, partition);
+    assertEquals(unitSize * 3, partition.getEstimatedAstBytes());
+    assertEquals(unitSize * 3, budget.getEstimatedBytes());
+    partition.setMemoryBudget(null);
+    assertEquals(unitSize * 3, partition.getEstimatedAstBytes());
+    assertEquals(0L, budget.getEstimatedBytes());
+  }
+
   public void test_size() {
     UniversalCachePartition partition = new UniversalCachePartition(null, 8, null);
     int size = 4;
@@ -117,4 +243,19 @@ public class UniversalCachePartitionTest extends EngineTestCase {
     }
     assertEquals(expectedCount, nonFlushedCount);
   }
+
+  private DartEntryImpl createEntryWithUnit(CompilationUnit unit) {
+    DartEntryImpl entry = new DartEntryImpl();
+    entry.setValue(DartEntry.PARSED_UNIT, unit);
+    return entry;
+  }
+
+  private UniversalCachePartition createPartitionWithLowPriority() {
+    return new UniversalCachePartition(null, 8, new CacheRetentionPolicy() {
+      @Override
+      public RetentionPriority getAstPriority(Source source, SourceEntry sourceEntry) {
+        return RetentionPriority.LOW;
+      }
+    });
+  }
 }
@@ -27,9 +27,11 @@ import com.google.dart.engine.ast.VariableDeclaration;
 import com.google.dart.engine.ast.VariableDeclarationList;
 import com.google.dart.engine.constant.DeclaredVariables;
 import com.google.dart.engine.context.AnalysisException;
+import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.ConstructorElement;
 import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.element.ParameterElement;
+import com.google.dart.engine.element.TopLevelVariableElement;
 import com.google.dart.engine.error.CompileTimeErrorCode;
 import com.google.dart.engine.error.ErrorCode;
 import com.google.dart.engine.internal.element.VariableElementImpl;
@@ -233,6 +235,51 @@ public class ConstantValueComputerTest extends ResolverTestCase {
     validate(true, ((TopLevelVariableDeclaration) members.get(0)).getVariables());
   }
 
+  public void test_computeValues_valueCache_changedInitializer() throws Exception {
+    Source librarySource = addSource(createSource(//
+        "const int a = 0;",
+        "const int b = a + 1;",
+        "const int c = 2;"));
+    LibraryElement firstLibrary = resolve(librarySource);
+    getAnalysisContext().setContents(librarySource, createSource(//
+        "const int a = 1;",
+        "const int b = a + 1;",
+        "const int c = 2;"));
+    LibraryElement secondLibrary = resolve(librarySource);
+    assertNotSame(getEvaluationResult(firstLibrary, "a"), getEvaluationResult(secondLibrary, "a"));
+    assertNotSame(getEvaluationResult(firstLibrary, "b"), getEvaluationResult(secondLibrary, "b"));
+    assertSame(getEvaluationResult(firstLibrary, "c"), getEvaluationResult(secondLibrary, "c"));
+    assertEquals(2, assertValidInt(getEvaluationResult(secondLibrary, "b")));
+  }
+
+  public void test_computeValues_valueCache_instanceCreation() throws Exception {
+    String contents = createSource(//
+        "class A {",
+        "  const A();",
+        "}",
+        "const A a = const A();");
+    Source librarySource = addSource(contents);
+    LibraryElement firstLibrary = resolve(librarySource);
+    getAnalysisContext().setContents(librarySource, contents + "\nint f() => 0;");
+    LibraryElement secondLibrary = resolve(librarySource);
+    assertNotSame(getEvaluationResult(firstLibrary, "a"), getEvaluationResult(secondLibrary, "a"));
+  }
+
+  public void test_computeValues_valueCache_unchangedInitializers() throws Exception {
+    String contents = createSource(//
+        "const int a = 0;",
+        "const int b = a + 1;",
+        "const Map<String, String> c = const {'x' : 'y'};");
+    Source librarySource = addSource(contents);
+    LibraryElement firstLibrary = resolve(librarySource);
+    getAnalysisContext().setContents(librarySource, contents + "\nint f() => 0;");
+    LibraryElement secondLibrary = resolve(librarySource);
+    assertNotSame(firstLibrary, secondLibrary);
+    assertSame(getEvaluationResult(firstLibrary, "a"), getEvaluationResult(secondLibrary, "a"));
+    assertSame(getEvaluationResult(firstLibrary, "b"), getEvaluationResult(secondLibrary, "b"));
+    assertSame(getEvaluationResult(firstLibrary, "c"), getEvaluationResult(secondLibrary, "c"));
+  }
+
   public void test_dependencyOnConstructor() throws Exception {
     // x depends on "const A()"
     assertProperDependencies(createSource(//
@@ -941,6 +988,17 @@ public class ConstantValueComputerTest extends ResolverTestCase {
         analysisContext.getDeclaredVariables());
   }
 
+  private EvaluationResultImpl getEvaluationResult(LibraryElement library, String name) {
+    CompilationUnitElement unit = library.getDefiningCompilationUnit();
+    for (TopLevelVariableElement variable : unit.getTopLevelVariables()) {
+      if (variable.getName().equals(name)) {
+        return ((VariableElementImpl) variable).getEvaluationResult();
+      }
+    }
+    fail("Could not find a variable named " + name);
+    return null;
+  }
+
   private void validate(boolean shouldBeValid, VariableDeclarationList declarationList) {
     for (VariableDeclaration declaration : declarationList.getVariables()) {
       VariableElementImpl element = (VariableElementImpl) declaration.getElement();
@@ -32,11 +32,13 @@ import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.ConstructorElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.ElementLocation;
+import com.google.dart.engine.element.FunctionElement;
 import com.google.dart.engine.element.HtmlElement;
 import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.element.PropertyAccessorElement;
 import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.error.ErrorSeverity;
+import com.google.dart.engine.error.HintCode;
 import com.google.dart.engine.html.ast.HtmlScriptTagNode;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.html.ast.XmlTagNode;
@@ -876,6 +878,26 @@ public class AnalysisContextImplTest extends EngineTestCase {
     assertNull(context.getResolvedCompilationUnit(source, library));
   }
 
+  public void test_getResolvedCompilationUnit_lazyFunctionBodies() throws Exception {
+    context = AnalysisContextFactory.contextWithCore();
+    sourceFactory = context.getSourceFactory();
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl(context.getAnalysisOptions());
+    options.setAnalyzeFunctionBodiesLazily(true);
+    context.setAnalysisOptions(options);
+    Source libSource = new TestSource(createFile("/lib.dart"), createSource(//
+        "library lib;",
+        "int f() => undefined;"));
+    ChangeSet changeSet = new ChangeSet();
+    changeSet.addedSource(libSource);
+    context.applyChanges(changeSet);
+    context.computeLibraryElement(libSource);
+    assertFalse(context.getAnalyzeFunctionBodies(libSource));
+    // Getting the cached resolved unit does not cause the function bodies to be resolved.
+    context.getResolvedCompilationUnit(libSource, libSource);
+    assertFalse(context.getAnalyzeFunctionBodies(libSource));
+    assertLength(0, context.getErrors(libSource).getErrors());
+  }
+
   public void test_getResolvedCompilationUnit_library_null() throws Exception {
     context = AnalysisContextFactory.contextWithCore();
     sourceFactory = context.getSourceFactory();
@@ -1044,6 +1066,59 @@ public class AnalysisContextImplTest extends EngineTestCase {
     assertContains(librariesWithPart, libSource);
   }
 
+  public void test_performAnalysisTask_parallel() throws Exception {
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl(context.getAnalysisOptions());
+    options.setParallelTaskCount(4);
+    context.setAnalysisOptions(options);
+    Source sourceA = addSource("/a.dart", "library a;");
+    Source sourceB = addSource("/b.dart", "library b;");
+    Source sourceC = addSource("/c.dart", "library c;");
+    // The three scan tasks are independent, so they are all performed by a single invocation.
+    context.performAnalysisTask();
+    assertNotNull(context.getLineInfo(sourceA));
+    assertNotNull(context.getLineInfo(sourceB));
+    assertNotNull(context.getLineInfo(sourceC));
+  }
+
+  public void test_performAnalysisTask_parallel_libraryErrors() throws Exception {
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl(context.getAnalysisOptions());
+    options.setParallelTaskCount(4);
+    options.setHint(true);
+    context.setAnalysisOptions(options);
+    Source libSource = addSource("/lib.dart", createSource(//
+        "library lib;",
+        "import 'dart:async';",
+        "part 'part.dart';"));
+    Source partSource = addSource("/part.dart", createSource(//
+        "part of lib;",
+        "class A {",
+        "  int f = new A();",
+        "}"));
+    analyzeAll_assertFinished();
+    // The units of the library are verified, and the hints generated, by a single task.
+    AnalysisError[] libErrors = context.getErrors(libSource).getErrors();
+    assertLength(1, libErrors);
+    assertSame(HintCode.UNUSED_IMPORT, libErrors[0].getErrorCode());
+    assertLength(1, context.getErrors(partSource).getErrors());
+  }
+
+  public void test_performAnalysisTask_parallel_libraryCycles() throws Exception {
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl(context.getAnalysisOptions());
+    options.setParallelTaskCount(4);
+    context.setAnalysisOptions(options);
+    Source sourceA = addSource("/a.dart", "library a; class A {}");
+    Source sourceB = addSource("/b.dart", "library b; class B {}");
+    Source sourceC = addSource("/c.dart", "library c; import 'a.dart'; class C extends A {}");
+    analyzeAll_assertFinished();
+    assertNotNull(context.getResolvedCompilationUnit(sourceA, sourceA));
+    assertNotNull(context.getResolvedCompilationUnit(sourceB, sourceB));
+    CompilationUnit unitC = context.getResolvedCompilationUnit(sourceC, sourceC);
+    assertNotNull(unitC);
+    ClassElement classC = findClass(unitC.getElement(), "C");
+    assertEquals("A", classC.getSupertype().getDisplayName());
+    assertLength(0, context.getErrors(sourceC).getErrors());
+  }
+
   public void test_performAnalysisTask_changeLibraryContents() throws Exception {
     Source libSource = addSource("/test.dart", "library lib; part 'test-part.dart';");
     Source partSource = addSource("/test-part.dart", "part of lib;");
@@ -1196,6 +1271,46 @@ public class AnalysisContextImplTest extends EngineTestCase {
     assertTrue("htmlSource doesn't have errors", !hasAnalysisErrorWithErrorSeverity(errors));
   }
 
+  public void test_performAnalysisTask_importedLibraryChange_bodyChanged() throws Exception {
+    context = AnalysisContextFactory.contextWithCore();
+    sourceFactory = context.getSourceFactory();
+    Source libASource = addSource("/libA.dart", "library libA; int f() => 0; int h() => 0;");
+    Source libBSource = addSource("/libB.dart", "library libB; import 'libA.dart'; g() => f();");
+    analyzeAll_assertFinished();
+    CompilationUnit unitB = context.getResolvedCompilationUnit(libBSource, libBSource);
+    assertNotNull("libB resolved 1", unitB);
+    // change the length of a function body, which moves the declarations after it, and analyze
+    context.setContents(libASource, "library libA; int f() => 1 + 2; int h() => 0;");
+    analyzeAll_assertFinished();
+    assertNotNull("libA resolved 2", context.getResolvedCompilationUnit(libASource, libASource));
+    assertSame("libB not invalidated", unitB, context.getResolvedCompilationUnit(
+        libBSource,
+        libBSource));
+  }
+
+  public void test_performAnalysisTask_importedLibraryChange_declarationMoved() throws Exception {
+    context = AnalysisContextFactory.contextWithCore();
+    sourceFactory = context.getSourceFactory();
+    Source libASource = addSource("/libA.dart", "library libA; int f() => 0;");
+    Source libBSource = addSource("/libB.dart", "library libB; import 'libA.dart'; g() => f();");
+    analyzeAll_assertFinished();
+    CompilationUnit unitB = context.getResolvedCompilationUnit(libBSource, libBSource);
+    assertNotNull("libB resolved 1", unitB);
+    LibraryElement libraryB = context.getLibraryElement(libBSource);
+    LibraryElement oldLibraryA = libraryB.getImports()[0].getImportedLibrary();
+    // move the declaration of 'f' and analyze
+    String newContents = "library libA;\n\nint f() => 0;";
+    context.setContents(libASource, newContents);
+    analyzeAll_assertFinished();
+    assertNotNull("libA resolved 2", context.getLibraryElement(libASource));
+    assertSame("libB not invalidated", unitB, context.getResolvedCompilationUnit(
+        libBSource,
+        libBSource));
+    // the element model of libA that libB refers to has the new offsets
+    FunctionElement f = oldLibraryA.getDefiningCompilationUnit().getFunctions()[0];
+    assertEquals(newContents.indexOf("f()"), f.getNameOffset());
+  }
+
   public void test_performAnalysisTask_importedLibraryDelete() throws Exception {
     Source libASource = addSource("/libA.dart", "library libA; import 'libB.dart';");
     Source libBSource = addSource("/libB.dart", "library libB;");
@@ -1279,6 +1394,33 @@ public class AnalysisContextImplTest extends EngineTestCase {
     assertNamedElements(visibleLibraries, "dart.core", "libA", "libB");
   }
 
+  public void test_resolveCompilationUnit_lazyFunctionBodies() throws Exception {
+    context = AnalysisContextFactory.contextWithCore();
+    sourceFactory = context.getSourceFactory();
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl(context.getAnalysisOptions());
+    options.setAnalyzeFunctionBodiesLazily(true);
+    context.setAnalysisOptions(options);
+    Source libSource = new TestSource(createFile("/lib.dart"), createSource(//
+        "library lib;",
+        "int f() => undefined;"));
+    ChangeSet changeSet = new ChangeSet();
+    changeSet.addedSource(libSource);
+    context.applyChanges(changeSet);
+    Source source = addSource("/test.dart", createSource(//
+        "import 'lib.dart';",
+        "main() {",
+        "  f();",
+        "}"));
+    context.computeLibraryElement(source);
+    assertTrue(context.getAnalyzeFunctionBodies(source));
+    assertFalse(context.getAnalyzeFunctionBodies(libSource));
+    assertLength(0, context.getErrors(libSource).getErrors());
+    // Requesting the resolved unit causes the function bodies to be resolved.
+    assertNotNull(context.resolveCompilationUnit(libSource, libSource));
+    assertTrue(context.getAnalyzeFunctionBodies(libSource));
+    assertLength(1, context.getErrors(libSource).getErrors());
+  }
+
   public void test_resolveCompilationUnit_library() throws Exception {
     context = AnalysisContextFactory.contextWithCore();
     sourceFactory = context.getSourceFactory();
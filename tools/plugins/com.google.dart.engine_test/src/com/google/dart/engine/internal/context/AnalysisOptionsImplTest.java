@@ -22,22 +22,30 @@ public class AnalysisOptionsImplTest extends EngineTestCase {
       AnalysisOptionsImpl options = new AnalysisOptionsImpl();
       options.setAnalyzeAngular(booleanValue);
       options.setAnalyzeFunctionBodies(booleanValue);
+      options.setAnalyzeFunctionBodiesLazily(booleanValue);
       options.setAnalyzePolymer(booleanValue);
       options.setCacheSize(i);
       options.setDart2jsHint(booleanValue);
       options.setGenerateSdkErrors(booleanValue);
       options.setHint(booleanValue);
       options.setIncremental(booleanValue);
+      options.setIncrementalValidation(booleanValue);
+      options.setParallelTaskCount(i + 1);
       options.setPreserveComments(booleanValue);
       AnalysisOptionsImpl copy = new AnalysisOptionsImpl(options);
       assertEquals(options.getAnalyzeAngular(), copy.getAnalyzeAngular());
       assertEquals(options.getAnalyzeFunctionBodies(), copy.getAnalyzeFunctionBodies());
+      assertEquals(
+          options.getAnalyzeFunctionBodiesLazily(),
+          copy.getAnalyzeFunctionBodiesLazily());
       assertEquals(options.getAnalyzePolymer(), copy.getAnalyzePolymer());
       assertEquals(options.getCacheSize(), copy.getCacheSize());
       assertEquals(options.getDart2jsHint(), copy.getDart2jsHint());
       assertEquals(options.getGenerateSdkErrors(), copy.getGenerateSdkErrors());
       assertEquals(options.getHint(), copy.getHint());
       assertEquals(options.getIncremental(), copy.getIncremental());
+      assertEquals(options.getIncrementalValidation(), copy.getIncrementalValidation());
+      assertEquals(options.getParallelTaskCount(), copy.getParallelTaskCount());
       assertEquals(options.getPreserveComments(), copy.getPreserveComments());
     }
   }
@@ -56,6 +64,13 @@ public class AnalysisOptionsImplTest extends EngineTestCase {
     assertEquals(value, options.getAnalyzeFunctionBodies());
   }
 
+  public void test_getAnalyzeFunctionBodiesLazily() {
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl();
+    boolean value = !options.getAnalyzeFunctionBodiesLazily();
+    options.setAnalyzeFunctionBodiesLazily(value);
+    assertEquals(value, options.getAnalyzeFunctionBodiesLazily());
+  }
+
   public void test_getAnalyzePolymer() {
     AnalysisOptionsImpl options = new AnalysisOptionsImpl();
     boolean value = !options.getAnalyzePolymer();
@@ -99,6 +114,22 @@ public class AnalysisOptionsImplTest extends EngineTestCase {
     assertEquals(value, options.getIncremental());
   }
 
+  public void test_getIncrementalValidation() {
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl();
+    boolean value = !options.getIncrementalValidation();
+    options.setIncrementalValidation(value);
+    assertEquals(value, options.getIncrementalValidation());
+  }
+
+  public void test_getParallelTaskCount() {
+    AnalysisOptionsImpl options = new AnalysisOptionsImpl();
+    assertEquals(1, options.getParallelTaskCount());
+    options.setParallelTaskCount(4);
+    assertEquals(4, options.getParallelTaskCount());
+    options.setParallelTaskCount(0);
+    assertEquals(1, options.getParallelTaskCount());
+  }
+
   public void test_getPreserveComments() {
     AnalysisOptionsImpl options = new AnalysisOptionsImpl();
     boolean value = !options.getPreserveComments();
@@ -32,9 +32,11 @@ import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.internal.cache.SourceEntry;
+import com.google.dart.engine.internal.constant.ConstantValueCache;
 import com.google.dart.engine.internal.element.angular.AngularApplication;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.internal.scope.Namespace;
+import com.google.dart.engine.internal.type.TypeRelationCache;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.Source.ContentReceiver;
 import com.google.dart.engine.source.SourceContainer;
@@ -157,6 +159,12 @@ public class TestAnalysisContext implements InternalAnalysisContext {
     return null;
   }
 
+  @Override
+  public boolean getAnalyzeFunctionBodies(Source librarySource) {
+    fail("Unexpected invocation of getAnalyzeFunctionBodies");
+    return false;
+  }
+
   @Override
   public AngularApplication getAngularApplicationWithHtml(Source htmlSource) {
     fail("Unexpected invocation of getAngularApplicationWithHtml");
@@ -169,6 +177,12 @@ public class TestAnalysisContext implements InternalAnalysisContext {
     return null;
   }
 
+  @Override
+  public ConstantValueCache getConstantValueCache() {
+    fail("Unexpected invocation of getConstantValueCache");
+    return null;
+  }
+
   @Override
   public TimestampedData<CharSequence> getContents(Source source) throws Exception {
     fail("Unexpected invocation of getContents");
@@ -205,6 +219,12 @@ public class TestAnalysisContext implements InternalAnalysisContext {
     return null;
   }
 
+  @Override
+  public boolean getFunctionBodiesSkipped(Source source) {
+    fail("Unexpected invocation of getFunctionBodiesSkipped");
+    return false;
+  }
+
   @Override
   public HtmlElement getHtmlElement(Source source) {
     fail("Unexpected invocation of getHtmlElement");
@@ -337,6 +357,12 @@ public class TestAnalysisContext implements InternalAnalysisContext {
     return null;
   }
 
+  @Override
+  public TypeRelationCache getTypeRelationCache() {
+    fail("Unexpected invocation of getTypeRelationCache");
+    return null;
+  }
+
   @Override
   public boolean isClientLibrary(Source librarySource) {
     fail("Unexpected invocation of isClientLibrary");
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.element;
+
+import com.google.dart.engine.context.AnalysisException;
+import com.google.dart.engine.resolver.ResolverTestCase;
+
+public class ApiSignatureTest extends ResolverTestCase {
+  public void test_compute_bodyChanged() throws Exception {
+    assertEquals(
+        computeSignature("int f() { return 1; }"),
+        computeSignature("int f() { return 2; }"));
+  }
+
+  public void test_compute_commentChanged() throws Exception {
+    assertEquals(
+        computeSignature("/** A. */ class A {}"),
+        computeSignature("/** The class A. */\nclass A {}"));
+  }
+
+  public void test_compute_constantValueChanged() throws Exception {
+    assertFalse(computeSignature("const int x = 1;") == computeSignature("const int x = 2;"));
+  }
+
+  public void test_compute_declarationMoved() throws Exception {
+    assertEquals(computeSignature("int f() => 0;"), computeSignature("\nint f() => 0;"));
+  }
+
+  public void test_compute_functionBodyChanged() throws Exception {
+    assertEquals(
+        computeSignature("class A { int m() => 0; } int f(int x) => x;"),
+        computeSignature("class A { int m() { return 1 + 2; } } int f(int x) => x;"));
+  }
+
+  public void test_compute_parameterMoved() throws Exception {
+    assertEquals(
+        computeSignature("int f({int x}) => 0;"),
+        computeSignature("int f({int  x}) => 0;"));
+  }
+
+  public void test_compute_privateMemberAdded() throws Exception {
+    assertEquals(
+        computeSignature("class A { int m() => 0; }"),
+        computeSignature("class A { int m() => _n(); int _n() => 0; }"));
+  }
+
+  public void test_compute_privateTopLevelAdded() throws Exception {
+    assertEquals(
+        computeSignature("int f() => 0;"),
+        computeSignature("int f() => 0; int _g() => 0;"));
+  }
+
+  public void test_compute_publicMemberAdded() throws Exception {
+    assertFalse(computeSignature("class A {}") == computeSignature("class A { int m() => 0; }"));
+  }
+
+  public void test_compute_returnTypeChanged() throws Exception {
+    assertFalse(computeSignature("int f() => 0;") == computeSignature("num f() => 0;"));
+  }
+
+  public void test_compute_returnTypeFromOtherLibrary() throws Exception {
+    assertFalse(computeSignature("import 'a.dart'; C f() => null;") == computeSignature(
+        "import 'b.dart'; C f() => null;"));
+  }
+
+  public void test_compute_supertypeChanged() throws Exception {
+    assertFalse(computeSignature("class A {} class B {}") == computeSignature(
+        "class A {} class B extends A {}"));
+  }
+
+  public void test_compute_typeAliasReferencesItself() throws Exception {
+    assertFalse(computeSignature("typedef F G(); typedef G F();") == computeSignature(
+        "typedef F G(); typedef G H();"));
+  }
+
+  public void test_compute_typeArgumentChanged() throws Exception {
+    assertFalse(computeSignature("List<int> f() => null;") == computeSignature(
+        "List<num> f() => null;"));
+  }
+
+  /**
+   * Return the API signature of a library whose only compilation unit has the given contents, using
+   * a newly created context so that the signatures of different versions can be compared. The
+   * library can import the libraries "a.dart" and "b.dart", which both declare a class named "C".
+   * 
+   * @param contents the contents of the defining compilation unit of the library
+   * @return the API signature of the library
+   */
+  private long computeSignature(String contents) throws AnalysisException {
+    reset();
+    addNamedSource("/a.dart", "library a; class C {}");
+    addNamedSource("/b.dart", "library b; class C {}");
+    return ApiSignature.compute(resolve(addSource(contents)));
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.element;
+
+import com.google.dart.engine.context.AnalysisException;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.FunctionElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.MethodElement;
+import com.google.dart.engine.element.ParameterElement;
+import com.google.dart.engine.resolver.ResolverTestCase;
+
+public class DeclarationOffsetUpdaterTest extends ResolverTestCase {
+  public void test_update() throws Exception {
+    String oldContents = "class A { int m(int p) => p; } int f() => 0;";
+    String newContents = "class A {\n  int m(int p) {\n    return p + 1;\n  }\n}\n\nint f() => 0;";
+    LibraryElement oldLibrary = resolveContents(oldContents);
+    LibraryElement newLibrary = resolveContents(newContents);
+    DeclarationOffsetUpdater.update(oldLibrary, newLibrary);
+    CompilationUnitElement unit = oldLibrary.getDefiningCompilationUnit();
+    ClassElement classA = unit.getTypes()[0];
+    assertEquals(newContents.indexOf("A"), classA.getNameOffset());
+    MethodElement method = classA.getMethods()[0];
+    assertEquals(newContents.indexOf("m("), method.getNameOffset());
+    ParameterElement parameter = method.getParameters()[0];
+    assertEquals(newContents.indexOf("p)"), parameter.getNameOffset());
+    FunctionElement function = unit.getFunctions()[0];
+    assertEquals(newContents.indexOf("f()"), function.getNameOffset());
+  }
+
+  public void test_update_unmatchedDeclaration() throws Exception {
+    String oldContents = "int f() => 0; int _g() => 0;";
+    String newContents = "int f() => 0;\n\nint _h() => 0;";
+    LibraryElement oldLibrary = resolveContents(oldContents);
+    LibraryElement newLibrary = resolveContents(newContents);
+    DeclarationOffsetUpdater.update(oldLibrary, newLibrary);
+    FunctionElement[] functions = oldLibrary.getDefiningCompilationUnit().getFunctions();
+    assertEquals(newContents.indexOf("f()"), functions[0].getNameOffset());
+    assertEquals(oldContents.indexOf("_g()"), functions[1].getNameOffset());
+  }
+
+  /**
+   * Return the element model of a library whose only compilation unit has the given contents, using
+   * a newly created context so that the element models of different versions can be compared.
+   * 
+   * @param contents the contents of the defining compilation unit of the library
+   * @return the element model of the library
+   */
+  private LibraryElement resolveContents(String contents) throws AnalysisException {
+    reset();
+    return resolve(addSource(contents));
+  }
+}
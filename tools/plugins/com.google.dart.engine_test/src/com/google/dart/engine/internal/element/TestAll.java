@@ -21,8 +21,10 @@ import junit.framework.TestSuite;
 public class TestAll {
   public static Test suite() {
     TestSuite suite = new ExtendedTestSuite("Tests in " + TestAll.class.getPackage().getName());
+    suite.addTestSuite(ApiSignatureTest.class);
     suite.addTestSuite(ClassElementImplTest.class);
     suite.addTestSuite(CompilationUnitElementImplTest.class);
+    suite.addTestSuite(DeclarationOffsetUpdaterTest.class);
     suite.addTestSuite(ElementLocationImplTest.class);
     suite.addTestSuite(ElementImplTest.class);
     suite.addTestSuite(HtmlElementImplTest.class);
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.internal.index.DeclarationNameIndex.Declaration;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.List;
+
+public class DeclarationNameIndexTest extends EngineTestCase {
+  private DeclarationNameIndex<String> index = new DeclarationNameIndex<String>();
+  private Relationship relationship = IndexConstants.DEFINES_CLASS;
+
+  public void test_clear() throws Exception {
+    addNames(1, "HashMap");
+    index.clear();
+    assertTrue(index.isEmpty());
+    assertThat(index.getValues(relationship, NameQuery.ANY)).isEmpty();
+    assertThat(index.getValues(relationship, NameQuery.prefix("Hash", true))).isEmpty();
+  }
+
+  public void test_getDeclarations() throws Exception {
+    index.add(1, relationship, "HashMap", "valueA");
+    index.add(2, IndexConstants.DEFINES_FUNCTION, "main", "valueB");
+    List<Declaration<String>> declarations = index.getDeclarations();
+    assertSizeOfList(2, declarations);
+    for (Declaration<String> declaration : declarations) {
+      if (declaration.getOwner() == 1) {
+        assertSame(relationship, declaration.getRelationship());
+        assertEquals("HashMap", declaration.getName());
+        assertEquals("valueA", declaration.getValue());
+      } else {
+        assertEquals(2, declaration.getOwner());
+        assertSame(IndexConstants.DEFINES_FUNCTION, declaration.getRelationship());
+        assertEquals("main", declaration.getName());
+        assertEquals("valueB", declaration.getValue());
+      }
+    }
+  }
+
+  public void test_getValues_and() throws Exception {
+    addNames(1, "HashMap", "HashSet", "HtmlMap");
+    assertValues(
+        NameQuery.and(NameQuery.prefix("Hash", true), NameQuery.wildcard("*Map", true)),
+        "HashMap");
+    assertValues(NameQuery.and(NameQuery.ANY, NameQuery.camelCase("HM", false)), "HashMap", "HtmlMap");
+  }
+
+  public void test_getValues_any() throws Exception {
+    addNames(1, "HashMap", "HashSet");
+    addNames(2, "List");
+    assertValues(NameQuery.ANY, "HashMap", "HashSet", "List");
+  }
+
+  public void test_getValues_camelCase() throws Exception {
+    addNames(
+        1,
+        "HashMap",
+        "HashMapEntry",
+        "HtmlElement",
+        "HatMapper",
+        "NullPointerException",
+        "UTF16DocumentScannerSupport",
+        "hashCode",
+        "_HashMap");
+    assertValues(NameQuery.camelCase("HM", false), "HashMap", "HashMapEntry", "HatMapper");
+    assertValues(NameQuery.camelCase("HM", true), "HashMap", "HatMapper");
+    assertValues(NameQuery.camelCase("HaMa", false), "HashMap", "HashMapEntry", "HatMapper");
+    assertValues(NameQuery.camelCase("HMapE", false), "HashMapEntry");
+    assertValues(NameQuery.camelCase("NPE", false), "NullPointerException");
+    assertValues(NameQuery.camelCase("UTF16DSS", false), "UTF16DocumentScannerSupport");
+    assertValues(NameQuery.camelCase("UTFDSS", false), "UTF16DocumentScannerSupport");
+    assertValues(NameQuery.camelCase("Has", false), "HashMap", "HashMapEntry");
+    assertValues(NameQuery.camelCase("hC", false), "hashCode");
+    assertValues(NameQuery.camelCase("_HM", false), "_HashMap");
+    assertValues(NameQuery.camelCase("hm", false));
+  }
+
+  public void test_getValues_exact() throws Exception {
+    addNames(1, "HashMap", "HashMapEntry", "hashmap");
+    assertValues(NameQuery.exact("HashMap", true), "HashMap");
+    assertValues(NameQuery.exact("HashMap", false), "HashMap", "hashmap");
+    assertValues(NameQuery.exact("Hash", false));
+  }
+
+  public void test_getValues_or() throws Exception {
+    addNames(1, "HashMap", "HashSet", "List");
+    assertValues(
+        NameQuery.or(NameQuery.exact("List", true), NameQuery.camelCase("HS", false)),
+        "HashSet",
+        "List");
+    assertValues(
+        NameQuery.or(NameQuery.ANY, NameQuery.exact("List", true)),
+        "HashMap",
+        "HashSet",
+        "List");
+  }
+
+  public void test_getValues_prefix() throws Exception {
+    addNames(1, "HashMap", "HashSet", "hash", "Hat", "HASHED", "List");
+    assertValues(NameQuery.prefix("Hash", true), "HashMap", "HashSet");
+    assertValues(NameQuery.prefix("hash", false), "HashMap", "HashSet", "hash", "HASHED");
+    assertValues(NameQuery.prefix("Ha", true), "HashMap", "HashSet", "Hat");
+    assertValues(
+        NameQuery.prefix("", true),
+        "HashMap",
+        "HashSet",
+        "hash",
+        "Hat",
+        "HASHED",
+        "List");
+    assertValues(NameQuery.prefix("Z", false));
+  }
+
+  public void test_getValues_relationship() throws Exception {
+    index.add(1, relationship, "HashMap", "HashMap");
+    index.add(1, IndexConstants.DEFINES_FUNCTION, "hashMap", "hashMap");
+    assertValues(NameQuery.prefix("hash", false), "HashMap");
+    assertThat(index.getValues(IndexConstants.DEFINES_FUNCTION, NameQuery.ANY)).containsOnly(
+        "hashMap");
+  }
+
+  public void test_getValues_sameName() throws Exception {
+    index.add(1, relationship, "Map", "Map1");
+    index.add(2, relationship, "Map", "Map2");
+    assertValues(NameQuery.exact("Map", true), "Map1", "Map2");
+    index.remove(1);
+    assertValues(NameQuery.exact("Map", true), "Map2");
+  }
+
+  public void test_getValues_wildcard() throws Exception {
+    addNames(1, "HashMap", "HashSet", "HtmlMap", "MapEntry", "List", "Li");
+    assertValues(NameQuery.wildcard("*Map", true), "HashMap", "HtmlMap");
+    assertValues(NameQuery.wildcard("*map*", false), "HashMap", "HtmlMap", "MapEntry");
+    assertValues(NameQuery.wildcard("*map*", true));
+    assertValues(NameQuery.wildcard("Hash*", true), "HashMap", "HashSet");
+    assertValues(NameQuery.wildcard("?ashM?p", true), "HashMap");
+    assertValues(NameQuery.wildcard("L*", true), "List", "Li");
+    assertValues(NameQuery.wildcard("Li", true), "Li");
+    assertValues(NameQuery.wildcard("*xyz*", false));
+    assertValues(
+        NameQuery.wildcard("*", false),
+        "HashMap",
+        "HashSet",
+        "HtmlMap",
+        "MapEntry",
+        "List",
+        "Li");
+  }
+
+  public void test_isEmpty() throws Exception {
+    assertTrue(index.isEmpty());
+    addNames(1, "HashMap");
+    assertFalse(index.isEmpty());
+    index.remove(1);
+    assertTrue(index.isEmpty());
+  }
+
+  public void test_remove() throws Exception {
+    addNames(1, "HashMap", "HashSet");
+    addNames(2, "HtmlMap");
+    index.remove(1);
+    assertValues(NameQuery.ANY, "HtmlMap");
+    assertValues(NameQuery.camelCase("HM", false), "HtmlMap");
+    assertValues(NameQuery.prefix("Hash", true));
+    assertValues(NameQuery.wildcard("*set", false));
+    // add again
+    addNames(3, "HashSet");
+    assertValues(NameQuery.prefix("Hash", true), "HashSet");
+    assertValues(NameQuery.wildcard("*set", false), "HashSet");
+  }
+
+  public void test_remove_manyNames() throws Exception {
+    for (int i = 0; i < 5000; i++) {
+      addNames(1, "Name" + i);
+    }
+    addNames(2, "HashMap");
+    index.remove(1);
+    assertValues(NameQuery.ANY, "HashMap");
+    assertValues(NameQuery.prefix("Name", true));
+    assertValues(NameQuery.wildcard("*ame1*", true));
+    assertValues(NameQuery.camelCase("HM", false), "HashMap");
+    // add again
+    addNames(3, "Name1");
+    assertValues(NameQuery.wildcard("*ame1*", true), "Name1");
+  }
+
+  public void test_remove_unknownOwner() throws Exception {
+    addNames(1, "HashMap");
+    index.remove(2);
+    assertValues(NameQuery.ANY, "HashMap");
+  }
+
+  /**
+   * Adds declarations with the given names and the given owner, using the names as the values.
+   */
+  private void addNames(int owner, String... names) {
+    for (String name : names) {
+      index.add(owner, relationship, name, name);
+    }
+  }
+
+  /**
+   * Asserts that the declarations with {@link #relationship} whose names match the given query
+   * have exactly the given values.
+   */
+  private void assertValues(NameQuery query, String... expected) {
+    List<String> values = index.getValues(relationship, query);
+    assertThat(values).hasSize(expected.length);
+    assertThat(values).containsOnly((Object[]) expected);
+  }
+}
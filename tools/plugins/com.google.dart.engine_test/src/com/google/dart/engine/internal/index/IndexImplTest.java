@@ -16,14 +16,20 @@ package com.google.dart.engine.internal.index;
 import com.google.dart.engine.EngineTestCase;
 import com.google.dart.engine.ast.CompilationUnit;
 import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.context.AnalysisOptions;
 import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.Element;
 import com.google.dart.engine.element.HtmlElement;
+import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.index.IndexStore;
 import com.google.dart.engine.index.Relationship;
 import com.google.dart.engine.index.RelationshipCallback;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.index.operation.AddContextOperation;
+import com.google.dart.engine.internal.index.operation.GetDeclarationsOperation;
 import com.google.dart.engine.internal.index.operation.GetRelationshipsOperation;
+import com.google.dart.engine.internal.index.operation.IndexOperation;
 import com.google.dart.engine.internal.index.operation.IndexHtmlUnitOperation;
 import com.google.dart.engine.internal.index.operation.IndexUnitOperation;
 import com.google.dart.engine.internal.index.operation.OperationProcessor;
@@ -33,14 +39,20 @@ import com.google.dart.engine.internal.index.operation.RemoveSourceOperation;
 import com.google.dart.engine.internal.index.operation.RemoveSourcesOperation;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 import org.mockito.ArgumentCaptor;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
 public class IndexImplTest extends EngineTestCase {
   private AnalysisContext context = mock(AnalysisContext.class);
   private IndexStore store = mock(IndexStore.class);
@@ -48,6 +60,44 @@ public class IndexImplTest extends EngineTestCase {
   private OperationProcessor processor = mock(OperationProcessor.class);
   private IndexImpl index = new IndexImpl(store, queue, processor);
 
+  public void test_addContext() throws Exception {
+    index.addContext(context, "/project");
+    // verify
+    ArgumentCaptor<AddContextOperation> argument = ArgumentCaptor.forClass(AddContextOperation.class);
+    verify(queue).enqueue(argument.capture());
+    assertSame(context, argument.getValue().getContext());
+    assertEquals("/project", argument.getValue().getName());
+  }
+
+  public void test_getDeclarations() throws Exception {
+    Relationship relationship = Relationship.getRelationship("test-relationship");
+    NameQuery query = NameQuery.camelCase("HM", false);
+    RelationshipCallback callback = mock(RelationshipCallback.class);
+    index.getDeclarations(relationship, query, callback);
+    // verify
+    ArgumentCaptor<GetDeclarationsOperation> argument = ArgumentCaptor.forClass(GetDeclarationsOperation.class);
+    verify(queue).enqueue(argument.capture());
+    assertSame(relationship, argument.getValue().getRelationship());
+    assertSame(query, argument.getValue().getQuery());
+    assertSame(callback, argument.getValue().getCallback());
+  }
+
+  public void test_getRelationships_token() throws Exception {
+    Element element = mock(Element.class);
+    Relationship relationship = Relationship.getRelationship("test-relationship");
+    CancellationToken token = new CancellationToken();
+    RelationshipCallback callback = mock(RelationshipCallback.class);
+    index.getRelationships(element, relationship, 5, token, callback);
+    // verify
+    ArgumentCaptor<GetRelationshipsOperation> argument = ArgumentCaptor.forClass(GetRelationshipsOperation.class);
+    verify(queue).enqueue(argument.capture());
+    assertSame(element, argument.getValue().getElement());
+    assertSame(relationship, argument.getValue().getRelationship());
+    assertEquals(5, argument.getValue().getLimit());
+    assertSame(token, argument.getValue().getToken());
+    assertSame(callback, argument.getValue().getCallback());
+  }
+
   public void test_getIndexStatistics() throws Exception {
     String stats = "40 relationships in 20 elements in 10 sources";
     when(store.getStatistics()).thenReturn(stats);
@@ -67,6 +117,32 @@ public class IndexImplTest extends EngineTestCase {
     assertSame(callback, argument.getValue().getCallback());
   }
 
+  public void test_getRelationships_skippedFunctionBodies() throws Exception {
+    InternalAnalysisContext context = mock(InternalAnalysisContext.class);
+    Source unitSource = mock(Source.class);
+    Source librarySource = mock(Source.class);
+    CompilationUnit unit = createUnit(unitSource, librarySource);
+    CompilationUnit resolvedUnit = createUnit(unitSource, librarySource);
+    when(context.getFunctionBodiesSkipped(unitSource)).thenReturn(true, false);
+    when(context.resolveCompilationUnit(unitSource, librarySource)).thenReturn(resolvedUnit);
+    index.indexUnit(context, unit);
+    Element element = mock(Element.class);
+    Relationship relationship = Relationship.getRelationship("test-relationship");
+    RelationshipCallback callback = mock(RelationshipCallback.class);
+    index.getRelationships(element, relationship, callback);
+    index.getRelationships(element, relationship, callback);
+    // verify
+    verify(context).resolveCompilationUnit(unitSource, librarySource);
+    verify(context, never()).setAnalysisOptions(any(AnalysisOptions.class));
+    ArgumentCaptor<IndexOperation> argument = ArgumentCaptor.forClass(IndexOperation.class);
+    verify(queue, times(4)).enqueue(argument.capture());
+    List<IndexOperation> operations = argument.getAllValues();
+    assertSame(unit, ((IndexUnitOperation) operations.get(0)).getUnit());
+    assertSame(resolvedUnit, ((IndexUnitOperation) operations.get(1)).getUnit());
+    assertInstanceOf(GetRelationshipsOperation.class, operations.get(2));
+    assertInstanceOf(GetRelationshipsOperation.class, operations.get(3));
+  }
+
   public void test_indexHtmlUnit() throws Exception {
     Source unitSource = mock(Source.class);
     // Dart CompilationUnitElement
@@ -143,6 +219,21 @@ public class IndexImplTest extends EngineTestCase {
     assertSame(context, argument.getValue().getContext());
   }
 
+  public void test_removeContext_skippedFunctionBodies() throws Exception {
+    InternalAnalysisContext context = mock(InternalAnalysisContext.class);
+    Source unitSource = mock(Source.class);
+    Source librarySource = mock(Source.class);
+    when(context.getFunctionBodiesSkipped(unitSource)).thenReturn(true);
+    index.indexUnit(context, createUnit(unitSource, librarySource));
+    index.removeContext(context);
+    index.getRelationships(
+        mock(Element.class),
+        Relationship.getRelationship("test-relationship"),
+        mock(RelationshipCallback.class));
+    // verify
+    verify(context, never()).resolveCompilationUnit(unitSource, librarySource);
+  }
+
   public void test_removeSource() throws Exception {
     Source source = mock(Source.class);
     index.removeSource(context, source);
@@ -180,4 +271,15 @@ public class IndexImplTest extends EngineTestCase {
     index = null;
     super.tearDown();
   }
+
+  private CompilationUnit createUnit(Source unitSource, Source librarySource) {
+    LibraryElement library = mock(LibraryElement.class);
+    when(library.getSource()).thenReturn(librarySource);
+    CompilationUnitElement unitElement = mock(CompilationUnitElement.class);
+    when(unitElement.getSource()).thenReturn(unitSource);
+    when(unitElement.getLibrary()).thenReturn(library);
+    CompilationUnit unit = mock(CompilationUnit.class);
+    when(unit.getElement()).thenReturn(unitElement);
+    return unit;
+  }
 }
@@ -31,6 +31,7 @@ import com.google.dart.engine.internal.element.member.Member;
 import com.google.dart.engine.source.DirectoryBasedSourceContainer;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -334,6 +335,14 @@ public class MemoryIndexStoreImplTest extends EngineTestCase {
     assertLocations(locations, locationC);
   }
 
+  public void test_getRelationships_cancelled() throws Exception {
+    store.recordRelationship(elementA, relationship, location);
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    Location[] locations = store.getRelationships(elementA, relationship, 0, token);
+    assertThat(locations).isEmpty();
+  }
+
   public void test_getRelationships_hasOne() throws Exception {
     store.recordRelationship(elementA, relationship, location);
     Location[] locations = store.getRelationships(elementA, relationship);
@@ -349,6 +358,17 @@ public class MemoryIndexStoreImplTest extends EngineTestCase {
     assertLocations(locations, locationA, locationB);
   }
 
+  public void test_getRelationships_limit() throws Exception {
+    Location locationA = mockLocation(elementA);
+    Location locationB = mockLocation(elementB);
+    store.recordRelationship(elementA, relationship, locationA);
+    store.recordRelationship(elementA, relationship, locationB);
+    Location[] locations = store.getRelationships(elementA, relationship, 1, null);
+    assertThat(locations).hasSize(1);
+    assertThat(locations[0]).isIn(locationA, locationB);
+    assertLocations(store.getRelationships(elementA, relationship, 2, null), locationA, locationB);
+  }
+
   public void test_getRelationships_noRelations() throws Exception {
     store.recordRelationship(elementA, relationship, location);
     Location[] locations = store.getRelationships(
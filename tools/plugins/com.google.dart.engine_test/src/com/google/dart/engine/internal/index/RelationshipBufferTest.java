@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.index.RelationshipRecorder;
+
+import org.mockito.InOrder;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class RelationshipBufferTest extends EngineTestCase {
+  private final RelationshipBuffer buffer = new RelationshipBuffer();
+  private final Relationship relationship = Relationship.getRelationship("test-relationship");
+
+  public void test_recordRelationship_null() throws Exception {
+    buffer.recordRelationship(null, relationship, mock(Location.class));
+    buffer.recordRelationship(mock(Element.class), relationship, null);
+    assertEquals(0, buffer.getRelationshipCount());
+    // nothing to replay
+    RelationshipRecorder recorder = mock(RelationshipRecorder.class);
+    buffer.replay(recorder);
+    verifyZeroInteractions(recorder);
+  }
+
+  public void test_replay() throws Exception {
+    int count = 100;
+    Element[] elements = new Element[count];
+    Location[] locations = new Location[count];
+    for (int i = 0; i < count; i++) {
+      elements[i] = mock(Element.class);
+      locations[i] = mock(Location.class);
+      buffer.recordRelationship(elements[i], relationship, locations[i]);
+    }
+    assertEquals(count, buffer.getRelationshipCount());
+    // replay in the recording order
+    RelationshipRecorder recorder = mock(RelationshipRecorder.class);
+    buffer.replay(recorder);
+    InOrder inOrder = inOrder(recorder);
+    for (int i = 0; i < count; i++) {
+      inOrder.verify(recorder).recordRelationship(elements[i], relationship, locations[i]);
+    }
+  }
+}
@@ -23,10 +23,12 @@ public class TestAll {
     TestSuite suite = new ExtendedTestSuite("Tests in " + TestAll.class.getPackage().getName());
     suite.addTest(com.google.dart.engine.internal.index.operation.TestAll.suite());
     suite.addTest(com.google.dart.engine.internal.index.file.TestAll.suite());
+    suite.addTestSuite(DeclarationNameIndexTest.class);
     suite.addTestSuite(IndexContributorTest.class);
     suite.addTestSuite(IndexImplTest.class);
     suite.addTestSuite(MemoryIndexStoreImplTest.class);
     suite.addTestSuite(NameElementImplTest.class);
+    suite.addTestSuite(RelationshipBufferTest.class);
     suite.addTestSuite(UniverseElementImplTest.class);
     return suite;
   }
@@ -19,9 +19,76 @@ import junit.framework.TestCase;
 
 import static org.mockito.Mockito.mock;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
 public class ContextCodecTest extends TestCase {
   private ContextCodec codec = new ContextCodec();
 
+  public void test_bind() throws Exception {
+    AnalysisContext contextA = mock(AnalysisContext.class);
+    AnalysisContext contextB = mock(AnalysisContext.class);
+    int idA = codec.encode(contextA);
+    int idB = codec.encode(contextB);
+    // restore
+    ContextCodec newCodec = restore(codec);
+    assertNull(newCodec.decode(idA));
+    assertNull(newCodec.decode(idB));
+    // bind restored identifiers
+    AnalysisContext newContext = mock(AnalysisContext.class);
+    assertTrue(newCodec.bind(idA, newContext));
+    assertTrue(newCodec.bind(idB, newContext));
+    assertSame(newContext, newCodec.decode(idA));
+    assertSame(newContext, newCodec.decode(idB));
+    assertEquals(idA, newCodec.encode(newContext));
+    // already bound
+    assertFalse(newCodec.bind(idA, mock(AnalysisContext.class)));
+    // not restored
+    assertFalse(newCodec.bind(idB + 1, mock(AnalysisContext.class)));
+    // new identifiers don't conflict with the restored ones
+    assertEquals(idB + 1, newCodec.encode(mock(AnalysisContext.class)));
+    // remove
+    newCodec.removeContext(newContext);
+    assertNull(newCodec.decode(idA));
+    assertNull(newCodec.decode(idB));
+  }
+
+  public void test_bind_name() throws Exception {
+    AnalysisContext contextA = mock(AnalysisContext.class);
+    AnalysisContext contextB = mock(AnalysisContext.class);
+    assertEquals(-1, codec.bind(contextA, "/a"));
+    assertEquals(-1, codec.bind(contextB, "/b"));
+    int idA = codec.encode(contextA);
+    int idB = codec.encode(contextB);
+    // restore
+    ContextCodec newCodec = restore(codec);
+    // bind by name
+    AnalysisContext newContextB = mock(AnalysisContext.class);
+    assertEquals(idB, newCodec.bind(newContextB, "/b"));
+    assertSame(newContextB, newCodec.decode(idB));
+    assertNull(newCodec.decode(idA));
+    // already bound, so a new identifier is assigned
+    AnalysisContext otherContextB = mock(AnalysisContext.class);
+    assertEquals(-1, newCodec.bind(otherContextB, "/b"));
+    assertEquals(idB + 1, newCodec.encode(otherContextB));
+    // unknown name
+    AnalysisContext newContextC = mock(AnalysisContext.class);
+    assertEquals(-1, newCodec.bind(newContextC, "/c"));
+    assertEquals(idB + 2, newCodec.encode(newContextC));
+    // the names of the new and of the bound contexts are kept
+    ContextCodec newCodec2 = restore(newCodec);
+    AnalysisContext newContextB2 = mock(AnalysisContext.class);
+    AnalysisContext newContextC2 = mock(AnalysisContext.class);
+    assertEquals(idB, newCodec2.bind(newContextB2, "/b"));
+    assertEquals(idB + 2, newCodec2.bind(newContextC2, "/c"));
+    // the name of a removed context is forgotten
+    newCodec2.removeContext(newContextB2);
+    assertNull(newCodec2.decode(idB));
+    assertEquals(-1, newCodec2.bind(mock(AnalysisContext.class), "/b"));
+  }
+
   public void test_encode_decode() throws Exception {
     AnalysisContext contextA = mock(AnalysisContext.class);
     AnalysisContext contextB = mock(AnalysisContext.class);
@@ -52,4 +119,17 @@ public class ContextCodecTest extends TestCase {
       assertSame(context, codec.decode(id));
     }
   }
+
+  /**
+   * Writes the state of the given codec and reads it into a new one.
+   */
+  private ContextCodec restore(ContextCodec codec) throws Exception {
+    ContextCodec newCodec = new ContextCodec();
+    ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+    DataOutputStream stream = new DataOutputStream(byteStream);
+    codec.write(stream);
+    stream.close();
+    newCodec.read(new DataInputStream(new ByteArrayInputStream(byteStream.toByteArray())));
+    return newCodec;
+  }
 }
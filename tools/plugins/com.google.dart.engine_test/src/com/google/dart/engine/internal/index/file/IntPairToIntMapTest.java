@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import junit.framework.TestCase;
+
+public class IntPairToIntMapTest extends TestCase {
+  private IntPairToIntMap map = new IntPairToIntMap(4);
+
+  public void test_clear() throws Exception {
+    map.put(1, 2, 10);
+    map.put(3, 4, 20);
+    assertEquals(2, map.size());
+    map.clear();
+    assertEquals(0, map.size());
+    assertEquals(-1, map.get(1, 2, -1));
+    assertEquals(-1, map.get(3, 4, -1));
+  }
+
+  public void test_get_no() throws Exception {
+    assertEquals(-1, map.get(1, 2, -1));
+  }
+
+  public void test_put() throws Exception {
+    map.put(1, 2, 10);
+    map.put(2, 1, 20);
+    assertEquals(10, map.get(1, 2, -1));
+    assertEquals(20, map.get(2, 1, -1));
+    assertEquals(-1, map.get(1, 1, -1));
+    assertEquals(2, map.size());
+  }
+
+  public void test_put_negativeKey() throws Exception {
+    try {
+      map.put(-1, 0, 10);
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+    try {
+      map.put(0, -1, 10);
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  public void test_put_rehash() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, i % 7, i * 10);
+    }
+    assertEquals(1000, map.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i * 10, map.get(i, i % 7, -1));
+      assertEquals(-1, map.get(i, i % 7 + 1, -1));
+    }
+  }
+
+  public void test_put_update() throws Exception {
+    map.put(1, 2, 10);
+    map.put(1, 2, 20);
+    assertEquals(20, map.get(1, 2, -1));
+    assertEquals(1, map.size());
+  }
+}
@@ -70,6 +70,16 @@ public class IntToIntSetMapTest extends TestCase {
     assertThat(map.get(HASH_32_KEY_1)).isEmpty();
   }
 
+  public void test_keys() throws Exception {
+    map = new IntToIntSetMap(33, 0.75f);
+    assertThat(map.keys()).isEmpty();
+    map.add(HASH_32_KEY_1, 10);
+    map.add(HASH_32_KEY_2, 20);
+    map.add(HASH_32_KEY_3, 30);
+    map.add(42, 40);
+    assertThat(map.keys()).containsOnly(HASH_32_KEY_1, HASH_32_KEY_2, HASH_32_KEY_3, 42);
+  }
+
   public void test_size() throws Exception {
     // empty
     assertEquals(0, map.size());
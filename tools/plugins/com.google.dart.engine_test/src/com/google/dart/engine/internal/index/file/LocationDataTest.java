@@ -63,4 +63,19 @@ public class LocationDataTest extends TestCase {
       assertNull(newLocation);
     }
   }
+
+  public void test_newFromObjects_relativeToElement() throws Exception {
+    Element element = mock(Element.class);
+    when(element.getNameOffset()).thenReturn(100);
+    when(elementCodec.encode(element, false)).thenReturn(42);
+    when(elementCodec.decode(context, 42)).thenReturn(element);
+    LocationData locationData = new LocationData(elementCodec, new Location(element, 105, 2));
+    // the same location in the moved element has the same data
+    when(element.getNameOffset()).thenReturn(110);
+    assertEquals(locationData, new LocationData(elementCodec, new Location(element, 115, 2)));
+    // the location is moved together with the element
+    Location location = locationData.getLocation(context, elementCodec);
+    assertEquals(115, location.getOffset());
+    assertEquals(2, location.getLength());
+  }
 }
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.file;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.index.Location;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.internal.index.structure.btree.MappedPageManager;
+import com.google.dart.engine.utilities.io.FileUtilities2;
+
+import junit.framework.TestCase;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+public class PagedNodeManagerTest extends TestCase {
+  private AnalysisContext context = mock(AnalysisContext.class);
+  private int contextId = 13;
+  private ContextCodec contextCodec = mock(ContextCodec.class);
+  private StringCodec stringCodec = new StringCodec();
+  private ElementCodec elementCodec = mock(ElementCodec.class);
+  private int nextElementId = 0;
+  private RelationshipCodec relationshipCodec = new RelationshipCodec(stringCodec);
+  private Relationship relationship = Relationship.getRelationship("my-relationship");
+  private File tempDir;
+  private File file;
+  private MappedPageManager pageManager;
+  private PagedNodeManager nodeManager;
+
+  public void test_clear() throws Exception {
+    String name = "42.index";
+    putNode(name, mockElement(), mockElement(), mockElement());
+    nodeManager.clear();
+    assertNull(nodeManager.getNode(name));
+    assertEquals(0, nodeManager.getLocationCount());
+  }
+
+  public void test_getContextCodec() throws Exception {
+    assertSame(contextCodec, nodeManager.getContextCodec());
+  }
+
+  public void test_getElementCodec() throws Exception {
+    assertSame(elementCodec, nodeManager.getElementCodec());
+  }
+
+  public void test_getLocationCount_empty() throws Exception {
+    assertEquals(0, nodeManager.getLocationCount());
+  }
+
+  public void test_getNode_contextNull() throws Exception {
+    String name = "42.index";
+    putNode(name, mockElement(), mockElement(), mockElement());
+    // force "null" context
+    when(contextCodec.decode(contextId)).thenReturn(null);
+    // no Node
+    assertNull(nodeManager.getNode(name));
+  }
+
+  public void test_getNode_noNode() throws Exception {
+    assertNull(nodeManager.getNode("42.index"));
+  }
+
+  public void test_getStringCodec() throws Exception {
+    assertSame(stringCodec, nodeManager.getStringCodec());
+  }
+
+  public void test_newNode() throws Exception {
+    IndexNode node = nodeManager.newNode(context);
+    assertSame(context, node.getContext());
+    assertEquals(0, node.getLocationCount());
+  }
+
+  public void test_putNode_getNode() throws Exception {
+    String name = "42.index";
+    Element elementA = mockElement();
+    Element elementB = mockElement();
+    Element elementC = mockElement();
+    putNode(name, elementA, elementB, elementC);
+    // has locations
+    assertEquals(2, nodeManager.getLocationCount());
+    // get Node
+    IndexNode node = nodeManager.getNode(name);
+    assertSame(context, node.getContext());
+    assertEquals(2, node.getLocationCount());
+    {
+      Location[] locations = node.getRelationships(elementA, relationship);
+      assertThat(locations).hasSize(2);
+      assertHasLocation(locations, elementB, 1, 10);
+      assertHasLocation(locations, elementC, 2, 20);
+    }
+    // relations
+    Map<RelationKeyData, List<LocationData>> relations = node.getRelations();
+    assertEquals(1, relations.size());
+  }
+
+  public void test_putNode_removeRelation() throws Exception {
+    String name = "42.index";
+    Element elementA = mockElement();
+    Element elementB = mockElement();
+    Element elementC = mockElement();
+    putNode(name, elementA, elementB, elementC);
+    // add a second relation
+    int relationshipId = relationshipCodec.encode(relationship);
+    RelationKeyData keyA = new RelationKeyData(0, relationshipId);
+    RelationKeyData keyB = new RelationKeyData(1, relationshipId);
+    List<LocationData> locationsA = Lists.newArrayList(
+        new LocationData(1, 1, 10),
+        new LocationData(2, 2, 20));
+    List<LocationData> locationsB = Lists.newArrayList(new LocationData(2, 3, 30));
+    {
+      IndexNode node = new IndexNode(context, elementCodec, relationshipCodec);
+      node.setRelations(ImmutableMap.of(keyA, locationsA, keyB, locationsB));
+      nodeManager.putNode(name, node);
+    }
+    assertEquals(3, nodeManager.getLocationCount());
+    assertEquals(3, nodeManager.getLocationWriteCount());
+    assertThat(nodeManager.getNode(name).getRelationships(elementB, relationship)).hasSize(1);
+    // remove the first relation, only its locations are removed
+    {
+      IndexNode node = new IndexNode(context, elementCodec, relationshipCodec);
+      node.setRelations(ImmutableMap.of(keyB, locationsB));
+      nodeManager.putNode(name, node);
+    }
+    assertEquals(1, nodeManager.getLocationCount());
+    assertEquals(5, nodeManager.getLocationWriteCount());
+    IndexNode node = nodeManager.getNode(name);
+    assertThat(node.getRelationships(elementA, relationship)).isEmpty();
+    Location[] locations = node.getRelationships(elementB, relationship);
+    assertThat(locations).hasSize(1);
+    assertHasLocation(locations, elementC, 3, 30);
+    assertEquals(1, node.getRelations().size());
+  }
+
+  public void test_putNode_replace() throws Exception {
+    String name = "42.index";
+    Element elementA = mockElement();
+    Element elementB = mockElement();
+    Element elementC = mockElement();
+    putNode(name, elementA, elementB, elementC);
+    // replace with a Node with a single location
+    {
+      int relationshipId = relationshipCodec.encode(relationship);
+      RelationKeyData key = new RelationKeyData(0, relationshipId);
+      List<LocationData> locations = Lists.newArrayList(new LocationData(2, 3, 30));
+      IndexNode node = new IndexNode(context, elementCodec, relationshipCodec);
+      node.setRelations(ImmutableMap.of(key, locations));
+      nodeManager.putNode(name, node);
+    }
+    assertEquals(1, nodeManager.getLocationCount());
+    assertEquals(4, nodeManager.getLocationWriteCount());
+    IndexNode node = nodeManager.getNode(name);
+    Location[] locations = node.getRelationships(elementA, relationship);
+    assertThat(locations).hasSize(1);
+    assertHasLocation(locations, elementC, 3, 30);
+  }
+
+  public void test_putNode_replace_grow() throws Exception {
+    String name = "42.index";
+    Element elementA = mockElement();
+    Element elementB = mockElement();
+    Element elementC = mockElement();
+    putNode(name, elementA, elementB, elementC);
+    // append a location, only it is written
+    {
+      int relationshipId = relationshipCodec.encode(relationship);
+      RelationKeyData key = new RelationKeyData(0, relationshipId);
+      List<LocationData> locations = Lists.newArrayList(
+          new LocationData(1, 1, 10),
+          new LocationData(2, 2, 20),
+          new LocationData(2, 3, 30));
+      IndexNode node = new IndexNode(context, elementCodec, relationshipCodec);
+      node.setRelations(ImmutableMap.of(key, locations));
+      nodeManager.putNode(name, node);
+    }
+    assertEquals(3, nodeManager.getLocationCount());
+    assertEquals(3, nodeManager.getLocationWriteCount());
+    IndexNode node = nodeManager.getNode(name);
+    assertEquals(3, node.getLocationCount());
+    Location[] locations = node.getRelationships(elementA, relationship);
+    assertThat(locations).hasSize(3);
+    assertHasLocation(locations, elementB, 1, 10);
+    assertHasLocation(locations, elementC, 2, 20);
+    assertHasLocation(locations, elementC, 3, 30);
+  }
+
+  public void test_putNode_shiftedOffsets() throws Exception {
+    String name = "42.index";
+    Element elementA = mockElement();
+    Element[] declarations = new Element[10];
+    for (int i = 0; i < declarations.length; i++) {
+      declarations[i] = mockElement();
+    }
+    putNodeWithReferences(name, elementA, declarations, 0, 0);
+    assertEquals(10, nodeManager.getLocationWriteCount());
+    // insert a character at the top, all of the declarations and references are moved
+    putNodeWithReferences(name, elementA, declarations, 1, 0);
+    assertEquals(10, nodeManager.getLocationWriteCount());
+    // insert a character in the first declaration, only its reference is moved
+    putNodeWithReferences(name, elementA, declarations, 1, 1);
+    assertEquals(11, nodeManager.getLocationWriteCount());
+    Location[] locations = nodeManager.getNode(name).getRelationships(elementA, relationship);
+    assertThat(locations).hasSize(10);
+    assertHasLocation(locations, declarations[0], 1 + 10 + 5 + 1, 3);
+    for (int i = 1; i < declarations.length; i++) {
+      assertHasLocation(locations, declarations[i], 1 + 100 * i + 10 + 5 + 1, 3);
+    }
+  }
+
+  public void test_putNode_unchanged() throws Exception {
+    String name = "42.index";
+    Element elementA = mockElement();
+    Element elementB = mockElement();
+    Element elementC = mockElement();
+    putNode(name, elementA, elementB, elementC);
+    assertEquals(2, nodeManager.getLocationWriteCount());
+    // put the same relations again, nothing is written
+    putNode(name, elementA, elementB, elementC);
+    assertEquals(2, nodeManager.getLocationWriteCount());
+    assertEquals(2, nodeManager.getLocationCount());
+    IndexNode node = nodeManager.getNode(name);
+    Location[] locations = node.getRelationships(elementA, relationship);
+    assertThat(locations).hasSize(2);
+    assertHasLocation(locations, elementB, 1, 10);
+    assertHasLocation(locations, elementC, 2, 20);
+  }
+
+  public void test_removeNode() throws Exception {
+    String name = "42.index";
+    putNode(name, mockElement(), mockElement(), mockElement());
+    nodeManager.removeNode(name);
+    assertNull(nodeManager.getNode(name));
+    assertEquals(0, nodeManager.getLocationCount());
+  }
+
+  public void test_reopen() throws Exception {
+    String name = "42.index";
+    Element elementA = mockElement();
+    Element elementB = mockElement();
+    Element elementC = mockElement();
+    putNode(name, elementA, elementB, elementC);
+    // open again
+    pageManager.close();
+    pageManager = new MappedPageManager(file, PagedNodeManager.PAGE_SIZE);
+    nodeManager = new PagedNodeManager(
+        pageManager,
+        stringCodec,
+        contextCodec,
+        elementCodec,
+        relationshipCodec);
+    // the Node is still there
+    assertEquals(2, nodeManager.getLocationCount());
+    IndexNode node = nodeManager.getNode(name);
+    Location[] locations = node.getRelationships(elementA, relationship);
+    assertThat(locations).hasSize(2);
+    assertHasLocation(locations, elementB, 1, 10);
+    assertHasLocation(locations, elementC, 2, 20);
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    when(contextCodec.encode(context)).thenReturn(contextId);
+    when(contextCodec.decode(contextId)).thenReturn(context);
+    tempDir = FileUtilities2.createTempDir("pagedNodes");
+    file = new File(tempDir, "index.pages");
+    pageManager = new MappedPageManager(file, PagedNodeManager.PAGE_SIZE);
+    nodeManager = new PagedNodeManager(
+        pageManager,
+        stringCodec,
+        contextCodec,
+        elementCodec,
+        relationshipCodec);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    pageManager.close();
+    FileUtilities2.deleteDirectory(tempDir);
+    pageManager = null;
+    nodeManager = null;
+    super.tearDown();
+  }
+
+  private void assertHasLocation(Location[] locations, Element element, int offset, int length) {
+    for (Location location : locations) {
+      if (Objects.equal(location.getElement(), element) && location.getOffset() == offset
+          && location.getLength() == length) {
+        return;
+      }
+    }
+    fail("Expected to find Location(element=" + element + ", offset=" + offset + ", length="
+        + length + ")");
+  }
+
+  private Element mockElement() {
+    int elementId = nextElementId++;
+    Element element = mock(Element.class);
+    when(elementCodec.encode(element, true)).thenReturn(elementId);
+    when(elementCodec.encode(element, false)).thenReturn(elementId);
+    when(elementCodec.decode(context, elementId)).thenReturn(element);
+    return element;
+  }
+
+  /**
+   * Puts a Node with two locations of the given elements "B" and "C" in the element "A".
+   */
+  private void putNode(String name, Element elementA, Element elementB, Element elementC) {
+    int relationshipId = relationshipCodec.encode(relationship);
+    RelationKeyData key = new RelationKeyData(0, relationshipId);
+    List<LocationData> locations = Lists.newArrayList(
+        new LocationData(1, 1, 10),
+        new LocationData(2, 2, 20));
+    IndexNode node = new IndexNode(context, elementCodec, relationshipCodec);
+    node.setRelations(ImmutableMap.of(key, locations));
+    nodeManager.putNode(name, node);
+  }
+
+  /**
+   * Puts a Node with a reference to the given element "A" in each of the given declarations, as if
+   * the given number of characters were inserted before the declarations, and the given number of
+   * characters were inserted into the first declaration, before its reference.
+   */
+  private void putNodeWithReferences(String name, Element elementA, Element[] declarations,
+      int topInsertion, int firstDeclarationInsertion) {
+    IndexNode node = new IndexNode(context, elementCodec, relationshipCodec);
+    for (int i = 0; i < declarations.length; i++) {
+      Element declaration = declarations[i];
+      int nameOffset = topInsertion + 100 * i + 10;
+      if (i > 0) {
+        nameOffset += firstDeclarationInsertion;
+      }
+      when(declaration.getNameOffset()).thenReturn(nameOffset);
+      int offset = nameOffset + 5;
+      if (i == 0) {
+        offset += firstDeclarationInsertion;
+      }
+      node.recordRelationship(elementA, relationship, new Location(declaration, offset, 3));
+    }
+    nodeManager.putNode(name, node);
+  }
+}
@@ -37,6 +37,17 @@ public class SeparateFileManagerTest extends TestCase {
     assertFalse(new File(tempDir, name).isFile());
   }
 
+  public void test_new_keepFiles() throws Exception {
+    String name = "42.index";
+    fileManager.openOutputStream(name).close();
+    // a new manager for the same directory keeps existing files
+    fileManager = new SeparateFileManager(tempDir);
+    assertTrue(new File(tempDir, name).isFile());
+    InputStream stream = fileManager.openInputStream(name);
+    assertNotNull(stream);
+    stream.close();
+  }
+
   public void test_outputInput() throws Exception {
     String name = "42.index";
     // create a file
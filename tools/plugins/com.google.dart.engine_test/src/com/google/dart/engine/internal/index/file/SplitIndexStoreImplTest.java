@@ -28,13 +28,18 @@ import com.google.dart.engine.index.Relationship;
 import com.google.dart.engine.index.UniverseElement;
 import com.google.dart.engine.internal.context.InstrumentedAnalysisContextImpl;
 import com.google.dart.engine.internal.element.ElementLocationImpl;
+import com.google.dart.engine.internal.index.NameQuery;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.SourceContainer;
+import com.google.dart.engine.source.SourceFactory;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 public class SplitIndexStoreImplTest extends EngineTestCase {
@@ -128,6 +133,8 @@ public class SplitIndexStoreImplTest extends EngineTestCase {
   private HtmlElement htmlElementA = mock(HtmlElement.class);
   private HtmlElement htmlElementB = mock(HtmlElement.class);
   private Relationship relationship = Relationship.getRelationship("test-relationship");
+  private Location locationA;
+  private Location locationB;
 
   public void test_aboutToIndexDart_disposedContext() throws Exception {
     when(contextA.isDisposed()).thenReturn(true);
@@ -223,6 +230,42 @@ public class SplitIndexStoreImplTest extends EngineTestCase {
     assertEquals(false, store.aboutToIndexHtml(contextA, htmlElementA));
   }
 
+  public void test_addContext_restored() throws Exception {
+    prepareRestoredState();
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    // the context of the restored information is not known yet
+    assertLocations(newStore.getDeclarations(relationship, NameQuery.ANY));
+    // add the context with the same name, the restored information can be used before the unit is
+    // indexed again
+    when(contextB.getModificationStamp(sourceA)).thenReturn(1L);
+    newStore.addContext(contextB, "/project");
+    assertLocations(newStore.getDeclarations(relationship, NameQuery.ANY), locationB);
+    assertLocations(newStore.getRelationships(elementA, relationship), locationA);
+    // the unit is still up to date
+    assertFalse(newStore.aboutToIndexDart(contextB, unitElementA));
+  }
+
+  public void test_addContext_restored_changedUnit() throws Exception {
+    prepareRestoredState();
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    // "sourceA" was changed, so its restored node is removed
+    when(contextB.getModificationStamp(sourceA)).thenReturn(2L);
+    newStore.addContext(contextB, "/project");
+    assertLocations(newStore.getDeclarations(relationship, NameQuery.ANY));
+    assertLocations(newStore.getRelationships(elementA, relationship));
+  }
+
+  public void test_addContext_restored_otherName() throws Exception {
+    prepareRestoredState();
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    when(contextB.getModificationStamp(sourceA)).thenReturn(1L);
+    newStore.addContext(contextB, "/otherProject");
+    assertLocations(newStore.getDeclarations(relationship, NameQuery.ANY));
+  }
+
   public void test_clear() throws Exception {
     Location locationA = mockLocation(elementA);
     store.aboutToIndexDart(contextA, unitElementA);
@@ -234,11 +277,40 @@ public class SplitIndexStoreImplTest extends EngineTestCase {
     assertTrue(nodeManager.isEmpty());
   }
 
+  public void test_getRelationships_cancelled() throws Exception {
+    Location locationA = mockLocation(elementA);
+    store.aboutToIndexDart(contextA, unitElementA);
+    store.recordRelationship(elementA, relationship, locationA);
+    store.doneIndex();
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    Location[] locations = store.getRelationships(elementA, relationship, 0, token);
+    assertThat(locations).isEmpty();
+  }
+
   public void test_getRelationships_empty() throws Exception {
     Location[] locations = store.getRelationships(elementA, relationship);
     assertThat(locations).isEmpty();
   }
 
+  public void test_getRelationships_limit() throws Exception {
+    Location locationA = mockLocation(elementA);
+    Location locationB = mockLocation(elementB);
+    {
+      store.aboutToIndexDart(contextA, unitElementA);
+      store.recordRelationship(elementA, relationship, locationA);
+      store.doneIndex();
+    }
+    {
+      store.aboutToIndexDart(contextA, unitElementB);
+      store.recordRelationship(elementA, relationship, locationB);
+      store.doneIndex();
+    }
+    Location[] locations = store.getRelationships(elementA, relationship, 1, null);
+    assertThat(locations).hasSize(1);
+    assertLocations(store.getRelationships(elementA, relationship, 2, null), locationA, locationB);
+  }
+
   public void test_getStatistics() throws Exception {
     // empty initially
     assertThat(store.getStatistics()).contains("0 locations").contains("0 sources");
@@ -258,6 +330,146 @@ public class SplitIndexStoreImplTest extends EngineTestCase {
     assertThat(store.getStatistics()).contains("2 locations").contains("3 sources");
   }
 
+  public void test_isUpToDate() throws Exception {
+    prepareRestoredState();
+    // the unit was just indexed, but not restored
+    assertFalse(store.isUpToDate(contextA, unitElementA));
+    // restored, but not associated with any context yet
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    when(contextB.getModificationStamp(sourceA)).thenReturn(1L);
+    assertTrue(newStore.isUpToDate(contextB, unitElementA));
+    // still up to date, the unit is not indexed again
+    assertFalse(newStore.aboutToIndexDart(contextB, unitElementA));
+    assertLocations(newStore.getRelationships(elementA, relationship), locationA);
+  }
+
+  public void test_isUpToDate_changedSource() throws Exception {
+    prepareRestoredState();
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    when(contextB.getModificationStamp(sourceA)).thenReturn(2L);
+    assertFalse(newStore.isUpToDate(contextB, unitElementA));
+  }
+
+  public void test_isUpToDate_disposedContext() throws Exception {
+    prepareRestoredState();
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    when(contextB.getModificationStamp(sourceA)).thenReturn(1L);
+    when(contextB.isDisposed()).thenReturn(true);
+    assertFalse(newStore.isUpToDate(contextB, unitElementA));
+  }
+
+  public void test_readState_changedSource() throws Exception {
+    when(libraryElement.getVisibleLibraries()).thenReturn(new LibraryElement[] {libraryElement});
+    when(libraryElement.getUnits()).thenReturn(
+        new CompilationUnitElement[] {libraryUnitElement, unitElementA});
+    when(contextA.getModificationStamp(sourceA)).thenReturn(1L);
+    Location locationA = mockLocation(elementA);
+    {
+      store.aboutToIndexDart(contextA, unitElementA);
+      store.recordRelationship(elementA, relationship, locationA);
+      store.doneIndex();
+    }
+    // restore into a new store
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    // "sourceA" was changed, so the unit should be indexed again
+    when(contextB.getModificationStamp(sourceA)).thenReturn(2L);
+    assertTrue(newStore.aboutToIndexDart(contextB, unitElementA));
+    newStore.doneIndex();
+    {
+      Location[] locations = newStore.getRelationships(elementA, relationship);
+      assertLocations(locations);
+    }
+  }
+
+  public void test_readState_unchangedSource() throws Exception {
+    when(libraryElement.getVisibleLibraries()).thenReturn(new LibraryElement[] {libraryElement});
+    when(libraryElement.getUnits()).thenReturn(
+        new CompilationUnitElement[] {libraryUnitElement, unitElementA});
+    when(contextA.getModificationStamp(sourceA)).thenReturn(1L);
+    when(contextB.getModificationStamp(sourceA)).thenReturn(1L);
+    when(contextB.getElement(elementLocationB)).thenReturn(elementB);
+    when(elementB.getDisplayName()).thenReturn("ClassB");
+    Location locationA = mockLocation(elementA);
+    Location locationB = mockLocation(elementB);
+    {
+      store.aboutToIndexDart(contextA, unitElementA);
+      store.recordRelationship(elementA, relationship, locationA);
+      store.recordRelationship(UniverseElement.INSTANCE, relationship, locationB);
+      store.doneIndex();
+    }
+    // restore into a new store
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    // "sourceA" was not changed, so the unit should not be indexed again
+    assertFalse(newStore.aboutToIndexDart(contextB, unitElementA));
+    {
+      Location[] locations = newStore.getRelationships(elementA, relationship);
+      assertLocations(locations, locationA);
+    }
+    {
+      Location[] locations = newStore.getRelationships(UniverseElement.INSTANCE, relationship);
+      assertLocations(locations, locationB);
+    }
+    {
+      Location[] locations = newStore.getDeclarations(relationship, NameQuery.prefix("Cla", true));
+      assertLocations(locations, locationB);
+    }
+    // a restored node is validated only once
+    assertTrue(newStore.aboutToIndexDart(contextB, unitElementA));
+  }
+
+  public void test_readState_unchangedSource_otherOrder() throws Exception {
+    LibraryElement otherLibrary = mock(LibraryElement.class);
+    when(otherLibrary.getUnits()).thenReturn(new CompilationUnitElement[] {unitElementB});
+    when(libraryElement.getVisibleLibraries()).thenReturn(
+        new LibraryElement[] {libraryElement, otherLibrary});
+    when(libraryElement.getUnits()).thenReturn(
+        new CompilationUnitElement[] {libraryUnitElement, unitElementA});
+    when(contextA.getModificationStamp(sourceA)).thenReturn(1L);
+    when(contextA.getModificationStamp(sourceB)).thenReturn(2L);
+    when(contextB.getModificationStamp(sourceA)).thenReturn(1L);
+    when(contextB.getModificationStamp(sourceB)).thenReturn(2L);
+    {
+      store.aboutToIndexDart(contextA, unitElementA);
+      store.recordRelationship(elementA, relationship, mockLocation(elementA));
+      store.doneIndex();
+    }
+    // restore into a new store
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    // the order of the visible libraries does not matter
+    when(libraryElement.getVisibleLibraries()).thenReturn(
+        new LibraryElement[] {otherLibrary, libraryElement});
+    assertFalse(newStore.aboutToIndexDart(contextB, unitElementA));
+  }
+
+  public void test_readState_unchangedSource_swappedStamps() throws Exception {
+    LibraryElement otherLibrary = mock(LibraryElement.class);
+    when(otherLibrary.getUnits()).thenReturn(new CompilationUnitElement[] {unitElementB});
+    when(libraryElement.getVisibleLibraries()).thenReturn(
+        new LibraryElement[] {libraryElement, otherLibrary});
+    when(libraryElement.getUnits()).thenReturn(
+        new CompilationUnitElement[] {libraryUnitElement, unitElementA});
+    when(contextA.getModificationStamp(sourceA)).thenReturn(1L);
+    when(contextA.getModificationStamp(sourceB)).thenReturn(2L);
+    {
+      store.aboutToIndexDart(contextA, unitElementA);
+      store.recordRelationship(elementA, relationship, mockLocation(elementA));
+      store.doneIndex();
+    }
+    // restore into a new store
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    // both sources were changed, the changes don't cancel out
+    when(contextB.getModificationStamp(sourceA)).thenReturn(2L);
+    when(contextB.getModificationStamp(sourceB)).thenReturn(1L);
+    assertTrue(newStore.aboutToIndexDart(contextB, unitElementA));
+  }
+
   public void test_recordRelationship_errorElementKind() throws Exception {
     when(elementA.getKind()).thenReturn(ElementKind.ERROR);
     Location locationA = mockLocation(elementA);
@@ -352,6 +564,19 @@ public class SplitIndexStoreImplTest extends EngineTestCase {
     store.removeContext(null);
   }
 
+  public void test_removeSource_restored() throws Exception {
+    prepareRestoredState();
+    SplitIndexStoreImpl newStore = new SplitIndexStoreImpl(nodeManager);
+    newStore.readState(writeState(store));
+    when(contextB.getModificationStamp(sourceA)).thenReturn(1L);
+    newStore.addContext(contextB, "/project");
+    assertLocations(newStore.getRelationships(elementA, relationship), locationA);
+    // the restored node of "sourceA" is removed, even though "sourceA" was not indexed again
+    newStore.removeSource(contextB, sourceA);
+    assertLocations(newStore.getRelationships(elementA, relationship));
+    assertLocations(newStore.getDeclarations(relationship, NameQuery.ANY));
+  }
+
   public void test_removeSource_library() throws Exception {
     Location locationA = mockLocation(elementA);
     Location locationB = mockLocation(elementB);
@@ -520,6 +745,43 @@ public class SplitIndexStoreImplTest extends EngineTestCase {
     }
   }
 
+  public void test_universe_getDeclarations() throws Exception {
+    when(elementA.getDisplayName()).thenReturn("HashMap");
+    when(elementB.getDisplayName()).thenReturn("HtmlElement");
+    Location locationA = mockLocation(elementA);
+    Location locationB = mockLocation(elementB);
+    {
+      store.aboutToIndexDart(contextA, unitElementA);
+      store.recordRelationship(UniverseElement.INSTANCE, relationship, locationA);
+      store.recordRelationship(UniverseElement.INSTANCE, relationship, locationB);
+      store.doneIndex();
+    }
+    {
+      Location[] locations = store.getDeclarations(relationship, NameQuery.camelCase("HM", false));
+      assertLocations(locations, locationA);
+    }
+    {
+      Location[] locations = store.getDeclarations(relationship, NameQuery.prefix("ht", false));
+      assertLocations(locations, locationB);
+    }
+    {
+      Location[] locations = store.getDeclarations(relationship, NameQuery.prefix("ht", true));
+      assertLocations(locations);
+    }
+    {
+      Relationship otherRelationship = Relationship.getRelationship("other-relationship");
+      Location[] locations = store.getDeclarations(otherRelationship, NameQuery.ANY);
+      assertLocations(locations);
+    }
+    // re-index "unitElementA"
+    store.aboutToIndexDart(contextA, unitElementA);
+    store.doneIndex();
+    {
+      Location[] locations = store.getDeclarations(relationship, NameQuery.ANY);
+      assertLocations(locations);
+    }
+  }
+
   public void test_universe_removeContext() throws Exception {
     when(contextA.getElement(elementLocationA)).thenReturn(elementA);
     when(contextB.getElement(elementLocationB)).thenReturn(elementB);
@@ -547,6 +809,39 @@ public class SplitIndexStoreImplTest extends EngineTestCase {
     }
   }
 
+  /**
+   * Indexes "unitElementA" in "contextA" named "/project", with a relationship of "elementA" at
+   * {@link #locationA} and a declaration at {@link #locationB}. "contextB" is prepared to be used as
+   * the same context in the next session.
+   */
+  private void prepareRestoredState() {
+    when(libraryElement.getVisibleLibraries()).thenReturn(new LibraryElement[] {libraryElement});
+    when(libraryElement.getUnits()).thenReturn(
+        new CompilationUnitElement[] {libraryUnitElement, unitElementA});
+    when(contextA.getModificationStamp(sourceA)).thenReturn(1L);
+    when(contextB.getElement(elementLocationB)).thenReturn(elementB);
+    when(elementB.getDisplayName()).thenReturn("ClassB");
+    SourceFactory sourceFactory = mock(SourceFactory.class);
+    when(sourceFactory.fromEncoding("file:///home/user/sourceA.dart")).thenReturn(sourceA);
+    when(contextB.getSourceFactory()).thenReturn(sourceFactory);
+    locationA = mockLocation(elementA);
+    locationB = mockLocation(elementB);
+    store.addContext(contextA, "/project");
+    store.aboutToIndexDart(contextA, unitElementA);
+    store.recordRelationship(elementA, relationship, locationA);
+    store.recordRelationship(UniverseElement.INSTANCE, relationship, locationB);
+    store.doneIndex();
+  }
+
+  /**
+   * Writes the state of the given store and returns it as an {@link ByteArrayInputStream}.
+   */
+  private ByteArrayInputStream writeState(SplitIndexStoreImpl store) throws Exception {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    store.writeState(stream);
+    return new ByteArrayInputStream(stream.toByteArray());
+  }
+
   @Override
   protected void setUp() throws Exception {
     super.setUp();
@@ -567,6 +862,11 @@ public class SplitIndexStoreImplTest extends EngineTestCase {
     when(sourceB.getFullName()).thenReturn("/home/user/sourceB.dart");
     when(sourceC.getFullName()).thenReturn("/home/user/sourceC.dart");
     when(sourceD.getFullName()).thenReturn("/home/user/sourceD.dart");
+    when(librarySource.getEncoding()).thenReturn("file:///home/user/librarySource.dart");
+    when(sourceA.getEncoding()).thenReturn("file:///home/user/sourceA.dart");
+    when(sourceB.getEncoding()).thenReturn("file:///home/user/sourceB.dart");
+    when(sourceC.getEncoding()).thenReturn("file:///home/user/sourceC.dart");
+    when(sourceD.getEncoding()).thenReturn("file:///home/user/sourceD.dart");
     when(elementA.toString()).thenReturn("elementA");
     when(elementB.toString()).thenReturn("elementB");
     when(elementC.toString()).thenReturn("elementC");
@@ -26,8 +26,11 @@ public class TestAll {
     suite.addTestSuite(FileNodeManagerTest.class);
     suite.addTestSuite(IndexNodeTest.class);
     suite.addTestSuite(IntArrayToIntMapTest.class);
+    suite.addTestSuite(IntPairToIntMapTest.class);
     suite.addTestSuite(IntToIntSetMapTest.class);
     suite.addTestSuite(LocationDataTest.class);
+    suite.addTestSuite(PackedIndexStoreImplTest.class);
+    suite.addTestSuite(PagedNodeManagerTest.class);
     suite.addTestSuite(RelationKeyDataTest.class);
     suite.addTestSuite(RelationshipCodecTest.class);
     suite.addTestSuite(SeparateFileManagerTest.class);
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.operation;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.source.Source;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class AddContextOperationTest extends EngineTestCase {
+  private IndexStore store = mock(IndexStore.class);
+  private AnalysisContext context = mock(AnalysisContext.class);
+
+  public void test_getContext() throws Exception {
+    AddContextOperation operation = new AddContextOperation(store, context, "/project");
+    assertSame(context, operation.getContext());
+    assertEquals("/project", operation.getName());
+  }
+
+  public void test_isQuery() throws Exception {
+    AddContextOperation operation = new AddContextOperation(store, context, "/project");
+    assertFalse(operation.isQuery());
+  }
+
+  public void test_performOperation() throws Exception {
+    AddContextOperation operation = new AddContextOperation(store, context, "/project");
+    operation.performOperation();
+    verify(store).addContext(context, "/project");
+  }
+
+  public void test_removeWhenSourceRemoved() throws Exception {
+    AddContextOperation operation = new AddContextOperation(store, context, "/project");
+    Source source = mock(Source.class);
+    assertFalse(operation.removeWhenSourceRemoved(source));
+  }
+
+  public void test_toString() throws Exception {
+    AddContextOperation operation = new AddContextOperation(store, context, "/project");
+    assertThat(operation.toString()).startsWith("AddContext(");
+  }
+}
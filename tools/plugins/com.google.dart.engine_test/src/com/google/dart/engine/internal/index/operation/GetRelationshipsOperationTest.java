@@ -20,8 +20,10 @@ import com.google.dart.engine.index.Location;
 import com.google.dart.engine.index.Relationship;
 import com.google.dart.engine.index.RelationshipCallback;
 import com.google.dart.engine.source.Source;
+import com.google.dart.engine.utilities.general.CancellationToken;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,6 +49,55 @@ public class GetRelationshipsOperationTest extends EngineTestCase {
     verify(callback).hasRelationships(elementLocation, relationship, locations);
   }
 
+  public void test_performOperation_cancelled() throws Exception {
+    CancellationToken token = new CancellationToken();
+    operation = new GetRelationshipsOperation(
+        store,
+        elementLocation,
+        relationship,
+        0,
+        token,
+        callback);
+    token.cancel();
+    operation.performOperation();
+    verify(store, never()).getRelationships(elementLocation, relationship);
+    verify(store, never()).getRelationships(elementLocation, relationship, 0, token);
+    verify(callback).hasRelationships(elementLocation, relationship, Location.EMPTY_ARRAY);
+  }
+
+  public void test_performOperation_limit() throws Exception {
+    CancellationToken token = new CancellationToken();
+    operation = new GetRelationshipsOperation(
+        store,
+        elementLocation,
+        relationship,
+        2,
+        token,
+        callback);
+    assertEquals(2, operation.getLimit());
+    Location locations[] = new Location[2];
+    when(store.getRelationships(elementLocation, relationship, 2, token)).thenReturn(locations);
+    operation.performOperation();
+    verify(store, never()).getRelationships(elementLocation, relationship);
+    verify(callback).hasRelationships(elementLocation, relationship, locations);
+  }
+
+  public void test_performOperation_notCancelled() throws Exception {
+    CancellationToken token = new CancellationToken();
+    operation = new GetRelationshipsOperation(
+        store,
+        elementLocation,
+        relationship,
+        0,
+        token,
+        callback);
+    assertSame(token, operation.getToken());
+    Location locations[] = new Location[2];
+    when(store.getRelationships(elementLocation, relationship, 0, token)).thenReturn(locations);
+    operation.performOperation();
+    verify(callback).hasRelationships(elementLocation, relationship, locations);
+  }
+
   public void test_removeWhenSourceRemoved() throws Exception {
     Source source = mock(Source.class);
     assertFalse(operation.removeWhenSourceRemoved(source));
@@ -57,12 +57,20 @@ public class IndexHtmlUnitOperationTest extends EngineTestCase {
     operation.performOperation();
     verify(store).aboutToIndexHtml(context, htmlElement);
     verify(unit).accept(isA(AngularHtmlIndexContributor.class));
+    verify(store).doneIndex();
   }
 
   public void test_performOperation_aboutToIndex_false() throws Exception {
     when(store.aboutToIndexHtml(context, htmlElement)).thenReturn(false);
     operation.performOperation();
+    verify(store, never()).doneIndex();
+  }
+
+  public void test_performOperation_disposedContext() throws Exception {
+    when(context.isDisposed()).thenReturn(true);
+    operation.performOperation();
     verify(unit, never()).accept(isA(AngularHtmlIndexContributor.class));
+    verify(store, never()).aboutToIndexHtml(context, htmlElement);
   }
 
   public void test_performOperation_whenException() throws Exception {
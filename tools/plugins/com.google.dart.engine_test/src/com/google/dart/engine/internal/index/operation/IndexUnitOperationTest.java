@@ -55,12 +55,30 @@ public class IndexUnitOperationTest extends EngineTestCase {
     operation.performOperation();
     verify(store).aboutToIndexDart(context, unitElement);
     verify(unit).accept(isA(IndexContributor.class));
+    verify(store).doneIndex();
   }
 
   public void test_performOperation_aboutToIndex_false() throws Exception {
     when(store.aboutToIndexDart(context, unitElement)).thenReturn(false);
     operation.performOperation();
+    verify(store, never()).doneIndex();
+  }
+
+  public void test_performOperation_disposedContext() throws Exception {
+    when(context.isDisposed()).thenReturn(true);
+    operation.performOperation();
     verify(unit, never()).accept(isA(IndexContributor.class));
+    verify(store, never()).aboutToIndexDart(context, unitElement);
+  }
+
+  public void test_performOperation_upToDate() throws Exception {
+    when(store.isUpToDate(context, unitElement)).thenReturn(true);
+    when(store.aboutToIndexDart(context, unitElement)).thenReturn(false);
+    operation.performOperation();
+    // the unit is not visited, but the store still knows about it
+    verify(unit, never()).accept(isA(IndexContributor.class));
+    verify(store).aboutToIndexDart(context, unitElement);
+    verify(store, never()).doneIndex();
   }
 
   public void test_performOperation_whenException() throws Exception {
@@ -36,8 +36,10 @@ import static org.mockito.Mockito.when;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class OperationProcessorTest extends EngineTestCase {
 
@@ -46,6 +48,18 @@ public class OperationProcessorTest extends EngineTestCase {
    */
   private static Source[] runOperationProcessor(IndexOperation beforeStopOperations[],
       boolean waitStop, IndexOperation afterStopOperations[]) throws Exception {
+    return runOperationProcessor(
+        beforeStopOperations,
+        waitStop,
+        afterStopOperations,
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Runs given {@link OperationProcessor} with the given number of workers in thread.
+   */
+  private static Source[] runOperationProcessor(IndexOperation beforeStopOperations[],
+      boolean waitStop, IndexOperation afterStopOperations[], int workerCount) throws Exception {
     final CountDownLatch stopLatch = new CountDownLatch(1);
     // prepare operations
     final LinkedList<IndexOperation> operations;
@@ -76,7 +90,7 @@ public class OperationProcessorTest extends EngineTestCase {
     });
     when(queue.getOperations()).thenReturn(Arrays.asList(afterStopOperations));
     // run OperationProcessor
-    final OperationProcessor processor = new OperationProcessor(queue);
+    final OperationProcessor processor = new OperationProcessor(queue, workerCount);
     new Thread() {
       @Override
       public void run() {
@@ -94,6 +108,70 @@ public class OperationProcessorTest extends EngineTestCase {
     verify(operation).performOperation();
   }
 
+  public void test_performOperation_indexUnit_queryWhileIndexing() throws Exception {
+    final CountDownLatch queryLatch = new CountDownLatch(1);
+    final List<String> events = Collections.synchronizedList(Lists.<String> newArrayList());
+    // the unit cannot be indexed until the query has been performed
+    IndexUnitOperation unitOperation = mock(IndexUnitOperation.class);
+    when(unitOperation.getSource()).thenReturn(mock(Source.class));
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        assertTrue(queryLatch.await(5, TimeUnit.SECONDS));
+        events.add("unit");
+        return null;
+      }
+    }).when(unitOperation).performOperation();
+    IndexOperation queryOperation = mock(IndexOperation.class);
+    when(queryOperation.isQuery()).thenReturn(true);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        events.add("query");
+        queryLatch.countDown();
+        return null;
+      }
+    }).when(queryOperation).performOperation();
+    // run processor, the "stop" operation waits for the unit
+    runOperationProcessor(
+        new IndexOperation[] {unitOperation, queryOperation},
+        true,
+        new IndexOperation[] {},
+        2);
+    assertEquals(ImmutableList.of("query", "unit"), events);
+  }
+
+  public void test_performOperation_indexUnit_sameSource() throws Exception {
+    Source source = mock(Source.class);
+    final List<String> events = Collections.synchronizedList(Lists.<String> newArrayList());
+    IndexUnitOperation operation1 = mock(IndexUnitOperation.class);
+    IndexUnitOperation operation2 = mock(IndexUnitOperation.class);
+    when(operation1.getSource()).thenReturn(source);
+    when(operation2.getSource()).thenReturn(source);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        Thread.sleep(50);
+        events.add("1");
+        return null;
+      }
+    }).when(operation1).performOperation();
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        events.add("2");
+        return null;
+      }
+    }).when(operation2).performOperation();
+    // run processor
+    runOperationProcessor(
+        new IndexOperation[] {operation1, operation2},
+        true,
+        new IndexOperation[] {},
+        2);
+    assertEquals(ImmutableList.of("1", "2"), events);
+  }
+
   public void test_performOperation_throwException() throws Exception {
     Logger oldLogger = AnalysisEngine.getInstance().getLogger();
     try {
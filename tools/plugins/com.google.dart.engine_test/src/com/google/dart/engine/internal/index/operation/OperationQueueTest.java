@@ -47,6 +47,32 @@ public class OperationQueueTest extends EngineTestCase {
     assertSame(null, queue.dequeue(-1));
   }
 
+  public void test_dequeueQuery() throws Exception {
+    IndexOperation notQueryOperation = mock(IndexOperation.class);
+    IndexOperation isQueryOperation = mock(IndexOperation.class);
+    when(isQueryOperation.isQuery()).thenReturn(true);
+    // enqueue 2 operations
+    OperationQueue queue = new OperationQueue();
+    queue.enqueue(notQueryOperation);
+    queue.enqueue(isQueryOperation);
+    // only "isQuery" is returned
+    assertSame(isQueryOperation, queue.dequeueQuery(0));
+    assertSame(null, queue.dequeueQuery(0));
+    assertSame(null, queue.dequeueQuery(1));
+    assertSame(notQueryOperation, queue.dequeue(0));
+  }
+
+  public void test_dequeueQuery_processQueries_false() throws Exception {
+    IndexOperation isQueryOperation = mock(IndexOperation.class);
+    when(isQueryOperation.isQuery()).thenReturn(true);
+    OperationQueue queue = new OperationQueue();
+    queue.enqueue(isQueryOperation);
+    queue.setProcessQueries(false);
+    assertSame(null, queue.dequeueQuery(0));
+    queue.setProcessQueries(true);
+    assertSame(isQueryOperation, queue.dequeueQuery(0));
+  }
+
   public void test_enqueue_isQuery() throws Exception {
     IndexOperation notQueryOperation = mock(IndexOperation.class);
     IndexOperation isQueryOperation = mock(IndexOperation.class);
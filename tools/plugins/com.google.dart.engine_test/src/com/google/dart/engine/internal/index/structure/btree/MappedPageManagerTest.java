@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import com.google.dart.engine.utilities.io.FileUtilities2;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+public class MappedPageManagerTest extends TestCase {
+  private static final int PAGE_SIZE = 64;
+
+  private File tempDir;
+  private File file;
+  private MappedPageManager pageManager;
+
+  public void test_alloc() throws Exception {
+    int idA = pageManager.alloc();
+    int idB = pageManager.alloc();
+    assertTrue(idA > 0);
+    assertTrue(idB > 0);
+    assertFalse(idA == idB);
+    assertEquals(3, pageManager.getPageCount());
+  }
+
+  public void test_alloc_grow() throws Exception {
+    int count = 1000;
+    int[] ids = new int[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = pageManager.alloc();
+      ByteBuffer page = pageManager.read(ids[i]);
+      page.putInt(0, i);
+      pageManager.write(ids[i], page);
+    }
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, pageManager.read(ids[i]).getInt(0));
+    }
+  }
+
+  public void test_clear() throws Exception {
+    pageManager.alloc();
+    pageManager.setRootPage(1);
+    pageManager.clear();
+    assertEquals(1, pageManager.getPageCount());
+    assertEquals(0, pageManager.getRootPage());
+  }
+
+  public void test_free() throws Exception {
+    int idA = pageManager.alloc();
+    int idB = pageManager.alloc();
+    pageManager.free(idA);
+    // the freed page is reused and cleared
+    assertEquals(idA, pageManager.alloc());
+    assertEquals(0, pageManager.read(idA).getInt(0));
+    // no more free pages
+    int idC = pageManager.alloc();
+    assertFalse(idC == idA);
+    assertFalse(idC == idB);
+  }
+
+  public void test_getPageSizeInBytes() throws Exception {
+    assertEquals(PAGE_SIZE, pageManager.getPageSizeInBytes());
+  }
+
+  public void test_read_invalidId() throws Exception {
+    try {
+      pageManager.read(0);
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+    try {
+      pageManager.read(1);
+      fail();
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
+  public void test_reopen() throws Exception {
+    int id = pageManager.alloc();
+    {
+      ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+      page.putInt(0, 42);
+      page.putInt(PAGE_SIZE - 4, 43);
+      pageManager.write(id, page);
+    }
+    pageManager.setRootPage(id);
+    pageManager.close();
+    // open again
+    pageManager = new MappedPageManager(file, PAGE_SIZE);
+    assertEquals(2, pageManager.getPageCount());
+    assertEquals(id, pageManager.getRootPage());
+    ByteBuffer page = pageManager.read(id);
+    assertEquals(42, page.getInt(0));
+    assertEquals(43, page.getInt(PAGE_SIZE - 4));
+  }
+
+  public void test_reopen_differentPageSize() throws Exception {
+    int id = pageManager.alloc();
+    pageManager.setRootPage(id);
+    pageManager.close();
+    // open again
+    pageManager = new MappedPageManager(file, 2 * PAGE_SIZE);
+    assertEquals(1, pageManager.getPageCount());
+    assertEquals(0, pageManager.getRootPage());
+  }
+
+  public void test_write_read() throws Exception {
+    int id = pageManager.alloc();
+    {
+      ByteBuffer page = pageManager.read(id);
+      assertEquals(PAGE_SIZE, page.capacity());
+      page.putInt(4, 42);
+      pageManager.write(id, page);
+    }
+    assertEquals(42, pageManager.read(id).getInt(4));
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    tempDir = FileUtilities2.createTempDir("pages");
+    file = new File(tempDir, "test.pages");
+    pageManager = new MappedPageManager(file, PAGE_SIZE);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    pageManager.close();
+    pageManager = null;
+    FileUtilities2.deleteDirectory(tempDir);
+    super.tearDown();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.index.structure.btree;
+
+import com.google.common.collect.Sets;
+import com.google.dart.engine.utilities.io.FileUtilities2;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.Set;
+
+public class PageNodeManagerTest extends TestCase {
+  private static class IntCodec implements KeyCodec<Integer>, ValueCodec<Integer> {
+    @Override
+    public Integer decode(ByteBuffer buffer, int offset) {
+      return buffer.getInt(offset);
+    }
+
+    @Override
+    public void encode(ByteBuffer buffer, int offset, Integer value) {
+      buffer.putInt(offset, value);
+    }
+
+    @Override
+    public int getSizeInBytes() {
+      return 4;
+    }
+  }
+
+  private static final Comparator<Integer> INT_COMPARATOR = new Comparator<Integer>() {
+    @Override
+    public int compare(Integer o1, Integer o2) {
+      return o1.compareTo(o2);
+    }
+  };
+
+  private static final IntCodec INT_CODEC = new IntCodec();
+
+  private File tempDir;
+  private File file;
+  private MappedPageManager pageManager;
+  private PageNodeManager<Integer, Integer> nodeManager;
+  private BPlusTree<Integer, Integer, Integer> tree;
+
+  public void test_maxKeys() throws Exception {
+    // 64 bytes page: 8 bytes header, 4 bytes keys, 4 bytes children / values
+    assertEquals(6, nodeManager.getMaxInternalKeys());
+    assertEquals(7, nodeManager.getMaxLeafKeys());
+  }
+
+  public void test_reopen() throws Exception {
+    int count = 1000;
+    for (int i = 0; i < count; i++) {
+      tree.insert(i, 10 * i);
+    }
+    pageManager.setRootPage(tree.getRootId());
+    pageManager.close();
+    // open again
+    pageManager = new MappedPageManager(file, 64);
+    nodeManager = new PageNodeManager<Integer, Integer>(pageManager, INT_CODEC, INT_CODEC);
+    tree = new BPlusTree<Integer, Integer, Integer>(
+        INT_COMPARATOR,
+        nodeManager,
+        pageManager.getRootPage());
+    for (int i = 0; i < count; i++) {
+      assertEquals(Integer.valueOf(10 * i), tree.find(i));
+    }
+  }
+
+  public void test_stress_random() throws Exception {
+    int maxKey = 1000000;
+    int tryCount = 2000;
+    Set<Integer> keys = Sets.newHashSet();
+    for (int i = 0; i < tryCount; i++) {
+      int key = (int) (Math.random() * maxKey);
+      keys.add(key);
+      tree.insert(key, -key);
+    }
+    // find every
+    for (int key : keys) {
+      assertEquals(Integer.valueOf(-key), tree.find(key));
+    }
+    // remove random keys
+    for (int key : Sets.newHashSet(keys)) {
+      if (Math.random() > 0.5) {
+        keys.remove(key);
+        assertEquals(Integer.valueOf(-key), tree.remove(key));
+      }
+    }
+    // find every remaining key
+    for (int key : keys) {
+      assertEquals(Integer.valueOf(-key), tree.find(key));
+    }
+    // remove all, pages are reused
+    int pageCount = pageManager.getPageCount();
+    for (int key : keys) {
+      tree.remove(key);
+    }
+    for (int i = 0; i < 100; i++) {
+      tree.insert(i, i);
+    }
+    assertEquals(pageCount, pageManager.getPageCount());
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    tempDir = FileUtilities2.createTempDir("pages");
+    file = new File(tempDir, "test.pages");
+    pageManager = new MappedPageManager(file, 64);
+    nodeManager = new PageNodeManager<Integer, Integer>(pageManager, INT_CODEC, INT_CODEC);
+    tree = new BPlusTree<Integer, Integer, Integer>(INT_COMPARATOR, nodeManager);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    pageManager.close();
+    pageManager = null;
+    FileUtilities2.deleteDirectory(tempDir);
+    super.tearDown();
+  }
+}
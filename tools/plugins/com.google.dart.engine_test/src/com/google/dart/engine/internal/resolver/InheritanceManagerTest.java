@@ -210,6 +210,50 @@ public class InheritanceManagerTest extends EngineTestCase {
     assertNoErrors(classB);
   }
 
+  public void test_getMapOfMembersInheritedFromClasses_shared() throws Exception {
+    // class A { int m(); }
+    // class B extends A {}
+    ClassElementImpl classA = classElement("A");
+    String methodName = "m";
+    MethodElement methodM = methodElement(methodName, typeProvider.getIntType());
+    classA.setMethods(new MethodElement[] {methodM});
+
+    ClassElementImpl classB = classElement("B", classA.getType());
+
+    MemberMap mapB = inheritanceManager.getMapOfMembersInheritedFromClasses(classB);
+    assertSame(mapB, classB.getInheritedClassMembers());
+    InheritanceManager otherManager = createInheritanceManager();
+    assertSame(mapB, otherManager.getMapOfMembersInheritedFromClasses(classB));
+    assertSame(methodM, mapB.get(methodName));
+  }
+
+  public void test_getMapOfMembersInheritedFromClasses_shared_classChanged() throws Exception {
+    // class A {}
+    // class B extends A {}
+    ClassElementImpl classA = classElement("A");
+    ClassElementImpl classB = classElement("B", classA.getType());
+
+    MemberMap mapB = inheritanceManager.getMapOfMembersInheritedFromClasses(classB);
+    classB.setMethods(new MethodElement[] {methodElement("m", typeProvider.getIntType())});
+    assertNull(classB.getInheritedClassMembers());
+    assertNotSame(mapB, createInheritanceManager().getMapOfMembersInheritedFromClasses(classB));
+  }
+
+  public void test_getMapOfMembersInheritedFromClasses_shared_definingLibrary() throws Exception {
+    // class A {} (in the managed library)
+    // class B extends A {}
+    ClassElementImpl classA = classElement("A");
+    CompilationUnitElementImpl unit = (CompilationUnitElementImpl) definingLibrary.getDefiningCompilationUnit();
+    unit.setTypes(new ClassElement[] {classA});
+    ClassElementImpl classB = classElement("B", classA.getType());
+
+    MemberMap mapB = inheritanceManager.getMapOfMembersInheritedFromClasses(classB);
+    assertNull(classA.getInheritedClassMembers());
+    assertNull(classB.getInheritedClassMembers());
+    InheritanceManager otherManager = new InheritanceManager(definingLibrary);
+    assertNotSame(mapB, otherManager.getMapOfMembersInheritedFromClasses(classB));
+  }
+
   public void test_getMapOfMembersInheritedFromInterfaces_accessor_extends() throws Exception {
     // class A { int get g; }
     // class B extends A {}
@@ -475,6 +519,24 @@ public class InheritanceManagerTest extends EngineTestCase {
     assertNoErrors(classB);
   }
 
+  public void test_getMapOfMembersInheritedFromInterfaces_shared() throws Exception {
+    // class I { int m(); }
+    // class A implements I {}
+    ClassElementImpl classI = classElement("I");
+    String methodName = "m";
+    MethodElement methodM = methodElement(methodName, typeProvider.getIntType());
+    classI.setMethods(new MethodElement[] {methodM});
+
+    ClassElementImpl classA = classElement("A");
+    classA.setInterfaces(new InterfaceType[] {classI.getType()});
+
+    MemberMap mapA = inheritanceManager.getMapOfMembersInheritedFromInterfaces(classA);
+    assertSame(mapA, classA.getInheritedInterfaceMembers());
+    InheritanceManager otherManager = createInheritanceManager();
+    assertSame(mapA, otherManager.getMapOfMembersInheritedFromInterfaces(classA));
+    assertSame(methodM, mapA.get(methodName));
+  }
+
   public void test_getMapOfMembersInheritedFromInterfaces_union_differentNames() throws Exception {
     // class I1 { int m1(); }
     // class I2 { int m2(); }
@@ -148,6 +148,9 @@ public class LibraryImportScopeTest extends ResolverTestCase {
 
     assertEquals(type, scope.lookup(identifier(typeName), importingLibrary));
     errorListener.assertErrorsWithCodes(StaticWarningCode.CONFLICTING_DART_IMPORT);
+    // the conflict is only reported once
+    assertEquals(type, scope.lookup(identifier(typeName), importingLibrary));
+    errorListener.assertErrorsWithCodes(StaticWarningCode.CONFLICTING_DART_IMPORT);
   }
 
   public void test_nonConflictingImports_sameElement() {
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.scope;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.element.Element;
+
+import static com.google.dart.engine.ast.AstFactory.identifier;
+import static com.google.dart.engine.element.ElementFactory.localVariableElement;
+
+public class ScopeNameTableTest extends EngineTestCase {
+  public void test_get_absent() {
+    ScopeNameTable table = new ScopeNameTable();
+    assertNull(table.get("a"));
+    table.put("a", localVariableElement(identifier("a")));
+    assertNull(table.get("b"));
+  }
+
+  public void test_get_sameHash() {
+    // "Aa" and "BB" have the same hash code
+    ScopeNameTable table = new ScopeNameTable(100);
+    Element first = localVariableElement(identifier("Aa"));
+    Element second = localVariableElement(identifier("BB"));
+    table.put("Aa", first);
+    table.put("BB", second);
+    assertSame(first, table.get("Aa"));
+    assertSame(second, table.get("BB"));
+    assertEquals(2, table.size());
+  }
+
+  public void test_put_hashed() {
+    ScopeNameTable table = new ScopeNameTable();
+    int count = 100;
+    Element[] elements = new Element[count];
+    for (int i = 0; i < count; i++) {
+      String name = "v" + i;
+      elements[i] = localVariableElement(identifier(name));
+      table.put(name, elements[i]);
+    }
+    assertEquals(count, table.size());
+    for (int i = 0; i < count; i++) {
+      assertSame(elements[i], table.get(new String("v" + i)));
+    }
+  }
+
+  public void test_put_linear() {
+    ScopeNameTable table = new ScopeNameTable();
+    Element first = localVariableElement(identifier("a"));
+    Element second = localVariableElement(identifier("b"));
+    table.put("a", first);
+    table.put("b", second);
+    assertEquals(2, table.size());
+    assertSame(first, table.get("a"));
+    assertSame(second, table.get(new String("b")));
+  }
+
+  public void test_put_replace() {
+    ScopeNameTable table = new ScopeNameTable();
+    Element first = localVariableElement(identifier("a"));
+    Element second = localVariableElement(identifier("a"));
+    table.put("a", first);
+    table.put("a", second);
+    assertEquals(1, table.size());
+    assertSame(second, table.get("a"));
+  }
+}
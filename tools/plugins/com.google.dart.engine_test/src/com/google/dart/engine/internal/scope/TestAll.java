@@ -25,6 +25,7 @@ public class TestAll {
     suite.addTestSuite(LibraryImportScopeTest.class);
     suite.addTestSuite(LibraryScopeTest.class);
     suite.addTestSuite(ScopeBuilderTest.class);
+    suite.addTestSuite(ScopeNameTableTest.class);
     suite.addTestSuite(ScopeTest.class);
     return suite;
   }
@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.sdk;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.ClassElement;
+import com.google.dart.engine.element.ConstructorElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.ExecutableElement;
+import com.google.dart.engine.element.FieldElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.element.ParameterElement;
+import com.google.dart.engine.element.TopLevelVariableElement;
+import com.google.dart.engine.element.VariableElement;
+import com.google.dart.engine.element.visitor.GeneralizingElementVisitor;
+import com.google.dart.engine.internal.constant.EvaluationResultImpl;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
+import com.google.dart.engine.internal.element.VariableElementImpl;
+import com.google.dart.engine.internal.element.member.ConstructorMember;
+import com.google.dart.engine.internal.object.DartObjectImpl;
+import com.google.dart.engine.internal.object.GenericState;
+import com.google.dart.engine.sdk.DirectoryBasedDartSdk;
+import com.google.dart.engine.source.DartUriResolver;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.SourceFactory;
+import com.google.dart.engine.utilities.io.FileUtilities2;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class SdkSummaryTest extends EngineTestCase {
+  /**
+   * The directory containing the SDK used by the test.
+   */
+  private File sdkDirectory;
+
+  /**
+   * The file to which the summary of the SDK is written.
+   */
+  private File summaryFile;
+
+  public void test_read_differentSdkVersion() throws Exception {
+    DirectoryBasedDartSdk sdk = createSdk();
+    byte[] summary = write(sdk, resolve(sdk, "dart:core"));
+    assertNull(read(sdk, summary, "2.0"));
+  }
+
+  public void test_read_modifiedSource() throws Exception {
+    DirectoryBasedDartSdk sdk = createSdk();
+    byte[] summary = write(sdk, resolve(sdk, "dart:core"));
+    AnalysisContext context = sdk.getContext();
+    context.setContents(sdk.mapDartUri("dart:core"), "library dart.core;");
+    assertNull(read(sdk, summary, "1.0"));
+  }
+
+  public void test_readWrite() throws Exception {
+    DirectoryBasedDartSdk sdk = createSdk();
+    LibraryElement library = resolve(sdk, "dart:sample");
+    HashMap<Source, LibraryElement> libraries = read(sdk, write(sdk, library), "1.0");
+    assertNotNull(libraries);
+    assertEquals(3, libraries.size());
+    LibraryElement copy = libraries.get(library.getSource());
+    assertNotNull(copy);
+    assertNotSame(library, copy);
+    assertEquals(describe(library), describe(copy));
+    LibraryElement math = library.getImportedLibraries()[0];
+    assertEquals(describe(math), describe(libraries.get(math.getSource())));
+    //
+    // Spot check links between the recreated elements.
+    //
+    ClassElement classA = copy.getType("A");
+    FieldElement length = classA.getField("length");
+    assertSame(length, classA.getGetter("length").getVariable());
+    assertSame(classA.getGetter("length"), length.getGetter());
+    assertSame(classA.getSetter("length"), length.getSetter());
+    ConstructorElement redirected = classA.getNamedConstructor("named").getRedirectedConstructor();
+    if (redirected instanceof ConstructorMember) {
+      redirected = ((ConstructorMember) redirected).getBaseElement();
+    }
+    assertSame(copy.getType("B").getUnnamedConstructor(), redirected);
+    assertTrue(copy.getDefiningCompilationUnit().getFunctions()[0].isDeprecated());
+    assertSame(libraries.get(math.getSource()), copy.getImportedLibraries()[0]);
+    //
+    // Check the recreated constant values.
+    //
+    TopLevelVariableElement answer = copy.getDefiningCompilationUnit().getTopLevelVariables()[0];
+    assertEquals(BigInteger.valueOf(42), getValue(answer).getIntValue());
+    TopLevelVariableElement name = copy.getDefiningCompilationUnit().getTopLevelVariables()[1];
+    assertEquals("sample", getValue(name).getStringValue());
+    TopLevelVariableElement zero = copy.getParts()[0].getTopLevelVariables()[0];
+    assertEquals("B<int>", getValue(zero).getType().toString());
+    assertTrue(getValue(zero).isUserDefinedObject());
+  }
+
+  public void test_saveSummary() throws Exception {
+    DirectoryBasedDartSdk sdk = createSdk();
+    LibraryElement library = resolve(sdk, "dart:sample");
+    sdk.saveSummary();
+    assertTrue(summaryFile.exists());
+    //
+    // A new SDK should get the element models from the summary rather than by analysis.
+    //
+    DirectoryBasedDartSdk newSdk = new DirectoryBasedDartSdk(sdkDirectory);
+    newSdk.setSummaryFile(summaryFile);
+    AnalysisContext sdkContext = newSdk.getContext();
+    Source librarySource = newSdk.mapDartUri("dart:sample");
+    LibraryElement copy = sdkContext.getLibraryElement(librarySource);
+    assertNotNull(copy);
+    assertEquals(describe(library), describe(copy));
+    assertNull(sdkContext.getResolvedCompilationUnit(librarySource, librarySource));
+    //
+    // Code that uses the SDK should resolve against the summarized libraries.
+    //
+    AnalysisContextImpl context = new AnalysisContextImpl();
+    context.setSourceFactory(new SourceFactory(new DartUriResolver(newSdk)));
+    Source source = new FileBasedSource(FileUtilities2.createFile("/test.dart"));
+    context.setContents(source, createSource(//
+        "import 'dart:sample';",
+        "int f(A<String> a) => a.length + ANSWER;"));
+    LibraryElement testLibrary = context.computeLibraryElement(source);
+    assertSame(copy, testLibrary.getImportedLibraries()[0]);
+    assertLength(0, context.computeErrors(source));
+  }
+
+  public void test_saveSummary_constantInitializers() throws Exception {
+    DirectoryBasedDartSdk sdk = createSdk();
+    resolve(sdk, "dart:sample");
+    sdk.saveSummary();
+    DirectoryBasedDartSdk newSdk = new DirectoryBasedDartSdk(sdkDirectory);
+    newSdk.setSummaryFile(summaryFile);
+    Source librarySource = newSdk.mapDartUri("dart:sample");
+    assertNotNull(newSdk.getContext().getLibraryElement(librarySource));
+    assertNull(newSdk.getContext().getResolvedCompilationUnit(librarySource, librarySource));
+    //
+    // Constants created by the const constructors of the summarized libraries should be evaluated
+    // using the initializers of those constructors.
+    //
+    AnalysisContextImpl context = new AnalysisContextImpl();
+    context.setSourceFactory(new SourceFactory(new DartUriResolver(newSdk)));
+    Source source = new FileBasedSource(FileUtilities2.createFile("/test.dart"));
+    context.setContents(source, createSource(//
+        "import 'dart:sample';",
+        "const Duration SECOND = const Duration(seconds: 1);",
+        "const B<int> ONE = const B<int>(1);"));
+    LibraryElement testLibrary = context.computeLibraryElement(source);
+    context.resolveCompilationUnit(source, testLibrary);
+    assertLength(0, context.computeErrors(source));
+    TopLevelVariableElement[] variables;
+    variables = testLibrary.getDefiningCompilationUnit().getTopLevelVariables();
+    DartObjectImpl second = getValue(variables[0]);
+    assertFalse(second.isUnknown());
+    assertEquals(BigInteger.valueOf(1000), second.getFields().get("_milliseconds").getIntValue());
+    DartObjectImpl one = getValue(variables[1]);
+    assertFalse(one.isUnknown());
+    DartObjectImpl superclassValue = one.getFields().get(GenericState.SUPERCLASS_FIELD);
+    assertNotNull(superclassValue);
+    assertEquals(BigInteger.ONE, superclassValue.getFields().get("value").getIntValue());
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    sdkDirectory = FileUtilities2.createTempDir("sdk");
+    summaryFile = new File(sdkDirectory.getParentFile(), "sdk.summary");
+    writeFile("version", "1.0");
+    writeFile("lib/_internal/libraries.dart", createSource(//
+        "final Map<String, LibraryInfo> LIBRARIES = const <String, LibraryInfo> {",
+        "  'core' : const LibraryInfo('core/core.dart'),",
+        "  'math' : const LibraryInfo('math/math.dart'),",
+        "  'sample' : const LibraryInfo('sample/sample.dart'),",
+        "};"));
+    writeFile("lib/core/core.dart", createSource(//
+        "library dart.core;",
+        "class Object {",
+        "  const Object();",
+        "  bool operator ==(other) => identical(this, other);",
+        "  String toString() => '';",
+        "}",
+        "bool identical(Object a, Object b) => true;",
+        "class Deprecated {",
+        "  final String expires;",
+        "  const Deprecated(this.expires);",
+        "}",
+        "const Object deprecated = const Deprecated('next release');",
+        "class _Proxy {",
+        "  const _Proxy();",
+        "}",
+        "const Object proxy = const _Proxy();",
+        "abstract class bool {}",
+        "abstract class num {",
+        "  num operator +(num other);",
+        "}",
+        "abstract class int extends num {",
+        "  int operator +(num other);",
+        "  int operator *(num other);",
+        "}",
+        "abstract class double extends num {}",
+        "abstract class String {",
+        "  int get length;",
+        "}",
+        "abstract class Function {}",
+        "abstract class Iterator<E> {",
+        "  E get current;",
+        "  bool moveNext();",
+        "}",
+        "abstract class Iterable<E> {",
+        "  Iterator<E> get iterator;",
+        "}",
+        "abstract class List<E> implements Iterable<E> {",
+        "  E operator [](int index);",
+        "}",
+        "abstract class Map<K, V> {",
+        "  V operator [](Object key);",
+        "}",
+        "class Null {}",
+        "abstract class StackTrace {}",
+        "class Symbol {",
+        "  const Symbol(String name);",
+        "}",
+        "abstract class Type {}"));
+    writeFile("lib/math/math.dart", createSource(//
+        "library dart.math;",
+        "const double PI = 3.14;",
+        "double sqrt(num x) => 0.0;"));
+    writeFile("lib/sample/sample.dart", createSource(//
+        "library dart.sample;",
+        "import 'dart:math' as math;",
+        "part 'part.dart';",
+        "typedef int Compare<T>(T a, T b);",
+        "const int ANSWER = 42;",
+        "const String NAME = 'sample';",
+        "abstract class I {}",
+        "abstract class A<E> {",
+        "  static const double PI = math.PI;",
+        "  final E value;",
+        "  const A(this.value, [int count = 0]);",
+        "  factory A.named(E value) = B<E>;",
+        "  int get length;",
+        "  set length(int length) {}",
+        "  E operator [](int index);",
+        "  void sort([int compare(E a, E b)]);",
+        "}",
+        "class B<E> extends A<E> implements I {",
+        "  const B(E value) : super(value);",
+        "  int get length => 0;",
+        "  E operator [](int index) => value;",
+        "  void sort([int compare(E a, E b)]) {}",
+        "}",
+        "class Duration {",
+        "  final int _milliseconds;",
+        "  const Duration({int seconds: 0}) : _milliseconds = seconds * 1000;",
+        "}",
+        "@deprecated",
+        "double root(num a) => math.sqrt(a);"));
+    writeFile("lib/sample/part.dart", createSource(//
+        "part of dart.sample;",
+        "const B<int> ZERO = const B<int>(0);",
+        "int count = 0;"));
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    FileUtilities2.deleteTempDir();
+    sdkDirectory = null;
+    summaryFile = null;
+    super.tearDown();
+  }
+
+  /**
+   * Return a new SDK for the SDK directory whose summary will be written to the summary file.
+   * 
+   * @return the SDK that was created
+   */
+  private DirectoryBasedDartSdk createSdk() {
+    DirectoryBasedDartSdk sdk = new DirectoryBasedDartSdk(sdkDirectory);
+    sdk.setSummaryFile(summaryFile);
+    return sdk;
+  }
+
+  /**
+   * Return a textual description of every element in the given library, in the order in which the
+   * elements are visited.
+   * 
+   * @param library the library to be described
+   * @return a description of the elements in the library
+   */
+  private ArrayList<String> describe(LibraryElement library) {
+    final ArrayList<String> lines = new ArrayList<String>();
+    library.accept(new GeneralizingElementVisitor<Void>() {
+      @Override
+      public Void visitElement(Element element) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(element.getKind());
+        builder.append(' ');
+        builder.append(element.getName());
+        builder.append(' ');
+        builder.append(element.getNameOffset());
+        if (element.isSynthetic()) {
+          builder.append(" synthetic");
+        }
+        if (element instanceof ClassElement) {
+          ClassElement classElement = (ClassElement) element;
+          builder.append(" extends ");
+          builder.append(classElement.getSupertype());
+          for (Object type : classElement.getInterfaces()) {
+            builder.append(" implements ");
+            builder.append(type);
+          }
+          if (classElement.isAbstract()) {
+            builder.append(" abstract");
+          }
+        } else if (element instanceof ExecutableElement) {
+          ExecutableElement executable = (ExecutableElement) element;
+          builder.append(' ');
+          builder.append(executable.getType());
+          if (executable.isStatic()) {
+            builder.append(" static");
+          }
+        } else if (element instanceof VariableElement) {
+          VariableElement variable = (VariableElement) element;
+          builder.append(' ');
+          builder.append(variable.getType());
+          if (variable.isConst()) {
+            builder.append(" const");
+          }
+          if (variable.isFinal()) {
+            builder.append(" final");
+          }
+          if (element instanceof ParameterElement) {
+            builder.append(' ');
+            builder.append(((ParameterElement) element).getParameterKind());
+          }
+          EvaluationResultImpl result = ((VariableElementImpl) element).getEvaluationResult();
+          if (result != null) {
+            builder.append(" = ");
+            builder.append(result.getValue());
+          }
+        }
+        lines.add(builder.toString());
+        return super.visitElement(element);
+      }
+    });
+    return lines;
+  }
+
+  /**
+   * Return the constant value of the given variable.
+   * 
+   * @param variable the variable whose value is to be returned
+   * @return the constant value of the variable
+   */
+  private DartObjectImpl getValue(VariableElement variable) {
+    EvaluationResultImpl result = ((VariableElementImpl) variable).getEvaluationResult();
+    assertNotNull(result);
+    return result.getValue();
+  }
+
+  /**
+   * Read the libraries from the given summary into the context of the given SDK.
+   * 
+   * @param sdk the SDK whose libraries were summarized
+   * @param summary the bytes of the summary
+   * @param sdkVersion the version of the SDK expected by the reader
+   * @return a table mapping library sources to the libraries that were read
+   */
+  private HashMap<Source, LibraryElement> read(DirectoryBasedDartSdk sdk, byte[] summary,
+      String sdkVersion) throws Exception {
+    SdkSummaryReader reader = new SdkSummaryReader(sdk.getContext(), new ByteArrayInputStream(
+        summary));
+    return reader.read(sdkVersion);
+  }
+
+  /**
+   * Return the resolved element model of the library in the given SDK with the given URI.
+   * 
+   * @param sdk the SDK containing the library
+   * @param uri the URI of the library to be resolved
+   * @return the element model of the library
+   */
+  private LibraryElement resolve(DirectoryBasedDartSdk sdk, String uri) throws Exception {
+    LibraryElement library = sdk.getContext().computeLibraryElement(sdk.mapDartUri(uri));
+    assertNotNull(library);
+    return library;
+  }
+
+  /**
+   * Return a summary of the given library, and of the libraries it depends on, written for SDK
+   * version "1.0".
+   * 
+   * @param sdk the SDK containing the library
+   * @param library the library to be summarized
+   * @return the bytes of the summary
+   */
+  private byte[] write(DirectoryBasedDartSdk sdk, LibraryElement library) throws Exception {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    new SdkSummaryWriter(stream).write(sdk.getContext(), "1.0", new LibraryElement[] {library});
+    return stream.toByteArray();
+  }
+
+  /**
+   * Write the given contents to the file with the given path relative to the SDK directory.
+   * 
+   * @param path the path of the file to be written
+   * @param contents the contents to be written to the file
+   */
+  private void writeFile(String path, String contents) throws IOException {
+    File file = new File(sdkDirectory, path);
+    file.getParentFile().mkdirs();
+    Files.write(contents, file, Charsets.UTF_8);
+  }
+}
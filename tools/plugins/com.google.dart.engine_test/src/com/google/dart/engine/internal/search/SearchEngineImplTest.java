@@ -57,6 +57,7 @@ import com.google.dart.engine.internal.index.operation.OperationQueue;
 import com.google.dart.engine.internal.search.scope.LibrarySearchScope;
 import com.google.dart.engine.search.MatchKind;
 import com.google.dart.engine.search.MatchQuality;
+import com.google.dart.engine.search.SearchBatchListener;
 import com.google.dart.engine.search.SearchEngine;
 import com.google.dart.engine.search.SearchEngineFactory;
 import com.google.dart.engine.search.SearchFilter;
@@ -68,6 +69,7 @@ import com.google.dart.engine.search.SearchScope;
 import com.google.dart.engine.search.SearchScopeFactory;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.type.Type;
+import com.google.dart.engine.utilities.general.CancellationToken;
 import com.google.dart.engine.utilities.source.SourceRange;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -777,6 +779,57 @@ public class SearchEngineImplTest extends EngineTestCase {
         new ExpectedMatch(elementD, MatchKind.METHOD_REFERENCE, 4, 40, true));
   }
 
+  public void test_searchReferences_MethodElement_batches_cancelled() throws Exception {
+    MethodElement referencedElement = mockElement(MethodElement.class, ElementKind.METHOD);
+    {
+      Location location = new Location(elementA, 1, 10);
+      indexStore.recordRelationship(
+          referencedElement,
+          IndexConstants.IS_INVOKED_BY_UNQUALIFIED,
+          location);
+    }
+    indexStore.doneIndex();
+    // search matches
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    List<SearchMatch> matches = searchReferencesBatches(referencedElement, 0, token);
+    // verify
+    assertThat(matches).isEmpty();
+  }
+
+  public void test_searchReferences_MethodElement_batches_limit() throws Exception {
+    MethodElement referencedElement = mockElement(MethodElement.class, ElementKind.METHOD);
+    {
+      Location location = new Location(elementA, 1, 10);
+      indexStore.recordRelationship(
+          referencedElement,
+          IndexConstants.IS_INVOKED_BY_UNQUALIFIED,
+          location);
+    }
+    {
+      Location location = new Location(elementB, 2, 20);
+      indexStore.recordRelationship(
+          referencedElement,
+          IndexConstants.IS_INVOKED_BY_UNQUALIFIED,
+          location);
+    }
+    {
+      Location location = new Location(elementC, 3, 30);
+      indexStore.recordRelationship(
+          referencedElement,
+          IndexConstants.IS_INVOKED_BY_UNQUALIFIED,
+          location);
+    }
+    indexStore.doneIndex();
+    // search matches
+    CancellationToken token = new CancellationToken();
+    List<SearchMatch> matches = searchReferencesBatches(referencedElement, 2, token);
+    // verify
+    assertThat(matches).hasSize(2);
+    // the token of the client is not cancelled
+    assertFalse(token.isCancelled());
+  }
+
   public void test_searchReferences_MethodMember() throws Exception {
     MethodElement referencedElement = mockElement(MethodElement.class, ElementKind.METHOD);
     {
@@ -1341,6 +1394,31 @@ public class SearchEngineImplTest extends EngineTestCase {
     return searchDeclarationsSync("searchFunctionDeclarations");
   }
 
+  private List<SearchMatch> searchReferencesBatches(final Element element, final int limit,
+      final CancellationToken token) throws Exception {
+    return runSearch(new SearchRunner<List<SearchMatch>>() {
+      @Override
+      public List<SearchMatch> run(OperationQueue queue, OperationProcessor processor, Index index,
+          SearchEngine engine) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<SearchMatch> matches = Lists.newArrayList();
+        engine.searchReferences(element, scope, filter, limit, token, new SearchBatchListener() {
+          @Override
+          public void matchesFound(List<SearchMatch> batch) {
+            matches.addAll(batch);
+          }
+
+          @Override
+          public void searchComplete() {
+            latch.countDown();
+          }
+        });
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        return matches;
+      }
+    });
+  }
+
   private List<SearchMatch> searchReferencesSync(Class<?> clazz, Object element) throws Exception {
     return searchReferencesSync("searchReferences", clazz, element);
   }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.search.listener;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.search.SearchBatchListener;
+import com.google.dart.engine.search.SearchListener;
+import com.google.dart.engine.search.SearchMatch;
+import com.google.dart.engine.utilities.general.CancellationToken;
+
+import org.mockito.InOrder;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.List;
+
+public class BatchingSearchListenerTest extends EngineTestCase {
+  private final CancellationToken token = new CancellationToken();
+  private final SearchBatchListener listener = mock(SearchBatchListener.class);
+
+  public void test_matchFound_batches() throws Exception {
+    SearchListener batchingListener = new BatchingSearchListener(0, token, listener);
+    List<SearchMatch> matches = newMatches(BatchingSearchListener.BATCH_SIZE + 1);
+    for (SearchMatch match : matches) {
+      batchingListener.matchFound(match);
+    }
+    batchingListener.searchComplete();
+    // one full batch, then the rest and completion
+    InOrder inOrder = inOrder(listener);
+    inOrder.verify(listener).matchesFound(matches.subList(0, BatchingSearchListener.BATCH_SIZE));
+    inOrder.verify(listener).matchesFound(
+        ImmutableList.of(matches.get(BatchingSearchListener.BATCH_SIZE)));
+    inOrder.verify(listener).searchComplete();
+    verifyNoMoreInteractions(listener);
+    assertFalse(token.isCancelled());
+  }
+
+  public void test_getToken() throws Exception {
+    BatchingSearchListener batchingListener = new BatchingSearchListener(0, token, listener);
+    CancellationToken searchToken = batchingListener.getToken();
+    assertNotSame(token, searchToken);
+    assertFalse(searchToken.isCancelled());
+    // cancelled with the token of the client
+    token.cancel();
+    assertTrue(searchToken.isCancelled());
+  }
+
+  public void test_matchFound_cancelled() throws Exception {
+    SearchListener batchingListener = new BatchingSearchListener(0, token, listener);
+    List<SearchMatch> matches = newMatches(2);
+    batchingListener.matchFound(matches.get(0));
+    token.cancel();
+    batchingListener.matchFound(matches.get(1));
+    batchingListener.searchComplete();
+    // no matches after cancellation, but the search is complete
+    verify(listener).searchComplete();
+    verifyNoMoreInteractions(listener);
+  }
+
+  public void test_matchFound_limit() throws Exception {
+    BatchingSearchListener batchingListener = new BatchingSearchListener(2, token, listener);
+    List<SearchMatch> matches = newMatches(3);
+    for (SearchMatch match : matches) {
+      batchingListener.matchFound(match);
+    }
+    // the limit is reached, so the search is cancelled, but not the token of the client
+    assertTrue(batchingListener.getToken().isCancelled());
+    assertFalse(token.isCancelled());
+    batchingListener.searchComplete();
+    InOrder inOrder = inOrder(listener);
+    inOrder.verify(listener).matchesFound(matches.subList(0, 2));
+    inOrder.verify(listener).searchComplete();
+    verifyNoMoreInteractions(listener);
+  }
+
+  public void test_searchComplete_noMatches() throws Exception {
+    SearchListener batchingListener = new BatchingSearchListener(0, token, listener);
+    batchingListener.searchComplete();
+    verify(listener).searchComplete();
+    verifyNoMoreInteractions(listener);
+  }
+
+  private List<SearchMatch> newMatches(int count) {
+    List<SearchMatch> matches = Lists.newArrayList();
+    for (int i = 0; i < count; i++) {
+      matches.add(mock(SearchMatch.class));
+    }
+    return matches;
+  }
+}
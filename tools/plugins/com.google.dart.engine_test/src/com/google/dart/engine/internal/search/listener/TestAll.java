@@ -21,6 +21,7 @@ import junit.framework.TestSuite;
 public class TestAll {
   public static Test suite() {
     TestSuite suite = new ExtendedTestSuite("Tests in " + TestAll.class.getPackage().getName());
+    suite.addTestSuite(BatchingSearchListenerTest.class);
     suite.addTestSuite(CountingSearchListenerTest.class);
     suite.addTestSuite(FilterSearchListenerTest.class);
     suite.addTestSuite(GatheringSearchListenerTest.class);
@@ -30,7 +30,7 @@ import static com.google.dart.engine.utilities.io.FileUtilities2.createFile;
 
 public class GenerateDartErrorsTaskTest extends EngineTestCase {
   public void test_accept() throws AnalysisException {
-    GenerateDartErrorsTask task = new GenerateDartErrorsTask(null, null, 0L, null, null);
+    GenerateDartErrorsTask task = new GenerateDartErrorsTask(null, null, 0L, null, null, true);
     assertTrue(task.accept(new TestTaskVisitor<Boolean>() {
       @Override
       public Boolean visitGenerateDartErrorsTask(GenerateDartErrorsTask task)
@@ -41,20 +41,26 @@ public class GenerateDartErrorsTaskTest extends EngineTestCase {
   }
 
   public void test_getException() {
-    GenerateDartErrorsTask task = new GenerateDartErrorsTask(null, null, 0L, null, null);
+    GenerateDartErrorsTask task = new GenerateDartErrorsTask(null, null, 0L, null, null, true);
     assertNull(task.getException());
   }
 
   public void test_getLibraryElement() {
     InternalAnalysisContext context = AnalysisContextFactory.contextWithCore();
     LibraryElement element = library(context, "lib");
-    GenerateDartErrorsTask task = new GenerateDartErrorsTask(context, null, 0L, null, element);
+    GenerateDartErrorsTask task = new GenerateDartErrorsTask(
+        context,
+        null,
+        0L,
+        null,
+        element,
+        true);
     assertSame(element, task.getLibraryElement());
   }
 
   public void test_getSource() {
     Source source = new FileBasedSource(createFile("/test.dart"));
-    GenerateDartErrorsTask task = new GenerateDartErrorsTask(null, source, 0L, null, null);
+    GenerateDartErrorsTask task = new GenerateDartErrorsTask(null, source, 0L, null, null, true);
     assertSame(source, task.getSource());
   }
 
@@ -77,7 +83,8 @@ public class GenerateDartErrorsTaskTest extends EngineTestCase {
         source,
         context.getModificationStamp(source),
         unit,
-        libraryElement);
+        libraryElement,
+        true);
     task.perform(new TestTaskVisitor<Boolean>() {
       @Override
       public Boolean visitGenerateDartErrorsTask(GenerateDartErrorsTask task)
@@ -115,7 +122,8 @@ public class GenerateDartErrorsTaskTest extends EngineTestCase {
         source,
         context.getModificationStamp(source),
         unit,
-        libraryElement);
+        libraryElement,
+        true);
     task.perform(new TestTaskVisitor<Boolean>() {
       @Override
       public Boolean visitGenerateDartErrorsTask(GenerateDartErrorsTask task)
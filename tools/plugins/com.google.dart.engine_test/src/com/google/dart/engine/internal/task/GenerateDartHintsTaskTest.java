@@ -32,7 +32,7 @@ import java.util.HashMap;
 
 public class GenerateDartHintsTaskTest extends EngineTestCase {
   public void test_accept() throws AnalysisException {
-    GenerateDartHintsTask task = new GenerateDartHintsTask(null, null, null);
+    GenerateDartHintsTask task = new GenerateDartHintsTask(null, null, null, true);
     assertTrue(task.accept(new TestTaskVisitor<Boolean>() {
       @Override
       public Boolean visitGenerateDartHintsTask(GenerateDartHintsTask task)
@@ -43,19 +43,19 @@ public class GenerateDartHintsTaskTest extends EngineTestCase {
   }
 
   public void test_getException() {
-    GenerateDartHintsTask task = new GenerateDartHintsTask(null, null, null);
+    GenerateDartHintsTask task = new GenerateDartHintsTask(null, null, null, true);
     assertNull(task.getException());
   }
 
   public void test_getHintMap() {
-    GenerateDartHintsTask task = new GenerateDartHintsTask(null, null, null);
+    GenerateDartHintsTask task = new GenerateDartHintsTask(null, null, null, true);
     assertNull(task.getHintMap());
   }
 
   public void test_getLibraryElement() {
     InternalAnalysisContext context = AnalysisContextFactory.contextWithCore();
     LibraryElement element = library(context, "lib");
-    GenerateDartHintsTask task = new GenerateDartHintsTask(context, null, element);
+    GenerateDartHintsTask task = new GenerateDartHintsTask(context, null, element, true);
     assertSame(element, task.getLibraryElement());
   }
 
@@ -79,8 +79,7 @@ public class GenerateDartHintsTaskTest extends EngineTestCase {
     context.setContents(partSource, createSource(//
         "part of lib;"));
 
-    @SuppressWarnings("unchecked")
-    TimestampedData<CompilationUnit>[] units = new TimestampedData[2];
+    TimestampedData<CompilationUnit>[] units = TimestampedData.newArray(2);
     units[0] = new TimestampedData<CompilationUnit>(
         context.getModificationStamp(librarySource),
         context.resolveCompilationUnit(librarySource, librarySource));
@@ -90,7 +89,8 @@ public class GenerateDartHintsTaskTest extends EngineTestCase {
     GenerateDartHintsTask task = new GenerateDartHintsTask(
         context,
         units,
-        context.computeLibraryElement(librarySource));
+        context.computeLibraryElement(librarySource),
+        true);
     task.perform(new TestTaskVisitor<Boolean>() {
       @Override
       public Boolean visitGenerateDartHintsTask(GenerateDartHintsTask task)
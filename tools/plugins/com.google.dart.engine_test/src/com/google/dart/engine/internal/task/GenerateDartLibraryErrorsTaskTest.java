@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.internal.task;
+
+import com.google.dart.engine.EngineTestCase;
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.context.AnalysisContextFactory;
+import com.google.dart.engine.context.AnalysisException;
+import com.google.dart.engine.context.ChangeSet;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.context.TimestampedData;
+import com.google.dart.engine.source.FileBasedSource;
+import com.google.dart.engine.source.Source;
+
+import static com.google.dart.engine.element.ElementFactory.library;
+import static com.google.dart.engine.utilities.io.FileUtilities2.createFile;
+
+public class GenerateDartLibraryErrorsTaskTest extends EngineTestCase {
+  public void test_accept() throws AnalysisException {
+    GenerateDartLibraryErrorsTask task = new GenerateDartLibraryErrorsTask(
+        null,
+        null,
+        null,
+        true,
+        true);
+    assertTrue(task.accept(new TestTaskVisitor<Boolean>() {
+      @Override
+      public Boolean visitGenerateDartLibraryErrorsTask(GenerateDartLibraryErrorsTask task)
+          throws AnalysisException {
+        return true;
+      }
+    }));
+  }
+
+  public void test_getErrors() {
+    Source source = new FileBasedSource(createFile("/test.dart"));
+    GenerateDartLibraryErrorsTask task = new GenerateDartLibraryErrorsTask(
+        null,
+        null,
+        null,
+        true,
+        true);
+    assertNull(task.getErrors(source));
+    assertNull(task.getHints(source));
+  }
+
+  public void test_getException() {
+    GenerateDartLibraryErrorsTask task = new GenerateDartLibraryErrorsTask(
+        null,
+        null,
+        null,
+        true,
+        true);
+    assertNull(task.getException());
+  }
+
+  public void test_getLibraryElement() {
+    InternalAnalysisContext context = AnalysisContextFactory.contextWithCore();
+    LibraryElement element = library(context, "lib");
+    GenerateDartLibraryErrorsTask task = new GenerateDartLibraryErrorsTask(
+        context,
+        null,
+        element,
+        true,
+        false);
+    assertSame(element, task.getLibraryElement());
+    assertFalse(task.getGenerateHints());
+  }
+
+  public void test_perform() throws AnalysisException {
+    InternalAnalysisContext context = AnalysisContextFactory.contextWithCore();
+    ChangeSet changeSet = new ChangeSet();
+    final Source librarySource = new FileBasedSource(createFile("/test.dart"));
+    changeSet.addedSource(librarySource);
+    Source unusedSource = new FileBasedSource(createFile("/unused.dart"));
+    changeSet.addedSource(unusedSource);
+    final Source partSource = new FileBasedSource(createFile("/part.dart"));
+    changeSet.addedSource(partSource);
+    context.applyChanges(changeSet);
+
+    context.setContents(librarySource, createSource(//
+        "library lib;",
+        "import 'unused.dart';",
+        "part 'part.dart';"));
+    context.setContents(unusedSource, createSource(//
+        "library unused;"));
+    context.setContents(partSource, createSource(//
+        "part of lib;",
+        "class A {",
+        "  int f = new A();",
+        "}"));
+
+    TimestampedData<CompilationUnit>[] units = TimestampedData.newArray(2);
+    units[0] = new TimestampedData<CompilationUnit>(
+        context.getModificationStamp(librarySource),
+        context.resolveCompilationUnit(librarySource, librarySource));
+    units[1] = new TimestampedData<CompilationUnit>(
+        context.getModificationStamp(partSource),
+        context.resolveCompilationUnit(partSource, librarySource));
+    GenerateDartLibraryErrorsTask task = new GenerateDartLibraryErrorsTask(
+        context,
+        units,
+        context.computeLibraryElement(librarySource),
+        true,
+        true);
+    task.perform(new TestTaskVisitor<Boolean>() {
+      @Override
+      public Boolean visitGenerateDartLibraryErrorsTask(GenerateDartLibraryErrorsTask task)
+          throws AnalysisException {
+        AnalysisException exception = task.getException();
+        if (exception != null) {
+          throw exception;
+        }
+        assertLength(0, task.getErrors(librarySource));
+        assertLength(1, task.getErrors(partSource));
+        assertLength(1, task.getHints(librarySource));
+        assertLength(0, task.getHints(partSource));
+        return true;
+      }
+    });
+  }
+}
@@ -30,6 +30,7 @@ import com.google.dart.engine.internal.context.IncrementalAnalysisCache;
 import com.google.dart.engine.internal.context.InternalAnalysisContext;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.source.TestSource;
+import com.google.dart.engine.utilities.ast.ResolvedAstComparator;
 
 import static com.google.dart.engine.internal.context.IncrementalAnalysisCache.update;
 
@@ -72,6 +73,19 @@ public class IncrementalAnalysisTaskTest extends EngineTestCase {
     assertNotNull(fooName.getStaticElement()); // assert element reference is preserved
   }
 
+  public void test_perform_matchesFullResolution() throws Exception {
+    // main() {} String foo;
+    // main() {String} String foo;
+    CompilationUnit newUnit = assertTask("main() {", "", "String", "} String foo;");
+
+    InternalAnalysisContext context = AnalysisContextFactory.contextWithCore();
+    Source source = new TestSource(
+        new File("/test.dart"),
+        createSource("main() {String} String foo;"));
+    CompilationUnit fullUnit = context.resolveCompilationUnit(source, source);
+    assertTrue(ResolvedAstComparator.equalResolvedNodes(newUnit, fullUnit));
+  }
+
   private CompilationUnit assertTask(String prefix, String removed, String added, String suffix)
       throws AnalysisException {
     String oldCode = createSource(prefix + removed + suffix);
@@ -24,6 +24,7 @@ public class TestAll {
     suite.addTestSuite(AnalysisTaskTest.class);
     suite.addTestSuite(GenerateDartErrorsTaskTest.class);
     suite.addTestSuite(GenerateDartHintsTaskTest.class);
+    suite.addTestSuite(GenerateDartLibraryErrorsTaskTest.class);
     suite.addTestSuite(GetContentTaskTest.class);
     suite.addTestSuite(IncrementalAnalysisTaskTest.class);
     suite.addTestSuite(ParseDartTaskTest.class);
@@ -35,6 +35,13 @@ public class TestTaskVisitor<E> implements AnalysisTaskVisitor<E> {
     return null;
   }
 
+  @Override
+  public E visitGenerateDartLibraryErrorsTask(GenerateDartLibraryErrorsTask task)
+      throws AnalysisException {
+    Assert.fail("Unexpectedly invoked visitGenerateDartLibraryErrorsTask");
+    return null;
+  }
+
   @Override
   public E visitGetContentTask(GetContentTask task) throws AnalysisException {
     Assert.fail("Unexpectedly invoked visitGetContentsTask");
@@ -19,6 +19,8 @@ import com.google.dart.engine.element.CompilationUnitElement;
 import com.google.dart.engine.element.ElementFactory;
 import com.google.dart.engine.element.MethodElement;
 import com.google.dart.engine.element.PropertyAccessorElement;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
+import com.google.dart.engine.internal.context.SdkAnalysisContext;
 import com.google.dart.engine.internal.element.ClassElementImpl;
 import com.google.dart.engine.internal.element.CompilationUnitElementImpl;
 import com.google.dart.engine.internal.element.FunctionElementImpl;
@@ -1206,6 +1208,99 @@ public class InterfaceTypeImplTest extends EngineTestCase {
     assertFalse(typeA.isSubtypeOf(typeC));
   }
 
+  public void test_isSubtypeOf_memoized() {
+    ClassElement classA = classElement("A");
+    ClassElement classB = classElement("B", classA.getType());
+    AnalysisContextImpl context = createAnalysisContext();
+    addToLibrary(context, classA, classB);
+    InterfaceType typeA = classA.getType();
+    InterfaceType typeB = classB.getType();
+    assertTrue(typeB.isSubtypeOf(typeA));
+    TypeRelationCache cache = context.getTypeRelationCache();
+    int hitCount = cache.getHitCount();
+    assertTrue(typeB.isSubtypeOf(typeA));
+    assertEquals(hitCount + 1, cache.getHitCount());
+  }
+
+  public void test_isSubtypeOf_memoized_elementModelChanged() {
+    ClassElement classA = classElement("A");
+    ClassElementImpl classB = classElement("B");
+    addToLibrary(createAnalysisContext(), classA, classB);
+    InterfaceType typeA = classA.getType();
+    InterfaceType typeB = classB.getType();
+    assertFalse(typeB.isSubtypeOf(typeA));
+    classB.setSupertype(typeA);
+    assertTrue(typeB.isSubtypeOf(typeA));
+  }
+
+  public void test_isSubtypeOf_memoized_elementModelChangedInOtherContext() {
+    ClassElement classA = classElement("A");
+    ClassElement classB = classElement("B", classA.getType());
+    AnalysisContextImpl context = createAnalysisContext();
+    addToLibrary(context, classA, classB);
+    InterfaceType typeA = classA.getType();
+    InterfaceType typeB = classB.getType();
+    assertTrue(typeB.isSubtypeOf(typeA));
+    // changing the element model of another context must not clear the answers of this one
+    ClassElementImpl classC = classElement("C");
+    addToLibrary(createAnalysisContext(), classC);
+    classC.setSupertype(typeA);
+    TypeRelationCache cache = context.getTypeRelationCache();
+    int hitCount = cache.getHitCount();
+    assertTrue(typeB.isSubtypeOf(typeA));
+    assertEquals(hitCount + 1, cache.getHitCount());
+  }
+
+  public void test_isSubtypeOf_memoized_otherContexts() {
+    ClassElement classA = classElement("A");
+    AnalysisContextImpl firstContext = createAnalysisContext();
+    addToLibrary(firstContext, classA);
+    ClassElement classB = classElement("B", classA.getType());
+    AnalysisContextImpl secondContext = createAnalysisContext();
+    addToLibrary(secondContext, classB);
+    InterfaceType typeA = classA.getType();
+    InterfaceType typeB = classB.getType();
+    assertTrue(typeB.isSubtypeOf(typeA));
+    assertTrue(typeB.isSubtypeOf(typeA));
+    assertEquals(0, firstContext.getTypeRelationCache().getHitCount());
+    assertEquals(0, secondContext.getTypeRelationCache().getHitCount());
+  }
+
+  public void test_isSubtypeOf_memoized_sameLocationInOtherContext() {
+    //
+    // Both contexts have a library named "lib" declaring classes A and B, so the types in them are
+    // equal, but B only extends A in the first one.
+    //
+    ClassElement classA1 = classElement("A");
+    ClassElement classB1 = classElement("B", classA1.getType());
+    addToLibrary(createAnalysisContext(), classA1, classB1);
+    ClassElement classA2 = classElement("A");
+    ClassElement classB2 = classElement("B");
+    addToLibrary(createAnalysisContext(), classA2, classB2);
+    assertTrue(classB1.getType().isSubtypeOf(classA1.getType()));
+    assertFalse(classB2.getType().isSubtypeOf(classA2.getType()));
+  }
+
+  public void test_isSubtypeOf_memoized_sdkTypeWithTypeArguments() {
+    ClassElementImpl classList = classElement("List", "E");
+    SdkAnalysisContext sdkContext = new SdkAnalysisContext();
+    addToLibrary(sdkContext, classList);
+    ClassElement classA = classElement("A");
+    ClassElement classB = classElement("B", classA.getType());
+    AnalysisContextImpl context = createAnalysisContext();
+    addToLibrary(context, classA, classB);
+    InterfaceType listA = classList.getType().substitute(new Type[] {classA.getType()});
+    InterfaceType listB = classList.getType().substitute(new Type[] {classB.getType()});
+    assertTrue(listB.isSubtypeOf(listA));
+    TypeRelationCache cache = context.getTypeRelationCache();
+    int hitCount = cache.getHitCount();
+    assertTrue(listB.isSubtypeOf(listA));
+    assertEquals(hitCount + 1, cache.getHitCount());
+    // the answer depends on the classes of the user's context, so the SDK must not memoize it
+    assertEquals(0, sdkContext.getTypeRelationCache().getHitCount());
+    assertEquals(0, sdkContext.getTypeRelationCache().getMissCount());
+  }
+
   public void test_isSubtypeOf_mixins() {
     //
     // class A {}
@@ -1690,4 +1785,16 @@ public class InterfaceTypeImplTest extends EngineTestCase {
     assertLength(1, resultArguments);
     assertEquals(parameter, resultArguments[0]);
   }
+
+  /**
+   * Add the given classes to the defining compilation unit of a newly created library in the given
+   * context, so that the relationships between their types are memoized by that context.
+   * 
+   * @param context the context that is to own the classes
+   * @param classes the classes to be added to the library
+   */
+  private void addToLibrary(AnalysisContextImpl context, ClassElement... classes) {
+    LibraryElementImpl library = library(context, "lib");
+    ((CompilationUnitElementImpl) library.getDefiningCompilationUnit()).setTypes(classes);
+  }
 }
@@ -23,6 +23,13 @@ public class CharSequenceReaderTest extends TestCase {
     assertEquals(-1, reader.advance());
   }
 
+  public void test_charAt() {
+    CharSequenceReader reader = new CharSequenceReader("xyz");
+    reader.advance();
+    assertEquals('y', reader.charAt(1));
+    assertEquals(0, reader.getOffset());
+  }
+
   public void test_creation() {
     assertNotNull(new CharSequenceReader("x"));
   }
@@ -221,6 +221,19 @@ public class ScannerTest extends TestCase {
     assertToken(TokenType.IDENTIFIER, "result");
   }
 
+  public void test_identifier_interned() throws Exception {
+    Token first = scan("abc _Abc abc _Abc inx");
+    Token second = first.getNext();
+    Token third = second.getNext();
+    Token fourth = third.getNext();
+    assertEquals("abc", third.getLexeme());
+    assertSame(first.getLexeme(), third.getLexeme());
+    assertEquals("_Abc", fourth.getLexeme());
+    assertSame(second.getLexeme(), fourth.getLexeme());
+    assertEquals("inx", fourth.getNext().getLexeme());
+    assertSame(first.getLexeme(), scan("abc").getLexeme());
+  }
+
   public void test_illegalChar_cyrillicLetter_middle() throws Exception {
     assertError(ScannerErrorCode.ILLEGAL_CHARACTER, 5, "Shche\u0433lov");
   }
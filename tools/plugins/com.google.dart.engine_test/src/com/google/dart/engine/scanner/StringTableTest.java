@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.scanner;
+
+import junit.framework.TestCase;
+
+public class StringTableTest extends TestCase {
+  public void test_intern_different() {
+    StringTable table = new StringTable();
+    CharSequenceReader reader = new CharSequenceReader("abc abd");
+    reader.setOffset(2);
+    String first = table.intern(reader, 0, 0, "abc".hashCode());
+    reader.setOffset(6);
+    String second = table.intern(reader, 4, 0, "abd".hashCode());
+    assertEquals("abc", first);
+    assertEquals("abd", second);
+    assertEquals(2, table.size());
+  }
+
+  public void test_intern_endDelta() {
+    StringTable table = new StringTable();
+    CharSequenceReader reader = new CharSequenceReader("abc+");
+    reader.setOffset(3);
+    assertEquals("abc", table.intern(reader, 0, -1, "abc".hashCode()));
+  }
+
+  public void test_intern_sameHash() {
+    // "Aa" and "BB" have the same hash code
+    StringTable table = new StringTable();
+    CharSequenceReader reader = new CharSequenceReader("Aa BB");
+    reader.setOffset(1);
+    String first = table.intern(reader, 0, 0, "Aa".hashCode());
+    reader.setOffset(4);
+    String second = table.intern(reader, 3, 0, "BB".hashCode());
+    assertEquals("Aa", first);
+    assertEquals("BB", second);
+    reader.setOffset(1);
+    assertSame(first, table.intern(reader, 0, 0, "Aa".hashCode()));
+  }
+
+  public void test_intern_same() {
+    StringTable table = new StringTable();
+    CharSequenceReader reader = new CharSequenceReader("abc abc");
+    reader.setOffset(2);
+    String first = table.intern(reader, 0, 0, "abc".hashCode());
+    reader.setOffset(6);
+    assertSame(first, table.intern(reader, 4, 0, "abc".hashCode()));
+    assertEquals(1, table.size());
+  }
+
+  public void test_intern_subSequence() {
+    StringTable table = new StringTable();
+    SubSequenceReader reader = new SubSequenceReader("xyz", 10);
+    reader.setOffset(12);
+    assertEquals("yz", table.intern(reader, 11, 0, "yz".hashCode()));
+  }
+
+  public void test_rehash() {
+    StringTable table = new StringTable();
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      builder.append("name");
+      builder.append(i);
+      builder.append(' ');
+    }
+    String source = builder.toString();
+    CharSequenceReader reader = new CharSequenceReader(source);
+    String[] names = new String[1000];
+    int start = 0;
+    for (int i = 0; i < 1000; i++) {
+      int end = source.indexOf(' ', start);
+      reader.setOffset(end - 1);
+      names[i] = table.intern(reader, start, 0, source.substring(start, end).hashCode());
+      start = end + 1;
+    }
+    assertEquals(1000, table.size());
+    start = 0;
+    for (int i = 0; i < 1000; i++) {
+      int end = source.indexOf(' ', start);
+      reader.setOffset(end - 1);
+      assertSame(names[i], table.intern(reader, start, 0, names[i].hashCode()));
+      start = end + 1;
+    }
+    assertEquals(1000, table.size());
+  }
+}
@@ -25,6 +25,7 @@ public class TestAll {
     suite.addTestSuite(IncrementalScannerTest.class);
     suite.addTestSuite(KeywordStateTest.class);
     suite.addTestSuite(ScannerTest.class);
+    suite.addTestSuite(StringTableTest.class);
     suite.addTestSuite(TokenTypeTest.class);
     return suite;
   }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.timing;
+
+import com.google.dart.engine.context.ChangeSet;
+import com.google.dart.engine.internal.context.AnalysisContextImpl;
+import com.google.dart.engine.source.FileUriResolver;
+import com.google.dart.engine.source.Source;
+import com.google.dart.engine.source.SourceFactory;
+import com.google.dart.engine.source.TestSource;
+
+import junit.framework.TestCase;
+
+import static com.google.dart.engine.utilities.io.FileUtilities2.createFile;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * The class {@code ContextLockTimings} defines a test that measures how the throughput of cache
+ * operations (setting and reading contents, reading modification stamps and statistics) scales as
+ * more contexts are used concurrently, each from its own thread. When all of the contexts are
+ * synchronized on the same lock the total throughput does not grow with the number of contexts.
+ */
+public class ContextLockTimings extends TestCase {
+  /**
+   * The number of sources added to each context.
+   */
+  private static final int SOURCE_COUNT = 100;
+
+  /**
+   * The number of operations performed by each thread.
+   */
+  private static final int OPERATION_COUNT = 100000;
+
+  /**
+   * The largest number of contexts that will be used concurrently.
+   */
+  private static final int MAX_CONTEXT_COUNT = 16;
+
+  public void test_contention() throws Exception {
+    // Warm-up
+    measure(MAX_CONTEXT_COUNT);
+    // Measured
+    for (int contextCount = 1; contextCount <= MAX_CONTEXT_COUNT; contextCount *= 2) {
+      long time = measure(contextCount);
+      long operations = (long) OPERATION_COUNT * contextCount;
+      System.out.println(contextCount + " contexts: " + operations + " operations in " + time
+          + " ms (" + (operations / Math.max(time, 1L)) + " operations/ms)");
+    }
+  }
+
+  /**
+   * Create a context containing {@link #SOURCE_COUNT} sources.
+   * 
+   * @param index the index of the context, used to make the source names unique
+   * @return the context that was created
+   */
+  private AnalysisContextImpl createContext(int index) {
+    AnalysisContextImpl context = new AnalysisContextImpl();
+    context.setSourceFactory(new SourceFactory(new FileUriResolver()));
+    ChangeSet changeSet = new ChangeSet();
+    for (int i = 0; i < SOURCE_COUNT; i++) {
+      changeSet.addedSource(createSource(index, i));
+    }
+    context.applyChanges(changeSet);
+    return context;
+  }
+
+  /**
+   * Return the source with the given indices.
+   * 
+   * @param contextIndex the index of the context containing the source
+   * @param sourceIndex the index of the source within the context
+   * @return the source with the given indices
+   */
+  private Source createSource(int contextIndex, int sourceIndex) {
+    return new TestSource(
+        createFile("/context" + contextIndex + "/test" + sourceIndex + ".dart"),
+        "");
+  }
+
+  /**
+   * Return the number of milliseconds required for the given number of threads to each perform
+   * {@link #OPERATION_COUNT} operations against their own context.
+   * 
+   * @param contextCount the number of contexts (and threads) to use
+   * @return the number of milliseconds taken by the slowest thread
+   */
+  private long measure(int contextCount) throws InterruptedException {
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    final CountDownLatch endLatch = new CountDownLatch(contextCount);
+    for (int i = 0; i < contextCount; i++) {
+      final AnalysisContextImpl context = createContext(i);
+      final Source[] sources = new Source[SOURCE_COUNT];
+      for (int j = 0; j < SOURCE_COUNT; j++) {
+        sources[j] = createSource(i, j);
+      }
+      new Thread() {
+        @Override
+        public void run() {
+          try {
+            startLatch.await();
+            for (int j = 0; j < OPERATION_COUNT; j++) {
+              Source source = sources[j % SOURCE_COUNT];
+              switch (j % 4) {
+                case 0:
+                  context.setContents(source, "library lib" + j + ";");
+                  break;
+                case 1:
+                  context.getContents(source);
+                  break;
+                case 2:
+                  context.getModificationStamp(source);
+                  break;
+                default:
+                  if (j % 1000 == 3) {
+                    context.getStatistics();
+                  } else {
+                    context.getKindOf(source);
+                  }
+                  break;
+              }
+            }
+          } catch (Exception exception) {
+            exception.printStackTrace();
+          } finally {
+            endLatch.countDown();
+          }
+        }
+      }.start();
+    }
+    long start = System.currentTimeMillis();
+    startLatch.countDown();
+    endLatch.await();
+    return System.currentTimeMillis() - start;
+  }
+}
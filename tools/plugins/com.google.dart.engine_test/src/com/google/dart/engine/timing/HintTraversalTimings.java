@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.timing;
+
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.visitor.ComponentAstVisitor;
+import com.google.dart.engine.ast.visitor.CompositeAstVisitor;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.error.AnalysisErrorListener;
+import com.google.dart.engine.internal.error.ErrorReporter;
+import com.google.dart.engine.internal.hint.BestPracticesVerifier;
+import com.google.dart.engine.internal.hint.Dart2JSVerifier;
+import com.google.dart.engine.internal.hint.DeadCodeVerifier;
+import com.google.dart.engine.internal.hint.ImportsVerifier;
+import com.google.dart.engine.internal.hint.OverrideVerifier;
+import com.google.dart.engine.internal.resolver.InheritanceManager;
+import com.google.dart.engine.sdk.DirectoryBasedDartSdk;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+
+/**
+ * The class {@code HintTraversalTimings} defines a test that measures the time required to run the
+ * hint verifiers over the resolved compilation units of {@code dart:html}, first with a separate
+ * traversal of each unit for each verifier, as the {@code HintGenerator} used to do, and then with
+ * a single traversal of each unit by a {@link CompositeAstVisitor} that passes every node to all of
+ * the verifiers.
+ */
+public class HintTraversalTimings extends TestCase {
+  /**
+   * The number of times the verifiers are run over the units for each measurement.
+   */
+  private static final int ITERATION_COUNT = 20;
+
+  public void test_generateHints() throws Exception {
+    DirectoryBasedDartSdk sdk = new DirectoryBasedDartSdk(
+        DirectoryBasedDartSdk.getDefaultSdkDirectory());
+    AnalysisContext context = sdk.getContext();
+    LibraryElement library = context.computeLibraryElement(sdk.mapDartUri("dart:html"));
+    ArrayList<CompilationUnit> units = new ArrayList<CompilationUnit>();
+    addUnit(units, context, library, library.getDefiningCompilationUnit());
+    for (CompilationUnitElement part : library.getParts()) {
+      addUnit(units, context, library, part);
+    }
+    // Warm-up
+    measure(library, units, false);
+    measure(library, units, true);
+    // Measured
+    long separateTime = measure(library, units, false);
+    long fusedTime = measure(library, units, true);
+    System.out.println("Generated hints for " + units.size() + " units " + ITERATION_COUNT
+        + " times in " + separateTime + " ms with separate traversals and " + fusedTime
+        + " ms with a single traversal");
+  }
+
+  /**
+   * Add the resolved compilation unit associated with the given element to the given list.
+   * 
+   * @param units the list to which the unit is to be added
+   * @param context the context in which the library was resolved
+   * @param library the library containing the unit
+   * @param element the element associated with the unit
+   */
+  private void addUnit(ArrayList<CompilationUnit> units, AnalysisContext context,
+      LibraryElement library, CompilationUnitElement element) throws Exception {
+    CompilationUnit unit = context.resolveCompilationUnit(element.getSource(), library);
+    if (unit != null) {
+      units.add(unit);
+    }
+  }
+
+  /**
+   * Return the verifiers that generate hints for the given compilation unit.
+   * 
+   * @param library the library containing the unit
+   * @param manager the inheritance manager used to find overridden methods
+   * @param unit the unit for which hints are to be generated
+   * @return the verifiers that generate hints for the unit
+   */
+  private ComponentAstVisitor[] createVerifiers(LibraryElement library,
+      InheritanceManager manager, CompilationUnit unit) {
+    ErrorReporter errorReporter = new ErrorReporter(
+        AnalysisErrorListener.NULL_LISTENER,
+        unit.getElement().getSource());
+    return new ComponentAstVisitor[] {
+        new ImportsVerifier(library), new DeadCodeVerifier(errorReporter),
+        new Dart2JSVerifier(errorReporter), new BestPracticesVerifier(errorReporter),
+        new OverrideVerifier(manager, errorReporter)};
+  }
+
+  /**
+   * Return the number of milliseconds required to run the hint verifiers over the given units
+   * {@link #ITERATION_COUNT} times.
+   * 
+   * @param library the library containing the units
+   * @param units the units for which hints are to be generated
+   * @param fused {@code true} if all of the verifiers are to be run in a single traversal
+   * @return the number of milliseconds required to run the verifiers
+   */
+  private long measure(LibraryElement library, ArrayList<CompilationUnit> units, boolean fused) {
+    InheritanceManager manager = new InheritanceManager(library);
+    long startTime = System.nanoTime();
+    for (int i = 0; i < ITERATION_COUNT; i++) {
+      for (CompilationUnit unit : units) {
+        ComponentAstVisitor[] verifiers = createVerifiers(library, manager, unit);
+        if (fused) {
+          CompositeAstVisitor visitor = new CompositeAstVisitor();
+          for (ComponentAstVisitor verifier : verifiers) {
+            visitor.addComponent(verifier);
+          }
+          visitor.traverse(unit);
+        } else {
+          for (ComponentAstVisitor verifier : verifiers) {
+            CompositeAstVisitor visitor = new CompositeAstVisitor();
+            visitor.addComponent(verifier);
+            visitor.traverse(unit);
+          }
+        }
+      }
+    }
+    return (System.nanoTime() - startTime) / 1000000L;
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.timing;
+
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.Element;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.index.IndexStore;
+import com.google.dart.engine.index.Relationship;
+import com.google.dart.engine.internal.index.IndexConstants;
+import com.google.dart.engine.internal.index.IndexContributor;
+import com.google.dart.engine.internal.index.MemoryIndexStoreImpl;
+import com.google.dart.engine.internal.index.file.MemoryNodeManager;
+import com.google.dart.engine.internal.index.file.PackedIndexStoreImpl;
+import com.google.dart.engine.internal.index.file.SplitIndexStoreImpl;
+import com.google.dart.engine.sdk.DirectoryBasedDartSdk;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+/**
+ * The class {@code IndexStoreTimings} defines a test that compares the {@link IndexStore}
+ * implementations that keep the index in memory. Each store is used to index {@code dart:html}
+ * and the libraries visible in it, and the time required to index the units, the amount of memory
+ * retained by the store and the time required to find the references to every element referenced
+ * in the units are measured. It was used to measure the effect of keeping the locations encoded
+ * as integers in the {@link PackedIndexStoreImpl}.
+ */
+public class IndexStoreTimings extends TestCase {
+  /**
+   * The abstract class {@code StoreFactory} defines the behavior of objects that create the stores
+   * being measured.
+   */
+  private abstract static class StoreFactory {
+    /**
+     * Return a newly created empty store.
+     * 
+     * @return the store that was created
+     */
+    public abstract IndexStore newStore();
+  }
+
+  /**
+   * The number of times each measurement is repeated.
+   */
+  private static final int ITERATION_COUNT = 5;
+
+  /**
+   * The relationships used to query the stores.
+   */
+  private static final Relationship[] RELATIONSHIPS = {
+      IndexConstants.IS_REFERENCED_BY, IndexConstants.IS_REFERENCED_BY_QUALIFIED,
+      IndexConstants.IS_REFERENCED_BY_UNQUALIFIED, IndexConstants.IS_INVOKED_BY_QUALIFIED,
+      IndexConstants.IS_INVOKED_BY_UNQUALIFIED, IndexConstants.IS_READ_BY,
+      IndexConstants.IS_WRITTEN_BY};
+
+  /**
+   * Return the number of bytes of the heap that are currently used.
+   * 
+   * @return the number of bytes of the heap that are currently used
+   */
+  private static long getUsedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  public void test_indexHtml() throws Exception {
+    DirectoryBasedDartSdk sdk = new DirectoryBasedDartSdk(
+        DirectoryBasedDartSdk.getDefaultSdkDirectory());
+    AnalysisContext context = sdk.getContext();
+    LibraryElement htmlLibrary = context.computeLibraryElement(sdk.mapDartUri("dart:html"));
+    ArrayList<CompilationUnit> units = new ArrayList<CompilationUnit>();
+    for (LibraryElement library : htmlLibrary.getVisibleLibraries()) {
+      for (CompilationUnitElement unitElement : library.getUnits()) {
+        units.add(context.resolveCompilationUnit(unitElement.getSource(), library));
+      }
+    }
+    final LinkedHashSet<Element> elements = new LinkedHashSet<Element>();
+    for (CompilationUnit unit : units) {
+      unit.accept(new RecursiveAstVisitor<Void>() {
+        @Override
+        public Void visitSimpleIdentifier(SimpleIdentifier node) {
+          Element element = node.getStaticElement();
+          if (element != null) {
+            elements.add(element);
+          }
+          return null;
+        }
+      });
+    }
+    System.out.println("Indexing " + units.size() + " units, querying " + elements.size()
+        + " elements");
+    measure("MemoryIndexStoreImpl", new StoreFactory() {
+      @Override
+      public IndexStore newStore() {
+        return new MemoryIndexStoreImpl();
+      }
+    }, context, units, elements);
+    measure("SplitIndexStoreImpl", new StoreFactory() {
+      @Override
+      public IndexStore newStore() {
+        return new SplitIndexStoreImpl(new MemoryNodeManager());
+      }
+    }, context, units, elements);
+    measure("PackedIndexStoreImpl", new StoreFactory() {
+      @Override
+      public IndexStore newStore() {
+        return new PackedIndexStoreImpl();
+      }
+    }, context, units, elements);
+  }
+
+  /**
+   * Index the given units into a newly created store and return the store.
+   * 
+   * @param factory the factory used to create the store
+   * @param context the context in which the units were resolved
+   * @param units the units to be indexed
+   * @return the store containing the index of the units
+   */
+  private IndexStore index(StoreFactory factory, AnalysisContext context,
+      ArrayList<CompilationUnit> units) {
+    IndexStore store = factory.newStore();
+    for (CompilationUnit unit : units) {
+      if (store.aboutToIndexDart(context, unit.getElement())) {
+        unit.accept(new IndexContributor(store));
+        store.doneIndex();
+      }
+    }
+    return store;
+  }
+
+  /**
+   * Measure and print the time required to index the given units, the memory retained by the
+   * store and the time required to query the relationships of the given elements.
+   * 
+   * @param description the description of the store being measured
+   * @param factory the factory used to create the stores
+   * @param context the context in which the units were resolved
+   * @param units the units to be indexed
+   * @param elements the elements whose relationships are to be queried
+   */
+  private void measure(String description, StoreFactory factory, AnalysisContext context,
+      ArrayList<CompilationUnit> units, LinkedHashSet<Element> elements) {
+    // Warm-up
+    query(index(factory, context, units), elements);
+    // Measured
+    long indexTime = 0L;
+    long queryTime = 0L;
+    long memory = 0L;
+    int locationCount = 0;
+    for (int i = 0; i < ITERATION_COUNT; i++) {
+      long usedBefore = getUsedMemory();
+      long startTime = System.currentTimeMillis();
+      IndexStore store = index(factory, context, units);
+      indexTime += System.currentTimeMillis() - startTime;
+      memory += getUsedMemory() - usedBefore;
+      startTime = System.currentTimeMillis();
+      locationCount = query(store, elements);
+      queryTime += System.currentTimeMillis() - startTime;
+    }
+    System.out.println(description + ": indexed in " + (indexTime / ITERATION_COUNT) + " ms, "
+        + (memory / ITERATION_COUNT / 1024L) + " KB retained, " + locationCount
+        + " locations queried in " + (queryTime / ITERATION_COUNT) + " ms");
+  }
+
+  /**
+   * Query the given store for the relationships of the given elements and return the number of
+   * locations that were found.
+   * 
+   * @param store the store to be queried
+   * @param elements the elements whose relationships are to be queried
+   * @return the number of locations that were found
+   */
+  private int query(IndexStore store, LinkedHashSet<Element> elements) {
+    int locationCount = 0;
+    for (Element element : elements) {
+      for (Relationship relationship : RELATIONSHIPS) {
+        locationCount += store.getRelationships(element, relationship).length;
+      }
+    }
+    return locationCount;
+  }
+}
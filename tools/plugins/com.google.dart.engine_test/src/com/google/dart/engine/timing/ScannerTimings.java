@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.timing;
+
+import com.google.dart.engine.error.AnalysisErrorListener;
+import com.google.dart.engine.scanner.CharSequenceReader;
+import com.google.dart.engine.scanner.Scanner;
+import com.google.dart.engine.scanner.Token;
+import com.google.dart.engine.scanner.TokenType;
+import com.google.dart.engine.sdk.DirectoryBasedDartSdk;
+import com.google.dart.engine.utilities.io.FileUtilities;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+
+/**
+ * The class {@code ScannerTimings} defines a test that measures the number of tokens per second
+ * produced when scanning all of the Dart files in the SDK library directory, and, when the virtual
+ * machine supports it, the number of bytes allocated per identifier token. It was used to measure
+ * the effect of canonicalizing identifiers with a {@code StringTable} rather than by creating a
+ * substring for every identifier and interning it.
+ */
+public class ScannerTimings extends TestCase {
+  /**
+   * The number of times the sources are scanned for each measurement.
+   */
+  private static final int ITERATIONS = 20;
+
+  public void test_scan() throws Exception {
+    ArrayList<String> contents = new ArrayList<String>();
+    addContents(contents, DirectoryBasedDartSdk.getDefaultSdk().getLibraryDirectory());
+    // Warm-up
+    scan(contents);
+    // Measured
+    long allocatedBefore = getAllocatedBytes();
+    long start = System.nanoTime();
+    long tokenCount = 0;
+    long identifierCount = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long[] counts = scan(contents);
+      tokenCount += counts[0];
+      identifierCount += counts[1];
+    }
+    long time = Math.max((System.nanoTime() - start) / 1000000L, 1L);
+    long allocated = getAllocatedBytes() - allocatedBefore;
+    System.out.println(contents.size() + " files, " + tokenCount + " tokens in " + time + " ms ("
+        + (tokenCount * 1000L / time) + " tokens/s)");
+    if (allocatedBefore >= 0) {
+      System.out.println(allocated + " bytes allocated (" + (allocated / tokenCount)
+          + " bytes/token, " + identifierCount + " identifiers)");
+    }
+  }
+
+  /**
+   * Recursively add the contents of the Dart files in the given directory to the given list.
+   * 
+   * @param contents the list to which the contents are to be added
+   * @param directory the directory containing the files to be read
+   */
+  private void addContents(ArrayList<String> contents, File directory) throws Exception {
+    File[] children = directory.listFiles();
+    if (children == null) {
+      return;
+    }
+    for (File child : children) {
+      if (child.isDirectory()) {
+        addContents(contents, child);
+      } else if (child.getName().endsWith(".dart")) {
+        contents.add(FileUtilities.getContents(child));
+      }
+    }
+  }
+
+  /**
+   * Return the number of bytes allocated by the current thread, or {@code -1} if the virtual
+   * machine does not support measuring allocation.
+   * 
+   * @return the number of bytes allocated by the current thread
+   */
+  private long getAllocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      long threadId = Thread.currentThread().getId();
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(threadId);
+    }
+    return -1L;
+  }
+
+  /**
+   * Scan each of the given sources, returning the number of tokens and the number of identifiers
+   * that were produced.
+   * 
+   * @param contents the contents of the sources to be scanned
+   * @return an array containing the number of tokens and the number of identifiers
+   */
+  private long[] scan(ArrayList<String> contents) {
+    long[] counts = new long[2];
+    for (String content : contents) {
+      Scanner scanner = new Scanner(
+          null,
+          new CharSequenceReader(content),
+          AnalysisErrorListener.NULL_LISTENER);
+      Token token = scanner.tokenize();
+      while (token.getType() != TokenType.EOF) {
+        counts[0]++;
+        if (token.getType() == TokenType.IDENTIFIER) {
+          counts[1]++;
+        }
+        token = token.getNext();
+      }
+    }
+    return counts;
+  }
+}
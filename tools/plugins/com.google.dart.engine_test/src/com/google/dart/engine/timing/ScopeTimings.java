@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.timing;
+
+import com.google.dart.engine.ast.CompilationUnit;
+import com.google.dart.engine.ast.SimpleIdentifier;
+import com.google.dart.engine.ast.visitor.RecursiveAstVisitor;
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.element.CompilationUnitElement;
+import com.google.dart.engine.element.LibraryElement;
+import com.google.dart.engine.error.AnalysisErrorListener;
+import com.google.dart.engine.internal.scope.LibraryScope;
+import com.google.dart.engine.sdk.DirectoryBasedDartSdk;
+import com.google.dart.engine.source.Source;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+
+/**
+ * The class {@code ScopeTimings} defines tests that measure the throughput of the scopes used by
+ * the {@code ScopedVisitor}s. The first looks up every identifier in {@code dart:html} in a newly
+ * created library scope, which is dominated by the look-up of imported names. The second measures
+ * the time required to resolve {@code dart:html}, which is dominated by the creation of block and
+ * function scopes and the look-up of local names. They were used to measure the effect of
+ * flattening the imported namespaces into a single table and of using array-backed tables for the
+ * names defined in a scope.
+ */
+public class ScopeTimings extends TestCase {
+  /**
+   * The number of times each measurement is repeated.
+   */
+  private static final int ITERATION_COUNT = 5;
+
+  public void test_lookupIdentifiers() throws Exception {
+    DirectoryBasedDartSdk sdk = new DirectoryBasedDartSdk(
+        DirectoryBasedDartSdk.getDefaultSdkDirectory());
+    AnalysisContext context = sdk.getContext();
+    LibraryElement library = context.computeLibraryElement(sdk.mapDartUri("dart:html"));
+    final ArrayList<SimpleIdentifier> identifiers = new ArrayList<SimpleIdentifier>();
+    addIdentifiers(identifiers, context, library, library.getDefiningCompilationUnit());
+    for (CompilationUnitElement part : library.getParts()) {
+      addIdentifiers(identifiers, context, library, part);
+    }
+    // Warm-up
+    lookUp(library, identifiers);
+    // Measured
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATION_COUNT; i++) {
+      lookUp(library, identifiers);
+    }
+    long time = Math.max((System.nanoTime() - start) / 1000000L, 1L);
+    long lookupCount = (long) identifiers.size() * ITERATION_COUNT;
+    System.out.println(lookupCount + " identifiers looked up in " + time + " ms ("
+        + (lookupCount * 1000L / time) + " lookups/s)");
+  }
+
+  public void test_resolveHtml() throws Exception {
+    // Warm-up
+    resolveHtml();
+    // Measured
+    long totalTime = 0L;
+    for (int i = 0; i < ITERATION_COUNT; i++) {
+      totalTime += resolveHtml();
+    }
+    System.out.println("Resolved dart:html " + ITERATION_COUNT + " times in " + totalTime + " ms");
+  }
+
+  /**
+   * Add to the given list all of the simple identifiers in the resolved AST for the given
+   * compilation unit.
+   * 
+   * @param identifiers the list to which the identifiers are to be added
+   * @param context the context in which the library was resolved
+   * @param library the library containing the compilation unit
+   * @param unitElement the element representing the compilation unit
+   */
+  private void addIdentifiers(final ArrayList<SimpleIdentifier> identifiers,
+      AnalysisContext context, LibraryElement library, CompilationUnitElement unitElement)
+      throws Exception {
+    CompilationUnit unit = context.resolveCompilationUnit(unitElement.getSource(), library);
+    unit.accept(new RecursiveAstVisitor<Void>() {
+      @Override
+      public Void visitSimpleIdentifier(SimpleIdentifier node) {
+        identifiers.add(node);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Create a scope for the given library and look up each of the given identifiers in it.
+   * 
+   * @param library the library whose scope is to be used
+   * @param identifiers the identifiers to be looked up
+   */
+  private void lookUp(LibraryElement library, ArrayList<SimpleIdentifier> identifiers) {
+    LibraryScope scope = new LibraryScope(library, AnalysisErrorListener.NULL_LISTENER);
+    for (SimpleIdentifier identifier : identifiers) {
+      scope.lookup(identifier, library);
+    }
+  }
+
+  /**
+   * Return the number of milliseconds required to resolve {@code dart:html} in a newly created SDK
+   * context.
+   * 
+   * @return the number of milliseconds required to resolve the library
+   */
+  private long resolveHtml() throws Exception {
+    DirectoryBasedDartSdk sdk = new DirectoryBasedDartSdk(
+        DirectoryBasedDartSdk.getDefaultSdkDirectory());
+    AnalysisContext context = sdk.getContext();
+    Source source = sdk.mapDartUri("dart:html");
+    long startTime = System.currentTimeMillis();
+    context.computeLibraryElement(source);
+    return System.currentTimeMillis() - startTime;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.timing;
+
+import com.google.dart.engine.context.AnalysisContext;
+import com.google.dart.engine.context.AnalysisException;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
+import com.google.dart.engine.internal.type.TypeRelationCache;
+import com.google.dart.engine.sdk.DirectoryBasedDartSdk;
+import com.google.dart.engine.source.Source;
+
+import junit.framework.TestCase;
+
+/**
+ * The class {@code TypeRelationTimings} defines a test that measures the time required to resolve
+ * {@code dart:html} (and the libraries it depends on) with and without the answers to questions
+ * about the relationships between types being memoized by a {@link TypeRelationCache}.
+ */
+public class TypeRelationTimings extends TestCase {
+  /**
+   * The number of times the library is resolved for each measurement.
+   */
+  private static final int ITERATION_COUNT = 5;
+
+  /**
+   * The number of times an answer was found in the caches of the contexts that were used since this
+   * count was last reset.
+   */
+  private int hitCount = 0;
+
+  /**
+   * The number of times an answer was not found in the caches of the contexts that were used since
+   * this count was last reset.
+   */
+  private int missCount = 0;
+
+  public void test_resolveHtml() throws Exception {
+    boolean enabled = TypeRelationCache.isEnabled();
+    try {
+      // Warm-up
+      measure(true);
+      measure(false);
+      // Measured
+      long withoutCache = measure(false);
+      hitCount = 0;
+      missCount = 0;
+      long withCache = measure(true);
+      System.out.println("Resolved dart:html " + ITERATION_COUNT + " times in " + withoutCache
+          + " ms without the cache and " + withCache + " ms with the cache");
+      System.out.println("Type relation cache: " + hitCount + " hits, " + missCount + " misses");
+    } finally {
+      TypeRelationCache.setEnabled(enabled);
+    }
+  }
+
+  /**
+   * Return the number of milliseconds required to resolve {@code dart:html}
+   * {@link #ITERATION_COUNT} times, each time in a newly created SDK context.
+   * 
+   * @param enabled {@code true} if the answers are to be memoized
+   * @return the number of milliseconds required to resolve the library
+   */
+  private long measure(boolean enabled) throws AnalysisException {
+    TypeRelationCache.setEnabled(enabled);
+    long totalTime = 0L;
+    for (int i = 0; i < ITERATION_COUNT; i++) {
+      DirectoryBasedDartSdk sdk = new DirectoryBasedDartSdk(
+          DirectoryBasedDartSdk.getDefaultSdkDirectory());
+      AnalysisContext context = sdk.getContext();
+      Source source = sdk.mapDartUri("dart:html");
+      long startTime = System.currentTimeMillis();
+      context.computeLibraryElement(source);
+      totalTime += System.currentTimeMillis() - startTime;
+      TypeRelationCache cache = ((InternalAnalysisContext) context).getTypeRelationCache();
+      hitCount += cache.getHitCount();
+      missCount += cache.getMissCount();
+    }
+    return totalTime;
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2014, the Dart project authors.
+ * 
+ * Licensed under the Eclipse Public License v1.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.dart.engine.utilities.general;
+
+import junit.framework.TestCase;
+
+public class CancellationTokenTest extends TestCase {
+  public void test_cancel() {
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    assertTrue(token.isCancelled());
+    // cancelling again has no effect
+    token.cancel();
+    assertTrue(token.isCancelled());
+  }
+
+  public void test_cancel_child() {
+    CancellationToken parent = new CancellationToken();
+    CancellationToken child = new CancellationToken(parent);
+    child.cancel();
+    assertTrue(child.isCancelled());
+    // the parent is not cancelled
+    assertFalse(parent.isCancelled());
+  }
+
+  public void test_cancel_parent() {
+    CancellationToken parent = new CancellationToken();
+    CancellationToken child = new CancellationToken(parent);
+    assertFalse(child.isCancelled());
+    parent.cancel();
+    assertTrue(child.isCancelled());
+  }
+
+  public void test_new() {
+    CancellationToken token = new CancellationToken();
+    assertFalse(token.isCancelled());
+  }
+}
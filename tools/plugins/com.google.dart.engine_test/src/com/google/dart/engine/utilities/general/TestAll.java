@@ -22,6 +22,7 @@ public class TestAll {
   public static Test suite() {
     TestSuite suite = new ExtendedTestSuite("Tests in " + TestAll.class.getPackage().getName());
     suite.addTestSuite(ArrayUtilitiesTest.class);
+    suite.addTestSuite(CancellationTokenTest.class);
     suite.addTestSuite(CharOperationTest.class);
     suite.addTestSuite(ObjectUtilitiesTest.class);
     suite.addTestSuite(StringUtilitiesTest.class);
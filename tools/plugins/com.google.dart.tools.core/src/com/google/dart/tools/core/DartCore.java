@@ -365,6 +365,16 @@ public class DartCore extends Plugin implements DartSdkListener {
    */
   private static ProjectManager projectManager;
 
+  /**
+   * The {@link IndexStore} used by the {@link #projectManager}'s index.
+   */
+  private static IndexStore indexStore;
+
+  /**
+   * The directory in which the {@link #indexStore} keeps its data.
+   */
+  private static File indexDirectory;
+
   /**
    * Used to synchronize access to {@link #projectManager}.
    */
@@ -937,9 +947,9 @@ public class DartCore extends Plugin implements DartSdkListener {
         final Index index;
         {
           File stateDir = getPlugin().getStateLocation().toFile();
-          File indexDir = new File(stateDir, "index");
-          indexDir.mkdirs();
-          IndexStore indexStore = IndexFactory.newFileIndexStore(indexDir);
+          indexDirectory = new File(stateDir, "index");
+          indexDirectory.mkdirs();
+          indexStore = IndexFactory.newFileIndexStore(indexDirectory);
           index = IndexFactory.newIndex(indexStore);
           Thread thread = new Thread() {
             @Override
@@ -1744,6 +1754,18 @@ public class DartCore extends Plugin implements DartSdkListener {
     }
   }
 
+  /**
+   * Stop the index and save its state, so that it can be restored in the next session.
+   */
+  private static void saveIndex() {
+    synchronized (projectManagerLock) {
+      if (projectManager != null && indexStore != null) {
+        projectManager.getIndex().stop();
+        IndexFactory.saveFileIndexStore(indexStore, indexDirectory);
+      }
+    }
+  }
+
   private IEclipsePreferences prefs;
 
   /**
@@ -2036,6 +2058,9 @@ public class DartCore extends Plugin implements DartSdkListener {
       }
     });
 
+    // The AST structures cached by all of the contexts together should fit in a quarter of the heap
+    analysisEngine.getCacheMemoryBudget().setMaxBytes(Runtime.getRuntime().maxMemory() / 4);
+
     DartSdkManager.getManager().addSdkListener(this);
     if (!DartCoreDebug.ENABLE_ANALYSIS_SERVER) {
       getProjectManager().hookListeners();
@@ -2051,6 +2076,8 @@ public class DartCore extends Plugin implements DartSdkListener {
     try {
       if (!DartCoreDebug.ENABLE_ANALYSIS_SERVER) {
         getProjectManager().stop();
+        saveIndex();
+        DartSdkManager.getManager().getSdk().saveSummary();
       }
 
       synchronized (analysisServerLock) {
@@ -90,6 +90,9 @@ public class DartCoreDebug {
   public static final boolean ANALYSIS_SERVER_PRINT_TO_CONSOLE = isOptionTrue("experimental/analysisServer/printToConsole");
   public static final boolean ANALYSIS_SERVER_PROFILE = isOptionTrue("experimental/analysisServer/profile");
   public static final boolean NO_PUB_PACKAGES = isOptionTrue("experimental/noPubPackages");
+  public static final boolean PARALLEL_ANALYSIS = isOptionTrue("experimental/parallelAnalysis");
+  public static final boolean DISABLE_INCREMENTAL_ANALYSIS = isOptionTrue("experimental/disableIncrementalAnalysis");
+  public static final boolean INCREMENTAL_ANALYSIS_VALIDATION = isOptionTrue("experimental/incrementalAnalysisValidation");
   // The defaults are duplicated for tests in
   // editor/tools/plugins/com.google.dart.engine_test/src/com/google/dart/engine/resolver/ResolverTestCase.java
   public static final boolean ENABLE_UNION_TYPES = isOptionTrue("experimental/enableUnionTypes");
@@ -138,6 +141,9 @@ public class DartCoreDebug {
     instrumentation.metric("ENABLE_TAB_COLORING", ENABLE_TAB_COLORING);
     instrumentation.metric("ENABLE_HTML_VALIDATION", ENABLE_HTML_VALIDATION);
     instrumentation.metric("NO_PUB_PACKAGES", NO_PUB_PACKAGES);
+    instrumentation.metric("PARALLEL_ANALYSIS", PARALLEL_ANALYSIS);
+    instrumentation.metric("DISABLE_INCREMENTAL_ANALYSIS", DISABLE_INCREMENTAL_ANALYSIS);
+    instrumentation.metric("INCREMENTAL_ANALYSIS_VALIDATION", INCREMENTAL_ANALYSIS_VALIDATION);
 
     instrumentation.metric("DISABLE_MARK_OCCURRENCES", DISABLE_MARK_OCCURRENCES);
 
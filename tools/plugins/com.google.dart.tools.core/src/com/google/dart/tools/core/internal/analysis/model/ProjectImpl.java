@@ -872,7 +872,11 @@ public class ProjectImpl extends ContextManagerImpl implements Project {
     AnalysisOptionsImpl options = new AnalysisOptionsImpl();
     options.setHint(DartCore.getPlugin().isHintsEnabled());
     options.setDart2jsHint(DartCore.getPlugin().isHintsDart2JSEnabled());
-    options.setIncremental(DartCoreDebug.EXPERIMENTAL);
+    options.setIncremental(!DartCoreDebug.DISABLE_INCREMENTAL_ANALYSIS);
+    options.setIncrementalValidation(DartCoreDebug.INCREMENTAL_ANALYSIS_VALIDATION);
+    if (DartCoreDebug.PARALLEL_ANALYSIS) {
+      options.setParallelTaskCount(Runtime.getRuntime().availableProcessors());
+    }
 
     AnalysisEngine.getInstance().setEnableUnionTypes(DartCoreDebug.ENABLE_UNION_TYPES);
     AnalysisEngine.getInstance().setStrictUnionTypes(DartCoreDebug.STRICT_UNION_TYPES);
@@ -890,6 +894,9 @@ public class ProjectImpl extends ContextManagerImpl implements Project {
 //      context.applyChanges(changeSet);
     }
 
+    // let the index use the information restored for this container in the previous session
+    index.addContext(context, container.getFullPath().toPortableString());
+
     return context;
   }
 
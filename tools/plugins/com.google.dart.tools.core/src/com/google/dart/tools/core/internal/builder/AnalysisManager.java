@@ -28,9 +28,21 @@ import java.util.ArrayList;
 /**
  * Instances of {@code AnalysisManager} manage a queue of {@link AnalysisWorker} instances and
  * perform analysis via those instances.
+ * <p>
+ * Workers whose context has priority sources (see
+ * {@link AnalysisContext#setAnalysisPriorityOrder(java.util.List)}) are performed before other
+ * workers. A worker that has been performing analysis for longer than the time slice yields to the
+ * other queued workers of the same or higher priority and is added to the end of the queue, so that
+ * analysis of a large context cannot starve the context containing the files being edited.
  */
 public class AnalysisManager {
 
+  /**
+   * The default number of milliseconds that a worker may perform analysis before yielding to other
+   * queued workers.
+   */
+  public static final long DEFAULT_TIME_SLICE = 200L;
+
   /**
    * The instance of {@link AnalysisManager} typically used for background processing.
    */
@@ -65,6 +77,12 @@ public class AnalysisManager {
    */
   private boolean stopped = false;
 
+  /**
+   * The number of milliseconds that a worker may perform analysis before yielding to other queued
+   * workers. Synchronize against {@link backgroundQueue} before accessing this field.
+   */
+  private long timeSlice = DEFAULT_TIME_SLICE;
+
   /**
    * Add the given worker to the queue of workers that will be processed.
    * 
@@ -92,6 +110,8 @@ public class AnalysisManager {
 
   /**
    * Answer the next queued worker or {@code null} if the processor is paused or the queue is empty.
+   * The first worker whose context has priority sources is returned if there is one, otherwise the
+   * first worker in the queue.
    * 
    * @return the next worker or {@code null}
    */
@@ -102,6 +122,12 @@ public class AnalysisManager {
         backgroundQueue.notifyAll();
         return null;
       }
+      int count = backgroundQueue.size();
+      for (int index = 0; index < count; index++) {
+        if (backgroundQueue.get(index).hasPrioritySources()) {
+          return backgroundQueue.remove(index);
+        }
+      }
       return backgroundQueue.remove(0);
     }
   }
@@ -117,6 +143,18 @@ public class AnalysisManager {
     }
   }
 
+  /**
+   * Answer the number of milliseconds that a worker may perform analysis before yielding to other
+   * queued workers.
+   * 
+   * @return the time slice in milliseconds
+   */
+  public long getTimeSlice() {
+    synchronized (backgroundQueue) {
+      return timeSlice;
+    }
+  }
+
   /**
    * For each queued {@link AnalysisWorker}, remove that worker from the queue and call the
    * {@link AnalysisWorker#performAnalysis(AnalysisManager)} to perform analysis. Continue until the
@@ -169,6 +207,60 @@ public class AnalysisManager {
     }
   }
 
+  /**
+   * Add the given worker, which yielded before completing its analysis, to the end of the queue of
+   * workers that will be processed.
+   * 
+   * @param worker the worker to add (not {@code null})
+   */
+  public void requeueWorker(AnalysisWorker worker) {
+    synchronized (backgroundQueue) {
+      if (!stopped && !backgroundQueue.contains(worker)) {
+        backgroundQueue.add(worker);
+        startBackgroundAnalysis();
+      }
+    }
+  }
+
+  /**
+   * Set the number of milliseconds that a worker may perform analysis before yielding to other
+   * queued workers.
+   * 
+   * @param milliseconds the time slice in milliseconds
+   */
+  public void setTimeSlice(long milliseconds) {
+    synchronized (backgroundQueue) {
+      timeSlice = milliseconds;
+    }
+  }
+
+  /**
+   * Answer {@code true} if the given worker, which started its current time slice at the given
+   * time, should stop performing analysis so that another queued worker can be processed. A worker
+   * yields once its time slice has elapsed if there is a queued worker for a different context and
+   * either the given worker's context has no priority sources or the queued worker's context does.
+   * 
+   * @param worker the worker performing analysis (not {@code null})
+   * @param sliceStart the time at which the worker started its current time slice
+   * @return {@code true} if the worker should yield
+   */
+  public boolean shouldYield(AnalysisWorker worker, long sliceStart) {
+    synchronized (backgroundQueue) {
+      if (stopped || System.currentTimeMillis() - sliceStart < timeSlice) {
+        return false;
+      }
+      AnalysisContext context = worker.getContext();
+      boolean priority = worker.hasPrioritySources();
+      for (AnalysisWorker queuedWorker : backgroundQueue) {
+        if (queuedWorker.getContext() != context
+            && (!priority || queuedWorker.hasPrioritySources())) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   /**
    * Start a job to perform background analysis if it has not already been started.
    */
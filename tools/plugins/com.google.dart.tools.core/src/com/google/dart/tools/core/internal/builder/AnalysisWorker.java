@@ -20,6 +20,7 @@ import com.google.dart.engine.context.ChangeNotice;
 import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.internal.context.AnalysisOptionsImpl;
+import com.google.dart.engine.internal.context.InternalAnalysisContext;
 import com.google.dart.engine.sdk.DartSdk;
 import com.google.dart.engine.source.Source;
 import com.google.dart.engine.utilities.source.LineInfo;
@@ -34,6 +35,7 @@ import com.google.dart.tools.core.analysis.model.ResolvedHtmlEvent;
 import com.google.dart.tools.core.analysis.model.ResourceMap;
 import com.google.dart.tools.core.model.DartSdkManager;
 import com.google.dart.tools.core.utilities.io.PrintStringWriter;
+import com.google.dart.tools.core.utilities.performance.PerformanceManager;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
@@ -147,6 +149,12 @@ public class AnalysisWorker {
   private static final int WORKING_CACHE_512_MEMORY = 900 * 1024 * 1024;
   private static final int WORKING_CACHE_512_SIZE = 512;
 
+  /**
+   * The name of the metric recording the time between the creation of a worker whose context has
+   * priority sources and the first errors reported for one of those sources.
+   */
+  private static final String PRIORITY_ERRORS_METRIC = "analysis.priorityErrorsLatency";
+
   /**
    * Objects to be notified when each compilation unit has been resolved. Contents of this array
    * will not change, but the array itself may be replaced. Synchronize against
@@ -274,6 +282,13 @@ public class AnalysisWorker {
    */
   private final HtmlEvent htmlEvent;
 
+  /**
+   * The timer measuring the latency of the errors for the priority sources of the context, or
+   * {@code null} if the context had no priority sources when this worker was created or if errors
+   * have already been reported for one of them.
+   */
+  private PerformanceManager.Timer priorityErrorsTimer;
+
   /**
    * Flag to prevent log from being saturated with exceptions.
    */
@@ -316,6 +331,9 @@ public class AnalysisWorker {
     this.contextManager.addWorker(this);
     this.event = new Event(context, resourceMap);
     this.htmlEvent = new HtmlEvent(context, resourceMap);
+    if (hasPrioritySources()) {
+      priorityErrorsTimer = PerformanceManager.getInstance().start(PRIORITY_ERRORS_METRIC);
+    }
   }
 
   /**
@@ -329,9 +347,22 @@ public class AnalysisWorker {
     }
   }
 
+  /**
+   * Answer {@code true} if the context being processed by the receiver has priority sources.
+   * 
+   * @return {@code true} if the context has priority sources
+   */
+  public boolean hasPrioritySources() {
+    AnalysisContext context = getContext();
+    return context instanceof InternalAnalysisContext
+        && ((InternalAnalysisContext) context).getPrioritySources().length > 0;
+  }
+
   /**
    * Perform analysis by repeatedly calling {@link AnalysisContext#performAnalysisTask()} and update
-   * both the index and the error markers based upon the analysis results.
+   * both the index and the error markers based upon the analysis results. If a manager is given
+   * and it indicates that the receiver should yield to other workers, the receiver is added back
+   * to the manager's queue and this method returns before the analysis is complete.
    * 
    * @param manager the {@link AnalysisManager} or {@code null} if is performed without a manager
    */
@@ -368,6 +399,8 @@ public class AnalysisWorker {
     setCacheSize(context, WORKING_CACHE_SIZE);
 
     boolean analysisComplete = false;
+    boolean yielded = false;
+    long sliceStart = System.currentTimeMillis();
     while (true) {
 
       // Check if the context has been set to null indicating that analysis should stop
@@ -394,6 +427,18 @@ public class AnalysisWorker {
       // Process changes and allow subclasses to check results
       processChanges(context, changes);
       checkResults(context);
+
+      // Yield to other workers if this worker has used its time slice
+      if (manager != null && manager.shouldYield(this, sliceStart)) {
+        yielded = true;
+        break;
+      }
+    }
+
+    if (yielded) {
+      markerManager.done();
+      manager.requeueWorker(this);
+      return;
     }
 
     setCacheSize(context, IDLE_CACHE_SIZE);
@@ -434,6 +479,24 @@ public class AnalysisWorker {
   protected void checkResults(AnalysisContext context) {
   }
 
+  /**
+   * Answer {@code true} if the given source is one of the priority sources of the given context.
+   * 
+   * @param context the analysis context containing the source (not {@code null})
+   * @param source the source being tested
+   * @return {@code true} if the source is a priority source
+   */
+  private boolean isPrioritySource(AnalysisContext context, Source source) {
+    if (context instanceof InternalAnalysisContext) {
+      for (Source prioritySource : ((InternalAnalysisContext) context).getPrioritySources()) {
+        if (prioritySource.equals(source)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * Notify those interested that the analysis is complete.
    */
@@ -534,6 +597,10 @@ public class AnalysisWorker {
       // If errors are available, then queue the errors to be translated to markers
       AnalysisError[] errors = change.getErrors();
       if (errors != null) {
+        if (priorityErrorsTimer != null && isPrioritySource(context, source)) {
+          priorityErrorsTimer.end();
+          priorityErrorsTimer = null;
+        }
         if (res == null) {
           // TODO (danrubel): log unmatched sources once context 
           // only returns errors for added sources
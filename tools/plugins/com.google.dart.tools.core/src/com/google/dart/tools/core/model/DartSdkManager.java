@@ -101,6 +101,12 @@ public class DartSdkManager {
 
   private static final String SDK_DIR_NAME = "dart-sdk";
 
+  /**
+   * The name of the file, in the plugin's state location, containing the summary of the SDK's
+   * resolved libraries.
+   */
+  private static final String SDK_SUMMARY_FILE_NAME = "sdk.summary"; //$NON-NLS-1$
+
   private static DartSdkManager manager = new DartSdkManager();
 
   public static File getEclipseInstallationDirectory() {
@@ -398,6 +404,9 @@ public class DartSdkManager {
     }
     if (sdkDir != null) {
       sdk = new DirectoryBasedDartSdk(sdkDir);
+      sdk.setSummaryFile(new File(
+          DartCore.getPlugin().getStateLocation().toFile(),
+          SDK_SUMMARY_FILE_NAME));
       // create an artificial context for SDK
       if (DartCoreDebug.ENABLE_ANALYSIS_SERVER) {
         // TODO(scheglov) restore or remove for the new API
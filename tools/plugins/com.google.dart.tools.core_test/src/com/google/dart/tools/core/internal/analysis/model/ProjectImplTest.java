@@ -51,6 +51,9 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -141,11 +144,28 @@ public class ProjectImplTest extends ContextManagerImplTest {
     projectContainer.remove("web");
     project.discardContextsIn(webContainer);
 
+    verify(index, atLeastOnce()).addContext(any(AnalysisContext.class), anyString());
     verifyNoMoreInteractions(index);
     assertEquals(1, project.getPubFolders().length);
     assertSame(pubFolder, project.getPubFolder(projectContainer));
   }
 
+  /**
+   * Verify that contexts are added to the index with the paths of their containers
+   */
+  public void test_getContext_addedToIndex() {
+    ProjectImpl project = newTarget();
+    AnalysisContext projectContext = project.getContext(projectContainer);
+    AnalysisContext appContext = project.getContext(appContainer);
+    assertNotSame(projectContext, appContext);
+    verify(index, atLeastOnce()).addContext(
+        projectContext,
+        projectContainer.getFullPath().toPortableString());
+    verify(index, atLeastOnce()).addContext(
+        appContext,
+        appContainer.getFullPath().toPortableString());
+  }
+
   public void test_getContext_folder() {
     ProjectImpl project = newTarget();
     projectContainer.remove(PUBSPEC_FILE_NAME);
@@ -553,6 +573,7 @@ public class ProjectImplTest extends ContextManagerImplTest {
     projectContainer.remove(PUBSPEC_FILE_NAME);
     project.pubspecRemoved(projectContainer);
 
+    verify(index, atLeastOnce()).addContext(any(AnalysisContext.class), anyString());
     verifyNoMoreInteractions(index);
     assertEquals(1, project.getPubFolders().length);
     assertSame(appContainer, project.getPubFolder(appContainer).getResource());
@@ -46,6 +46,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
@@ -211,6 +212,9 @@ public class ProjectManagerIgnoreListenerTest extends TestCase {
 
     project = projectManager.getProject(projectContainer);
     assertNotNull(project);
+
+    // the contexts were added to the index when they were created
+    verify(index, atLeast(1)).addContext(any(AnalysisContext.class), anyString());
   }
 
   @Override
@@ -13,6 +13,7 @@
  */
 package com.google.dart.tools.core.internal.builder;
 
+import com.google.dart.engine.context.AnalysisContext;
 import com.google.dart.tools.core.AbstractDartCoreTest;
 import com.google.dart.tools.core.analysis.model.ContextManager;
 
@@ -25,12 +26,29 @@ public class AnalysisManagerTest extends AbstractDartCoreTest {
 
   /** Specialized worker that does not perform any actual analysis */
   private class MockWorker extends AnalysisWorker {
+    private final AnalysisContext context = mock(AnalysisContext.class);
     private int analysisCount;
+    private boolean prioritySources;
 
     public MockWorker() {
       super(mock(ContextManager.class), null);
     }
 
+    public MockWorker(boolean prioritySources) {
+      this();
+      this.prioritySources = prioritySources;
+    }
+
+    @Override
+    public AnalysisContext getContext() {
+      return context;
+    }
+
+    @Override
+    public boolean hasPrioritySources() {
+      return prioritySources;
+    }
+
     @Override
     public void performAnalysis(AnalysisManager manager) {
       analysisCount++;
@@ -85,6 +103,18 @@ public class AnalysisManagerTest extends AbstractDartCoreTest {
     assertNull(target.getNextWorker());
   }
 
+  public void test_getNextWorker_priority() throws Exception {
+    MockWorker worker1 = new MockWorker();
+    MockWorker worker2 = new MockWorker(true);
+    MockWorker worker3 = new MockWorker();
+    target.addWorker(worker1);
+    target.addWorker(worker2);
+    target.addWorker(worker3);
+    assertSame(worker2, target.getNextWorker());
+    assertSame(worker3, target.getNextWorker());
+    assertSame(worker1, target.getNextWorker());
+  }
+
   public void test_performAnalysis() throws Exception {
     MockWorker worker = new MockWorker();
     target.performAnalysis(null);
@@ -95,6 +125,38 @@ public class AnalysisManagerTest extends AbstractDartCoreTest {
     worker.assertAnalysisCount(1);
   }
 
+  public void test_requeueWorker() throws Exception {
+    MockWorker worker1 = new MockWorker();
+    MockWorker worker2 = new MockWorker();
+    target.addWorker(worker1);
+    target.requeueWorker(worker2);
+    target.requeueWorker(worker2);
+    assertEquals(2, target.getQueueWorkers().length);
+    assertSame(worker1, target.getNextWorker());
+    assertSame(worker2, target.getNextWorker());
+  }
+
+  public void test_shouldYield() throws Exception {
+    target.setTimeSlice(50L);
+    assertEquals(50L, target.getTimeSlice());
+    long now = System.currentTimeMillis();
+    MockWorker worker = new MockWorker();
+    assertFalse(target.shouldYield(worker, now - 100L));
+    target.addWorker(new MockWorker());
+    assertFalse(target.shouldYield(worker, now + 1000L));
+    assertTrue(target.shouldYield(worker, now - 100L));
+  }
+
+  public void test_shouldYield_priority() throws Exception {
+    target.setTimeSlice(0L);
+    long now = System.currentTimeMillis();
+    MockWorker worker = new MockWorker(true);
+    target.addWorker(new MockWorker());
+    assertFalse(target.shouldYield(worker, now - 100L));
+    target.addWorker(new MockWorker(true));
+    assertTrue(target.shouldYield(worker, now - 100L));
+  }
+
   public void test_startBackgroundAnalysis() throws Exception {
     final CountDownLatch latch = new CountDownLatch(1);
     MockWorker worker = new MockWorker() {
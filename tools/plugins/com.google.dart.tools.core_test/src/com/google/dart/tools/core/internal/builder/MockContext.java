@@ -20,6 +20,7 @@ import com.google.dart.engine.element.LibraryElement;
 import com.google.dart.engine.error.AnalysisError;
 import com.google.dart.engine.html.ast.HtmlUnit;
 import com.google.dart.engine.internal.cache.SourceEntry;
+import com.google.dart.engine.internal.constant.ConstantValueCache;
 import com.google.dart.engine.internal.context.AnalysisErrorInfoImpl;
 import com.google.dart.engine.internal.context.AnalysisOptionsImpl;
 import com.google.dart.engine.internal.context.InternalAnalysisContext;
@@ -28,6 +29,7 @@ import com.google.dart.engine.internal.context.TimestampedData;
 import com.google.dart.engine.internal.element.angular.AngularApplication;
 import com.google.dart.engine.internal.resolver.TypeProvider;
 import com.google.dart.engine.internal.scope.Namespace;
+import com.google.dart.engine.internal.type.TypeRelationCache;
 import com.google.dart.engine.source.ContentCache;
 import com.google.dart.engine.source.DirectoryBasedSourceContainer;
 import com.google.dart.engine.source.FileBasedSource;
@@ -361,6 +363,11 @@ public class MockContext implements InternalAnalysisContext {
     return options;
   }
 
+  @Override
+  public boolean getAnalyzeFunctionBodies(Source librarySource) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public AngularApplication getAngularApplicationWithHtml(Source htmlSource) {
     throw new UnsupportedOperationException();
@@ -371,6 +378,11 @@ public class MockContext implements InternalAnalysisContext {
     return null;
   }
 
+  @Override
+  public ConstantValueCache getConstantValueCache() {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public TimestampedData<CharSequence> getContents(Source source) throws Exception {
     String contents = contentCache.getContents(source);
@@ -411,6 +423,11 @@ public class MockContext implements InternalAnalysisContext {
     return new AnalysisErrorInfoImpl(AnalysisError.NO_ERRORS, null);
   }
 
+  @Override
+  public boolean getFunctionBodiesSkipped(Source source) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public HtmlElement getHtmlElement(Source source) {
     return null;
@@ -525,6 +542,11 @@ public class MockContext implements InternalAnalysisContext {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public TypeRelationCache getTypeRelationCache() {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public boolean isClientLibrary(Source librarySource) {
     return false;